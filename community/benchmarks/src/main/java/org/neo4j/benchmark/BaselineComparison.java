@@ -0,0 +1,366 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.lang.String.format;
+
+/**
+ * Compares the results of two benchmark runs, e.g. one on the version we run in production and one on the version we
+ * are about to upgrade to, and reports the benchmarks that got slower.
+ * <p>
+ * Both runs must have been written in the JMH CSV result format:
+ * <pre>
+ * java -jar benchmarks.jar -rf csv -rff baseline.csv
+ * java -jar benchmarks.jar -rf csv -rff current.csv
+ * java -cp benchmarks.jar org.neo4j.benchmark.BaselineComparison baseline.csv current.csv 5
+ * </pre>
+ * A benchmark has regressed if its score got worse by more than the given percentage (5 by default), and by more than
+ * the error margins of the two scores together, so noisy benchmarks aren't reported for changes within their noise.
+ * The exit code is 1 if any benchmark regressed, so the comparison can fail a build.
+ */
+public final class BaselineComparison
+{
+    static final double DEFAULT_MAX_REGRESSION_PERCENT = 5;
+
+    private BaselineComparison()
+    {
+    }
+
+    public static void main( String[] args ) throws IOException
+    {
+        if ( args.length < 2 || args.length > 3 )
+        {
+            System.err.println( "Usage: BaselineComparison <baseline.csv> <current.csv> [max regression percent]" );
+            System.exit( 2 );
+        }
+        double maxRegressionPercent = args.length == 3 ? Double.parseDouble( args[2] ) : DEFAULT_MAX_REGRESSION_PERCENT;
+        List<Change> changes = compare( readResults( new File( args[0] ) ), readResults( new File( args[1] ) ),
+                maxRegressionPercent );
+        boolean regressed = report( changes, System.out );
+        System.exit( regressed ? 1 : 0 );
+    }
+
+    /**
+     * Read benchmark results from a JMH CSV result file.
+     *
+     * @return the results by {@link Result#name() name}.
+     */
+    static Map<String,Result> readResults( File file ) throws IOException
+    {
+        List<String> lines = Files.readAllLines( file.toPath(), StandardCharsets.UTF_8 );
+        if ( lines.isEmpty() )
+        {
+            throw new IOException( "No benchmark results in " + file );
+        }
+        List<String> header = splitCsvLine( lines.get( 0 ) );
+        int benchmark = column( header, "Benchmark", file );
+        int mode = column( header, "Mode", file );
+        int score = column( header, "Score", file );
+        int error = column( header, "Score Error (99.9%)", file );
+        int unit = column( header, "Unit", file );
+
+        Map<String,Result> results = new LinkedHashMap<>();
+        for ( String line : lines.subList( 1, lines.size() ) )
+        {
+            if ( line.trim().isEmpty() )
+            {
+                continue;
+            }
+            List<String> fields = splitCsvLine( line );
+            StringBuilder name = new StringBuilder( fields.get( benchmark ) );
+            for ( int i = 0; i < header.size(); i++ )
+            {
+                if ( header.get( i ).startsWith( "Param: " ) && i < fields.size() && !fields.get( i ).isEmpty() )
+                {
+                    name.append( ':' ).append( header.get( i ).substring( "Param: ".length() ) ).append( '=' ).append( fields.get( i ) );
+                }
+            }
+            Result result = new Result( name.toString(), fields.get( mode ), parseScore( fields.get( score ) ),
+                    parseScore( fields.get( error ) ), fields.get( unit ) );
+            results.put( result.name(), result );
+        }
+        return results;
+    }
+
+    /**
+     * Compare every baseline result to the current result of the same benchmark, in the order of the baseline.
+     * Benchmarks that only exist in the current run are listed last.
+     */
+    static List<Change> compare( Map<String,Result> baseline, Map<String,Result> current, double maxRegressionPercent )
+    {
+        List<Change> changes = new ArrayList<>();
+        baseline.forEach( ( name, result ) -> changes.add( new Change( result, current.get( name ), maxRegressionPercent ) ) );
+        current.forEach( ( name, result ) ->
+        {
+            if ( !baseline.containsKey( name ) )
+            {
+                changes.add( new Change( null, result, maxRegressionPercent ) );
+            }
+        } );
+        return changes;
+    }
+
+    /**
+     * Print a table of the changes.
+     *
+     * @return {@code true} if any benchmark regressed.
+     */
+    static boolean report( List<Change> changes, PrintStream out )
+    {
+        int nameWidth = "Benchmark".length();
+        for ( Change change : changes )
+        {
+            nameWidth = Math.max( nameWidth, change.name().length() );
+        }
+        String rowFormat = "%-" + nameWidth + "s  %-6s  %14s  %14s  %-10s  %8s  %s%n";
+        out.printf( rowFormat, "Benchmark", "Mode", "Baseline", "Current", "Unit", "Change", "" );
+        int regressions = 0;
+        for ( Change change : changes )
+        {
+            Result any = change.baseline != null ? change.baseline : change.current;
+            out.printf( rowFormat, change.name(), any.mode(), formatScore( change.baseline ), formatScore( change.current ),
+                    any.unit(), change.isComparable() ? format( "%+.1f%%", change.percentChange() ) : "", change.verdict() );
+            if ( change.isRegression() )
+            {
+                regressions++;
+            }
+        }
+        out.println();
+        out.println( regressions == 0 ? "No regressions." : regressions + " benchmark(s) regressed." );
+        return regressions > 0;
+    }
+
+    private static String formatScore( Result result )
+    {
+        if ( result == null )
+        {
+            return "-";
+        }
+        return Double.isNaN( result.error() ) ? format( "%.3f", result.score() ) : format( "%.3f +- %.3f", result.score(), result.error() );
+    }
+
+    private static int column( List<String> header, String name, File file ) throws IOException
+    {
+        int index = header.indexOf( name );
+        if ( index == -1 )
+        {
+            throw new IOException( file + " is not a JMH CSV result file, it has no '" + name + "' column" );
+        }
+        return index;
+    }
+
+    private static double parseScore( String score )
+    {
+        if ( score.isEmpty() || score.equals( "NaN" ) )
+        {
+            return Double.NaN;
+        }
+        // JMH formats scores in the default locale, which may use decimal commas
+        return Double.parseDouble( score.replace( ',', '.' ) );
+    }
+
+    static List<String> splitCsvLine( String line )
+    {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for ( int i = 0; i < line.length(); i++ )
+        {
+            char c = line.charAt( i );
+            if ( c == '"' )
+            {
+                if ( quoted && i + 1 < line.length() && line.charAt( i + 1 ) == '"' )
+                {
+                    field.append( '"' );
+                    i++;
+                }
+                else
+                {
+                    quoted = !quoted;
+                }
+            }
+            else if ( c == ',' && !quoted )
+            {
+                fields.add( field.toString() );
+                field.setLength( 0 );
+            }
+            else
+            {
+                field.append( c );
+            }
+        }
+        fields.add( field.toString() );
+        return fields;
+    }
+
+    static final class Result
+    {
+        private final String name;
+        private final String mode;
+        private final double score;
+        private final double error;
+        private final String unit;
+
+        Result( String name, String mode, double score, double error, String unit )
+        {
+            this.name = name;
+            this.mode = mode;
+            this.score = score;
+            this.error = error;
+            this.unit = unit;
+        }
+
+        String name()
+        {
+            return name;
+        }
+
+        String mode()
+        {
+            return mode;
+        }
+
+        double score()
+        {
+            return score;
+        }
+
+        /** Half the width of the 99.9% confidence interval of the {@link #score()}, or NaN if there weren't enough samples. */
+        double error()
+        {
+            return error;
+        }
+
+        String unit()
+        {
+            return unit;
+        }
+
+        /** Throughput scores are better when higher, all other modes measure time and are better when lower. */
+        boolean higherIsBetter()
+        {
+            return "thrpt".equals( mode );
+        }
+    }
+
+    static final class Change
+    {
+        private final Result baseline;
+        private final Result current;
+        private final double maxRegressionPercent;
+
+        Change( Result baseline, Result current, double maxRegressionPercent )
+        {
+            this.baseline = baseline;
+            this.current = current;
+            this.maxRegressionPercent = maxRegressionPercent;
+        }
+
+        String name()
+        {
+            return baseline != null ? baseline.name() : current.name();
+        }
+
+        boolean isComparable()
+        {
+            return baseline != null && current != null && baseline.mode().equals( current.mode() ) &&
+                    baseline.unit().equals( current.unit() ) && baseline.score() != 0;
+        }
+
+        /** How much the score changed, in percent of the baseline score. */
+        double percentChange()
+        {
+            return (current.score() - baseline.score()) * 100 / baseline.score();
+        }
+
+        /** How much worse the score got, in percent of the baseline score. Negative if it got better. */
+        private double percentWorse()
+        {
+            return baseline.higherIsBetter() ? -percentChange() : percentChange();
+        }
+
+        private boolean isSignificant()
+        {
+            double margin = errorOrZero( baseline ) + errorOrZero( current );
+            return Math.abs( current.score() - baseline.score() ) > margin;
+        }
+
+        boolean isRegression()
+        {
+            return isComparable() && percentWorse() > maxRegressionPercent && isSignificant();
+        }
+
+        boolean isImprovement()
+        {
+            return isComparable() && -percentWorse() > maxRegressionPercent && isSignificant();
+        }
+
+        String verdict()
+        {
+            if ( baseline == null )
+            {
+                return "NEW";
+            }
+            if ( current == null )
+            {
+                return "MISSING";
+            }
+            if ( !isComparable() )
+            {
+                return "INCOMPARABLE";
+            }
+            return isRegression() ? "REGRESSION" : isImprovement() ? "IMPROVEMENT" : "";
+        }
+
+        private static double errorOrZero( Result result )
+        {
+            return Double.isNaN( result.error() ) ? 0 : result.error();
+        }
+    }
+}
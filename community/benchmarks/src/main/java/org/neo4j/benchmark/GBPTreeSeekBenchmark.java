@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.benchmark;
+
+import org.apache.commons.lang3.mutable.MutableLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.cursor.RawCursor;
+import org.neo4j.graphdb.config.Configuration;
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.Hit;
+import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
+import org.neo4j.index.internal.gbptree.Writer;
+import org.neo4j.io.fs.DefaultFileSystemAbstraction;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.FileUtils;
+import org.neo4j.io.pagecache.IOLimiter;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory;
+import org.neo4j.io.pagecache.impl.muninn.MuninnPageCache;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.io.pagecache.tracing.cursor.DefaultPageCursorTracerSupplier;
+import org.neo4j.io.pagecache.tracing.cursor.context.EmptyVersionContextSupplier;
+
+/**
+ * Measures {@link GBPTree#seek(Object, Object)} for exact matches and short ranges in a tree of long keys, where the
+ * keys are spread out so that seeks for absent keys are as common as seeks for present ones.
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+public class GBPTreeSeekBenchmark
+{
+    private static final int KEY_SPACING = 2;
+    /** Large enough for the biggest tree to stay cached, so we measure the tree and not page faults. */
+    private static final int CACHE_PAGES = 64 * 1024;
+
+    @State( Scope.Benchmark )
+    public static class Tree
+    {
+        @Param( {"100000", "10000000"} )
+        public int keyCount;
+
+        private File directory;
+        private FileSystemAbstraction fs;
+        private PageCache pageCache;
+        private GBPTree<MutableLong,MutableLong> tree;
+
+        @Setup( Level.Trial )
+        public void buildTree() throws IOException
+        {
+            directory = Files.createTempDirectory( "gbptree-benchmark" ).toFile();
+            fs = new DefaultFileSystemAbstraction();
+            SingleFilePageSwapperFactory swapperFactory = new SingleFilePageSwapperFactory();
+            swapperFactory.open( fs, Configuration.EMPTY );
+            pageCache = new MuninnPageCache( swapperFactory, CACHE_PAGES, PageCacheTracer.NULL,
+                    DefaultPageCursorTracerSupplier.INSTANCE, EmptyVersionContextSupplier.EMPTY );
+            tree = new GBPTree<>( pageCache, new File( directory, "tree" ), new LongLayout(), 0, GBPTree.NO_MONITOR,
+                    GBPTree.NO_HEADER_READER, GBPTree.NO_HEADER_WRITER, RecoveryCleanupWorkCollector.immediate() );
+            MutableLong key = new MutableLong();
+            MutableLong value = new MutableLong();
+            try ( Writer<MutableLong,MutableLong> writer = tree.writer() )
+            {
+                for ( long i = 0; i < keyCount; i++ )
+                {
+                    key.setValue( i * KEY_SPACING );
+                    value.setValue( i );
+                    writer.put( key, value );
+                }
+            }
+            tree.checkpoint( IOLimiter.unlimited() );
+        }
+
+        @TearDown( Level.Trial )
+        public void closeTree() throws IOException
+        {
+            tree.close();
+            pageCache.close();
+            fs.close();
+            FileUtils.deleteRecursively( directory );
+        }
+    }
+
+    @State( Scope.Thread )
+    public static class Keys
+    {
+        SplittableRandom random;
+        final MutableLong from = new MutableLong();
+        final MutableLong to = new MutableLong();
+
+        @Setup( Level.Iteration )
+        public void seedRandom()
+        {
+            random = new SplittableRandom( Thread.currentThread().getId() );
+        }
+
+        void randomRange( Tree tree, int length )
+        {
+            long start = random.nextLong( (long) tree.keyCount * KEY_SPACING );
+            from.setValue( start );
+            to.setValue( start + length );
+        }
+    }
+
+    @Benchmark
+    public long exactMatch( Tree tree, Keys keys ) throws IOException
+    {
+        keys.randomRange( tree, 1 );
+        return sumValues( tree, keys );
+    }
+
+    @Benchmark
+    public long range100( Tree tree, Keys keys ) throws IOException
+    {
+        keys.randomRange( tree, 100 );
+        return sumValues( tree, keys );
+    }
+
+    private static long sumValues( Tree tree, Keys keys ) throws IOException
+    {
+        long sum = 0;
+        try ( RawCursor<Hit<MutableLong,MutableLong>,IOException> seek = tree.tree.seek( keys.from, keys.to ) )
+        {
+            while ( seek.next() )
+            {
+                sum += seek.get().value().longValue();
+            }
+        }
+        return sum;
+    }
+}
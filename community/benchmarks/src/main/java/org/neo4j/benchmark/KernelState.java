@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.SplittableRandom;
+
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.internal.kernel.api.NodeCursor;
+import org.neo4j.internal.kernel.api.PropertyCursor;
+import org.neo4j.internal.kernel.api.Read;
+import org.neo4j.internal.kernel.api.RelationshipGroupCursor;
+import org.neo4j.internal.kernel.api.RelationshipTraversalCursor;
+import org.neo4j.internal.kernel.api.TokenRead;
+import org.neo4j.kernel.api.KernelTransaction;
+
+/**
+ * A read transaction per benchmark thread, with one cursor of each kind allocated up front so the benchmarks
+ * measure cursor reuse the way the Cypher runtimes use them.
+ * <p>
+ * The transaction is open for a whole iteration, since transactions are bound to the thread that began them and
+ * JMH calls the iteration level setup and tear down on the benchmark thread.
+ */
+@State( Scope.Thread )
+public class KernelState
+{
+    public SplittableRandom random;
+    public Read read;
+    public TokenRead tokenRead;
+    public NodeCursor nodes;
+    public RelationshipTraversalCursor relationships;
+    public RelationshipGroupCursor groups;
+    public PropertyCursor properties;
+
+    private Transaction tx;
+
+    @Setup( Level.Iteration )
+    public void beginTransaction( GraphState state )
+    {
+        random = new SplittableRandom( Thread.currentThread().getId() );
+        tx = state.graph.db().beginTx();
+        KernelTransaction ktx = state.graph.kernelTransaction();
+        read = ktx.dataRead();
+        tokenRead = ktx.tokenRead();
+        nodes = ktx.cursors().allocateNodeCursor();
+        relationships = ktx.cursors().allocateRelationshipTraversalCursor();
+        groups = ktx.cursors().allocateRelationshipGroupCursor();
+        properties = ktx.cursors().allocatePropertyCursor();
+    }
+
+    @TearDown( Level.Iteration )
+    public void closeTransaction()
+    {
+        properties.close();
+        groups.close();
+        relationships.close();
+        nodes.close();
+        tx.close();
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.benchmark;
+
+import org.apache.commons.lang3.mutable.MutableLong;
+
+import org.neo4j.index.internal.gbptree.Layout;
+import org.neo4j.io.pagecache.PageCursor;
+
+/**
+ * Fixed size {@link Layout} with a single long in both keys and values, for benchmarking the tree itself rather than
+ * the cost of some particular key format.
+ */
+class LongLayout extends Layout.Adapter<MutableLong,MutableLong>
+{
+    @Override
+    public MutableLong newKey()
+    {
+        return new MutableLong();
+    }
+
+    @Override
+    public MutableLong copyKey( MutableLong key, MutableLong into )
+    {
+        into.setValue( key.longValue() );
+        return into;
+    }
+
+    @Override
+    public MutableLong newValue()
+    {
+        return new MutableLong();
+    }
+
+    @Override
+    public int keySize( MutableLong key )
+    {
+        return Long.BYTES;
+    }
+
+    @Override
+    public int valueSize( MutableLong value )
+    {
+        return Long.BYTES;
+    }
+
+    @Override
+    public void writeKey( PageCursor cursor, MutableLong key )
+    {
+        cursor.putLong( key.longValue() );
+    }
+
+    @Override
+    public void writeValue( PageCursor cursor, MutableLong value )
+    {
+        cursor.putLong( value.longValue() );
+    }
+
+    @Override
+    public void readKey( PageCursor cursor, MutableLong into, int keySize )
+    {
+        into.setValue( cursor.getLong() );
+    }
+
+    @Override
+    public void readValue( PageCursor cursor, MutableLong into, int valueSize )
+    {
+        into.setValue( cursor.getLong() );
+    }
+
+    @Override
+    public boolean fixedSize()
+    {
+        return true;
+    }
+
+    @Override
+    public long identifier()
+    {
+        return Layout.namedIdentifier( "Bnch", 1 );
+    }
+
+    @Override
+    public int majorVersion()
+    {
+        return 0;
+    }
+
+    @Override
+    public int minorVersion()
+    {
+        return 1;
+    }
+
+    @Override
+    public int compare( MutableLong o1, MutableLong o2 )
+    {
+        return Long.compare( o1.longValue(), o2.longValue() );
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.graphdb.config.Configuration;
+import org.neo4j.io.fs.DefaultFileSystemAbstraction;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.FileUtils;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory;
+import org.neo4j.io.pagecache.impl.muninn.MuninnPageCache;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.io.pagecache.tracing.cursor.DefaultPageCursorTracerSupplier;
+import org.neo4j.io.pagecache.tracing.cursor.context.EmptyVersionContextSupplier;
+
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+
+/**
+ * Measures reading pages through {@code MuninnPageCursor}, either with every page already cached, or with a page cache
+ * a tenth the size of the file, so most reads go through the page fault and eviction paths.
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+public class PageCacheBenchmark
+{
+    private static final int FILE_PAGES = 16_384;
+
+    public enum Residency
+    {
+        /** Every page of the file fits in the page cache. */
+        CACHED( FILE_PAGES + 64 ),
+        /** Only a tenth of the file fits in the page cache. */
+        FAULTING( FILE_PAGES / 10 );
+
+        private final int cachePages;
+
+        Residency( int cachePages )
+        {
+            this.cachePages = cachePages;
+        }
+    }
+
+    @State( Scope.Benchmark )
+    public static class MappedFile
+    {
+        @Param( {"CACHED", "FAULTING"} )
+        public Residency residency;
+
+        private File directory;
+        private FileSystemAbstraction fs;
+        private PageCache pageCache;
+        private PagedFile pagedFile;
+
+        @Setup( Level.Trial )
+        public void mapFile() throws IOException
+        {
+            directory = Files.createTempDirectory( "page-cache-benchmark" ).toFile();
+            fs = new DefaultFileSystemAbstraction();
+            SingleFilePageSwapperFactory swapperFactory = new SingleFilePageSwapperFactory();
+            swapperFactory.open( fs, Configuration.EMPTY );
+            pageCache = new MuninnPageCache( swapperFactory, residency.cachePages, PageCacheTracer.NULL,
+                    DefaultPageCursorTracerSupplier.INSTANCE, EmptyVersionContextSupplier.EMPTY );
+            pagedFile = pageCache.map( new File( directory, "data" ), PageCache.PAGE_SIZE, StandardOpenOption.CREATE );
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK ) )
+            {
+                for ( long pageId = 0; pageId < FILE_PAGES; pageId++ )
+                {
+                    cursor.next( pageId );
+                    for ( int offset = 0; offset < PageCache.PAGE_SIZE; offset += Long.BYTES )
+                    {
+                        cursor.putLong( offset, pageId ^ offset );
+                    }
+                }
+            }
+            pagedFile.flushAndForce();
+        }
+
+        @TearDown( Level.Trial )
+        public void unmapFile() throws IOException
+        {
+            pagedFile.close();
+            pageCache.close();
+            fs.close();
+            FileUtils.deleteRecursively( directory );
+        }
+    }
+
+    @State( Scope.Thread )
+    public static class Reader
+    {
+        SplittableRandom random;
+
+        @Setup( Level.Iteration )
+        public void seedRandom()
+        {
+            random = new SplittableRandom( Thread.currentThread().getId() );
+        }
+    }
+
+    @Benchmark
+    public long randomPageRead( MappedFile file, Reader reader ) throws IOException
+    {
+        long pageId = reader.random.nextInt( FILE_PAGES );
+        int offset = reader.random.nextInt( PageCache.PAGE_SIZE / Long.BYTES ) * Long.BYTES;
+        try ( PageCursor cursor = file.pagedFile.io( pageId, PF_SHARED_READ_LOCK ) )
+        {
+            long value = 0;
+            if ( cursor.next() )
+            {
+                do
+                {
+                    value = cursor.getLong( offset );
+                }
+                while ( cursor.shouldRetry() );
+            }
+            return value;
+        }
+    }
+
+    @Benchmark
+    @Threads( 4 )
+    public long concurrentRandomPageRead( MappedFile file, Reader reader ) throws IOException
+    {
+        return randomPageRead( file, reader );
+    }
+
+    @Benchmark
+    @BenchmarkMode( Mode.SingleShotTime )
+    @OutputTimeUnit( TimeUnit.MILLISECONDS )
+    @Warmup( iterations = 5 )
+    @Measurement( iterations = 10 )
+    public long sequentialScan( MappedFile file ) throws IOException
+    {
+        long sum = 0;
+        try ( PageCursor cursor = file.pagedFile.io( 0, PF_SHARED_READ_LOCK ) )
+        {
+            while ( cursor.next() )
+            {
+                long value;
+                do
+                {
+                    value = cursor.getLong( 0 );
+                }
+                while ( cursor.shouldRetry() );
+                sum += value;
+            }
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.internal.kernel.api.NodeCursor;
+import org.neo4j.internal.kernel.api.PropertyCursor;
+
+/**
+ * Measures {@code DefaultPropertyCursor} reading the properties of randomly picked nodes, both a single property of
+ * each {@link SyntheticGraph.PropertyType type} and all properties of a node.
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+public class PropertyCursorBenchmark
+{
+    @State( Scope.Thread )
+    public static class PropertyKey
+    {
+        @Param( {"INT", "LONG", "DOUBLE", "BOOLEAN", "SHORT_STRING", "LONG_STRING", "SHORT_LONG_ARRAY", "LONG_LONG_ARRAY",
+                 "STRING_ARRAY"} )
+        public SyntheticGraph.PropertyType type;
+
+        int propertyKey;
+
+        @Setup( Level.Iteration )
+        public void lookupPropertyKey( KernelState kernel )
+        {
+            propertyKey = kernel.tokenRead.propertyKey( type.key() );
+        }
+    }
+
+    @Benchmark
+    public Object singleProperty( GraphState state, KernelState kernel, PropertyKey key )
+    {
+        PropertyCursor properties = positionOnRandomNode( state, kernel );
+        while ( properties.next() )
+        {
+            if ( properties.propertyKey() == key.propertyKey )
+            {
+                return properties.propertyValue();
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public void allProperties( GraphState state, KernelState kernel, Blackhole blackhole )
+    {
+        PropertyCursor properties = positionOnRandomNode( state, kernel );
+        while ( properties.next() )
+        {
+            blackhole.consume( properties.propertyValue() );
+        }
+    }
+
+    private static PropertyCursor positionOnRandomNode( GraphState state, KernelState kernel )
+    {
+        NodeCursor nodes = kernel.nodes;
+        PropertyCursor properties = kernel.properties;
+        kernel.read.singleNode( state.graph.randomNodeId( kernel.random ), nodes );
+        if ( nodes.next() )
+        {
+            nodes.properties( properties );
+        }
+        return properties;
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.internal.kernel.api.NodeCursor;
+import org.neo4j.internal.kernel.api.RelationshipGroupCursor;
+import org.neo4j.internal.kernel.api.RelationshipTraversalCursor;
+
+/**
+ * Measures {@code DefaultRelationshipTraversalCursor} and {@code DefaultRelationshipGroupCursor} expanding the
+ * relationships of randomly picked nodes, for both sparse and dense nodes.
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+public class RelationshipTraversalBenchmark
+{
+    @Benchmark
+    public long allRelationships( GraphState state, KernelState kernel )
+    {
+        NodeCursor nodes = kernel.nodes;
+        kernel.read.singleNode( state.graph.randomNodeId( kernel.random ), nodes );
+        if ( !nodes.next() )
+        {
+            return -1;
+        }
+        RelationshipTraversalCursor relationships = kernel.relationships;
+        nodes.allRelationships( relationships );
+        long neighbours = 0;
+        while ( relationships.next() )
+        {
+            neighbours += relationships.neighbourNodeReference();
+        }
+        return neighbours;
+    }
+
+    @Benchmark
+    public long outgoingOfEachType( GraphState state, KernelState kernel )
+    {
+        NodeCursor nodes = kernel.nodes;
+        kernel.read.singleNode( state.graph.randomNodeId( kernel.random ), nodes );
+        if ( !nodes.next() )
+        {
+            return -1;
+        }
+        RelationshipGroupCursor groups = kernel.groups;
+        RelationshipTraversalCursor relationships = kernel.relationships;
+        nodes.relationships( groups );
+        long neighbours = 0;
+        while ( groups.next() )
+        {
+            groups.outgoing( relationships );
+            while ( relationships.next() )
+            {
+                neighbours += relationships.neighbourNodeReference();
+            }
+        }
+        return neighbours;
+    }
+
+    @Benchmark
+    public long degree( GraphState state, KernelState kernel )
+    {
+        NodeCursor nodes = kernel.nodes;
+        kernel.read.singleNode( state.graph.randomNodeId( kernel.random ), nodes );
+        if ( !nodes.next() )
+        {
+            return -1;
+        }
+        RelationshipGroupCursor groups = kernel.groups;
+        nodes.relationships( groups );
+        long degree = 0;
+        while ( groups.next() )
+        {
+            degree += groups.totalCount();
+        }
+        return degree;
+    }
+}
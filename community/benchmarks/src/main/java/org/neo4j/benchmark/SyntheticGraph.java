@@ -0,0 +1,261 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.factory.GraphDatabaseFactory;
+import org.neo4j.graphdb.factory.GraphDatabaseSettings;
+import org.neo4j.io.fs.FileUtils;
+import org.neo4j.kernel.api.KernelTransaction;
+import org.neo4j.kernel.impl.core.ThreadToStatementContextBridge;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+
+/**
+ * A generated graph for the kernel benchmarks to read from. Every node has the {@link #LABEL} label, one property of
+ * each {@link PropertyType}, and relationships to randomly picked other nodes. The number of relationships per node
+ * is decided by the {@link Density}, which makes the nodes either sparse or dense in the record format.
+ * <p>
+ * Graphs are generated from a fixed seed, so two runs of the same benchmark read the same graph.
+ */
+public final class SyntheticGraph implements AutoCloseable
+{
+    public static final Label LABEL = Label.label( "Node" );
+    public static final RelationshipType[] RELATIONSHIP_TYPES =
+            {RelationshipType.withName( "A" ), RelationshipType.withName( "B" ), RelationshipType.withName( "C" )};
+
+    private static final int NODES_PER_TRANSACTION = 1_000;
+    private static final long SEED = 0xCAFEBABEL;
+
+    public enum Density
+    {
+        /** Few enough relationships per node that they are kept in a single chain. */
+        SPARSE( 100_000, 4 ),
+        /** Enough relationships per node for the nodes to be dense, with relationship groups per type. */
+        DENSE( 5_000, 200 );
+
+        private final int nodeCount;
+        private final int degree;
+
+        Density( int nodeCount, int degree )
+        {
+            this.nodeCount = nodeCount;
+            this.degree = degree;
+        }
+
+        public int nodeCount()
+        {
+            return nodeCount;
+        }
+
+        public int degree()
+        {
+            return degree;
+        }
+    }
+
+    public enum PropertyType
+    {
+        INT( random -> random.nextInt() ),
+        LONG( SplittableRandom::nextLong ),
+        DOUBLE( SplittableRandom::nextDouble ),
+        BOOLEAN( SplittableRandom::nextBoolean ),
+        /** Short enough to be stored in the property record itself. */
+        SHORT_STRING( random -> randomString( random, 8 ) ),
+        /** Long enough to need dynamic string records. */
+        LONG_STRING( random -> randomString( random, 300 ) ),
+        /** Small enough to be stored in the property record itself. */
+        SHORT_LONG_ARRAY( random -> random.longs( 2 ).toArray() ),
+        /** Large enough to need dynamic array records. */
+        LONG_LONG_ARRAY( random -> random.longs( 64 ).toArray() ),
+        STRING_ARRAY( random -> new String[]{randomString( random, 10 ), randomString( random, 20 )} );
+
+        private final Function<SplittableRandom,Object> generator;
+
+        PropertyType( Function<SplittableRandom,Object> generator )
+        {
+            this.generator = generator;
+        }
+
+        public String key()
+        {
+            return name().toLowerCase();
+        }
+
+        Object generate( SplittableRandom random )
+        {
+            return generator.apply( random );
+        }
+    }
+
+    private final File storeDir;
+    private final GraphDatabaseAPI db;
+    private final ThreadToStatementContextBridge bridge;
+    private final long[] nodeIds;
+
+    private SyntheticGraph( File storeDir, GraphDatabaseAPI db, long[] nodeIds )
+    {
+        this.storeDir = storeDir;
+        this.db = db;
+        this.bridge = db.getDependencyResolver().resolveDependency( ThreadToStatementContextBridge.class );
+        this.nodeIds = nodeIds;
+    }
+
+    /**
+     * Generate a new graph in the given, empty, directory.
+     *
+     * @param storeDir directory to create the database in. It is deleted again when the graph is {@link #close() closed}.
+     * @param density how many nodes and relationships to create.
+     * @param pageCacheMemory how much memory to give the page cache, in the format of
+     * {@link GraphDatabaseSettings#pagecache_memory}.
+     * @return the generated graph.
+     */
+    public static SyntheticGraph generate( File storeDir, Density density, String pageCacheMemory )
+    {
+        GraphDatabaseAPI db = (GraphDatabaseAPI) new GraphDatabaseFactory()
+                .newEmbeddedDatabaseBuilder( storeDir )
+                .setConfig( GraphDatabaseSettings.pagecache_memory, pageCacheMemory )
+                .newGraphDatabase();
+        try
+        {
+            SplittableRandom random = new SplittableRandom( SEED );
+            long[] nodeIds = createNodes( db, density.nodeCount(), random );
+            createRelationships( db, nodeIds, density.degree(), random );
+            return new SyntheticGraph( storeDir, db, nodeIds );
+        }
+        catch ( RuntimeException e )
+        {
+            db.shutdown();
+            throw e;
+        }
+    }
+
+    private static long[] createNodes( GraphDatabaseAPI db, int nodeCount, SplittableRandom random )
+    {
+        long[] nodeIds = new long[nodeCount];
+        PropertyType[] propertyTypes = PropertyType.values();
+        for ( int batchStart = 0; batchStart < nodeCount; batchStart += NODES_PER_TRANSACTION )
+        {
+            try ( Transaction tx = db.beginTx() )
+            {
+                for ( int i = batchStart; i < Math.min( nodeCount, batchStart + NODES_PER_TRANSACTION ); i++ )
+                {
+                    Node node = db.createNode( LABEL );
+                    for ( PropertyType type : propertyTypes )
+                    {
+                        node.setProperty( type.key(), type.generate( random ) );
+                    }
+                    nodeIds[i] = node.getId();
+                }
+                tx.success();
+            }
+        }
+        return nodeIds;
+    }
+
+    private static void createRelationships( GraphDatabaseAPI db, long[] nodeIds, int degree, SplittableRandom random )
+    {
+        // Every relationship adds to the degree of two nodes
+        int relationshipsPerNode = Math.max( 1, degree / 2 );
+        int nodesPerTransaction = Math.max( 1, NODES_PER_TRANSACTION * 4 / relationshipsPerNode );
+        for ( int batchStart = 0; batchStart < nodeIds.length; batchStart += nodesPerTransaction )
+        {
+            try ( Transaction tx = db.beginTx() )
+            {
+                for ( int i = batchStart; i < Math.min( nodeIds.length, batchStart + nodesPerTransaction ); i++ )
+                {
+                    Node node = db.getNodeById( nodeIds[i] );
+                    for ( int r = 0; r < relationshipsPerNode; r++ )
+                    {
+                        Node other = db.getNodeById( nodeIds[random.nextInt( nodeIds.length )] );
+                        node.createRelationshipTo( other, RELATIONSHIP_TYPES[random.nextInt( RELATIONSHIP_TYPES.length )] );
+                    }
+                }
+                tx.success();
+            }
+        }
+    }
+
+    private static String randomString( SplittableRandom random, int length )
+    {
+        char[] chars = new char[length];
+        for ( int i = 0; i < length; i++ )
+        {
+            chars[i] = (char) ('a' + random.nextInt( 26 ));
+        }
+        return new String( chars );
+    }
+
+    public GraphDatabaseAPI db()
+    {
+        return db;
+    }
+
+    public int nodeCount()
+    {
+        return nodeIds.length;
+    }
+
+    public long randomNodeId( SplittableRandom random )
+    {
+        return nodeIds[random.nextInt( nodeIds.length )];
+    }
+
+    /**
+     * @return the kernel transaction of the transaction that is open in this thread.
+     */
+    public KernelTransaction kernelTransaction()
+    {
+        return bridge.getKernelTransactionBoundToThisThread( true );
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        db.shutdown();
+        FileUtils.deleteRecursively( storeDir );
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.benchmark;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.neo4j.benchmark.BaselineComparison.Change;
+import org.neo4j.benchmark.BaselineComparison.Result;
+import org.neo4j.test.rule.TestDirectory;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class BaselineComparisonTest
+{
+    private static final String HEADER =
+            "\"Benchmark\",\"Mode\",\"Threads\",\"Samples\",\"Score\",\"Score Error (99.9%)\",\"Unit\",\"Param: density\"";
+
+    @Rule
+    public final TestDirectory directory = TestDirectory.testDirectory();
+
+    @Test
+    public void shouldReadResultsWithParameters() throws IOException
+    {
+        File file = write( "baseline.csv", HEADER,
+                "\"org.neo4j.benchmark.NodeCursorBenchmark.singleNode\",\"avgt\",1,5,120.500000,3.250000,\"ns/op\",SPARSE",
+                "\"org.neo4j.benchmark.NodeCursorBenchmark.allNodesScan\",\"ss\",1,1,42.000000,NaN,\"ms/op\",DENSE" );
+
+        Map<String,Result> results = BaselineComparison.readResults( file );
+
+        assertEquals( 2, results.size() );
+        Result singleNode = results.get( "org.neo4j.benchmark.NodeCursorBenchmark.singleNode:density=SPARSE" );
+        assertEquals( "avgt", singleNode.mode() );
+        assertEquals( 120.5, singleNode.score(), 0 );
+        assertEquals( 3.25, singleNode.error(), 0 );
+        assertEquals( "ns/op", singleNode.unit() );
+        Result scan = results.get( "org.neo4j.benchmark.NodeCursorBenchmark.allNodesScan:density=DENSE" );
+        assertTrue( Double.isNaN( scan.error() ) );
+    }
+
+    @Test
+    public void shouldReportSlowerTimesAsRegressions()
+    {
+        Change change = compare( result( "avgt", 100, 1 ), result( "avgt", 110, 1 ) );
+
+        assertTrue( change.isRegression() );
+        assertEquals( 10, change.percentChange(), 0.0001 );
+        assertEquals( "REGRESSION", change.verdict() );
+    }
+
+    @Test
+    public void shouldReportLowerThroughputAsRegression()
+    {
+        assertTrue( compare( result( "thrpt", 100, 1 ), result( "thrpt", 90, 1 ) ).isRegression() );
+        assertFalse( compare( result( "thrpt", 100, 1 ), result( "thrpt", 110, 1 ) ).isRegression() );
+        assertEquals( "IMPROVEMENT", compare( result( "thrpt", 100, 1 ), result( "thrpt", 110, 1 ) ).verdict() );
+    }
+
+    @Test
+    public void shouldNotReportChangesWithinThreshold()
+    {
+        assertFalse( compare( result( "avgt", 100, 0 ), result( "avgt", 104, 0 ) ).isRegression() );
+    }
+
+    @Test
+    public void shouldNotReportChangesWithinErrorMargins()
+    {
+        assertFalse( compare( result( "avgt", 100, 8 ), result( "avgt", 115, 8 ) ).isRegression() );
+        assertTrue( compare( result( "avgt", 100, 5 ), result( "avgt", 115, 5 ) ).isRegression() );
+    }
+
+    @Test
+    public void shouldListMissingAndNewBenchmarks() throws IOException
+    {
+        File baseline = write( "baseline.csv", HEADER,
+                "\"a\",\"avgt\",1,5,100.0,1.0,\"ns/op\",SPARSE",
+                "\"b\",\"avgt\",1,5,100.0,1.0,\"ns/op\",SPARSE" );
+        File current = write( "current.csv", HEADER,
+                "\"a\",\"avgt\",1,5,150.0,1.0,\"ns/op\",SPARSE",
+                "\"c\",\"avgt\",1,5,100.0,1.0,\"ns/op\",SPARSE" );
+
+        List<Change> changes = BaselineComparison.compare( BaselineComparison.readResults( baseline ),
+                BaselineComparison.readResults( current ), BaselineComparison.DEFAULT_MAX_REGRESSION_PERCENT );
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        boolean regressed = BaselineComparison.report( changes, new PrintStream( out, true, "UTF-8" ) );
+
+        assertTrue( regressed );
+        assertEquals( 3, changes.size() );
+        assertEquals( "REGRESSION", changes.get( 0 ).verdict() );
+        assertEquals( "MISSING", changes.get( 1 ).verdict() );
+        assertEquals( "NEW", changes.get( 2 ).verdict() );
+        String report = new String( out.toByteArray(), StandardCharsets.UTF_8 );
+        assertThat( report, containsString( "+50.0%" ) );
+        assertThat( report, containsString( "1 benchmark(s) regressed." ) );
+    }
+
+    private static Result result( String mode, double score, double error )
+    {
+        return new Result( "benchmark", mode, score, error, "ns/op" );
+    }
+
+    private static Change compare( Result baseline, Result current )
+    {
+        return new Change( baseline, current, BaselineComparison.DEFAULT_MAX_REGRESSION_PERCENT );
+    }
+
+    private File write( String name, String... lines ) throws IOException
+    {
+        File file = directory.file( name );
+        Files.write( file.toPath(), Arrays.asList( lines ), StandardCharsets.UTF_8 );
+        return file;
+    }
+}
@@ -163,6 +163,10 @@ public interface Status
         TransactionTimedOut( ClientError,
                 "The transaction has not completed within the specified timeout. You may want to retry with a longer " +
                 "timeout." ),
+        TransactionOutOfMemoryError( ClientError,
+                "The transaction used more memory than it is allowed to. The maximum amount of memory a transaction " +
+                "may allocate for its state is configured with 'unsupported.dbms.tx_state.max_off_heap_memory'. " +
+                "Try to split up the work into smaller transactions or increase the limit." ),
         InvalidBookmark( ClientError,
                 "Supplied bookmark cannot be interpreted. You should only supply a bookmark previously that was " +
                 "previously generated by Neo4j. Maybe you have generated your own bookmark, " +
@@ -247,6 +251,10 @@ public interface Status
                 "The statement is attempting to perform operations using invalid arguments" ),
         ArithmeticError( ClientError,
                 "Invalid use of arithmetic, such as dividing by zero." ),
+        QueryOutOfMemoryError( ClientError,
+                "The query held more memory than it is allowed to. The maximum amount of memory a query may hold in " +
+                "rows, lists and operator state is configured with 'cypher.query_max_memory'. Try to reduce the " +
+                "amount of data the query collects, or increase the limit." ),
 
         // database errors
         ExecutionFailed( DatabaseError,
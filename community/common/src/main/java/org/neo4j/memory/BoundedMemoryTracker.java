@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.memory;
+
+import org.neo4j.kernel.api.exceptions.Status;
+
+/**
+ * Local memory tracker that refuses allocations that would make it use more than a given number of bytes.
+ * A refused allocation is not recorded and {@link MemoryLimitExceededException} is thrown instead, which is why
+ * allocations must be reported before the memory is actually allocated.
+ */
+public class BoundedMemoryTracker extends LocalMemoryTracker
+{
+    private final long limit;
+    private final Status limitExceededStatus;
+
+    /**
+     * @param limit maximum number of bytes that can be in use at the same time.
+     * @param limitExceededStatus status of the {@link MemoryLimitExceededException} thrown when the limit is exceeded.
+     */
+    public BoundedMemoryTracker( long limit, Status limitExceededStatus )
+    {
+        this.limit = limit;
+        this.limitExceededStatus = limitExceededStatus;
+    }
+
+    @Override
+    public void allocated( long bytes )
+    {
+        long used = usedDirectMemory();
+        if ( used + bytes > limit )
+        {
+            throw new MemoryLimitExceededException( bytes, limit, used, limitExceededStatus );
+        }
+        super.allocated( bytes );
+    }
+
+    /**
+     * @return maximum number of bytes that can be in use at the same time.
+     */
+    public long limit()
+    {
+        return limit;
+    }
+}
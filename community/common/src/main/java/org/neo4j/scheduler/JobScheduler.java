@@ -144,6 +144,11 @@ public interface JobScheduler extends Lifecycle
         public static final Group indexSamplingController = new Group( "IndexSamplingController" );
         public static final Group indexSampling = new Group( "IndexSampling" );
 
+        /**
+         * Makes committed lucene index updates visible to readers, when refreshes are asynchronous.
+         */
+        public static final Group luceneIndexRefresh = new Group( "LuceneIndexRefresh" );
+
         /**
          * Rotates internal diagnostic logs
          */
@@ -229,6 +234,11 @@ public interface JobScheduler extends Lifecycle
          */
         public static final Group cypherWorker = new Group( "CypherWorker" );
 
+        /**
+         * Replans stale Cypher query plans in the background.
+         */
+        public static final Group cypherReplanning = new Group( "CypherReplanning" );
+
         /**
          * VM pause monitor
          */
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.memory;
+
+import org.junit.Test;
+
+import org.neo4j.kernel.api.exceptions.Status;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class BoundedMemoryTrackerTest
+{
+    @Test
+    public void trackAllocationsWithinLimit()
+    {
+        BoundedMemoryTracker memoryTracker = new BoundedMemoryTracker( 100, Status.Transaction.TransactionOutOfMemoryError );
+        memoryTracker.allocated( 60 );
+        memoryTracker.allocated( 40 );
+        assertEquals( 100, memoryTracker.usedDirectMemory() );
+
+        memoryTracker.deallocated( 50 );
+        memoryTracker.allocated( 50 );
+        assertEquals( 100, memoryTracker.usedDirectMemory() );
+    }
+
+    @Test
+    public void refuseAllocationBeyondLimitWithoutRecordingIt()
+    {
+        GlobalMemoryTracker globalMemoryTracker = GlobalMemoryTracker.INSTANCE;
+        long initialGlobalUsage = globalMemoryTracker.usedDirectMemory();
+        BoundedMemoryTracker memoryTracker = new BoundedMemoryTracker( 100, Status.Transaction.TransactionOutOfMemoryError );
+        memoryTracker.allocated( 60 );
+
+        try
+        {
+            memoryTracker.allocated( 41 );
+            fail( "Should have refused allocation beyond the limit" );
+        }
+        catch ( MemoryLimitExceededException e )
+        {
+            assertEquals( Status.Transaction.TransactionOutOfMemoryError, e.status() );
+        }
+        assertEquals( 60, memoryTracker.usedDirectMemory() );
+        assertEquals( 60, globalMemoryTracker.usedDirectMemory() - initialGlobalUsage );
+
+        memoryTracker.deallocated( 60 );
+    }
+}
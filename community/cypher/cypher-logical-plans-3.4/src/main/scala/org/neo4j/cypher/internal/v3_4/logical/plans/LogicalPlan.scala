@@ -206,11 +206,11 @@ abstract class LogicalPlan(idGen: IdGen)
   def indexUsage: Seq[IndexUsage] = {
     import org.neo4j.cypher.internal.util.v3_4.Foldable._
     this.fold(Seq.empty[IndexUsage]) {
-      case NodeIndexSeek(idName, label, propertyKeys, _, _) =>
+      case NodeIndexSeek(idName, label, propertyKeys, _, _, _) =>
         (acc) => acc :+ SchemaIndexSeekUsage(idName, label.nameId.id, label.name, propertyKeys.map(_.name))
-      case NodeUniqueIndexSeek(idName, label, propertyKeys, _, _) =>
+      case NodeUniqueIndexSeek(idName, label, propertyKeys, _, _, _) =>
         (acc) => acc :+ SchemaIndexSeekUsage(idName, label.nameId.id, label.name, propertyKeys.map(_.name))
-      case NodeIndexScan(idName, label, propertyKey, _) =>
+      case NodeIndexScan(idName, label, propertyKey, _, _) =>
         (acc) => acc :+ SchemaIndexScanUsage(idName, label.nameId.id, label.name, propertyKey.name)
       }
   }
@@ -42,12 +42,13 @@ import org.neo4j.cypher.internal.util.v3_4.attribution.IdGen
 import org.neo4j.cypher.internal.v3_4.expressions.{LabelToken, PropertyKeyToken}
 
 /**
-  * This operator does a full scan of an index, producing one row per entry.
+  * This operator does a full scan of an index, producing one row per entry, in 'indexOrder'.
   */
 case class NodeIndexScan(idName: String,
                          label: LabelToken,
                          propertyKey: PropertyKeyToken,
-                         argumentIds: Set[String])
+                         argumentIds: Set[String],
+                         indexOrder: IndexOrder = IndexOrderNone)
                         (implicit idGen: IdGen)
   extends NodeLogicalLeafPlan(idGen) {
 
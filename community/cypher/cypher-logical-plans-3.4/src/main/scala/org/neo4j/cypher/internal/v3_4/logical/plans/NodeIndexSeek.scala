@@ -43,12 +43,14 @@ import org.neo4j.cypher.internal.v3_4.expressions.{Expression, LabelToken, Prope
 
 /**
   * For every node with the given label and property values, produces one row with that node.
+  * Rows are produced in 'indexOrder', by the value of the first property.
   */
 case class NodeIndexSeek(idName: String,
                          label: LabelToken,
                          propertyKeys: Seq[PropertyKeyToken],
                          valueExpr: QueryExpression[Expression],
-                         argumentIds: Set[String])
+                         argumentIds: Set[String],
+                         indexOrder: IndexOrder = IndexOrderNone)
                         (implicit idGen: IdGen) extends IndexLeafPlan(idGen) {
 
   override val availableSymbols: Set[String] = argumentIds + idName
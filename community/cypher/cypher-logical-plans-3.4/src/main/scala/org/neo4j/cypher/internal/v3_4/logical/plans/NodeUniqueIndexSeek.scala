@@ -45,13 +45,14 @@ import org.neo4j.cypher.internal.v3_4.expressions.{Expression, LabelToken, Prope
   * Produces one or zero rows containing the node with the given label and property values.
   *
   * This operator is used on label/property combinations under uniqueness constraint, meaning that a single matching
-  * node is guaranteed.
+  * node is guaranteed. Rows are produced in 'indexOrder', by the value of the first property.
   */
 case class NodeUniqueIndexSeek(idName: String,
                                label: LabelToken,
                                propertyKeys: Seq[PropertyKeyToken],
                                valueExpr: QueryExpression[Expression],
-                               argumentIds: Set[String])
+                               argumentIds: Set[String],
+                               indexOrder: IndexOrder = IndexOrderNone)
                               (implicit idGen: IdGen) extends IndexLeafPlan(idGen) {
   override val availableSymbols: Set[String] = argumentIds + idName
 }
@@ -62,3 +62,13 @@ case class PointDistanceSeekRangeWrapper(
                                      )(val position: InputPosition) extends Expression with SemanticCheckableExpression {
   override def semanticCheck(ctx: SemanticContext): SemanticCheck = SemanticCheckResult.success
 }
+
+/*
+ * Seeks the indexed points nearest to the given point first, followed by the nodes of the label whose property is no
+ * point in its coordinate reference system, whose distance to the point is null.
+ */
+case class NearestNeighbourSeekWrapper(
+                                       point: Expression
+                                     )(val position: InputPosition) extends Expression with SemanticCheckableExpression {
+  override def semanticCheck(ctx: SemanticContext): SemanticCheck = SemanticCheckResult.success
+}
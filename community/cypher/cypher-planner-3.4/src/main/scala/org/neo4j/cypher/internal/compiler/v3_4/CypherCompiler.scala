@@ -125,4 +125,5 @@ case class CypherCompilerConfiguration(queryCacheSize: Int,
                                        csvBufferSize: Int,
                                        nonIndexedLabelWarningThreshold: Long,
                                        planWithMinimumCardinalityEstimates: Boolean,
-                                       lenientCreateRelationship: Boolean)
+                                       lenientCreateRelationship: Boolean,
+                                       operatorMemoryBudget: Long)
@@ -61,6 +61,7 @@ case class CardinalityCostModel(config: CypherCompilerConfiguration) extends Cos
      */
 
     case _: NodeByLabelScan |
+         _: DirectedRelationshipTypeScan |
          _: NodeIndexScan |
          _: ProjectEndpoints
     => 1.0
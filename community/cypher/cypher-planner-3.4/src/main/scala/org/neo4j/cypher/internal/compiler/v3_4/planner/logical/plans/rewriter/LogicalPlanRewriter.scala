@@ -67,6 +67,7 @@ case class PlanRewriter(rewriterSequencer: String => RewriterStepSequencer) exte
     predicateRemovalThroughJoins(solveds, cardinalities, otherAttributes),
     removeIdenticalPlans(otherAttributes.withAlso(cardinalities, solveds)),
     pruningVarExpander,
+    useIndexOrder(context.planContext, otherAttributes.withAlso(cardinalities, solveds)),
     useTop,
     simplifySelections
   ).rewriter)
@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v3_4.planner.logical.plans.rewriter
+
+import org.neo4j.cypher.internal.planner.v3_4.spi.{IndexDescriptor, PlanContext}
+import org.neo4j.cypher.internal.util.v3_4.attribution.{Attributes, SameId}
+import org.neo4j.cypher.internal.util.v3_4.symbols._
+import org.neo4j.cypher.internal.util.v3_4.{InputPosition, LabelId, PropertyKeyId, Rewriter, bottomUp, topDown}
+import org.neo4j.cypher.internal.v3_4.expressions._
+import org.neo4j.cypher.internal.v3_4.functions.{Distance, Max, Min}
+import org.neo4j.cypher.internal.v3_4.logical.plans._
+
+/**
+  * When the rows to sort, or to take the min or max of, come from an index seek or scan which can produce them ordered
+  * by the sorted property, have the index produce them in that order instead of sorting.
+  *
+  * ORDER BY n.prop [LIMIT k] drops the Sort (or Top), which lets the seek stop after k rows, and min(n.prop) or
+  * max(n.prop) without grouping only reads the first row, i.e. the end point of the index range.
+  *
+  * ORDER BY distance(n.prop, point) [LIMIT k] over a point-distance seek around the same point has the seek produce
+  * the nearest nodes first instead, i.e. a k nearest neighbour search bounded by the distance of the seek. With LIMIT k
+  * and a label scan instead of the seek, an index on the label and property replaces the scan with an unbounded k
+  * nearest neighbour search, which only scans the label once the index has run out of points.
+  */
+case class useIndexOrder(planContext: PlanContext, attributes: Attributes) extends Rewriter {
+
+  private val instance: Rewriter = bottomUp(Rewriter.lift {
+    case sort@Sort(source, Seq(columnOrder)) =>
+      inIndexOrder(source, columnOrder.id, indexOrder(columnOrder), limited = false).getOrElse(sort)
+
+    case top@Top(source, Seq(columnOrder), limit) =>
+      inIndexOrder(source, columnOrder.id, indexOrder(columnOrder), limited = true)
+        .map(ordered => Limit(ordered, limit, DoNotIncludeTies)(SameId(top.id)))
+        .getOrElse(top)
+
+    case aggregation@Aggregation(source, grouping, aggregations) if grouping.isEmpty && aggregations.size == 1 =>
+      val ordered = aggregations.values.head match {
+        case MinOrMax(Property(Variable(variable), PropertyKeyName(propertyKey)), order) => inIndexOrder(source, variable, propertyKey, order)
+        case MinOrMax(Variable(column), order) => inIndexOrder(source, column, order, limited = false)
+        case _ => None
+      }
+      ordered.map { orderedSource =>
+        val firstRow = Limit(orderedSource, SignedDecimalIntegerLiteral("1")(InputPosition.NONE), DoNotIncludeTies)(attributes.copy(source.id))
+        aggregation.copy(source = firstRow)(SameId(aggregation.id))
+      }.getOrElse(aggregation)
+  })
+
+  override def apply(input: AnyRef): AnyRef = instance.apply(input)
+
+  private object MinOrMax {
+    def unapply(expression: Expression): Option[(Expression, IndexOrder)] = expression match {
+      case f: FunctionInvocation if f.function == Min && f.args.size == 1 => Some((f.args.head, IndexOrderAscending))
+      case f: FunctionInvocation if f.function == Max && f.args.size == 1 => Some((f.args.head, IndexOrderDescending))
+      case _ => None
+    }
+  }
+
+  private def indexOrder(columnOrder: ColumnOrder): IndexOrder = columnOrder match {
+    case _: Ascending => IndexOrderAscending
+    case _: Descending => IndexOrderDescending
+  }
+
+  private object DistanceTo {
+    def unapply(expression: Expression): Option[(String, String, Expression)] = expression match {
+      case f: FunctionInvocation if f.function == Distance && f.args.size == 2 =>
+        f.args match {
+          case Seq(Property(Variable(variable), PropertyKeyName(propertyKey)), point) => Some((variable, propertyKey, point))
+          case Seq(point, Property(Variable(variable), PropertyKeyName(propertyKey))) => Some((variable, propertyKey, point))
+          case _ => None
+        }
+      case _ => None
+    }
+  }
+
+  /*
+   * Finds the projection of 'column' below 'plan', which needs to be a property of a node variable, or the distance
+   * from such a property to a point, possibly projected under another name first.
+   */
+  private def inIndexOrder(plan: LogicalPlan, column: String, order: IndexOrder, limited: Boolean): Option[LogicalPlan] = {
+    // Variables projected further down are replaced by their projections, like the property in RETURN n.prop ORDER BY n.prop
+    def projected(plan: LogicalPlan, column: String): Option[Expression] = plan match {
+      case Projection(source, expressions) if expressions.contains(column) =>
+        Some(expressions(column).endoRewrite(topDown(Rewriter.lift {
+          case v@Variable(name) if name != column => projected(source, name).getOrElse(v)
+        })))
+      case p if preservesOrder(p) => projected(p.lhs.get, column)
+      case _ => None
+    }
+
+    projected(plan, column).flatMap {
+      case Property(Variable(variable), PropertyKeyName(propertyKey)) => inIndexOrder(plan, variable, propertyKey, order)
+      case DistanceTo(variable, propertyKey, point) if order == IndexOrderAscending =>
+        inIndexOrder(plan, variable, propertyKey, order, nearestTo = Some(point), limited)
+      case _ => None
+    }
+  }
+
+  private def inIndexOrder(plan: LogicalPlan, variable: String, propertyKey: String, order: IndexOrder,
+                           nearestTo: Option[Expression] = None, limited: Boolean = false): Option[LogicalPlan] = {
+    def orderedLeaf(plan: LogicalPlan): Option[(LogicalPlan, LogicalPlan)] = plan match {
+      case seek@NodeIndexSeek(`variable`, label, Seq(PropertyKeyToken(`propertyKey`, _)), valueExpr, _, IndexOrderNone) =>
+        seekOrder(valueExpr, planContext.indexGet(label.name, Seq(propertyKey)), order, nearestTo)
+          .map(seekOrder => (seek, seek.copy(indexOrder = seekOrder)(SameId(seek.id))))
+
+      case seek@NodeUniqueIndexSeek(`variable`, label, Seq(PropertyKeyToken(`propertyKey`, _)), valueExpr, _, IndexOrderNone) =>
+        seekOrder(valueExpr, planContext.uniqueIndexGet(label.name, Seq(propertyKey)), order, nearestTo)
+          .map(seekOrder => (seek, seek.copy(indexOrder = seekOrder)(SameId(seek.id))))
+
+      case scan@NodeIndexScan(`variable`, label, PropertyKeyToken(`propertyKey`, _), _, IndexOrderNone)
+        if nearestTo.isEmpty && supportsOrder(planContext.indexGet(label.name, Seq(propertyKey)), CTAny, order) =>
+        Some((scan, scan.copy(indexOrder = order)(SameId(scan.id))))
+
+      case scan@NodeByLabelScan(`variable`, _, _) if limited =>
+        nearestTo.flatMap(nearestNeighbourScan(scan, propertyKey, _)).map(seek => (scan, seek))
+
+      case Projection(_, expressions) if !expressions.get(variable).forall(_ == Variable(variable)(InputPosition.NONE)) =>
+        None
+
+      case p if preservesOrder(p) => orderedLeaf(p.lhs.get)
+
+      case _ => None
+    }
+
+    orderedLeaf(plan).map {
+      case (leaf, ordered) if leaf eq ordered => plan
+      case (leaf, ordered) => plan.endoRewrite(bottomUp(Rewriter.lift {
+        case p: LogicalPlan if p eq leaf => ordered
+      }))
+    }
+  }
+
+  /*
+   * An index seek of the label scan's nodes, nearest to the point first, if the label and property are indexed and
+   * the point can be evaluated before the scan.
+   */
+  private def nearestNeighbourScan(scan: NodeByLabelScan, propertyKey: String, point: Expression): Option[LogicalPlan] =
+    for {
+      _ <- planContext.indexGet(scan.label.name, Seq(propertyKey))
+      if point.dependencies.map(_.name).subsetOf(scan.argumentIds)
+      labelId <- planContext.getOptLabelId(scan.label.name)
+      propertyKeyId <- planContext.getOptPropertyKeyId(propertyKey)
+    } yield NodeIndexSeek(scan.idName, LabelToken(scan.label.name, LabelId(labelId)),
+                          Seq(PropertyKeyToken(propertyKey, PropertyKeyId(propertyKeyId))),
+                          RangeQueryExpression(NearestNeighbourSeekWrapper(point)(point.position)), scan.argumentIds,
+                          IndexOrderAscending)(SameId(scan.id))
+
+  /*
+   * Exact seeks produce rows which all have the same value and so are in any order already. Range seeks can
+   * be asked for an order if all bounds are of the same type, for which the index can produce that order.
+   * Point-distance seeks in ascending order produce the nodes nearest to their point first, which all spatial
+   * indexes can do.
+   */
+  private def seekOrder(valueExpr: QueryExpression[Expression], index: Option[IndexDescriptor], order: IndexOrder,
+                        nearestTo: Option[Expression]): Option[IndexOrder] =
+    valueExpr match {
+      case SingleQueryExpression(_) => Some(IndexOrderNone)
+      case RangeQueryExpression(PointDistanceSeekRangeWrapper(range)) if nearestTo.contains(range.point) => Some(IndexOrderAscending)
+      case _ if nearestTo.isDefined => None
+      case RangeQueryExpression(PrefixSeekRangeWrapper(_)) if supportsOrder(index, CTString, order) => Some(order)
+      case RangeQueryExpression(InequalitySeekRangeWrapper(range)) =>
+        range.groupBy(bound => valueType(bound.endPoint)).keys.toSeq match {
+          case Seq(Some(cypherType)) if supportsOrder(index, cypherType, order) => Some(order)
+          case _ => None
+        }
+      case _ => None
+    }
+
+  private def valueType(expression: Expression): Option[CypherType] = expression match {
+    case _: StringLiteral => Some(CTString)
+    case _: IntegerLiteral => Some(CTInteger)
+    case _: DoubleLiteral => Some(CTFloat)
+    case Parameter(_, parameterType) if parameterType != CTAny => Some(parameterType)
+    case _ => None
+  }
+
+  private def supportsOrder(index: Option[IndexDescriptor], cypherType: CypherType, order: IndexOrder): Boolean =
+    index.exists { descriptor =>
+      val capability = descriptor.orderCapability(cypherType)
+      order match {
+        case IndexOrderAscending => capability.asc
+        case IndexOrderDescending => capability.desc
+        case IndexOrderNone => true
+      }
+    }
+
+  /*
+   * Plans which produce the rows for each source row, one source row at a time, keep the order of their source.
+   */
+  private def preservesOrder(plan: LogicalPlan): Boolean = plan match {
+    case _: Projection | _: Selection | _: Expand | _: OptionalExpand => true
+    case _ => false
+  }
+}
@@ -122,6 +122,20 @@ case class LogicalPlanProducer(cardinalityModel: CardinalityModel, solveds: Solv
     annotate(DirectedRelationshipByIdSeek(idName, relIds, startNode, endNode, argumentIds), solved, context)
   }
 
+  def planDirectedRelationshipTypeScan(idName: String,
+                                       startNode: String,
+                                       typ: RelTypeName,
+                                       endNode: String,
+                                       pattern: PatternRelationship,
+                                       argumentIds: Set[String],
+                                       context: LogicalPlanningContext): LogicalPlan = {
+    val solved = RegularPlannerQuery(queryGraph = QueryGraph.empty
+      .addPatternRelationship(pattern)
+      .addArgumentIds(argumentIds.toIndexedSeq)
+    )
+    annotate(DirectedRelationshipTypeScan(idName, startNode, typ, endNode, argumentIds), solved, context)
+  }
+
   def planUndirectedRelationshipByIdSeek(idName: String,
                                          relIds: SeekableArgs,
                                          leftNode: String,
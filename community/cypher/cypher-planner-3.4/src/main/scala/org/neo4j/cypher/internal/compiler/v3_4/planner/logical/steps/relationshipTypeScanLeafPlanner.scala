@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v3_4.planner.logical.steps
+
+import org.neo4j.cypher.internal.compiler.v3_4.planner.logical.{LeafPlanner, LogicalPlanningContext}
+import org.neo4j.cypher.internal.ir.v3_4.{PatternRelationship, QueryGraph, SimplePatternLength}
+import org.neo4j.cypher.internal.planner.v3_4.spi.PlanningAttributes.{Cardinalities, Solveds}
+import org.neo4j.cypher.internal.v3_4.expressions.SemanticDirection.BOTH
+import org.neo4j.cypher.internal.v3_4.logical.plans.LogicalPlan
+
+/*
+ * Plans MATCH (a)-[r:T]->(b) as a scan of the relationships of type T. Only offered when the relationship type scan
+ * store is enabled, since without it the kernel answers a type scan by reading the whole relationship store.
+ */
+object relationshipTypeScanLeafPlanner extends LeafPlanner {
+  def apply(queryGraph: QueryGraph, context: LogicalPlanningContext, solveds: Solveds, cardinalities: Cardinalities): Seq[LogicalPlan] =
+    if (!context.planContext.relationshipTypeScanStoreEnabled)
+      Seq.empty
+    else
+      queryGraph.patternRelationships.toIndexedSeq.collect {
+        case relationship@PatternRelationship(name, _, dir, Seq(typ), SimplePatternLength)
+          if dir != BOTH && relationship.left != relationship.right && !relationship.coveredIds.exists(queryGraph.argumentIds) =>
+          val (start, end) = relationship.inOrder
+          context.logicalPlanProducer.planDirectedRelationshipTypeScan(name, start, typ, end, relationship, queryGraph.argumentIds, context)
+      }
+}
@@ -90,4 +90,6 @@ class NotImplementedPlanContext extends PlanContext {
   override def getRelTypeId(relType: String): Int = ???
 
   override def twoLayerTransactionState(): Boolean = ???
+
+  override def relationshipTypeScanStoreEnabled: Boolean = ???
 }
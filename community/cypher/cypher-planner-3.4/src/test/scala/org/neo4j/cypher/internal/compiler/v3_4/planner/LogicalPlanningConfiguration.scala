@@ -54,6 +54,7 @@ trait LogicalPlanningConfiguration {
   def graphStatistics: GraphStatistics
   def indexes: Set[(String, Seq[String])]
   def uniqueIndexes: Set[(String, Seq[String])]
+  def relationshipTypeScanStoreEnabled: Boolean
   def labelCardinality: Map[String, Cardinality]
   def knownLabels: Set[String]
   def labelsById: Map[Int, String]
@@ -70,6 +71,7 @@ class DelegatingLogicalPlanningConfiguration(val parent: LogicalPlanningConfigur
   override def graphStatistics = parent.graphStatistics
   override def indexes = parent.indexes
   override def uniqueIndexes = parent.uniqueIndexes
+  override def relationshipTypeScanStoreEnabled = parent.relationshipTypeScanStoreEnabled
   override def labelCardinality = parent.labelCardinality
   override def knownLabels = parent.knownLabels
   override def labelsById = parent.labelsById
@@ -93,7 +93,8 @@ trait LogicalPlanningTestSupport2 extends CypherTestSupport with AstConstruction
     csvBufferSize = Configuration.DEFAULT_BUFFER_SIZE_4MB,
     nonIndexedLabelWarningThreshold = 10000,
     planWithMinimumCardinalityEstimates = true,
-    lenientCreateRelationship = false
+    lenientCreateRelationship = false,
+    operatorMemoryBudget = 0
   )
   val realConfig = new RealLogicalPlanningConfiguration(cypherCompilerConfig)
 
@@ -147,6 +148,9 @@ trait LogicalPlanningTestSupport2 extends CypherTestSupport with AstConstruction
       override def indexExistsForLabel(labelName: String): Boolean =
         config.indexes.exists(_._1 == labelName) || config.uniqueIndexes.exists(_._1 == labelName)
 
+      override def relationshipTypeScanStoreEnabled: Boolean =
+        config.relationshipTypeScanStoreEnabled
+
       override def getOptPropertyKeyId(propertyKeyName: String) =
         semanticTable.resolvedPropertyKeyNames.get(propertyKeyName).map(_.id)
 
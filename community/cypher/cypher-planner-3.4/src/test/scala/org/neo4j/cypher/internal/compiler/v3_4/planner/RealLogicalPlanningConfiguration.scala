@@ -68,6 +68,7 @@ case class RealLogicalPlanningConfiguration(cypherCompilerConfig: CypherCompiler
   override def graphStatistics: GraphStatistics = HardcodedGraphStatistics
   override def indexes: Set[(String, Seq[String])] = Set.empty
   override def uniqueIndexes: Set[(String, Seq[String])] = Set.empty
+  override def relationshipTypeScanStoreEnabled: Boolean = false
   override def labelCardinality: Map[String, Cardinality] = Map.empty
   override def knownLabels: Set[String] = Set.empty
   override def labelsById: Map[Int, String] = Map.empty
@@ -69,6 +69,7 @@ class StubbedLogicalPlanningConfiguration(val parent: LogicalPlanningConfigurati
 
   var indexes: Set[(String, Seq[String])] = Set.empty
   var uniqueIndexes: Set[(String, Seq[String])] = Set.empty
+  var relationshipTypeScanStoreEnabled: Boolean = false
 
   lazy val labelsById: Map[Int, String] = (indexes ++ uniqueIndexes).map(_._1).zipWithIndex.map(_.swap).toMap
 
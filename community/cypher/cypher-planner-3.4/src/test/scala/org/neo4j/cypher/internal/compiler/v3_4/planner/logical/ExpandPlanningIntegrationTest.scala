@@ -144,4 +144,27 @@ class ExpandPlanningIntegrationTest extends CypherFunSuite with LogicalPlanningT
         )
     )
   }
+
+  test("Should build plans scanning the relationship type when the relationship type scan store is enabled") {
+    (new given {
+      relationshipTypeScanStoreEnabled = true
+      cardinality = mapCardinality {
+        case RegularPlannerQuery(queryGraph, _, _) if queryGraph.patternRelationships.isEmpty => 1000.0
+        case _ => 10.0
+      }
+    } getLogicalPlanFor "MATCH (a)<-[r:T]-(b) RETURN r")._2 should equal(
+      DirectedRelationshipTypeScan("r", "b", RelTypeName("T")_, "a", Set.empty)
+    )
+  }
+
+  test("Should build plans containing expand for a typed relationship when the relationship type scan store is disabled") {
+    (new given {
+      cardinality = mapCardinality {
+        case RegularPlannerQuery(queryGraph, _, _) if queryGraph.patternRelationships.isEmpty => 1000.0
+        case _ => 10.0
+      }
+    } getLogicalPlanFor "MATCH (a)<-[r:T]-(b) RETURN r")._2 should beLike {
+      case Expand(AllNodesScan(_, _), _, _, Seq(RelTypeName("T")), _, "r", ExpandAll) => ()
+    }
+  }
 }
@@ -465,7 +465,7 @@ class LeafPlanningIntegrationTest extends CypherFunSuite with LogicalPlanningTes
               "n",
               LabelToken("Awesome", _),
               Seq(PropertyKeyToken("prop", _)),
-              SingleQueryExpression(SignedDecimalIntegerLiteral("42")), _) => ()
+              SingleQueryExpression(SignedDecimalIntegerLiteral("42")), _, _) => ()
     }
   }
 
@@ -832,7 +832,7 @@ class LeafPlanningIntegrationTest extends CypherFunSuite with LogicalPlanningTes
       indexOn("Person", "name")
       cost = nodeIndexSeekCost
     } getLogicalPlanFor "MATCH (a:Person)-->(b) WHERE a.name = b.prop AND b.prop = 42 RETURN b")._2 should beLike {
-      case Selection(_, Expand(NodeIndexSeek("a", _, _, _, _), _, _, _, _, _, _)) => ()
+      case Selection(_, Expand(NodeIndexSeek("a", _, _, _, _, _), _, _, _, _, _, _)) => ()
     }
   }
 
@@ -841,7 +841,7 @@ class LeafPlanningIntegrationTest extends CypherFunSuite with LogicalPlanningTes
       indexOn("Person", "name")
       cost = nodeIndexSeekCost
     } getLogicalPlanFor "MATCH (a:Person)-->(b) WHERE b.prop = a.name AND b.prop = 42 RETURN b")._2 should beLike {
-      case Selection(_, Expand(NodeIndexSeek("a", _, _, _, _), _, _, _, _, _, _)) => ()
+      case Selection(_, Expand(NodeIndexSeek("a", _, _, _, _, _), _, _, _, _, _, _)) => ()
     }
   }
 
@@ -88,7 +88,7 @@ class IndexScanLeafPlannerTest extends CypherFunSuite with LogicalPlanningTestSu
 
       // then
       resultPlans should beLike {
-        case Seq(NodeIndexScan(`idName`, _, _, _)) => ()
+        case Seq(NodeIndexScan(`idName`, _, _, _, _)) => ()
       }
     }
   }
@@ -104,7 +104,7 @@ class IndexScanLeafPlannerTest extends CypherFunSuite with LogicalPlanningTestSu
 
       // then
       resultPlans should beLike {
-        case Seq(NodeIndexScan(`idName`, _, _, _)) => ()
+        case Seq(NodeIndexScan(`idName`, _, _, _, _)) => ()
       }
     }
   }
@@ -122,7 +122,7 @@ class IndexScanLeafPlannerTest extends CypherFunSuite with LogicalPlanningTestSu
 
       // then
       resultPlans should beLike {
-        case Seq(NodeIndexScan(`idName`, _, _, _)) => ()
+        case Seq(NodeIndexScan(`idName`, _, _, _, _)) => ()
       }
 
       resultPlans.map(p => solveds.get(p.id).queryGraph) should beLike {
@@ -144,7 +144,7 @@ class IndexScanLeafPlannerTest extends CypherFunSuite with LogicalPlanningTestSu
 
       // then
       resultPlans should beLike {
-        case Seq(NodeIndexScan(`idName`, _, _, _)) => ()
+        case Seq(NodeIndexScan(`idName`, _, _, _, _)) => ()
       }
 
       resultPlans.map(p => solveds.get(p.id).queryGraph) should beLike {
@@ -163,7 +163,7 @@ class IndexScanLeafPlannerTest extends CypherFunSuite with LogicalPlanningTestSu
 
       // then
       resultPlans should beLike {
-        case Seq(plan@NodeIndexScan(`idName`, _, _, _)) =>
+        case Seq(plan@NodeIndexScan(`idName`, _, _, _, _)) =>
           solveds.get(plan.id) should beLike {
             case RegularPlannerQuery(scanQG, _, _) =>
               scanQG.selections.predicates.map(_.expr) should equal(Set(PartialPredicate(existsPredicate, startsWithPredicate)))
@@ -182,7 +182,7 @@ class IndexScanLeafPlannerTest extends CypherFunSuite with LogicalPlanningTestSu
 
       // then
       resultPlans should beLike {
-        case Seq(plan@NodeIndexScan(`idName`, _, _, _)) =>
+        case Seq(plan@NodeIndexScan(`idName`, _, _, _, _)) =>
           solveds.get(plan.id) should beLike {
             case RegularPlannerQuery(scanQG, _, _) =>
               scanQG.selections.predicates.map(_.expr) should equal(Set(PartialPredicate(existsPredicate, ltPredicate)))
@@ -201,7 +201,7 @@ class IndexScanLeafPlannerTest extends CypherFunSuite with LogicalPlanningTestSu
 
       // then
       resultPlans should beLike {
-        case Seq(plan@NodeIndexScan(`idName`, _, _, _)) =>
+        case Seq(plan@NodeIndexScan(`idName`, _, _, _, _)) =>
           solveds.get(plan.id) should beLike {
             case RegularPlannerQuery(scanQG, _, _) =>
               scanQG.selections.predicates.map(_.expr) should equal(Set(PartialPredicate(existsPredicate, neqPredicate)))
@@ -220,7 +220,7 @@ class IndexScanLeafPlannerTest extends CypherFunSuite with LogicalPlanningTestSu
 
       // then
       resultPlans should beLike {
-        case Seq(plan@NodeIndexScan(`idName`, _, _, _)) =>
+        case Seq(plan@NodeIndexScan(`idName`, _, _, _, _)) =>
           solveds.get(plan.id) should beLike {
             case RegularPlannerQuery(scanQG, _, _) =>
               scanQG.selections.predicates.map(_.expr) should equal(Set(PartialPredicate(existsPredicate, eqPredicate)))
@@ -239,7 +239,7 @@ class IndexScanLeafPlannerTest extends CypherFunSuite with LogicalPlanningTestSu
 
       // then
       resultPlans should beLike {
-        case Seq(plan@NodeIndexScan(`idName`, _, _, _)) =>
+        case Seq(plan@NodeIndexScan(`idName`, _, _, _, _)) =>
           solveds.get(plan.id) should beLike {
             case RegularPlannerQuery(scanQG, _, _) =>
               scanQG.selections.predicates.map(_.expr) should equal(Set(PartialPredicate(existsPredicate, regexPredicate)))
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v3_4.planner.logical.plans.rewriter
+
+import org.mockito.Mockito.when
+import org.neo4j.cypher.internal.compiler.v3_4.planner.LogicalPlanningTestSupport
+import org.neo4j.cypher.internal.frontend.v3_4.ast.AstConstructionTestSupport
+import org.neo4j.cypher.internal.planner.v3_4.spi.{BothOrderCapability, IndexDescriptor, IndexLimitation, NoOrderCapability, PlanContext}
+import org.neo4j.cypher.internal.util.v3_4.attribution.Attributes
+import org.neo4j.cypher.internal.util.v3_4.symbols._
+import org.neo4j.cypher.internal.util.v3_4.test_helpers.CypherFunSuite
+import org.neo4j.cypher.internal.util.v3_4.{LabelId, NonEmptyList, PropertyKeyId}
+import org.neo4j.cypher.internal.v3_4.expressions._
+import org.neo4j.cypher.internal.v3_4.logical.plans._
+
+class UseIndexOrderTest extends CypherFunSuite with LogicalPlanningTestSupport with AstConstructionTestSupport {
+  private val label = LabelToken("Awesome", LabelId(0))
+  private val property = Seq(PropertyKeyToken(PropertyKeyName("prop")(pos), PropertyKeyId(0)))
+  private val greaterThan10 = RangeQueryExpression(InequalitySeekRangeWrapper(
+    RangeGreaterThan(NonEmptyList(ExclusiveBound(literalInt(10))))
+  )(pos))
+  private val startsWithFoo = RangeQueryExpression(PrefixSeekRangeWrapper(PrefixRange(StringLiteral("foo")(pos)))(pos))
+
+  test("should drop Sort on a property seeked by a range the index can order") {
+    val seek = NodeIndexSeek("n", label, property, greaterThan10, Set.empty)
+    val sort = Sort(Projection(seek, Map("x" -> prop("n", "prop"))), Seq(Descending("x")))
+
+    rewrite(sort, orderedIndex) should equal(
+      Projection(NodeIndexSeek("n", label, property, greaterThan10, Set.empty, IndexOrderDescending), Map("x" -> prop("n", "prop"))))
+  }
+
+  test("should replace Top with Limit on a property seeked by prefix") {
+    val seek = NodeIndexSeek("n", label, property, startsWithFoo, Set.empty)
+    val top = Top(Projection(seek, Map("x" -> prop("n", "prop"))), Seq(Ascending("x")), literalInt(10))
+
+    rewrite(top, orderedIndex) should equal(
+      Limit(Projection(NodeIndexSeek("n", label, property, startsWithFoo, Set.empty, IndexOrderAscending), Map("x" -> prop("n", "prop"))),
+        literalInt(10), DoNotIncludeTies))
+  }
+
+  test("should drop Sort on a property projected under another name first") {
+    val seek = NodeIndexSeek("n", label, property, greaterThan10, Set.empty)
+    val sort = Sort(Projection(Projection(seek, Map("p" -> prop("n", "prop"))), Map("x" -> varFor("p"))), Seq(Descending("x")))
+
+    rewrite(sort, orderedIndex) should equal(
+      Projection(Projection(NodeIndexSeek("n", label, property, greaterThan10, Set.empty, IndexOrderDescending),
+                            Map("p" -> prop("n", "prop"))), Map("x" -> varFor("p"))))
+  }
+
+  test("should only read the first row for max of a seeked property") {
+    val seek = NodeIndexSeek("n", label, property, greaterThan10, Set.empty)
+    val max = FunctionInvocation(FunctionName("max")(pos), prop("n", "prop"))(pos)
+    val aggregation = Aggregation(seek, Map.empty, Map("m" -> max))
+
+    rewrite(aggregation, orderedIndex) should equal(
+      Aggregation(Limit(NodeIndexSeek("n", label, property, greaterThan10, Set.empty, IndexOrderDescending), literalInt(1), DoNotIncludeTies),
+        Map.empty, Map("m" -> max)))
+  }
+
+  test("should replace Top with Limit on the distance to the point of a point-distance seek") {
+    val point = Parameter("point", CTAny)(pos)
+    val withinDistance = RangeQueryExpression(PointDistanceSeekRangeWrapper(PointDistanceRange(point, literalInt(100), inclusive = true))(pos))
+    val distance = FunctionInvocation(FunctionName("distance")(pos), distinct = false, IndexedSeq(prop("n", "prop"), point))(pos)
+    val seek = NodeIndexSeek("n", label, property, withinDistance, Set.empty)
+    val top = Top(Projection(seek, Map("d" -> distance)), Seq(Ascending("d")), literalInt(10))
+
+    rewrite(top, unorderedIndex) should equal(
+      Limit(Projection(NodeIndexSeek("n", label, property, withinDistance, Set.empty, IndexOrderAscending), Map("d" -> distance)),
+        literalInt(10), DoNotIncludeTies))
+  }
+
+  test("should replace Top on the distance to a point over a label scan with nearest neighbours from the index") {
+    val point = Parameter("point", CTAny)(pos)
+    val distance = FunctionInvocation(FunctionName("distance")(pos), distinct = false, IndexedSeq(prop("n", "prop"), point))(pos)
+    val top = Top(Projection(NodeByLabelScan("n", lblName("Awesome"), Set.empty), Map("d" -> distance)), Seq(Ascending("d")), literalInt(10))
+
+    val nearest = RangeQueryExpression(NearestNeighbourSeekWrapper(point)(pos))
+    rewrite(top, unorderedIndex) should equal(
+      Limit(Projection(NodeIndexSeek("n", label, property, nearest, Set.empty, IndexOrderAscending), Map("d" -> distance)),
+        literalInt(10), DoNotIncludeTies))
+  }
+
+  test("should keep Sort on the distance to a point over a label scan") {
+    val distance = FunctionInvocation(FunctionName("distance")(pos), distinct = false,
+                                      IndexedSeq(prop("n", "prop"), Parameter("point", CTAny)(pos)))(pos)
+    val sort = Sort(Projection(NodeByLabelScan("n", lblName("Awesome"), Set.empty), Map("d" -> distance)), Seq(Ascending("d")))
+
+    rewrite(sort, unorderedIndex) should equal(sort)
+  }
+
+  test("should keep Top on the distance to a point which is not known before the label scan") {
+    val distance = FunctionInvocation(FunctionName("distance")(pos), distinct = false, IndexedSeq(prop("n", "prop"), prop("n", "other")))(pos)
+    val top = Top(Projection(NodeByLabelScan("n", lblName("Awesome"), Set.empty), Map("d" -> distance)), Seq(Ascending("d")), literalInt(10))
+
+    rewrite(top, unorderedIndex) should equal(top)
+  }
+
+  test("should keep Sort when the index can not order") {
+    val seek = NodeIndexSeek("n", label, property, greaterThan10, Set.empty)
+    val sort = Sort(Projection(seek, Map("x" -> prop("n", "prop"))), Seq(Ascending("x")))
+
+    rewrite(sort, unorderedIndex) should equal(sort)
+  }
+
+  test("should keep Sort on another property than the seeked one") {
+    val seek = NodeIndexSeek("n", label, property, greaterThan10, Set.empty)
+    val sort = Sort(Projection(seek, Map("x" -> prop("n", "other"))), Seq(Ascending("x")))
+
+    rewrite(sort, orderedIndex) should equal(sort)
+  }
+
+  private def orderedIndex = IndexDescriptor(0, Seq(0), Set.empty[IndexLimitation], {
+    case CTString | CTInteger | CTFloat | CTNumber => BothOrderCapability
+    case _ => NoOrderCapability
+  }: IndexDescriptor.OrderCapability)
+
+  private def unorderedIndex = IndexDescriptor(0, 0)
+
+  private def rewrite(p: LogicalPlan, index: IndexDescriptor): LogicalPlan = {
+    val planContext = mock[PlanContext]
+    when(planContext.indexGet("Awesome", Seq("prop"))).thenReturn(Some(index))
+    when(planContext.getOptLabelId("Awesome")).thenReturn(Some(0))
+    when(planContext.getOptPropertyKeyId("prop")).thenReturn(Some(0))
+    p.endoRewrite(useIndexOrder(planContext, Attributes(idGen)))
+  }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher
+
+import java.util.concurrent.TimeUnit.NANOSECONDS
+import java.util.concurrent.atomic.AtomicLong
+
+import org.neo4j.cypher.internal.tracing.TimingCompilationTracer
+
+class CompilationMetricsMonitor extends TimingCompilationTracer.EventListener {
+  private val compilations = new AtomicLong()
+  private val compilationTime = new AtomicLong()
+
+  override def queryCompiled(event: TimingCompilationTracer.QueryEvent): Unit = {
+    // queries found in the plan cache are traced as well, but without going through any compilation phase
+    if (!event.phases().isEmpty) {
+      compilations.incrementAndGet()
+      compilationTime.addAndGet(event.nanoTime())
+    }
+  }
+
+  def numberOfCompilations: Long = compilations.get()
+
+  def compilationTimeMillis: Long = NANOSECONDS.toMillis(compilationTime.get())
+}
@@ -45,6 +45,12 @@ import org.neo4j.cypher.internal.StringCacheMonitor
 class PlanCacheMetricsMonitor extends StringCacheMonitor {
   private val counter = new AtomicLong()
   private val waitTime = new AtomicLong()
+  private val hits = new AtomicLong()
+  private val misses = new AtomicLong()
+
+  override def cacheHit(ignored: String): Unit = hits.incrementAndGet()
+
+  override def cacheMiss(ignored: String): Unit = misses.incrementAndGet()
 
   override def cacheDiscard(ignored1: String, ignored2: String, secondsSinceReplan: Int): Unit = {
     counter.incrementAndGet()
@@ -54,4 +60,14 @@ class PlanCacheMetricsMonitor extends StringCacheMonitor {
   def numberOfReplans: Long = counter.get()
 
   def replanWaitTime: Long = waitTime.get()
+
+  def numberOfHits: Long = hits.get()
+
+  def numberOfMisses: Long = misses.get()
+
+  def hitRatio: Double = {
+    val hitCount = hits.get()
+    val lookups = hitCount + misses.get()
+    if (lookups == 0) 0.0 else hitCount.toDouble / lookups
+  }
 }
@@ -105,6 +105,7 @@ class CompilerEngineDelegator(graph: GraphDatabaseQueryService,
                               csvBufferSize: Int,
                               planWithMinimumCardinalityEstimates: Boolean,
                               lenientCreateRelationship: Boolean,
+                              operatorMemoryBudget: Long,
                               logProvider: LogProvider,
                               compatibilityFactory: CompatibilityFactory) {
 
@@ -124,7 +125,8 @@ class CompilerEngineDelegator(graph: GraphDatabaseQueryService,
     csvBufferSize = csvBufferSize,
     nonIndexedLabelWarningThreshold = getNonIndexedLabelWarningThreshold,
     planWithMinimumCardinalityEstimates = planWithMinimumCardinalityEstimates,
-    lenientCreateRelationship = lenientCreateRelationship
+    lenientCreateRelationship = lenientCreateRelationship,
+    operatorMemoryBudget = operatorMemoryBudget
   )
 
   private final val ILLEGAL_PLANNER_RUNTIME_COMBINATIONS: Set[(CypherPlanner, CypherRuntime)] = Set((CypherPlanner.rule, CypherRuntime.compiled), (CypherPlanner.rule, CypherRuntime.slotted))
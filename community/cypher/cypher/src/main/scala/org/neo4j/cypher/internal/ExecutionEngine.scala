@@ -50,15 +50,18 @@ import org.neo4j.cypher.internal.tracing.{CompilationTracer, TimingCompilationTr
 import org.neo4j.graphdb.Result
 import org.neo4j.graphdb.config.Setting
 import org.neo4j.graphdb.factory.GraphDatabaseSettings
-import org.neo4j.internal.kernel.api.SchemaRead
-import org.neo4j.internal.kernel.api.security.AccessMode
+import org.neo4j.internal.kernel.api.{SchemaRead, Transaction}
+import org.neo4j.internal.kernel.api.security.{AccessMode, SecurityContext}
 import org.neo4j.kernel.api.query.SchemaIndexUsage
 import org.neo4j.kernel.configuration.Config
-import org.neo4j.kernel.impl.query.{QueryExecutionMonitor, TransactionalContext}
+import org.neo4j.kernel.impl.coreapi.PropertyContainerLocker
+import org.neo4j.kernel.impl.query.clientconnection.ClientConnectionInfo
+import org.neo4j.kernel.impl.query.{Neo4jTransactionalContextFactory, QueryExecutionMonitor, TransactionalContext}
 import org.neo4j.kernel.monitoring.{Monitors => KernelMonitors}
 import org.neo4j.kernel.{GraphDatabaseQueryService, api}
 import org.neo4j.logging.{LogProvider, NullLogProvider}
-import org.neo4j.values.virtual.MapValue
+import org.neo4j.scheduler.JobScheduler
+import org.neo4j.values.virtual.{MapValue, VirtualValues}
 
 trait StringCacheMonitor extends CypherCacheMonitor[String, api.Statement]
 
@@ -82,7 +85,7 @@ class ExecutionEngine(val queryService: GraphDatabaseQueryService,
   private val queryDispatcher: CompilerEngineDelegator = createCompilerDelegator()
 
   private val log = logProvider.getLog( getClass )
-  private val cacheMonitor = kernelMonitors.newMonitor(classOf[StringCacheMonitor])
+  private val cacheMonitor = kernelMonitors.newMonitor(classOf[StringCacheMonitor], ExecutionEngine.PLAN_CACHE_MONITOR_TAG)
   kernelMonitors.addMonitorListener( new StringCacheMonitor {
     override def cacheDiscard(ignored: String, query: String, secondsSinceReplan: Int) {
       log.info(s"Discarded stale query from the query cache after ${secondsSinceReplan} seconds: $query")
@@ -93,6 +96,17 @@ class ExecutionEngine(val queryService: GraphDatabaseQueryService,
 
   private val cacheAccessor = new MonitoringCacheAccessor[String, (ExecutionPlan, Map[String, Any], Seq[String])](cacheMonitor)
 
+  private val backgroundReplanner: Option[BackgroundReplanner] =
+    if (optGraphSetting[java.lang.Boolean](queryService, GraphDatabaseSettings.cypher_replan_in_background,
+      GraphDatabaseSettings.cypher_replan_in_background.getDefaultValue.toBoolean)) {
+      val threads = optGraphSetting[java.lang.Integer](queryService, GraphDatabaseSettings.cypher_background_replan_threads,
+        GraphDatabaseSettings.cypher_background_replan_threads.getDefaultValue.toInt)
+      val scheduler = resolver.resolveDependency(classOf[JobScheduler])
+      Some(new BackgroundReplanner(scheduler, threads, Math.max(1, getPlanCacheSize), log))
+    } else None
+
+  private lazy val replanContextFactory = Neo4jTransactionalContextFactory.create(queryService, new PropertyContainerLocker)
+
   private val preParsedQueries = new LFUCache[String, PreParsedQuery](getPlanCacheSize)
   private val parsedQueries = new LFUCache[String, ParsedQuery](getPlanCacheSize)
 
@@ -190,16 +204,20 @@ class ExecutionEngine(val queryService: GraphDatabaseQueryService,
           val cache: QueryCache[String, (ExecutionPlan, Map[String, Any], Seq[String])] = getOrCreateFromSchemaState(tc.schemaRead, {
             cacheMonitor.cacheFlushDetected(tc.statement)
             val lruCache = new LFUCache[String, (ExecutionPlan, Map[String, Any], Seq[String])](getPlanCacheSize)
-            new QueryCache(cacheAccessor, lruCache)
+            new QueryCache(cacheAccessor, lruCache, backgroundReplanner)
           })
 
           def isStale(plan: ExecutionPlan, ignored1: Map[String, Any], ignored2: Seq[String]) = plan.isStale(lastCommittedTxId, tc)
 
-          val producePlan = new PlanProducer[(ExecutionPlan, Map[String, Any], Seq[String])] {
+          val securityContext = tc.securityContext
+          val producePlan = new BackgroundPlanProducer[(ExecutionPlan, Map[String, Any], Seq[String])] {
             override def produceWithExistingTX: (ExecutionPlan, Map[String, Any], Seq[String]) = {
               val parsedQuery = parsePreParsedQuery(preParsedQuery, phaseTracer)
               parsedQuery.plan(tc, phaseTracer)
             }
+
+            override def produceInNewTX: (ExecutionPlan, Map[String, Any], Seq[String]) =
+              planInNewTransaction(preParsedQuery, queryText, securityContext)
           }
 
           val stateBefore = schemaState(tc)
@@ -242,6 +260,26 @@ class ExecutionEngine(val queryService: GraphDatabaseQueryService,
     throw new IllegalStateException("Could not execute query due to insanely frequent schema changes")
   }
 
+  /**
+    * Plans the query away from the query execution that found its plan stale, in a read transaction of its own.
+    */
+  private def planInNewTransaction(preParsedQuery: PreParsedQuery, queryText: String,
+                                   securityContext: SecurityContext): (ExecutionPlan, Map[String, Any], Seq[String]) = {
+    val tx = queryService.beginTransaction(Transaction.Type.`implicit`, securityContext.withMode(AccessMode.Static.READ))
+    val tc = TransactionalContextWrapper(
+      replanContextFactory.newContext(ClientConnectionInfo.EMBEDDED_CONNECTION, tx, queryText, VirtualValues.EMPTY_MAP))
+    val phaseTracer = compilationTracer.compileQuery(queryText)
+    try {
+      val plan = parsePreParsedQuery(preParsedQuery, phaseTracer).plan(tc, phaseTracer)
+      tc.close(success = true)
+      plan
+    } catch {
+      case (t: Throwable) =>
+        tc.close(success = false)
+        throw t
+    } finally phaseTracer.close()
+  }
+
   @throws(classOf[ParameterNotFoundException])
   private def checkParameters(queryParams: Seq[String], givenParams: MapValue, extractedParams: Map[String, Any]) {
     exceptionHandler.runSafely {
@@ -344,6 +382,10 @@ class ExecutionEngine(val queryService: GraphDatabaseQueryService,
       queryService, GraphDatabaseSettings.cypher_lenient_create_relationship,
       GraphDatabaseSettings.cypher_lenient_create_relationship.getDefaultValue.toBoolean
     )
+    val operatorMemoryBudget = optGraphSetting[java.lang.Long](
+      queryService, GraphDatabaseSettings.cypher_operator_memory_budget,
+      GraphDatabaseSettings.cypher_operator_memory_budget.getDefaultValue.toLong
+    )
 
     if (((version != CypherVersion.v2_3) || (version != CypherVersion.v3_1) || (version != CypherVersion.v3_4) || (version != CypherVersion.v3_3)) &&
       (planner == CypherPlanner.greedy || planner == CypherPlanner.idp || planner == CypherPlanner.dp)) {
@@ -357,7 +399,7 @@ class ExecutionEngine(val queryService: GraphDatabaseQueryService,
     new CompilerEngineDelegator(queryService, kernelMonitors, version, planner, runtime,
       useErrorsOverWarnings, idpMaxTableSize, idpIterationDuration, errorIfShortestPathFallbackUsedAtRuntime,
       errorIfShortestPathHasCommonNodesAtRuntime, legacyCsvQuoteEscaping, csvBufferSize, planWithMinimumCardinalityEstimates,
-      lenientCreateRelationship, logProvider, compatibilityCache)
+      lenientCreateRelationship, operatorMemoryBudget, logProvider, compatibilityCache)
   }
 
   private def getPlanCacheSize: Int =
@@ -374,4 +416,5 @@ class ExecutionEngine(val queryService: GraphDatabaseQueryService,
 
 object ExecutionEngine {
   val PLAN_BUILDING_TRIES: Int = 20
+  val PLAN_CACHE_MONITOR_TAG: String = "cypher.plan_cache"
 }
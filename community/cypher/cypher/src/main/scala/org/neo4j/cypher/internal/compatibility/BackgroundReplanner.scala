@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compatibility
+
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.{ConcurrentHashMap, ConcurrentLinkedQueue, RejectedExecutionException}
+
+import org.neo4j.logging.Log
+import org.neo4j.scheduler.JobScheduler
+
+/**
+  * Replans stale query cache entries in the [[JobScheduler.Groups.cypherReplanning]] group of the database job scheduler,
+  * on at most `threads` threads at a time. At most one replan per key is in flight at a time, and at most `maxWaiting`
+  * replans wait for a thread. Replans that cannot be scheduled, also once the scheduler has shut down, are left to the
+  * caller.
+  */
+class BackgroundReplanner(scheduler: JobScheduler, threads: Int, maxWaiting: Int, log: Log) {
+
+  private val inFlight = ConcurrentHashMap.newKeySet[AnyRef]()
+  private val waiting = new ConcurrentLinkedQueue[Runnable]()
+  private val waitingCount = new AtomicInteger()
+  private val workers = new AtomicInteger()
+
+  /**
+    * @return true if the key is, or already was, scheduled for replanning, false if the caller has to replan it
+    */
+  def schedule(key: AnyRef, userKey: String, replan: () => Unit): Boolean = {
+    if (!inFlight.add(key))
+      true
+    else if (waitingCount.incrementAndGet() > maxWaiting) {
+      waitingCount.decrementAndGet()
+      inFlight.remove(key)
+      false
+    } else {
+      val task = new Runnable {
+        override def run(): Unit =
+          try {
+            replan()
+          } catch {
+            case t: Throwable => log.warn(s"Failed to replan stale query in the background: $userKey", t)
+          } finally {
+            inFlight.remove(key)
+          }
+      }
+      waiting.add(task)
+      try {
+        startWorker()
+        true
+      } catch {
+        case _: RejectedExecutionException if waiting.remove(task) =>
+          waitingCount.decrementAndGet()
+          inFlight.remove(key)
+          false
+        case _: RejectedExecutionException =>
+          // a running worker took the task
+          true
+      }
+    }
+  }
+
+  private def startWorker(): Unit = {
+    val running = workers.get()
+    if (!waiting.isEmpty && running < threads) {
+      if (workers.compareAndSet(running, running + 1)) {
+        try {
+          scheduler.schedule(JobScheduler.Groups.cypherReplanning, new Runnable {
+            override def run(): Unit = work()
+          })
+        } catch {
+          case e: RejectedExecutionException =>
+            workers.decrementAndGet()
+            throw e
+        }
+      } else {
+        startWorker()
+      }
+    }
+  }
+
+  private def work(): Unit = {
+    var task = waiting.poll()
+    while (task != null) {
+      waitingCount.decrementAndGet()
+      task.run()
+      task = waiting.poll()
+    }
+    workers.decrementAndGet()
+    // a replan queued after the last poll may have found all workers busy
+    try {
+      startWorker()
+    } catch {
+      case _: RejectedExecutionException => // the scheduler has shut down, queued replans are dropped with it
+    }
+  }
+}
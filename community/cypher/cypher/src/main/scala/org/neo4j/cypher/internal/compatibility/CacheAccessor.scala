@@ -43,13 +43,26 @@ import org.neo4j.cypher.internal.compiler.v3_4.{CacheCheckResult, FineToReuse, N
 trait CacheAccessor[K <: AnyRef, T <: AnyRef] {
   def getOrElseUpdate(cache: LFUCache[K, T])(key: K, f: => T): T
   def put(cache: LFUCache[K, T])(key: K, value: T, userKey: String, secondsSinceReplan: Int): T
+  def replace(cache: LFUCache[K, T])(key: K, stale: T, value: T, userKey: String, secondsSinceReplan: Int): Boolean
 }
 
 trait PlanProducer[T] {
   def produceWithExistingTX: T
 }
 
-class QueryCache[K <: AnyRef, T <: AnyRef](cacheAccessor: CacheAccessor[K, T], cache: LFUCache[K, T]) {
+/**
+  * A plan producer that can also plan the query on another thread, in a transaction of its own.
+  */
+trait BackgroundPlanProducer[T] extends PlanProducer[T] {
+  def produceInNewTX: T
+}
+
+/**
+  * When given a [[BackgroundReplanner]], stale plans of [[BackgroundPlanProducer]]s are replanned in the background
+  * and keep being returned until their replacement is swapped into the cache.
+  */
+class QueryCache[K <: AnyRef, T <: AnyRef](cacheAccessor: CacheAccessor[K, T], cache: LFUCache[K, T],
+                                           replanner: Option[BackgroundReplanner] = None) {
   def getOrElseUpdate(key: K, userKey: String, checkPlanStillValid: T => CacheCheckResult, produce: PlanProducer[T]): (T, Boolean) = {
     if (cache.size == 0)
       (produce.produceWithExistingTX, false)
@@ -65,6 +78,8 @@ class QueryCache[K <: AnyRef, T <: AnyRef](cacheAccessor: CacheAccessor[K, T], c
       else {
         // We found a matching plan in the cache. let's make sure it's OK to use again.
         checkPlanStillValid(plan) match {
+          case NeedsReplan(secondsSinceReplan) if replanInBackground(key, userKey, plan, produce, secondsSinceReplan) =>
+            (plan, false)
           case NeedsReplan(secondsSinceReplan) =>
             val newPlan = produce.produceWithExistingTX
             cacheAccessor.put(cache)(key, newPlan, userKey, secondsSinceReplan)
@@ -76,6 +91,23 @@ class QueryCache[K <: AnyRef, T <: AnyRef](cacheAccessor: CacheAccessor[K, T], c
       }
     }
   }
+
+  private def replanInBackground(key: K, userKey: String, stale: T, produce: PlanProducer[T], secondsSinceReplan: Int): Boolean =
+    (replanner, produce) match {
+      case (Some(background), producer: BackgroundPlanProducer[T @unchecked]) =>
+        background.schedule(key, userKey, () =>
+          try {
+            // a newer plan, or a flush of the cache, wins over this one
+            cacheAccessor.replace(cache)(key, stale, producer.produceInNewTX, userKey, secondsSinceReplan)
+          } catch {
+            case t: Throwable =>
+              // let the next query plan it again, and see the failure
+              cache.remove(key)
+              throw t
+          })
+      case _ =>
+        false
+    }
 }
 
 class MonitoringCacheAccessor[K <: AnyRef, T <: AnyRef](monitor: CypherCacheHitMonitor[K]) extends CacheAccessor[K, T] {
@@ -100,4 +132,11 @@ class MonitoringCacheAccessor[K <: AnyRef, T <: AnyRef](monitor: CypherCacheHitM
     monitor.cacheDiscard(key, userKey, secondsSinceReplan)
     value
   }
+
+  override def replace(cache: LFUCache[K, T])(key: K, stale: T, value: T, userKey: String, secondsSinceReplan: Int): Boolean = {
+    val replaced = cache.replace(key, stale, value)
+    if (replaced)
+      monitor.cacheDiscard(key, userKey, secondsSinceReplan)
+    replaced
+  }
 }
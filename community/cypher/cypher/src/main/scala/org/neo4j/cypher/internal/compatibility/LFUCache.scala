@@ -62,6 +62,12 @@ class LFUCache[K <: AnyRef, V <: AnyRef](val size: Int) extends ((K, => V) => V)
 
   def remove(key: K): Option[V] = Option(inner.asMap().remove(key))
 
+  /**
+    * Replaces the value of a key only if it is still mapped to the expected value
+    * @return true if the value was replaced
+    */
+  def replace(key: K, expected: V, value: V): Boolean = inner.asMap().replace(key, expected, value)
+
   def containsKey(key: K) = inner.asMap().containsKey(key)
 
   def apply(key: K, value: => V): V = getOrElseUpdate(key, value)
@@ -113,6 +113,13 @@ object LogicalPlanConverter {
             children(1).asInstanceOf[LogicalPlanV3_4],
             children(2).asInstanceOf[LogicalPlanV3_4]
           )(ids.convertId(plan))
+        // 3.3 index leaf plans never ask for an index order
+        case (plan: plansV3_3.NodeIndexSeek, children: Seq[AnyRef]) =>
+          convertVersion("v3_3", "v3_4", plan, children :+ plansV3_4.IndexOrderNone, ids.convertId(plan), classOf[IdGen])
+        case (plan: plansV3_3.NodeUniqueIndexSeek, children: Seq[AnyRef]) =>
+          convertVersion("v3_3", "v3_4", plan, children :+ plansV3_4.IndexOrderNone, ids.convertId(plan), classOf[IdGen])
+        case (plan: plansV3_3.NodeIndexScan, children: Seq[AnyRef]) =>
+          convertVersion("v3_3", "v3_4", plan, children :+ plansV3_4.IndexOrderNone, ids.convertId(plan), classOf[IdGen])
         case (plan: plansV3_3.LogicalPlan, children: Seq[AnyRef]) =>
           convertVersion("v3_3", "v3_4", plan, children, ids.convertId(plan), classOf[IdGen])
 
@@ -117,4 +117,7 @@ class ExceptionTranslatingPlanContext(inner: PlanContext) extends PlanContext wi
 
   override def twoLayerTransactionState(): Boolean =
     translateException(inner.twoLayerTransactionState())
+
+  override def relationshipTypeScanStoreEnabled: Boolean =
+    translateException(inner.relationshipTypeScanStoreEnabled)
 }
@@ -47,8 +47,9 @@ import org.neo4j.cypher.internal.runtime.interpreted.{DelegatingOperations, Dele
 import org.neo4j.cypher.internal.v3_4.expressions.SemanticDirection
 import org.neo4j.cypher.internal.v3_4.logical.plans.QualifiedName
 import org.neo4j.graphdb.{Node, Path, PropertyContainer}
-import org.neo4j.internal.kernel.api.{IndexQuery, IndexReference}
+import org.neo4j.internal.kernel.api.{IndexOrder, IndexQuery, IndexReference}
 import org.neo4j.internal.kernel.api.helpers.RelationshipSelectionCursor
+import org.neo4j.kernel.api.query.QueryMemoryTracker
 import org.neo4j.kernel.impl.api.store.RelationshipIterator
 import org.neo4j.kernel.impl.core.EmbeddedProxySPI
 import org.neo4j.values.AnyValue
@@ -65,6 +66,8 @@ class ExceptionTranslatingQueryContext(val inner: QueryContext) extends QueryCon
 
   override def resources: CloseableResource = inner.resources
 
+  override def memoryTracker: QueryMemoryTracker = inner.memoryTracker
+
   override def transactionalContext =
     new ExceptionTranslatingTransactionalContext(inner.transactionalContext)
 
@@ -119,8 +122,8 @@ class ExceptionTranslatingQueryContext(val inner: QueryContext) extends QueryCon
   override def dropIndexRule(descriptor: IndexDescriptor) =
     translateException(inner.dropIndexRule(descriptor))
 
-  override def indexSeek(index: IndexReference, values: Seq[IndexQuery]): Iterator[NodeValue] =
-    translateException(inner.indexSeek(index, values))
+  override def indexSeek(index: IndexReference, indexOrder: IndexOrder, values: Seq[IndexQuery]): Iterator[NodeValue] =
+    translateException(inner.indexSeek(index, indexOrder, values))
 
   override def getNodesByLabel(id: Int): Iterator[NodeValue] =
     translateException(inner.getNodesByLabel(id))
@@ -128,6 +131,9 @@ class ExceptionTranslatingQueryContext(val inner: QueryContext) extends QueryCon
   override def getNodesByLabelPrimitive(id: Int): PrimitiveLongIterator =
     translateException(inner.getNodesByLabelPrimitive(id))
 
+  override def getRelationshipsByType(id: Int): Iterator[RelationshipValue] =
+    translateException(inner.getRelationshipsByType(id))
+
   override def nodeGetDegree(node: Long, dir: SemanticDirection): Int =
     translateException(inner.nodeGetDegree(node, dir))
 
@@ -253,11 +259,11 @@ class ExceptionTranslatingQueryContext(val inner: QueryContext) extends QueryCon
   override def indexScanByEndsWith(index: IndexReference, value: String) =
     translateException(inner.indexScanByEndsWith(index, value))
 
-  override def indexScan(index: IndexReference) =
-    translateException(inner.indexScan(index))
+  override def indexScan(index: IndexReference, indexOrder: IndexOrder) =
+    translateException(inner.indexScan(index, indexOrder))
 
-  override def indexScanPrimitive(index: IndexReference) =
-    translateException(inner.indexScanPrimitive(index))
+  override def indexScanPrimitive(index: IndexReference, indexOrder: IndexOrder) =
+    translateException(inner.indexScanPrimitive(index, indexOrder))
 
   override def nodeIsDense(node: Long) =
     translateException(inner.nodeIsDense(node))
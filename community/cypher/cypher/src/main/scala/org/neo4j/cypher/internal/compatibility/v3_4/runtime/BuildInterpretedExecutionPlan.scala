@@ -75,7 +75,8 @@ object BuildInterpretedExecutionPlan extends Phase[CommunityRuntimeContext, Logi
     val pipeInfo = executionPlanBuilder.build(from.periodicCommit, logicalPlan)(pipeBuildContext, context.planContext)
     val PipeInfo(pipe, updating, periodicCommitInfo, fp, planner) = pipeInfo
     val columns = from.statement().returnColumns
-    val resultBuilderFactory = InterpretedExecutionResultBuilderFactory(pipeInfo, columns, logicalPlan, context.config.lenientCreateRelationship)
+    val resultBuilderFactory = InterpretedExecutionResultBuilderFactory(pipeInfo, columns, logicalPlan,
+      context.config.lenientCreateRelationship, context.config.operatorMemoryBudget)
     val func = getExecutionPlanFunction(periodicCommitInfo, updating, resultBuilderFactory,
                                         context.notificationLogger, InterpretedRuntimeName, readOnlies, cardinalities)
 
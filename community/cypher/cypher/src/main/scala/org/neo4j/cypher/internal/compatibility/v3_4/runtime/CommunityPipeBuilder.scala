@@ -101,19 +101,22 @@ case class CommunityPipeBuilder(monitors: Monitors, recurse: LogicalPlan => Pipe
       case DirectedRelationshipByIdSeek(ident, relIdExpr, fromNode, toNode, _) =>
         DirectedRelationshipByIdSeekPipe(ident, expressionConverters.toCommandSeekArgs(relIdExpr), toNode, fromNode)(id = id)
 
+      case DirectedRelationshipTypeScan(ident, fromNode, typ, toNode, _) =>
+        DirectedRelationshipTypeScanPipe(ident, fromNode, LazyType(typ.name), toNode)(id = id)
+
       case UndirectedRelationshipByIdSeek(ident, relIdExpr, fromNode, toNode, _) =>
         UndirectedRelationshipByIdSeekPipe(ident, expressionConverters.toCommandSeekArgs(relIdExpr), toNode, fromNode)(id = id)
 
-      case NodeIndexSeek(ident, label, propertyKeys, valueExpr, _) =>
+      case NodeIndexSeek(ident, label, propertyKeys, valueExpr, _, indexOrder) =>
         val indexSeekMode = IndexSeekModeFactory(unique = false, readOnly = readOnly).fromQueryExpression(valueExpr)
-        NodeIndexSeekPipe(ident, label, propertyKeys, valueExpr.map(buildExpression), indexSeekMode)(id = id)
+        NodeIndexSeekPipe(ident, label, propertyKeys, valueExpr.map(buildExpression), indexSeekMode, indexOrder)(id = id)
 
-      case NodeUniqueIndexSeek(ident, label, propertyKeys, valueExpr, _) =>
+      case NodeUniqueIndexSeek(ident, label, propertyKeys, valueExpr, _, indexOrder) =>
         val indexSeekMode = IndexSeekModeFactory(unique = true, readOnly = readOnly).fromQueryExpression(valueExpr)
-        NodeIndexSeekPipe(ident, label, propertyKeys, valueExpr.map(buildExpression), indexSeekMode)(id = id)
+        NodeIndexSeekPipe(ident, label, propertyKeys, valueExpr.map(buildExpression), indexSeekMode, indexOrder)(id = id)
 
-      case NodeIndexScan(ident, label, propertyKey, _) =>
-        NodeIndexScanPipe(ident, label, propertyKey)(id = id)
+      case NodeIndexScan(ident, label, propertyKey, _, indexOrder) =>
+        NodeIndexScanPipe(ident, label, propertyKey, indexOrder)(id = id)
 //TODO: Check out this warning
       case NodeIndexContainsScan(ident, label, propertyKey, valueExpr, _) =>
         NodeIndexContainsScanPipe(ident, label, propertyKey, buildExpression(valueExpr))(id = id)
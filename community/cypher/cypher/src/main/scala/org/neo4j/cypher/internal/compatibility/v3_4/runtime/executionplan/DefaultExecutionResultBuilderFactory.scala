@@ -43,6 +43,7 @@ import org.neo4j.cypher.internal.compatibility.v3_4.runtime.helpers.InternalWrap
 import org.neo4j.cypher.internal.frontend.v3_4.phases.InternalNotificationLogger
 import org.neo4j.cypher.internal.planner.v3_4.spi.PlanningAttributes.{Cardinalities, ReadOnlies}
 import org.neo4j.cypher.internal.runtime.interpreted.pipes._
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.QueryOperatorMemory
 import org.neo4j.cypher.internal.runtime.interpreted.{CSVResources, ExecutionContext}
 import org.neo4j.cypher.internal.runtime.planDescription.InternalPlanDescription.Arguments.{Runtime, RuntimeImpl}
 import org.neo4j.cypher.internal.runtime.planDescription.{InternalPlanDescription, LogicalPlan2PlanDescription}
@@ -161,7 +162,8 @@ abstract class BaseExecutionResultBuilderFactory(pipeInfo: PipeInfo,
 case class InterpretedExecutionResultBuilderFactory(pipeInfo: PipeInfo,
                                                     columns: List[String],
                                                     logicalPlan: LogicalPlan,
-                                                    lenientCreateRelationship: Boolean)
+                                                    lenientCreateRelationship: Boolean,
+                                                    operatorMemoryBudget: Long)
   extends BaseExecutionResultBuilderFactory(pipeInfo, columns, logicalPlan) {
 
   override def create(): ExecutionResultBuilder =
@@ -175,7 +177,9 @@ case class InterpretedExecutionResultBuilderFactory(pipeInfo: PipeInfo,
                      pipeDecorator,
                      triadicState = mutable.Map.empty,
                      repeatableReads = mutable.Map.empty,
-                     lenientCreateRelationship = lenientCreateRelationship)
+                     lenientCreateRelationship = lenientCreateRelationship,
+                     operatorMemory = new QueryOperatorMemory(operatorMemoryBudget),
+                     memoryTracker = queryContext.memoryTracker)
     }
 
     override def buildResultIterator(results: Iterator[ExecutionContext], isUpdating: Boolean): ResultIterator = {
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compatibility
+
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.{CountDownLatch, TimeUnit}
+
+import org.neo4j.cypher.internal.compiler.v3_4.{FineToReuse, NeedsReplan}
+import org.neo4j.cypher.internal.util.v3_4.test_helpers.CypherFunSuite
+import org.neo4j.kernel.impl.scheduler.CentralJobScheduler
+import org.neo4j.logging.NullLog
+
+class QueryCacheTest extends CypherFunSuite {
+
+  private val monitor = new CypherCacheHitMonitor[String] {}
+  private var scheduler: CentralJobScheduler = _
+
+  override protected def beforeEach(): Unit = {
+    super.beforeEach()
+    scheduler = new CentralJobScheduler
+    scheduler.init()
+  }
+
+  override protected def afterEach(): Unit = {
+    scheduler.shutdown()
+    super.afterEach()
+  }
+
+  test("should replan stale plans on the calling thread without a background replanner") {
+    val cache = new QueryCache(new MonitoringCacheAccessor[String, String](monitor), new LFUCache[String, String](10))
+    val produce = producer("plan", "new plan")
+
+    cache.getOrElseUpdate("key", "query", _ => FineToReuse, produce) should equal(("plan", true))
+    cache.getOrElseUpdate("key", "query", _ => NeedsReplan(1), produce) should equal(("new plan", true))
+  }
+
+  test("should keep serving the stale plan while replanning it in the background") {
+    val lfu = new LFUCache[String, String](10)
+    val cache = new QueryCache(new MonitoringCacheAccessor[String, String](monitor), lfu, Some(replanner))
+    val replans = new AtomicInteger()
+    val replanning = new CountDownLatch(1)
+    val produce = new BackgroundPlanProducer[String] {
+      override def produceWithExistingTX: String = "plan"
+
+      override def produceInNewTX: String = {
+        replans.incrementAndGet()
+        replanning.await()
+        "new plan"
+      }
+    }
+
+    cache.getOrElseUpdate("key", "query", _ => FineToReuse, produce) should equal(("plan", true))
+    cache.getOrElseUpdate("key", "query", _ => NeedsReplan(1), produce) should equal(("plan", false))
+    cache.getOrElseUpdate("key", "query", _ => NeedsReplan(1), produce) should equal(("plan", false))
+
+    replanning.countDown()
+    awaitCached(lfu, "key", Some("new plan"))
+    replans.get() should equal(1)
+    cache.getOrElseUpdate("key", "query", _ => FineToReuse, produce) should equal(("new plan", false))
+  }
+
+  test("should drop the stale plan when replanning it in the background fails") {
+    val lfu = new LFUCache[String, String](10)
+    val cache = new QueryCache(new MonitoringCacheAccessor[String, String](monitor), lfu, Some(replanner))
+    val produce = new BackgroundPlanProducer[String] {
+      override def produceWithExistingTX: String = "plan"
+
+      override def produceInNewTX: String = throw new IllegalStateException("no longer plannable")
+    }
+
+    cache.getOrElseUpdate("key", "query", _ => FineToReuse, produce) should equal(("plan", true))
+    cache.getOrElseUpdate("key", "query", _ => NeedsReplan(1), produce) should equal(("plan", false))
+
+    awaitCached(lfu, "key", None)
+  }
+
+  test("should replan stale plans on the calling thread once the job scheduler has shut down") {
+    val cache = new QueryCache(new MonitoringCacheAccessor[String, String](monitor), new LFUCache[String, String](10),
+      Some(replanner))
+    val produce = new BackgroundPlanProducer[String] {
+      private var produced = false
+
+      override def produceWithExistingTX: String = {
+        val result = if (produced) "new plan" else "plan"
+        produced = true
+        result
+      }
+
+      override def produceInNewTX: String = fail("should not replan in the background")
+    }
+
+    cache.getOrElseUpdate("key", "query", _ => FineToReuse, produce) should equal(("plan", true))
+    scheduler.shutdown()
+    cache.getOrElseUpdate("key", "query", _ => NeedsReplan(1), produce) should equal(("new plan", true))
+  }
+
+  private def replanner = new BackgroundReplanner(scheduler, 1, 10, NullLog.getInstance())
+
+  private def producer(plan: String, replan: String) = new PlanProducer[String] {
+    private var produced = false
+
+    override def produceWithExistingTX: String = {
+      val result = if (produced) replan else plan
+      produced = true
+      result
+    }
+  }
+
+  private def awaitCached(cache: LFUCache[String, String], key: String, expected: Option[String]): Unit = {
+    val deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10)
+    while (cache.get(key) != expected && System.nanoTime() < deadline) {
+      Thread.sleep(1)
+    }
+    cache.get(key) should equal(expected)
+  }
+}
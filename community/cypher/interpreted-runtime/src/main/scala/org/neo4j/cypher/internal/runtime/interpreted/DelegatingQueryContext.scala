@@ -49,6 +49,7 @@ import org.neo4j.graphdb.{Node, Path, PropertyContainer}
 import org.neo4j.internal.kernel.api.helpers.RelationshipSelectionCursor
 import org.neo4j.internal.kernel.api.{CursorFactory, IndexReference, Read, Write, _}
 import org.neo4j.kernel.api.dbms.DbmsOperations
+import org.neo4j.kernel.api.query.QueryMemoryTracker
 import org.neo4j.kernel.impl.api.store.RelationshipIterator
 import org.neo4j.kernel.impl.core.EmbeddedProxySPI
 import org.neo4j.kernel.impl.factory.DatabaseInfo
@@ -69,6 +70,8 @@ abstract class DelegatingQueryContext(val inner: QueryContext) extends QueryCont
 
   override def resources: CloseableResource = inner.resources
 
+  override def memoryTracker: QueryMemoryTracker = inner.memoryTracker
+
   override def transactionalContext: QueryTransactionalContext = inner.transactionalContext
 
   override def entityAccessor: EmbeddedProxySPI = inner.entityAccessor
@@ -132,12 +135,13 @@ abstract class DelegatingQueryContext(val inner: QueryContext) extends QueryCont
 
   override def indexReference(label: Int, properties: Int*): IndexReference = singleDbHit(inner.indexReference(label, properties:_*))
 
-  override def indexSeek(index: IndexReference, values: Seq[IndexQuery]): Iterator[NodeValue] =
-    manyDbHits(inner.indexSeek(index, values))
+  override def indexSeek(index: IndexReference, indexOrder: IndexOrder, values: Seq[IndexQuery]): Iterator[NodeValue] =
+    manyDbHits(inner.indexSeek(index, indexOrder, values))
 
-  override def indexScan(index: IndexReference): Iterator[NodeValue] = manyDbHits(inner.indexScan(index))
+  override def indexScan(index: IndexReference, indexOrder: IndexOrder): Iterator[NodeValue] = manyDbHits(inner.indexScan(index, indexOrder))
 
-  override def indexScanPrimitive(index: IndexReference): PrimitiveLongIterator = manyDbHits(inner.indexScanPrimitive(index))
+  override def indexScanPrimitive(index: IndexReference, indexOrder: IndexOrder): PrimitiveLongIterator =
+    manyDbHits(inner.indexScanPrimitive(index, indexOrder))
 
   override def indexScanByContains(index: IndexReference, value: String): scala.Iterator[NodeValue] =
     manyDbHits(inner.indexScanByContains(index, value))
@@ -149,6 +153,8 @@ abstract class DelegatingQueryContext(val inner: QueryContext) extends QueryCont
 
   override def getNodesByLabelPrimitive(id: Int): PrimitiveLongIterator = manyDbHits(inner.getNodesByLabelPrimitive(id))
 
+  override def getRelationshipsByType(id: Int): Iterator[RelationshipValue] = manyDbHits(inner.getRelationshipsByType(id))
+
   override def getOrCreateFromSchemaState[K, V](key: K, creator: => V): V =
     singleDbHit(inner.getOrCreateFromSchemaState(key, creator))
 
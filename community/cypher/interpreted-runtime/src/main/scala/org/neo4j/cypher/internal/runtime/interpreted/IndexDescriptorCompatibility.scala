@@ -38,11 +38,14 @@
  */
 package org.neo4j.cypher.internal.runtime.interpreted
 
-import org.neo4j.cypher.internal.planner.v3_4.spi.{IndexLimitation, SlowContains, IndexDescriptor => CypherIndexDescriptor}
-import org.neo4j.internal.kernel.api.{IndexLimitation => KernelIndexLimitation}
+import org.neo4j.cypher.internal.planner.v3_4.spi._
+import org.neo4j.cypher.internal.planner.v3_4.spi.{IndexDescriptor => CypherIndexDescriptor}
+import org.neo4j.cypher.internal.util.v3_4.symbols._
+import org.neo4j.internal.kernel.api.{IndexCapability, IndexOrder, IndexLimitation => KernelIndexLimitation}
 import org.neo4j.internal.kernel.api.schema.LabelSchemaDescriptor
 import org.neo4j.kernel.api.schema.SchemaDescriptorFactory
 import org.neo4j.kernel.api.schema.index.{SchemaIndexDescriptorFactory, SchemaIndexDescriptor => KernelIndexDescriptor}
+import org.neo4j.values.storable.ValueCategory
 
 trait IndexDescriptorCompatibility {
   def cypherToKernel(index: CypherIndexDescriptor): KernelIndexDescriptor =
@@ -58,6 +61,24 @@ trait IndexDescriptorCompatibility {
     }
   }
 
+  def kernelToCypher(capability: IndexCapability): CypherIndexDescriptor.OrderCapability = cypherType => {
+    val orders = capability.orderCapability(toValueCategory(cypherType))
+    (orders.contains(IndexOrder.ASCENDING), orders.contains(IndexOrder.DESCENDING)) match {
+      case (true, true) => BothOrderCapability
+      case (true, false) => AscOrderCapability
+      case (false, true) => DescOrderCapability
+      case (false, false) => NoOrderCapability
+    }
+  }
+
+  private def toValueCategory(cypherType: CypherType): ValueCategory = cypherType match {
+    case CTInteger | CTFloat | CTNumber => ValueCategory.NUMBER
+    case CTString => ValueCategory.TEXT
+    case CTPoint | CTGeometry => ValueCategory.GEOMETRY
+    case CTDate | CTDateTime | CTLocalDateTime | CTTime | CTLocalTime | CTDuration => ValueCategory.TEMPORAL
+    case _ => ValueCategory.UNKNOWN
+  }
+
   def cypherToKernelSchema(index: CypherIndexDescriptor): LabelSchemaDescriptor =
     SchemaDescriptorFactory.forLabel(index.label.id, index.properties.map(_.id):_*)
 
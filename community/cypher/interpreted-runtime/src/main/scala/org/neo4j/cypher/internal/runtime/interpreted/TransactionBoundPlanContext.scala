@@ -46,11 +46,13 @@ import org.neo4j.cypher.internal.planner.v3_4.spi._
 import org.neo4j.cypher.internal.util.v3_4.CypherExecutionException
 import org.neo4j.cypher.internal.util.v3_4.symbols._
 import org.neo4j.cypher.internal.v3_4.logical.plans._
+import org.neo4j.graphdb.factory.GraphDatabaseSettings
 import org.neo4j.internal.kernel.api.exceptions.KernelException
 import org.neo4j.internal.kernel.api.procs.Neo4jTypes.AnyType
 import org.neo4j.internal.kernel.api.procs.{DefaultParameterValue, Neo4jTypes}
 import org.neo4j.internal.kernel.api.{CapableIndexReference, IndexReference, InternalIndexState, procs}
 import org.neo4j.kernel.api.schema.SchemaDescriptorFactory
+import org.neo4j.kernel.configuration.Config
 import org.neo4j.procedure.Mode
 
 import scala.collection.JavaConverters._
@@ -111,7 +113,8 @@ class TransactionBoundPlanContext(tc: TransactionalContextWrapper, logger: Inter
     tc.schemaRead.indexGetState(reference) match {
       case InternalIndexState.ONLINE =>
         reference match {
-          case cir: CapableIndexReference => Some(IndexDescriptor(cir.label(), cir.properties(), cir.limitations().map(kernelToCypher).toSet))
+          case cir: CapableIndexReference =>
+            Some(IndexDescriptor(cir.label(), cir.properties(), cir.limitations().map(kernelToCypher).toSet, kernelToCypher(cir)))
           case _ => Some(IndexDescriptor(reference.label(), reference.properties()))
         }
       case _ => None
@@ -233,4 +236,7 @@ class TransactionBoundPlanContext(tc: TransactionalContextWrapper, logger: Inter
   override def notificationLogger(): InternalNotificationLogger = logger
 
   override def twoLayerTransactionState(): Boolean = tc.twoLayerTransactionState
+
+  override def relationshipTypeScanStoreEnabled: Boolean =
+    tc.graph.getDependencyResolver.resolveDependency(classOf[Config]).get(GraphDatabaseSettings.relationship_type_scan_store_enabled)
 }
@@ -60,6 +60,7 @@ import org.neo4j.graphdb.security.URLAccessValidationError
 import org.neo4j.graphdb.traversal.{Evaluators, TraversalDescription, Uniqueness}
 import org.neo4j.internal.kernel.api
 import org.neo4j.internal.kernel.api._
+import org.neo4j.internal.kernel.api.IndexOrder
 import org.neo4j.internal.kernel.api.exceptions.ProcedureException
 import org.neo4j.internal.kernel.api.helpers.RelationshipSelections.{allCursor, incomingCursor, outgoingCursor}
 import org.neo4j.internal.kernel.api.helpers._
@@ -68,6 +69,7 @@ import org.neo4j.io.IOUtils
 import org.neo4j.kernel.GraphDatabaseQueryService
 import org.neo4j.kernel.api._
 import org.neo4j.kernel.api.exceptions.schema.{AlreadyConstrainedException, AlreadyIndexedException}
+import org.neo4j.kernel.api.query.QueryMemoryTracker
 import org.neo4j.kernel.api.schema.SchemaDescriptorFactory
 import org.neo4j.kernel.api.schema.constaints.ConstraintDescriptorFactory
 import org.neo4j.kernel.guard.TerminationGuard
@@ -97,6 +99,8 @@ sealed class TransactionBoundQueryContext(val transactionalContext: Transactiona
     transactionalContext.graph.getDependencyResolver.resolveDependency(classOf[EmbeddedProxySPI])
   private lazy val valueMapper: ValueMapper[java.lang.Object] = new DefaultValueMapper(entityAccessor)
 
+  override def memoryTracker: QueryMemoryTracker = transactionalContext.tc.executingQuery().memoryTracker()
+
   override def setLabelsOnNode(node: Long, labelIds: Iterator[Int]): Int = labelIds.foldLeft(0) {
     case (count, labelId) => if (writes().nodeAddLabel(node, labelId)) count + 1 else count
   }
@@ -287,7 +291,7 @@ sealed class TransactionBoundQueryContext(val transactionalContext: Transactiona
                                     ValueGroup.ZONED_TIME,
                                     ValueGroup.DURATION)
 
-  override def indexSeek(index: IndexReference, predicates: Seq[IndexQuery]): Iterator[NodeValue] = {
+  override def indexSeek(index: IndexReference, indexOrder: IndexOrder, predicates: Seq[IndexQuery]): Iterator[NodeValue] = {
 
     val impossiblePredicate =
       predicates.exists {
@@ -297,16 +301,16 @@ sealed class TransactionBoundQueryContext(val transactionalContext: Transactiona
       }
 
     if (impossiblePredicate) Iterator.empty
-    else seek(index, predicates:_*)
+    else seek(index, indexOrder, predicates:_*)
   }
 
   override def indexReference(label: Int,
                               properties: Int*): IndexReference =
     transactionalContext.kernelTransaction.schemaRead().index(label, properties:_*)
 
-  private def seek(index: IndexReference, query: IndexQuery*) = {
+  private def seek(index: IndexReference, indexOrder: IndexOrder, query: IndexQuery*) = {
     val nodeCursor = allocateAndTraceNodeValueIndexCursor()
-    reads().nodeIndexSeek(index, nodeCursor, IndexOrder.NONE, query:_*)
+    reads().nodeIndexSeek(index, nodeCursor, indexOrder, query:_*)
     new CursorIterator[NodeValue] {
       override protected def fetchNext(): NodeValue = {
         if (nodeCursor.next()) fromNodeProxy(entityAccessor.newNodeProxy(nodeCursor.nodeReference()))
@@ -317,9 +321,9 @@ sealed class TransactionBoundQueryContext(val transactionalContext: Transactiona
     }
   }
 
-  override def indexScan(index: IndexReference): Iterator[NodeValue] = {
+  override def indexScan(index: IndexReference, indexOrder: IndexOrder): Iterator[NodeValue] = {
     val nodeCursor = allocateAndTraceNodeValueIndexCursor()
-    reads().nodeIndexScan(index, nodeCursor, IndexOrder.NONE)
+    reads().nodeIndexScan(index, nodeCursor, indexOrder)
     new CursorIterator[NodeValue] {
       override protected def fetchNext(): NodeValue = {
         if (nodeCursor.next()) fromNodeProxy(entityAccessor.newNodeProxy(nodeCursor.nodeReference()))
@@ -330,9 +334,9 @@ sealed class TransactionBoundQueryContext(val transactionalContext: Transactiona
     }
   }
 
-  override def indexScanPrimitive(index: IndexReference): PrimitiveLongResourceIterator = {
+  override def indexScanPrimitive(index: IndexReference, indexOrder: IndexOrder): PrimitiveLongResourceIterator = {
     val nodeCursor = allocateAndTraceNodeValueIndexCursor()
-    reads().nodeIndexScan(index, nodeCursor, IndexOrder.NONE)
+    reads().nodeIndexScan(index, nodeCursor, indexOrder)
     new PrimitiveCursorIterator {
       override protected def fetchNext(): Long =
         if (nodeCursor.next()) nodeCursor.nodeReference() else -1L
@@ -342,10 +346,10 @@ sealed class TransactionBoundQueryContext(val transactionalContext: Transactiona
   }
 
   override def indexScanByContains(index: IndexReference, value: String): Iterator[NodeValue] =
-    seek(index, IndexQuery.stringContains(index.properties()(0), value))
+    seek(index, IndexOrder.NONE, IndexQuery.stringContains(index.properties()(0), value))
 
   override def indexScanByEndsWith(index: IndexReference, value: String): Iterator[NodeValue] =
-    seek(index, IndexQuery.stringSuffix(index.properties()(0), value))
+    seek(index, IndexOrder.NONE, IndexQuery.stringSuffix(index.properties()(0), value))
 
   override def lockingUniqueIndexSeek(indexReference: IndexReference, queries: Seq[IndexQuery.ExactPredicate]): Option[NodeValue] = {
     indexSearchMonitor.lockingUniqueIndexSeek(indexReference, queries)
@@ -384,6 +388,21 @@ sealed class TransactionBoundQueryContext(val transactionalContext: Transactiona
     }
   }
 
+  override def getRelationshipsByType(id: Int): Iterator[RelationshipValue] = {
+    val cursor = allocateAndTraceRelationshipScanCursor()
+    reads().relationshipTypeScan(id, cursor)
+    new CursorIterator[RelationshipValue] {
+      override protected def fetchNext(): RelationshipValue = {
+        if (cursor.next())
+          fromRelationshipProxy(entityAccessor.newRelationshipProxy(cursor.relationshipReference(),
+                                                                    cursor.sourceNodeReference(), cursor.`type`(),
+                                                                    cursor.targetNodeReference()))
+        else null
+      }
+      override protected def close(): Unit = cursor.close()
+    }
+  }
+
   override def nodeGetDegree(node: Long, dir: SemanticDirection): Int = {
     val cursor = allocateNodeCursor()
     try {
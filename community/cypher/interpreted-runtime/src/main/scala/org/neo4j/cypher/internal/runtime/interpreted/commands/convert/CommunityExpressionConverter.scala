@@ -115,6 +115,7 @@ object CommunityExpressionConverter extends ExpressionConverter {
         case e: PrefixSeekRangeWrapper => commandexpressions.PrefixSeekRangeExpression(e.range.map(self.toCommandExpression))
         case e: InequalitySeekRangeWrapper => InequalitySeekRangeExpression(e.range.mapBounds(self.toCommandExpression))
         case e: PointDistanceSeekRangeWrapper => PointDistanceSeekRangeExpression(e.range.map(self.toCommandExpression))
+        case e: NearestNeighbourSeekWrapper => commandexpressions.NearestNeighbourSeekExpression(self.toCommandExpression(e.point))
         case e: ast.AndedPropertyInequalities => predicates.AndedPropertyComparablePredicates(variable(e.variable), toCommandProperty(e.property, self), e.inequalities.map(e => inequalityExpression(e, self)))
         case e: DesugaredMapProjection => commandexpressions.DesugaredMapProjection(e.name.name, e.includeAllProps, mapProjectionItems(e.items, self))
         case e: ResolvedFunctionInvocation =>
@@ -40,6 +40,7 @@ package org.neo4j.cypher.internal.runtime.interpreted.pipes
 
 import org.neo4j.cypher.internal.runtime.interpreted.ExecutionContext
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expression
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.OperatorMemoryBudget
 import org.neo4j.cypher.internal.util.v3_4.Eagerly
 import org.neo4j.cypher.internal.util.v3_4.attribution.Id
 import org.neo4j.values.AnyValue
@@ -67,16 +68,18 @@ case class DistinctPipe(source: Pipe, expressions: Map[String, Expression])
      * in a set.
      */
     var seen = mutable.Set[AnyValue]()
+    val budget = OperatorMemoryBudget.withoutSpilling(state)
 
-    result.filter { ctx =>
+    budget.releaseWhenExhausted(result.filter { ctx =>
       val values = VirtualValues.list(keyNames.map(ctx): _*)
 
       if (seen.contains(values)) {
         false
       } else {
         seen += values
+        budget.allocateValue(values)
         true
       }
-    }
+    })
   }
 }
@@ -41,6 +41,7 @@ package org.neo4j.cypher.internal.runtime.interpreted.pipes
 import org.neo4j.cypher.internal.runtime.interpreted.{ExecutionContext, MutableMaps}
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.{AggregationExpression, Expression}
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.aggregation.AggregationFunction
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.{MapRowSerializer, SpillingAggregation, ValueSerializer}
 import org.neo4j.cypher.internal.util.v3_4.attribution.Id
 import org.neo4j.values.AnyValue
 import org.neo4j.values.virtual.{ListValue, MapValue, VirtualValues}
@@ -107,7 +108,6 @@ case class EagerAggregationPipe(source: Pipe, keyExpressions: Map[String, Expres
 
   protected def internalCreateResults(input: Iterator[ExecutionContext], state: QueryState): Iterator[ExecutionContext] = {
 
-    val result = MutableMap[AnyValue, Seq[AggregationFunction]]()
     val keyNames = keyExpressions.keySet.toList
     val aggregationNames: IndexedSeq[String] = aggregations.keys.toIndexedSeq
     val keyNamesSize = keyNames.size
@@ -134,21 +134,15 @@ case class EagerAggregationPipe(source: Pipe, keyExpressions: Map[String, Expres
       ExecutionContext(newMap)
     }
 
-    input.foreach(ctx => {
-      val groupingValue: AnyValue = groupingFunction(ctx, state)
-      val functions = result.getOrElseUpdate(groupingValue, {
-        val aggregateFunctions: Seq[AggregationFunction] = aggregations.map(_._2.createAggregationFunction).toIndexedSeq
-        aggregateFunctions
-      })
-      functions.foreach(func => func(ctx, state))
-    })
+    val result = SpillingAggregation(input, state, new MapRowSerializer(new ValueSerializer(state)), groupingFunction,
+      () => aggregations.map(_._2.createAggregationFunction).toIndexedSeq)
 
-    if (result.isEmpty && keyNames.isEmpty) {
+    if (!result.hasNext && keyNames.isEmpty) {
       createEmptyResult(state.params)
     } else {
       result.map {
         case (key, aggregator) => createResults(key, aggregator)
-      }.toIterator
+      }
     }
   }
 }
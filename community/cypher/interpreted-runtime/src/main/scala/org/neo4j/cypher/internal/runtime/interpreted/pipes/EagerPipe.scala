@@ -39,14 +39,16 @@
 package org.neo4j.cypher.internal.runtime.interpreted.pipes
 
 import org.neo4j.cypher.internal.runtime.interpreted.ExecutionContext
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.OperatorMemoryBudget
 import org.neo4j.cypher.internal.util.v3_4.attribution.Id
 
 case class EagerPipe(src: Pipe)(val id: Id = Id.INVALID_ID)
   extends PipeWithSource(src) {
 
   protected def internalCreateResults(input: Iterator[ExecutionContext], state: QueryState): Iterator[ExecutionContext] = {
-    val buffer = input.toIndexedSeq
+    val budget = OperatorMemoryBudget.withoutSpilling(state)
+    val buffer = budget.allocatingRows(input).toIndexedSeq
     state.query.transactionalContext.markAsStable()
-    buffer.toIterator
+    budget.releaseWhenExhausted(buffer.toIterator)
   }
 }
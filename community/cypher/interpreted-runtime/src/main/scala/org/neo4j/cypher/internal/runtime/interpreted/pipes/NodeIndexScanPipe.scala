@@ -42,11 +42,13 @@ import org.neo4j.cypher.internal.runtime.QueryContext
 import org.neo4j.cypher.internal.runtime.interpreted.ExecutionContext
 import org.neo4j.cypher.internal.util.v3_4.attribution.Id
 import org.neo4j.cypher.internal.v3_4.expressions.{LabelToken, PropertyKeyToken}
+import org.neo4j.cypher.internal.v3_4.logical.plans.{IndexOrder, IndexOrderNone}
 import org.neo4j.internal.kernel.api.{CapableIndexReference, IndexReference}
 
 case class NodeIndexScanPipe(ident: String,
                              label: LabelToken,
-                             propertyKey: PropertyKeyToken)
+                             propertyKey: PropertyKeyToken,
+                             indexOrder: IndexOrder = IndexOrderNone)
                             (val id: Id = Id.INVALID_ID) extends Pipe {
 
   private var reference: IndexReference = CapableIndexReference.NO_INDEX
@@ -59,7 +61,7 @@ case class NodeIndexScanPipe(ident: String,
   }
   protected def internalCreateResults(state: QueryState): Iterator[ExecutionContext] = {
     val baseContext = state.createOrGetInitialContext(executionContextFactory)
-    val resultNodes = state.query.indexScan(reference(state.query))
+    val resultNodes = state.query.indexScan(reference(state.query), NodeIndexSeeker.asKernelIndexOrder(indexOrder))
     resultNodes.map(node => executionContextFactory.copyWith(baseContext, ident, node))
   }
 }
@@ -50,7 +50,8 @@ case class NodeIndexSeekPipe(ident: String,
                              label: LabelToken,
                              propertyKeys: Seq[PropertyKeyToken],
                              valueExpr: QueryExpression[Expression],
-                             indexMode: IndexSeekMode = IndexSeek)
+                             indexMode: IndexSeekMode = IndexSeek,
+                             indexOrder: IndexOrder = IndexOrderNone)
                             (val id: Id = Id.INVALID_ID) extends Pipe with NodeIndexSeeker {
 
   override val propertyIds: Array[Int] = propertyKeys.map(_.nameId.id).toArray
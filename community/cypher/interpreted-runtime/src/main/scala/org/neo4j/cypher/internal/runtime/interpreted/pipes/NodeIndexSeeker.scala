@@ -39,11 +39,12 @@
 package org.neo4j.cypher.internal.runtime.interpreted.pipes
 
 import org.neo4j.cypher.internal.frontend.v3_4.helpers.SeqCombiner.combine
-import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.{Expression, InequalitySeekRangeExpression, PointDistanceSeekRangeExpression, PrefixSeekRangeExpression}
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.{Expression, InequalitySeekRangeExpression, NearestNeighbourSeekExpression, PointDistanceSeekRangeExpression, PrefixSeekRangeExpression}
 import org.neo4j.cypher.internal.runtime.interpreted.{ExecutionContext, IsList, makeValueNeoSafe}
 import org.neo4j.cypher.internal.util.v3_4.{CypherTypeException, InternalException}
+import org.neo4j.cypher.internal.v3_4.expressions.LabelToken
 import org.neo4j.cypher.internal.v3_4.logical.plans._
-import org.neo4j.internal.kernel.api.{IndexQuery, IndexReference}
+import org.neo4j.internal.kernel.api.{IndexQuery, IndexReference, IndexOrder => KernelIndexOrder}
 import org.neo4j.values.AnyValue
 import org.neo4j.values.storable._
 import org.neo4j.values.virtual.NodeValue
@@ -60,7 +61,9 @@ trait NodeIndexSeeker {
 
   // dependencies
 
+  def label: LabelToken
   def indexMode: IndexSeekMode
+  def indexOrder: IndexOrder
   def valueExpr: QueryExpression[Expression]
   def propertyIds: Array[Int]
 
@@ -69,13 +72,19 @@ trait NodeIndexSeeker {
   protected def indexSeek(state: QueryState,
                           indexReference: IndexReference,
                           baseContext: ExecutionContext): Iterator[NodeValue] =
-    indexMode match {
-      case _: ExactSeek |
-           _: SeekByRange =>
+    (indexMode, valueExpr) match {
+      case (_: SeekByRange, RangeQueryExpression(PointDistanceSeekRangeExpression(range))) if indexOrder == IndexOrderAscending =>
+        nearestNeighbourSeek(state, indexReference, baseContext, range)
+
+      case (_: SeekByRange, RangeQueryExpression(NearestNeighbourSeekExpression(point))) =>
+        nearestNeighbourScan(state, indexReference, baseContext, point)
+
+      case (_: ExactSeek | _: SeekByRange, _) =>
         val indexQueries = computeIndexQueries(state, baseContext)
-        indexQueries.toIterator.flatMap(query => state.query.indexSeek(indexReference, query))
+        val kernelIndexOrder = NodeIndexSeeker.asKernelIndexOrder(indexOrder)
+        indexQueries.toIterator.flatMap(query => state.query.indexSeek(indexReference, kernelIndexOrder, query))
 
-      case LockingUniqueIndexSeek =>
+      case (LockingUniqueIndexSeek, _) =>
         val indexQueries = computeExactQueries(state, baseContext)
         indexQueries.flatMap(indexQuery => state.query.lockingUniqueIndexSeek(indexReference, indexQuery)).toIterator
     }
@@ -161,6 +170,49 @@ trait NodeIndexSeeker {
         computeExactQueries(state, row)
     }
 
+  /*
+   * Point-distance seeks in ascending order produce the nodes nearest to the point first, stopping at the first
+   * node which is further away than the distance. Exclusive distances are left to the filter above the seek.
+   */
+  private def nearestNeighbourSeek(state: QueryState,
+                                   indexReference: IndexReference,
+                                   row: ExecutionContext,
+                                   range: PointDistanceRange[Expression]): Iterator[NodeValue] = {
+    val valueRange = range.map(expr => makeValueNeoSafe(expr(row, state)))
+    (valueRange.distance, valueRange.point) match {
+      case (distance: NumberValue, point: PointValue) =>
+        val query = IndexQuery.nearestNeighbours(propertyIds.head, point)
+        state.query.indexSeek(indexReference, KernelIndexOrder.NONE, Seq(query)).takeWhile { node =>
+          state.query.nodeOps.getProperty(node.id(), propertyIds.head) match {
+            case other: PointValue => query.distance(other) <= distance.doubleValue()
+            case _ => false
+          }
+        }
+      case _ => Iterator.empty
+    }
+  }
+
+  /*
+   * Produces the indexed points nearest to the point first, followed by the other nodes of the label, whose distance
+   * to the point is null so that they sort last: those without the property, or with a value which is no point in
+   * the coordinate reference system of the point. The label is only scanned once all those points have been read.
+   */
+  private def nearestNeighbourScan(state: QueryState,
+                                   indexReference: IndexReference,
+                                   row: ExecutionContext,
+                                   pointExpr: Expression): Iterator[NodeValue] = {
+    val labelId = label.nameId.id
+    makeValueNeoSafe(pointExpr(row, state)) match {
+      case point: PointValue =>
+        val query = IndexQuery.nearestNeighbours(propertyIds.head, point)
+        def isNeighbour(node: NodeValue) = query.acceptsValue(state.query.nodeOps.getProperty(node.id(), propertyIds.head))
+        state.query.indexSeek(indexReference, KernelIndexOrder.NONE, Seq(query)) ++
+          state.query.getNodesByLabel(labelId).filterNot(isNeighbour)
+      case _ =>
+        state.query.getNodesByLabel(labelId)
+    }
+  }
+
   private def computeExactQueries(state: QueryState, row: ExecutionContext): Seq[Seq[IndexQuery.ExactPredicate]] =
     valueExpr match {
       // Index exact value seek on single value
@@ -220,3 +272,11 @@ trait NodeIndexSeeker {
     }
   }
 }
+
+object NodeIndexSeeker {
+  def asKernelIndexOrder(indexOrder: IndexOrder): KernelIndexOrder = indexOrder match {
+    case IndexOrderNone => KernelIndexOrder.NONE
+    case IndexOrderAscending => KernelIndexOrder.ASCENDING
+    case IndexOrderDescending => KernelIndexOrder.DESCENDING
+  }
+}
@@ -40,6 +40,7 @@ package org.neo4j.cypher.internal.runtime.interpreted.pipes
 
 import org.neo4j.collection.primitive.{Primitive, PrimitiveLongObjectMap}
 import org.neo4j.cypher.internal.runtime.interpreted.ExecutionContext
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.{HeapEstimator, OperatorMemoryBudget}
 import org.neo4j.cypher.internal.util.v3_4.InternalException
 import org.neo4j.cypher.internal.util.v3_4.attribution.Id
 import org.neo4j.cypher.internal.v3_4.expressions.SemanticDirection
@@ -117,7 +118,7 @@ case class PruningVarLengthExpandPipe(source: Pipe,
 
       if (pathLength < self.max) {
 
-        nodeState.ensureExpanded(queryState, row, node)
+        nodeState.ensureExpanded(queryState, row, node, state.budget)
 
         while (hasRelationship) {
           val currentRelIdx = nextRelationship()
@@ -255,9 +256,11 @@ case class PruningVarLengthExpandPipe(source: Pipe,
     }
 
     /**
-      * If not already done, list all relationships of a node, given the predicates of this pipe.
+      * If not already done, list all relationships of a node, given the predicates of this pipe. They are held, and
+      * accounted to `budget`, until all nodes reachable from the current input row have been found.
       */
-    def ensureExpanded(queryState: QueryState, row: ExecutionContext, node: VirtualNodeValue): Unit = {
+    def ensureExpanded(queryState: QueryState, row: ExecutionContext, node: VirtualNodeValue,
+                       budget: OperatorMemoryBudget): Unit = {
       if ( rels == null ) {
         val allRels = queryState.query.getRelationshipsForIds(node.id(), dir, types.types(queryState.query))
         rels = allRels.filter(r => {
@@ -265,6 +268,7 @@ case class PruningVarLengthExpandPipe(source: Pipe,
             filteringStep.filterNode(row, queryState)(r.otherNode(node))
         }).toArray
         depths = new Array[Byte](rels.length)
+        budget.allocate(HeapEstimator.expandedNode(rels.length))
       }
     }
   }
@@ -273,6 +277,7 @@ case class PruningVarLengthExpandPipe(source: Pipe,
     * The overall state of the full pruning var expand. Mostly manages stack of PruningDFS nodes.
     */
   class FullPruneState(queryState:QueryState ) {
+    val budget: OperatorMemoryBudget = OperatorMemoryBudget.withoutSpilling(queryState)
     private var inputRow:ExecutionContext = _
     private val nodeState = new Array[PruningDFS](self.max + 1)
     private val path = new Array[Long](max)
@@ -311,6 +316,7 @@ case class PruningVarLengthExpandPipe(source: Pipe,
         }
       if (endNode == null) {
         inputRow = null
+        budget.reset()
         null
       }
       else executionContextFactory.copyWith(inputRow, self.toName, endNode)
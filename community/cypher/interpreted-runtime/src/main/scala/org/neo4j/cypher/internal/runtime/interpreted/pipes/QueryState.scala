@@ -41,9 +41,11 @@ package org.neo4j.cypher.internal.runtime.interpreted.pipes
 import org.neo4j.collection.primitive.PrimitiveLongSet
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.PathValueBuilder
 import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.{InCheckContainer, SingleThreadedLRUCache}
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.QueryOperatorMemory
 import org.neo4j.cypher.internal.runtime.interpreted.{ExecutionContext, MapExecutionContext, MutableMaps}
 import org.neo4j.cypher.internal.runtime.{QueryContext, QueryStatistics}
 import org.neo4j.cypher.internal.util.v3_4.ParameterNotFoundException
+import org.neo4j.kernel.api.query.QueryMemoryTracker
 import org.neo4j.values.AnyValue
 import org.neo4j.values.virtual.MapValue
 
@@ -58,7 +60,9 @@ class QueryState(val query: QueryContext,
                  val triadicState: mutable.Map[String, PrimitiveLongSet] = mutable.Map.empty,
                  val repeatableReads: mutable.Map[Pipe, Seq[ExecutionContext]] = mutable.Map.empty,
                  val cachedIn: SingleThreadedLRUCache[Any, InCheckContainer] = new SingleThreadedLRUCache(maxSize = 16),
-                 val lenientCreateRelationship: Boolean = false) {
+                 val lenientCreateRelationship: Boolean = false,
+                 val operatorMemory: QueryOperatorMemory = QueryOperatorMemory.NONE,
+                 val memoryTracker: QueryMemoryTracker = QueryMemoryTracker.NONE) {
 
   private var _pathValueBuilder: PathValueBuilder = _
   private var _exFactory: ExecutionContextFactory = _
@@ -91,11 +95,11 @@ class QueryState(val query: QueryContext,
 
   def withDecorator(decorator: PipeDecorator) =
     new QueryState(query, resources, params, decorator, timeReader, initialContext, triadicState,
-                   repeatableReads, cachedIn, lenientCreateRelationship)
+                   repeatableReads, cachedIn, lenientCreateRelationship, operatorMemory, memoryTracker)
 
   def withInitialContext(initialContext: ExecutionContext) =
     new QueryState(query, resources, params, decorator, timeReader, Some(initialContext), triadicState,
-                   repeatableReads, cachedIn, lenientCreateRelationship)
+                   repeatableReads, cachedIn, lenientCreateRelationship, operatorMemory, memoryTracker)
 
   /**
     * When running on the RHS of an Apply, this method will fill an execution context with argument data
@@ -109,7 +113,7 @@ class QueryState(val query: QueryContext,
 
   def withQueryContext(query: QueryContext) =
     new QueryState(query, resources, params, decorator, timeReader, initialContext, triadicState,
-                   repeatableReads, cachedIn, lenientCreateRelationship)
+                   repeatableReads, cachedIn, lenientCreateRelationship, operatorMemory, memoryTracker)
 
   def setExecutionContextFactory(exFactory: ExecutionContextFactory) = {
     _exFactory = exFactory
@@ -43,6 +43,7 @@ import org.neo4j.cypher.internal.runtime.interpreted.ExecutionContext
 import org.neo4j.cypher.internal.runtime.interpreted.commands.ShortestPath
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.ShortestPathExpression
 import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Predicate
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.OperatorMemoryBudget
 import org.neo4j.cypher.internal.util.v3_4.attribution.Id
 import org.neo4j.values.storable.Values
 import org.neo4j.values.virtual.{ListValue, PathValue, VirtualValues}
@@ -59,13 +60,18 @@ case class ShortestPathPipe(source: Pipe, shortestPathExpression: ShortestPathEx
   private val shortestPathCommand = shortestPathExpression.shortestPathPattern
   private def pathName = shortestPathCommand.pathName
 
-  protected def internalCreateResults(input:Iterator[ExecutionContext], state: QueryState) =
-    input.flatMap(ctx => {
+  protected def internalCreateResults(input:Iterator[ExecutionContext], state: QueryState) = {
+    // the paths found for a row are held until the rows of the next one are produced
+    val budget = OperatorMemoryBudget.withoutSpilling(state)
+
+    budget.releaseWhenExhausted(input.flatMap(ctx => {
       val result = shortestPathExpression(ctx, state) match {
         case in: ListValue => in
         case v if v == Values.NO_VALUE => VirtualValues.EMPTY_LIST
         case path: PathValue    => VirtualValues.list(path)
       }
+      budget.reset()
+      budget.allocateValue(result)
 
       shortestPathCommand.relIterator match {
         case Some(relName) =>
@@ -86,5 +92,6 @@ case class ShortestPathPipe(source: Pipe, shortestPathExpression: ShortestPathEx
               throw new InternalException(s"Expected path, got '$value'")
           }
       }
-    })
+    }))
+  }
 }
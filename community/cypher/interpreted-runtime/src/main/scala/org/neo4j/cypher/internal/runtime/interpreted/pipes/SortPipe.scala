@@ -41,6 +41,7 @@ package org.neo4j.cypher.internal.runtime.interpreted.pipes
 import java.util.Comparator
 
 import org.neo4j.cypher.internal.runtime.interpreted.ExecutionContext
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.{ExternalSort, MapRowSerializer, ValueSerializer}
 import org.neo4j.cypher.internal.util.v3_4.attribution.Id
 import org.neo4j.values.{AnyValue, AnyValues}
 
@@ -51,11 +52,8 @@ case class SortPipe(source: Pipe, orderBy: Seq[ColumnOrder])
 
   private val comparator = ExecutionContextOrdering.asComparator(orderBy)
 
-  protected def internalCreateResults(input: Iterator[ExecutionContext], state: QueryState): Iterator[ExecutionContext] = {
-    val array = input.toArray
-    java.util.Arrays.sort(array, comparator)
-    array.toIterator
-  }
+  protected def internalCreateResults(input: Iterator[ExecutionContext], state: QueryState): Iterator[ExecutionContext] =
+    ExternalSort(input, comparator, new MapRowSerializer(new ValueSerializer(state)), state)
 }
 
 case class ExecutionContextOrdering(order: ColumnOrder) extends scala.Ordering[ExecutionContext] {
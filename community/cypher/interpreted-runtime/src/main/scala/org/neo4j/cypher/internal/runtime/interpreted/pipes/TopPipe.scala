@@ -43,6 +43,7 @@ import java.util.Comparator
 import org.neo4j.cypher.internal.DefaultComparatorTopTable
 import org.neo4j.cypher.internal.runtime.interpreted.ExecutionContext
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expression
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.{ExternalSort, MapRowSerializer, ValueSerializer}
 import org.neo4j.cypher.internal.util.v3_4.CypherExecutionException
 import org.neo4j.cypher.internal.util.v3_4.attribution.Id
 import org.neo4j.values.storable.NumberValue
@@ -72,17 +73,19 @@ case class TopNPipe(source: Pipe, countExpression: Expression, comparator: Compa
         throw new CypherExecutionException(s"Top operator does not support limit $longCount > ${Int.MaxValue}", null)
       } else {
         val count = longCount.toInt
-        val topTable = new DefaultComparatorTopTable(comparator, count)
-        topTable.add(first)
+        val serializer = new MapRowSerializer(new ValueSerializer(state))
+        ExternalSort.top(Iterator.single(first) ++ input, count, comparator, serializer, state) { rows =>
+          val topTable = new DefaultComparatorTopTable(comparator, count)
 
-        input.foreach {
-          ctx =>
-            topTable.add(ctx)
-        }
+          rows.foreach {
+            ctx =>
+              topTable.add(ctx)
+          }
 
-        topTable.sort()
+          topTable.sort()
 
-        topTable.iterator.asScala
+          topTable.iterator.asScala
+        }
       }
     }
   }
@@ -40,6 +40,7 @@ package org.neo4j.cypher.internal.runtime.interpreted.pipes
 
 import org.neo4j.cypher.internal.runtime.interpreted.ExecutionContext
 import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Predicate
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.{HeapEstimator, OperatorMemoryBudget}
 import org.neo4j.cypher.internal.util.v3_4.InternalException
 import org.neo4j.cypher.internal.util.v3_4.attribution.Id
 import org.neo4j.cypher.internal.v3_4.expressions.SemanticDirection
@@ -81,13 +82,15 @@ case class VarLengthExpandPipe(source: Pipe,
   filteringStep.predicateExpressions.foreach(_.registerOwningPipe(this))
 
   private def varLengthExpand(node: NodeValue, state: QueryState, maxDepth: Option[Int],
-                              row: ExecutionContext): Iterator[(NodeValue, Seq[RelationshipValue])] = {
+                              row: ExecutionContext, budget: OperatorMemoryBudget): Iterator[(NodeValue, Seq[RelationshipValue])] = {
     val stack = new mutable.Stack[(NodeValue, Seq[RelationshipValue])]
     stack.push((node, Seq.empty))
+    budget.allocate(HeapEstimator.expansion(0))
 
     new Iterator[(NodeValue, Seq[RelationshipValue])] {
       def next(): (NodeValue, Seq[RelationshipValue]) = {
         val (node, rels) = stack.pop()
+        budget.release(HeapEstimator.expansion(rels.length))
         if (rels.length < maxDepth.getOrElse(Int.MaxValue) && filteringStep.filterNode(row,state)(node)) {
           val relationships: Iterator[RelationshipValue] = state.query.getRelationshipsForIds(node.id(), dir,
                                                                                       types.types(state.query))
@@ -96,6 +99,7 @@ case class VarLengthExpandPipe(source: Pipe,
             val otherNode = rel.otherNode(node)
             if (!rels.contains(rel) && filteringStep.filterNode(row,state)(otherNode)) {
               stack.push((otherNode, rels :+ rel))
+              budget.allocate(HeapEstimator.expansion(rels.length + 1))
             }
           }
         }
@@ -113,8 +117,11 @@ case class VarLengthExpandPipe(source: Pipe,
   }
 
   protected def internalCreateResults(input: Iterator[ExecutionContext], state: QueryState): Iterator[ExecutionContext] = {
+    // the partial paths on the stack of the expansion are held until they are popped
+    val budget = OperatorMemoryBudget.withoutSpilling(state)
+
     def expand(row: ExecutionContext, n: NodeValue) = {
-      val paths = varLengthExpand(n, state, max, row)
+      val paths = varLengthExpand(n, state, max, row, budget)
       paths.collect {
         case (node, rels) if rels.length >= min && isToNodeValid(row, state, node) =>
           executionContextFactory.copyWith(row, relName, VirtualValues.list(rels: _*), toName, node)
@@ -41,6 +41,7 @@ package org.neo4j.cypher.internal.runtime.interpreted.pipes.aggregation
 import org.neo4j.cypher.internal.runtime.interpreted.ExecutionContext
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expression
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.HeapEstimator
 import org.neo4j.values.AnyValue
 import org.neo4j.values.storable.Values
 import org.neo4j.values.virtual.VirtualValues
@@ -53,7 +54,9 @@ class CollectFunction(value:Expression) extends AggregationFunction {
   override def apply(data: ExecutionContext, state:QueryState) {
     value(data, state) match {
       case Values.NO_VALUE =>
-      case v    => collection += v
+      case v    =>
+        if (state.memoryTracker.isTracking) state.memoryTracker.allocated(HeapEstimator.value(v))
+        collection += v
     }
   }
 
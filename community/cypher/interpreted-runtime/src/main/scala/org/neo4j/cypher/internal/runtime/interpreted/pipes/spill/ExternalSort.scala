@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes.spill
+
+import java.util.{Comparator, PriorityQueue}
+
+import org.neo4j.cypher.internal.runtime.interpreted.ExecutionContext
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
+
+import scala.collection.mutable.ArrayBuffer
+
+/**
+  * Sorting of rows that may not fit in the operator memory budget of the query. Rows are sorted in runs as large as the
+  * budget allows, all runs but the last are spilled to disk, and the runs are merged when the input is consumed.
+  * <p>
+  * Each run being merged has an open file and a read buffer, so at most `maxFanIn` runs are merged at a time. Whenever
+  * that many runs of similar size have been spilled they are merged into one larger run on disk, and what remains when
+  * the input is consumed is merged down to fewer than `maxFanIn` runs before the final merge.
+  */
+object ExternalSort {
+
+  val MAX_FAN_IN = 64
+
+  def apply(input: Iterator[ExecutionContext],
+            comparator: Comparator[ExecutionContext],
+            serializer: RowSerializer,
+            state: QueryState,
+            maxFanIn: Int = MAX_FAN_IN): Iterator[ExecutionContext] = {
+    val budget = OperatorMemoryBudget(state)
+    if (!budget.estimating) {
+      sorted(input.toArray, comparator).iterator
+    } else {
+      val runs = new SpilledRuns(comparator, serializer, state, maxFanIn)
+      val buffer = new ArrayBuffer[ExecutionContext]
+      input.foreach { row =>
+        buffer += row
+        budget.allocateRow(row)
+        if (budget.isExceeded) {
+          val run = new SpillFile(serializer, state)
+          sorted(buffer.toArray, comparator).foreach(run.add)
+          runs.add(run)
+          buffer.clear()
+          budget.reset()
+        }
+      }
+      val lastRun = sorted(buffer.toArray, comparator).iterator
+      budget.releaseWhenExhausted(
+        if (runs.isEmpty) lastRun else runs.merge(lastRun))
+    }
+  }
+
+  /**
+    * Top operators keep at most `count` rows. As long as that many rows fit in the memory budget, `input` is handed to
+    * `inMemory`, otherwise the first `count` rows are taken from an external sort.
+    */
+  def top(input: Iterator[ExecutionContext],
+          count: Int,
+          comparator: Comparator[ExecutionContext],
+          serializer: RowSerializer,
+          state: QueryState)
+         (inMemory: Iterator[ExecutionContext] => Iterator[ExecutionContext]): Iterator[ExecutionContext] = {
+    val budget = OperatorMemoryBudget(state)
+    if (!budget.estimating) {
+      inMemory(input)
+    } else {
+      val buffer = new ArrayBuffer[ExecutionContext]
+      while (buffer.size < count && input.hasNext && !budget.isExceeded) {
+        val row = input.next()
+        buffer += row
+        budget.allocateRow(row)
+      }
+      if (budget.isExceeded) {
+        // the external sort accounts for the buffered rows itself
+        budget.reset()
+        ExternalSort(buffer.iterator ++ input, comparator, serializer, state).take(count)
+      } else {
+        budget.releaseWhenExhausted(inMemory(buffer.iterator ++ input))
+      }
+    }
+  }
+
+  private def sorted(rows: Array[ExecutionContext], comparator: Comparator[ExecutionContext]): Array[ExecutionContext] = {
+    java.util.Arrays.sort(rows, comparator)
+    rows
+  }
+
+  /**
+    * Sorted runs spilled to disk, grouped by how many merges their rows have been through, so that each row is merged
+    * about log(rows) / log(maxFanIn) times.
+    */
+  private class SpilledRuns(comparator: Comparator[ExecutionContext], serializer: RowSerializer, state: QueryState, maxFanIn: Int) {
+
+    private val levels = new ArrayBuffer[ArrayBuffer[SpillFile]]
+
+    def isEmpty: Boolean = levels.forall(_.isEmpty)
+
+    def add(run: SpillFile, level: Int = 0): Unit = {
+      run.finish()
+      while (levels.size <= level) {
+        levels += new ArrayBuffer[SpillFile]
+      }
+      val runs = levels(level)
+      runs += run
+      if (runs.size == maxFanIn) {
+        val merged = mergeToDisk(runs)
+        runs.clear()
+        add(merged, level + 1)
+      }
+    }
+
+    /**
+      * Merges all spilled runs and the last, in memory, run.
+      */
+    def merge(lastRun: Iterator[ExecutionContext]): Iterator[ExecutionContext] = {
+      val runs = new ArrayBuffer[SpillFile]
+      levels.foreach(runs ++= _)
+      levels.clear()
+      while (runs.size >= maxFanIn) {
+        val merged = mergeToDisk(runs.take(maxFanIn))
+        runs.remove(0, maxFanIn)
+        merged.finish()
+        runs += merged
+      }
+      new MergingIterator(runs.map(_.rows()) :+ lastRun, comparator)
+    }
+
+    private def mergeToDisk(runs: Seq[SpillFile]): SpillFile = {
+      val merged = new SpillFile(serializer, state)
+      new MergingIterator(runs.map(_.rows()), comparator).foreach(merged.add)
+      merged
+    }
+  }
+
+  /**
+    * Merges sorted runs by repeatedly taking the smallest head row of all runs.
+    */
+  private class MergingIterator(runs: Seq[Iterator[ExecutionContext]], comparator: Comparator[ExecutionContext])
+    extends Iterator[ExecutionContext] {
+
+    private val heads = new PriorityQueue[BufferedIterator[ExecutionContext]](runs.size, new Comparator[BufferedIterator[ExecutionContext]] {
+      override def compare(a: BufferedIterator[ExecutionContext], b: BufferedIterator[ExecutionContext]): Int =
+        comparator.compare(a.head, b.head)
+    })
+
+    runs.map(_.buffered).filter(_.hasNext).foreach(heads.add)
+
+    override def hasNext: Boolean = !heads.isEmpty
+
+    override def next(): ExecutionContext = {
+      val run = heads.poll()
+      val row = run.next()
+      if (run.hasNext) {
+        heads.add(run)
+      }
+      row
+    }
+  }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes.spill
+
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
+import org.neo4j.cypher.internal.runtime.interpreted.{ExecutionContext, MapExecutionContext}
+import org.neo4j.kernel.api.query.QueryMemoryTracker
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.{ArrayValue, TextValue, Value}
+import org.neo4j.values.virtual._
+
+/**
+  * The estimated heap held by one eager operator, accounted against the operator memory budget of the query to decide
+  * when the operator should start spilling to disk, and reported to the memory tracker of the query. Without a budget the
+  * operator never spills, and when the query memory is not tracked either, nothing is estimated.
+  */
+class OperatorMemoryBudget(queryMemory: QueryOperatorMemory, tracker: QueryMemoryTracker) {
+  private var estimatedBytes = 0L
+
+  /**
+    * Whether the operator may spill, i.e. whether the query has an operator memory budget.
+    */
+  def enabled: Boolean = queryMemory.enabled
+
+  /**
+    * Whether held rows and values should be reported at all, for spilling or for tracking.
+    */
+  def estimating: Boolean = enabled || tracker.isTracking
+
+  def allocate(bytes: Long): Unit =
+    if (estimating) {
+      tracker.allocated(bytes)
+      if (enabled) queryMemory.allocated(estimatedBytes, bytes)
+      estimatedBytes += bytes
+    }
+
+  def allocateRow(row: ExecutionContext): Unit =
+    if (estimating) allocate(HeapEstimator.row(row))
+
+  def allocateValue(value: AnyValue): Unit =
+    if (estimating) allocate(HeapEstimator.value(value))
+
+  /**
+    * Release part of what is held, for operators whose state shrinks as they go.
+    */
+  def release(bytes: Long): Unit =
+    if (estimating) {
+      tracker.deallocated(bytes)
+      estimatedBytes -= bytes
+      if (enabled) queryMemory.deallocated(estimatedBytes, bytes)
+    }
+
+  /**
+    * Whether the operators of the query hold more than the budget, and this operator should spill what it holds.
+    */
+  def isExceeded: Boolean = queryMemory.isExceededBy(estimatedBytes)
+
+  /**
+    * Release everything held so far, when it has been spilled or handed on.
+    */
+  def reset(): Unit = {
+    tracker.deallocated(estimatedBytes)
+    if (enabled) queryMemory.deallocated(0L, estimatedBytes)
+    estimatedBytes = 0
+  }
+
+  /**
+    * Account each row of `rows` as it is taken, for operators holding on to all of them.
+    */
+  def allocatingRows(rows: Iterator[ExecutionContext]): Iterator[ExecutionContext] =
+    if (!estimating) rows
+    else rows.map { row =>
+      allocateRow(row)
+      row
+    }
+
+  /**
+    * Release everything held when `rows`, the output of the operator, has been consumed.
+    */
+  def releaseWhenExhausted[T](rows: Iterator[T]): Iterator[T] =
+    if (!estimating) rows
+    else new Iterator[T] {
+      override def hasNext: Boolean = {
+        val hasNext = rows.hasNext
+        if (!hasNext) reset()
+        hasNext
+      }
+
+      override def next(): T = rows.next()
+    }
+}
+
+object OperatorMemoryBudget {
+  def apply(state: QueryState): OperatorMemoryBudget =
+    new OperatorMemoryBudget(state.operatorMemory, state.memoryTracker)
+
+  /**
+    * For operators that cannot spill, only estimating when the query memory is tracked. What they hold is not accounted
+    * against the operator memory budget of the query, since they could not give it back by spilling.
+    */
+  def withoutSpilling(state: QueryState): OperatorMemoryBudget =
+    new OperatorMemoryBudget(QueryOperatorMemory.NONE, state.memoryTracker)
+}
+
+/**
+  * Rough estimates of the heap held by rows and values, good enough to bound memory, not to measure it.
+  */
+object HeapEstimator {
+  private val OBJECT = 16L
+  private val REFERENCE = 8L
+  private val MAP_ENTRY = 48L
+  private val ENTITY = 48L
+
+  def row(row: ExecutionContext): Long = row match {
+    case map: MapExecutionContext =>
+      var bytes = OBJECT + MAP_ENTRY
+      map.foreach {
+        case (key, value) => bytes += MAP_ENTRY + string(key.length) + HeapEstimator.value(value)
+      }
+      bytes
+
+    case _ =>
+      val longs = row.longs()
+      val refs = row.refs()
+      var bytes = 3 * OBJECT + longs.length * java.lang.Long.BYTES + refs.length * REFERENCE
+      for (ref <- refs) {
+        bytes += value(ref)
+      }
+      bytes
+  }
+
+  def value(value: AnyValue): Long = value match {
+    case null => 0L
+    case _: VirtualNodeValue | _: VirtualRelationshipValue => ENTITY
+    case path: PathValue => OBJECT + (path.size() * 2 + 1) * (REFERENCE + ENTITY)
+    case text: TextValue => string(text.length())
+    case array: ArrayValue => 2 * OBJECT + array.length() * REFERENCE
+    case _: Value => OBJECT + REFERENCE
+
+    case list: ListValue =>
+      var bytes = 2 * OBJECT + list.size() * REFERENCE
+      val values = list.iterator()
+      while (values.hasNext) {
+        bytes += HeapEstimator.value(values.next())
+      }
+      bytes
+
+    case map: MapValue =>
+      var bytes = 2 * OBJECT
+      val entries = map.entrySet().iterator()
+      while (entries.hasNext) {
+        val entry = entries.next()
+        bytes += MAP_ENTRY + string(entry.getKey.length) + HeapEstimator.value(entry.getValue)
+      }
+      bytes
+
+    case _ => OBJECT
+  }
+
+  /**
+    * A partial path of a var-length expansion waiting on its stack: the pair of end node and relationships, the list of
+    * relationships and the relationship it was extended with.
+    */
+  def expansion(relationships: Int): Long = 3 * OBJECT + (relationships + 2) * REFERENCE + ENTITY
+
+  /**
+    * The relationships and full expand depths of a node visited by a pruning var-length expansion.
+    */
+  def expandedNode(relationships: Int): Long = 2 * OBJECT + MAP_ENTRY + relationships * (REFERENCE + ENTITY + 1)
+
+  private def string(length: Int): Long = 2 * OBJECT + 2L * length
+}
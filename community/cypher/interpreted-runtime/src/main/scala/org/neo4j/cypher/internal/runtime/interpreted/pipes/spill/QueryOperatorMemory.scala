@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes.spill
+
+/**
+  * The operator memory budget of one query, shared by all of its operators that can spill. An operator spills once the
+  * operators of the query together hold more than the budget, and it holds at least its fair share of the budget: the
+  * budget divided by the number of operators holding rows. That way an operator that only just started buffering is
+  * not forced to spill a handful of rows because another operator fills the budget.
+  *
+  * Operators of a query run on the thread pulling its results, so no synchronization is needed.
+  */
+class QueryOperatorMemory(val maxBytes: Long) {
+  private var heldBytes = 0L
+  private var holdingOperators = 0
+
+  /**
+    * Whether the query has an operator memory budget.
+    */
+  def enabled: Boolean = maxBytes > 0
+
+  private[spill] def allocated(operatorBytesBefore: Long, bytes: Long): Unit = {
+    if (operatorBytesBefore == 0 && bytes > 0) holdingOperators += 1
+    heldBytes += bytes
+  }
+
+  private[spill] def deallocated(operatorBytesAfter: Long, bytes: Long): Unit = {
+    if (operatorBytesAfter == 0 && bytes > 0) holdingOperators -= 1
+    heldBytes -= bytes
+  }
+
+  private[spill] def isExceededBy(operatorBytes: Long): Boolean =
+    enabled && heldBytes > maxBytes && operatorBytes > 0 && operatorBytes >= maxBytes / Math.max(holdingOperators, 1)
+}
+
+object QueryOperatorMemory {
+  /**
+    * No operator memory budget. Nothing is accounted against it, so one instance serves all queries.
+    */
+  val NONE = new QueryOperatorMemory(0L)
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes.spill
+
+import java.io.{DataInputStream, DataOutputStream}
+
+import org.neo4j.cypher.internal.runtime.interpreted.{ExecutionContext, MutableMaps}
+
+/**
+  * Writes the rows of an eager operator to the temporary files it spills to, and reads them back.
+  */
+trait RowSerializer {
+  def write(row: ExecutionContext, out: DataOutputStream): Unit
+
+  def read(in: DataInputStream): ExecutionContext
+}
+
+/**
+  * Serializes the map based rows of the interpreted runtime, as their number of entries followed by each key and value.
+  */
+class MapRowSerializer(values: ValueSerializer) extends RowSerializer {
+
+  override def write(row: ExecutionContext, out: DataOutputStream): Unit = {
+    out.writeInt(row.size)
+    row.foreach {
+      case (key, value) =>
+        ValueSerializer.writeString(key, out)
+        values.write(value, out)
+    }
+  }
+
+  override def read(in: DataInputStream): ExecutionContext = {
+    val size = in.readInt()
+    val map = MutableMaps.create(size)
+    for (_ <- 0 until size) {
+      val key = ValueSerializer.readString(in)
+      map.put(key, values.read(in))
+    }
+    ExecutionContext(map)
+  }
+}
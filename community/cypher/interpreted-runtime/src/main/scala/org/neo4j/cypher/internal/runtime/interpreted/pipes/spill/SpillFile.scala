@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes.spill
+
+import java.io._
+import java.nio.file.{Files, Path}
+
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
+import org.neo4j.cypher.internal.runtime.interpreted.{ExecutionContext, ResourceManager}
+
+/**
+  * A temporary file of rows spilled by an eager operator. Rows are added until the file is read, which it can be once.
+  * The file is deleted when it has been read to the end or, if the query does not get that far, when the query closes
+  * its resources.
+  */
+class SpillFile(serializer: RowSerializer, state: QueryState) extends AutoCloseable {
+
+  private val resources: Option[ResourceManager] = state.query.resources match {
+    case resourceManager: ResourceManager => Some(resourceManager)
+    case _ => None
+  }
+  private val path: Path = Files.createTempFile("cypher-spill", ".tmp")
+  private var out: DataOutputStream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), SpillFile.BUFFER_SIZE))
+  private var in: DataInputStream = _
+  private var rowCount = 0L
+  private var closed = false
+
+  resources.foreach(_.trace(this))
+
+  def add(row: ExecutionContext): Unit = {
+    serializer.write(row, out)
+    rowCount += 1
+  }
+
+  def isEmpty: Boolean = rowCount == 0
+
+  /**
+    * Stops adding to the file, closing it until it is read.
+    */
+  def finish(): Unit = if (out != null) {
+    out.close()
+    out = null
+  }
+
+  /**
+    * Stops adding to the file and reads its rows, in the order they were added.
+    */
+  def rows(): Iterator[ExecutionContext] = {
+    finish()
+    in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), SpillFile.BUFFER_SIZE))
+    new Iterator[ExecutionContext] {
+      private var remaining = rowCount
+
+      override def hasNext: Boolean = {
+        if (remaining == 0) {
+          delete()
+        }
+        remaining > 0
+      }
+
+      override def next(): ExecutionContext = {
+        if (!hasNext) {
+          Iterator.empty.next()
+        }
+        remaining -= 1
+        serializer.read(in)
+      }
+    }
+  }
+
+  /**
+    * Deletes the file before, or instead of, it being read to the end.
+    */
+  def delete(): Unit = if (!closed) {
+    resources match {
+      case Some(resourceManager) => resourceManager.release(this)
+      case None => close()
+    }
+  }
+
+  override def close(): Unit = if (!closed) {
+    closed = true
+    try {
+      if (out != null) out.close()
+      if (in != null) in.close()
+    } finally {
+      Files.deleteIfExists(path)
+    }
+  }
+
+  override def toString: String = s"SpillFile($path, $rowCount rows)"
+}
+
+object SpillFile {
+  private val BUFFER_SIZE = 64 * 1024
+}
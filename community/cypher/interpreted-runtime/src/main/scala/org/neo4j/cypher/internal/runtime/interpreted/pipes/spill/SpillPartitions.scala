@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes.spill
+
+import org.neo4j.cypher.internal.runtime.interpreted.ExecutionContext
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
+
+import scala.util.hashing.MurmurHash3
+
+/**
+  * Rows spilled by an operator that works on groups of rows with equal keys, split by the hash of their key so that each
+  * partition can be processed on its own once the input is consumed. Each level of partitioning picks partitions from other
+  * bits of the hash, so rows of a partition that has to be spilled again are spread over new partitions.
+  */
+class SpillPartitions(serializer: RowSerializer, state: QueryState, level: Int) {
+
+  import SpillPartitions._
+
+  private val files = new Array[SpillFile](COUNT)
+
+  def add(hash: Int, row: ExecutionContext): Unit = {
+    val partition = (MurmurHash3.finalizeHash(hash, 0) >>> (level * BITS)) & (COUNT - 1)
+    if (files(partition) == null) {
+      files(partition) = new SpillFile(serializer, state)
+    }
+    files(partition).add(row)
+  }
+
+  def isEmpty(partition: Int): Boolean = files(partition) == null
+
+  def rows(partition: Int): Iterator[ExecutionContext] =
+    if (files(partition) == null) Iterator.empty else files(partition).rows()
+
+  def delete(partition: Int): Unit =
+    if (files(partition) != null) files(partition).delete()
+
+  /**
+    * The rows of each partition that has rows, lazily opening one partition at a time.
+    */
+  def partitions: Iterator[Iterator[ExecutionContext]] =
+    (0 until COUNT).iterator.filterNot(isEmpty).map(rows)
+}
+
+object SpillPartitions {
+  private val BITS = 4
+  val COUNT: Int = 1 << BITS
+
+  /**
+    * Partitions that still do not fit in memory after this many levels are processed in memory anyway.
+    */
+  val MAX_LEVEL: Int = 32 / BITS - 1
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes.spill
+
+import org.neo4j.cypher.internal.runtime.interpreted.ExecutionContext
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.aggregation.AggregationFunction
+import org.neo4j.values.AnyValue
+
+import scala.collection.mutable.{Map => MutableMap}
+
+/**
+  * Partitioned hash aggregation. Groups are aggregated in memory until they use up the operator memory budget of the query.
+  * From then on, rows of groups already in memory are still aggregated while rows of new groups are spilled to hash partitions,
+  * and each partition is aggregated on its own when the groups in memory have been returned.
+  */
+object SpillingAggregation {
+
+  private val GROUP_OVERHEAD = 64L
+  private val AGGREGATION_FUNCTION = 32L
+
+  def apply(input: Iterator[ExecutionContext],
+            state: QueryState,
+            serializer: RowSerializer,
+            groupingFunction: (ExecutionContext, QueryState) => AnyValue,
+            createAggregationFunctions: () => Seq[AggregationFunction]): Iterator[(AnyValue, Seq[AggregationFunction])] =
+    aggregate(input, state, serializer, groupingFunction, createAggregationFunctions, level = 0)
+
+  private def aggregate(input: Iterator[ExecutionContext],
+                        state: QueryState,
+                        serializer: RowSerializer,
+                        groupingFunction: (ExecutionContext, QueryState) => AnyValue,
+                        createAggregationFunctions: () => Seq[AggregationFunction],
+                        level: Int): Iterator[(AnyValue, Seq[AggregationFunction])] = {
+    val budget = OperatorMemoryBudget(state)
+    val result = MutableMap[AnyValue, Seq[AggregationFunction]]()
+    var spilled: SpillPartitions = null
+
+    input.foreach(ctx => {
+      val groupingValue: AnyValue = groupingFunction(ctx, state)
+      val functions = result.getOrElse(groupingValue, {
+        if (spilled == null) {
+          val aggregateFunctions = createAggregationFunctions()
+          result.put(groupingValue, aggregateFunctions)
+          budget.allocateValue(groupingValue)
+          budget.allocate(GROUP_OVERHEAD + aggregateFunctions.size * AGGREGATION_FUNCTION)
+          if (budget.isExceeded && level < SpillPartitions.MAX_LEVEL) {
+            spilled = new SpillPartitions(serializer, state, level)
+          }
+          aggregateFunctions
+        } else {
+          spilled.add(groupingValue.hashCode(), ctx)
+          Seq.empty
+        }
+      })
+      functions.foreach(func => func(ctx, state))
+    })
+
+    if (spilled == null) {
+      budget.releaseWhenExhausted(result.iterator)
+    } else {
+      budget.releaseWhenExhausted(result.iterator) ++ spilled.partitions.flatMap(rows =>
+        aggregate(rows, state, serializer, groupingFunction, createAggregationFunctions, level + 1))
+    }
+  }
+}
@@ -0,0 +1,350 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes.spill
+
+import java.io.{DataInputStream, DataOutputStream, IOException}
+import java.nio.charset.StandardCharsets.UTF_8
+import java.time._
+import java.time.temporal.TemporalAmount
+
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
+import org.neo4j.cypher.internal.util.v3_4.InternalException
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.ValueWriter.ArrayType
+import org.neo4j.values.storable._
+import org.neo4j.values.virtual._
+
+/**
+  * Writes the values of spilled rows to temporary files and reads them back. Nodes and relationships are written as their ids
+  * and looked up again when read, so the size of a spilled entity does not depend on its properties.
+  */
+class ValueSerializer(state: QueryState) {
+
+  import ValueSerializer._
+
+  def write(value: AnyValue, out: DataOutputStream): Unit = value match {
+    case null =>
+      out.writeByte(UNINITIALIZED)
+
+    case node: VirtualNodeValue =>
+      out.writeByte(NODE)
+      out.writeLong(node.id())
+
+    case relationship: VirtualRelationshipValue =>
+      out.writeByte(RELATIONSHIP)
+      out.writeLong(relationship.id())
+
+    case path: PathValue =>
+      val nodes = path.nodes()
+      val relationships = path.relationships()
+      out.writeByte(PATH)
+      out.writeInt(nodes.length)
+      nodes.foreach(node => out.writeLong(node.id()))
+      relationships.foreach(relationship => out.writeLong(relationship.id()))
+
+    case list: ListValue =>
+      out.writeByte(LIST)
+      out.writeInt(list.size())
+      val values = list.iterator()
+      while (values.hasNext) {
+        write(values.next(), out)
+      }
+
+    case map: MapValue =>
+      out.writeByte(MAP)
+      out.writeInt(map.size())
+      val entries = map.entrySet().iterator()
+      while (entries.hasNext) {
+        val entry = entries.next()
+        writeString(entry.getKey, out)
+        write(entry.getValue, out)
+      }
+
+    case storable: Value =>
+      storable.writeTo(new StorableValueWriter(out))
+
+    case _ =>
+      throw new InternalException(s"Cannot spill value of type ${value.getClass.getSimpleName} to disk")
+  }
+
+  def read(in: DataInputStream): AnyValue = in.readByte() match {
+    case UNINITIALIZED => null
+    case NO_VALUE => Values.NO_VALUE
+    case BOOLEAN => Values.booleanValue(in.readBoolean())
+    case BYTE => Values.byteValue(in.readByte())
+    case SHORT => Values.shortValue(in.readShort())
+    case INT => Values.intValue(in.readInt())
+    case LONG => Values.longValue(in.readLong())
+    case FLOAT => Values.floatValue(in.readFloat())
+    case DOUBLE => Values.doubleValue(in.readDouble())
+    case STRING => Values.stringValue(readString(in))
+    case CHAR => Values.charValue(in.readChar())
+
+    case BYTE_ARRAY =>
+      val bytes = new Array[Byte](in.readInt())
+      in.readFully(bytes)
+      Values.byteArray(bytes)
+
+    case ARRAY =>
+      val arrayType = ArrayType.values()(in.readByte())
+      val array = java.lang.reflect.Array.newInstance(componentType(arrayType), in.readInt())
+      for (i <- 0 until java.lang.reflect.Array.getLength(array)) {
+        java.lang.reflect.Array.set(array, i, read(in).asInstanceOf[Value].asObjectCopy())
+      }
+      Values.of(array)
+
+    case POINT =>
+      val crs = CoordinateReferenceSystem.get(in.readInt())
+      val coordinate = new Array[Double](in.readInt())
+      for (i <- coordinate.indices) {
+        coordinate(i) = in.readDouble()
+      }
+      Values.pointValue(crs, coordinate: _*)
+
+    case DURATION => DurationValue.duration(in.readLong(), in.readLong(), in.readLong(), in.readInt())
+    case DATE => DateValue.date(LocalDate.ofEpochDay(in.readLong()))
+    case LOCAL_TIME => LocalTimeValue.localTime(in.readLong())
+    case TIME => TimeValue.time(OffsetTime.of(LocalTime.ofNanoOfDay(in.readLong()), ZoneOffset.ofTotalSeconds(in.readInt())))
+    case LOCAL_DATE_TIME => LocalDateTimeValue.localDateTime(in.readLong(), in.readInt())
+    case DATE_TIME => DateTimeValue.datetime(in.readLong(), in.readInt(), ZoneId.of(readString(in)))
+
+    case NODE => state.query.nodeOps.getById(in.readLong())
+    case RELATIONSHIP => state.query.relationshipOps.getById(in.readLong())
+
+    case PATH =>
+      val nodes = new Array[NodeValue](in.readInt())
+      for (i <- nodes.indices) {
+        nodes(i) = state.query.nodeOps.getById(in.readLong())
+      }
+      val relationships = new Array[RelationshipValue](nodes.length - 1)
+      for (i <- relationships.indices) {
+        relationships(i) = state.query.relationshipOps.getById(in.readLong())
+      }
+      VirtualValues.path(nodes, relationships)
+
+    case LIST =>
+      val values = new Array[AnyValue](in.readInt())
+      for (i <- values.indices) {
+        values(i) = read(in)
+      }
+      VirtualValues.list(values: _*)
+
+    case MAP =>
+      val size = in.readInt()
+      val keys = new Array[String](size)
+      val values = new Array[AnyValue](size)
+      for (i <- 0 until size) {
+        keys(i) = readString(in)
+        values(i) = read(in)
+      }
+      VirtualValues.map(keys, values)
+
+    case tag =>
+      throw new InternalException(s"Unknown value type $tag in spill file")
+  }
+
+  private def componentType(arrayType: ArrayType): Class[_] = arrayType match {
+    case ArrayType.BYTE => classOf[Byte]
+    case ArrayType.SHORT => classOf[Short]
+    case ArrayType.INT => classOf[Int]
+    case ArrayType.LONG => classOf[Long]
+    case ArrayType.FLOAT => classOf[Float]
+    case ArrayType.DOUBLE => classOf[Double]
+    case ArrayType.BOOLEAN => classOf[Boolean]
+    case ArrayType.STRING => classOf[String]
+    case ArrayType.CHAR => classOf[Char]
+    case ArrayType.POINT => classOf[PointValue]
+    case ArrayType.ZONED_DATE_TIME => classOf[ZonedDateTime]
+    case ArrayType.LOCAL_DATE_TIME => classOf[LocalDateTime]
+    case ArrayType.DATE => classOf[LocalDate]
+    case ArrayType.ZONED_TIME => classOf[OffsetTime]
+    case ArrayType.LOCAL_TIME => classOf[LocalTime]
+    case ArrayType.DURATION => classOf[TemporalAmount]
+  }
+}
+
+object ValueSerializer {
+  private val UNINITIALIZED: Byte = 0
+  private val NO_VALUE: Byte = 1
+  private val BOOLEAN: Byte = 2
+  private val BYTE: Byte = 3
+  private val SHORT: Byte = 4
+  private val INT: Byte = 5
+  private val LONG: Byte = 6
+  private val FLOAT: Byte = 7
+  private val DOUBLE: Byte = 8
+  private val STRING: Byte = 9
+  private val CHAR: Byte = 10
+  private val BYTE_ARRAY: Byte = 11
+  private val ARRAY: Byte = 12
+  private val POINT: Byte = 13
+  private val DURATION: Byte = 14
+  private val DATE: Byte = 15
+  private val LOCAL_TIME: Byte = 16
+  private val TIME: Byte = 17
+  private val LOCAL_DATE_TIME: Byte = 18
+  private val DATE_TIME: Byte = 19
+  private val NODE: Byte = 20
+  private val RELATIONSHIP: Byte = 21
+  private val PATH: Byte = 22
+  private val LIST: Byte = 23
+  private val MAP: Byte = 24
+
+  def writeString(value: String, out: DataOutputStream): Unit = {
+    val bytes = value.getBytes(UTF_8)
+    out.writeInt(bytes.length)
+    out.write(bytes)
+  }
+
+  def readString(in: DataInputStream): String = {
+    val bytes = new Array[Byte](in.readInt())
+    in.readFully(bytes)
+    new String(bytes, UTF_8)
+  }
+
+  /**
+    * Writes storable values, and the elements of arrays in between the array's begin and end, each with its own type tag.
+    */
+  private class StorableValueWriter(out: DataOutputStream) extends ValueWriter[IOException] {
+    override def writeNull(): Unit = out.writeByte(NO_VALUE)
+
+    override def writeBoolean(value: Boolean): Unit = {
+      out.writeByte(BOOLEAN)
+      out.writeBoolean(value)
+    }
+
+    override def writeInteger(value: Byte): Unit = {
+      out.writeByte(BYTE)
+      out.writeByte(value)
+    }
+
+    override def writeInteger(value: Short): Unit = {
+      out.writeByte(SHORT)
+      out.writeShort(value)
+    }
+
+    override def writeInteger(value: Int): Unit = {
+      out.writeByte(INT)
+      out.writeInt(value)
+    }
+
+    override def writeInteger(value: Long): Unit = {
+      out.writeByte(LONG)
+      out.writeLong(value)
+    }
+
+    override def writeFloatingPoint(value: Float): Unit = {
+      out.writeByte(FLOAT)
+      out.writeFloat(value)
+    }
+
+    override def writeFloatingPoint(value: Double): Unit = {
+      out.writeByte(DOUBLE)
+      out.writeDouble(value)
+    }
+
+    override def writeString(value: String): Unit = {
+      out.writeByte(STRING)
+      ValueSerializer.writeString(value, out)
+    }
+
+    override def writeString(value: Char): Unit = {
+      out.writeByte(CHAR)
+      out.writeChar(value)
+    }
+
+    override def beginArray(size: Int, arrayType: ArrayType): Unit = {
+      out.writeByte(ARRAY)
+      out.writeByte(arrayType.ordinal())
+      out.writeInt(size)
+    }
+
+    override def endArray(): Unit = {}
+
+    override def writeByteArray(value: Array[Byte]): Unit = {
+      out.writeByte(BYTE_ARRAY)
+      out.writeInt(value.length)
+      out.write(value)
+    }
+
+    override def writePoint(crs: CoordinateReferenceSystem, coordinate: Array[Double]): Unit = {
+      out.writeByte(POINT)
+      out.writeInt(crs.getCode)
+      out.writeInt(coordinate.length)
+      coordinate.foreach(out.writeDouble)
+    }
+
+    override def writeDuration(months: Long, days: Long, seconds: Long, nanos: Int): Unit = {
+      out.writeByte(DURATION)
+      out.writeLong(months)
+      out.writeLong(days)
+      out.writeLong(seconds)
+      out.writeInt(nanos)
+    }
+
+    override def writeDate(localDate: LocalDate): Unit = {
+      out.writeByte(DATE)
+      out.writeLong(localDate.toEpochDay)
+    }
+
+    override def writeLocalTime(localTime: LocalTime): Unit = {
+      out.writeByte(LOCAL_TIME)
+      out.writeLong(localTime.toNanoOfDay)
+    }
+
+    override def writeTime(offsetTime: OffsetTime): Unit = {
+      out.writeByte(TIME)
+      out.writeLong(offsetTime.toLocalTime.toNanoOfDay)
+      out.writeInt(offsetTime.getOffset.getTotalSeconds)
+    }
+
+    override def writeLocalDateTime(localDateTime: LocalDateTime): Unit = {
+      out.writeByte(LOCAL_DATE_TIME)
+      out.writeLong(localDateTime.toEpochSecond(ZoneOffset.UTC))
+      out.writeInt(localDateTime.getNano)
+    }
+
+    override def writeDateTime(zonedDateTime: ZonedDateTime): Unit = {
+      out.writeByte(DATE_TIME)
+      out.writeLong(zonedDateTime.toEpochSecond)
+      out.writeInt(zonedDateTime.getNano)
+      ValueSerializer.writeString(zonedDateTime.getZone.getId, out)
+    }
+  }
+}
@@ -47,7 +47,8 @@ import org.neo4j.cypher.internal.v3_4.expressions.SemanticDirection
 import org.neo4j.cypher.internal.v3_4.logical.plans.QualifiedName
 import org.neo4j.graphdb.{Node, Path, PropertyContainer}
 import org.neo4j.internal.kernel.api.helpers.RelationshipSelectionCursor
-import org.neo4j.internal.kernel.api.{IndexQuery, IndexReference}
+import org.neo4j.internal.kernel.api.{IndexOrder, IndexQuery, IndexReference}
+import org.neo4j.kernel.api.query.QueryMemoryTracker
 import org.neo4j.kernel.impl.api.store.RelationshipIterator
 import org.neo4j.kernel.impl.core.EmbeddedProxySPI
 import org.neo4j.values.AnyValue
@@ -104,13 +105,15 @@ trait QueryContextAdaptation {
 
   override def resources: CloseableResource = ???
 
+  override def memoryTracker: QueryMemoryTracker = ???
+
   override def getOrCreatePropertyKeyId(propertyKey: String): Int = ???
 
   override def isLabelSetOnNode(label: Int, node: Long): Boolean = ???
 
   override def indexReference(label: Int, properties: Int*): IndexReference = ???
 
-  override def indexSeek(index: IndexReference, value: Seq[IndexQuery]): scala.Iterator[NodeValue] = ???
+  override def indexSeek(index: IndexReference, indexOrder: IndexOrder, value: Seq[IndexQuery]): scala.Iterator[NodeValue] = ???
 
   override def getRelationshipsForIds(node: Long, dir: SemanticDirection, types: Option[Array[Int]]): scala.Iterator[RelationshipValue] = ???
 
@@ -139,9 +142,9 @@ trait QueryContextAdaptation {
 
   override def getOrCreateLabelId(labelName: String): Int = ???
 
-  override def indexScan(index: IndexReference): scala.Iterator[NodeValue] = ???
+  override def indexScan(index: IndexReference, indexOrder: IndexOrder): scala.Iterator[NodeValue] = ???
 
-  override def indexScanPrimitive(index: IndexReference): PrimitiveLongIterator = ???
+  override def indexScanPrimitive(index: IndexReference, indexOrder: IndexOrder): PrimitiveLongIterator = ???
 
   override def getImportURL(url: URL): Either[String, URL] = ???
 
@@ -163,6 +166,8 @@ trait QueryContextAdaptation {
 
   override def getNodesByLabelPrimitive(id: Int): PrimitiveLongIterator = ???
 
+  override def getRelationshipsByType(id: Int): scala.Iterator[RelationshipValue] = ???
+
   override def lockingUniqueIndexSeek(index: IndexReference, values: Seq[IndexQuery.ExactPredicate]): Option[NodeValue] = ???
 
   override def callReadOnlyProcedure(id: Int, args: Seq[Any], allowed: Array[String]): scala.Iterator[Array[AnyRef]] = ???
@@ -44,9 +44,11 @@ import org.mockito.{ArgumentMatchers, Mockito}
 import org.neo4j.cypher.internal.runtime.QueryContext
 import org.neo4j.cypher.internal.runtime.interpreted.TransactionBoundQueryContext.IndexSearchMonitor
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.{ExternalCSVResource, NullPipeDecorator, PipeDecorator, QueryState}
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.QueryOperatorMemory
 import org.neo4j.graphdb.spatial.Point
 import org.neo4j.graphdb.{Node, Relationship}
 import org.neo4j.kernel.GraphDatabaseQueryService
+import org.neo4j.kernel.api.query.QueryMemoryTracker
 import org.neo4j.kernel.impl.coreapi.{InternalTransaction, PropertyContainerLocker}
 import org.neo4j.kernel.impl.query.Neo4jTransactionalContextFactory
 import org.neo4j.kernel.impl.query.clientconnection.ClientConnectionInfo
@@ -67,10 +69,13 @@ object QueryStateHelper {
                 resources: ExternalCSVResource = null,
                 params: MapValue = EMPTY_MAP,
                 decorator: PipeDecorator = NullPipeDecorator,
-                initialContext: Option[ExecutionContext] = None
+                initialContext: Option[ExecutionContext] = None,
+                operatorMemoryBudget: Long = 0L,
+                memoryTracker: QueryMemoryTracker = QueryMemoryTracker.NONE
                ):QueryState =
     new QueryState(query, resources, params, decorator,
-      triadicState = mutable.Map.empty, repeatableReads = mutable.Map.empty, initialContext = initialContext)
+      triadicState = mutable.Map.empty, repeatableReads = mutable.Map.empty, initialContext = initialContext,
+      operatorMemory = new QueryOperatorMemory(operatorMemoryBudget), memoryTracker = memoryTracker)
 
   private val locker: PropertyContainerLocker = new PropertyContainerLocker
 
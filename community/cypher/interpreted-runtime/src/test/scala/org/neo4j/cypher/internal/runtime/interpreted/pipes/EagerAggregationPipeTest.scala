@@ -38,6 +38,7 @@
  */
 package org.neo4j.cypher.internal.runtime.interpreted.pipes
 
+import org.neo4j.cypher.internal.runtime.QueryContext
 import org.neo4j.cypher.internal.runtime.interpreted.QueryStateHelper
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions._
 import org.neo4j.cypher.internal.runtime.interpreted.commands.values.TokenType.PropertyKey
@@ -163,6 +164,19 @@ class EagerAggregationPipeTest extends CypherFunSuite {
     getResults(aggregationPipe) should equal(List(Map("count(name)" -> longValue(3))))
   }
 
+  test("should aggregate groups spilled to disk when over the operator memory budget") {
+    val source = new FakePipe((0 until 1000).map(i => Map[String, Any]("name" -> s"name ${i % 300}")), "name" -> CTString)
+    val aggregationPipe = EagerAggregationPipe(source, createReturnItemsFor("name"), Map("count(*)" -> CountStar()))()
+    val state = QueryStateHelper.emptyWith(query = mock[QueryContext], operatorMemoryBudget = 4 * 1024)
+
+    val counts = aggregationPipe.createResults(state).map(ctx => ctx("name") -> ctx("count(*)")).toMap
+
+    counts should have size 300
+    for (i <- 0 until 300) {
+      counts(stringValue(s"name $i")) should equal(longValue(if (i < 100) 4 else 3))
+    }
+  }
+
   private def createSymbolTableFor(name: String): (String, CypherType) = name -> CTNode
 
   private def getResults(p: Pipe) = p.createResults(QueryStateHelper.empty).map(_.toMap).toList
@@ -41,6 +41,9 @@ package org.neo4j.cypher.internal.runtime.interpreted.pipes
 import org.neo4j.cypher.internal.runtime.{QueryContext, QueryTransactionalContext}
 import org.neo4j.cypher.internal.runtime.interpreted.{ExecutionContext, QueryContextAdaptation, QueryStateHelper}
 import org.neo4j.cypher.internal.util.v3_4.test_helpers.CypherFunSuite
+import org.neo4j.kernel.api.exceptions.Status
+import org.neo4j.kernel.impl.query.QueryMemoryPool
+import org.neo4j.memory.MemoryLimitExceededException
 
 class EagerPipeTest extends CypherFunSuite {
 
@@ -63,4 +66,28 @@ class EagerPipeTest extends CypherFunSuite {
     lazyIterator shouldBe empty
     resultIterator should not be empty
   }
+
+  test("should account the buffered rows to the query memory tracker until they are consumed") {
+    val tracker = new QueryMemoryPool(true, 0, 0).newTracker()
+    val state = QueryStateHelper.emptyWith(query = queryContext, memoryTracker = tracker)
+    val src = new FakePipe(Iterator.fill(10)(Map("x" -> "hello")))
+
+    val resultIterator = EagerPipe(src)().createResults(state)
+
+    tracker.usedBytes() should be > 0L
+    resultIterator.size should equal(10)
+    tracker.usedBytes() should equal(0L)
+    tracker.peakBytes() should be > 0L
+  }
+
+  test("should terminate the query when the buffered rows exceed the query memory limit") {
+    val tracker = new QueryMemoryPool(true, 1024, 0).newTracker()
+    val state = QueryStateHelper.emptyWith(query = queryContext, memoryTracker = tracker)
+    val src = new FakePipe(Iterator.fill(100)(Map("x" -> "hello")))
+
+    val exception = intercept[MemoryLimitExceededException](EagerPipe(src)().createResults(state))
+
+    exception.status() should equal(Status.Statement.QueryOutOfMemoryError)
+    tracker.usedBytes() should be <= 1024L
+  }
 }
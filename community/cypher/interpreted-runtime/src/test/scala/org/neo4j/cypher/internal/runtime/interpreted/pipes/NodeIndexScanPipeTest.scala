@@ -77,7 +77,7 @@ class NodeIndexScanPipeTest extends CypherFunSuite with ImplicitDummyPos {
 
   private def scanFor(nodes: Iterator[NodeValue]): QueryContext = {
     val query = mock[QueryContext]
-    when(query.indexScan(any())).thenReturn(nodes)
+    when(query.indexScan(any(), any())).thenReturn(nodes)
     query
   }
 }
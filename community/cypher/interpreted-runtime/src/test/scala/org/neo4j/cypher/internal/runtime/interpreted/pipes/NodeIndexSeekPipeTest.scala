@@ -274,12 +274,12 @@ class NodeIndexSeekPipeTest extends CypherFunSuite with ImplicitDummyPos {
 
   private def indexFor(values: (Seq[AnyRef], Iterator[NodeValue])*): QueryContext = {
     val query = mock[QueryContext]
-    when(query.indexSeek(any(), any())).thenReturn(Iterator.empty)
+    when(query.indexSeek(any(), any(), any())).thenReturn(Iterator.empty)
 
     values.foreach {
       case (searchTerm, result) =>
         val indexQueries = propertyKeys.zip(searchTerm).map(t => IndexQuery.exact(t._1.nameId.id, t._2))
-        when(query.indexSeek(any(), ArgumentMatchers.eq(indexQueries))).thenReturn(result)
+        when(query.indexSeek(any(), any(), ArgumentMatchers.eq(indexQueries))).thenReturn(result)
     }
 
     query
@@ -39,6 +39,7 @@
 package org.neo4j.cypher.internal.runtime.interpreted.pipes
 
 import org.junit.Assert._
+import org.neo4j.cypher.internal.runtime.QueryContext
 import org.neo4j.cypher.internal.runtime.interpreted.ValueComparisonHelper._
 import org.neo4j.cypher.internal.runtime.interpreted.QueryStateHelper
 import org.neo4j.cypher.internal.util.v3_4.symbols._
@@ -112,4 +113,13 @@ class SortPipeTest extends CypherFunSuite with MockitoSugar {
       Map("y" -> intValue(2)),
       Map("y" -> Values.NO_VALUE)))
   }
+
+  test("should sort rows spilled to disk when over the operator memory budget") {
+    val list: Seq[MutableMap[String, Any]] = (1 to 1000).map(i => MutableMap[String, Any]("x" -> (i * 7919) % 1000, "y" -> s"row $i"))
+    val source = new FakePipe(list, "x" -> CTNumber, "y" -> CTString)
+    val sortPipe = new SortPipe(source, List(Ascending("x")))()
+    val state = QueryStateHelper.emptyWith(query = mock[QueryContext], operatorMemoryBudget = 10 * 1024)
+
+    sortPipe.createResults(state).map(_("x")).toList should equal((0 until 1000).map(intValue).toList)
+  }
 }
@@ -53,6 +53,7 @@ import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.{Predic
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.VarLengthExpandPipeTest.createVarLengthPredicate
 import org.neo4j.cypher.internal.v3_4.expressions.SemanticDirection
 import org.neo4j.graphdb.{Node, Relationship}
+import org.neo4j.kernel.impl.query.QueryMemoryPool
 import org.neo4j.values.AnyValue
 import org.neo4j.values.storable.Values
 import org.neo4j.values.virtual.{NodeValue, RelationshipValue}
@@ -88,6 +89,36 @@ class VarLengthExpandPipeTest extends CypherFunSuite {
     single("b") should beEquivalentTo(endNode)
   }
 
+  test("should account the partial paths on its stack to the query memory tracker until they are expanded") {
+    // given
+    val startNode = newMockedNode(1)
+    val relationships = (2 to 4).map(id => newMockedRelationship(id, startNode, newMockedNode(id)))
+    val query = mock[QueryContext]
+    when(query.getRelationshipsForIds(any(), any(), any())).thenAnswer(new Answer[Iterator[RelationshipValue]] {
+      def answer(invocation: InvocationOnMock): Iterator[RelationshipValue] =
+        if (invocation.getArgument[Long](0) == 1) relationships.iterator else Iterator.empty
+    })
+
+    val tracker = new QueryMemoryPool(true, 0, 0).newTracker()
+    val queryState = QueryStateHelper.emptyWith(query = query, memoryTracker = tracker)
+
+    val left = newMockedPipe(SymbolTable(Map("a" -> CTNode)))
+    when(left.createResults(queryState)).thenAnswer(new Answer[Iterator[ExecutionContext]] {
+      def answer(invocation: InvocationOnMock): Iterator[ExecutionContext] = Iterator(row("a" -> startNode))
+    })
+
+    // when
+    val result =
+      VarLengthExpandPipe(left, "a", "r", "b", SemanticDirection.OUTGOING, SemanticDirection.OUTGOING, LazyTypes.empty, 1, None, nodeInScope = false)()
+      .createResults(queryState)
+    result.next()
+
+    // then
+    tracker.usedBytes() should be > 0L
+    result.size should equal(2)
+    tracker.usedBytes() should equal(0L)
+  }
+
   test("should support var length expand between two nodes when the end node is in scope") {
     // given
     val startNode = newMockedNode(1)
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes.spill
+
+import java.util.Comparator
+
+import org.neo4j.cypher.internal.runtime.QueryContext
+import org.neo4j.cypher.internal.runtime.interpreted.{ExecutionContext, QueryStateHelper}
+import org.neo4j.cypher.internal.util.v3_4.test_helpers.CypherFunSuite
+import org.neo4j.values.storable.Values.intValue
+import org.neo4j.values.storable.{Value, Values}
+
+class ExternalSortTest extends CypherFunSuite {
+
+  private val byX = new Comparator[ExecutionContext] {
+    override def compare(a: ExecutionContext, b: ExecutionContext): Int =
+      Values.COMPARATOR.compare(a("x").asInstanceOf[Value], b("x").asInstanceOf[Value])
+  }
+
+  private def input(size: Int): Iterator[ExecutionContext] =
+    (0 until size).iterator.map(i => ExecutionContext.from("x" -> intValue((i * 7919) % size)))
+
+  private def sort(size: Int, maxFanIn: Int): Seq[Int] = {
+    val state = QueryStateHelper.emptyWith(query = mock[QueryContext], operatorMemoryBudget = 2 * 1024)
+    ExternalSort(input(size), byX, new MapRowSerializer(new ValueSerializer(state)), state, maxFanIn)
+      .map(_("x").asInstanceOf[Value].asObject().asInstanceOf[Int]).toList
+  }
+
+  test("should merge spilled runs in one pass when there are fewer than the max fan-in") {
+    sort(1000, ExternalSort.MAX_FAN_IN) should equal(0 until 1000)
+  }
+
+  test("should merge spilled runs in several passes when there are more than the max fan-in") {
+    sort(3000, 2) should equal(0 until 3000)
+    sort(3000, 3) should equal(0 until 3000)
+  }
+
+  test("should take the top rows from an external sort when they do not fit in the memory budget") {
+    val state = QueryStateHelper.emptyWith(query = mock[QueryContext], operatorMemoryBudget = 2 * 1024)
+
+    val top = ExternalSort.top(input(1000), 500, byX, new MapRowSerializer(new ValueSerializer(state)), state) { _ =>
+      fail("should not keep the top rows in memory")
+    }
+
+    top.map(_("x").asInstanceOf[Value].asObject().asInstanceOf[Int]).toList should equal(0 until 500)
+  }
+
+  test("should keep the top rows in memory when they fit in the memory budget") {
+    val state = QueryStateHelper.emptyWith(query = mock[QueryContext], operatorMemoryBudget = 1024 * 1024)
+
+    val top = ExternalSort.top(input(1000), 5, byX, new MapRowSerializer(new ValueSerializer(state)), state) { rows =>
+      rows.toList.sortWith(byX.compare(_, _) < 0).take(5).iterator
+    }
+
+    top.map(_("x").asInstanceOf[Value].asObject().asInstanceOf[Int]).toList should equal(0 until 5)
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes.spill
+
+import org.neo4j.cypher.internal.util.v3_4.test_helpers.CypherFunSuite
+import org.neo4j.kernel.api.query.QueryMemoryTracker
+
+class OperatorMemoryBudgetTest extends CypherFunSuite {
+
+  test("operators of a query share its budget") {
+    val queryMemory = new QueryOperatorMemory(1000)
+    val sort = new OperatorMemoryBudget(queryMemory, QueryMemoryTracker.NONE)
+    val aggregation = new OperatorMemoryBudget(queryMemory, QueryMemoryTracker.NONE)
+
+    sort.allocate(600)
+    sort.isExceeded should be(false)
+
+    aggregation.allocate(600)
+    sort.isExceeded should be(true)
+    aggregation.isExceeded should be(true)
+  }
+
+  test("an operator holding less than its share is not made to spill") {
+    val queryMemory = new QueryOperatorMemory(1000)
+    val sort = new OperatorMemoryBudget(queryMemory, QueryMemoryTracker.NONE)
+    val aggregation = new OperatorMemoryBudget(queryMemory, QueryMemoryTracker.NONE)
+
+    sort.allocate(1200)
+    aggregation.allocate(10)
+
+    sort.isExceeded should be(true)
+    aggregation.isExceeded should be(false)
+  }
+
+  test("spilled memory is given back to the query") {
+    val queryMemory = new QueryOperatorMemory(1000)
+    val sort = new OperatorMemoryBudget(queryMemory, QueryMemoryTracker.NONE)
+    val aggregation = new OperatorMemoryBudget(queryMemory, QueryMemoryTracker.NONE)
+
+    sort.allocate(600)
+    aggregation.allocate(600)
+    sort.reset()
+
+    aggregation.isExceeded should be(false)
+  }
+
+  test("operators that cannot spill do not count against the budget") {
+    val queryMemory = new QueryOperatorMemory(1000)
+    val sort = new OperatorMemoryBudget(queryMemory, QueryMemoryTracker.NONE)
+    val eager = new OperatorMemoryBudget(QueryOperatorMemory.NONE, QueryMemoryTracker.NONE)
+
+    eager.allocate(5000)
+    sort.allocate(600)
+
+    sort.isExceeded should be(false)
+    eager.isExceeded should be(false)
+  }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes.spill
+
+import java.io.{ByteArrayInputStream, ByteArrayOutputStream, DataInputStream, DataOutputStream}
+import java.time._
+
+import org.mockito.ArgumentMatchers.anyLong
+import org.mockito.Mockito.when
+import org.mockito.invocation.InvocationOnMock
+import org.mockito.stubbing.Answer
+import org.neo4j.cypher.internal.runtime.interpreted.QueryStateHelper
+import org.neo4j.cypher.internal.runtime.{Operations, QueryContext}
+import org.neo4j.cypher.internal.util.v3_4.test_helpers.CypherFunSuite
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable._
+import org.neo4j.values.virtual.VirtualValues.{EMPTY_MAP, nodeValue, relationshipValue}
+import org.neo4j.values.virtual.{NodeValue, RelationshipValue, VirtualValues}
+
+class ValueSerializerTest extends CypherFunSuite {
+
+  private val nodes = (0L to 3L).map(id => id -> nodeValue(id, Values.stringArray("L"), EMPTY_MAP)).toMap
+  private val relationships = (0L to 2L).map(id =>
+    id -> relationshipValue(id, nodes(id), nodes(id + 1), Values.stringValue("T"), EMPTY_MAP)).toMap
+
+  private val serializer = {
+    val nodeOps = mock[Operations[NodeValue]]
+    when(nodeOps.getById(anyLong())).thenAnswer(new Answer[NodeValue] {
+      override def answer(invocation: InvocationOnMock): NodeValue = nodes(invocation.getArgument[Long](0))
+    })
+    val relationshipOps = mock[Operations[RelationshipValue]]
+    when(relationshipOps.getById(anyLong())).thenAnswer(new Answer[RelationshipValue] {
+      override def answer(invocation: InvocationOnMock): RelationshipValue = relationships(invocation.getArgument[Long](0))
+    })
+    val query = mock[QueryContext]
+    when(query.nodeOps).thenReturn(nodeOps)
+    when(query.relationshipOps).thenReturn(relationshipOps)
+    new ValueSerializer(QueryStateHelper.emptyWith(query = query))
+  }
+
+  private def roundTrip(values: AnyValue*): Seq[AnyValue] = {
+    val bytes = new ByteArrayOutputStream()
+    val out = new DataOutputStream(bytes)
+    values.foreach(serializer.write(_, out))
+    out.close()
+    val in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray))
+    val read = values.map(_ => serializer.read(in))
+    in.read() should equal(-1)
+    read
+  }
+
+  private def shouldRoundTrip(values: AnyValue*): Unit =
+    roundTrip(values: _*) should equal(values)
+
+  test("should round trip uninitialized slots and no value") {
+    shouldRoundTrip(null, Values.NO_VALUE)
+  }
+
+  test("should round trip numbers and booleans") {
+    shouldRoundTrip(
+      Values.booleanValue(true),
+      Values.booleanValue(false),
+      Values.byteValue(-7),
+      Values.shortValue(Short.MinValue),
+      Values.intValue(Int.MaxValue),
+      Values.longValue(Long.MinValue),
+      Values.floatValue(1.5f),
+      Values.doubleValue(-0.25))
+  }
+
+  test("should round trip text") {
+    shouldRoundTrip(
+      Values.stringValue(""),
+      Values.stringValue("spill"),
+      Values.stringValue("åäö"),
+      Values.charValue('x'))
+  }
+
+  test("should round trip arrays") {
+    shouldRoundTrip(
+      Values.byteArray(Array[Byte](1, -2, 3)),
+      Values.shortArray(Array[Short](1, -2, 3)),
+      Values.intArray(Array(1, -2, 3)),
+      Values.longArray(Array(1L, -2L, Long.MaxValue)),
+      Values.floatArray(Array(1.5f, -2.5f)),
+      Values.doubleArray(Array(1.5, -2.5)),
+      Values.booleanArray(Array(true, false)),
+      Values.charArray(Array('a', 'b')),
+      Values.stringArray("a", "", "c"),
+      Values.intArray(Array.empty[Int]),
+      Values.pointArray(Array[Point](
+        Values.pointValue(CoordinateReferenceSystem.Cartesian, 1.0, 2.0),
+        Values.pointValue(CoordinateReferenceSystem.Cartesian, 3.0, 4.0))),
+      Values.dateArray(Array(LocalDate.of(2018, 3, 1), LocalDate.of(1969, 12, 31))),
+      Values.localTimeArray(Array(LocalTime.of(12, 30, 15, 1))),
+      Values.timeArray(Array(OffsetTime.of(12, 30, 15, 1, ZoneOffset.ofHours(2)))),
+      Values.localDateTimeArray(Array(LocalDateTime.of(2018, 3, 1, 12, 30, 15, 1))),
+      Values.dateTimeArray(Array(ZonedDateTime.of(2018, 3, 1, 12, 30, 15, 1, ZoneId.of("Europe/Stockholm")))),
+      Values.durationArray(Array[DurationValue](DurationValue.duration(1, 2, 3, 4))))
+  }
+
+  test("should round trip points") {
+    shouldRoundTrip(
+      Values.pointValue(CoordinateReferenceSystem.Cartesian, 1.0, 2.0),
+      Values.pointValue(CoordinateReferenceSystem.Cartesian_3D, 1.0, 2.0, 3.0),
+      Values.pointValue(CoordinateReferenceSystem.WGS84, 12.97, 56.7),
+      Values.pointValue(CoordinateReferenceSystem.WGS84_3D, 12.97, 56.7, 100.0))
+  }
+
+  test("should round trip temporal values") {
+    shouldRoundTrip(
+      DateValue.date(2018, 3, 1),
+      DateValue.date(LocalDate.of(-200, 1, 1)),
+      LocalTimeValue.localTime(23, 59, 59, 999999999),
+      TimeValue.time(12, 30, 15, 1, ZoneOffset.ofHoursMinutes(-5, -30)),
+      LocalDateTimeValue.localDateTime(LocalDateTime.of(1901, 2, 3, 4, 5, 6, 7)),
+      DateTimeValue.datetime(ZonedDateTime.of(2018, 3, 1, 12, 30, 15, 1, ZoneId.of("Europe/Stockholm"))),
+      DateTimeValue.datetime(ZonedDateTime.of(2018, 3, 1, 12, 30, 15, 1, ZoneOffset.ofHours(-3))),
+      DurationValue.duration(14, -3, 3600, 500),
+      DurationValue.duration(0, 0, 0, 0))
+  }
+
+  test("should round trip nodes, relationships and paths") {
+    shouldRoundTrip(
+      nodes(2),
+      relationships(1),
+      VirtualValues.path(Array(nodes(0)), Array.empty[RelationshipValue]),
+      VirtualValues.path(Array(nodes(0), nodes(1), nodes(2), nodes(3)),
+                         Array(relationships(0), relationships(1), relationships(2))))
+  }
+
+  test("should read nodes and relationships back as their current values") {
+    val read = roundTrip(nodeValue(1, Values.stringArray(), EMPTY_MAP), VirtualValues.relationship(2))
+
+    read(0) should be theSameInstanceAs nodes(1)
+    read(1) should be theSameInstanceAs relationships(2)
+  }
+
+  test("should round trip lists and maps") {
+    shouldRoundTrip(
+      VirtualValues.EMPTY_LIST,
+      VirtualValues.EMPTY_MAP,
+      VirtualValues.list(Values.intValue(1), Values.stringValue("a"), Values.NO_VALUE, nodes(0)),
+      VirtualValues.map(Array("a", "b", "c"), Array[AnyValue](
+        Values.intValue(1),
+        VirtualValues.list(VirtualValues.list(Values.booleanValue(true)), relationships(0)),
+        VirtualValues.map(Array("d"), Array[AnyValue](DateValue.date(2018, 3, 1))))))
+  }
+}
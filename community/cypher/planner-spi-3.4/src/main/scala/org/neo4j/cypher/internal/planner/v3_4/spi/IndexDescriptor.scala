@@ -38,17 +38,52 @@
  */
 package org.neo4j.cypher.internal.planner.v3_4.spi
 
+import org.neo4j.cypher.internal.util.v3_4.symbols.CypherType
 import org.neo4j.cypher.internal.util.v3_4.{LabelId, PropertyKeyId}
 
 sealed trait IndexLimitation
 case object SlowContains extends IndexLimitation
 
+/**
+  * Orders in which an index can return the entries of a given type, sorted by the value of its first property.
+  */
+sealed trait IndexOrderCapability {
+  def asc: Boolean
+  def desc: Boolean
+}
+
+case object NoOrderCapability extends IndexOrderCapability {
+  override def asc: Boolean = false
+  override def desc: Boolean = false
+}
+
+case object AscOrderCapability extends IndexOrderCapability {
+  override def asc: Boolean = true
+  override def desc: Boolean = false
+}
+
+case object DescOrderCapability extends IndexOrderCapability {
+  override def asc: Boolean = false
+  override def desc: Boolean = true
+}
+
+case object BothOrderCapability extends IndexOrderCapability {
+  override def asc: Boolean = true
+  override def desc: Boolean = true
+}
+
 object IndexDescriptor {
+  type OrderCapability = CypherType => IndexOrderCapability
+
+  val noOrderCapability: OrderCapability = _ => NoOrderCapability
+
   def apply(label: Int, property: Int): IndexDescriptor = IndexDescriptor(LabelId(label), Seq(PropertyKeyId(property)))
   def apply(label: Int, property: Int, limitations: Set[IndexLimitation]): IndexDescriptor = IndexDescriptor(LabelId(label), Seq(PropertyKeyId(property)), limitations)
 
   def apply(label: Int, properties: Seq[Int]): IndexDescriptor = IndexDescriptor(LabelId(label), properties.map(PropertyKeyId))
   def apply(label: Int, properties: Seq[Int], limitations: Set[IndexLimitation]): IndexDescriptor = IndexDescriptor(LabelId(label), properties.map(PropertyKeyId), limitations)
+  def apply(label: Int, properties: Seq[Int], limitations: Set[IndexLimitation], orderCapability: OrderCapability): IndexDescriptor =
+    IndexDescriptor(LabelId(label), properties.map(PropertyKeyId), limitations, orderCapability)
 
   def apply(label: LabelId, property: PropertyKeyId): IndexDescriptor = IndexDescriptor(label, Seq(property))
   def apply(label: LabelId, property: PropertyKeyId, limitations: Set[IndexLimitation]): IndexDescriptor = IndexDescriptor(label, Seq(property), limitations)
@@ -56,8 +91,20 @@ object IndexDescriptor {
   implicit def toKernelEncode(properties: Seq[PropertyKeyId]): Array[Int] = properties.map(_.id).toArray
 }
 
-case class IndexDescriptor(label: LabelId, properties: Seq[PropertyKeyId], limitations: Set[IndexLimitation] = Set.empty[IndexLimitation]) {
+case class IndexDescriptor(label: LabelId,
+                           properties: Seq[PropertyKeyId],
+                           limitations: Set[IndexLimitation] = Set.empty[IndexLimitation],
+                           orderCapability: IndexDescriptor.OrderCapability = IndexDescriptor.noOrderCapability) {
   def isComposite: Boolean = properties.length > 1
 
   def property: PropertyKeyId = if (isComposite) throw new IllegalArgumentException("Cannot get single property of multi-property index") else properties(0)
+
+  // The order capability is a function, which can't be compared, so it is left out of equality
+  override def equals(obj: Any): Boolean = obj match {
+    case IndexDescriptor(otherLabel, otherProperties, otherLimitations, _) =>
+      label == otherLabel && properties == otherProperties && limitations == otherLimitations
+    case _ => false
+  }
+
+  override def hashCode(): Int = (label, properties, limitations).hashCode()
 }
@@ -75,6 +75,12 @@ trait PlanContext extends TokenContext with ProcedureSignatureResolver {
   def notificationLogger(): InternalNotificationLogger
 
   def twoLayerTransactionState(): Boolean
+
+  /**
+    * Whether relationships of a single type can be found through the relationship type scan store, rather than by
+    * reading the whole relationship store.
+    */
+  def relationshipTypeScanStoreEnabled: Boolean
 }
 
 trait ProcedureSignatureResolver {
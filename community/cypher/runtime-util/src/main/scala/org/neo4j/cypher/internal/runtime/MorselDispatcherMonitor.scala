@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime
+
+/*
+Monitor of how queries of the morsel runtime are scheduled on its workers. Lives here rather than with the morsel runtime
+so that metrics can listen to it without depending on the runtime.
+ */
+trait MorselDispatcherMonitor {
+  // A query was let in after waiting the given time for one of the running queries to finish
+  def queryAdmitted(waitedNanos: Long): Unit
+
+  def queryFinished(): Unit
+
+  // A task of a query was queued, waiting for a worker
+  def taskQueued(): Unit
+
+  // A queued task was picked up by a worker
+  def taskStarted(): Unit
+
+  // A pipeline, named by its operators, was built for a plan that the dispatcher is going to execute
+  def pipelineBuilt(pipeline: String): Unit
+
+  // A pipeline produced a morsel of the given number of rows. The pipeline is named as when it was built
+  def morselProduced(pipeline: String, rows: Int): Unit
+}
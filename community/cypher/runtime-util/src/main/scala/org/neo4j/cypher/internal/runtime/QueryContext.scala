@@ -48,6 +48,7 @@ import org.neo4j.graphdb.{Node, Path, PropertyContainer}
 import org.neo4j.internal.kernel.api.helpers.RelationshipSelectionCursor
 import org.neo4j.internal.kernel.api.{CursorFactory, IndexReference, Read, Write, _}
 import org.neo4j.kernel.api.dbms.DbmsOperations
+import org.neo4j.kernel.api.query.QueryMemoryTracker
 import org.neo4j.kernel.impl.api.store.RelationshipIterator
 import org.neo4j.kernel.impl.core.EmbeddedProxySPI
 import org.neo4j.kernel.impl.factory.DatabaseInfo
@@ -81,6 +82,8 @@ trait QueryContext extends TokenContext {
 
   def resources: CloseableResource
 
+  def memoryTracker: QueryMemoryTracker
+
   def nodeOps: Operations[NodeValue]
 
   def relationshipOps: Operations[RelationshipValue]
@@ -119,15 +122,15 @@ trait QueryContext extends TokenContext {
 
   def indexReference(label: Int, properties: Int*): IndexReference
 
-  def indexSeek(index: IndexReference, queries: Seq[IndexQuery]): Iterator[NodeValue]
+  def indexSeek(index: IndexReference, indexOrder: IndexOrder, queries: Seq[IndexQuery]): Iterator[NodeValue]
 
   def indexScanByContains(index: IndexReference, value: String): Iterator[NodeValue]
 
   def indexScanByEndsWith(index: IndexReference, value: String): Iterator[NodeValue]
 
-  def indexScan(index: IndexReference): Iterator[NodeValue]
+  def indexScan(index: IndexReference, indexOrder: IndexOrder): Iterator[NodeValue]
 
-  def indexScanPrimitive(index: IndexReference): PrimitiveLongIterator
+  def indexScanPrimitive(index: IndexReference, indexOrder: IndexOrder): PrimitiveLongIterator
 
   def lockingUniqueIndexSeek(index: IndexReference, queries: Seq[IndexQuery.ExactPredicate]): Option[NodeValue]
 
@@ -135,6 +138,8 @@ trait QueryContext extends TokenContext {
 
   def getNodesByLabelPrimitive(id: Int): PrimitiveLongIterator
 
+  def getRelationshipsByType(id: Int): Iterator[RelationshipValue]
+
   def getOrCreateFromSchemaState[K, V](key: K, creator: => V): V
 
   /* return true if the constraint was created, false if preexisting, throws if failed */
@@ -185,6 +185,8 @@ object InternalPlanDescription {
 
     case class PointDistanceIndex(label: String, propertyKey: String, point: String, distance: String, inclusive: Boolean) extends Argument
 
+    case class NearestNeighbourIndex(label: String, propertyKey: String, point: String) extends Argument
+
     case class LabelName(label: String) extends Argument
 
     case class KeyNames(keys: Seq[String]) extends Argument
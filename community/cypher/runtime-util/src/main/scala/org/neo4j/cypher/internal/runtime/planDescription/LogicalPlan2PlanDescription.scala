@@ -42,7 +42,7 @@ import org.neo4j.cypher.internal.frontend.v3_4.PlannerName
 import org.neo4j.cypher.internal.planner.v3_4.spi.PlanningAttributes.{Cardinalities, ReadOnlies}
 import org.neo4j.cypher.internal.runtime.planDescription.InternalPlanDescription.Arguments._
 import org.neo4j.cypher.internal.util.v3_4.InternalException
-import org.neo4j.cypher.internal.v3_4.expressions.{FunctionInvocation, FunctionName, LabelToken, MapExpression, Namespace, PropertyKeyName, PropertyKeyToken, Expression => ASTExpression}
+import org.neo4j.cypher.internal.v3_4.expressions.{FunctionInvocation, FunctionName, LabelToken, MapExpression, Namespace, PropertyKeyName, PropertyKeyToken, SemanticDirection, Expression => ASTExpression}
 import org.neo4j.cypher.internal.v3_4.functions.Point
 import org.neo4j.cypher.internal.v3_4.logical.plans
 import org.neo4j.cypher.internal.v3_4.logical.plans._
@@ -82,11 +82,11 @@ case class LogicalPlan2PlanDescription(readOnly: Boolean, cardinalities: Cardina
       case NodeByIdSeek(_, _, _) =>
         PlanDescriptionImpl(id, "NodeByIdSeek", NoChildren, Seq(), variables)
 
-      case NodeIndexSeek(_, label, propertyKeys, valueExpr, _) =>
+      case NodeIndexSeek(_, label, propertyKeys, valueExpr, _, _) =>
         val (indexMode, indexDesc) = getDescriptions(label, propertyKeys, valueExpr, unique = false, readOnly)
         PlanDescriptionImpl(id, indexMode, NoChildren, Seq(indexDesc), variables)
 
-      case NodeUniqueIndexSeek(_, label, propertyKeys, valueExpr, _) =>
+      case NodeUniqueIndexSeek(_, label, propertyKeys, valueExpr, _, _) =>
         val (indexMode, indexDesc) = getDescriptions(label, propertyKeys, valueExpr, unique = true, readOnly)
         PlanDescriptionImpl(id, indexMode, NoChildren, Seq(indexDesc), variables)
 
@@ -103,6 +103,10 @@ case class LogicalPlan2PlanDescription(readOnly: Boolean, cardinalities: Cardina
         val entityByIdRhs = EntityByIdRhs(relIds)
         PlanDescriptionImpl(id, "DirectedRelationshipByIdSeek", NoChildren, Seq(entityByIdRhs), variables)
 
+      case DirectedRelationshipTypeScan(relName, startNode, typ, endNode, _) =>
+        val expression = ExpandExpression(startNode, relName, Seq(typ.name), endNode, SemanticDirection.OUTGOING, 1, Some(1))
+        PlanDescriptionImpl(id, "DirectedRelationshipTypeScan", NoChildren, Seq(expression), variables)
+
       case _: LoadCSV =>
         PlanDescriptionImpl(id, "LoadCSV", NoChildren, Seq.empty, variables)
 
@@ -118,7 +122,7 @@ case class LogicalPlan2PlanDescription(readOnly: Boolean, cardinalities: Cardina
         val arguments = Seq(Index(label.name, Seq(propertyKey.name)), Expression(valueExpr))
         PlanDescriptionImpl(id, "NodeIndexEndsWithScan", NoChildren, arguments, variables)
 
-      case NodeIndexScan(_, label, propertyKey, _) =>
+      case NodeIndexScan(_, label, propertyKey, _, _) =>
         PlanDescriptionImpl(id, "NodeIndexScan", NoChildren, Seq(Index(label.name, Seq(propertyKey.name))), variables)
 
       case ProcedureCall(_, call) =>
@@ -189,7 +193,7 @@ case class LogicalPlan2PlanDescription(readOnly: Boolean, cardinalities: Cardina
                               CountRelationshipsExpression(id, start.map(_.name), types.map(_.name), end.map(_.name))),
                             variables)
 
-      case NodeUniqueIndexSeek(id, label, propKeys, value, arguments) =>
+      case NodeUniqueIndexSeek(id, label, propKeys, value, arguments, _) =>
         PlanDescriptionImpl(id = plan.id, "NodeUniqueIndexSeek", NoChildren,
                             Seq(Index(label.name, propKeys.map(_.name))), variables)
 
@@ -402,6 +406,15 @@ case class LogicalPlan2PlanDescription(readOnly: Boolean, cardinalities: Cardina
     result.addArgument(EstimatedRows(cardinalities.get(plan.id).amount))
   }
 
+  private def pointDescription(point: ASTExpression): String = {
+    val funcName = Point.name
+    point match {
+      case FunctionInvocation(Namespace(List()), FunctionName(funcName), _, Seq(MapExpression(args))) =>
+        s"point(${args.map(_._1.name).mkString(",")})"
+      case _ => point.toString
+    }
+  }
+
   private def getDescriptions(label: LabelToken,
                               propertyKeys: Seq[PropertyKeyToken],
                               valueExpr: QueryExpression[ASTExpression],
@@ -429,13 +442,9 @@ case class LogicalPlan2PlanDescription(readOnly: Boolean, cardinalities: Cardina
               s"<${bound.inequalitySignSuffix} ${bound.endPoint.asCanonicalStringVal}").toIndexedSeq
             (name, InequalityIndex(label.name, propertyKey, greaterThanBoundsText ++ lessThanBoundsText))
           case PointDistanceSeekRangeWrapper(PointDistanceRange(point, distance, inclusive)) =>
-            val funcName = Point.name
-            val poi = point match {
-              case FunctionInvocation(Namespace(List()), FunctionName(funcName), _, Seq(MapExpression(args))) =>
-                s"point(${args.map(_._1.name).mkString(",")})"
-              case _ => point.toString
-            }
-            (name, PointDistanceIndex(label.name, propertyKey, poi, distance.toString, inclusive))
+            (name, PointDistanceIndex(label.name, propertyKey, pointDescription(point), distance.toString, inclusive))
+          case NearestNeighbourSeekWrapper(point) =>
+            (name, NearestNeighbourIndex(label.name, propertyKey, pointDescription(point)))
           case _ => throw new InternalException("This should never happen. Missing a case?")
         }
       case _ =>
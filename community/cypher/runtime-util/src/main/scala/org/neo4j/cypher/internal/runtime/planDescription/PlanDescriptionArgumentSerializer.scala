@@ -71,6 +71,7 @@ object PlanDescriptionArgumentSerializer {
       case InequalityIndex(label, property, bounds) => bounds.map(bound => s":$label($property) $bound").mkString(" AND ")
       case PointDistanceIndex(label, property, point, distance, inclusive) =>
         s":$label($property) WHERE distance(_,$point) <${if(inclusive) "=" else ""} $distance"
+      case NearestNeighbourIndex(label, property, point) => s":$label($property) ORDER BY distance(_,$point)"
       case LabelName(label) => s":$label"
       case KeyNames(keys) => keys.map(removeGeneratedNames).mkString(SEPARATOR)
       case KeyExpressions(expressions) => expressions.mkString(SEPARATOR)
@@ -0,0 +1,304 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.collection.primitive.Primitive;
+import org.neo4j.collection.primitive.PrimitiveLongList;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+
+import static java.lang.String.format;
+import static org.neo4j.index.internal.gbptree.PageCursorUtil.checkOutOfBounds;
+
+/**
+ * Builds a tree bottom-up, one level at a time, from entries added in strictly ascending key order.
+ * Used by {@link BulkLoader}.
+ * <p>
+ * Entries are appended to the current right-most leaf until it's filled to the fill factor, at which point a new
+ * right sibling is started and a separator between the last key of the previous leaf and the first key of that
+ * new leaf, see {@link Layout#minimalSplitter(Object, Object, Object)}, is passed up to the level above,
+ * together with the id of the new leaf. Internal levels are filled the same way and a new level is added on top
+ * whenever the current top level gets a second node. Every node is written exactly once, sequentially, and no node
+ * ever needs to be split.
+ * <p>
+ * Internal levels hold back the most recent separator key until the next one arrives (or the build finishes),
+ * to make sure that the right-most node on every level is left with at least one key: when an internal node
+ * needs to be split, the held back key is passed up and its child becomes the left-most child of the new sibling,
+ * which is only done if there is yet another key to put in that new sibling.
+ * <p>
+ * All nodes are created in the unstable generation from ids acquired from the {@link IdProvider}, none of them
+ * reachable from the current root, so the tree stays intact until the root returned from {@link #finish()}
+ * is published.
+ */
+class BottomUpTreeBuilder<KEY,VALUE>
+{
+    private final PagedFile pagedFile;
+    private final TreeNode<KEY,VALUE> bTreeNode;
+    private final Layout<KEY,VALUE> layout;
+    private final IdProvider idProvider;
+    private final long stableGeneration;
+    private final long unstableGeneration;
+    private final double fillFactor;
+    private final List<Level> levels = new ArrayList<>();
+    private final PrimitiveLongList acquiredIds = Primitive.longList();
+    private final KEY previousKey;
+    private final KEY splitter;
+    private boolean hasPreviousKey;
+
+    BottomUpTreeBuilder( PagedFile pagedFile, TreeNode<KEY,VALUE> bTreeNode, Layout<KEY,VALUE> layout, IdProvider idProvider,
+            long stableGeneration, long unstableGeneration, double fillFactor )
+    {
+        this.pagedFile = pagedFile;
+        this.bTreeNode = bTreeNode;
+        this.layout = layout;
+        this.idProvider = idProvider;
+        this.stableGeneration = stableGeneration;
+        this.unstableGeneration = unstableGeneration;
+        this.fillFactor = fillFactor;
+        this.previousKey = layout.newKey();
+        this.splitter = layout.newKey();
+    }
+
+    void add( KEY key, VALUE value ) throws IOException
+    {
+        bTreeNode.validateKeyValueSize( key, value );
+        if ( hasPreviousKey && layout.compare( previousKey, key ) >= 0 )
+        {
+            throw new IllegalArgumentException( format( "Keys must be added in strictly ascending order, but %s was added after %s",
+                    key, previousKey ) );
+        }
+
+        Level leaves = levels.isEmpty() ? newLevel( null ) : levels.get( 0 );
+        int entrySpace = bTreeNode.leafEntrySpace( leaves.cursor, leaves.keyCount, key, value );
+        if ( leaves.keyCount > 0 && leaves.usedSpace + entrySpace > leaves.fillSpace )
+        {
+            leaves.newSibling( TreeNode.NO_NODE_FLAG );
+            addToParent( 1, layout.minimalSplitter( previousKey, key, splitter ), leaves.nodeId );
+            entrySpace = bTreeNode.leafEntrySpace( leaves.cursor, leaves.keyCount, key, value );
+        }
+        assert bTreeNode.leafOverflow( leaves.cursor, leaves.keyCount, key, value ) == TreeNode.Overflow.NO;
+        bTreeNode.insertKeyValueAt( leaves.cursor, key, value, leaves.keyCount, leaves.keyCount );
+        leaves.entryAdded( entrySpace );
+
+        layout.copyKey( key, previousKey );
+        hasPreviousKey = true;
+    }
+
+    private void addToParent( int levelIndex, KEY key, long rightChild ) throws IOException
+    {
+        Level level = levelIndex == levels.size() ? newLevel( levels.get( levelIndex - 1 ) ) : levels.get( levelIndex );
+        if ( level.hasPending )
+        {
+            int pendingSpace = bTreeNode.internalEntrySpace( level.cursor, level.keyCount, level.pendingKey );
+            int nextSpace = bTreeNode.internalEntrySpace( level.cursor, level.keyCount + 1, key );
+            if ( level.keyCount == 0 ||
+                 (level.usedSpace + pendingSpace <= level.fillSpace && level.usedSpace + pendingSpace + nextSpace <= level.totalSpace) )
+            {
+                level.insertPending( pendingSpace );
+            }
+            else
+            {
+                level.newSibling( level.pendingChild );
+                addToParent( levelIndex + 1, level.pendingKey, level.nodeId );
+            }
+        }
+        level.setPending( key, rightChild );
+    }
+
+    /**
+     * Completes the tree by writing the keys held back in internal levels.
+     *
+     * @return id of the root of the built tree, or {@link TreeNode#NO_NODE_FLAG} if no entries were added.
+     * @throws IOException on page cache error.
+     */
+    long finish() throws IOException
+    {
+        if ( levels.isEmpty() )
+        {
+            return TreeNode.NO_NODE_FLAG;
+        }
+
+        for ( int i = 1; i < levels.size(); i++ )
+        {
+            Level level = levels.get( i );
+            if ( level.hasPending )
+            {
+                int pendingSpace = bTreeNode.internalEntrySpace( level.cursor, level.keyCount, level.pendingKey );
+                if ( level.usedSpace + pendingSpace > level.totalSpace )
+                {
+                    throw new IllegalStateException( format( "Unable to fit last key %s in internal node %d on level %d, " +
+                            "keys are too large to allow at least two keys per internal node", level.pendingKey, level.nodeId, i ) );
+                }
+                level.insertPending( pendingSpace );
+            }
+        }
+        // The top level never has more than one node, it would otherwise have gotten a level on top of it
+        return levels.get( levels.size() - 1 ).firstNodeId;
+    }
+
+    /**
+     * Releases the ids of all nodes created by this builder. Used when bulk loading fails and the built nodes are
+     * never going to be published.
+     *
+     * @throws IOException on page cache error.
+     */
+    void releaseCreatedNodes() throws IOException
+    {
+        close();
+        for ( int i = 0; i < acquiredIds.size(); i++ )
+        {
+            idProvider.releaseId( stableGeneration, unstableGeneration, acquiredIds.get( i ) );
+        }
+        acquiredIds.clear();
+    }
+
+    void close()
+    {
+        for ( Level level : levels )
+        {
+            level.cursor.close();
+        }
+        levels.clear();
+    }
+
+    private Level newLevel( Level childLevel ) throws IOException
+    {
+        Level level = new Level( childLevel == null );
+        levels.add( level );
+        level.firstNodeId = acquireNewId();
+        level.initializeNode( level.firstNodeId, childLevel == null ? TreeNode.NO_NODE_FLAG : childLevel.firstNodeId );
+        return level;
+    }
+
+    private long acquireNewId() throws IOException
+    {
+        long id = idProvider.acquireNewId( stableGeneration, unstableGeneration );
+        acquiredIds.add( id );
+        return id;
+    }
+
+    private class Level
+    {
+        private final boolean leaf;
+        private final int totalSpace;
+        private final int fillSpace;
+        private final PageCursor cursor;
+        private final KEY pendingKey;
+        private long pendingChild;
+        private boolean hasPending;
+        private long firstNodeId;
+        private long nodeId;
+        private int keyCount;
+        private int usedSpace;
+
+        Level( boolean leaf ) throws IOException
+        {
+            this.leaf = leaf;
+            this.totalSpace = leaf ? bTreeNode.leafSpace() : bTreeNode.internalSpace();
+            this.fillSpace = (int) (totalSpace * fillFactor);
+            this.cursor = pagedFile.io( 0L /*ignored*/, PagedFile.PF_SHARED_WRITE_LOCK );
+            this.pendingKey = leaf ? null : layout.newKey();
+        }
+
+        /**
+         * Initializes a new empty node with the given id and moves the cursor to it.
+         *
+         * @param id id of the new node.
+         * @param leftMostChild left-most child if this is an internal level, otherwise ignored.
+         */
+        void initializeNode( long id, long leftMostChild ) throws IOException
+        {
+            nodeId = id;
+            PageCursorUtil.goTo( cursor, "bulk loaded node", id );
+            if ( leaf )
+            {
+                bTreeNode.initializeLeaf( cursor, stableGeneration, unstableGeneration );
+            }
+            else
+            {
+                bTreeNode.initializeInternal( cursor, stableGeneration, unstableGeneration );
+                bTreeNode.setChildAt( cursor, leftMostChild, 0, stableGeneration, unstableGeneration );
+            }
+            keyCount = 0;
+            usedSpace = 0;
+        }
+
+        /**
+         * Leaves the current node as it is and continues with a new empty right sibling of it.
+         *
+         * @param leftMostChild left-most child if this is an internal level, otherwise ignored.
+         */
+        void newSibling( long leftMostChild ) throws IOException
+        {
+            long leftSiblingId = nodeId;
+            long rightSiblingId = acquireNewId();
+            TreeNode.setRightSibling( cursor, rightSiblingId, stableGeneration, unstableGeneration );
+            checkOutOfBounds( cursor );
+            initializeNode( rightSiblingId, leftMostChild );
+            TreeNode.setLeftSibling( cursor, leftSiblingId, stableGeneration, unstableGeneration );
+        }
+
+        void entryAdded( int entrySpace )
+        {
+            keyCount++;
+            usedSpace += entrySpace;
+            TreeNode.setKeyCount( cursor, keyCount );
+            checkOutOfBounds( cursor );
+        }
+
+        void setPending( KEY key, long child )
+        {
+            layout.copyKey( key, pendingKey );
+            pendingChild = child;
+            hasPending = true;
+        }
+
+        void insertPending( int pendingSpace )
+        {
+            assert bTreeNode.internalOverflow( cursor, keyCount, pendingKey ) == TreeNode.Overflow.NO;
+            bTreeNode.insertKeyAndRightChildAt( cursor, pendingKey, pendingChild, keyCount, keyCount, stableGeneration, unstableGeneration );
+            entryAdded( pendingSpace );
+            hasPending = false;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Builds the contents of an empty {@link GBPTree} bottom-up from key/value pairs given in strictly ascending key order.
+ * Leaves are filled sequentially up to a fill factor and internal nodes are built on top of them as leaves fill up,
+ * so that no page is visited more than once and no splits occur. This makes it much faster than inserting
+ * the same entries one by one through a {@link Writer}, but requires the entries to already be sorted,
+ * for example by an {@link EntrySorter}.
+ * <p>
+ * Entries become visible in the tree first when this loader is {@link #close() closed}. A bulk loader holds
+ * the single writer of the tree for its whole lifetime, and must therefore be closed before a {@link Writer}
+ * can be acquired or a checkpoint can happen.
+ *
+ * @param <KEY> type of keys
+ * @param <VALUE> type of values
+ */
+public interface BulkLoader<KEY,VALUE> extends Closeable
+{
+    /**
+     * Adds a key/value pair after all previously added pairs.
+     *
+     * @param key key to add, must be greater than any previously added key.
+     * @param value value to associate with key.
+     * @throws IOException on index access error.
+     * @throws IllegalArgumentException if {@code key} isn't greater than the previously added key.
+     */
+    void add( KEY key, VALUE value ) throws IOException;
+}
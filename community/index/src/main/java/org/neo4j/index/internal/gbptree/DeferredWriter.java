@@ -0,0 +1,305 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.OpenMode;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.io.pagecache.ByteArrayPageCursor;
+import org.neo4j.io.pagecache.PageCursor;
+
+/**
+ * Records puts and removes, to be {@link #replayTo(Writer) replayed} onto a tree's {@link Writer} later, in the order
+ * they were recorded. Used to hold back writes which cannot be applied yet, e.g. while the tree is being bulk loaded.
+ * <p>
+ * Recorded writes are serialized, using the {@link Layout}, into an in-memory buffer. When the buffer is full it is
+ * appended to a temporary file, so that amount of recorded writes isn't limited by available memory.
+ * If all writes fit in the buffer nothing is written to the temporary file.
+ * <p>
+ * Writes are only recorded, so {@link #remove(Object)} cannot know the removed value and {@link #merge(Object, Object, ValueMerger)}
+ * is not supported. Closing this writer discards any writes not yet replayed.
+ * <p>
+ * Instances are not thread safe.
+ *
+ * @param <KEY> type of keys
+ * @param <VALUE> type of values
+ */
+public class DeferredWriter<KEY,VALUE> implements Writer<KEY,VALUE>
+{
+    private static final byte PUT = 1;
+    private static final byte REMOVE = 2;
+    private static final int ENTRY_HEADER_SIZE = Byte.BYTES + Integer.BYTES * 2;
+    private static final int INITIAL_BUFFER_SIZE = 1 << 16;
+    private static final int IO_BUFFER_SIZE = 1 << 16;
+
+    private final Layout<KEY,VALUE> layout;
+    private final FileSystemAbstraction fs;
+    private final File file;
+    private final int maxBufferSize;
+    private final KEY replayKey;
+    private final VALUE replayValue;
+
+    private byte[] buffer;
+    private PageCursor bufferCursor;
+    private int bufferUsed;
+    private StoreChannel channel;
+    private long fileSize;
+
+    /**
+     * @param layout {@link Layout} for serializing keys and values.
+     * @param fs {@link FileSystemAbstraction} to create the temporary file in.
+     * @param file temporary file to append recorded writes to, if needed. Deleted when this writer is closed.
+     * @param maxBufferSize max size in bytes of the in-memory buffer.
+     */
+    public DeferredWriter( Layout<KEY,VALUE> layout, FileSystemAbstraction fs, File file, int maxBufferSize )
+    {
+        this.layout = layout;
+        this.fs = fs;
+        this.file = file;
+        this.maxBufferSize = maxBufferSize;
+        this.replayKey = layout.newKey();
+        this.replayValue = layout.newValue();
+        this.buffer = new byte[Math.min( INITIAL_BUFFER_SIZE, maxBufferSize )];
+        this.bufferCursor = ByteArrayPageCursor.wrap( buffer );
+    }
+
+    @Override
+    public void put( KEY key, VALUE value ) throws IOException
+    {
+        record( PUT, key, value );
+    }
+
+    /**
+     * Unsupported, since merging needs the value currently associated with the key.
+     */
+    @Override
+    public void merge( KEY key, VALUE value, ValueMerger<KEY,VALUE> valueMerger )
+    {
+        throw new UnsupportedOperationException( "Can not defer merges" );
+    }
+
+    /**
+     * Records removal of the key.
+     *
+     * @return {@code null}, since the value associated with the key isn't known until the removal is replayed.
+     */
+    @Override
+    public VALUE remove( KEY key ) throws IOException
+    {
+        record( REMOVE, key, null );
+        return null;
+    }
+
+    /**
+     * Applies all recorded writes to the given {@link Writer}, in the order they were recorded. Nothing is recorded
+     * afterwards.
+     *
+     * @param writer {@link Writer} to apply the recorded writes to.
+     * @throws IOException on error reading the temporary file or applying writes.
+     */
+    public void replayTo( Writer<KEY,VALUE> writer ) throws IOException
+    {
+        if ( fileSize > 0 )
+        {
+            replayFile( writer );
+        }
+        replayEntries( bufferCursor, 0, bufferUsed, writer );
+        bufferUsed = 0;
+        fileSize = 0;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        buffer = null;
+        bufferCursor = null;
+        if ( channel != null )
+        {
+            channel.close();
+            channel = null;
+        }
+        fs.deleteFile( file );
+    }
+
+    private void record( byte type, KEY key, VALUE value ) throws IOException
+    {
+        int keySize = layout.keySize( key );
+        int valueSize = value == null ? 0 : layout.valueSize( value );
+        int entrySize = ENTRY_HEADER_SIZE + keySize + valueSize;
+        if ( bufferUsed + entrySize > buffer.length )
+        {
+            makeRoomInBuffer( entrySize );
+        }
+
+        bufferCursor.setOffset( bufferUsed );
+        bufferCursor.putByte( type );
+        bufferCursor.putInt( keySize );
+        bufferCursor.putInt( valueSize );
+        layout.writeKey( bufferCursor, key );
+        if ( value != null )
+        {
+            layout.writeValue( bufferCursor, value );
+        }
+        bufferUsed += entrySize;
+    }
+
+    private void makeRoomInBuffer( int entrySize ) throws IOException
+    {
+        if ( buffer.length < maxBufferSize )
+        {
+            growBuffer( Math.min( Math.max( buffer.length * 2, bufferUsed + entrySize ), maxBufferSize ) );
+        }
+        if ( bufferUsed + entrySize > buffer.length )
+        {
+            appendBufferToFile();
+            if ( entrySize > buffer.length )
+            {
+                growBuffer( entrySize );
+            }
+        }
+    }
+
+    private void growBuffer( int newSize )
+    {
+        if ( newSize > buffer.length )
+        {
+            byte[] newBuffer = new byte[newSize];
+            System.arraycopy( buffer, 0, newBuffer, 0, bufferUsed );
+            buffer = newBuffer;
+            bufferCursor = ByteArrayPageCursor.wrap( buffer );
+        }
+    }
+
+    private void appendBufferToFile() throws IOException
+    {
+        if ( channel == null )
+        {
+            fs.deleteFile( file );
+            channel = fs.open( file, OpenMode.READ_WRITE );
+        }
+        channel.writeAll( ByteBuffer.wrap( buffer, 0, bufferUsed ), fileSize );
+        fileSize += bufferUsed;
+        bufferUsed = 0;
+    }
+
+    /**
+     * Replays the writes appended to the temporary file, reading it sequentially through a read buffer.
+     */
+    private void replayFile( Writer<KEY,VALUE> writer ) throws IOException
+    {
+        byte[] readBuffer = new byte[IO_BUFFER_SIZE];
+        PageCursor readCursor = ByteArrayPageCursor.wrap( readBuffer );
+        int readLimit = 0;
+        long position = 0;
+        while ( position < fileSize )
+        {
+            if ( readLimit >= ENTRY_HEADER_SIZE )
+            {
+                // The first entry didn't fit in what remained of the read buffer
+                int entrySize = entrySize( readCursor, 0 );
+                if ( entrySize > readBuffer.length )
+                {
+                    byte[] newReadBuffer = new byte[entrySize];
+                    System.arraycopy( readBuffer, 0, newReadBuffer, 0, readLimit );
+                    readBuffer = newReadBuffer;
+                    readCursor = ByteArrayPageCursor.wrap( readBuffer );
+                }
+            }
+
+            int toRead = (int) Math.min( readBuffer.length - readLimit, fileSize - position );
+            ByteBuffer byteBuffer = ByteBuffer.wrap( readBuffer, readLimit, toRead );
+            while ( byteBuffer.hasRemaining() )
+            {
+                int read = channel.read( byteBuffer, position );
+                if ( read == -1 )
+                {
+                    throw new IllegalStateException( "Unexpected end of " + file + " at position " + position );
+                }
+                position += read;
+            }
+            readLimit += toRead;
+
+            int replayed = replayEntries( readCursor, 0, readLimit, writer );
+            System.arraycopy( readBuffer, replayed, readBuffer, 0, readLimit - replayed );
+            readLimit -= replayed;
+        }
+        if ( readLimit > 0 )
+        {
+            throw new IllegalStateException( "Unexpected end of " + file + " at position " + (fileSize - readLimit) );
+        }
+    }
+
+    /**
+     * Replays the complete entries between {@code from} and {@code limit}.
+     *
+     * @return number of bytes of the replayed entries.
+     */
+    private int replayEntries( PageCursor cursor, int from, int limit, Writer<KEY,VALUE> writer ) throws IOException
+    {
+        int offset = from;
+        while ( limit - offset >= ENTRY_HEADER_SIZE && limit - offset >= entrySize( cursor, offset ) )
+        {
+            byte type = cursor.getByte( offset );
+            int keySize = cursor.getInt( offset + Byte.BYTES );
+            int valueSize = cursor.getInt( offset + Byte.BYTES + Integer.BYTES );
+            cursor.setOffset( offset + ENTRY_HEADER_SIZE );
+            layout.readKey( cursor, replayKey, keySize );
+            if ( type == PUT )
+            {
+                layout.readValue( cursor, replayValue, valueSize );
+                writer.put( replayKey, replayValue );
+            }
+            else
+            {
+                writer.remove( replayKey );
+            }
+            offset += ENTRY_HEADER_SIZE + keySize + valueSize;
+        }
+        return offset - from;
+    }
+
+    private static int entrySize( PageCursor cursor, int offset )
+    {
+        return ENTRY_HEADER_SIZE + cursor.getInt( offset + Byte.BYTES ) + cursor.getInt( offset + Byte.BYTES + Integer.BYTES );
+    }
+}
@@ -0,0 +1,570 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.BooleanSupplier;
+
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.OpenMode;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.io.pagecache.ByteArrayPageCursor;
+import org.neo4j.io.pagecache.PageCursor;
+
+/**
+ * Sorts key/value pairs, added in any order, into the strictly ascending key order required by a {@link BulkLoader},
+ * using an external merge sort so that amount of entries isn't limited by available memory.
+ * <p>
+ * Added entries are serialized, using the {@link Layout}, into an in-memory buffer. When the buffer is full its entries
+ * are sorted and written as a sorted run to a temporary file. When {@link #drainTo(BulkLoader) draining} the runs are
+ * merged, at most {@link #MERGE_FACTOR} runs at a time, and handed in sorted order to the bulk loader. If all entries
+ * fit in the buffer nothing is written to the temporary file. Draining can be cancelled, since for a large amount
+ * of entries it takes a long time.
+ * <p>
+ * If the same key is added multiple times, the value added last wins.
+ * <p>
+ * Instances are not thread safe.
+ *
+ * @param <KEY> type of keys
+ * @param <VALUE> type of values
+ */
+public class EntrySorter<KEY,VALUE> implements Closeable
+{
+    static final int MERGE_FACTOR = 64;
+    private static final int ENTRY_HEADER_SIZE = Integer.BYTES * 2;
+    private static final int INITIAL_BUFFER_SIZE = 1 << 16;
+    private static final int IO_BUFFER_SIZE = 1 << 16;
+    private static final int CANCELLATION_CHECK_INTERVAL_MASK = (1 << 10) - 1;
+
+    private final Layout<KEY,VALUE> layout;
+    private final FileSystemAbstraction fs;
+    private final File runFile;
+    private final int maxBufferSize;
+    private final KEY sortKey1;
+    private final KEY sortKey2;
+    private final VALUE sortValue;
+    private final List<Run> runs = new ArrayList<>();
+
+    private byte[] buffer;
+    private PageCursor bufferCursor;
+    private int bufferUsed;
+    private int[] entryOffsets = new int[1024];
+    private int entryCount;
+    private StoreChannel channel;
+    private long runFileSize;
+
+    /**
+     * @param layout {@link Layout} for serializing and comparing entries.
+     * @param fs {@link FileSystemAbstraction} to create the run file in.
+     * @param runFile temporary file to write sorted runs into, if needed. Deleted when this sorter is closed.
+     * @param maxBufferSize max size in bytes of the in-memory buffer, i.e. of each sorted run.
+     */
+    public EntrySorter( Layout<KEY,VALUE> layout, FileSystemAbstraction fs, File runFile, int maxBufferSize )
+    {
+        this.layout = layout;
+        this.fs = fs;
+        this.runFile = runFile;
+        this.maxBufferSize = maxBufferSize;
+        this.sortKey1 = layout.newKey();
+        this.sortKey2 = layout.newKey();
+        this.sortValue = layout.newValue();
+        this.buffer = new byte[Math.min( INITIAL_BUFFER_SIZE, maxBufferSize )];
+        this.bufferCursor = ByteArrayPageCursor.wrap( buffer );
+    }
+
+    /**
+     * Adds a key/value pair, in any order.
+     *
+     * @param key key to add.
+     * @param value value to associate with key.
+     * @throws IOException on error writing a sorted run.
+     */
+    public void add( KEY key, VALUE value ) throws IOException
+    {
+        int keySize = layout.keySize( key );
+        int valueSize = layout.valueSize( value );
+        int entrySize = ENTRY_HEADER_SIZE + keySize + valueSize;
+        if ( bufferUsed + entrySize > buffer.length )
+        {
+            makeRoomInBuffer( entrySize );
+        }
+        if ( entryCount == entryOffsets.length )
+        {
+            int[] newEntryOffsets = new int[entryOffsets.length * 2];
+            System.arraycopy( entryOffsets, 0, newEntryOffsets, 0, entryCount );
+            entryOffsets = newEntryOffsets;
+        }
+
+        bufferCursor.setOffset( bufferUsed );
+        bufferCursor.putInt( keySize );
+        bufferCursor.putInt( valueSize );
+        layout.writeKey( bufferCursor, key );
+        layout.writeValue( bufferCursor, value );
+        entryOffsets[entryCount++] = bufferUsed;
+        bufferUsed += entrySize;
+    }
+
+    /**
+     * Hands all added entries to the given {@link BulkLoader} in strictly ascending key order. This sorter
+     * is empty afterwards.
+     *
+     * @param bulkLoader {@link BulkLoader} to add the sorted entries to.
+     * @throws IOException on error reading sorted runs or loading entries.
+     */
+    public void drainTo( BulkLoader<KEY,VALUE> bulkLoader ) throws IOException
+    {
+        drainTo( bulkLoader, () -> false );
+    }
+
+    /**
+     * Hands all added entries to the given {@link BulkLoader} in strictly ascending key order, unless cancelled.
+     * Cancellation is checked regularly while draining, and stops it as soon as it is noticed. The bulk loader has then
+     * only been given some of the entries, and this sorter should be closed.
+     *
+     * @param bulkLoader {@link BulkLoader} to add the sorted entries to.
+     * @param cancelled returns {@code true} when draining should stop.
+     * @return {@code true} if all entries were handed to the bulk loader, otherwise {@code false} if draining was cancelled.
+     * @throws IOException on error reading sorted runs or loading entries.
+     */
+    public boolean drainTo( BulkLoader<KEY,VALUE> bulkLoader, BooleanSupplier cancelled ) throws IOException
+    {
+        if ( runs.isEmpty() )
+        {
+            // Everything fits in memory, no need to go through the run file
+            sortBuffer();
+            for ( int i = 0; i < entryCount; i++ )
+            {
+                if ( (i & CANCELLATION_CHECK_INTERVAL_MASK) == 0 && cancelled.getAsBoolean() )
+                {
+                    return false;
+                }
+                if ( i + 1 == entryCount || compareEntries( entryOffsets[i], entryOffsets[i + 1] ) != 0 )
+                {
+                    readEntry( entryOffsets[i], sortKey1, sortValue );
+                    bulkLoader.add( sortKey1, sortValue );
+                }
+            }
+            clearBuffer();
+            return true;
+        }
+
+        if ( entryCount > 0 )
+        {
+            writeBufferAsRun();
+        }
+        while ( runs.size() > MERGE_FACTOR )
+        {
+            if ( !mergeRunsIntoFewer( cancelled ) )
+            {
+                return false;
+            }
+        }
+        if ( !merge( new ArrayList<>( runs ), bulkLoader::add, cancelled ) )
+        {
+            return false;
+        }
+        runs.clear();
+        return true;
+    }
+
+    /**
+     * @return number of sorted runs written to the run file so far.
+     */
+    int numberOfRuns()
+    {
+        return runs.size();
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        buffer = null;
+        bufferCursor = null;
+        runs.clear();
+        if ( channel != null )
+        {
+            channel.close();
+            channel = null;
+        }
+        fs.deleteFile( runFile );
+    }
+
+    private void makeRoomInBuffer( int entrySize ) throws IOException
+    {
+        if ( buffer.length < maxBufferSize || entrySize > buffer.length )
+        {
+            int newSize = Math.max( Math.min( buffer.length * 2, maxBufferSize ), bufferUsed + entrySize );
+            if ( newSize > buffer.length )
+            {
+                byte[] newBuffer = new byte[newSize];
+                System.arraycopy( buffer, 0, newBuffer, 0, bufferUsed );
+                buffer = newBuffer;
+                bufferCursor = ByteArrayPageCursor.wrap( buffer );
+            }
+        }
+        if ( bufferUsed + entrySize > buffer.length )
+        {
+            writeBufferAsRun();
+        }
+    }
+
+    private void clearBuffer()
+    {
+        bufferUsed = 0;
+        entryCount = 0;
+    }
+
+    /**
+     * Sorts the entries in the buffer and writes them, without duplicate keys, as a new run at the end of the run file.
+     */
+    private void writeBufferAsRun() throws IOException
+    {
+        sortBuffer();
+        RunWriter runWriter = new RunWriter();
+        for ( int i = 0; i < entryCount; i++ )
+        {
+            if ( i + 1 == entryCount || compareEntries( entryOffsets[i], entryOffsets[i + 1] ) != 0 )
+            {
+                int offset = entryOffsets[i];
+                runWriter.write( buffer, offset, entrySize( offset ) );
+            }
+        }
+        runs.add( runWriter.complete() );
+        clearBuffer();
+    }
+
+    private boolean mergeRunsIntoFewer( BooleanSupplier cancelled ) throws IOException
+    {
+        List<Run> mergedRuns = new ArrayList<>();
+        for ( int from = 0; from < runs.size(); from += MERGE_FACTOR )
+        {
+            RunWriter runWriter = new RunWriter();
+            if ( !merge( runs.subList( from, Math.min( from + MERGE_FACTOR, runs.size() ) ), runWriter::write, cancelled ) )
+            {
+                return false;
+            }
+            mergedRuns.add( runWriter.complete() );
+        }
+        runs.clear();
+        runs.addAll( mergedRuns );
+        return true;
+    }
+
+    /**
+     * Merges the given runs, where entries with equal keys are resolved in favour of the latest run.
+     *
+     * @return {@code true} if all entries were merged, otherwise {@code false} if merging was cancelled.
+     */
+    private boolean merge( List<Run> runsToMerge, EntryConsumer<KEY,VALUE> consumer, BooleanSupplier cancelled )
+            throws IOException
+    {
+        Comparator<RunReader> order = ( a, b ) ->
+        {
+            int compare = layout.compare( a.key, b.key );
+            return compare != 0 ? compare : Integer.compare( a.runIndex, b.runIndex );
+        };
+        PriorityQueue<RunReader> queue = new PriorityQueue<>( runsToMerge.size(), order );
+        for ( int i = 0; i < runsToMerge.size(); i++ )
+        {
+            RunReader reader = new RunReader( runsToMerge.get( i ), i );
+            if ( reader.next() )
+            {
+                queue.add( reader );
+            }
+        }
+
+        long merged = 0;
+        while ( !queue.isEmpty() )
+        {
+            if ( (merged++ & CANCELLATION_CHECK_INTERVAL_MASK) == 0 && cancelled.getAsBoolean() )
+            {
+                return false;
+            }
+            RunReader reader = queue.poll();
+            RunReader next = queue.peek();
+            // Runs have no duplicate keys themselves, so a later run with the same key is always next in the queue
+            if ( next == null || layout.compare( reader.key, next.key ) != 0 )
+            {
+                consumer.accept( reader.key, reader.value );
+            }
+            if ( reader.next() )
+            {
+                queue.add( reader );
+            }
+        }
+        return true;
+    }
+
+    private int entrySize( int offset )
+    {
+        return ENTRY_HEADER_SIZE + bufferCursor.getInt( offset ) + bufferCursor.getInt( offset + Integer.BYTES );
+    }
+
+    private void readEntry( int offset, KEY key, VALUE value )
+    {
+        int keySize = bufferCursor.getInt( offset );
+        int valueSize = bufferCursor.getInt( offset + Integer.BYTES );
+        bufferCursor.setOffset( offset + ENTRY_HEADER_SIZE );
+        layout.readKey( bufferCursor, key, keySize );
+        layout.readValue( bufferCursor, value, valueSize );
+    }
+
+    private int compareEntries( int offset1, int offset2 )
+    {
+        readKey( offset1, sortKey1 );
+        readKey( offset2, sortKey2 );
+        return layout.compare( sortKey1, sortKey2 );
+    }
+
+    private void readKey( int offset, KEY into )
+    {
+        int keySize = bufferCursor.getInt( offset );
+        bufferCursor.setOffset( offset + ENTRY_HEADER_SIZE );
+        layout.readKey( bufferCursor, into, keySize );
+    }
+
+    /**
+     * Stable merge sort of the entry offsets, so that entries with equal keys stay in the order they were added.
+     */
+    private void sortBuffer()
+    {
+        int[] from = entryOffsets;
+        int[] to = new int[entryOffsets.length];
+        for ( int width = 1; width < entryCount; width *= 2 )
+        {
+            for ( int low = 0; low < entryCount; low += 2 * width )
+            {
+                int middle = Math.min( low + width, entryCount );
+                int high = Math.min( low + 2 * width, entryCount );
+                int left = low;
+                int right = middle;
+                for ( int i = low; i < high; i++ )
+                {
+                    if ( left < middle && (right >= high || compareEntries( from[left], from[right] ) <= 0) )
+                    {
+                        to[i] = from[left++];
+                    }
+                    else
+                    {
+                        to[i] = from[right++];
+                    }
+                }
+            }
+            int[] swap = from;
+            from = to;
+            to = swap;
+        }
+        entryOffsets = from;
+    }
+
+    private StoreChannel channel() throws IOException
+    {
+        if ( channel == null )
+        {
+            fs.deleteFile( runFile );
+            channel = fs.open( runFile, OpenMode.READ_WRITE );
+        }
+        return channel;
+    }
+
+    @FunctionalInterface
+    private interface EntryConsumer<KEY,VALUE>
+    {
+        void accept( KEY key, VALUE value ) throws IOException;
+    }
+
+    private static class Run
+    {
+        private final long start;
+        private final long end;
+
+        Run( long start, long end )
+        {
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    /**
+     * Appends entries to the end of the run file.
+     */
+    private class RunWriter
+    {
+        private final long start = runFileSize;
+        private final byte[] writeBuffer = new byte[IO_BUFFER_SIZE];
+        private final PageCursor writeCursor = ByteArrayPageCursor.wrap( writeBuffer );
+        private int writeBufferUsed;
+
+        void write( KEY key, VALUE value ) throws IOException
+        {
+            int keySize = layout.keySize( key );
+            int valueSize = layout.valueSize( value );
+            int entrySize = ENTRY_HEADER_SIZE + keySize + valueSize;
+            if ( writeBufferUsed + entrySize > writeBuffer.length )
+            {
+                flush();
+            }
+            if ( entrySize > writeBuffer.length )
+            {
+                throw new IllegalArgumentException( "Entry of size " + entrySize + " is too large to be sorted" );
+            }
+            writeCursor.setOffset( writeBufferUsed );
+            writeCursor.putInt( keySize );
+            writeCursor.putInt( valueSize );
+            layout.writeKey( writeCursor, key );
+            layout.writeValue( writeCursor, value );
+            writeBufferUsed += entrySize;
+        }
+
+        void write( byte[] source, int offset, int length ) throws IOException
+        {
+            if ( writeBufferUsed + length > writeBuffer.length )
+            {
+                flush();
+            }
+            if ( length > writeBuffer.length )
+            {
+                channel().writeAll( ByteBuffer.wrap( source, offset, length ), runFileSize );
+                runFileSize += length;
+                return;
+            }
+            System.arraycopy( source, offset, writeBuffer, writeBufferUsed, length );
+            writeBufferUsed += length;
+        }
+
+        Run complete() throws IOException
+        {
+            flush();
+            return new Run( start, runFileSize );
+        }
+
+        private void flush() throws IOException
+        {
+            if ( writeBufferUsed > 0 )
+            {
+                channel().writeAll( ByteBuffer.wrap( writeBuffer, 0, writeBufferUsed ), runFileSize );
+                runFileSize += writeBufferUsed;
+                writeBufferUsed = 0;
+            }
+        }
+    }
+
+    /**
+     * Reads the entries of a run, one at a time, through a read buffer.
+     */
+    private class RunReader
+    {
+        private final int runIndex;
+        private final KEY key = layout.newKey();
+        private final VALUE value = layout.newValue();
+        private final long end;
+        private long position;
+        private byte[] readBuffer = new byte[IO_BUFFER_SIZE];
+        private PageCursor readCursor = ByteArrayPageCursor.wrap( readBuffer );
+        private int readPosition;
+        private int readLimit;
+
+        RunReader( Run run, int runIndex )
+        {
+            this.runIndex = runIndex;
+            this.position = run.start;
+            this.end = run.end;
+        }
+
+        boolean next() throws IOException
+        {
+            if ( !ensureAvailable( ENTRY_HEADER_SIZE ) )
+            {
+                return false;
+            }
+            int keySize = readCursor.getInt( readPosition );
+            int valueSize = readCursor.getInt( readPosition + Integer.BYTES );
+            int entrySize = ENTRY_HEADER_SIZE + keySize + valueSize;
+            if ( !ensureAvailable( entrySize ) )
+            {
+                throw new IllegalStateException( "Unexpected end of run in " + runFile + " at position " + (position - readLimit + readPosition) );
+            }
+            readCursor.setOffset( readPosition + ENTRY_HEADER_SIZE );
+            layout.readKey( readCursor, key, keySize );
+            layout.readValue( readCursor, value, valueSize );
+            readPosition += entrySize;
+            return true;
+        }
+
+        private boolean ensureAvailable( int size ) throws IOException
+        {
+            if ( readLimit - readPosition >= size )
+            {
+                return true;
+            }
+
+            int remaining = readLimit - readPosition;
+            byte[] target = size > readBuffer.length ? new byte[size] : readBuffer;
+            System.arraycopy( readBuffer, readPosition, target, 0, remaining );
+            if ( target != readBuffer )
+            {
+                readBuffer = target;
+                readCursor = ByteArrayPageCursor.wrap( readBuffer );
+            }
+            readPosition = 0;
+            readLimit = remaining;
+
+            int toRead = (int) Math.min( readBuffer.length - readLimit, end - position );
+            ByteBuffer byteBuffer = ByteBuffer.wrap( readBuffer, readLimit, toRead );
+            while ( byteBuffer.hasRemaining() )
+            {
+                int read = channel().read( byteBuffer, position );
+                if ( read == -1 )
+                {
+                    break;
+                }
+                position += read;
+            }
+            readLimit = byteBuffer.position();
+            return readLimit >= size;
+        }
+    }
+}
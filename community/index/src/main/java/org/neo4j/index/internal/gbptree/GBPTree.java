@@ -46,7 +46,11 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.StandardOpenOption;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Consumer;
 import java.util.function.LongSupplier;
 import java.util.function.Supplier;
@@ -68,6 +72,8 @@ import static org.neo4j.index.internal.gbptree.Generation.unstableGeneration;
 import static org.neo4j.index.internal.gbptree.GenerationSafePointer.MIN_GENERATION;
 import static org.neo4j.index.internal.gbptree.Header.CARRY_OVER_PREVIOUS_HEADER;
 import static org.neo4j.index.internal.gbptree.Header.replace;
+import static org.neo4j.index.internal.gbptree.KeySearch.isHit;
+import static org.neo4j.index.internal.gbptree.KeySearch.positionOf;
 import static org.neo4j.index.internal.gbptree.PageCursorUtil.checkOutOfBounds;
 import static org.neo4j.index.internal.gbptree.PointerChecking.assertNoSuccessor;
 
@@ -95,6 +101,8 @@ import static org.neo4j.index.internal.gbptree.PointerChecking.assertNoSuccessor
  * <p>
  * A single writer w/ multiple concurrent readers is supported. Assuming usage adheres to this
  * constraint neither writer nor readers are blocking. Readers are virtually garbage-free.
+ * Alternatively multiple {@link #parallelWriter() parallel writers} can modify the tree concurrently,
+ * changes that stay within a single leaf are made in parallel while structural changes are made one at a time.
  * <p>
  * An reader of GB+Tree is a {@link SeekCursor} that returns result as it finds them.
  * As the cursor move over keys/values, returned results are considered "behind" it
@@ -283,6 +291,12 @@ public class GBPTree<KEY,VALUE> implements Closeable
      */
     private final TreeNode<KEY,VALUE> bTreeNode;
 
+    /**
+     * Format of {@link #bTreeNode}. {@link TreeNode} instances keep scratch state used when changing tree nodes
+     * and so each {@link #parallelWriter() parallel writer} creates its own instance using this factory.
+     */
+    private final TreeNodeSelector.Factory treeNodeFormat;
+
     /**
      * A free-list of released ids. Acquiring new ids involves first trying out the free-list and then,
      * as a fall-back allocate a new id at the end of the store.
@@ -317,6 +331,40 @@ public class GBPTree<KEY,VALUE> implements Closeable
      */
     private final GBPTreeLock lock = new GBPTreeLock();
 
+    /**
+     * Number of currently open {@link #parallelWriter() parallel writers}. The first one to open takes the writer lock
+     * on behalf of all of them and the last one to close releases it. Guarded by {@link #parallelWriters}.
+     */
+    private int parallelWriterCount;
+
+    /**
+     * Monitor for opening and closing {@link #parallelWriter() parallel writers}.
+     */
+    private final Object parallelWriters = new Object();
+
+    /**
+     * Number of threads waiting for the writer lock in {@link #checkpoint(IOLimiter)} or {@link #close()}.
+     * While there are such threads, parallel writers will not join other already open parallel writers,
+     * since a steady stream of overlapping parallel writers would otherwise keep the writer lock forever.
+     */
+    private final AtomicInteger writerLockWaiters = new AtomicInteger();
+
+    /**
+     * Held in shared mode by parallel writers making changes within a single leaf and in exclusive mode by those
+     * making structural changes. Structure of the tree therefore doesn't change while it's held in shared mode.
+     */
+    private final ReentrantReadWriteLock structureLock = new ReentrantReadWriteLock();
+
+    /**
+     * Gives parallel writers exclusive access to the leaf they're changing.
+     */
+    private final TreeNodeLatches leafLatches = new TreeNodeLatches();
+
+    /**
+     * Closed parallel writers, kept for reuse to avoid creating garbage for every {@link #parallelWriter()}.
+     */
+    private final Queue<ParallelWriter> idleParallelWriters = new ConcurrentLinkedQueue<>();
+
     /**
      * Page size, i.e. tree node size, of the tree nodes in this tree. The page size is determined on
      * tree creation, stored in meta page and read when opening tree later.
@@ -490,6 +538,7 @@ public class GBPTree<KEY,VALUE> implements Closeable
                 format = TreeNodeSelector.selectByFormat( meta.getFormatIdentifier(), meta.getFormatVersion() );
             }
             this.bTreeNode = format.create( pageSize, layout );
+            this.treeNodeFormat = format;
             this.freeList = new FreeListIdProvider( pagedFile, pageSize, rootId, FreeListIdProvider.NO_MONITOR );
             this.writer = new SingleWriter( new InternalTreeLogic<>( freeList, bTreeNode, layout ) );
 
@@ -918,7 +967,15 @@ public class GBPTree<KEY,VALUE> implements Closeable
 
         // Block writers, or if there's a current writer then wait for it to complete and then block
         // From this point and till the lock is released we know that the tree won't change.
-        lock.writerAndCleanerLock();
+        writerLockWaiters.incrementAndGet();
+        try
+        {
+            lock.writerAndCleanerLock();
+        }
+        finally
+        {
+            writerLockWaiters.decrementAndGet();
+        }
         try
         {
             assertRecoveryCleanSuccessful();
@@ -968,7 +1025,15 @@ public class GBPTree<KEY,VALUE> implements Closeable
     @Override
     public void close() throws IOException
     {
-        lock.writerLock();
+        writerLockWaiters.incrementAndGet();
+        try
+        {
+            lock.writerLock();
+        }
+        finally
+        {
+            writerLockWaiters.decrementAndGet();
+        }
         try
         {
             if ( closed )
@@ -1025,6 +1090,132 @@ public class GBPTree<KEY,VALUE> implements Closeable
         return writer;
     }
 
+    /**
+     * Returns a new {@link Writer} able to modify the index concurrently with other parallel writers.
+     * After usage the returned writer must be closed, typically by using try-with-resource clause.
+     * A parallel writer instance must only be used by one thread at a time.
+     * <p>
+     * Each change finds its leaf optimistically, without latching the internal nodes on the way down, and is then
+     * made under an exclusive latch on that leaf only. Changes in different leaves are thereby made in parallel.
+     * Changes which need structural changes, i.e. split, merge, rebalance or creating a successor of a stable node,
+     * are made one at a time while all other writers wait, using the same algorithms as the {@link #writer() single
+     * writer}. Tree format and recovery is therefore the same regardless of which type of writer is used.
+     * <p>
+     * Parallel writers are mutually exclusive with the single {@link #writer()} and with {@link #checkpoint(IOLimiter)}.
+     * A thread holding a parallel writer should not open another one, since that may wait for a pending checkpoint
+     * which in turn waits for the first writer to be closed.
+     *
+     * @return a new {@link Writer} for this index. The returned writer must be {@link Writer#close() closed}.
+     * @throws IOException on error accessing the index.
+     */
+    public Writer<KEY,VALUE> parallelWriter() throws IOException
+    {
+        ParallelWriter parallelWriter = idleParallelWriters.poll();
+        if ( parallelWriter == null )
+        {
+            parallelWriter = new ParallelWriter();
+        }
+        parallelWriter.initialize();
+        changesSinceLastCheckpoint = true;
+        return parallelWriter;
+    }
+
+    private void joinParallelWriters() throws IOException
+    {
+        synchronized ( parallelWriters )
+        {
+            while ( parallelWriterCount > 0 && writerLockWaiters.get() > 0 )
+            {
+                // Let checkpoint or close in before joining
+                try
+                {
+                    parallelWriters.wait( 10 );
+                }
+                catch ( InterruptedException e )
+                {
+                    Thread.currentThread().interrupt();
+                    throw new IOException( "Interrupted while waiting to open parallel writer", e );
+                }
+            }
+
+            if ( parallelWriterCount == 0 )
+            {
+                // Block here until cleaning has completed, if cleaning was required
+                lock.writerAndCleanerLock();
+                try
+                {
+                    assertRecoveryCleanSuccessful();
+                }
+                catch ( Throwable e )
+                {
+                    lock.writerAndCleanerUnlock();
+                    throw e;
+                }
+            }
+            parallelWriterCount++;
+        }
+    }
+
+    private void leaveParallelWriters()
+    {
+        synchronized ( parallelWriters )
+        {
+            parallelWriterCount--;
+            if ( parallelWriterCount == 0 )
+            {
+                lock.writerAndCleanerUnlock();
+                parallelWriters.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Returns a {@link BulkLoader} able to build the contents of this tree bottom-up from entries given in sorted order,
+     * which is much faster than inserting them one by one using a {@link #writer()}. This tree must be empty.
+     * The bulk loader holds the single writer of this tree until it's {@link BulkLoader#close() closed}
+     * and the loaded entries become visible first when it's closed.
+     *
+     * @param fillFactor how full, between {@code 0} (exclusive) and {@code 1} (inclusive), to make the tree nodes.
+     * Leaving some space in each node makes the tree cheaper to update afterwards.
+     * @return a {@link BulkLoader} for loading entries into this tree.
+     * @throws IOException on error accessing the index.
+     * @throws IllegalStateException if this tree isn't empty or if the writer is already acquired.
+     */
+    public BulkLoader<KEY,VALUE> bulkLoader( double fillFactor ) throws IOException
+    {
+        if ( fillFactor <= 0 || fillFactor > 1 )
+        {
+            throw new IllegalArgumentException( "Fill factor must be in the range (0,1], but was " + fillFactor );
+        }
+
+        writer.initialize();
+        boolean success = false;
+        try
+        {
+            if ( !TreeNode.isLeaf( writer.cursor ) || TreeNode.keyCount( writer.cursor ) != 0 )
+            {
+                throw new IllegalStateException( "Can only bulk load into an empty tree" );
+            }
+            changesSinceLastCheckpoint = true;
+            BulkLoader<KEY,VALUE> bulkLoader = new SingleBulkLoader( new BottomUpTreeBuilder<>( pagedFile, bTreeNode, layout, freeList,
+                    writer.stableGeneration, writer.unstableGeneration, fillFactor ) );
+            success = true;
+            return bulkLoader;
+        }
+        catch ( Throwable e )
+        {
+            appendTreeInformation( e );
+            throw e;
+        }
+        finally
+        {
+            if ( !success )
+            {
+                writer.close();
+            }
+        }
+    }
+
     private void setRoot( long rootId, long rootGeneration )
     {
         this.root = new Root( rootId, rootGeneration );
@@ -1164,6 +1355,36 @@ public class GBPTree<KEY,VALUE> implements Closeable
         return Exceptions.withMessage( e, e.getMessage() + " | " + toString() );
     }
 
+    /**
+     * Handles structure changes which have propagated all the way up to the root, i.e. a new root
+     * after split of the current root or a successor of the current root.
+     */
+    private void handleStructureChanges( PageCursor cursor, StructurePropagation<KEY> structurePropagation,
+            InternalTreeLogic<KEY,VALUE> treeLogic, long stableGeneration, long unstableGeneration ) throws IOException
+    {
+        if ( structurePropagation.hasRightKeyInsert )
+        {
+            // New root
+            long newRootId = freeList.acquireNewId( stableGeneration, unstableGeneration );
+            PageCursorUtil.goTo( cursor, "new root", newRootId );
+
+            bTreeNode.initializeInternal( cursor, stableGeneration, unstableGeneration );
+            bTreeNode.setChildAt( cursor, structurePropagation.midChild, 0,
+                    stableGeneration, unstableGeneration );
+            bTreeNode.insertKeyAndRightChildAt( cursor, structurePropagation.rightKey, structurePropagation.rightChild, 0, 0,
+                    stableGeneration, unstableGeneration );
+            TreeNode.setKeyCount( cursor, 1 );
+            setRoot( newRootId, unstableGeneration );
+            treeLogic.initialize( cursor );
+        }
+        else if ( structurePropagation.hasMidChildUpdate )
+        {
+            setRoot( GenerationSafePointerPair.pointer( structurePropagation.midChild ), unstableGeneration );
+            treeLogic.initialize( cursor );
+        }
+        structurePropagation.clear();
+    }
+
     private class SingleWriter implements Writer<KEY,VALUE>
     {
         /**
@@ -1260,18 +1481,11 @@ public class GBPTree<KEY,VALUE> implements Closeable
                 throw e;
             }
 
-            handleStructureChanges();
+            handleStructureChanges( cursor, structurePropagation, treeLogic, stableGeneration, unstableGeneration );
 
             checkOutOfBounds( cursor );
         }
 
-        private void setRoot( long rootPointer )
-        {
-            long rootId = GenerationSafePointerPair.pointer( rootPointer );
-            GBPTree.this.setRoot( rootId, unstableGeneration );
-            treeLogic.initialize( cursor );
-        }
-
         @Override
         public VALUE remove( KEY key ) throws IOException
         {
@@ -1287,35 +1501,12 @@ public class GBPTree<KEY,VALUE> implements Closeable
                 throw e;
             }
 
-            handleStructureChanges();
+            handleStructureChanges( cursor, structurePropagation, treeLogic, stableGeneration, unstableGeneration );
 
             checkOutOfBounds( cursor );
             return result;
         }
 
-        private void handleStructureChanges() throws IOException
-        {
-            if ( structurePropagation.hasRightKeyInsert )
-            {
-                // New root
-                long newRootId = freeList.acquireNewId( stableGeneration, unstableGeneration );
-                PageCursorUtil.goTo( cursor, "new root", newRootId );
-
-                bTreeNode.initializeInternal( cursor, stableGeneration, unstableGeneration );
-                bTreeNode.setChildAt( cursor, structurePropagation.midChild, 0,
-                        stableGeneration, unstableGeneration );
-                bTreeNode.insertKeyAndRightChildAt( cursor, structurePropagation.rightKey, structurePropagation.rightChild, 0, 0,
-                        stableGeneration, unstableGeneration );
-                TreeNode.setKeyCount( cursor, 1 );
-                setRoot( newRootId );
-            }
-            else if ( structurePropagation.hasMidChildUpdate )
-            {
-                setRoot( structurePropagation.midChild );
-            }
-            structurePropagation.clear();
-        }
-
         @Override
         public void close()
         {
@@ -1338,6 +1529,313 @@ public class GBPTree<KEY,VALUE> implements Closeable
         }
     }
 
+    private class ParallelWriter implements Writer<KEY,VALUE>
+    {
+        private final TreeNode<KEY,VALUE> treeNode = treeNodeFormat.create( pageSize, layout );
+        private final InternalTreeLogic<KEY,VALUE> treeLogic = new InternalTreeLogic<>( freeList, treeNode, layout );
+        private final StructurePropagation<KEY> structurePropagation =
+                new StructurePropagation<>( layout.newKey(), layout.newKey(), layout.newKey() );
+        private final KEY readKey = layout.newKey();
+        // For finding the leaf, doesn't write lock internal nodes on the way down. Cursors for writing are only
+        // kept for the duration of each change since a pinned write locked page makes readers of it retry.
+        private PageCursor readCursor;
+        private boolean closed = true;
+
+        // Parallel writers can't live past a checkpoint because of the mutex with checkpoint,
+        // therefore safe to locally cache these generation fields from the volatile generation in the tree
+        private long stableGeneration;
+        private long unstableGeneration;
+
+        void initialize() throws IOException
+        {
+            joinParallelWriters();
+            closed = false;
+            boolean success = false;
+            try
+            {
+                readCursor = pagedFile.io( 0L /*Ignored*/, PagedFile.PF_SHARED_READ_LOCK );
+                stableGeneration = stableGeneration( generation );
+                unstableGeneration = unstableGeneration( generation );
+                success = true;
+            }
+            catch ( Throwable e )
+            {
+                appendTreeInformation( e );
+                throw e;
+            }
+            finally
+            {
+                if ( !success )
+                {
+                    close();
+                }
+            }
+        }
+
+        @Override
+        public void put( KEY key, VALUE value ) throws IOException
+        {
+            merge( key, value, ValueMergers.overwrite() );
+        }
+
+        @Override
+        public void merge( KEY key, VALUE value, ValueMerger<KEY,VALUE> valueMerger ) throws IOException
+        {
+            try
+            {
+                InternalTreeLogic.LeafChange change;
+                structureLock.readLock().lock();
+                try
+                {
+                    long leafId = moveToLeaf( key );
+                    leafLatches.acquire( leafId );
+                    try ( PageCursor cursor = pagedFile.io( leafId, PagedFile.PF_SHARED_WRITE_LOCK ) )
+                    {
+                        PageCursorUtil.goTo( cursor, "leaf", leafId );
+                        change = treeLogic.tryInsertInLeaf( cursor, key, value, valueMerger, unstableGeneration );
+                        checkOutOfBounds( cursor );
+                    }
+                    finally
+                    {
+                        leafLatches.release( leafId );
+                    }
+                }
+                finally
+                {
+                    structureLock.readLock().unlock();
+                }
+
+                if ( change == InternalTreeLogic.LeafChange.STRUCTURE_CHANGE_NEEDED )
+                {
+                    structureLock.writeLock().lock();
+                    try ( PageCursor cursor = openRootCursor( PagedFile.PF_SHARED_WRITE_LOCK ) )
+                    {
+                        treeLogic.initialize( cursor );
+                        treeLogic.insert( cursor, structurePropagation, key, value, valueMerger,
+                                stableGeneration, unstableGeneration );
+                        handleStructureChanges( cursor, structurePropagation, treeLogic, stableGeneration, unstableGeneration );
+                        checkOutOfBounds( cursor );
+                    }
+                    finally
+                    {
+                        structureLock.writeLock().unlock();
+                    }
+                }
+            }
+            catch ( Throwable e )
+            {
+                appendTreeInformation( e );
+                throw e;
+            }
+        }
+
+        @Override
+        public VALUE remove( KEY key ) throws IOException
+        {
+            VALUE result = layout.newValue();
+            try
+            {
+                InternalTreeLogic.LeafChange change;
+                structureLock.readLock().lock();
+                try
+                {
+                    long leafId = moveToLeaf( key );
+                    leafLatches.acquire( leafId );
+                    try ( PageCursor cursor = pagedFile.io( leafId, PagedFile.PF_SHARED_WRITE_LOCK ) )
+                    {
+                        PageCursorUtil.goTo( cursor, "leaf", leafId );
+                        change = treeLogic.tryRemoveFromLeaf( cursor, key, result, stableGeneration, unstableGeneration );
+                        checkOutOfBounds( cursor );
+                    }
+                    finally
+                    {
+                        leafLatches.release( leafId );
+                    }
+                }
+                finally
+                {
+                    structureLock.readLock().unlock();
+                }
+
+                switch ( change )
+                {
+                case APPLIED:
+                    return result;
+                case NOT_FOUND:
+                    return null;
+                default:
+                    structureLock.writeLock().lock();
+                    try ( PageCursor cursor = openRootCursor( PagedFile.PF_SHARED_WRITE_LOCK ) )
+                    {
+                        treeLogic.initialize( cursor );
+                        result = treeLogic.remove( cursor, structurePropagation, key, result,
+                                stableGeneration, unstableGeneration );
+                        handleStructureChanges( cursor, structurePropagation, treeLogic, stableGeneration, unstableGeneration );
+                        checkOutOfBounds( cursor );
+                        return result;
+                    }
+                    finally
+                    {
+                        structureLock.writeLock().unlock();
+                    }
+                }
+            }
+            catch ( Throwable e )
+            {
+                appendTreeInformation( e );
+                throw e;
+            }
+        }
+
+        /**
+         * Finds the leaf covering {@code key}, starting from the root. Must be called while holding
+         * {@link #structureLock} in shared mode, so that internal nodes don't change on the way down.
+         * Reading may still have to be retried if the page cache moves pages around.
+         *
+         * @return id of the leaf covering {@code key}.
+         */
+        private long moveToLeaf( KEY key ) throws IOException
+        {
+            root.goTo( readCursor );
+            while ( true )
+            {
+                boolean isInternal;
+                long childId = TreeNode.NO_NODE_FLAG;
+                do
+                {
+                    isInternal = TreeNode.isInternal( readCursor );
+                    if ( isInternal )
+                    {
+                        int keyCount = TreeNode.keyCount( readCursor );
+                        int searchResult = KeySearch.search( readCursor, treeNode, TreeNode.Type.INTERNAL, key, readKey, keyCount );
+                        int childPos = positionOf( searchResult );
+                        if ( isHit( searchResult ) )
+                        {
+                            childPos++;
+                        }
+                        childId = treeNode.childAt( readCursor, childPos, stableGeneration, unstableGeneration );
+                    }
+                }
+                while ( readCursor.shouldRetry() );
+                checkOutOfBounds( readCursor );
+
+                if ( !isInternal )
+                {
+                    return readCursor.getCurrentPageId();
+                }
+                PointerChecking.checkPointer( childId, false );
+                TreeNode.goTo( readCursor, "child", childId );
+            }
+        }
+
+        @Override
+        public void close()
+        {
+            if ( closed )
+            {
+                throw new IllegalStateException( "Tried to close parallel writer of " + GBPTree.this +
+                        ", but writer is already closed." );
+            }
+            closed = true;
+            if ( readCursor != null )
+            {
+                readCursor.close();
+                readCursor = null;
+            }
+            leaveParallelWriters();
+            idleParallelWriters.offer( this );
+        }
+    }
+
+    private class SingleBulkLoader implements BulkLoader<KEY,VALUE>
+    {
+        private final BottomUpTreeBuilder<KEY,VALUE> builder;
+        private boolean failed;
+        private boolean closed;
+
+        SingleBulkLoader( BottomUpTreeBuilder<KEY,VALUE> builder )
+        {
+            this.builder = builder;
+        }
+
+        @Override
+        public void add( KEY key, VALUE value ) throws IOException
+        {
+            if ( closed )
+            {
+                throw new IllegalStateException( "Bulk loader of " + GBPTree.this + " has already been closed" );
+            }
+            boolean success = false;
+            try
+            {
+                builder.add( key, value );
+                success = true;
+            }
+            catch ( Throwable e )
+            {
+                appendTreeInformation( e );
+                throw e;
+            }
+            finally
+            {
+                if ( !success )
+                {
+                    // Don't publish a partially loaded tree, it will be discarded when this loader is closed
+                    failed = true;
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            if ( closed )
+            {
+                return;
+            }
+            closed = true;
+
+            boolean published = false;
+            try
+            {
+                if ( !failed )
+                {
+                    long newRootId = builder.finish();
+                    if ( newRootId != TreeNode.NO_NODE_FLAG )
+                    {
+                        long oldRootId = root.id();
+                        GBPTree.this.setRoot( newRootId, writer.unstableGeneration );
+                        published = true;
+                        freeList.releaseId( writer.stableGeneration, writer.unstableGeneration, oldRootId );
+                    }
+                }
+            }
+            catch ( Throwable e )
+            {
+                appendTreeInformation( e );
+                throw e;
+            }
+            finally
+            {
+                try
+                {
+                    if ( published )
+                    {
+                        builder.close();
+                    }
+                    else
+                    {
+                        builder.releaseCreatedNodes();
+                    }
+                }
+                finally
+                {
+                    writer.close();
+                }
+            }
+        }
+    }
+
     public boolean wasDirtyOnStartup()
     {
         return dirtyOnStartup;
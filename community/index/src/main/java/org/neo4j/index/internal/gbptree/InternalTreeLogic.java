@@ -103,6 +103,21 @@ import static org.neo4j.index.internal.gbptree.TreeNode.Type.LEAF;
  */
 class InternalTreeLogic<KEY,VALUE>
 {
+    /**
+     * Outcome of a change which is tried to be made within a single leaf, see
+     * {@link #tryInsertInLeaf(PageCursor, Object, Object, ValueMerger, long)} and
+     * {@link #tryRemoveFromLeaf(PageCursor, Object, Object, long, long)}.
+     */
+    enum LeafChange
+    {
+        /** The change was made in the leaf. */
+        APPLIED,
+        /** The key to remove doesn't exist, nothing was changed. */
+        NOT_FOUND,
+        /** The change requires structural changes in the tree, nothing was changed. */
+        STRUCTURE_CHANGE_NEEDED
+    }
+
     private final IdProvider idProvider;
     private final TreeNode<KEY,VALUE> bTreeNode;
     private final Layout<KEY,VALUE> layout;
@@ -674,6 +689,7 @@ class InternalTreeLogic<KEY,VALUE>
 
             // Do split
             bTreeNode.doSplitLeaf( cursor, keyCount, rightCursor, pos, newKey, newValue, structurePropagation.rightKey );
+            truncateSeparator( cursor, structurePropagation.rightKey );
         }
 
         // Update old right with new left sibling (newRight)
@@ -735,6 +751,104 @@ class InternalTreeLogic<KEY,VALUE>
         return into;
     }
 
+    /**
+     * Tries to insert {@code key} and associate it with {@code value} in the leaf which {@code cursor} is pinned to,
+     * without causing any structural change in the tree. Used by writers which have found the correct leaf
+     * on their own and have exclusive access to it while the structure of the tree is known to not change,
+     * see {@link GBPTree#parallelWriter()}.
+     * <p>
+     * If the leaf is of an older generation than {@code unstableGeneration}, or if the change would make it overflow,
+     * the leaf is left untouched and {@link LeafChange#STRUCTURE_CHANGE_NEEDED} is returned. The change then needs
+     * to be made using {@link #insert(PageCursor, StructurePropagation, Object, Object, ValueMerger, long, long)}.
+     *
+     * @param cursor {@link PageCursor} pinned to the leaf which covers {@code key}.
+     * @param key key to be inserted
+     * @param value value to be associated with key
+     * @param valueMerger {@link ValueMerger} for deciding what to do with existing keys
+     * @param unstableGeneration unstable generation, i.e. generation which is under development right now.
+     * @return {@link LeafChange#APPLIED} if the change was made, otherwise {@link LeafChange#STRUCTURE_CHANGE_NEEDED}.
+     */
+    LeafChange tryInsertInLeaf( PageCursor cursor, KEY key, VALUE value, ValueMerger<KEY,VALUE> valueMerger,
+            long unstableGeneration )
+    {
+        bTreeNode.validateKeyValueSize( key, value );
+        if ( TreeNode.generation( cursor ) != unstableGeneration )
+        {
+            return LeafChange.STRUCTURE_CHANGE_NEEDED;
+        }
+
+        int keyCount = TreeNode.keyCount( cursor );
+        int search = search( cursor, LEAF, key, readKey, keyCount );
+        int pos = positionOf( search );
+        if ( isHit( search ) )
+        {
+            bTreeNode.valueAt( cursor, readValue, pos );
+            VALUE mergedValue = valueMerger.merge( readKey, key, readValue, value );
+            if ( mergedValue != null && !bTreeNode.setValueAt( cursor, mergedValue, pos ) )
+            {
+                // Merged value differs in size and would have to be removed and inserted again
+                return LeafChange.STRUCTURE_CHANGE_NEEDED;
+            }
+            return LeafChange.APPLIED;
+        }
+
+        Overflow overflow = bTreeNode.leafOverflow( cursor, keyCount, key, value );
+        if ( overflow == YES )
+        {
+            return LeafChange.STRUCTURE_CHANGE_NEEDED;
+        }
+        if ( overflow == NO_NEED_DEFRAG )
+        {
+            bTreeNode.defragmentLeaf( cursor );
+        }
+        bTreeNode.insertKeyValueAt( cursor, key, value, pos, keyCount );
+        TreeNode.setKeyCount( cursor, keyCount + 1 );
+        return LeafChange.APPLIED;
+    }
+
+    /**
+     * Tries to remove {@code key} from the leaf which {@code cursor} is pinned to, without causing any structural
+     * change in the tree. Same preconditions as for {@link #tryInsertInLeaf(PageCursor, Object, Object, ValueMerger, long)}.
+     * <p>
+     * If the leaf is of an older generation than {@code unstableGeneration}, or if the removal would make it underflow
+     * while having siblings to rebalance or merge with, the leaf is left untouched and
+     * {@link LeafChange#STRUCTURE_CHANGE_NEEDED} is returned. The change then needs to be made using
+     * {@link #remove(PageCursor, StructurePropagation, Object, Object, long, long)}.
+     *
+     * @param cursor {@link PageCursor} pinned to the leaf which covers {@code key}.
+     * @param key key to be removed
+     * @param into {@code VALUE} instance to write removed value to
+     * @param stableGeneration stable generation, i.e. generations <= this generation are considered stable.
+     * @param unstableGeneration unstable generation, i.e. generation which is under development right now.
+     * @return {@link LeafChange#APPLIED} if {@code key} was removed, {@link LeafChange#NOT_FOUND} if {@code key}
+     * doesn't exist, otherwise {@link LeafChange#STRUCTURE_CHANGE_NEEDED}.
+     */
+    LeafChange tryRemoveFromLeaf( PageCursor cursor, KEY key, VALUE into, long stableGeneration, long unstableGeneration )
+    {
+        int keyCount = TreeNode.keyCount( cursor );
+        int search = search( cursor, LEAF, key, readKey, keyCount );
+        if ( !isHit( search ) )
+        {
+            return LeafChange.NOT_FOUND;
+        }
+
+        int pos = positionOf( search );
+        if ( TreeNode.generation( cursor ) != unstableGeneration ||
+                (bTreeNode.leafUnderflowAfterRemove( cursor, keyCount, pos ) && hasSiblings( cursor, stableGeneration, unstableGeneration )) )
+        {
+            return LeafChange.STRUCTURE_CHANGE_NEEDED;
+        }
+
+        simplyRemoveFromLeaf( cursor, into, keyCount, pos );
+        return LeafChange.APPLIED;
+    }
+
+    private static boolean hasSiblings( PageCursor cursor, long stableGeneration, long unstableGeneration )
+    {
+        return TreeNode.isNode( TreeNode.leftSibling( cursor, stableGeneration, unstableGeneration ) ) ||
+                TreeNode.isNode( TreeNode.rightSibling( cursor, stableGeneration, unstableGeneration ) );
+    }
+
     private void handleStructureChanges( PageCursor cursor, StructurePropagation<KEY> structurePropagation,
             long stableGeneration, long unstableGeneration ) throws IOException
     {
@@ -1202,6 +1316,25 @@ class InternalTreeLogic<KEY,VALUE>
         structurePropagation.hasLeftKeyReplace = true;
         structurePropagation.keyReplaceStrategy = REPLACE;
         bTreeNode.keyAt( rightCursor, structurePropagation.leftKey, 0, LEAF );
+        truncateSeparator( leftCursor, structurePropagation.leftKey );
+    }
+
+    /**
+     * Replaces {@code separator}, which is the lowest key in a right leaf, with the key that {@link Layout#minimalSplitter(Object, Object, Object)}
+     * selects as separator between the highest key in the left leaf and that lowest key in the right leaf.
+     *
+     * @param leftCursor cursor pinned to the left leaf.
+     * @param separator lowest key in the right leaf, will be overwritten with the separator to use.
+     */
+    private void truncateSeparator( PageCursor leftCursor, KEY separator )
+    {
+        int leftKeyCount = TreeNode.keyCount( leftCursor );
+        if ( leftKeyCount > 0 )
+        {
+            bTreeNode.keyAt( leftCursor, readKey, leftKeyCount - 1, LEAF );
+            layout.minimalSplitter( readKey, separator, newKeyPlaceHolder );
+            layout.copyKey( newKeyPlaceHolder, separator );
+        }
     }
 
     /**
@@ -168,6 +168,78 @@ public interface Layout<KEY, VALUE> extends Comparator<KEY>
     {   // no meta-data by default
     }
 
+    /**
+     * Creates the key to use as separator between two adjacent leaves, i.e. a key which is greater than {@code left}
+     * and less than or equal to {@code right}. The separator is stored in internal tree nodes, so layouts can pick
+     * a separator which is shorter than {@code right} to get better fan-out in the levels above the leaves.
+     * By default the separator is a copy of {@code right}.
+     *
+     * @param left highest key in the left leaf.
+     * @param right lowest key in the right leaf.
+     * @param into key (changed as part of this call) to write the separator into.
+     * @return the provided {@code into} instance for convenience.
+     */
+    default KEY minimalSplitter( KEY left, KEY right, KEY into )
+    {
+        return copyKey( right, into );
+    }
+
+    /**
+     * Layouts with keys that can be represented as byte sequences ordered the same way as the keys themselves,
+     * e.g. compared byte-by-byte, can opt into having tree nodes store the prefix common to the keys in a node only once.
+     * Such layouts must implement {@link #prefixCompressibleLength(Object)}, {@link #writeKeySuffix(PageCursor, Object, int)}
+     * and {@link #readKeyWithPrefix(PageCursor, Object, int, int, int)}, which all operate on that byte sequence.
+     * The byte sequence of a key is {@link #keySize(Object)} bytes long, but need not look like what {@link #writeKey(PageCursor, Object)}
+     * writes, trees created before a layout opted into prefix compression will keep using {@link #writeKey(PageCursor, Object)}.
+     * <p>
+     * This only decides the format of new trees, existing trees keep the format they were created with. A layout which
+     * may opt out again must therefore keep implementing the methods above. Prefix compressed tree nodes have a larger
+     * header and store an extra byte per key, which lowers the {@link GBPTree#keyValueSizeCap() key value size cap}.
+     *
+     * @return whether or not new trees with this layout are created with prefix compressed keys.
+     */
+    default boolean prefixCompressible()
+    {
+        return false;
+    }
+
+    /**
+     * @param key key to get the number of prefix compressible bytes for.
+     * @return number of leading bytes in the byte sequence of {@code key} which can be shared with other keys,
+     * i.e. those of them for which the order of keys is decided purely by comparing bytes.
+     */
+    default int prefixCompressibleLength( KEY key )
+    {
+        return 0;
+    }
+
+    /**
+     * Writes the byte sequence of {@code key}, except its first {@code prefixLength} bytes, into {@code cursor} at its current offset.
+     *
+     * @param cursor {@link PageCursor} to write into, at current offset.
+     * @param key key containing data to write.
+     * @param prefixLength number of leading bytes to skip, at most {@link #prefixCompressibleLength(Object)}.
+     */
+    default void writeKeySuffix( PageCursor cursor, KEY key, int prefixLength )
+    {
+        throw new UnsupportedOperationException( this + " isn't prefix compressible" );
+    }
+
+    /**
+     * Reads a key from a byte sequence which is split in two parts: a prefix at {@code prefixOffset} and a suffix at
+     * the current offset of {@code cursor}. The cursor is left at the end of the suffix.
+     *
+     * @param cursor {@link PageCursor} to read from, with current offset at the suffix.
+     * @param into key instances to read into.
+     * @param prefixOffset offset in {@code cursor} where the prefix can be read.
+     * @param prefixLength number of bytes in the prefix.
+     * @param suffixSize number of bytes in the suffix.
+     */
+    default void readKeyWithPrefix( PageCursor cursor, KEY into, int prefixOffset, int prefixLength, int suffixSize )
+    {
+        throw new UnsupportedOperationException( this + " isn't prefix compressible" );
+    }
+
     /**
      * Utility method for generating an {@link #identifier()}. Generates an 8-byte identifier from a short name
      * plus a 4-byte identifier.
@@ -184,8 +184,7 @@ class Meta
         }
 
         Factory formatByLayout = TreeNodeSelector.selectByLayout( layout );
-        if ( formatByLayout.formatIdentifier() != formatIdentifier ||
-             formatByLayout.formatVersion() != formatVersion )
+        if ( !TreeNodeSelector.canOpenWith( layout, formatIdentifier, formatVersion ) )
         {
             throw new MetadataMismatchException( "Tried to open using layout not compatible with what index was created with. " +
                     "Created with formatIdentifier:%d,formatVersion:%d. Opened with formatIdentifier:%d,formatVersion%d",
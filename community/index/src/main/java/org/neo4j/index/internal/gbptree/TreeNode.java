@@ -338,6 +338,33 @@ abstract class TreeNode<KEY,VALUE>
      */
     abstract Overflow leafOverflow( PageCursor cursor, int currentKeyCount, KEY newKey, VALUE newValue );
 
+    /* BULK LOADING */
+
+    /**
+     * @return number of bytes available for key-value entries in an empty leaf.
+     */
+    abstract int leafSpace();
+
+    /**
+     * @param cursor {@link PageCursor} pinned to the leaf the entry is to be inserted into.
+     * @param keyCount number of keys in the leaf before inserting the entry.
+     * @return number of bytes the given key-value entry occupies in a leaf, including per-entry overhead.
+     */
+    abstract int leafEntrySpace( PageCursor cursor, int keyCount, KEY key, VALUE value );
+
+    /**
+     * @return number of bytes available for keys and their right children in an empty internal node,
+     * i.e. not counting the left-most child.
+     */
+    abstract int internalSpace();
+
+    /**
+     * @param cursor {@link PageCursor} pinned to the internal node the key is to be inserted into.
+     * @param keyCount number of keys in the internal node before inserting the key.
+     * @return number of bytes the given key and its right child occupies in an internal node, including per-entry overhead.
+     */
+    abstract int internalEntrySpace( PageCursor cursor, int keyCount, KEY key );
+
     /**
      * Clean page with leaf node from garbage to make room for further insert without having to split.
      */
@@ -350,6 +377,17 @@ abstract class TreeNode<KEY,VALUE>
 
     abstract boolean leafUnderflow( PageCursor cursor, int keyCount );
 
+    /**
+     * Whether or not removing the key/value at {@code pos} would make the leaf {@link #leafUnderflow(PageCursor, int) underflow}.
+     * Unlike {@link #leafUnderflow(PageCursor, int)} this is asked before the removal, leaving the leaf untouched.
+     *
+     * @param cursor {@link PageCursor} pinned to leaf.
+     * @param keyCount key count of leaf before removal.
+     * @param pos position of key/value to be removed.
+     * @return {@code true} if leaf would underflow after removing the key/value at {@code pos}.
+     */
+    abstract boolean leafUnderflowAfterRemove( PageCursor cursor, int keyCount, int pos );
+
     /**
      * How do we best rebalance left and right leaf?
      * Can we move keys from underflowing left to right so that none of them underflow?
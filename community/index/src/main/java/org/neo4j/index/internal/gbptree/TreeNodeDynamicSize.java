@@ -103,7 +103,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
      */
     private static final int BYTE_POS_ALLOCOFFSET = BASE_HEADER_LENGTH;
     private static final int BYTE_POS_DEADSPACE = BYTE_POS_ALLOCOFFSET + bytesPageOffset();
-    private static final int HEADER_LENGTH_DYNAMIC = BYTE_POS_DEADSPACE + bytesPageOffset();
+    static final int HEADER_LENGTH_DYNAMIC = BYTE_POS_DEADSPACE + bytesPageOffset();
 
     private static final int LEAST_NUMBER_OF_ENTRIES_PER_PAGE = 2;
     private static final int MINIMUM_ENTRY_SIZE_CAP = Long.SIZE;
@@ -113,15 +113,25 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
     private final int maxKeyCount = pageSize / (bytesKeyOffset() + SIZE_KEY_SIZE + SIZE_VALUE_SIZE);
     private final int[] oldOffset = new int[maxKeyCount];
     private final int[] newOffset = new int[maxKeyCount];
+    private final int headerLength;
     private final int totalSpace;
     private final int halfSpace;
 
     TreeNodeDynamicSize( int pageSize, Layout<KEY,VALUE> layout )
+    {
+        this( pageSize, layout, HEADER_LENGTH_DYNAMIC );
+    }
+
+    /**
+     * @param headerLength length of the header, for formats which extends this format with additional header fields.
+     */
+    TreeNodeDynamicSize( int pageSize, Layout<KEY,VALUE> layout, int headerLength )
     {
         super( pageSize, layout );
-        totalSpace = pageSize - HEADER_LENGTH_DYNAMIC;
+        this.headerLength = headerLength;
+        totalSpace = pageSize - headerLength;
         halfSpace = totalSpace / 2;
-        keyValueSizeCap = keyValueSizeCapFromPageSize( pageSize );
+        keyValueSizeCap = keyValueSizeCapFromPageSize( pageSize, headerLength );
 
         if ( keyValueSizeCap < MINIMUM_ENTRY_SIZE_CAP )
         {
@@ -135,7 +145,12 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
     @VisibleForTesting
     public static int keyValueSizeCapFromPageSize( int pageSize )
     {
-        return (pageSize - HEADER_LENGTH_DYNAMIC) / LEAST_NUMBER_OF_ENTRIES_PER_PAGE - SIZE_TOTAL_OVERHEAD;
+        return keyValueSizeCapFromPageSize( pageSize, HEADER_LENGTH_DYNAMIC );
+    }
+
+    static int keyValueSizeCapFromPageSize( int pageSize, int headerLength )
+    {
+        return (pageSize - headerLength) / LEAST_NUMBER_OF_ENTRIES_PER_PAGE - SIZE_TOTAL_OVERHEAD;
     }
 
     @Override
@@ -159,7 +174,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
             readUnreliableKeyValueSize( cursor, keySize, valueSize, keyValueSize, pos );
             return into;
         }
-        layout.readKey( cursor, into, keySize );
+        readKeyInNode( cursor, into, keySize );
         return into;
     }
 
@@ -176,7 +191,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
             readUnreliableKeyValueSize( cursor, keySize, valueSize, keyValueSize, pos );
             return;
         }
-        layout.readKey( cursor, intoKey, keySize );
+        readKeyInNode( cursor, intoKey, keySize );
         layout.readValue( cursor, intoValue, valueSize );
     }
 
@@ -186,13 +201,13 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
     {
         // Where to write key?
         int currentKeyOffset = getAllocOffset( cursor );
-        int keySize = layout.keySize( key );
+        int keySize = keySizeInNode( cursor, keyCount, key );
         int newKeyOffset = currentKeyOffset - keySize - getOverhead( keySize, 0 );
 
         // Write key
         cursor.setOffset( newKeyOffset );
         putKeySize( cursor, keySize );
-        layout.writeKey( cursor, key );
+        writeKeyInNode( cursor, keyCount, key );
 
         // Update alloc space
         setAllocOffset( cursor, newKeyOffset );
@@ -209,14 +224,14 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
     {
         // Where to write key?
         int currentKeyValueOffset = getAllocOffset( cursor );
-        int keySize = layout.keySize( key );
+        int keySize = keySizeInNode( cursor, keyCount, key );
         int valueSize = layout.valueSize( value );
         int newKeyValueOffset = currentKeyValueOffset - keySize - valueSize - getOverhead( keySize, valueSize );
 
         // Write key and value
         cursor.setOffset( newKeyValueOffset );
         putKeyValueSize( cursor, keySize, valueSize );
-        layout.writeKey( cursor, key );
+        writeKeyInNode( cursor, keyCount, key );
         layout.writeValue( cursor, value );
 
         // Update alloc space
@@ -296,6 +311,8 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
     @Override
     boolean setKeyAtInternal( PageCursor cursor, KEY key, int pos )
     {
+        int keyCount = keyCount( cursor );
+        int newKeySize = keySizeInNode( cursor, keyCount, key );
         placeCursorAtActualKey( cursor, pos, INTERNAL );
 
         long keyValueSize = readKeyValueSize( cursor );
@@ -305,11 +322,10 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         {
             readUnreliableKeyValueSize( cursor, oldKeySize, oldValueSize, keyValueSize, pos );
         }
-        int newKeySize = layout.keySize( key );
         if ( newKeySize == oldKeySize )
         {
             // Fine, we can just overwrite
-            layout.writeKey( cursor, key );
+            writeKeyInNode( cursor, keyCount, key );
             return true;
         }
         return false;
@@ -353,11 +369,56 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         return false;
     }
 
-    private void progressCursor( PageCursor cursor, int delta )
+    void progressCursor( PageCursor cursor, int delta )
     {
         cursor.setOffset( cursor.getOffset() + delta );
     }
 
+    /**
+     * @param cursor {@link PageCursor} pinned to the node the key is to be written into.
+     * @param keyCount number of keys in the node before writing the key.
+     * @param key the key.
+     * @return number of bytes the given key will occupy in the node, not including key/value size header.
+     */
+    int keySizeInNode( PageCursor cursor, int keyCount, KEY key )
+    {
+        return layout.keySize( key );
+    }
+
+    /**
+     * Writes the given key at the current offset of {@code cursor}. Exactly {@link #keySizeInNode(PageCursor, int, Object)} bytes
+     * will be written.
+     *
+     * @param cursor {@link PageCursor} pinned to the node, at the offset to write the key at.
+     * @param keyCount number of keys in the node before writing the key.
+     * @param key the key.
+     */
+    void writeKeyInNode( PageCursor cursor, int keyCount, KEY key )
+    {
+        layout.writeKey( cursor, key );
+    }
+
+    /**
+     * Reads the key at the current offset of {@code cursor}.
+     *
+     * @param cursor {@link PageCursor} pinned to the node, at the offset to read the key from.
+     * @param into key instance to read into.
+     * @param keySize number of bytes the key occupies in the node.
+     */
+    void readKeyInNode( PageCursor cursor, KEY into, int keySize )
+    {
+        layout.readKey( cursor, into, keySize );
+    }
+
+    /**
+     * @return number of bytes the key-value at {@code fromPos} in the left leaf will occupy if moved to the right leaf, including
+     * per-entry overhead.
+     */
+    int totalSpaceOfMovedKeyValue( PageCursor fromCursor, int fromPos, PageCursor toCursor, int toKeyCount )
+    {
+        return totalSpaceOfKeyValue( fromCursor, fromPos );
+    }
+
     @Override
     long childAt( PageCursor cursor, int pos, long stableGeneration, long unstableGeneration )
     {
@@ -383,7 +444,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
     {
         int keySize = layout.keySize( key );
         int valueSize = layout.valueSize( value );
-        if ( keyValueSizeTooLarge( keySize, valueSize ) )
+        if ( keySize + valueSize > keyValueSizeCap() )
         {
             throw new IllegalArgumentException( "Index key-value size it to large. Please see index documentation for limitations." );
         }
@@ -416,7 +477,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         int deadSpace = getDeadSpace( cursor );
 
         // How much space do we need?
-        int neededSpace = totalSpaceOfKeyChild( newKey );
+        int neededSpace = totalSpaceOfKeyChild( cursor, currentKeyCount, newKey );
 
         // There is your answer!
         return neededSpace < allocSpace ? Overflow.NO :
@@ -431,13 +492,39 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         int allocSpace = getAllocSpace( cursor, currentKeyCount, LEAF );
 
         // How much space do we need?
-        int neededSpace = totalSpaceOfKeyValue( newKey, newValue );
+        int neededSpace = totalSpaceOfKeyValue( cursor, currentKeyCount, newKey, newValue );
 
         // There is your answer!
         return neededSpace < allocSpace ? Overflow.NO :
                neededSpace < allocSpace + deadSpace ? Overflow.NO_NEED_DEFRAG : Overflow.YES;
     }
 
+    // Overflow checks require needed space to be strictly less than alloc space, hence the - 1 in leafSpace and internalSpace
+
+    @Override
+    int leafSpace()
+    {
+        return totalSpace - 1;
+    }
+
+    @Override
+    int leafEntrySpace( PageCursor cursor, int keyCount, KEY key, VALUE value )
+    {
+        return totalSpaceOfKeyValue( cursor, keyCount, key, value );
+    }
+
+    @Override
+    int internalSpace()
+    {
+        return totalSpace - childSize() - 1;
+    }
+
+    @Override
+    int internalEntrySpace( PageCursor cursor, int keyCount, KEY key )
+    {
+        return totalSpaceOfKeyChild( cursor, keyCount, key );
+    }
+
     @Override
     void defragmentLeaf( PageCursor cursor )
     {
@@ -600,16 +687,26 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
     }
 
     @Override
-    int canRebalanceLeaves( PageCursor leftCursor, int leftKeyCount, PageCursor rightCursor, int rightKeyCount )
+    boolean leafUnderflowAfterRemove( PageCursor cursor, int keyCount, int pos )
     {
-        int leftActiveSpace = totalActiveSpace( leftCursor, leftKeyCount );
-        int rightActiveSpace = totalActiveSpace( rightCursor, rightKeyCount );
+        // Removal tombstones the key/value, adding it to dead space, and removes its slot from the offset array
+        int removedSpace = totalSpaceOfKeyValue( cursor, pos ) - bytesKeyOffset();
+        int availableSpace = getAllocSpace( cursor, keyCount - 1, LEAF ) + getDeadSpace( cursor ) + removedSpace;
 
-        if ( leftActiveSpace + rightActiveSpace < totalSpace )
+        return availableSpace > halfSpace;
+    }
+
+    @Override
+    int canRebalanceLeaves( PageCursor leftCursor, int leftKeyCount, PageCursor rightCursor, int rightKeyCount )
+    {
+        if ( canMergeLeaves( leftCursor, leftKeyCount, rightCursor, rightKeyCount ) )
         {
             // We can merge
             return -1;
         }
+
+        int leftActiveSpace = totalActiveSpace( leftCursor, leftKeyCount );
+        int rightActiveSpace = totalActiveSpace( rightCursor, rightKeyCount );
         if ( leftActiveSpace < rightActiveSpace )
         {
             // Moving keys to the right will only create more imbalance
@@ -619,21 +716,24 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         int prevDelta;
         int currentDelta = Math.abs( leftActiveSpace - rightActiveSpace );
         int keysToMove = 0;
-        int lastChunkSize;
+        int lastLeftChunkSize;
+        int lastRightChunkSize;
         do
         {
             keysToMove++;
-            lastChunkSize = totalSpaceOfKeyValue( leftCursor, leftKeyCount - keysToMove );
-            leftActiveSpace -= lastChunkSize;
-            rightActiveSpace += lastChunkSize;
+            int pos = leftKeyCount - keysToMove;
+            lastLeftChunkSize = totalSpaceOfKeyValue( leftCursor, pos );
+            lastRightChunkSize = totalSpaceOfMovedKeyValue( leftCursor, pos, rightCursor, rightKeyCount );
+            leftActiveSpace -= lastLeftChunkSize;
+            rightActiveSpace += lastRightChunkSize;
 
             prevDelta = currentDelta;
             currentDelta = Math.abs( leftActiveSpace - rightActiveSpace );
         }
         while ( currentDelta < prevDelta );
         keysToMove--; // Move back to optimal split
-        leftActiveSpace += lastChunkSize;
-        rightActiveSpace -= lastChunkSize;
+        leftActiveSpace += lastLeftChunkSize;
+        rightActiveSpace -= lastRightChunkSize;
 
         int halfSpace = this.halfSpace;
         boolean canRebalance = leftActiveSpace > halfSpace && rightActiveSpace > halfSpace;
@@ -645,7 +745,6 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
     {
         int leftActiveSpace = totalActiveSpace( leftCursor, leftKeyCount );
         int rightActiveSpace = totalActiveSpace( rightCursor, rightKeyCount );
-        int totalSpace = this.totalSpace;
         return totalSpace >= leftActiveSpace + rightActiveSpace;
     }
 
@@ -885,7 +984,12 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         return newRightAllocSpace;
     }
 
-    private int getAllocSpace( PageCursor cursor, int keyCount, Type type )
+    int totalSpace()
+    {
+        return totalSpace;
+    }
+
+    int getAllocSpace( PageCursor cursor, int keyCount, Type type )
     {
         int allocOffset = getAllocOffset( cursor );
         int endOfOffsetArray = type == LEAF ? keyPosOffsetLeaf( keyCount ) : keyPosOffsetInternal( keyCount );
@@ -976,7 +1080,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         zeroPad( fromCursor, childFromOffset, lengthInBytes );
     }
 
-    private void zeroPad( PageCursor fromCursor, int fromOffset, int lengthInBytes )
+    void zeroPad( PageCursor fromCursor, int fromOffset, int lengthInBytes )
     {
         fromCursor.setOffset( fromOffset );
         fromCursor.putBytes( lengthInBytes, (byte) 0 );
@@ -1016,7 +1120,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
             int space;
             if ( currentPos == insertPos & !includedNew )
             {
-                space = totalSpaceOfKeyChild( newKey );
+                space = totalSpaceOfKeyChild( cursor, keyCountAfterInsert - 1, newKey );
                 includedNew = true;
                 currentPos--;
             }
@@ -1058,7 +1162,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         int accumulatedSpace = 0;
         int currentDelta = halfSpace;
         int prevDelta;
-        int spaceOfNewKey = totalSpaceOfKeyValue( newKey, newValue );
+        int spaceOfNewKey = totalSpaceOfKeyValue( cursor, keyCountAfterInsert - 1, newKey, newValue );
         int totalSpaceIncludingNewKey = totalActiveSpace( cursor, keyCountAfterInsert - 1 ) + spaceOfNewKey;
         boolean includedNew = false;
         boolean prevPosPossible;
@@ -1101,27 +1205,27 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         return middle;
     }
 
-    private int totalActiveSpace( PageCursor cursor, int keyCount )
+    int totalActiveSpace( PageCursor cursor, int keyCount )
     {
         int deadSpace = getDeadSpace( cursor );
         int allocSpace = getAllocSpace( cursor, keyCount, LEAF );
         return totalSpace - deadSpace - allocSpace;
     }
 
-    private int totalSpaceOfKeyValue( KEY key, VALUE value )
+    int totalSpaceOfKeyValue( PageCursor cursor, int keyCount, KEY key, VALUE value )
     {
-        int keySize = layout.keySize( key );
+        int keySize = keySizeInNode( cursor, keyCount, key );
         int valueSize = layout.valueSize( value );
         return bytesKeyOffset() + getOverhead( keySize, valueSize ) + keySize + valueSize;
     }
 
-    private int totalSpaceOfKeyChild( KEY key )
+    private int totalSpaceOfKeyChild( PageCursor cursor, int keyCount, KEY key )
     {
-        int keySize = layout.keySize( key );
+        int keySize = keySizeInNode( cursor, keyCount, key );
         return bytesKeyOffset() + getOverhead( keySize, 0 ) + childSize() + keySize;
     }
 
-    private int totalSpaceOfKeyValue( PageCursor cursor, int pos )
+    int totalSpaceOfKeyValue( PageCursor cursor, int pos )
     {
         placeCursorAtActualKey( cursor, pos, LEAF );
         long keyValueSize = readKeyValueSize( cursor );
@@ -1137,7 +1241,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         return bytesKeyOffset() + getOverhead( keySize, 0 ) + childSize() + keySize;
     }
 
-    private void setAllocOffset( PageCursor cursor, int allocOffset )
+    void setAllocOffset( PageCursor cursor, int allocOffset )
     {
         PageCursorUtil.putUnsignedShort( cursor, BYTE_POS_ALLOCOFFSET, allocOffset );
     }
@@ -1147,17 +1251,17 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         return PageCursorUtil.getUnsignedShort( cursor, BYTE_POS_ALLOCOFFSET );
     }
 
-    private void setDeadSpace( PageCursor cursor, int deadSpace )
+    void setDeadSpace( PageCursor cursor, int deadSpace )
     {
         putUnsignedShort( cursor, BYTE_POS_DEADSPACE, deadSpace );
     }
 
-    private int getDeadSpace( PageCursor cursor )
+    int getDeadSpace( PageCursor cursor )
     {
         return PageCursorUtil.getUnsignedShort( cursor, BYTE_POS_DEADSPACE );
     }
 
-    private void placeCursorAtActualKey( PageCursor cursor, int pos, Type type )
+    void placeCursorAtActualKey( PageCursor cursor, int pos, Type type )
     {
         // Set cursor to correct place in offset array
         int keyPosOffset = keyPosOffset( pos, type );
@@ -1167,10 +1271,10 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         int keyOffset = readKeyOffset( cursor );
 
         // Verify offset is reasonable
-        if ( keyOffset >= pageSize || keyOffset < HEADER_LENGTH_DYNAMIC )
+        if ( keyOffset >= pageSize || keyOffset < headerLength )
         {
             cursor.setCursorException( format( "Tried to read key on offset=%d, headerLength=%d, pageSize=%d, pos=%d",
-                    keyOffset, HEADER_LENGTH_DYNAMIC, pageSize, pos ) );
+                    keyOffset, headerLength, pageSize, pos ) );
             return;
         }
 
@@ -1178,7 +1282,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         cursor.setOffset( keyOffset );
     }
 
-    private void readUnreliableKeyValueSize( PageCursor cursor, int keySize, int valueSize, long keyValueSize, int pos )
+    void readUnreliableKeyValueSize( PageCursor cursor, int keySize, int valueSize, long keyValueSize, int pos )
     {
         cursor.setCursorException( format( "Read unreliable key, keySize=%d, valueSize=%d, keyValueSizeCap=%d, keyHasTombstone=%b, pos=%d",
                 keySize, valueSize, keyValueSizeCap(), extractTombstone( keyValueSize ), pos ) );
@@ -1186,10 +1290,10 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
 
     private boolean keyValueSizeTooLarge( int keySize, int valueSize )
     {
-        return keySize + valueSize > keyValueSizeCap();
+        return keySize + valueSize > keyValueSizeCap;
     }
 
-    private int keyPosOffset( int pos, Type type )
+    int keyPosOffset( int pos, Type type )
     {
         if ( type == LEAF )
         {
@@ -1201,15 +1305,15 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         }
     }
 
-    private int keyPosOffsetLeaf( int pos )
+    int keyPosOffsetLeaf( int pos )
     {
-        return HEADER_LENGTH_DYNAMIC + pos * bytesKeyOffset();
+        return headerLength + pos * bytesKeyOffset();
     }
 
-    private int keyPosOffsetInternal( int pos )
+    int keyPosOffsetInternal( int pos )
     {
         // header + childPointer + pos * (keyPosOffsetSize + childPointer)
-        return HEADER_LENGTH_DYNAMIC + childSize() + pos * keyChildSize();
+        return headerLength + childSize() + pos * keyChildSize();
     }
 
     private int keyChildSize()
@@ -1287,7 +1391,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
             {
                 singleKey.add( "_" );
             }
-            layout.readKey( cursor, readKey, keySize );
+            readKeyInNode( cursor, readKey, keySize );
             if ( type == LEAF )
             {
                 layout.readValue( cursor, readValue, valueSize );
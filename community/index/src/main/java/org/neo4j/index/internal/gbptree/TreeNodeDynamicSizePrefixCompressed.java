@@ -0,0 +1,447 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import org.neo4j.io.pagecache.ByteArrayPageCursor;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.util.VisibleForTesting;
+
+import static java.lang.Math.min;
+import static java.lang.String.format;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.extractKeySize;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.extractValueSize;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.getOverhead;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.putKeyOffset;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.putKeyValueSize;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.readKeyOffset;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.readKeyValueSize;
+import static org.neo4j.index.internal.gbptree.TreeNode.Type.INTERNAL;
+import static org.neo4j.index.internal.gbptree.TreeNode.Type.LEAF;
+
+/**
+ * Version of {@link TreeNodeDynamicSize} for {@link Layout#prefixCompressible() prefix compressible} layouts.
+ * Every node has a key prefix in its header and every key in the node only stores the bytes which aren't shared with that prefix.
+ *
+ * LEAF
+ * [                                   HEADER   151B (8KiB pages)                                                         ]|[KEY_OFFSETS]###[KEYS_VALUES]
+ * [NODETYPE][TYPE][GENERATION][KEYCOUNT][RIGHTSIBLING][LEFTSIBLING][SUCCESSOR][ALLOCOFFSET][DEADSPACE][PREFIXLENGTH][PREFIX]|[K0*,K1*,K2*]-> <-[KV0,KV2,KV1]
+ *  0         1     2           6         10            34           58         82           84          86            87      151
+ *
+ * The PREFIX region is 1/128th of the page size, but at most 64B, so that small pages still fit a reasonable key-value size.
+ *
+ * INTERNAL nodes have the same header, followed by the same offset array and keys as in {@link TreeNodeDynamicSize}.
+ *
+ * Keys are stored as [SHAREDLENGTH|SUFFIX], i.e. the key of a key entry or key_value entry, see {@link DynamicSizeUtil}, starts with
+ * one byte saying how many leading bytes of the key are the same as the leading bytes of the node prefix, followed by the rest of the key.
+ * The node prefix is selected from the first key inserted into an empty node and is extended when a node is split and all its keys
+ * share a longer prefix. Keys which only share parts of the node prefix, or nothing at all, can still be stored, they just share less.
+ *
+ * Instances keep state used when writing, and so must not be used by multiple writers concurrently. Reading is thread safe.
+ */
+public class TreeNodeDynamicSizePrefixCompressed<KEY, VALUE> extends TreeNodeDynamicSize<KEY,VALUE>
+{
+    static final byte FORMAT_VERSION = 1;
+
+    static final int MAX_PREFIX_LENGTH = 64;
+    private static final int PAGE_SIZE_PER_PREFIX_BYTE = 128;
+    private static final int BYTE_POS_PREFIX_LENGTH = HEADER_LENGTH_DYNAMIC;
+    private static final int BYTE_POS_PREFIX = BYTE_POS_PREFIX_LENGTH + 1;
+    private static final int SIZE_SHARED_LENGTH = 1;
+
+    private final int prefixRegionLength;
+
+    private final byte[] keyBytes;
+    private final PageCursor keyBytesCursor;
+    private final byte[] otherKeyBytes;
+    private final PageCursor otherKeyBytesCursor;
+    private final byte[] nodeBytes;
+    private final PageCursor nodeBytesCursor;
+    private final KEY firstKey;
+    private final KEY lastKey;
+    private final VALUE movedValue;
+
+    TreeNodeDynamicSizePrefixCompressed( int pageSize, Layout<KEY,VALUE> layout )
+    {
+        super( pageSize, layout, headerLength( pageSize ) );
+        prefixRegionLength = prefixRegionLength( pageSize );
+        keyBytes = new byte[pageSize];
+        keyBytesCursor = ByteArrayPageCursor.wrap( keyBytes );
+        otherKeyBytes = new byte[pageSize];
+        otherKeyBytesCursor = ByteArrayPageCursor.wrap( otherKeyBytes );
+        nodeBytes = new byte[pageSize];
+        nodeBytesCursor = ByteArrayPageCursor.wrap( nodeBytes );
+        firstKey = layout.newKey();
+        lastKey = layout.newKey();
+        movedValue = layout.newValue();
+    }
+
+    @VisibleForTesting
+    public static int keyValueSizeCapFromPageSize( int pageSize )
+    {
+        return keyValueSizeCapFromPageSize( pageSize, headerLength( pageSize ) ) - SIZE_SHARED_LENGTH;
+    }
+
+    static int prefixRegionLength( int pageSize )
+    {
+        return min( MAX_PREFIX_LENGTH, pageSize / PAGE_SIZE_PER_PREFIX_BYTE );
+    }
+
+    private static int headerLength( int pageSize )
+    {
+        return BYTE_POS_PREFIX + prefixRegionLength( pageSize );
+    }
+
+    @Override
+    void writeAdditionalHeader( PageCursor cursor )
+    {
+        super.writeAdditionalHeader( cursor );
+        cursor.putByte( BYTE_POS_PREFIX_LENGTH, (byte) 0 );
+    }
+
+    @Override
+    public int keyValueSizeCap()
+    {
+        // Every key has its shared length stored together with it
+        return super.keyValueSizeCap() - SIZE_SHARED_LENGTH;
+    }
+
+    @Override
+    int keySizeInNode( PageCursor cursor, int keyCount, KEY key )
+    {
+        return SIZE_SHARED_LENGTH + layout.keySize( key ) - sharedLength( cursor, keyCount, key );
+    }
+
+    @Override
+    void writeKeyInNode( PageCursor cursor, int keyCount, KEY key )
+    {
+        int sharedLength;
+        if ( keyCount == 0 )
+        {
+            // First key in this node decides the node prefix
+            sharedLength = maxPrefixLength( key );
+            writeKeyBytes( key, keyBytesCursor );
+            writePrefix( cursor, keyBytes, sharedLength );
+        }
+        else
+        {
+            sharedLength = sharedLength( cursor, keyCount, key );
+        }
+        cursor.putByte( (byte) sharedLength );
+        layout.writeKeySuffix( cursor, key, sharedLength );
+    }
+
+    @Override
+    void readKeyInNode( PageCursor cursor, KEY into, int keySize )
+    {
+        int sharedLength = cursor.getByte() & 0xFF;
+        int prefixLength = prefixLength( cursor );
+        int suffixSize = keySize - SIZE_SHARED_LENGTH;
+        if ( suffixSize < 0 || sharedLength > prefixLength || prefixLength > prefixRegionLength )
+        {
+            cursor.setCursorException( format( "Read unreliable key, keySize=%d, sharedLength=%d, prefixLength=%d",
+                    keySize, sharedLength, prefixLength ) );
+            return;
+        }
+        layout.readKeyWithPrefix( cursor, into, BYTE_POS_PREFIX, sharedLength, suffixSize );
+    }
+
+    @Override
+    int totalSpaceOfMovedKeyValue( PageCursor fromCursor, int fromPos, PageCursor toCursor, int toKeyCount )
+    {
+        if ( toKeyCount == 0 || samePrefix( fromCursor, toCursor ) )
+        {
+            return super.totalSpaceOfMovedKeyValue( fromCursor, fromPos, toCursor, toKeyCount );
+        }
+        keyValueAt( fromCursor, firstKey, movedValue, fromPos );
+        return totalSpaceOfKeyValue( toCursor, toKeyCount, firstKey, movedValue );
+    }
+
+    @Override
+    boolean canMergeLeaves( PageCursor leftCursor, int leftKeyCount, PageCursor rightCursor, int rightKeyCount )
+    {
+        if ( rightKeyCount == 0 || samePrefix( leftCursor, rightCursor ) )
+        {
+            return super.canMergeLeaves( leftCursor, leftKeyCount, rightCursor, rightKeyCount );
+        }
+        int leftSpace = 0;
+        for ( int pos = 0; pos < leftKeyCount; pos++ )
+        {
+            leftSpace += totalSpaceOfMovedKeyValue( leftCursor, pos, rightCursor, rightKeyCount );
+        }
+        return totalSpace() >= leftSpace + totalActiveSpace( rightCursor, rightKeyCount );
+    }
+
+    @Override
+    void doSplitLeaf( PageCursor leftCursor, int leftKeyCount, PageCursor rightCursor, int insertPos, KEY newKey,
+            VALUE newValue, KEY newSplitter )
+    {
+        // Moved keys are copied as they are, so new right gets the same prefix
+        copyPrefix( leftCursor, rightCursor );
+        super.doSplitLeaf( leftCursor, leftKeyCount, rightCursor, insertPos, newKey, newValue, newSplitter );
+        extendPrefix( leftCursor, LEAF );
+        extendPrefix( rightCursor, LEAF );
+    }
+
+    @Override
+    void doSplitInternal( PageCursor leftCursor, int leftKeyCount, PageCursor rightCursor, int insertPos, KEY newKey,
+            long newRightChild, long stableGeneration, long unstableGeneration, KEY newSplitter )
+    {
+        // Moved keys are copied as they are, so new right gets the same prefix
+        copyPrefix( leftCursor, rightCursor );
+        super.doSplitInternal( leftCursor, leftKeyCount, rightCursor, insertPos, newKey, newRightChild, stableGeneration, unstableGeneration,
+                newSplitter );
+        extendPrefix( leftCursor, INTERNAL );
+        extendPrefix( rightCursor, INTERNAL );
+    }
+
+    @Override
+    void moveKeyValuesFromLeftToRight( PageCursor leftCursor, int leftKeyCount, PageCursor rightCursor, int rightKeyCount,
+            int fromPosInLeftNode )
+    {
+        if ( rightKeyCount == 0 )
+        {
+            copyPrefix( leftCursor, rightCursor );
+        }
+        if ( samePrefix( leftCursor, rightCursor ) )
+        {
+            super.moveKeyValuesFromLeftToRight( leftCursor, leftKeyCount, rightCursor, rightKeyCount, fromPosInLeftNode );
+            return;
+        }
+
+        // Keys needs to be stored relative to the prefix of right, so move them one by one
+        defragmentLeaf( rightCursor );
+        int numberOfKeysToMove = leftKeyCount - fromPosInLeftNode;
+        for ( int i = 0; i < numberOfKeysToMove; i++ )
+        {
+            keyValueAt( leftCursor, firstKey, movedValue, fromPosInLeftNode + i );
+            insertKeyValueAt( rightCursor, firstKey, movedValue, i, rightKeyCount + i );
+        }
+        for ( int pos = leftKeyCount - 1; pos >= fromPosInLeftNode; pos-- )
+        {
+            removeKeyValueAt( leftCursor, pos, pos + 1 );
+        }
+        setKeyCount( leftCursor, fromPosInLeftNode );
+        setKeyCount( rightCursor, rightKeyCount + numberOfKeysToMove );
+    }
+
+    @Override
+    void copyKeyValuesFromLeftToRight( PageCursor leftCursor, int leftKeyCount, PageCursor rightCursor, int rightKeyCount )
+    {
+        if ( rightKeyCount == 0 )
+        {
+            copyPrefix( leftCursor, rightCursor );
+        }
+        if ( samePrefix( leftCursor, rightCursor ) )
+        {
+            super.copyKeyValuesFromLeftToRight( leftCursor, leftKeyCount, rightCursor, rightKeyCount );
+            return;
+        }
+
+        // Keys needs to be stored relative to the prefix of right, so copy them one by one
+        defragmentLeaf( rightCursor );
+        for ( int i = 0; i < leftKeyCount; i++ )
+        {
+            keyValueAt( leftCursor, firstKey, movedValue, i );
+            insertKeyValueAt( rightCursor, firstKey, movedValue, i, rightKeyCount + i );
+        }
+        setKeyCount( rightCursor, rightKeyCount + leftKeyCount );
+    }
+
+    /**
+     * Extends the node prefix to the prefix shared by all keys in the node, if that is longer than the current node prefix.
+     * All keys in the node shares the prefix of the first and last key, since keys are ordered the same way as their bytes.
+     * Keys are rewritten to only store what they don't share with the new prefix, which means they all get smaller.
+     */
+    private void extendPrefix( PageCursor cursor, Type type )
+    {
+        int keyCount = keyCount( cursor );
+        if ( keyCount == 0 )
+        {
+            return;
+        }
+        int prefixLength = prefixLength( cursor );
+        keyAt( cursor, firstKey, 0, type );
+        keyAt( cursor, lastKey, keyCount - 1, type );
+        int limit = min( maxPrefixLength( firstKey ), maxPrefixLength( lastKey ) );
+        if ( limit == 0 )
+        {
+            return;
+        }
+        writeKeyBytes( firstKey, keyBytesCursor );
+        writeKeyBytes( lastKey, otherKeyBytesCursor );
+        int newPrefixLength = 0;
+        while ( newPrefixLength < limit && keyBytes[newPrefixLength] == otherKeyBytes[newPrefixLength] )
+        {
+            newPrefixLength++;
+        }
+
+        // All keys share the new prefix, so they all share exactly this much of the current prefix,
+        // which may be a prefix copied from a sibling with other keys in it
+        int currentlyShared = 0;
+        int currentLimit = min( prefixLength, newPrefixLength );
+        while ( currentlyShared < currentLimit && cursor.getByte( BYTE_POS_PREFIX + currentlyShared ) == keyBytes[currentlyShared] )
+        {
+            currentlyShared++;
+        }
+        if ( newPrefixLength > currentlyShared )
+        {
+            rewriteWithPrefix( cursor, type, keyCount, newPrefixLength );
+        }
+    }
+
+    /**
+     * Rewrites all keys in the node to be stored relative to the first {@code newPrefixLength} bytes in {@link #keyBytes},
+     * which all keys must share. Keys are written compacted, in key order, from the end of the node.
+     */
+    private void rewriteWithPrefix( PageCursor cursor, Type type, int keyCount, int newPrefixLength )
+    {
+        cursor.setOffset( 0 );
+        cursor.getBytes( nodeBytes );
+
+        int allocOffset = pageSize;
+        for ( int pos = 0; pos < keyCount; pos++ )
+        {
+            int keyPosOffset = keyPosOffset( pos, type );
+            nodeBytesCursor.setOffset( keyPosOffset );
+            nodeBytesCursor.setOffset( readKeyOffset( nodeBytesCursor ) );
+            long keyValueSize = readKeyValueSize( nodeBytesCursor );
+            int keySize = extractKeySize( keyValueSize );
+            int valueSize = type == LEAF ? extractValueSize( keyValueSize ) : 0;
+            int sharedLengthOffset = nodeBytesCursor.getOffset();
+            int sharedLength = nodeBytes[sharedLengthOffset] & 0xFF;
+
+            // Bytes between old shared length and new prefix length are now part of the prefix
+            int newlyShared = newPrefixLength - sharedLength;
+            int newKeySize = keySize - newlyShared;
+            allocOffset -= getOverhead( newKeySize, valueSize ) + newKeySize + valueSize;
+            cursor.setOffset( allocOffset );
+            putKeyValueSize( cursor, newKeySize, valueSize );
+            cursor.putByte( (byte) newPrefixLength );
+            cursor.putBytes( nodeBytes, sharedLengthOffset + SIZE_SHARED_LENGTH + newlyShared, newKeySize - SIZE_SHARED_LENGTH + valueSize );
+
+            cursor.setOffset( keyPosOffset );
+            putKeyOffset( cursor, allocOffset );
+        }
+
+        int prevAllocOffset = getAllocOffset( cursor );
+        zeroPad( cursor, prevAllocOffset, allocOffset - prevAllocOffset );
+        setAllocOffset( cursor, allocOffset );
+        setDeadSpace( cursor, 0 );
+        writePrefix( cursor, keyBytes, newPrefixLength );
+    }
+
+    private int sharedLength( PageCursor cursor, int keyCount, KEY key )
+    {
+        int maxPrefixLength = maxPrefixLength( key );
+        if ( keyCount == 0 )
+        {
+            return maxPrefixLength;
+        }
+        int limit = min( maxPrefixLength, prefixLength( cursor ) );
+        if ( limit == 0 )
+        {
+            return 0;
+        }
+        writeKeyBytes( key, keyBytesCursor );
+        int sharedLength = 0;
+        while ( sharedLength < limit && cursor.getByte( BYTE_POS_PREFIX + sharedLength ) == keyBytes[sharedLength] )
+        {
+            sharedLength++;
+        }
+        return sharedLength;
+    }
+
+    private int maxPrefixLength( KEY key )
+    {
+        return min( layout.prefixCompressibleLength( key ), prefixRegionLength );
+    }
+
+    private void writeKeyBytes( KEY key, PageCursor into )
+    {
+        into.setOffset( 0 );
+        layout.writeKeySuffix( into, key, 0 );
+    }
+
+    static int prefixLength( PageCursor cursor )
+    {
+        return cursor.getByte( BYTE_POS_PREFIX_LENGTH ) & 0xFF;
+    }
+
+    private static void writePrefix( PageCursor cursor, byte[] prefix, int prefixLength )
+    {
+        cursor.putByte( BYTE_POS_PREFIX_LENGTH, (byte) prefixLength );
+        for ( int i = 0; i < prefixLength; i++ )
+        {
+            cursor.putByte( BYTE_POS_PREFIX + i, prefix[i] );
+        }
+    }
+
+    private static void copyPrefix( PageCursor fromCursor, PageCursor toCursor )
+    {
+        int prefixLength = prefixLength( fromCursor );
+        toCursor.putByte( BYTE_POS_PREFIX_LENGTH, (byte) prefixLength );
+        for ( int i = 0; i < prefixLength; i++ )
+        {
+            toCursor.putByte( BYTE_POS_PREFIX + i, fromCursor.getByte( BYTE_POS_PREFIX + i ) );
+        }
+    }
+
+    private static boolean samePrefix( PageCursor leftCursor, PageCursor rightCursor )
+    {
+        int prefixLength = prefixLength( leftCursor );
+        if ( prefixLength != prefixLength( rightCursor ) )
+        {
+            return false;
+        }
+        for ( int i = 0; i < prefixLength; i++ )
+        {
+            if ( leftCursor.getByte( BYTE_POS_PREFIX + i ) != rightCursor.getByte( BYTE_POS_PREFIX + i ) )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "TreeNodeDynamicSizePrefixCompressed[pageSize:" + pageSize + ", keyValueSizeCap:" + keyValueSizeCap() + "]";
+    }
+}
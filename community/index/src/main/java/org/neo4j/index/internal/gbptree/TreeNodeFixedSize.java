@@ -343,6 +343,30 @@ class TreeNodeFixedSize<KEY,VALUE> extends TreeNode<KEY,VALUE>
         return currentKeyCount + 1 > leafMaxKeyCount() ? Overflow.YES : Overflow.NO;
     }
 
+    @Override
+    int leafSpace()
+    {
+        return leafMaxKeyCount() * (keySize + valueSize);
+    }
+
+    @Override
+    int leafEntrySpace( PageCursor cursor, int keyCount, KEY key, VALUE value )
+    {
+        return keySize + valueSize;
+    }
+
+    @Override
+    int internalSpace()
+    {
+        return internalMaxKeyCount() * (keySize + SIZE_PAGE_REFERENCE);
+    }
+
+    @Override
+    int internalEntrySpace( PageCursor cursor, int keyCount, KEY key )
+    {
+        return keySize + SIZE_PAGE_REFERENCE;
+    }
+
     @Override
     void defragmentLeaf( PageCursor cursor )
     {   // no-op
@@ -359,6 +383,12 @@ class TreeNodeFixedSize<KEY,VALUE> extends TreeNode<KEY,VALUE>
         return keyCount < (leafMaxKeyCount() + 1) / 2;
     }
 
+    @Override
+    boolean leafUnderflowAfterRemove( PageCursor cursor, int keyCount, int pos )
+    {
+        return leafUnderflow( cursor, keyCount - 1 );
+    }
+
     @Override
     int canRebalanceLeaves( PageCursor leftCursor, int leftKeyCount, PageCursor rightCursor, int rightKeyCount )
     {
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Exclusive latches for tree nodes, used by {@link GBPTree#parallelWriter() parallel writers} to get exclusive
+ * access to the leaf they change. Page write locks don't exclude each other so this is kept on the side,
+ * not affecting the tree format.
+ * <p>
+ * Latches are striped on tree node id, i.e. a fixed number of latches are shared among all tree nodes.
+ * Two writers changing different nodes may therefore occasionally wait for each other, but a writer
+ * changing a node will always have exclusive access to it.
+ */
+class TreeNodeLatches
+{
+    private static final int DEFAULT_STRIPES = 1 << 10;
+
+    private final ReentrantLock[] latches;
+    private final int mask;
+
+    TreeNodeLatches()
+    {
+        this( DEFAULT_STRIPES );
+    }
+
+    /**
+     * @param stripes number of latches, must be a power of two.
+     */
+    TreeNodeLatches( int stripes )
+    {
+        if ( Integer.bitCount( stripes ) != 1 )
+        {
+            throw new IllegalArgumentException( "Number of stripes must be a power of two, but was " + stripes );
+        }
+        this.latches = new ReentrantLock[stripes];
+        for ( int i = 0; i < stripes; i++ )
+        {
+            latches[i] = new ReentrantLock();
+        }
+        this.mask = stripes - 1;
+    }
+
+    void acquire( long treeNodeId )
+    {
+        latch( treeNodeId ).lock();
+    }
+
+    void release( long treeNodeId )
+    {
+        latch( treeNodeId ).unlock();
+    }
+
+    private ReentrantLock latch( long treeNodeId )
+    {
+        return latches[(int) (treeNodeId & mask)];
+    }
+}
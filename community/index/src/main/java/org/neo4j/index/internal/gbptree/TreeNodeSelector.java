@@ -94,6 +94,30 @@ class TreeNodeSelector
         }
     };
 
+    /**
+     * Creates {@link TreeNodeDynamicSizePrefixCompressed} instances.
+     */
+    static Factory DYNAMIC_PREFIX_COMPRESSED = new Factory()
+    {
+        @Override
+        public <KEY,VALUE> TreeNode<KEY,VALUE> create( int pageSize, Layout<KEY,VALUE> layout )
+        {
+            return new TreeNodeDynamicSizePrefixCompressed<>( pageSize, layout );
+        }
+
+        @Override
+        public byte formatIdentifier()
+        {
+            return TreeNodeDynamicSizePrefixCompressed.FORMAT_IDENTIFIER;
+        }
+
+        @Override
+        public byte formatVersion()
+        {
+            return TreeNodeDynamicSizePrefixCompressed.FORMAT_VERSION;
+        }
+    };
+
     /**
      * Selects a format based on the given {@link Layout}.
      *
@@ -102,8 +126,12 @@ class TreeNodeSelector
      */
     static Factory selectByLayout( Layout<?,?> layout )
     {
-        // For now the selection is done in a simple fashion, by looking at layout.fixedSize().
-        return layout.fixedSize() ? FIXED : DYNAMIC;
+        // For now the selection is done in a simple fashion, by looking at layout.fixedSize() and layout.prefixCompressible().
+        if ( layout.fixedSize() )
+        {
+            return FIXED;
+        }
+        return layout.prefixCompressible() ? DYNAMIC_PREFIX_COMPRESSED : DYNAMIC;
     }
 
     /**
@@ -115,7 +143,7 @@ class TreeNodeSelector
      */
     static Factory selectByFormat( byte formatIdentifier, byte formatVersion )
     {
-        // For now do a simple selection of the two formats we know. Moving forward this can contain
+        // For now do a simple selection of the formats we know. Moving forward this can contain
         // many more identifiers and different versions of each.
         if ( formatIdentifier == TreeNodeFixedSize.FORMAT_IDENTIFIER && formatVersion == TreeNodeFixedSize.FORMAT_VERSION )
         {
@@ -125,10 +153,41 @@ class TreeNodeSelector
         {
             return DYNAMIC;
         }
+        else if ( formatIdentifier == TreeNodeDynamicSizePrefixCompressed.FORMAT_IDENTIFIER &&
+                formatVersion == TreeNodeDynamicSizePrefixCompressed.FORMAT_VERSION )
+        {
+            return DYNAMIC_PREFIX_COMPRESSED;
+        }
         throw new IllegalArgumentException(
                 format( "Unknown format identifier:%d and version:%d combination", formatIdentifier, formatVersion ) );
     }
 
+    /**
+     * Checks whether or not a tree created with the given format can be opened with the given {@link Layout}.
+     * That is the case for the format {@link #selectByLayout(Layout) selected} by the layout, but dynamic size layouts
+     * can also open trees of the other dynamic size format, since {@link Layout#prefixCompressible()} only decides
+     * the format of new trees and may change between creating and opening a tree.
+     *
+     * @param layout {@link Layout} to open the tree with.
+     * @param formatIdentifier format identifier the tree was created with, see {@link Meta#getFormatIdentifier()}.
+     * @param formatVersion format version the tree was created with, see {@link Meta#getFormatVersion()}.
+     * @return whether or not a tree of the given format can be opened with the given layout.
+     */
+    static boolean canOpenWith( Layout<?,?> layout, byte formatIdentifier, byte formatVersion )
+    {
+        Factory formatByLayout = selectByLayout( layout );
+        if ( formatByLayout.formatIdentifier() == formatIdentifier && formatByLayout.formatVersion() == formatVersion )
+        {
+            return true;
+        }
+        if ( formatByLayout == FIXED )
+        {
+            return false;
+        }
+        Factory otherDynamic = formatByLayout == DYNAMIC ? DYNAMIC_PREFIX_COMPRESSED : DYNAMIC;
+        return otherDynamic.formatIdentifier() == formatIdentifier && otherDynamic.formatVersion() == formatVersion;
+    }
+
     /**
      * Able to instantiate {@link TreeNode} of a specific format and version.
      */
@@ -0,0 +1,488 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.neo4j.cursor.RawCursor;
+import org.neo4j.io.pagecache.IOLimiter;
+import org.neo4j.test.rule.PageCacheAndDependenciesRule;
+import org.neo4j.test.rule.RandomRule;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public abstract class GBPTreeBulkLoadTestBase<KEY,VALUE>
+{
+    private static final int PAGE_SIZE = 512;
+
+    private RandomRule random = new RandomRule();
+    private PageCacheAndDependenciesRule deps = new PageCacheAndDependenciesRule();
+
+    @Rule
+    public RuleChain ruleChain = RuleChain.outerRule( random ).around( deps );
+
+    private TestLayout<KEY,VALUE> layout;
+    private File indexFile;
+
+    @Before
+    public void setUp()
+    {
+        indexFile = deps.directory().file( "index" );
+        layout = getLayout();
+    }
+
+    abstract TestLayout<KEY,VALUE> getLayout();
+
+    @Test
+    public void shouldBulkLoadSortedEntries() throws Exception
+    {
+        // given
+        TreeMap<Long,Long> expected = randomEntries( random.nextInt( 1, 50_000 ) );
+        try ( GBPTree<KEY,VALUE> index = index() )
+        {
+            // when
+            bulkLoad( index, expected, random.nextDouble() * 0.5 + 0.5 );
+
+            // then
+            assertTrue( index.consistencyCheck() );
+            assertContents( index, expected );
+        }
+    }
+
+    @Test
+    public void shouldBulkLoadWithFullFillFactor() throws Exception
+    {
+        // given
+        TreeMap<Long,Long> expected = randomEntries( 10_000 );
+        try ( GBPTree<KEY,VALUE> index = index() )
+        {
+            // when
+            bulkLoad( index, expected, 1.0 );
+
+            // then
+            assertTrue( index.consistencyCheck() );
+            assertContents( index, expected );
+        }
+    }
+
+    @Test
+    public void shouldLeaveTreeEmptyWhenBulkLoadingNothing() throws Exception
+    {
+        try ( GBPTree<KEY,VALUE> index = index() )
+        {
+            // when
+            bulkLoad( index, new TreeMap<>(), 0.75 );
+
+            // then
+            assertTrue( index.consistencyCheck() );
+            assertContents( index, new TreeMap<>() );
+            TreeMap<Long,Long> expected = randomEntries( 100 );
+            write( index, expected );
+            assertContents( index, expected );
+        }
+    }
+
+    @Test
+    public void shouldAllowWritesAfterBulkLoad() throws Exception
+    {
+        // given
+        TreeMap<Long,Long> expected = randomEntries( 20_000 );
+        try ( GBPTree<KEY,VALUE> index = index() )
+        {
+            bulkLoad( index, expected, 0.75 );
+
+            // when
+            try ( Writer<KEY,VALUE> writer = index.writer() )
+            {
+                for ( int i = 0; i < 5_000; i++ )
+                {
+                    long seed = random.nextLong( 0, 1_000_000 );
+                    if ( random.nextBoolean() )
+                    {
+                        writer.put( key( seed ), value( seed ) );
+                        expected.put( seed, seed );
+                    }
+                    else
+                    {
+                        writer.remove( key( seed ) );
+                        expected.remove( seed );
+                    }
+                }
+            }
+
+            // then
+            assertTrue( index.consistencyCheck() );
+            assertContents( index, expected );
+        }
+    }
+
+    @Test
+    public void shouldKeepBulkLoadedEntriesAfterCheckpointAndReopen() throws Exception
+    {
+        // given
+        TreeMap<Long,Long> expected = randomEntries( 10_000 );
+        try ( GBPTree<KEY,VALUE> index = index() )
+        {
+            bulkLoad( index, expected, 0.9 );
+            index.checkpoint( IOLimiter.unlimited() );
+        }
+
+        // when
+        try ( GBPTree<KEY,VALUE> index = index() )
+        {
+            // then
+            assertTrue( index.consistencyCheck() );
+            assertContents( index, expected );
+        }
+    }
+
+    @Test
+    public void shouldNotPublishAnythingIfAddingFails() throws Exception
+    {
+        try ( GBPTree<KEY,VALUE> index = index() )
+        {
+            // given
+            try ( BulkLoader<KEY,VALUE> bulkLoader = index.bulkLoader( 1.0 ) )
+            {
+                for ( long seed = 0; seed < 1_000; seed++ )
+                {
+                    bulkLoader.add( key( seed ), value( seed ) );
+                }
+
+                // when
+                bulkLoader.add( key( 10 ), value( 10 ) );
+                fail( "Should have failed on key out of order" );
+            }
+            catch ( IllegalArgumentException e )
+            {
+                // then good
+            }
+
+            assertTrue( index.consistencyCheck() );
+            assertContents( index, new TreeMap<>() );
+        }
+    }
+
+    @Test
+    public void shouldNotBulkLoadIntoNonEmptyTree() throws Exception
+    {
+        try ( GBPTree<KEY,VALUE> index = index() )
+        {
+            // given
+            TreeMap<Long,Long> expected = randomEntries( 10 );
+            write( index, expected );
+
+            // when
+            try
+            {
+                index.bulkLoader( 1.0 );
+                fail( "Should have failed" );
+            }
+            catch ( IllegalStateException e )
+            {
+                // then good
+            }
+
+            // and the writer should still be available
+            write( index, expected );
+            assertContents( index, expected );
+        }
+    }
+
+    @Test
+    public void shouldSortAndDeduplicateEntriesInManyRuns() throws Exception
+    {
+        try ( GBPTree<KEY,VALUE> index = index();
+              EntrySorter<KEY,VALUE> sorter = new EntrySorter<>( layout, deps.fileSystem(), deps.directory().file( "runs" ), 1024 ) )
+        {
+            // given
+            TreeMap<Long,Long> expected = new TreeMap<>();
+            for ( int i = 0; i < 20_000; i++ )
+            {
+                long keySeed = random.nextLong( 0, 15_000 );
+                long valueSeed = random.nextLong( 0, 1_000_000 );
+                sorter.add( key( keySeed ), value( valueSeed ) );
+                expected.put( keySeed, valueSeed );
+            }
+            assertTrue( sorter.numberOfRuns() > EntrySorter.MERGE_FACTOR );
+
+            // when
+            try ( BulkLoader<KEY,VALUE> bulkLoader = index.bulkLoader( 0.8 ) )
+            {
+                sorter.drainTo( bulkLoader );
+            }
+
+            // then
+            assertTrue( index.consistencyCheck() );
+            assertContents( index, expected );
+        }
+    }
+
+    @Test
+    public void shouldSortEntriesInMemory() throws Exception
+    {
+        try ( GBPTree<KEY,VALUE> index = index();
+              EntrySorter<KEY,VALUE> sorter = new EntrySorter<>( layout, deps.fileSystem(), deps.directory().file( "runs" ), 1 << 20 ) )
+        {
+            // given
+            TreeMap<Long,Long> expected = new TreeMap<>();
+            for ( int i = 0; i < 1_000; i++ )
+            {
+                long keySeed = random.nextLong( 0, 800 );
+                sorter.add( key( keySeed ), value( i ) );
+                expected.put( keySeed, (long) i );
+            }
+            assertEquals( 0, sorter.numberOfRuns() );
+
+            // when
+            try ( BulkLoader<KEY,VALUE> bulkLoader = index.bulkLoader( 0.8 ) )
+            {
+                sorter.drainTo( bulkLoader );
+            }
+
+            // then
+            assertFalse( deps.fileSystem().fileExists( deps.directory().file( "runs" ) ) );
+            assertTrue( index.consistencyCheck() );
+            assertContents( index, expected );
+        }
+    }
+
+    @Test
+    public void shouldStopDrainingWhenCancelled() throws Exception
+    {
+        try ( GBPTree<KEY,VALUE> index = index();
+              EntrySorter<KEY,VALUE> sorter = new EntrySorter<>( layout, deps.fileSystem(), deps.directory().file( "runs" ), 1 << 20 ) )
+        {
+            // given
+            int count = 5_000;
+            for ( int i = count - 1; i >= 0; i-- )
+            {
+                sorter.add( key( i ), value( i ) );
+            }
+            assertEquals( 0, sorter.numberOfRuns() );
+
+            // when
+            AtomicInteger cancellationChecks = new AtomicInteger();
+            boolean drained;
+            try ( BulkLoader<KEY,VALUE> bulkLoader = index.bulkLoader( 0.8 ) )
+            {
+                drained = sorter.drainTo( bulkLoader, () -> cancellationChecks.incrementAndGet() > 1 );
+            }
+
+            // then only the entries before the second check have been loaded
+            assertFalse( drained );
+            TreeMap<Long,Long> expected = new TreeMap<>();
+            for ( long i = 0; i < 1024; i++ )
+            {
+                expected.put( i, i );
+            }
+            assertContents( index, expected );
+        }
+    }
+
+    @Test
+    public void shouldStopMergingRunsWhenCancelled() throws Exception
+    {
+        try ( GBPTree<KEY,VALUE> index = index();
+              EntrySorter<KEY,VALUE> sorter = new EntrySorter<>( layout, deps.fileSystem(), deps.directory().file( "runs" ), 1024 ) )
+        {
+            // given
+            for ( int i = 0; i < 20_000; i++ )
+            {
+                sorter.add( key( random.nextLong( 0, 15_000 ) ), value( i ) );
+            }
+            assertTrue( sorter.numberOfRuns() > EntrySorter.MERGE_FACTOR );
+
+            // when
+            boolean drained;
+            try ( BulkLoader<KEY,VALUE> bulkLoader = index.bulkLoader( 0.8 ) )
+            {
+                drained = sorter.drainTo( bulkLoader, () -> true );
+            }
+
+            // then
+            assertFalse( drained );
+            assertContents( index, new TreeMap<>() );
+        }
+    }
+
+    @Test
+    public void shouldReplayDeferredWritesInOrderFromFile() throws Exception
+    {
+        File deferredFile = deps.directory().file( "deferred" );
+        try ( GBPTree<KEY,VALUE> index = index();
+              DeferredWriter<KEY,VALUE> deferred = new DeferredWriter<>( layout, deps.fileSystem(), deferredFile, 1024 ) )
+        {
+            // given
+            TreeMap<Long,Long> expected = randomEntries( 1_000 );
+            bulkLoad( index, expected, 0.8 );
+            for ( int i = 0; i < 20_000; i++ )
+            {
+                long keySeed = random.nextLong( 0, 2_000 );
+                if ( random.nextBoolean() )
+                {
+                    long valueSeed = random.nextLong( 0, 1_000_000 );
+                    deferred.put( key( keySeed ), value( valueSeed ) );
+                    expected.put( keySeed, valueSeed );
+                }
+                else
+                {
+                    deferred.remove( key( keySeed ) );
+                    expected.remove( keySeed );
+                }
+            }
+            assertTrue( deps.fileSystem().fileExists( deferredFile ) );
+
+            // when
+            try ( Writer<KEY,VALUE> writer = index.writer() )
+            {
+                deferred.replayTo( writer );
+            }
+
+            // then
+            assertTrue( index.consistencyCheck() );
+            assertContents( index, expected );
+        }
+        assertFalse( deps.fileSystem().fileExists( deferredFile ) );
+    }
+
+    @Test
+    public void shouldReplayDeferredWritesFromMemory() throws Exception
+    {
+        File deferredFile = deps.directory().file( "deferred" );
+        try ( GBPTree<KEY,VALUE> index = index();
+              DeferredWriter<KEY,VALUE> deferred = new DeferredWriter<>( layout, deps.fileSystem(), deferredFile, 1 << 20 ) )
+        {
+            // given
+            TreeMap<Long,Long> expected = new TreeMap<>();
+            for ( int i = 0; i < 1_000; i++ )
+            {
+                long keySeed = random.nextLong( 0, 800 );
+                deferred.put( key( keySeed ), value( i ) );
+                expected.put( keySeed, (long) i );
+            }
+            deferred.remove( key( expected.firstKey() ) );
+            expected.remove( expected.firstKey() );
+
+            // when
+            try ( Writer<KEY,VALUE> writer = index.writer() )
+            {
+                deferred.replayTo( writer );
+            }
+
+            // then
+            assertFalse( deps.fileSystem().fileExists( deferredFile ) );
+            assertContents( index, expected );
+        }
+    }
+
+    private TreeMap<Long,Long> randomEntries( int count )
+    {
+        TreeMap<Long,Long> entries = new TreeMap<>();
+        while ( entries.size() < count )
+        {
+            long seed = random.nextLong( 0, 1_000_000 );
+            entries.put( seed, random.nextLong( 0, 1_000_000 ) );
+        }
+        return entries;
+    }
+
+    private void bulkLoad( GBPTree<KEY,VALUE> index, TreeMap<Long,Long> entries, double fillFactor ) throws IOException
+    {
+        try ( BulkLoader<KEY,VALUE> bulkLoader = index.bulkLoader( fillFactor ) )
+        {
+            for ( Map.Entry<Long,Long> entry : entries.entrySet() )
+            {
+                bulkLoader.add( key( entry.getKey() ), value( entry.getValue() ) );
+            }
+        }
+    }
+
+    private void write( GBPTree<KEY,VALUE> index, TreeMap<Long,Long> entries ) throws IOException
+    {
+        try ( Writer<KEY,VALUE> writer = index.writer() )
+        {
+            for ( Map.Entry<Long,Long> entry : entries.entrySet() )
+            {
+                writer.put( key( entry.getKey() ), value( entry.getValue() ) );
+            }
+        }
+    }
+
+    private void assertContents( GBPTree<KEY,VALUE> index, TreeMap<Long,Long> expected ) throws IOException
+    {
+        try ( RawCursor<Hit<KEY,VALUE>,IOException> cursor = index.seek( key( 0 ), key( Long.MAX_VALUE ) ) )
+        {
+            for ( Map.Entry<Long,Long> entry : expected.entrySet() )
+            {
+                assertTrue( "Expected key " + entry.getKey(), cursor.next() );
+                assertEquals( entry.getKey().longValue(), layout.keySeed( cursor.get().key() ) );
+                assertEquals( entry.getValue().longValue(), layout.valueSeed( cursor.get().value() ) );
+            }
+            assertFalse( cursor.next() );
+        }
+    }
+
+    private GBPTree<KEY,VALUE> index() throws IOException
+    {
+        return new GBPTreeBuilder<>( deps.pageCache(), indexFile, layout ).withIndexPageSize( PAGE_SIZE ).build();
+    }
+
+    private VALUE value( long seed )
+    {
+        return layout.value( seed );
+    }
+
+    private KEY key( long seed )
+    {
+        return layout.key( seed );
+    }
+}
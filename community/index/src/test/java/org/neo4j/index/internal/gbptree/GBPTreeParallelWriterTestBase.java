@@ -0,0 +1,298 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.neo4j.cursor.RawCursor;
+import org.neo4j.io.pagecache.IOLimiter;
+import org.neo4j.test.Race;
+import org.neo4j.test.rule.PageCacheAndDependenciesRule;
+import org.neo4j.test.rule.RandomRule;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.neo4j.test.Race.throwing;
+
+public abstract class GBPTreeParallelWriterTestBase<KEY,VALUE>
+{
+    private static final int PAGE_SIZE = 512;
+    private static final int THREADS = 4;
+
+    private RandomRule random = new RandomRule();
+    private PageCacheAndDependenciesRule deps = new PageCacheAndDependenciesRule();
+
+    @Rule
+    public RuleChain ruleChain = RuleChain.outerRule( random ).around( deps );
+
+    private TestLayout<KEY,VALUE> layout;
+    private File indexFile;
+
+    @Before
+    public void setUp()
+    {
+        indexFile = deps.directory().file( "index" );
+        layout = getLayout();
+    }
+
+    abstract TestLayout<KEY,VALUE> getLayout();
+
+    @Test
+    public void shouldInsertFromManyThreadsConcurrently() throws Throwable
+    {
+        try ( GBPTree<KEY,VALUE> index = index() )
+        {
+            // given
+            int keysPerThread = 5_000;
+            Race race = new Race();
+            for ( int i = 0; i < THREADS; i++ )
+            {
+                int thread = i;
+                List<Long> seeds = new ArrayList<>();
+                for ( int k = 0; k < keysPerThread; k++ )
+                {
+                    seeds.add( (long) k * THREADS + thread );
+                }
+                Collections.shuffle( seeds, new Random( random.seed() + thread ) );
+                race.addContestant( throwing( () ->
+                {
+                    try ( Writer<KEY,VALUE> writer = index.parallelWriter() )
+                    {
+                        for ( long seed : seeds )
+                        {
+                            writer.put( key( seed ), value( seed ) );
+                        }
+                    }
+                } ) );
+            }
+
+            // when
+            race.go();
+
+            // then
+            TreeMap<Long,Long> expected = new TreeMap<>();
+            for ( long seed = 0; seed < keysPerThread * THREADS; seed++ )
+            {
+                expected.put( seed, seed );
+            }
+            assertTrue( index.consistencyCheck() );
+            assertContents( index, expected );
+        }
+    }
+
+    @Test
+    public void shouldInsertAndRemoveFromManyThreadsConcurrentlyAcrossCheckpoints() throws Throwable
+    {
+        try ( GBPTree<KEY,VALUE> index = index() )
+        {
+            List<TreeMap<Long,Long>> expectedPerThread = new ArrayList<>();
+            for ( int i = 0; i < THREADS; i++ )
+            {
+                expectedPerThread.add( new TreeMap<>() );
+            }
+
+            for ( int round = 0; round < 3; round++ )
+            {
+                // given
+                Race race = new Race();
+                for ( int i = 0; i < THREADS; i++ )
+                {
+                    int thread = i;
+                    TreeMap<Long,Long> expected = expectedPerThread.get( thread );
+                    Random threadRandom = new Random( random.seed() + round * THREADS + thread );
+                    race.addContestant( throwing( () ->
+                    {
+                        try ( Writer<KEY,VALUE> writer = index.parallelWriter() )
+                        {
+                            for ( int k = 0; k < 3_000; k++ )
+                            {
+                                // Each thread owns its own keys so that the expected outcome is known
+                                long seed = threadRandom.nextInt( 2_000 ) * THREADS + thread;
+                                if ( threadRandom.nextInt( 3 ) > 0 )
+                                {
+                                    long valueSeed = threadRandom.nextInt( 1_000_000 );
+                                    writer.put( key( seed ), value( valueSeed ) );
+                                    expected.put( seed, valueSeed );
+                                }
+                                else
+                                {
+                                    VALUE removed = writer.remove( key( seed ) );
+                                    Long expectedRemoved = expected.remove( seed );
+                                    if ( expectedRemoved == null )
+                                    {
+                                        assertNull( removed );
+                                    }
+                                    else
+                                    {
+                                        assertEquals( expectedRemoved.longValue(), layout.valueSeed( removed ) );
+                                    }
+                                }
+                            }
+                        }
+                    } ) );
+                }
+
+                // when
+                race.go();
+                // making all nodes stable, so that next round needs to create successors
+                index.checkpoint( IOLimiter.unlimited() );
+
+                // then
+                TreeMap<Long,Long> expected = new TreeMap<>();
+                expectedPerThread.forEach( expected::putAll );
+                assertTrue( index.consistencyCheck() );
+                assertContents( index, expected );
+            }
+        }
+    }
+
+    @Test
+    public void shouldAllowSingleWriterAfterParallelWritersAreClosed() throws Exception
+    {
+        try ( GBPTree<KEY,VALUE> index = index() )
+        {
+            // given
+            try ( Writer<KEY,VALUE> first = index.parallelWriter();
+                  Writer<KEY,VALUE> second = index.parallelWriter() )
+            {
+                first.put( key( 1 ), value( 1 ) );
+                second.put( key( 2 ), value( 2 ) );
+            }
+
+            // when
+            try ( Writer<KEY,VALUE> writer = index.writer() )
+            {
+                writer.put( key( 3 ), value( 3 ) );
+            }
+
+            // then
+            TreeMap<Long,Long> expected = new TreeMap<>();
+            for ( long seed = 1; seed <= 3; seed++ )
+            {
+                expected.put( seed, seed );
+            }
+            assertContents( index, expected );
+        }
+    }
+
+    @Test
+    public void checkpointShouldWaitForOpenParallelWriters() throws Exception
+    {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try ( GBPTree<KEY,VALUE> index = index() )
+        {
+            // given
+            Writer<KEY,VALUE> writer = index.parallelWriter();
+            writer.put( key( 1 ), value( 1 ) );
+
+            // when
+            Future<Object> checkpoint = executor.submit( () ->
+            {
+                index.checkpoint( IOLimiter.unlimited() );
+                return null;
+            } );
+
+            // then
+            try
+            {
+                checkpoint.get( 100, TimeUnit.MILLISECONDS );
+                fail( "Checkpoint should wait for parallel writer to close" );
+            }
+            catch ( TimeoutException e )
+            {
+                // good
+            }
+            writer.close();
+            checkpoint.get();
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    private void assertContents( GBPTree<KEY,VALUE> index, TreeMap<Long,Long> expected ) throws IOException
+    {
+        try ( RawCursor<Hit<KEY,VALUE>,IOException> cursor = index.seek( key( 0 ), key( Long.MAX_VALUE ) ) )
+        {
+            for ( Map.Entry<Long,Long> entry : expected.entrySet() )
+            {
+                assertTrue( "Expected key " + entry.getKey(), cursor.next() );
+                assertEquals( entry.getKey().longValue(), layout.keySeed( cursor.get().key() ) );
+                assertEquals( entry.getValue().longValue(), layout.valueSeed( cursor.get().value() ) );
+            }
+            assertFalse( cursor.next() );
+        }
+    }
+
+    private GBPTree<KEY,VALUE> index() throws IOException
+    {
+        return new GBPTreeBuilder<>( deps.pageCache(), indexFile, layout ).withIndexPageSize( PAGE_SIZE ).build();
+    }
+
+    private VALUE value( long seed )
+    {
+        return layout.value( seed );
+    }
+
+    private KEY key( long seed )
+    {
+        return layout.key( seed );
+    }
+}
@@ -247,6 +247,61 @@ public class GBPTreeTest
         }
     }
 
+    @Test
+    public void shouldOpenPrefixCompressedTreeWithLayoutNotCreatingPrefixCompressedTrees() throws Exception
+    {
+        PrefixCompressedByteArrayLayout notCreatingPrefixCompressedTrees = new PrefixCompressedByteArrayLayout()
+        {
+            @Override
+            public boolean prefixCompressible()
+            {
+                return false;
+            }
+        };
+        shouldOpenTreeOfOtherDynamicFormat( new PrefixCompressedByteArrayLayout(), notCreatingPrefixCompressedTrees );
+    }
+
+    @Test
+    public void shouldOpenDynamicTreeWithLayoutCreatingPrefixCompressedTrees() throws Exception
+    {
+        shouldOpenTreeOfOtherDynamicFormat( new SimpleByteArrayLayout(), new PrefixCompressedByteArrayLayout() );
+    }
+
+    private void shouldOpenTreeOfOtherDynamicFormat( SimpleByteArrayLayout createLayout, SimpleByteArrayLayout openLayout ) throws Exception
+    {
+        // GIVEN
+        int count = 1_000;
+        PageCache pageCache = createPageCache( DEFAULT_PAGE_SIZE );
+        try ( GBPTree<RawBytes,RawBytes> tree = new GBPTreeBuilder<>( pageCache, indexFile, createLayout ).build() )
+        {
+            try ( Writer<RawBytes,RawBytes> writer = tree.writer() )
+            {
+                for ( long seed = 0; seed < count; seed++ )
+                {
+                    writer.put( createLayout.key( seed ), createLayout.value( seed ) );
+                }
+            }
+            tree.checkpoint( unlimited() );
+        }
+
+        // WHEN
+        try ( GBPTree<RawBytes,RawBytes> tree = new GBPTreeBuilder<>( pageCache, indexFile, openLayout ).build() )
+        {
+            // THEN
+            try ( RawCursor<Hit<RawBytes,RawBytes>,IOException> seek = tree.seek( openLayout.key( 0 ), openLayout.key( count ) ) )
+            {
+                long expectedSeed = 0;
+                while ( seek.next() )
+                {
+                    assertEquals( expectedSeed, openLayout.keySeed( seek.get().key() ) );
+                    assertEquals( expectedSeed, openLayout.valueSeed( seek.get().value() ) );
+                    expectedSeed++;
+                }
+                assertEquals( count, expectedSeed );
+            }
+        }
+    }
+
     @Test
     public void shouldFailOnOpenWithDifferentPageSize() throws Exception
     {
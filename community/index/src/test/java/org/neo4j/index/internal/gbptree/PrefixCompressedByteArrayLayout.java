@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import org.neo4j.io.pagecache.PageCursor;
+
+/**
+ * {@link SimpleByteArrayLayout} which opts into prefix compression, storing the bytes of a key as its byte sequence.
+ */
+public class PrefixCompressedByteArrayLayout extends SimpleByteArrayLayout
+{
+    private final boolean truncateSplitters;
+
+    PrefixCompressedByteArrayLayout()
+    {
+        this( true );
+    }
+
+    /**
+     * @param truncateSplitters whether or not {@link #minimalSplitter(RawBytes, RawBytes, RawBytes)} should truncate,
+     * tests which assert on the exact keys in internal nodes don't want that.
+     */
+    PrefixCompressedByteArrayLayout( boolean truncateSplitters )
+    {
+        this.truncateSplitters = truncateSplitters;
+    }
+
+    @Override
+    public RawBytes minimalSplitter( RawBytes left, RawBytes right, RawBytes into )
+    {
+        if ( !truncateSplitters )
+        {
+            return super.minimalSplitter( left, right, into );
+        }
+        int length = 0;
+        int maxLength = Math.min( left.bytes.length, right.bytes.length );
+        while ( length < maxLength && left.bytes[length] == right.bytes[length] )
+        {
+            length++;
+        }
+        // Keys shorter than a long all get the same seed, so don't truncate into the seed
+        int splitterLength = Math.max( Long.BYTES, length + 1 );
+        if ( splitterLength >= right.bytes.length )
+        {
+            return copyKey( right, into );
+        }
+        into.bytes = new byte[splitterLength];
+        System.arraycopy( right.bytes, 0, into.bytes, 0, splitterLength );
+        return into;
+    }
+
+    @Override
+    public boolean prefixCompressible()
+    {
+        return true;
+    }
+
+    @Override
+    public int prefixCompressibleLength( RawBytes key )
+    {
+        return key.bytes.length;
+    }
+
+    @Override
+    public void writeKeySuffix( PageCursor cursor, RawBytes key, int prefixLength )
+    {
+        cursor.putBytes( key.bytes, prefixLength, key.bytes.length - prefixLength );
+    }
+
+    @Override
+    public void readKeyWithPrefix( PageCursor cursor, RawBytes into, int prefixOffset, int prefixLength, int suffixSize )
+    {
+        into.bytes = new byte[prefixLength + suffixSize];
+        int suffixOffset = cursor.getOffset();
+        cursor.setOffset( prefixOffset );
+        cursor.getBytes( into.bytes, 0, prefixLength );
+        cursor.setOffset( suffixOffset );
+        cursor.getBytes( into.bytes, prefixLength, suffixSize );
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.neo4j.io.pagecache.PageCursor;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TreeNodeDynamicSizePrefixCompressedTest extends TreeNodeTestBase<RawBytes,RawBytes>
+{
+    private static final int PREFIX_LENGTH = TreeNodeDynamicSizePrefixCompressed.prefixRegionLength( PAGE_SIZE );
+
+    private SimpleByteArrayLayout layout = new PrefixCompressedByteArrayLayout();
+
+    @Override
+    protected TestLayout<RawBytes,RawBytes> getLayout()
+    {
+        return layout;
+    }
+
+    @Override
+    protected TreeNodeDynamicSizePrefixCompressed<RawBytes,RawBytes> getNode( int pageSize, Layout<RawBytes,RawBytes> layout )
+    {
+        return new TreeNodeDynamicSizePrefixCompressed<>( pageSize, layout );
+    }
+
+    @Override
+    void assertAdditionalHeader( PageCursor cursor, TreeNode<RawBytes,RawBytes> node, int pageSize )
+    {
+        // When
+        int currentAllocSpace = ((TreeNodeDynamicSize) node).getAllocOffset( cursor );
+        int prefixLength = TreeNodeDynamicSizePrefixCompressed.prefixLength( cursor );
+
+        // Then
+        assertEquals( "allocSpace point to end of page", pageSize, currentAllocSpace );
+        assertEquals( "no prefix in empty node", 0, prefixLength );
+    }
+
+    @Test
+    public void shouldStoreSharedPrefixOnlyOnce()
+    {
+        // given
+        TreeNodeDynamicSizePrefixCompressed<RawBytes,RawBytes> node = getNode( PAGE_SIZE, layout );
+        node.initializeLeaf( cursor, STABLE_GENERATION, UNSTABLE_GENERATION );
+        RawBytes value = layout.newValue();
+        value.bytes = new byte[0];
+        RawBytes first = keyWithPrefix( 'a', 1 );
+        node.insertKeyValueAt( cursor, first, value, 0, 0 );
+        int allocOffsetAfterFirst = node.getAllocOffset( cursor );
+
+        // when
+        RawBytes second = keyWithPrefix( 'a', 2 );
+        node.insertKeyValueAt( cursor, second, value, 1, 1 );
+        int allocOffsetAfterSecond = node.getAllocOffset( cursor );
+
+        // then the second key only stores the byte after the prefix, plus shared length and key/value size
+        assertEquals( PREFIX_LENGTH, TreeNodeDynamicSizePrefixCompressed.prefixLength( cursor ) );
+        int suffixLength = second.bytes.length - PREFIX_LENGTH;
+        assertEquals( allocOffsetAfterFirst - 1 - suffixLength - 1, allocOffsetAfterSecond );
+        assertKeyEquals( first, node.keyAt( cursor, layout.newKey(), 0, TreeNode.Type.LEAF ) );
+        assertKeyEquals( second, node.keyAt( cursor, layout.newKey(), 1, TreeNode.Type.LEAF ) );
+    }
+
+    @Test
+    public void shouldStoreFullKeyNotSharingPrefix()
+    {
+        // given
+        TreeNodeDynamicSizePrefixCompressed<RawBytes,RawBytes> node = getNode( PAGE_SIZE, layout );
+        node.initializeLeaf( cursor, STABLE_GENERATION, UNSTABLE_GENERATION );
+        RawBytes value = layout.newValue();
+        value.bytes = new byte[0];
+        RawBytes first = keyWithPrefix( 'a', 1 );
+        node.insertKeyValueAt( cursor, first, value, 0, 0 );
+
+        // when
+        RawBytes other = keyWithPrefix( 'b', 1 );
+        node.insertKeyValueAt( cursor, other, value, 1, 1 );
+
+        // then
+        assertKeyEquals( first, node.keyAt( cursor, layout.newKey(), 0, TreeNode.Type.LEAF ) );
+        assertKeyEquals( other, node.keyAt( cursor, layout.newKey(), 1, TreeNode.Type.LEAF ) );
+    }
+
+    @Test
+    public void shouldExtendPrefixOfBothHalvesOnSplit() throws IOException
+    {
+        // given a full leaf where only the first key has the prefix of the node
+        TreeNodeDynamicSizePrefixCompressed<RawBytes,RawBytes> node = getNode( PAGE_SIZE, layout );
+        node.initializeLeaf( cursor, STABLE_GENERATION, UNSTABLE_GENERATION );
+        RawBytes value = layout.newValue();
+        value.bytes = new byte[0];
+        int keyCount = 0;
+        RawBytes key = keyWithPrefix( 'a', keyCount );
+        while ( node.leafOverflow( cursor, keyCount, key, value ) == TreeNode.Overflow.NO )
+        {
+            node.insertKeyValueAt( cursor, key, value, keyCount, keyCount );
+            keyCount++;
+            key = keyWithPrefix( 'b', keyCount );
+        }
+        PageCursor rightCursor = new PageAwareByteArrayCursor( PAGE_SIZE );
+        rightCursor.next();
+        node.initializeLeaf( rightCursor, STABLE_GENERATION, UNSTABLE_GENERATION );
+
+        // when
+        node.doSplitLeaf( cursor, keyCount, rightCursor, keyCount, key, value, layout.newKey() );
+
+        // then
+        int leftKeyCount = TreeNode.keyCount( cursor );
+        int rightKeyCount = TreeNode.keyCount( rightCursor );
+        assertEquals( keyCount + 1, leftKeyCount + rightKeyCount );
+        for ( int i = 0; i < leftKeyCount; i++ )
+        {
+            assertKeyEquals( keyWithPrefix( i == 0 ? 'a' : 'b', i ), node.keyAt( cursor, layout.newKey(), i, TreeNode.Type.LEAF ) );
+        }
+        for ( int i = 0; i < rightKeyCount; i++ )
+        {
+            assertKeyEquals( keyWithPrefix( 'b', leftKeyCount + i ), node.keyAt( rightCursor, layout.newKey(), i, TreeNode.Type.LEAF ) );
+        }
+        // right half stores each key as shared length, one suffix byte, key/value size and key offset
+        int maxEntrySize = 1 + 1 + 1 + 2;
+        assertEquals( PREFIX_LENGTH, TreeNodeDynamicSizePrefixCompressed.prefixLength( rightCursor ) );
+        assertTrue( node.totalActiveSpace( rightCursor, rightKeyCount ) <= rightKeyCount * maxEntrySize );
+    }
+
+    private RawBytes keyWithPrefix( char prefixChar, long seed )
+    {
+        RawBytes key = layout.newKey();
+        key.bytes = new byte[PREFIX_LENGTH + 1];
+        Arrays.fill( key.bytes, 0, PREFIX_LENGTH, (byte) prefixChar );
+        key.bytes[PREFIX_LENGTH] = (byte) seed;
+        return key;
+    }
+
+    private static void assertKeyEquals( RawBytes expected, RawBytes actual )
+    {
+        assertArrayEquals( expected.bytes, actual.bytes );
+    }
+}
@@ -43,8 +43,6 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
 
-import org.neo4j.helpers.Exceptions;
-
 /**
  * Wraps a byte array and present it as a PageCursor.
  * <p>
@@ -324,7 +322,15 @@ public class ByteArrayPageCursor extends PageCursor
     @Override
     public void setCursorException( String message )
     {
-        cursorException = Exceptions.chain( cursorException, new CursorException( message ) );
+        CursorException exception = new CursorException( message );
+        if ( cursorException == null )
+        {
+            cursorException = exception;
+        }
+        else
+        {
+            cursorException.addSuppressed( exception );
+        }
     }
 
     @Override
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache;
+
+/**
+ * The policies a {@link PageCache} can use for picking the pages to evict, when it needs to make room for other pages.
+ * <p>
+ * All policies are driven by the same clock sweep, from the background eviction thread and from page faulting threads
+ * that evict cooperatively, but differ in how they use the usage counters of the pages to pick the pages to evict.
+ */
+public enum EvictionPolicy
+{
+    /**
+     * A plain clock: every pass of the clock arm decrements the usage counter of a page, and pages are evicted once
+     * their usage counter runs out. A large scan will eventually wear down the usage counters of all pages, and thus
+     * push out the working set of the rest of the system.
+     */
+    CLOCK,
+
+    /**
+     * A scan resistant clock, that splits the cache into a cold and a hot part, in the spirit of 2Q. Pages that have
+     * only been accessed once since they were faulted in are cold, and are evicted as the clock arm passes over them.
+     * Pages that have been accessed more than once are hot, and only age like in the {@link #CLOCK} policy while the
+     * hot pages take up more than their share of the cache. Pages that are faulted in and used only once, like the
+     * pages of a large scan, therefore only ever compete with other cold pages for space in the cache.
+     */
+    SCAN_RESISTANT
+}
@@ -81,9 +81,19 @@ public interface PagedFile extends AutoCloseable
      */
     int PF_NO_GROW = 1 << 2;
     /**
-     * Read-ahead hint for sequential forward scanning.
+     * Hint that the cursor will be used for sequential forward scanning.
+     * <p>
+     * When a read cursor opened with this flag faults in a page, the page cache will also try to fault in a number
+     * of the following pages of the file, using a single vectored read. Read-ahead is opportunistic: it only uses
+     * pages that are already free, never waits for page faults in progress by other threads, and stops at the first
+     * page that is already in memory, so it never causes evictions or delays the page fault of the page being pinned.
+     * Each page read ahead is reported to the {@link org.neo4j.io.pagecache.tracing.PageCacheTracer} as a page fault
+     * of its own.
+     * <p>
+     * Read cursors may also start reading ahead without this flag, once they observe a run of sequential pins.
+     * The flag is ignored for cursors that take write locks.
      */
-    int PF_READ_AHEAD = 1 << 3; // TBD
+    int PF_READ_AHEAD = 1 << 3;
     /**
      * Do not load in the page if it is not loaded already. The methods {@link PageCursor#next()} and
      * {@link PageCursor#next(long)} will always return {@code true} for pages that are within the range of the file,
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import org.neo4j.io.pagecache.EvictionPolicy;
+
+/**
+ * The part of an {@link EvictionPolicy} that is consulted by the clock sweep, for every loaded page it passes over.
+ */
+interface EvictionSelector
+{
+    /**
+     * Age the given page, and decide if it should be evicted.
+     *
+     * @param pageRef the loaded page that the clock arm is passing over.
+     * @param force {@code true} if the sweep has already passed over all pages without finding any to evict, in which
+     * case no page should be protected from aging.
+     * @return {@code true} if an attempt should be made at evicting the page.
+     */
+    boolean shouldEvict( long pageRef, boolean force );
+
+    /**
+     * @param policy the {@link EvictionPolicy} to create a selector for.
+     * @param pages the pages of the page cache that the selector will be consulted about.
+     * @return a new {@link EvictionSelector} implementing the given policy.
+     */
+    static EvictionSelector forPolicy( EvictionPolicy policy, PageList pages )
+    {
+        switch ( policy )
+        {
+        case CLOCK:
+            return ( pageRef, force ) -> pages.decrementUsage( pageRef );
+        case SCAN_RESISTANT:
+            return new ScanResistantEvictionSelector( pages );
+        default:
+            throw new IllegalArgumentException( "Unknown eviction policy " + policy );
+        }
+    }
+}
@@ -39,22 +39,25 @@
 package org.neo4j.io.pagecache.impl.muninn;
 
 /**
- * This Runnable runs the eviction algorithm. Only one is expected for each page cache.
+ * This Runnable runs the eviction algorithm. Only one is expected for each region of a page cache.
  *
  * Interrupting the thread running this runnable, will be interpreted as a shutdown signal.
  *
- * @see MuninnPageCache#continuouslySweepPages()
+ * @see MuninnPageCache#continuouslySweepPages(PageRegion)
  */
 final class EvictionTask extends BackgroundTask
 {
-    EvictionTask( MuninnPageCache pageCache )
+    private final PageRegion region;
+
+    EvictionTask( MuninnPageCache pageCache, PageRegion region )
     {
         super( pageCache );
+        this.region = region;
     }
 
     @Override
     protected void run( MuninnPageCache pageCache )
     {
-        pageCache.continuouslySweepPages();
+        pageCache.continuouslySweepPages( region );
     }
 }
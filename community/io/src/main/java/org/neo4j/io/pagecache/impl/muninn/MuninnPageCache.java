@@ -52,11 +52,11 @@ import java.util.concurrent.Executor;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.locks.LockSupport;
 
 import org.neo4j.io.fs.DefaultFileSystemAbstraction;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.mem.MemoryAllocator;
+import org.neo4j.io.pagecache.EvictionPolicy;
 import org.neo4j.io.pagecache.IOLimiter;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.PageCacheOpenOptions;
@@ -140,6 +140,15 @@ public class MuninnPageCache implements PageCache
     private static final int pagesToKeepFree = getInteger(
             MuninnPageCache.class, "pagesToKeepFree", 30 );
 
+    // The number of regions the pages are partitioned into. Every region has its own freelist and its own background
+    // eviction thread, so that eviction throughput can grow with the number of cores.
+    private static final int evictionRegions = getInteger(
+            MuninnPageCache.class, "evictionRegions", Math.max( 1, Runtime.getRuntime().availableProcessors() / 4 ) );
+
+    // Regions are never made smaller than this, so that small page caches only have a single region.
+    private static final int minPagesPerRegion = getInteger(
+            MuninnPageCache.class, "minPagesPerRegion", 16384 );
+
     // This is how many times that, during cooperative eviction, we'll iterate through the entire set of pages looking
     // for a page to evict, before we give up and throw CacheLiveLockException. This MUST be greater than 1.
     private static final int cooperativeEvictionLiveLockThreshold = getInteger(
@@ -150,10 +159,6 @@ public class MuninnPageCache implements PageCache
     private static final IOException oomException = new IOException(
             "OutOfMemoryError encountered in the page cache background eviction thread" );
 
-    // The field offset to unsafely access the freelist field.
-    private static final long freelistOffset =
-            UnsafeUtil.getFieldOffset( MuninnPageCache.class, "freelist" );
-
     // This is used as a poison-pill signal in the freelist, to inform any
     // page faulting thread that it is now no longer possible to queue up and
     // wait for more pages to be evicted, because the page cache has been shut
@@ -180,37 +185,22 @@ public class MuninnPageCache implements PageCache
     private final int pageCacheId;
     private final PageSwapperFactory swapperFactory;
     private final int cachePageSize;
-    private final int keepFree;
     private final PageCacheTracer pageCacheTracer;
     private final PageCursorTracerSupplier pageCursorTracerSupplier;
     private final VersionContextSupplier versionContextSupplier;
     final PageList pages;
+    final EvictionSelector evictionSelector;
+    // The pages are partitioned into regions, each with their own freelist and eviction thread.
+    final PageRegion[] regions;
+    private final int pagesPerRegion;
     // All PageCursors are initialised with their pointers pointing to the victim page. This way, we don't have to throw
     // exceptions on bounds checking failures; we can instead return the victim page pointer, and permit the page
     // accesses to take place without fear of segfaulting newly allocated cursors.
     final long victimPage;
 
-    // The freelist is a thread-safe linked-list of FreePage objects, or an AtomicInteger, or null.
-    // Initially, the field is an AtomicInteger that counts from zero to the max page count, at which point all of the
-    // pages have been put in use. Once this happens, the field is set to null to allow the background eviction thread
-    // to start its work. From that point on, the field will operate as a concurrent stack of FreePage objects. The
-    // eviction thread pushes newly freed FreePage objects onto the stack, and page faulting threads pops FreePage
-    // objects from the stack. The FreePage objects are single-use, to avoid running into the ABA-problem.
-    @SuppressWarnings( "unused" ) // This field is accessed via Unsafe.
-    private volatile Object freelist;
-
     // Linked list of mappings - guarded by synchronized(this)
     private volatile FileMapping mappedFiles;
 
-    // The thread that runs the eviction algorithm. We unpark this when we've run out of
-    // free pages to grab.
-    private volatile Thread evictionThread;
-    // True if the eviction thread is currently parked, without someone having
-    // signalled it to wake up. This is used as a weak guard for unparking the
-    // eviction thread, because calling unpark too much (from many page
-    // faulting threads) can cause contention on the locks protecting that
-    // threads scheduling meta-data in the OS kernel.
-    private volatile boolean evictorParked;
     private volatile IOException evictorException;
 
     // Flag for when page cache is closed - writes guarded by synchronized(this), reads can be unsynchronized
@@ -274,7 +264,31 @@ public class MuninnPageCache implements PageCache
             PageCursorTracerSupplier pageCursorTracerSupplier,
             VersionContextSupplier versionContextSupplier )
     {
-        this( swapperFactory, memoryAllocator, PAGE_SIZE, pageCacheTracer, pageCursorTracerSupplier, versionContextSupplier );
+        this( swapperFactory, memoryAllocator, pageCacheTracer, pageCursorTracerSupplier, versionContextSupplier,
+                EvictionPolicy.CLOCK );
+    }
+
+    /**
+     * Create page cache.
+     * @param swapperFactory page cache swapper factory
+     * @param memoryAllocator the source of native memory the page cache should use
+     * @param pageCacheTracer global page cache tracer
+     * @param pageCursorTracerSupplier supplier of thread local (transaction local) page cursor tracer that will provide
+     * thread local page cache statistics
+     * @param versionContextSupplier supplier of thread local (transaction local) version context that will provide
+     *        access to thread local version context
+     * @param evictionPolicy the policy that decides which pages to evict when the page cache needs free pages
+     */
+    public MuninnPageCache(
+            PageSwapperFactory swapperFactory,
+            MemoryAllocator memoryAllocator,
+            PageCacheTracer pageCacheTracer,
+            PageCursorTracerSupplier pageCursorTracerSupplier,
+            VersionContextSupplier versionContextSupplier,
+            EvictionPolicy evictionPolicy )
+    {
+        this( swapperFactory, memoryAllocator, PAGE_SIZE, pageCacheTracer, pageCursorTracerSupplier, versionContextSupplier,
+                evictionPolicy );
     }
 
     /**
@@ -290,6 +304,43 @@ public class MuninnPageCache implements PageCache
             PageCacheTracer pageCacheTracer,
             PageCursorTracerSupplier pageCursorTracerSupplier,
             VersionContextSupplier versionContextSupplier )
+    {
+        this( swapperFactory, memoryAllocator, cachePageSize, pageCacheTracer, pageCursorTracerSupplier, versionContextSupplier,
+                EvictionPolicy.CLOCK );
+    }
+
+    /**
+     * Constructor variant that allows setting a non-standard cache page size.
+     * Only ever use this for testing.
+     */
+    @SuppressWarnings( "DeprecatedIsStillUsed" )
+    @Deprecated
+    public MuninnPageCache(
+            PageSwapperFactory swapperFactory,
+            MemoryAllocator memoryAllocator,
+            int cachePageSize,
+            PageCacheTracer pageCacheTracer,
+            PageCursorTracerSupplier pageCursorTracerSupplier,
+            VersionContextSupplier versionContextSupplier,
+            EvictionPolicy evictionPolicy )
+    {
+        this( swapperFactory, memoryAllocator, cachePageSize, pageCacheTracer, pageCursorTracerSupplier, versionContextSupplier,
+                evictionPolicy, 0 );
+    }
+
+    /**
+     * Constructor variant that allows setting the number of eviction regions, where 0 means that the number of regions
+     * is derived from the number of pages and available processors. Only ever use this for testing.
+     */
+    MuninnPageCache(
+            PageSwapperFactory swapperFactory,
+            MemoryAllocator memoryAllocator,
+            int cachePageSize,
+            PageCacheTracer pageCacheTracer,
+            PageCursorTracerSupplier pageCursorTracerSupplier,
+            VersionContextSupplier versionContextSupplier,
+            EvictionPolicy evictionPolicy,
+            int regionCount )
     {
         verifyHacks();
         verifyCachePageSizeIsPowerOfTwo( cachePageSize );
@@ -302,7 +353,6 @@ public class MuninnPageCache implements PageCache
         this.pageCacheId = pageCacheIdCounter.incrementAndGet();
         this.swapperFactory = swapperFactory;
         this.cachePageSize = cachePageSize;
-        this.keepFree = Math.min( pagesToKeepFree, maxPages / 2 );
         this.pageCacheTracer = pageCacheTracer;
         this.pageCursorTracerSupplier = pageCursorTracerSupplier;
         this.versionContextSupplier = versionContextSupplier;
@@ -310,8 +360,31 @@ public class MuninnPageCache implements PageCache
         long alignment = swapperFactory.getRequiredBufferAlignment();
         this.victimPage = VictimPageReference.getVictimPage( cachePageSize, memoryTracker );
         this.pages = new PageList( maxPages, cachePageSize, memoryAllocator, new SwapperSet(), victimPage, alignment );
+        this.evictionSelector = EvictionSelector.forPolicy( evictionPolicy, pages );
+        this.regions = createRegions( maxPages, regionCount == 0 ? calculateRegionCount( maxPages ) : regionCount );
+        this.pagesPerRegion = regions[0].pageCount;
+    }
 
-        setFreelistHead( new AtomicInteger() );
+    private static int calculateRegionCount( int maxPages )
+    {
+        return Math.max( 1, Math.min( evictionRegions, maxPages / minPagesPerRegion ) );
+    }
+
+    private static PageRegion[] createRegions( int maxPages, int regionCount )
+    {
+        // Every region must have room for at least two pages, and all but the last region have the same size.
+        regionCount = Math.max( 1, Math.min( regionCount, maxPages / 2 ) );
+        int pagesPerRegion = (maxPages + regionCount - 1) / regionCount;
+        regionCount = (maxPages + pagesPerRegion - 1) / pagesPerRegion;
+        PageRegion[] regions = new PageRegion[regionCount];
+        for ( int i = 0; i < regionCount; i++ )
+        {
+            int firstPageId = i * pagesPerRegion;
+            int pageCount = Math.min( pagesPerRegion, maxPages - firstPageId );
+            int keepFree = Math.min( pagesToKeepFree, Math.max( 1, pageCount / 2 ) );
+            regions[i] = new PageRegion( i, firstPageId, pageCount, keepFree );
+        }
+        return regions;
     }
 
     private static void verifyHacks()
@@ -507,7 +580,10 @@ public class MuninnPageCache implements PageCache
 
         try
         {
-            backgroundThreadExecutor.execute( new EvictionTask( this ) );
+            for ( PageRegion region : regions )
+            {
+                backgroundThreadExecutor.execute( new EvictionTask( this, region ) );
+            }
         }
         catch ( Exception e )
         {
@@ -671,8 +747,11 @@ public class MuninnPageCache implements PageCache
 
         closed = true;
 
-        interrupt( evictionThread );
-        evictionThread = null;
+        for ( PageRegion region : regions )
+        {
+            interrupt( region.evictionThread );
+            region.evictionThread = null;
+        }
 
         // Close the page swapper factory last. If this fails then we will still consider ourselves closed.
         swapperFactory.close();
@@ -749,52 +828,109 @@ public class MuninnPageCache implements PageCache
 
     long grabFreeAndExclusivelyLockedPage( PageFaultEvent faultEvent ) throws IOException
     {
-        // Review the comment on the freelist field before making changes to
+        // Review the comment on the PageRegion.freelist field before making changes to
         // this part of the code.
-        // Whatever the case, we're going to the head-pointer of the freelist,
+        // We first look for a free page in the freelist of our local region, and then in the freelists of the other
+        // regions. Whatever the case, we're going to the head-pointer of a freelist,
         // and in doing so, we can discover a number of things.
-        // We can discover a MuninnPage object, in which case we can try to
-        // CAS the freelist pointer to the value of the MuninnPage.nextFree
-        // pointer, and if this succeeds then we've grabbed that page.
-        // We can discover a FreePage object, in which case we'll do a similar
-        // dance by attempting to CAS the freelist to the FreePage objects next
-        // pointer, and again, if we succeed then we've grabbed the MuninnPage
+        // We can discover an AtomicInteger, in which case not all pages of the region have been
+        // put to use yet, and we try to CAS the counter to grab the next unused page.
+        // We can discover a FreePage object, in which case we'll attempt to CAS the freelist to the FreePage objects
+        // next pointer, and if we succeed then we've grabbed the MuninnPage
         // given by the FreePage object.
         // We can discover a null-pointer, in which case the freelist has just
         // been emptied for whatever it contained before. New FreePage objects
         // are eventually going to be added to the freelist, but we are not
-        // going to wait around for that to happen. If the freelist is empty,
-        // then we do our own eviction to get a free page.
+        // going to wait around for that to happen. If all the freelists are empty,
+        // then we do our own eviction to get a free page, starting from our local region.
         // If we find a FreePage object on the freelist, then it is important
         // to check and see if it is the shutdownSignal instance. If that's the
         // case, then the page cache has been shut down, and we should throw an
         // exception from our page fault routine.
-        Object current;
+        PageRegion region = localRegion();
         for (;;)
         {
             assertHealthy();
-            current = getFreelistHead();
+            long pageRef = grabFreePage( region, true );
+            if ( pageRef != 0 )
+            {
+                return pageRef;
+            }
+            region.unparkEvictor();
+            pageRef = stealFreePage( region, true );
+            if ( pageRef != 0 )
+            {
+                return pageRef;
+            }
+            pageRef = cooperativelyEvict( region, faultEvent );
+            if ( pageRef != 0 )
+            {
+                return pageRef;
+            }
+        }
+    }
+
+    /**
+     * Grab a free page, but only if one is readily available. Unlike {@link #grabFreeAndExclusivelyLockedPage},
+     * this method never evicts any pages, and returns 0 if there are no free pages.
+     */
+    long tryGrabFreeAndExclusivelyLockedPage()
+    {
+        PageRegion region = localRegion();
+        long pageRef = grabFreePage( region, false );
+        if ( pageRef == 0 )
+        {
+            region.unparkEvictor();
+            pageRef = stealFreePage( region, false );
+        }
+        return pageRef;
+    }
+
+    private PageRegion localRegion()
+    {
+        PageRegion[] regions = this.regions;
+        return regions.length == 1 ? regions[0] : regions[(int) (Thread.currentThread().getId() % regions.length)];
+    }
+
+    PageRegion regionOf( long pageRef )
+    {
+        return regions[pages.toId( pageRef ) / pagesPerRegion];
+    }
+
+    private long stealFreePage( PageRegion localRegion, boolean throwOnShutdown )
+    {
+        PageRegion[] regions = this.regions;
+        for ( int i = 1; i < regions.length; i++ )
+        {
+            long pageRef = grabFreePage( regions[(localRegion.index + i) % regions.length], throwOnShutdown );
+            if ( pageRef != 0 )
+            {
+                return pageRef;
+            }
+        }
+        return 0;
+    }
+
+    private long grabFreePage( PageRegion region, boolean throwOnShutdown )
+    {
+        for (;;)
+        {
+            Object current = region.getFreelistHead();
             if ( current == null )
             {
-                unparkEvictor();
-                long pageRef = cooperativelyEvict( faultEvent );
-                if ( pageRef != 0 )
-                {
-                    return pageRef;
-                }
+                return 0;
             }
             else if ( current instanceof AtomicInteger )
             {
-                int pageCount = pages.getPageCount();
                 AtomicInteger counter = (AtomicInteger) current;
-                int pageId = counter.get();
-                if ( pageId < pageCount && counter.compareAndSet( pageId, pageId + 1 ) )
+                int pageIndex = counter.get();
+                if ( pageIndex < region.pageCount && counter.compareAndSet( pageIndex, pageIndex + 1 ) )
                 {
-                    return pages.deref( pageId );
+                    return pages.deref( region.firstPageId + pageIndex );
                 }
-                if ( pageId >= pageCount )
+                if ( pageIndex >= region.pageCount )
                 {
-                    compareAndSetFreelistHead( current, null );
+                    region.compareAndSetFreelistHead( current, null );
                 }
             }
             else if ( current instanceof FreePage )
@@ -802,10 +938,14 @@ public class MuninnPageCache implements PageCache
                 FreePage freePage = (FreePage) current;
                 if ( freePage == shutdownSignal )
                 {
-                    throw new IllegalStateException( "The PageCache has been shut down." );
+                    if ( throwOnShutdown )
+                    {
+                        throw new IllegalStateException( "The PageCache has been shut down." );
+                    }
+                    return 0;
                 }
 
-                if ( compareAndSetFreelistHead( freePage, freePage.next ) )
+                if ( region.compareAndSetFreelistHead( freePage, freePage.next ) )
                 {
                     return freePage.pageRef;
                 }
@@ -813,17 +953,19 @@ public class MuninnPageCache implements PageCache
         }
     }
 
-    private long cooperativelyEvict( PageFaultEvent faultEvent ) throws IOException
+    private long cooperativelyEvict( PageRegion region, PageFaultEvent faultEvent ) throws IOException
     {
+        // We sweep through all the pages in the cache, but start at a random page in our local region.
         int iterations = 0;
+        long pagesSwept = 0;
         int pageCount = pages.getPageCount();
-        int clockArm = ThreadLocalRandom.current().nextInt( pageCount );
+        int clockArm = region.firstPageId + ThreadLocalRandom.current().nextInt( region.pageCount );
         boolean evicted = false;
         long pageRef;
         do
         {
             assertHealthy();
-            if ( getFreelistHead() != null )
+            if ( region.getFreelistHead() != null )
             {
                 return 0;
             }
@@ -839,7 +981,9 @@ public class MuninnPageCache implements PageCache
             }
 
             pageRef = pages.deref( clockArm );
-            if ( pages.isLoaded( pageRef ) && pages.decrementUsage( pageRef ) )
+            // Once we have passed over every page without luck, let the policy know that it must not hold any back.
+            boolean force = ++pagesSwept > pageCount;
+            if ( pages.isLoaded( pageRef ) && evictionSelector.shouldEvict( pageRef, force ) )
             {
                 evicted = pages.tryEvict( pageRef, faultEvent );
             }
@@ -864,89 +1008,75 @@ public class MuninnPageCache implements PageCache
                 "your database." );
     }
 
-    private void unparkEvictor()
-    {
-        if ( evictorParked )
-        {
-            evictorParked = false;
-            LockSupport.unpark( evictionThread );
-        }
-    }
-
-    private void parkEvictor( long parkNanos )
-    {
-        // Only called from the background eviction thread!
-        evictorParked = true;
-        LockSupport.parkNanos( this, parkNanos );
-        evictorParked = false;
-    }
-
-    private Object getFreelistHead()
-    {
-        return UnsafeUtil.getObjectVolatile( this, freelistOffset );
-    }
-
-    private boolean compareAndSetFreelistHead( Object expected, Object update )
-    {
-        return UnsafeUtil.compareAndSwapObject(
-                this, freelistOffset, expected, update );
-    }
-
-    private void setFreelistHead( Object newFreelistHead )
-    {
-        UnsafeUtil.putObjectVolatile( this, freelistOffset, newFreelistHead );
-    }
-
     /**
-     * Scan through all the pages, one by one, and decrement their usage stamps.
-     * If a usage reaches zero, we try-write-locking it, and if we get that lock,
+     * Scan through all the pages of the given region, one by one, and let the eviction policy age them.
+     * If the policy selects a page for eviction, we try-write-locking it, and if we get that lock,
      * we evict the page. If we don't, we move on to the next page.
-     * Once we have enough free pages, we park our thread. Page-faulting will
+     * Once the region has enough free pages, we park our thread. Page-faulting will
      * unpark our thread as needed.
      */
-    void continuouslySweepPages()
+    void continuouslySweepPages( PageRegion region )
     {
-        evictionThread = Thread.currentThread();
-        int clockArm = 0;
+        region.evictionThread = Thread.currentThread();
+        int clockArm = region.firstPageId;
 
         while ( !closed )
         {
-            int pageCountToEvict = parkUntilEvictionRequired( keepFree );
+            int pageCountToEvict = parkUntilEvictionRequired( region );
             try ( EvictionRunEvent evictionRunEvent = pageCacheTracer.beginPageEvictions( pageCountToEvict ) )
             {
-                clockArm = evictPages( pageCountToEvict, clockArm, evictionRunEvent );
+                clockArm = evictPages( region, pageCountToEvict, clockArm, evictionRunEvent );
             }
         }
 
         // The last thing we do, is signalling the shutdown of the cache via
         // the freelist. This signal is looked out for in grabFreePage.
-        setFreelistHead( shutdownSignal );
+        region.setFreelistHead( shutdownSignal );
     }
 
-    private int parkUntilEvictionRequired( int keepFree )
+    private int parkUntilEvictionRequired( PageRegion region )
     {
-        // Park until we're either interrupted, or the number of free pages drops
+        // Park until we're either interrupted, or the number of free pages in the region drops
         // bellow keepFree.
         long parkNanos = TimeUnit.MILLISECONDS.toNanos( 10 );
         for (;;)
         {
-            parkEvictor( parkNanos );
+            region.parkEvictor( this, parkNanos );
             if ( Thread.interrupted() || closed )
             {
                 return 0;
             }
 
-            int availablePages = tryGetNumberOfAvailablePages( keepFree );
-            if ( availablePages != UNKNOWN_AVAILABLE_PAGES )
+            int availablePages = tryGetNumberOfAvailablePages( region );
+            if ( availablePages != UNKNOWN_AVAILABLE_PAGES && !hasUnusedPages() )
             {
                 return availablePages;
             }
         }
     }
 
-    private int tryGetNumberOfAvailablePages( int keepFree )
+    /**
+     * @return {@code true} if any region still has more than its keepFree of pages that have never been put to use.
+     * Faulting threads will grab those pages from the other regions, so there is no need to evict anything yet.
+     */
+    private boolean hasUnusedPages()
+    {
+        for ( PageRegion region : regions )
+        {
+            Object freelistHead = region.getFreelistHead();
+            if ( freelistHead instanceof AtomicInteger &&
+                 region.pageCount - ((AtomicInteger) freelistHead).get() > region.keepFree )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int tryGetNumberOfAvailablePages( PageRegion region )
     {
-        Object freelistHead = getFreelistHead();
+        Object freelistHead = region.getFreelistHead();
+        int keepFree = region.keepFree;
 
         if ( freelistHead == null )
         {
@@ -963,7 +1093,7 @@ public class MuninnPageCache implements PageCache
         else if ( freelistHead.getClass() == AtomicInteger.class )
         {
             AtomicInteger counter = (AtomicInteger) freelistHead;
-            long count = pages.getPageCount() - counter.get();
+            long count = region.pageCount - counter.get();
             if ( count < keepFree )
             {
                 return count < 0 ? keepFree : (int) (keepFree - count);
@@ -972,13 +1102,15 @@ public class MuninnPageCache implements PageCache
         return UNKNOWN_AVAILABLE_PAGES;
     }
 
-    int evictPages( int pageCountToEvict, int clockArm, EvictionRunEvent evictionRunEvent )
+    int evictPages( PageRegion region, int pageCountToEvict, int clockArm, EvictionRunEvent evictionRunEvent )
     {
+        int endPageId = region.endPageId();
+        long pagesSwept = 0;
         while ( pageCountToEvict > 0 && !closed )
         {
-            if ( clockArm == pages.getPageCount() )
+            if ( clockArm == endPageId )
             {
-                clockArm = 0;
+                clockArm = region.firstPageId;
             }
 
             if ( closed )
@@ -988,7 +1120,9 @@ public class MuninnPageCache implements PageCache
             }
 
             long pageRef = pages.deref( clockArm );
-            if ( pages.isLoaded( pageRef ) && pages.decrementUsage( pageRef ) )
+            // If the policy has held back every page in the region, then it must not hold any back on the next pass.
+            boolean force = ++pagesSwept > region.pageCount;
+            if ( pages.isLoaded( pageRef ) && evictionSelector.shouldEvict( pageRef, force ) )
             {
                 try
                 {
@@ -996,7 +1130,7 @@ public class MuninnPageCache implements PageCache
                     if ( pages.tryEvict( pageRef, evictionRunEvent ) )
                     {
                         clearEvictorException();
-                        addFreePageToFreelist( pageRef );
+                        addFreePageToFreelist( region, pageRef );
                     }
                 }
                 catch ( IOException e )
@@ -1021,19 +1155,24 @@ public class MuninnPageCache implements PageCache
     }
 
     void addFreePageToFreelist( long pageRef )
+    {
+        addFreePageToFreelist( regionOf( pageRef ), pageRef );
+    }
+
+    private void addFreePageToFreelist( PageRegion region, long pageRef )
     {
         Object current;
         FreePage freePage = new FreePage( pageRef );
         do
         {
-            current = getFreelistHead();
-            if ( current instanceof AtomicInteger && ((AtomicInteger) current).get() > pages.getPageCount() )
+            current = region.getFreelistHead();
+            if ( current instanceof AtomicInteger && ((AtomicInteger) current).get() > region.pageCount )
             {
                 current = null;
             }
             freePage.setNext( current );
         }
-        while ( !compareAndSetFreelistHead( current, freePage ) );
+        while ( !region.compareAndSetFreelistHead( current, freePage ) );
     }
 
     void clearEvictorException()
@@ -1047,14 +1186,39 @@ public class MuninnPageCache implements PageCache
     @Override
     public String toString()
     {
-        int availablePages = tryGetNumberOfAvailablePages( keepFree );
-        return format( "%s[pageCacheId:%d, pageSize:%d, pages:%d, availablePages:%s]", getClass().getSimpleName(),
-                pageCacheId, cachePageSize, pages.getPageCount(), availablePages != UNKNOWN_AVAILABLE_PAGES ? String.valueOf( availablePages ) : "N/A" );
+        int availablePages = UNKNOWN_AVAILABLE_PAGES;
+        for ( PageRegion region : regions )
+        {
+            int regionAvailablePages = tryGetNumberOfAvailablePages( region );
+            if ( regionAvailablePages != UNKNOWN_AVAILABLE_PAGES )
+            {
+                availablePages = Math.max( availablePages, 0 ) + regionAvailablePages;
+            }
+        }
+        return format( "%s[pageCacheId:%d, pageSize:%d, pages:%d, regions:%d, availablePages:%s]", getClass().getSimpleName(),
+                pageCacheId, cachePageSize, pages.getPageCount(), regions.length,
+                availablePages != UNKNOWN_AVAILABLE_PAGES ? String.valueOf( availablePages ) : "N/A" );
+    }
+
+    /**
+     * @return {@code true} if no region has built its freelist yet, i.e. every freelist still hands out the pages
+     * that have never been used, from its initial counter.
+     */
+    private boolean allFreelistsUnbuilt()
+    {
+        for ( PageRegion region : regions )
+        {
+            if ( !(region.getFreelistHead() instanceof AtomicInteger) )
+            {
+                return false;
+            }
+        }
+        return true;
     }
 
     void vacuum( SwapperSet swappers )
     {
-        if ( getFreelistHead() instanceof AtomicInteger && swappers.countAvailableIds() > 200 )
+        if ( allFreelistsUnbuilt() && swappers.countAvailableIds() > 200 )
         {
             return; // We probably still have plenty of free pages left. Don't bother vacuuming just yet.
         }
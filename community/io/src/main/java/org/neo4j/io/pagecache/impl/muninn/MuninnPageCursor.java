@@ -57,9 +57,11 @@ import org.neo4j.unsafe.impl.internal.dragons.UnsafeUtil;
 
 import static org.neo4j.io.pagecache.PagedFile.PF_EAGER_FLUSH;
 import static org.neo4j.io.pagecache.PagedFile.PF_NO_FAULT;
+import static org.neo4j.io.pagecache.PagedFile.PF_READ_AHEAD;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
 import static org.neo4j.io.pagecache.impl.muninn.MuninnPagedFile.UNMAPPED_TTE;
 import static org.neo4j.util.FeatureToggles.flag;
+import static org.neo4j.util.FeatureToggles.getInteger;
 
 abstract class MuninnPageCursor extends PageCursor
 {
@@ -68,6 +70,16 @@ abstract class MuninnPageCursor extends PageCursor
 
     private static final boolean boundsCheck = flag( MuninnPageCursor.class, "boundsCheck", true );
 
+    // The number of pages following a faulted page, that a read cursor will try to fault in along with it, in the
+    // same vectored read, when it is reading sequentially. Read-ahead only ever uses pages that are already free, and
+    // stops at the first page that is already in memory or is being faulted in by someone else.
+    private static final int readAheadPages = getInteger( MuninnPageCursor.class, "readAheadPages", 8 );
+
+    // The number of pins of consecutive file pages after which a read cursor is considered to be reading sequentially,
+    // and starts reading ahead, even when it was not opened with PF_READ_AHEAD.
+    private static final int sequentialPinsBeforeReadAhead =
+            getInteger( MuninnPageCursor.class, "sequentialPinsBeforeReadAhead", 4 );
+
     // Size of the respective primitive types in bytes.
     private static final int SIZE_OF_BYTE = Byte.BYTES;
     private static final int SIZE_OF_SHORT = Short.BYTES;
@@ -96,6 +108,15 @@ abstract class MuninnPageCursor extends PageCursor
     private int offset;
     private boolean outOfBounds;
     private boolean isLinkedCursor;
+    private boolean readAheadRequested;
+    private long lastPinnedPageId;
+    private int sequentialPins;
+    // Scratch space for read-ahead, allocated on first use. Index 0 is the page being faulted on behalf of the cursor.
+    private long[] readAheadPageRefs;
+    private long[] readAheadBufferAddresses;
+    private LatchMap.Latch[] readAheadLatches;
+    private int[][] readAheadChunks;
+    private long[] readAheadChunkOffsets;
     // This is a String with the exception message if usePreciseCursorErrorStackTraces is false, otherwise it is a
     // CursorExceptionWithPreciseStackTrace with the message and stack trace pointing more or less directly at the
     // offending code.
@@ -120,6 +141,9 @@ abstract class MuninnPageCursor extends PageCursor
         this.eagerFlush = isFlagRaised( pf_flags, PF_EAGER_FLUSH );
         this.noFault = isFlagRaised( pf_flags, PF_NO_FAULT );
         this.noGrow = noFault | isFlagRaised( pf_flags, PagedFile.PF_NO_GROW );
+        this.readAheadRequested = isFlagRaised( pf_flags, PF_READ_AHEAD );
+        this.lastPinnedPageId = UNBOUND_PAGE_ID;
+        this.sequentialPins = 0;
     }
 
     private boolean isFlagRaised( int flagSet, int flag )
@@ -283,6 +307,11 @@ abstract class MuninnPageCursor extends PageCursor
     protected void pin( long filePageId, boolean writeLock ) throws IOException
     {
         pinEvent = tracer.beginPin( writeLock, filePageId, swapper );
+        if ( filePageId != lastPinnedPageId )
+        {
+            sequentialPins = filePageId == lastPinnedPageId + 1 ? sequentialPins + 1 : 0;
+            lastPinnedPageId = filePageId;
+        }
         int chunkId = MuninnPagedFile.computeChunkId( filePageId );
         // The chunkOffset is the addressing offset into the chunk array object for the relevant array slot. Using
         // this, we can access the array slot with Unsafe.
@@ -324,7 +353,7 @@ abstract class MuninnPageCursor extends PageCursor
             }
             else
             {
-                if ( uncommonPin( filePageId, chunkOffset, chunk ) )
+                if ( uncommonPin( filePageId, chunkOffset, chunk, writeLock ) )
                 {
                     return;
                 }
@@ -337,7 +366,7 @@ abstract class MuninnPageCursor extends PageCursor
         return pagedFile.expandCapacity( chunkId );
     }
 
-    private boolean uncommonPin( long filePageId, long chunkOffset, int[] chunk ) throws IOException
+    private boolean uncommonPin( long filePageId, long chunkOffset, int[] chunk, boolean writeLock ) throws IOException
     {
         if ( noFault )
         {
@@ -356,7 +385,7 @@ abstract class MuninnPageCursor extends PageCursor
             if ( UnsafeUtil.getIntVolatile( chunk, chunkOffset ) == UNMAPPED_TTE )
             {
                 // Sweet, we didn't race with any other fault on this translation table entry.
-                long pageRef = pageFault( filePageId, swapper, chunkOffset, chunk, latch );
+                long pageRef = pageFault( filePageId, swapper, chunkOffset, chunk, latch, shouldReadAhead( writeLock ) );
                 pinCursorToPage( pageRef, filePageId, swapper );
                 return true;
             }
@@ -370,8 +399,13 @@ abstract class MuninnPageCursor extends PageCursor
         return false;
     }
 
+    private boolean shouldReadAhead( boolean writeLock )
+    {
+        return !writeLock && readAheadPages > 0 && (readAheadRequested || sequentialPins >= sequentialPinsBeforeReadAhead);
+    }
+
     private long pageFault(
-            long filePageId, PageSwapper swapper, long chunkOffset, int[] chunk, LatchMap.Latch latch )
+            long filePageId, PageSwapper swapper, long chunkOffset, int[] chunk, LatchMap.Latch latch, boolean readAhead )
             throws IOException
     {
         // We are page faulting. This is a critical time, because we currently have the given latch in the chunk array
@@ -399,18 +433,33 @@ abstract class MuninnPageCursor extends PageCursor
             abortPageFault( throwable, chunk, chunkOffset, latch, faultEvent );
             throw throwable;
         }
+        int readAheadCount = 0;
         try
         {
             // Check if we're racing with unmapping. We have the page lock
             // here, so the unmapping would have already happened. We do this
             // check before page.fault(), because that would otherwise reopen
             // the file channel.
-            assertPagedFileStillMappedAndGetIdOfLastPage();
+            long lastPageId = assertPagedFileStillMappedAndGetIdOfLastPage();
             pagedFile.initBuffer( pageRef );
-            pagedFile.fault( pageRef, swapper, pagedFile.swapperId, filePageId, faultEvent );
+            if ( readAhead )
+            {
+                readAheadCount = reserveReadAheadPages( filePageId, lastPageId );
+            }
+            if ( readAheadCount == 0 )
+            {
+                pagedFile.fault( pageRef, swapper, pagedFile.swapperId, filePageId, faultEvent );
+            }
+            else
+            {
+                readAheadPageRefs[0] = pageRef;
+                pagedFile.fault( readAheadPageRefs, readAheadBufferAddresses, readAheadCount + 1, swapper,
+                        pagedFile.swapperId, filePageId, faultEvent );
+            }
         }
         catch ( Throwable throwable )
         {
+            abortReadAhead( readAheadCount );
             // Make sure to unlock the page, so the eviction thread can pick up our trash.
             pagedFile.unlockExclusive( pageRef );
             // Make sure to unstuck the page fault latch.
@@ -420,14 +469,127 @@ abstract class MuninnPageCursor extends PageCursor
         // Put the page in the translation table before we undo the exclusive lock, as we could otherwise race with
         // eviction, and the onEvict callback expects to find a MuninnPage object in the table.
         UnsafeUtil.putIntVolatile( chunk, chunkOffset, pagedFile.toId( pageRef ) );
+        publishReadAheadPages( readAheadCount );
         // Once we page has been published to the translation table, we can convert our exclusive lock to whatever we
         // need for the page cursor.
         convertPageFaultLock( pageRef );
         latch.release();
         faultEvent.done();
+        traceReadAheadPages( readAheadCount );
         return pageRef;
     }
 
+    /**
+     * Reserve the pages following the given file page for read-ahead, by taking their page fault latches and grabbing
+     * free pages for them. The reservation stops at the first file page that cannot be reserved without waiting or
+     * evicting, so that the reserved pages always follow the given file page without gaps.
+     *
+     * @return the number of reserved pages, which are put in the read-ahead arrays starting from index 1.
+     */
+    private int reserveReadAheadPages( long filePageId, long lastPageId )
+    {
+        if ( readAheadPageRefs == null )
+        {
+            readAheadPageRefs = new long[readAheadPages + 1];
+            readAheadBufferAddresses = new long[readAheadPages + 1];
+            readAheadLatches = new LatchMap.Latch[readAheadPages + 1];
+            readAheadChunks = new int[readAheadPages + 1][];
+            readAheadChunkOffsets = new long[readAheadPages + 1];
+        }
+
+        int[][] tt = pagedFile.translationTable;
+        long lastReadAheadPageId = Math.min( lastPageId, filePageId + readAheadPages );
+        int count = 0;
+        try
+        {
+            for ( long readAheadPageId = filePageId + 1; readAheadPageId <= lastReadAheadPageId; readAheadPageId++ )
+            {
+                int chunkId = MuninnPagedFile.computeChunkId( readAheadPageId );
+                if ( chunkId >= tt.length )
+                {
+                    break;
+                }
+                int[] chunk = tt[chunkId];
+                long chunkOffset = MuninnPagedFile.computeChunkOffset( readAheadPageId );
+                if ( UnsafeUtil.getIntVolatile( chunk, chunkOffset ) != UNMAPPED_TTE )
+                {
+                    break;
+                }
+                LatchMap.Latch latch = pagedFile.pageFaultLatches.tryTakeLatch( readAheadPageId );
+                if ( latch == null )
+                {
+                    break;
+                }
+                long pageRef = UnsafeUtil.getIntVolatile( chunk, chunkOffset ) == UNMAPPED_TTE ?
+                               pagedFile.tryGrabFreeAndExclusivelyLockedPage() : 0;
+                if ( pageRef == 0 )
+                {
+                    latch.release();
+                    break;
+                }
+                count++;
+                readAheadPageRefs[count] = pageRef;
+                readAheadLatches[count] = latch;
+                readAheadChunks[count] = chunk;
+                readAheadChunkOffsets[count] = chunkOffset;
+                pagedFile.initBuffer( pageRef );
+            }
+        }
+        catch ( Throwable throwable )
+        {
+            abortReadAhead( count );
+            throw throwable;
+        }
+        return count;
+    }
+
+    private void publishReadAheadPages( int count )
+    {
+        for ( int i = 1; i <= count; i++ )
+        {
+            long pageRef = readAheadPageRefs[i];
+            UnsafeUtil.putIntVolatile( readAheadChunks[i], readAheadChunkOffsets[i], pagedFile.toId( pageRef ) );
+            pagedFile.unlockExclusive( pageRef );
+            readAheadLatches[i].release();
+            readAheadLatches[i] = null;
+            readAheadChunks[i] = null;
+        }
+    }
+
+    private void traceReadAheadPages( int count )
+    {
+        // Every page we read ahead counts as a page fault of its own, so the tracers keep an accurate picture of how
+        // many pages have been brought into the cache. The bytes and the latency of the read were all accounted for by
+        // the leading fault event.
+        for ( int i = 1; i <= count; i++ )
+        {
+            PageFaultEvent faultEvent = pinEvent.beginReadAheadPageFault();
+            faultEvent.setCachePageId( pagedFile.toId( readAheadPageRefs[i] ) );
+            faultEvent.done();
+        }
+    }
+
+    private void abortReadAhead( int count )
+    {
+        for ( int i = 1; i <= count; i++ )
+        {
+            long pageRef = readAheadPageRefs[i];
+            if ( pagedFile.isLoaded( pageRef ) )
+            {
+                // Leave the page for the eviction thread to pick up, like any other failed page fault.
+                pagedFile.unlockExclusive( pageRef );
+            }
+            else
+            {
+                // The page never got bound to anything, so the eviction thread would not find it.
+                pagedFile.releaseUnusedFreePage( pageRef );
+            }
+            readAheadLatches[i].release();
+            readAheadLatches[i] = null;
+            readAheadChunks[i] = null;
+        }
+    }
+
     private void abortPageFault( Throwable throwable, int[] chunk, long chunkOffset,
                                  LatchMap.Latch latch,
                                  PageFaultEvent faultEvent )
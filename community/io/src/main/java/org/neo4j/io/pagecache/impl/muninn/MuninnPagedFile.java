@@ -695,6 +695,16 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
         return pageCache.grabFreeAndExclusivelyLockedPage( faultEvent );
     }
 
+    long tryGrabFreeAndExclusivelyLockedPage()
+    {
+        return pageCache.tryGrabFreeAndExclusivelyLockedPage();
+    }
+
+    void releaseUnusedFreePage( long pageRef )
+    {
+        pageCache.addFreePageToFreelist( pageRef );
+    }
+
     /**
      * Remove the mapping of the given filePageId from the translation table, and return the evicted page object.
      * @param filePageId The id of the file page to evict.
@@ -320,7 +320,7 @@ class PageList
         }
     }
 
-    private byte getUsageCounter( long pageRef )
+    byte getUsageCounter( long pageRef )
     {
         return (byte) (UnsafeUtil.getLongVolatile( offPageBinding( pageRef ) ) & MASK_USAGE_COUNT);
     }
@@ -456,6 +456,45 @@ class PageList
         setSwapperId( pageRef, swapperId ); // Page now considered isBoundTo( swapper, filePageId )
     }
 
+    /**
+     * Fault in a run of consecutive file pages, starting at the given file page id, with a single vectored read.
+     * The given cache pages must all be exclusively locked and unbound, just as for
+     * {@link #fault(long, PageSwapper, int, long, PageFaultEvent)}.
+     */
+    void fault( long[] pageRefs, long[] bufferAddresses, int count, PageSwapper swapper, int swapperId,
+            long startFilePageId, PageFaultEvent event ) throws IOException
+    {
+        if ( swapper == null )
+        {
+            throw swapperCannotBeNull();
+        }
+        for ( int i = 0; i < count; i++ )
+        {
+            long pageRef = pageRefs[i];
+            long filePageId = startFilePageId + i;
+            int currentSwapper = getSwapperId( pageRef );
+            long currentFilePageId = getFilePageId( pageRef );
+            if ( !isExclusivelyLocked( pageRef ) || currentSwapper != 0 || currentFilePageId != PageCursor.UNBOUND_PAGE_ID )
+            {
+                throw cannotFaultException( pageRef, swapper, swapperId, filePageId, currentSwapper, currentFilePageId );
+            }
+        }
+        // See the single page fault above for why the file page ids are assigned before, and the swapper id after,
+        // swapping the pages in.
+        for ( int i = 0; i < count; i++ )
+        {
+            setFilePageId( pageRefs[i], startFilePageId + i );
+            bufferAddresses[i] = getAddress( pageRefs[i] );
+        }
+        long bytesRead = swapper.read( startFilePageId, bufferAddresses, cachePageSize, 0, count );
+        event.addBytesRead( bytesRead );
+        event.setCachePageId( toId( pageRefs[0] ) );
+        for ( int i = 0; i < count; i++ )
+        {
+            setSwapperId( pageRefs[i], swapperId );
+        }
+    }
+
     private static IllegalArgumentException swapperCannotBeNull()
     {
         return new IllegalArgumentException( "swapper cannot be null" );
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.neo4j.unsafe.impl.internal.dragons.UnsafeUtil;
+
+/**
+ * A contiguous range of the pages in a {@link MuninnPageCache}, with its own freelist and its own eviction thread.
+ *
+ * The page cache partitions its pages into a number of regions, so that eviction and page faulting can scale with
+ * the number of cores. Page faulting threads grab free pages from their local region first, and each region is kept
+ * topped up with free pages by its own background eviction thread.
+ *
+ * @see MuninnPageCache#continuouslySweepPages(PageRegion)
+ */
+final class PageRegion
+{
+    // The field offset to unsafely access the freelist field.
+    private static final long freelistOffset = UnsafeUtil.getFieldOffset( PageRegion.class, "freelist" );
+
+    final int index;
+    final int firstPageId;
+    final int pageCount;
+    final int keepFree;
+
+    // The freelist is a thread-safe linked-list of FreePage objects, or an AtomicInteger, or null.
+    // Initially, the field is an AtomicInteger that counts from zero to the page count of the region, at which point
+    // all of the pages in the region have been put in use. Once this happens, the field is set to null to allow the
+    // background eviction thread of the region to start its work. From that point on, the field will operate as a
+    // concurrent stack of FreePage objects. The eviction thread pushes newly freed FreePage objects onto the stack,
+    // and page faulting threads pops FreePage objects from the stack. The FreePage objects are single-use, to avoid
+    // running into the ABA-problem.
+    @SuppressWarnings( "unused" ) // This field is accessed via Unsafe.
+    private volatile Object freelist;
+
+    // The thread that runs the eviction algorithm for this region. We unpark this when we've run out of
+    // free pages to grab.
+    volatile Thread evictionThread;
+    // True if the eviction thread is currently parked, without someone having
+    // signalled it to wake up. This is used as a weak guard for unparking the
+    // eviction thread, because calling unpark too much (from many page
+    // faulting threads) can cause contention on the locks protecting that
+    // threads scheduling meta-data in the OS kernel.
+    private volatile boolean evictorParked;
+
+    PageRegion( int index, int firstPageId, int pageCount, int keepFree )
+    {
+        this.index = index;
+        this.firstPageId = firstPageId;
+        this.pageCount = pageCount;
+        this.keepFree = keepFree;
+        setFreelistHead( new AtomicInteger() );
+    }
+
+    int endPageId()
+    {
+        return firstPageId + pageCount;
+    }
+
+    Object getFreelistHead()
+    {
+        return UnsafeUtil.getObjectVolatile( this, freelistOffset );
+    }
+
+    boolean compareAndSetFreelistHead( Object expected, Object update )
+    {
+        return UnsafeUtil.compareAndSwapObject( this, freelistOffset, expected, update );
+    }
+
+    void setFreelistHead( Object newFreelistHead )
+    {
+        UnsafeUtil.putObjectVolatile( this, freelistOffset, newFreelistHead );
+    }
+
+    void unparkEvictor()
+    {
+        if ( evictorParked )
+        {
+            evictorParked = false;
+            LockSupport.unpark( evictionThread );
+        }
+    }
+
+    void parkEvictor( Object blocker, long parkNanos )
+    {
+        // Only called from the background eviction thread of this region!
+        evictorParked = true;
+        LockSupport.parkNanos( blocker, parkNanos );
+        evictorParked = false;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "PageRegion[index:" + index + ", firstPageId:" + firstPageId + ", pageCount:" + pageCount + "]";
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import org.neo4j.io.pagecache.EvictionPolicy;
+
+import static org.neo4j.util.FeatureToggles.getInteger;
+
+/**
+ * The {@link EvictionSelector} of the {@link EvictionPolicy#SCAN_RESISTANT} policy.
+ * <p>
+ * Pages with a usage counter of two or more are considered hot, and the rest are considered cold. The share of hot
+ * pages is sampled over every stretch of the clock sweep that covers as many pages as there are in the cache. While
+ * that share is below the target, hot pages are passed over without being aged, and the sweep evicts cold pages only.
+ * <p>
+ * The bookkeeping is intentionally left benignly racy, since it is updated by the eviction thread and cooperatively
+ * evicting page faulting threads alike, and only needs to be approximately right.
+ */
+final class ScanResistantEvictionSelector implements EvictionSelector
+{
+    // The percentage of the cache that hot pages are allowed to take up, before they start aging.
+    private static final int hotPagesPercentage = getInteger(
+            ScanResistantEvictionSelector.class, "hotPagesPercentage", 80 );
+
+    static final int HOT_USAGE_COUNT = 2;
+
+    private final PageList pages;
+    private final int pagesPerSample;
+    private final int maxHotPagesPerSample;
+
+    private int sampledPages;
+    private int sampledHotPages;
+    private volatile boolean ageHotPages;
+
+    ScanResistantEvictionSelector( PageList pages )
+    {
+        this.pages = pages;
+        this.pagesPerSample = pages.getPageCount();
+        this.maxHotPagesPerSample = (int) (((long) pagesPerSample * hotPagesPercentage) / 100);
+    }
+
+    @Override
+    public boolean shouldEvict( long pageRef, boolean force )
+    {
+        boolean hot = pages.getUsageCounter( pageRef ) >= HOT_USAGE_COUNT;
+        sample( hot );
+        if ( hot && !force && !ageHotPages )
+        {
+            return false;
+        }
+        return pages.decrementUsage( pageRef );
+    }
+
+    private void sample( boolean hot )
+    {
+        if ( hot )
+        {
+            sampledHotPages++;
+        }
+        if ( ++sampledPages >= pagesPerSample )
+        {
+            ageHotPages = sampledHotPages > maxHotPagesPerSample;
+            sampledPages = 0;
+            sampledHotPages = 0;
+        }
+    }
+}
@@ -38,6 +38,9 @@
  */
 package org.neo4j.io.pagecache.monitoring;
 
+import java.util.Collection;
+import java.util.Collections;
+
 /**
  * The PageCacheCounters exposes internal counters from the page cache.
  * The data for these counters is sourced through the PageCacheTracer API.
@@ -109,4 +112,40 @@ public interface PageCacheCounters
      * be determined.
      */
     double usageRatio();
+
+    /**
+     * @return The statistics for each of the files that are currently mapped by the page cache, or an empty collection
+     * if per-file statistics are not collected.
+     */
+    default Collection<PageFileCounters> fileCounters()
+    {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Register a listener that is told when the page cache starts and stops collecting statistics for a file, i.e.
+     * when the file is mapped and unmapped. The listener is immediately told about all currently mapped files.
+     *
+     * @param listener the listener to add.
+     */
+    default void addFileCountersListener( FileCountersListener listener )
+    {
+    }
+
+    /**
+     * @param listener the listener to remove, so that it is no longer told about mapped and unmapped files.
+     */
+    default void removeFileCountersListener( FileCountersListener listener )
+    {
+    }
+
+    /**
+     * Listens for per-file statistics coming and going, as files are mapped and unmapped by the page cache.
+     */
+    interface FileCountersListener
+    {
+        void fileMapped( PageFileCounters counters );
+
+        void fileUnmapped( PageFileCounters counters );
+    }
 }
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.monitoring;
+
+import java.io.File;
+
+import org.neo4j.helpers.MathUtil;
+
+/**
+ * The statistics collected by the page cache for a single mapped file.
+ *
+ * All numbers are counts and sums since the file was first mapped by the page cache, and are kept when the file is
+ * unmapped, so the statistics for a file cover every mapping of it.
+ */
+public interface PageFileCounters
+{
+    /**
+     * The number of buckets in the {@link #faultLatencyHistogram() fault latency histogram}.
+     */
+    int LATENCY_BUCKETS = 32;
+
+    /**
+     * @return The file these statistics are for.
+     */
+    File file();
+
+    /**
+     * @return The number of page pins observed for this file thus far.
+     */
+    long pins();
+
+    /**
+     * @return The number of page cache hits for this file thus far.
+     */
+    long hits();
+
+    /**
+     * @return The number of page faults for this file thus far.
+     */
+    long faults();
+
+    /**
+     * @return The number of page faults for this file thus far that read a page in ahead of it being pinned, as part of
+     * the read of an earlier page fault. These are included in {@link #faults()}, but not in the
+     * {@link #faultLatencyHistogram() fault latency histogram}.
+     */
+    long readAheadFaults();
+
+    /**
+     * @return The number of pages of this file that have been evicted thus far.
+     */
+    long evictions();
+
+    /**
+     * @return The number of pages of this file that have been flushed thus far.
+     */
+    long flushes();
+
+    /**
+     * @return The sum total of bytes read in from this file through page faults thus far.
+     */
+    long bytesRead();
+
+    /**
+     * @return The sum total of bytes written to this file through flushes thus far.
+     */
+    long bytesWritten();
+
+    /**
+     * @return A histogram of how long the page faults for this file took. Bucket 0 counts the page faults that took
+     * less than a microsecond, and bucket {@code i} counts those that took at least 2^(i-1) and less than 2^i
+     * microseconds. The last bucket also counts all page faults that took longer than that.
+     * <p>
+     * A page fault that reads pages ahead times the one read that brings in all of those pages. The
+     * {@link #readAheadFaults() read-ahead faults} have no latency of their own, so they are not in the histogram.
+     */
+    long[] faultLatencyHistogram();
+
+    /**
+     * @return The cache hit ratio for this file observed thus far.
+     */
+    default double hitRatio()
+    {
+        return MathUtil.portion( hits(), faults() );
+    }
+
+    /**
+     * Estimate the given percentile of the page fault latencies from the {@link #faultLatencyHistogram() histogram}.
+     *
+     * @param percentile The percentile to estimate, between 0 and 100.
+     * @return The upper bound in microseconds of the histogram bucket that holds the given percentile, or 0 if no page
+     * faults have been observed.
+     */
+    default long faultLatencyPercentile( double percentile )
+    {
+        long[] histogram = faultLatencyHistogram();
+        long total = 0;
+        for ( long count : histogram )
+        {
+            total += count;
+        }
+        if ( total == 0 )
+        {
+            return 0;
+        }
+        long rank = (long) Math.ceil( total * (percentile / 100d) );
+        long seen = 0;
+        for ( int bucket = 0; bucket < histogram.length; bucket++ )
+        {
+            seen += histogram[bucket];
+            if ( seen >= rank )
+            {
+                return 1L << bucket;
+            }
+        }
+        return 1L << (histogram.length - 1);
+    }
+}
@@ -40,11 +40,18 @@ package org.neo4j.io.pagecache.tracing;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.LongAdder;
 
 import org.neo4j.helpers.MathUtil;
 import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.monitoring.PageFileCounters;
 
 /**
  * The default PageCacheTracer implementation, that just increments counters.
@@ -63,6 +70,10 @@ public class DefaultPageCacheTracer implements PageCacheTracer
     protected final LongAdder filesUnmapped = new LongAdder();
     protected final LongAdder evictionExceptions = new LongAdder();
     protected final AtomicLong maxPages = new AtomicLong();
+    // The statistics of the currently mapped files. Changes to the mapped files, and to the listeners that are told
+    // about them, are guarded by the listeners list.
+    private final ConcurrentMap<File,FileTracer> fileTracers = new ConcurrentHashMap<>();
+    private final List<FileCountersListener> fileCountersListeners = new CopyOnWriteArrayList<>();
 
     private final FlushEvent flushEvent = new FlushEvent()
     {
@@ -90,7 +101,11 @@ public class DefaultPageCacheTracer implements PageCacheTracer
         }
     };
 
-    private final FlushEventOpportunity flushEventOpportunity = ( filePageId, cachePageId, swapper ) -> flushEvent;
+    private final FlushEventOpportunity flushEventOpportunity = ( filePageId, cachePageId, swapper ) ->
+    {
+        FileTracer fileTracer = swapper == null ? null : fileTracers.get( swapper.file() );
+        return fileTracer == null ? flushEvent : fileTracer;
+    };
 
     private final EvictionEvent evictionEvent = new EvictionEvent()
     {
@@ -102,6 +117,11 @@ public class DefaultPageCacheTracer implements PageCacheTracer
         @Override
         public void setSwapper( PageSwapper swapper )
         {
+            FileTracer fileTracer = swapper == null ? null : fileTracers.get( swapper.file() );
+            if ( fileTracer != null )
+            {
+                fileTracer.evictions( 1 );
+            }
         }
 
         @Override
@@ -160,12 +180,60 @@ public class DefaultPageCacheTracer implements PageCacheTracer
     public void mappedFile( File file )
     {
         filesMapped.increment();
+        synchronized ( fileCountersListeners )
+        {
+            FileTracer fileTracer = new FileTracer( file );
+            if ( fileTracers.putIfAbsent( file, fileTracer ) == null )
+            {
+                fileCountersListeners.forEach( listener -> listener.fileMapped( fileTracer ) );
+            }
+        }
     }
 
     @Override
     public void unmappedFile( File file )
     {
         filesUnmapped.increment();
+        synchronized ( fileCountersListeners )
+        {
+            FileTracer fileTracer = fileTracers.remove( file );
+            if ( fileTracer != null )
+            {
+                fileCountersListeners.forEach( listener -> listener.fileUnmapped( fileTracer ) );
+            }
+        }
+    }
+
+    @Override
+    public PageFileTracer fileTracer( File file )
+    {
+        FileTracer fileTracer = fileTracers.get( file );
+        return fileTracer == null ? PageFileTracer.NULL : fileTracer;
+    }
+
+    @Override
+    public Collection<PageFileCounters> fileCounters()
+    {
+        return new ArrayList<>( fileTracers.values() );
+    }
+
+    @Override
+    public void addFileCountersListener( FileCountersListener listener )
+    {
+        synchronized ( fileCountersListeners )
+        {
+            fileCountersListeners.add( listener );
+            fileTracers.values().forEach( listener::fileMapped );
+        }
+    }
+
+    @Override
+    public void removeFileCountersListener( FileCountersListener listener )
+    {
+        synchronized ( fileCountersListeners )
+        {
+            fileCountersListeners.remove( listener );
+        }
     }
 
     @Override
@@ -323,4 +391,41 @@ public class DefaultPageCacheTracer implements PageCacheTracer
     {
         this.maxPages.set( maxPages );
     }
+
+    /**
+     * The per-file statistics, which also serve as the flush event for the pages of the file, so that flushes are
+     * counted both globally and for the file they belong to.
+     */
+    private class FileTracer extends DefaultPageFileTracer implements FlushEvent
+    {
+        FileTracer( File file )
+        {
+            super( file );
+        }
+
+        @Override
+        public void addBytesWritten( long bytes )
+        {
+            DefaultPageCacheTracer.this.bytesWritten.add( bytes );
+            bytesWritten( bytes );
+        }
+
+        @Override
+        public void done()
+        {
+            DefaultPageCacheTracer.this.flushes.increment();
+            flushes( 1 );
+        }
+
+        @Override
+        public void done( IOException exception )
+        {
+            done();
+        }
+
+        @Override
+        public void addPagesFlushed( int pageCount )
+        {
+        }
+    }
 }
@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.tracing;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link PageFileTracer} that keeps its counters in {@link LongAdder LongAdders}, which are striped across the
+ * threads that update them, so concurrent updates from many page cursors don't contend on the same memory.
+ */
+public class DefaultPageFileTracer implements PageFileTracer
+{
+    private final File file;
+    private final LongAdder pins = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder faults = new LongAdder();
+    private final LongAdder readAheadFaults = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder bytesRead = new LongAdder();
+    private final LongAdder bytesWritten = new LongAdder();
+    private final LongAdder[] faultLatencies = new LongAdder[LATENCY_BUCKETS];
+
+    public DefaultPageFileTracer( File file )
+    {
+        this.file = file;
+        for ( int i = 0; i < faultLatencies.length; i++ )
+        {
+            faultLatencies[i] = new LongAdder();
+        }
+    }
+
+    @Override
+    public File file()
+    {
+        return file;
+    }
+
+    @Override
+    public long pins()
+    {
+        return pins.sum();
+    }
+
+    @Override
+    public long hits()
+    {
+        return hits.sum();
+    }
+
+    @Override
+    public long faults()
+    {
+        return faults.sum();
+    }
+
+    @Override
+    public long readAheadFaults()
+    {
+        return readAheadFaults.sum();
+    }
+
+    @Override
+    public long evictions()
+    {
+        return evictions.sum();
+    }
+
+    @Override
+    public long flushes()
+    {
+        return flushes.sum();
+    }
+
+    @Override
+    public long bytesRead()
+    {
+        return bytesRead.sum();
+    }
+
+    @Override
+    public long bytesWritten()
+    {
+        return bytesWritten.sum();
+    }
+
+    @Override
+    public long[] faultLatencyHistogram()
+    {
+        long[] histogram = new long[faultLatencies.length];
+        for ( int i = 0; i < histogram.length; i++ )
+        {
+            histogram[i] = faultLatencies[i].sum();
+        }
+        return histogram;
+    }
+
+    @Override
+    public void pins( long pins )
+    {
+        this.pins.add( pins );
+    }
+
+    @Override
+    public void hits( long hits )
+    {
+        this.hits.add( hits );
+    }
+
+    @Override
+    public void faults( long faults )
+    {
+        this.faults.add( faults );
+    }
+
+    @Override
+    public void readAheadFaults( long faults )
+    {
+        this.readAheadFaults.add( faults );
+    }
+
+    @Override
+    public void faultLatency( long nanos )
+    {
+        long micros = TimeUnit.NANOSECONDS.toMicros( nanos );
+        int bucket = Math.min( 64 - Long.numberOfLeadingZeros( Math.max( micros, 0 ) ), LATENCY_BUCKETS - 1 );
+        faultLatencies[bucket].increment();
+    }
+
+    @Override
+    public void bytesRead( long bytesRead )
+    {
+        this.bytesRead.add( bytesRead );
+    }
+
+    @Override
+    public void evictions( long evictions )
+    {
+        this.evictions.add( evictions );
+    }
+
+    @Override
+    public void flushes( long flushes )
+    {
+        this.flushes.add( flushes );
+    }
+
+    @Override
+    public void bytesWritten( long bytesWritten )
+    {
+        this.bytesWritten.add( bytesWritten );
+    }
+
+    @Override
+    public String toString()
+    {
+        return getClass().getSimpleName() + "[file:" + file + ", pins:" + pins() + ", hits:" + hits() +
+               ", faults:" + faults() + ", readAheadFaults:" + readAheadFaults() + ", evictions:" + evictions() + ", flushes:" + flushes() + "]";
+    }
+}
@@ -228,6 +228,19 @@ public interface PageCacheTracer extends PageCacheCounters
      */
     void unmappedFile( File file );
 
+    /**
+     * Get the tracer that collects the statistics for the given mapped file. Page cursor tracers should look up the
+     * file tracer once per file they access, and hold on to it, rather than look it up for every event.
+     *
+     * @param file the mapped file.
+     * @return the tracer of the given file, or {@link PageFileTracer#NULL} if the file is not mapped, or per-file
+     * statistics are not collected.
+     */
+    default PageFileTracer fileTracer( File file )
+    {
+        return PageFileTracer.NULL;
+    }
+
     /**
      * A background eviction has begun. Called from the background eviction thread.
      *
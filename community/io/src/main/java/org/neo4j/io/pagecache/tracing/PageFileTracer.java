@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.tracing;
+
+import java.io.File;
+
+import org.neo4j.io.pagecache.monitoring.PageFileCounters;
+
+/**
+ * Collects the statistics for a single file that is mapped by the page cache.
+ *
+ * A PageFileTracer is shared by all the threads that access the file, so implementations of this interface must be
+ * thread-safe, and as cheap to update concurrently as possible.
+ *
+ * @see PageCacheTracer#fileTracer(File)
+ */
+public interface PageFileTracer extends PageFileCounters
+{
+    /**
+     * A PageFileTracer that does nothing, other than return zero for all counters.
+     */
+    PageFileTracer NULL = new PageFileTracer()
+    {
+        private final long[] emptyHistogram = new long[LATENCY_BUCKETS];
+
+        @Override
+        public File file()
+        {
+            return null;
+        }
+
+        @Override
+        public long pins()
+        {
+            return 0;
+        }
+
+        @Override
+        public long hits()
+        {
+            return 0;
+        }
+
+        @Override
+        public long faults()
+        {
+            return 0;
+        }
+
+        @Override
+        public long readAheadFaults()
+        {
+            return 0;
+        }
+
+        @Override
+        public long evictions()
+        {
+            return 0;
+        }
+
+        @Override
+        public long flushes()
+        {
+            return 0;
+        }
+
+        @Override
+        public long bytesRead()
+        {
+            return 0;
+        }
+
+        @Override
+        public long bytesWritten()
+        {
+            return 0;
+        }
+
+        @Override
+        public long[] faultLatencyHistogram()
+        {
+            return emptyHistogram.clone();
+        }
+
+        @Override
+        public void pins( long pins )
+        {
+        }
+
+        @Override
+        public void hits( long hits )
+        {
+        }
+
+        @Override
+        public void faults( long faults )
+        {
+        }
+
+        @Override
+        public void readAheadFaults( long faults )
+        {
+        }
+
+        @Override
+        public void faultLatency( long nanos )
+        {
+        }
+
+        @Override
+        public void bytesRead( long bytesRead )
+        {
+        }
+
+        @Override
+        public void evictions( long evictions )
+        {
+        }
+
+        @Override
+        public void flushes( long flushes )
+        {
+        }
+
+        @Override
+        public void bytesWritten( long bytesWritten )
+        {
+        }
+
+        @Override
+        public String toString()
+        {
+            return PageFileTracer.class.getName() + ".NULL";
+        }
+    };
+
+    /**
+     * Report number of observed pins
+     * @param pins number of pins
+     */
+    void pins( long pins );
+
+    /**
+     * Report number of observed hits
+     * @param hits number of hits
+     */
+    void hits( long hits );
+
+    /**
+     * Report number of observed faults
+     * @param faults number of faults
+     */
+    void faults( long faults );
+
+    /**
+     * Report number of observed page faults that read a page ahead of it being pinned. These are reported through
+     * {@link #faults(long)} as well.
+     * @param faults number of read-ahead page faults
+     */
+    void readAheadFaults( long faults );
+
+    /**
+     * Report how long a page fault took
+     * @param nanos the duration of the page fault, in nanoseconds
+     */
+    void faultLatency( long nanos );
+
+    /**
+     * Report number of bytes read
+     * @param bytesRead number of read bytes
+     */
+    void bytesRead( long bytesRead );
+
+    /**
+     * Report number of observed evictions
+     * @param evictions number of evictions
+     */
+    void evictions( long evictions );
+
+    /**
+     * Report number of observed flushes
+     * @param flushes number of flushes
+     */
+    void flushes( long flushes );
+
+    /**
+     * Report number of bytes written
+     * @param bytesWritten number of written bytes
+     */
+    void bytesWritten( long bytesWritten );
+}
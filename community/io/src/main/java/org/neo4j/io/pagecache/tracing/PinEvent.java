@@ -80,6 +80,16 @@ public interface PinEvent
      */
     PageFaultEvent beginPageFault();
 
+    /**
+     * A page following the page we want to pin is read in by the same read as the page we want to pin, so begin a page
+     * fault for it as well. That page fault has no latency of its own, since the read is timed by the page fault begun
+     * with {@link #beginPageFault()}.
+     */
+    default PageFaultEvent beginReadAheadPageFault()
+    {
+        return beginPageFault();
+    }
+
     /**
      * Page found and bounded.
      */
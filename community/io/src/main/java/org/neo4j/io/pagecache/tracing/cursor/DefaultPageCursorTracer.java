@@ -47,6 +47,7 @@ import org.neo4j.io.pagecache.tracing.FlushEvent;
 import org.neo4j.io.pagecache.tracing.FlushEventOpportunity;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.io.pagecache.tracing.PageFaultEvent;
+import org.neo4j.io.pagecache.tracing.PageFileTracer;
 import org.neo4j.io.pagecache.tracing.PinEvent;
 
 public class DefaultPageCursorTracer implements PageCursorTracer
@@ -66,10 +67,34 @@ public class DefaultPageCursorTracer implements PageCursorTracer
     private PageCacheTracer pageCacheTracer = PageCacheTracer.NULL;
     private DefaultPinEvent pinTracingEvent = new DefaultPinEvent();
 
+    // The file tracer of the file we last pinned a page in, and of the file we are currently flushing a page to.
+    // Cursors mostly pin pages in the same file over and over, so we avoid looking up the file tracer for every pin.
+    private PageSwapper lastSwapper;
+    private PageFileTracer lastFileTracer = PageFileTracer.NULL;
+    private PageFileTracer pinFileTracer = PageFileTracer.NULL;
+    private PageFileTracer flushFileTracer = PageFileTracer.NULL;
+    private long faultStartNanos;
+
     @Override
     public void init( PageCacheTracer pageCacheTracer )
     {
         this.pageCacheTracer = pageCacheTracer;
+        this.lastSwapper = null;
+        this.lastFileTracer = PageFileTracer.NULL;
+    }
+
+    private PageFileTracer fileTracer( PageSwapper swapper )
+    {
+        if ( swapper == null )
+        {
+            return PageFileTracer.NULL;
+        }
+        if ( swapper != lastSwapper )
+        {
+            lastFileTracer = pageCacheTracer.fileTracer( swapper.file() );
+            lastSwapper = swapper;
+        }
+        return lastFileTracer;
     }
 
     @Override
@@ -205,6 +230,8 @@ public class DefaultPageCursorTracer implements PageCursorTracer
     public PinEvent beginPin( boolean writeLock, long filePageId, PageSwapper swapper )
     {
         pins++;
+        pinFileTracer = fileTracer( swapper );
+        pinFileTracer.pins( 1 );
         pinTracingEvent.eventHits = 1;
         return pinTracingEvent;
     }
@@ -219,6 +246,7 @@ public class DefaultPageCursorTracer implements PageCursorTracer
         @Override
         public void setSwapper( PageSwapper swapper )
         {
+            fileTracer( swapper ).evictions( 1 );
         }
 
         @Override
@@ -251,12 +279,50 @@ public class DefaultPageCursorTracer implements PageCursorTracer
         public void addBytesRead( long bytes )
         {
             bytesRead += bytes;
+            pinFileTracer.bytesRead( bytes );
+        }
+
+        @Override
+        public void done()
+        {
+            faults++;
+            pinFileTracer.faults( 1 );
+            pinFileTracer.faultLatency( System.nanoTime() - faultStartNanos );
+        }
+
+        @Override
+        public void done( Throwable throwable )
+        {
+            done();
+        }
+
+        @Override
+        public EvictionEvent beginEviction()
+        {
+            return evictionEvent;
+        }
+
+        @Override
+        public void setCachePageId( long cachePageId )
+        {
+        }
+    };
+
+    private final PageFaultEvent readAheadPageFaultEvent = new PageFaultEvent()
+    {
+        @Override
+        public void addBytesRead( long bytes )
+        {
+            bytesRead += bytes;
+            pinFileTracer.bytesRead( bytes );
         }
 
         @Override
         public void done()
         {
             faults++;
+            pinFileTracer.faults( 1 );
+            pinFileTracer.readAheadFaults( 1 );
         }
 
         @Override
@@ -282,6 +348,7 @@ public class DefaultPageCursorTracer implements PageCursorTracer
         @Override
         public FlushEvent beginFlush( long filePageId, long cachePageId, PageSwapper swapper )
         {
+            flushFileTracer = fileTracer( swapper );
             return flushEvent;
         }
     };
@@ -292,12 +359,14 @@ public class DefaultPageCursorTracer implements PageCursorTracer
         public void addBytesWritten( long bytes )
         {
             bytesWritten += bytes;
+            flushFileTracer.bytesWritten( bytes );
         }
 
         @Override
         public void done()
         {
             flushes++;
+            flushFileTracer.flushes( 1 );
         }
 
         @Override
@@ -325,13 +394,25 @@ public class DefaultPageCursorTracer implements PageCursorTracer
         public PageFaultEvent beginPageFault()
         {
             eventHits = 0;
+            faultStartNanos = System.nanoTime();
             return pageFaultEvent;
         }
 
+        @Override
+        public PageFaultEvent beginReadAheadPageFault()
+        {
+            eventHits = 0;
+            return readAheadPageFaultEvent;
+        }
+
         @Override
         public void hit()
         {
-            hits += eventHits;
+            if ( eventHits > 0 )
+            {
+                hits += eventHits;
+                pinFileTracer.hits( eventHits );
+            }
         }
 
         @Override
@@ -42,6 +42,8 @@ import java.io.IOException;
 import java.util.concurrent.CountDownLatch;
 
 import org.neo4j.io.mem.MemoryAllocator;
+import org.neo4j.io.pagecache.EvictionPolicy;
+import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.PageCacheTestSupport;
 import org.neo4j.io.pagecache.PageSwapperFactory;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
@@ -52,6 +54,8 @@ import org.neo4j.io.pagecache.tracing.cursor.context.VersionContextSupplier;
 public class MuninnPageCacheFixture extends PageCacheTestSupport.Fixture<MuninnPageCache>
 {
     CountDownLatch backgroundFlushLatch;
+    EvictionPolicy evictionPolicy = EvictionPolicy.CLOCK;
+    int evictionRegions;
 
     @Override
     public MuninnPageCache createPageCache( PageSwapperFactory swapperFactory, int maxPages,
@@ -61,7 +65,8 @@ public class MuninnPageCacheFixture extends PageCacheTestSupport.Fixture<MuninnP
         long memory = MuninnPageCache.memoryRequiredForPages( maxPages );
         MemoryAllocator allocator = MemoryAllocator.createAllocator( String.valueOf( memory ),
                 new LocalMemoryTracker() );
-        return new MuninnPageCache( swapperFactory, allocator, tracer, cursorTracerSupplier, contextSupplier );
+        return new MuninnPageCache( swapperFactory, allocator, PageCache.PAGE_SIZE, tracer, cursorTracerSupplier, contextSupplier,
+                evictionPolicy, evictionRegions );
     }
 
     @Override
@@ -44,6 +44,8 @@ import org.junit.Test;
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Future;
 import java.util.function.IntSupplier;
@@ -54,14 +56,18 @@ import org.neo4j.graphdb.mockfs.DelegatingStoreChannel;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.fs.OpenMode;
 import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.io.pagecache.EvictionPolicy;
 import org.neo4j.io.pagecache.PageCacheTest;
 import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.io.pagecache.PagedFile;
 import org.neo4j.io.pagecache.tracing.ConfigurablePageCursorTracerSupplier;
+import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
 import org.neo4j.io.pagecache.tracing.DelegatingPageCacheTracer;
 import org.neo4j.io.pagecache.tracing.EvictionRunEvent;
 import org.neo4j.io.pagecache.tracing.MajorFlushEvent;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.io.pagecache.tracing.PageFileTracer;
+import org.neo4j.io.pagecache.tracing.cursor.DefaultPageCursorTracer;
 import org.neo4j.io.pagecache.tracing.cursor.DefaultPageCursorTracerSupplier;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracerSupplier;
 import org.neo4j.io.pagecache.tracing.cursor.context.VersionContext;
@@ -70,14 +76,19 @@ import org.neo4j.io.pagecache.tracing.recording.RecordingPageCacheTracer;
 import org.neo4j.io.pagecache.tracing.recording.RecordingPageCursorTracer;
 import org.neo4j.io.pagecache.tracing.recording.RecordingPageCursorTracer.Fault;
 
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.neo4j.io.pagecache.PagedFile.PF_NO_GROW;
+import static org.neo4j.io.pagecache.PagedFile.PF_READ_AHEAD;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
 import static org.neo4j.io.pagecache.tracing.recording.RecordingPageCacheTracer.Evict;
@@ -159,7 +170,7 @@ public class MuninnPageCacheTest extends PageCacheTest<MuninnPageCache>
             assertEquals( 1, cursorTracer.faults() );
             assertEquals( 1, tracer.faults() );
 
-            long clockArm = pageCache.evictPages( 1, 1, tracer.beginPageEvictions( 1 ) );
+            long clockArm = pageCache.evictPages( pageCache.regions[0], 1, 1, tracer.beginPageEvictions( 1 ) );
             assertThat( clockArm, is( 1L ) );
             assertNotNull( tracer.observe( Evict.class ) );
         }
@@ -188,7 +199,7 @@ public class MuninnPageCacheTest extends PageCacheTest<MuninnPageCache>
             assertEquals( 1, cursorTracer.faults() );
             assertEquals( 1, tracer.faults() );
 
-            long clockArm = pageCache.evictPages( 1, 0, tracer.beginPageEvictions( 1 ) );
+            long clockArm = pageCache.evictPages( pageCache.regions[0], 1, 0, tracer.beginPageEvictions( 1 ) );
             assertThat( clockArm, is( 1L ) );
             assertNotNull( tracer.observe( Evict.class ) );
 
@@ -220,7 +231,7 @@ public class MuninnPageCacheTest extends PageCacheTest<MuninnPageCache>
             assertEquals( 1, cursorTracer.faults() );
             assertEquals( 1, tracer.faults() );
 
-            long clockArm = pageCache.evictPages( 1, 0, tracer.beginPageEvictions( 1 ) );
+            long clockArm = pageCache.evictPages( pageCache.regions[0], 1, 0, tracer.beginPageEvictions( 1 ) );
             assertThat( clockArm, is( 1L ) );
             assertNotNull( tracer.observe( Evict.class ) );
 
@@ -256,7 +267,7 @@ public class MuninnPageCacheTest extends PageCacheTest<MuninnPageCache>
             assertEquals( 2, cursorTracer.faults() );
             assertEquals( 2, tracer.faults() );
 
-            long clockArm = pageCache.evictPages( 2, 0, tracer.beginPageEvictions( 2 ) );
+            long clockArm = pageCache.evictPages( pageCache.regions[0], 2, 0, tracer.beginPageEvictions( 2 ) );
             assertThat( clockArm, is( 2L ) );
             assertNotNull( tracer.observe( Evict.class ) );
             assertNotNull( tracer.observe( Evict.class ) );
@@ -545,7 +556,7 @@ public class MuninnPageCacheTest extends PageCacheTest<MuninnPageCache>
                 cursor.putLong( value + 1 );
             }
 
-            long clockArm = pageCache.evictPages( 1, 0, EvictionRunEvent.NULL );
+            long clockArm = pageCache.evictPages( pageCache.regions[0], 1, 0, EvictionRunEvent.NULL );
             assertThat( clockArm, is( 1L ) );
 
             ByteBuffer buf = readIntoBuffer( "a" );
@@ -644,7 +655,7 @@ public class MuninnPageCacheTest extends PageCacheTest<MuninnPageCache>
             }
 
             // This will run into that exception, in background eviction:
-            pageCache.evictPages( 1, 0, EvictionRunEvent.NULL );
+            pageCache.evictPages( pageCache.regions[0], 1, 0, EvictionRunEvent.NULL );
 
             // We now have a background eviction exception. A successful flushAndForce should clear it, though.
             throwException.setFalse();
@@ -661,6 +672,276 @@ public class MuninnPageCacheTest extends PageCacheTest<MuninnPageCache>
         }
     }
 
+    @Test( timeout = SEMI_LONG_TIMEOUT_MILLIS )
+    public void scanResistantEvictionPolicyMustKeepHotPagesCachedThroughLargeScan() throws Exception
+    {
+        long clockFaults = hotPageFaultsAfterLargeScan( EvictionPolicy.CLOCK );
+        long scanResistantFaults = hotPageFaultsAfterLargeScan( EvictionPolicy.SCAN_RESISTANT );
+
+        assertEquals( 0, scanResistantFaults );
+        assertThat( clockFaults, greaterThan( scanResistantFaults ) );
+    }
+
+    private long hotPageFaultsAfterLargeScan( EvictionPolicy evictionPolicy ) throws IOException
+    {
+        int maxPages = 60;
+        int hotPages = 10;
+        int scannedPages = 50 * maxPages;
+        fixture.evictionPolicy = evictionPolicy;
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        ConfigurablePageCursorTracerSupplier<DefaultPageCursorTracer> cursorTracerSupplier =
+                new ConfigurablePageCursorTracerSupplier<>( new DefaultPageCursorTracer() );
+        File file = file( "a" );
+        try ( MuninnPageCache pageCache = createPageCache( fs, maxPages, tracer, cursorTracerSupplier );
+              PagedFile pagedFile = pageCache.map( file, pageCache.pageSize() ) )
+        {
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK ) )
+            {
+                for ( int i = 0; i < hotPages + scannedPages; i++ )
+                {
+                    assertTrue( cursor.next() );
+                }
+            }
+
+            // Make the first pages hot, by accessing them repeatedly.
+            for ( int round = 0; round < 4; round++ )
+            {
+                readPages( pagedFile, 0, hotPages );
+            }
+            // Then scan through all the other pages, once.
+            readPages( pagedFile, hotPages, hotPages + scannedPages );
+
+            pageCache.reportEvents();
+            long faultsBefore = tracer.faults();
+            readPages( pagedFile, 0, hotPages );
+            pageCache.reportEvents();
+            return tracer.faults() - faultsBefore;
+        }
+        finally
+        {
+            fixture.evictionPolicy = EvictionPolicy.CLOCK;
+        }
+    }
+
+    private static void readPages( PagedFile pagedFile, long from, long to ) throws IOException
+    {
+        for ( long pageId = from; pageId < to; pageId++ )
+        {
+            try ( PageCursor cursor = pagedFile.io( pageId, PF_SHARED_READ_LOCK ) )
+            {
+                assertTrue( cursor.next() );
+            }
+        }
+    }
+
+    @Test
+    public void mustTrackStatisticsPerMappedFile() throws IOException
+    {
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        DefaultPageCursorTracer cursorTracer = new DefaultPageCursorTracer();
+        ConfigurablePageCursorTracerSupplier<DefaultPageCursorTracer> cursorTracerSupplier =
+                new ConfigurablePageCursorTracerSupplier<>( cursorTracer );
+        try ( MuninnPageCache pageCache = createPageCache( fs, 20, tracer, cursorTracerSupplier );
+              PagedFile pagedFileA = pageCache.map( file( "a" ), pageCache.pageSize() );
+              PagedFile pagedFileB = pageCache.map( existingFile( "b" ), pageCache.pageSize() ) )
+        {
+            try ( PageCursor cursor = pagedFileA.io( 0, PF_SHARED_WRITE_LOCK ) )
+            {
+                for ( int i = 0; i < 3; i++ )
+                {
+                    assertTrue( cursor.next() );
+                }
+            }
+            readPages( pagedFileA, 0, 3 );
+            readPages( pagedFileB, 0, 0 );
+            pagedFileA.flushAndForce();
+
+            PageFileTracer fileTracerA = tracer.fileTracer( pagedFileA.file() );
+            assertEquals( 6, fileTracerA.pins() );
+            assertEquals( 3, fileTracerA.faults() );
+            assertEquals( 3, fileTracerA.hits() );
+            assertThat( fileTracerA.flushes(), greaterThan( 0L ) );
+            assertEquals( 3L * pageCache.pageSize(), fileTracerA.bytesWritten() );
+            PageFileTracer fileTracerB = tracer.fileTracer( pagedFileB.file() );
+            assertEquals( 0, fileTracerB.pins() );
+            assertEquals( 2, tracer.fileCounters().size() );
+        }
+        assertTrue( tracer.fileCounters().isEmpty() );
+    }
+
+    @Test
+    public void pagesMustBePartitionedIntoContiguousEvictionRegions()
+    {
+        int maxPages = 30;
+        fixture.evictionRegions = 4;
+        try ( MuninnPageCache pageCache = createPageCache( fs, maxPages, PageCacheTracer.NULL,
+                PageCursorTracerSupplier.NULL ) )
+        {
+            assertEquals( 4, pageCache.regions.length );
+            int expectedFirstPageId = 0;
+            for ( PageRegion region : pageCache.regions )
+            {
+                assertEquals( expectedFirstPageId, region.firstPageId );
+                assertThat( region.pageCount, greaterThanOrEqualTo( 2 ) );
+                for ( int pageId = region.firstPageId; pageId < region.endPageId(); pageId++ )
+                {
+                    assertSame( region, pageCache.regionOf( pageCache.pages.deref( pageId ) ) );
+                }
+                expectedFirstPageId = region.endPageId();
+            }
+            assertEquals( maxPages, expectedFirstPageId );
+        }
+        finally
+        {
+            fixture.evictionRegions = 0;
+        }
+    }
+
+    @Test
+    public void grabbingFreePagesMustTakeFromOtherRegionsWhenLocalRegionIsEmpty()
+    {
+        int maxPages = 40;
+        fixture.evictionRegions = 4;
+        try ( MuninnPageCache pageCache = createPageCache( fs, maxPages, PageCacheTracer.NULL,
+                PageCursorTracerSupplier.NULL ) )
+        {
+            // No files are mapped, so no eviction threads are running, and the free pages are all we have.
+            Set<Long> grabbedPages = new HashSet<>();
+            for ( int i = 0; i < maxPages; i++ )
+            {
+                long pageRef = pageCache.tryGrabFreeAndExclusivelyLockedPage();
+                assertThat( pageRef, not( 0L ) );
+                assertTrue( grabbedPages.add( pageRef ) );
+            }
+            assertEquals( 0L, pageCache.tryGrabFreeAndExclusivelyLockedPage() );
+        }
+        finally
+        {
+            fixture.evictionRegions = 0;
+        }
+    }
+
+    @Test( timeout = SEMI_LONG_TIMEOUT_MILLIS )
+    public void everyEvictionRegionMustHaveItsOwnEvictionThread() throws Exception
+    {
+        int maxPages = 40;
+        fixture.evictionRegions = 4;
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        try ( MuninnPageCache pageCache = createPageCache( fs, maxPages, tracer, PageCursorTracerSupplier.NULL );
+              PagedFile pagedFile = pageCache.map( file( "a" ), pageCache.pageSize() ) )
+        {
+            Set<Thread> evictionThreads = new HashSet<>();
+            for ( PageRegion region : pageCache.regions )
+            {
+                while ( region.evictionThread == null )
+                {
+                    Thread.sleep( 1 );
+                }
+                evictionThreads.add( region.evictionThread );
+            }
+            assertEquals( pageCache.regions.length, evictionThreads.size() );
+
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK ) )
+            {
+                for ( int i = 0; i < maxPages * 10; i++ )
+                {
+                    assertTrue( cursor.next() );
+                }
+            }
+            // The eviction threads refill the freelists of their regions in the background.
+            while ( tracer.evictions() == 0 )
+            {
+                Thread.sleep( 1 );
+            }
+        }
+        finally
+        {
+            fixture.evictionRegions = 0;
+        }
+    }
+
+    @Test( timeout = SEMI_LONG_TIMEOUT_MILLIS )
+    public void readAheadMustFaultInFollowingPagesAlongWithFaultedPage() throws Exception
+    {
+        int pages = 30;
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        ConfigurablePageCursorTracerSupplier<DefaultPageCursorTracer> cursorTracerSupplier =
+                new ConfigurablePageCursorTracerSupplier<>( new DefaultPageCursorTracer() );
+        try ( MuninnPageCache pageCache = createPageCache( fs, 60, tracer, cursorTracerSupplier ) )
+        {
+            File file = file( "a" );
+            writePageIdsTo( file, pages, pageCache.pageSize() );
+            try ( PagedFile pagedFile = pageCache.map( file, pageCache.pageSize() );
+                  PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK | PF_READ_AHEAD ) )
+            {
+                for ( long pageId = 0; pageId < pages; pageId++ )
+                {
+                    assertTrue( cursor.next() );
+                    assertEquals( pageId, cursor.getCurrentPageId() );
+                    long storedPageId;
+                    do
+                    {
+                        storedPageId = cursor.getLong( 0 );
+                    }
+                    while ( cursor.shouldRetry() );
+                    assertEquals( pageId, storedPageId );
+                }
+                assertFalse( cursor.next() );
+            }
+            pageCache.reportEvents();
+            assertEquals( pages, tracer.pins() );
+            assertEquals( pages, tracer.faults() );
+            assertThat( tracer.hits(), greaterThan( 0L ) );
+            assertEquals( (long) pages * pageCache.pageSize(), tracer.bytesRead() );
+        }
+    }
+
+    @Test( timeout = SEMI_LONG_TIMEOUT_MILLIS )
+    public void readCursorMustReadAheadWhenDetectingSequentialAccess() throws Exception
+    {
+        int pages = 30;
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        ConfigurablePageCursorTracerSupplier<DefaultPageCursorTracer> cursorTracerSupplier =
+                new ConfigurablePageCursorTracerSupplier<>( new DefaultPageCursorTracer() );
+        try ( MuninnPageCache pageCache = createPageCache( fs, 60, tracer, cursorTracerSupplier ) )
+        {
+            File file = file( "a" );
+            writePageIdsTo( file, pages, pageCache.pageSize() );
+            try ( PagedFile pagedFile = pageCache.map( file, pageCache.pageSize() );
+                  PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK ) )
+            {
+                while ( cursor.next() )
+                {
+                    long storedPageId;
+                    do
+                    {
+                        storedPageId = cursor.getLong( 0 );
+                    }
+                    while ( cursor.shouldRetry() );
+                    assertEquals( cursor.getCurrentPageId(), storedPageId );
+                }
+            }
+            pageCache.reportEvents();
+            assertEquals( pages, tracer.pins() );
+            assertEquals( pages, tracer.faults() );
+            assertThat( tracer.hits(), greaterThan( 0L ) );
+        }
+    }
+
+    private void writePageIdsTo( File file, int pages, int pageSize ) throws IOException
+    {
+        try ( StoreChannel channel = fs.create( file ) )
+        {
+            ByteBuffer buf = ByteBuffer.allocate( pageSize );
+            for ( long pageId = 0; pageId < pages; pageId++ )
+            {
+                buf.clear();
+                buf.putLong( 0, pageId );
+                channel.writeAll( buf );
+            }
+        }
+    }
+
     @Test( timeout = SEMI_LONG_TIMEOUT_MILLIS )
     public void mustThrowIfMappingFileWouldOverflowReferenceCount() throws Exception
     {
@@ -43,11 +43,18 @@ import org.junit.Test;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.neo4j.io.ByteUnit;
 import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.monitoring.PageCacheCounters;
+import org.neo4j.io.pagecache.monitoring.PageFileCounters;
 
 import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThat;
 
@@ -97,6 +104,76 @@ public class DefaultPageCacheTracerTest
         assertCounts( 0, 0, 0, 0, 4, 2, 3, 0, 36, 0, 0,  0d);
     }
 
+    @Test
+    public void mustCountEvictionsAndFlushesPerFile()
+    {
+        PageSwapper otherSwapper = new DummyPageSwapper( "otherfile", (int) ByteUnit.kibiBytes( 8 ) );
+        tracer.mappedFile( swapper.file() );
+        tracer.mappedFile( otherSwapper.file() );
+        try ( EvictionRunEvent evictionRunEvent = tracer.beginPageEvictions( 2 ) )
+        {
+            try ( EvictionEvent evictionEvent = evictionRunEvent.beginEviction() )
+            {
+                evictionEvent.setSwapper( swapper );
+                FlushEvent flushEvent = evictionEvent.flushEventOpportunity().beginFlush( 0, 0, swapper );
+                flushEvent.addBytesWritten( 12 );
+                flushEvent.done();
+            }
+
+            try ( EvictionEvent evictionEvent = evictionRunEvent.beginEviction() )
+            {
+                evictionEvent.setSwapper( otherSwapper );
+            }
+        }
+
+        PageFileTracer fileTracer = tracer.fileTracer( swapper.file() );
+        assertThat( fileTracer.evictions(), is( 1L ) );
+        assertThat( fileTracer.flushes(), is( 1L ) );
+        assertThat( fileTracer.bytesWritten(), is( 12L ) );
+        PageFileTracer otherFileTracer = tracer.fileTracer( otherSwapper.file() );
+        assertThat( otherFileTracer.evictions(), is( 1L ) );
+        assertThat( otherFileTracer.flushes(), is( 0L ) );
+        assertThat( tracer.fileCounters(), containsInAnyOrder( fileTracer, otherFileTracer ) );
+        assertCounts( 0, 0, 0, 0, 2, 0, 1, 0, 12, 2, 0, 0d );
+    }
+
+    @Test
+    public void mustForgetStatisticsOfUnmappedFiles()
+    {
+        List<PageFileCounters> mapped = new ArrayList<>();
+        List<PageFileCounters> unmapped = new ArrayList<>();
+        tracer.mappedFile( swapper.file() );
+        tracer.addFileCountersListener( new PageCacheCounters.FileCountersListener()
+        {
+            @Override
+            public void fileMapped( PageFileCounters counters )
+            {
+                mapped.add( counters );
+            }
+
+            @Override
+            public void fileUnmapped( PageFileCounters counters )
+            {
+                unmapped.add( counters );
+            }
+        } );
+        PageFileTracer fileTracer = tracer.fileTracer( swapper.file() );
+        assertThat( mapped, contains( fileTracer ) );
+
+        tracer.unmappedFile( swapper.file() );
+
+        assertThat( unmapped, contains( fileTracer ) );
+        assertThat( tracer.fileCounters(), is( empty() ) );
+        assertThat( tracer.fileTracer( swapper.file() ), is( PageFileTracer.NULL ) );
+        try ( EvictionRunEvent evictionRunEvent = tracer.beginPageEvictions( 1 );
+              EvictionEvent evictionEvent = evictionRunEvent.beginEviction() )
+        {
+            evictionEvent.setSwapper( swapper );
+        }
+        assertThat( tracer.fileCounters(), is( empty() ) );
+        assertThat( fileTracer.evictions(), is( 0L ) );
+    }
+
     @Test
     public void mustCountFileMappingAndUnmapping()
     {
@@ -42,6 +42,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.util.stream.LongStream;
 
 import org.neo4j.io.ByteUnit;
 import org.neo4j.io.pagecache.PageSwapper;
@@ -279,6 +280,55 @@ public class DefaultPageCursorTracerTest
         assertEquals( 3.0 / 7, cacheTracer.hitRatio(), 0.0001 );
     }
 
+    @Test
+    public void countStatisticsPerFile()
+    {
+        PageSwapper otherSwapper = new DummyPageSwapper( "otherfile", (int) ByteUnit.kibiBytes( 8 ) );
+        cacheTracer.mappedFile( swapper.file() );
+        cacheTracer.mappedFile( otherSwapper.file() );
+        pinAndHit();
+        pinAndHit();
+        pinFaultAndHit();
+        PinEvent pinEvent = pageCursorTracer.beginPin( false, 0, otherSwapper );
+        PageFaultEvent pageFaultEvent = pinEvent.beginPageFault();
+        pageFaultEvent.addBytesRead( 42 );
+        pageFaultEvent.done();
+        pinEvent.done();
+
+        PageFileTracer fileTracer = cacheTracer.fileTracer( swapper.file() );
+        assertEquals( 3, fileTracer.pins() );
+        assertEquals( 2, fileTracer.hits() );
+        assertEquals( 1, fileTracer.faults() );
+        assertEquals( 0, fileTracer.bytesRead() );
+        PageFileTracer otherFileTracer = cacheTracer.fileTracer( otherSwapper.file() );
+        assertEquals( 1, otherFileTracer.pins() );
+        assertEquals( 0, otherFileTracer.hits() );
+        assertEquals( 1, otherFileTracer.faults() );
+        assertEquals( 42, otherFileTracer.bytesRead() );
+        assertEquals( 1, LongStream.of( otherFileTracer.faultLatencyHistogram() ).sum() );
+    }
+
+    @Test
+    public void countReadAheadFaultsWithoutTheirLatency()
+    {
+        cacheTracer.mappedFile( swapper.file() );
+        PinEvent pinEvent = pageCursorTracer.beginPin( false, 0, swapper );
+        PageFaultEvent pageFaultEvent = pinEvent.beginPageFault();
+        pageFaultEvent.addBytesRead( 3 * 8192 );
+        pageFaultEvent.done();
+        pinEvent.beginReadAheadPageFault().done();
+        pinEvent.beginReadAheadPageFault().done();
+        pinEvent.done();
+
+        PageFileTracer fileTracer = cacheTracer.fileTracer( swapper.file() );
+        assertEquals( 3, pageCursorTracer.faults() );
+        assertEquals( 0, pageCursorTracer.hits() );
+        assertEquals( 3, fileTracer.faults() );
+        assertEquals( 2, fileTracer.readAheadFaults() );
+        assertEquals( 3 * 8192, fileTracer.bytesRead() );
+        assertEquals( 1, LongStream.of( fileTracer.faultLatencyHistogram() ).sum() );
+    }
+
     private void generateEventSet()
     {
         PinEvent pinEvent = pageCursorTracer.beginPin( false, 0, swapper );
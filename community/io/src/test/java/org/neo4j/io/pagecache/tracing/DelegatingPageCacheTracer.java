@@ -39,8 +39,10 @@
 package org.neo4j.io.pagecache.tracing;
 
 import java.io.File;
+import java.util.Collection;
 
 import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.monitoring.PageFileCounters;
 
 /**
  * A PageCacheTracer that delegates all calls to a wrapped instance.
@@ -62,6 +64,30 @@ public class DelegatingPageCacheTracer implements PageCacheTracer
         delegate.mappedFile( file );
     }
 
+    @Override
+    public PageFileTracer fileTracer( File file )
+    {
+        return delegate.fileTracer( file );
+    }
+
+    @Override
+    public Collection<PageFileCounters> fileCounters()
+    {
+        return delegate.fileCounters();
+    }
+
+    @Override
+    public void addFileCountersListener( FileCountersListener listener )
+    {
+        delegate.addFileCountersListener( listener );
+    }
+
+    @Override
+    public void removeFileCountersListener( FileCountersListener listener )
+    {
+        delegate.removeFileCountersListener( listener );
+    }
+
     @Override
     public long bytesRead()
     {
@@ -197,6 +197,20 @@ public abstract class IndexQuery
         return new StringSuffixPredicate( propertyKeyId, suffix );
     }
 
+    /**
+     * Searches the index for points in the coordinate reference system of {@code point}, ordered by their distance to {@code point},
+     * nearest first. There's no limit to the number of results, instead the index finds them lazily so that reading
+     * only the first k results is about as cheap as a search for the k nearest neighbours.
+     *
+     * @param propertyKeyId the property ID to match.
+     * @param point the point to find the nearest neighbours of.
+     * @return an {@link IndexQuery} instance to be used for querying an index.
+     */
+    public static NearestNeighbourPredicate nearestNeighbours( int propertyKeyId, PointValue point )
+    {
+        return new NearestNeighbourPredicate( propertyKeyId, point );
+    }
+
     public static ValueTuple asValueTuple( IndexQuery.ExactPredicate... query )
     {
         Value[] values = new Value[query.length];
@@ -262,7 +276,8 @@ public abstract class IndexQuery
         range,
         stringPrefix,
         stringSuffix,
-        stringContains
+        stringContains,
+        nearestNeighbours
     }
 
     public static final class ExistsPredicate extends IndexQuery
@@ -477,6 +492,54 @@ public abstract class IndexQuery
         }
     }
 
+    public static final class NearestNeighbourPredicate extends IndexQuery
+    {
+        private final PointValue point;
+
+        NearestNeighbourPredicate( int propertyKeyId, PointValue point )
+        {
+            super( propertyKeyId );
+            this.point = point;
+        }
+
+        @Override
+        public IndexQueryType type()
+        {
+            return IndexQueryType.nearestNeighbours;
+        }
+
+        @Override
+        public boolean acceptsValue( Value value )
+        {
+            return value instanceof PointValue && ((PointValue) value).getCoordinateReferenceSystem().equals( crs() );
+        }
+
+        @Override
+        public ValueGroup valueGroup()
+        {
+            return ValueGroup.GEOMETRY;
+        }
+
+        public PointValue point()
+        {
+            return point;
+        }
+
+        public CoordinateReferenceSystem crs()
+        {
+            return point.getCoordinateReferenceSystem();
+        }
+
+        /**
+         * @param other point in the same coordinate reference system as {@link #point()}.
+         * @return the distance from {@link #point()} to {@code other}, which results are ordered by.
+         */
+        public double distance( PointValue other )
+        {
+            return crs().getCalculator().distance( point, other );
+        }
+    }
+
     public static final class NumberRangePredicate extends RangePredicate<NumberValue>
     {
         NumberRangePredicate( int propertyKeyId, NumberValue from, boolean fromInclusive, NumberValue to,
@@ -40,11 +40,39 @@ package org.neo4j.internal.kernel.api;
 
 /**
  * Initializer for spreading a scan operator over multiple cursors for use from different threads in parallel.
+ * <p>
+ * The underlying id space is divided into batches, and each call to {@link #reserveBatch(Cursor, int)} atomically
+ * claims the next unclaimed batch and initializes the given cursor to iterate over it. A single {@code Scan} can thus
+ * be shared between threads, where each thread owns its own cursor and keeps reserving batches until the scan is
+ * exhausted:
+ * <pre><code>
+ *     Scan&lt;NodeCursor&gt; scan = read.allNodesScan();
+ *     // in each worker thread
+ *     try ( NodeCursor cursor = cursors.allocateNodeCursor() )
+ *     {
+ *         while ( scan.reserveBatch( cursor, 10_000 ) )
+ *         {
+ *             while ( cursor.next() )
+ *             {
+ *                 ...
+ *             }
+ *         }
+ *     }
+ * </code></pre>
  *
  * @param <Cursor>
  *         the type of cursor this object initializes.
  */
 public interface Scan<Cursor extends org.neo4j.internal.kernel.api.Cursor>
 {
-    void initialize( Cursor cursor );
+    /**
+     * Reserves the next batch of the scan and initializes the given cursor to iterate over it. The actual number of
+     * entities covered by a batch may differ from {@code sizeHint}, since batches are aligned to the layout of the
+     * underlying storage.
+     *
+     * @param cursor the cursor to initialize with the reserved batch.
+     * @param sizeHint the approximate number of ids the batch should cover, must be positive.
+     * @return {@code true} if a batch was reserved and the cursor initialized, {@code false} if the scan is exhausted.
+     */
+    boolean reserveBatch( Cursor cursor, int sizeHint );
 }
@@ -42,14 +42,20 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import org.neo4j.collection.primitive.Primitive;
 import org.neo4j.collection.primitive.PrimitiveLongSet;
 import org.neo4j.graphdb.Label;
 import org.neo4j.graphdb.TransactionTerminatedException;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.ValueCategory;
 import org.neo4j.values.storable.Values;
 
+import static java.util.Arrays.asList;
+
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.junit.Assert.assertThat;
 
@@ -131,6 +137,49 @@ public abstract class NodeIndexTransactionStateTestBase<G extends KernelAPIWrite
         }
     }
 
+    @Test
+    public void shouldPerformOrderedRangeSearch() throws Exception
+    {
+        // given
+        try ( Transaction tx = session.beginTransaction() )
+        {
+            nodeWithProp( tx, "b" );
+            nodeWithProp( tx, "d" );
+            nodeWithProp( tx, "f" );
+            nodeWithProp( tx, "x" );
+            tx.success();
+        }
+
+        createIndex();
+
+        // when
+        try ( Transaction tx = session.beginTransaction() )
+        {
+            int label = tx.tokenRead().nodeLabel( "Node" );
+            int prop = tx.tokenRead().propertyKey( "prop" );
+            nodeWithProp( tx, "e" );
+            nodeWithProp( tx, "a" );
+            nodeWithProp( tx, "c" );
+            nodeWithProp( tx, "y" );
+            CapableIndexReference index = tx.schemaRead().index( label, prop );
+            IndexQuery query = IndexQuery.range( prop, "a", true, "f", true );
+
+            // then
+            for ( IndexOrder indexOrder : index.orderCapability( ValueCategory.TEXT ) )
+            {
+                List<String> found = seek( tx, index, indexOrder, query );
+                if ( indexOrder == IndexOrder.ASCENDING )
+                {
+                    assertThat( found, equalTo( asList( "a", "b", "c", "d", "e", "f" ) ) );
+                }
+                else if ( indexOrder == IndexOrder.DESCENDING )
+                {
+                    assertThat( found, equalTo( asList( "f", "e", "d", "c", "b", "a" ) ) );
+                }
+            }
+        }
+    }
+
     @Test
     public void shouldThrowIfTransactionTerminated() throws Exception
     {
@@ -149,7 +198,22 @@ public abstract class NodeIndexTransactionStateTestBase<G extends KernelAPIWrite
 
     protected abstract void terminate( Transaction transaction );
 
-    private long nodeWithProp( Transaction tx, Object value ) throws Exception
+    private List<String> seek( Transaction tx, CapableIndexReference index, IndexOrder indexOrder, IndexQuery query ) throws Exception
+    {
+        List<String> found = new ArrayList<>();
+        try ( NodeValueIndexCursor nodes = tx.cursors().allocateNodeValueIndexCursor() )
+        {
+            tx.dataRead().nodeIndexSeek( index, nodes, indexOrder, query );
+            while ( nodes.next() )
+            {
+                Value value = nodes.propertyValue( 0 );
+                found.add( (String) value.asObject() );
+            }
+        }
+        return found;
+    }
+
+    protected long nodeWithProp( Transaction tx, Object value ) throws Exception
     {
         Write write = tx.dataWrite();
         long node = write.nodeCreate();
@@ -158,7 +222,7 @@ public abstract class NodeIndexTransactionStateTestBase<G extends KernelAPIWrite
         return node;
     }
 
-    private void createIndex()
+    protected void createIndex()
     {
         try ( org.neo4j.graphdb.Transaction tx = graphDb.beginTx() )
         {
@@ -42,6 +42,8 @@ import org.junit.Ignore;
 import org.junit.Test;
 
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
 
 import org.neo4j.helpers.collection.Iterables;
 import org.neo4j.values.storable.ValueGroup;
@@ -195,6 +197,68 @@ public abstract class NodeTransactionStateTestBase<G extends KernelAPIWriteTestS
         }
     }
 
+    @Test
+    public void shouldSeeAddedAndNotDeletedNodesInBatchedScan() throws Exception
+    {
+        Set<Long> existing = new HashSet<>();
+        try ( Transaction tx = session.beginTransaction() )
+        {
+            for ( int i = 0; i < 10; i++ )
+            {
+                existing.add( tx.dataWrite().nodeCreate() );
+            }
+            tx.success();
+        }
+
+        try ( Transaction tx = session.beginTransaction() )
+        {
+            Set<Long> expected = new HashSet<>( existing );
+            long deleted = existing.iterator().next();
+            assertTrue( tx.dataWrite().nodeDelete( deleted ) );
+            expected.remove( deleted );
+            int label = tx.token().labelGetOrCreateForName( "Batch" );
+            Set<Long> labeled = new HashSet<>();
+            for ( int i = 0; i < 10; i++ )
+            {
+                long node = tx.dataWrite().nodeCreate();
+                expected.add( node );
+                if ( i % 2 == 0 )
+                {
+                    tx.dataWrite().nodeAddLabel( node, label );
+                    labeled.add( node );
+                }
+            }
+
+            Set<Long> found = new HashSet<>();
+            try ( NodeCursor node = tx.cursors().allocateNodeCursor() )
+            {
+                Scan<NodeCursor> scan = tx.dataRead().allNodesScan();
+                while ( scan.reserveBatch( node, 1 ) )
+                {
+                    while ( node.next() )
+                    {
+                        assertTrue( "should only see each node once", found.add( node.nodeReference() ) );
+                    }
+                }
+            }
+            assertEquals( expected, found );
+
+            Set<Long> foundLabeled = new HashSet<>();
+            try ( NodeLabelIndexCursor node = tx.cursors().allocateNodeLabelIndexCursor() )
+            {
+                Scan<NodeLabelIndexCursor> scan = tx.dataRead().nodeLabelScan( label );
+                while ( scan.reserveBatch( node, 1 ) )
+                {
+                    while ( node.next() )
+                    {
+                        assertTrue( "should only see each node once", foundLabeled.add( node.nodeReference() ) );
+                    }
+                }
+            }
+            assertEquals( labeled, foundLabeled );
+        }
+    }
+
     @Test
     public void shouldHandleMultipleNodeDeletions() throws Exception
     {
@@ -0,0 +1,263 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.kernel.api;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Transaction;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.neo4j.graphdb.Label.label;
+
+public abstract class ParallelNodeCursorTestBase<G extends KernelAPIReadTestSupport> extends KernelAPIReadTestBase<G>
+{
+    private static final int NUMBER_OF_NODES = 3_000;
+    private static final int NUMBER_OF_WORKERS = 4;
+    private static Set<Long> NODE_IDS;
+    private static Set<Long> LABELED_NODE_IDS;
+
+    @Override
+    void createTestGraph( GraphDatabaseService graphDb )
+    {
+        List<Node> deleted = new ArrayList<>();
+        try ( Transaction tx = graphDb.beginTx() )
+        {
+            for ( int i = 0; i < NUMBER_OF_NODES; i++ )
+            {
+                Node node = i % 3 == 0 ? graphDb.createNode( label( "Foo" ) ) : graphDb.createNode();
+                if ( i % 7 == 0 )
+                {
+                    deleted.add( node );
+                }
+            }
+            tx.success();
+        }
+
+        try ( Transaction tx = graphDb.beginTx() )
+        {
+            for ( Node node : deleted )
+            {
+                node.delete();
+            }
+            tx.success();
+        }
+
+        try ( Transaction tx = graphDb.beginTx() )
+        {
+            NODE_IDS = new HashSet<>();
+            LABELED_NODE_IDS = new HashSet<>();
+            for ( Node node : graphDb.getAllNodes() )
+            {
+                NODE_IDS.add( node.getId() );
+                if ( node.hasLabel( label( "Foo" ) ) )
+                {
+                    LABELED_NODE_IDS.add( node.getId() );
+                }
+            }
+            tx.success();
+        }
+    }
+
+    @Test
+    public void shouldScanAllNodesInBatches()
+    {
+        // given
+        Set<Long> ids = new HashSet<>();
+        try ( NodeCursor nodes = cursors.allocateNodeCursor() )
+        {
+            // when
+            Scan<NodeCursor> scan = read.allNodesScan();
+            int batches = 0;
+            while ( scan.reserveBatch( nodes, 100 ) )
+            {
+                batches++;
+                while ( nodes.next() )
+                {
+                    assertTrue( "should only see each node once", ids.add( nodes.nodeReference() ) );
+                }
+            }
+
+            // then
+            assertTrue( "should have split the scan into several batches", batches > 1 );
+            assertFalse( "should not reserve any more batches", scan.reserveBatch( nodes, 100 ) );
+        }
+        assertEquals( NODE_IDS, ids );
+    }
+
+    @Test
+    public void shouldScanAllNodesFromMultipleThreads() throws Exception
+    {
+        // given
+        Scan<NodeCursor> scan = read.allNodesScan();
+        List<NodeCursor> workerCursors = new ArrayList<>();
+        for ( int i = 0; i < NUMBER_OF_WORKERS; i++ )
+        {
+            workerCursors.add( cursors.allocateNodeCursor() );
+        }
+        ExecutorService executor = Executors.newFixedThreadPool( NUMBER_OF_WORKERS );
+
+        try
+        {
+            // when
+            List<Future<List<Long>>> futures = new ArrayList<>();
+            for ( NodeCursor cursor : workerCursors )
+            {
+                futures.add( executor.submit( () ->
+                {
+                    List<Long> found = new ArrayList<>();
+                    while ( scan.reserveBatch( cursor, 50 ) )
+                    {
+                        while ( cursor.next() )
+                        {
+                            found.add( cursor.nodeReference() );
+                        }
+                    }
+                    return found;
+                } ) );
+            }
+
+            // then
+            List<Long> ids = new ArrayList<>();
+            for ( Future<List<Long>> future : futures )
+            {
+                ids.addAll( future.get() );
+            }
+            assertEquals( "should see each node exactly once", NODE_IDS.size(), ids.size() );
+            assertEquals( NODE_IDS, new HashSet<>( ids ) );
+        }
+        finally
+        {
+            executor.shutdown();
+            workerCursors.forEach( NodeCursor::close );
+        }
+    }
+
+    @Test
+    public void shouldScanLabelInBatches()
+    {
+        // given
+        int label = token.nodeLabel( "Foo" );
+        Set<Long> ids = new HashSet<>();
+        try ( NodeLabelIndexCursor nodes = cursors.allocateNodeLabelIndexCursor() )
+        {
+            // when
+            Scan<NodeLabelIndexCursor> scan = read.nodeLabelScan( label );
+            while ( scan.reserveBatch( nodes, 100 ) )
+            {
+                while ( nodes.next() )
+                {
+                    assertTrue( "should only see each node once", ids.add( nodes.nodeReference() ) );
+                }
+            }
+        }
+
+        // then
+        assertEquals( LABELED_NODE_IDS, ids );
+    }
+
+    @Test
+    public void shouldScanLabelFromMultipleThreads() throws Exception
+    {
+        // given
+        int label = token.nodeLabel( "Foo" );
+        Scan<NodeLabelIndexCursor> scan = read.nodeLabelScan( label );
+        List<NodeLabelIndexCursor> workerCursors = new ArrayList<>();
+        for ( int i = 0; i < NUMBER_OF_WORKERS; i++ )
+        {
+            workerCursors.add( cursors.allocateNodeLabelIndexCursor() );
+        }
+        ExecutorService executor = Executors.newFixedThreadPool( NUMBER_OF_WORKERS );
+
+        try
+        {
+            // when
+            List<Future<List<Long>>> futures = new ArrayList<>();
+            for ( NodeLabelIndexCursor cursor : workerCursors )
+            {
+                futures.add( executor.submit( () ->
+                {
+                    List<Long> found = new ArrayList<>();
+                    while ( scan.reserveBatch( cursor, 50 ) )
+                    {
+                        while ( cursor.next() )
+                        {
+                            found.add( cursor.nodeReference() );
+                        }
+                    }
+                    return found;
+                } ) );
+            }
+
+            // then
+            List<Long> ids = new ArrayList<>();
+            for ( Future<List<Long>> future : futures )
+            {
+                ids.addAll( future.get() );
+            }
+            assertEquals( "should see each node exactly once", LABELED_NODE_IDS.size(), ids.size() );
+            assertEquals( LABELED_NODE_IDS, new HashSet<>( ids ) );
+        }
+        finally
+        {
+            executor.shutdown();
+            workerCursors.forEach( NodeLabelIndexCursor::close );
+        }
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldNotAcceptNonPositiveBatchSize()
+    {
+        try ( NodeCursor nodes = cursors.allocateNodeCursor() )
+        {
+            read.allNodesScan().reserveBatch( nodes, 0 );
+        }
+    }
+}
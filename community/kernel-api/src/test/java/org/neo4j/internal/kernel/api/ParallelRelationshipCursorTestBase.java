@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.kernel.api;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.Transaction;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.neo4j.graphdb.RelationshipType.withName;
+
+public abstract class ParallelRelationshipCursorTestBase<G extends KernelAPIReadTestSupport> extends KernelAPIReadTestBase<G>
+{
+    private static final int NUMBER_OF_RELATIONSHIPS = 3_000;
+    private static final int NUMBER_OF_WORKERS = 4;
+    private static Set<Long> RELATIONSHIP_IDS;
+    private static Set<Long> TYPED_RELATIONSHIP_IDS;
+
+    @Override
+    void createTestGraph( GraphDatabaseService graphDb )
+    {
+        List<Relationship> deleted = new ArrayList<>();
+        try ( Transaction tx = graphDb.beginTx() )
+        {
+            Node a = graphDb.createNode(), b = graphDb.createNode();
+            for ( int i = 0; i < NUMBER_OF_RELATIONSHIPS; i++ )
+            {
+                Relationship relationship = a.createRelationshipTo( b, withName( i % 4 == 0 ? "FOO" : "BAR" ) );
+                if ( i % 11 == 0 )
+                {
+                    deleted.add( relationship );
+                }
+            }
+            tx.success();
+        }
+
+        try ( Transaction tx = graphDb.beginTx() )
+        {
+            for ( Relationship relationship : deleted )
+            {
+                relationship.delete();
+            }
+            tx.success();
+        }
+
+        try ( Transaction tx = graphDb.beginTx() )
+        {
+            RELATIONSHIP_IDS = new HashSet<>();
+            TYPED_RELATIONSHIP_IDS = new HashSet<>();
+            for ( Relationship relationship : graphDb.getAllRelationships() )
+            {
+                RELATIONSHIP_IDS.add( relationship.getId() );
+                if ( relationship.isType( withName( "FOO" ) ) )
+                {
+                    TYPED_RELATIONSHIP_IDS.add( relationship.getId() );
+                }
+            }
+            tx.success();
+        }
+    }
+
+    @Test
+    public void shouldScanAllRelationshipsInBatches()
+    {
+        // given
+        Set<Long> ids = new HashSet<>();
+        try ( RelationshipScanCursor relationships = cursors.allocateRelationshipScanCursor() )
+        {
+            // when
+            Scan<RelationshipScanCursor> scan = read.allRelationshipsScan();
+            while ( scan.reserveBatch( relationships, 100 ) )
+            {
+                while ( relationships.next() )
+                {
+                    assertTrue( "should only see each relationship once", ids.add( relationships.relationshipReference() ) );
+                }
+            }
+        }
+
+        // then
+        assertEquals( RELATIONSHIP_IDS, ids );
+    }
+
+    @Test
+    public void shouldScanRelationshipTypeInBatches()
+    {
+        // given
+        int type = token.relationshipType( "FOO" );
+        Set<Long> ids = new HashSet<>();
+        try ( RelationshipScanCursor relationships = cursors.allocateRelationshipScanCursor() )
+        {
+            // when
+            Scan<RelationshipScanCursor> scan = read.relationshipTypeScan( type );
+            while ( scan.reserveBatch( relationships, 100 ) )
+            {
+                while ( relationships.next() )
+                {
+                    assertEquals( type, relationships.type() );
+                    assertTrue( "should only see each relationship once", ids.add( relationships.relationshipReference() ) );
+                }
+            }
+        }
+
+        // then
+        assertEquals( TYPED_RELATIONSHIP_IDS, ids );
+    }
+
+    @Test
+    public void shouldScanAllRelationshipsFromMultipleThreads() throws Exception
+    {
+        // given
+        Scan<RelationshipScanCursor> scan = read.allRelationshipsScan();
+        List<RelationshipScanCursor> workerCursors = new ArrayList<>();
+        for ( int i = 0; i < NUMBER_OF_WORKERS; i++ )
+        {
+            workerCursors.add( cursors.allocateRelationshipScanCursor() );
+        }
+        ExecutorService executor = Executors.newFixedThreadPool( NUMBER_OF_WORKERS );
+
+        try
+        {
+            // when
+            List<Future<List<Long>>> futures = new ArrayList<>();
+            for ( RelationshipScanCursor cursor : workerCursors )
+            {
+                futures.add( executor.submit( () ->
+                {
+                    List<Long> found = new ArrayList<>();
+                    while ( scan.reserveBatch( cursor, 50 ) )
+                    {
+                        while ( cursor.next() )
+                        {
+                            found.add( cursor.relationshipReference() );
+                        }
+                    }
+                    return found;
+                } ) );
+            }
+
+            // then
+            List<Long> ids = new ArrayList<>();
+            for ( Future<List<Long>> future : futures )
+            {
+                ids.addAll( future.get() );
+            }
+            assertEquals( "should see each relationship exactly once", RELATIONSHIP_IDS.size(), ids.size() );
+            assertEquals( RELATIONSHIP_IDS, new HashSet<>( ids ) );
+        }
+        finally
+        {
+            executor.shutdown();
+            workerCursors.forEach( RelationshipScanCursor::close );
+        }
+    }
+}
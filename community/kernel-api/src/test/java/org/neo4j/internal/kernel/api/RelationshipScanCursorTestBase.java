@@ -42,6 +42,7 @@ import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -124,6 +125,36 @@ public abstract class RelationshipScanCursorTestBase<G extends KernelAPIReadTest
         assertEquals( RELATIONSHIP_IDS, ids );
     }
 
+    @Test
+    public void shouldScanRelationshipsOfType()
+    {
+        // given
+        int triangle = token.relationshipType( "TRIANGLE" );
+        int loopType = token.relationshipType( "LOOP" );
+        List<Long> triangles = new ArrayList<>();
+        List<Long> loops = new ArrayList<>();
+        try ( RelationshipScanCursor relationships = cursors.allocateRelationshipScanCursor() )
+        {
+            // when
+            read.relationshipTypeScan( triangle, relationships );
+            while ( relationships.next() )
+            {
+                assertEquals( "should only find relationships of the scanned type", triangle, relationships.type() );
+                triangles.add( relationships.relationshipReference() );
+            }
+            read.relationshipTypeScan( loopType, relationships );
+            while ( relationships.next() )
+            {
+                loops.add( relationships.relationshipReference() );
+            }
+        }
+
+        // then
+        assertEquals( 6, triangles.size() );
+        assertFalse( "should not find deleted relationship", triangles.contains( none ) );
+        assertEquals( Collections.singletonList( loop ), loops );
+    }
+
     @Test
     public void shouldAccessRelationshipByReference()
     {
@@ -41,8 +41,10 @@ package org.neo4j.internal.kernel.api;
 import org.junit.Test;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Consumer;
 
 import org.neo4j.collection.primitive.PrimitiveLongCollections;
@@ -205,6 +207,48 @@ public abstract class RelationshipTransactionStateTestBase<G extends KernelAPIWr
         }
     }
 
+    @Test
+    public void shouldSeeAddedAndNotDeletedRelationshipsInBatchedScan() throws Exception
+    {
+        long n1, n2, deleted;
+        int type;
+        try ( Transaction tx = session.beginTransaction() )
+        {
+            n1 = tx.dataWrite().nodeCreate();
+            n2 = tx.dataWrite().nodeCreate();
+            type = tx.tokenWrite().relationshipTypeGetOrCreateForName( "R" );
+            deleted = tx.dataWrite().relationshipCreate( n1, type, n2 );
+            tx.success();
+        }
+
+        try ( Transaction tx = session.beginTransaction() )
+        {
+            int other = tx.tokenWrite().relationshipTypeGetOrCreateForName( "OTHER" );
+            Set<Long> expected = new HashSet<>();
+            for ( int i = 0; i < 10; i++ )
+            {
+                expected.add( tx.dataWrite().relationshipCreate( n1, type, n2 ) );
+                tx.dataWrite().relationshipCreate( n2, other, n1 );
+            }
+            tx.dataWrite().relationshipDelete( deleted );
+
+            Set<Long> found = new HashSet<>();
+            try ( RelationshipScanCursor relationship = tx.cursors().allocateRelationshipScanCursor() )
+            {
+                Scan<RelationshipScanCursor> scan = tx.dataRead().relationshipTypeScan( type );
+                while ( scan.reserveBatch( relationship, 1 ) )
+                {
+                    while ( relationship.next() )
+                    {
+                        assertEquals( type, relationship.type() );
+                        assertTrue( "should only see each relationship once", found.add( relationship.relationshipReference() ) );
+                    }
+                }
+            }
+            assertEquals( expected, found );
+        }
+    }
+
     @Test
     public void shouldSeeRelationshipInTransaction() throws Exception
     {
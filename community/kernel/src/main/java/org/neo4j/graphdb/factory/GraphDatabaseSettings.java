@@ -54,6 +54,7 @@ import org.neo4j.graphdb.config.Setting;
 import org.neo4j.helpers.AdvertisedSocketAddress;
 import org.neo4j.helpers.ListenSocketAddress;
 import org.neo4j.io.ByteUnit;
+import org.neo4j.io.pagecache.EvictionPolicy;
 import org.neo4j.kernel.configuration.BoltConnectorValidator;
 import org.neo4j.kernel.configuration.ConfigurationMigrator;
 import org.neo4j.kernel.configuration.GraphDatabaseConfigurationMigrator;
@@ -224,6 +225,26 @@ public class GraphDatabaseSettings implements LoadableConfig
             "simply not performed and execution continues." )
     public static final Setting<Boolean> cypher_lenient_create_relationship = setting( "cypher.lenient_create_relationship", BOOLEAN, FALSE );
 
+    @Description( "The amount of heap the eager operators of a Cypher query that can spill, i.e. sorting, distinct, aggregation and " +
+            "the build side of hash joins, may hold together before they start spilling rows to temporary files. The budget is " +
+            "shared by all such operators of the query. If set to 0, rows are never spilled." )
+    public static final Setting<Long> cypher_operator_memory_budget =
+            buildSetting( "cypher.operator_memory_budget", BYTES, "0" ).constraint( min( 0L ) ).build();
+
+    @Description( "The largest estimated amount of heap a single Cypher query may hold in rows, lists and operator state. " +
+            "A query exceeding it is terminated. Only enforced when `dbms.track_query_memory` is enabled. " +
+            "If set to 0, queries are not limited individually." )
+    @Dynamic
+    public static final Setting<Long> cypher_query_max_memory =
+            buildSetting( "cypher.query_max_memory", BYTES, "0" ).constraint( min( 0L ) ).build();
+
+    @Description( "The largest estimated amount of heap all running Cypher queries together may hold in rows, lists and " +
+            "operator state. The query whose allocation would exceed it is terminated. Only enforced when " +
+            "`dbms.track_query_memory` is enabled. If set to 0, queries are not limited together." )
+    @Dynamic
+    public static final Setting<Long> cypher_global_query_max_memory =
+            buildSetting( "cypher.global_query_max_memory", BYTES, "0" ).constraint( min( 0L ) ).build();
+
     @Description( "Set this to specify the default runtime for the default language version." )
     @Internal
     public static final Setting<String> cypher_runtime = setting(
@@ -291,6 +312,17 @@ public class GraphDatabaseSettings implements LoadableConfig
                   "after a sufficiently long time interval." )
     public static final Setting<Duration> cypher_min_replan_interval = setting( "cypher.min_replan_interval", DURATION, "10s" );
 
+    @Description( "Replan stale query plans in the background, rather than on the thread of the query finding the plan stale. " +
+                  "Queries keep executing the stale plan until the new plan has replaced it in the query cache." )
+    public static final Setting<Boolean> cypher_replan_in_background =
+            setting( "cypher.replan_in_background", BOOLEAN, FALSE );
+
+    @Description( "The number of threads replanning stale query plans when `cypher.replan_in_background` is enabled. " +
+                  "Once more stale plans are waiting for them than fit in the query cache, queries replan their stale " +
+                  "plans themselves." )
+    public static final Setting<Integer> cypher_background_replan_threads =
+            buildSetting( "cypher.background_replan_threads", INTEGER, "2" ).constraint( min( 1 ) ).build();
+
     @Description( "Large databases might change slowly, and to prevent queries from never being replanned " +
                   "the divergence threshold set by cypher.statistics_divergence_threshold is configured to " +
                   "shrink over time. The algorithm used to manage this change is set by " +
@@ -359,6 +391,12 @@ public class GraphDatabaseSettings implements LoadableConfig
     @Dynamic
     public static final Setting<Boolean> track_query_allocation = setting( "dbms.track_query_allocation", BOOLEAN, FALSE );
 
+    @Description( "Enables or disables tracking of the estimated amount of heap held by the rows, lists and operator state " +
+                  "of a query while it executes. Calling `dbms.listQueries` will display the current and peak estimate. " +
+                  "This can also be logged in the query log by using `log_queries_memory_logging_enabled`." )
+    @Dynamic
+    public static final Setting<Boolean> track_query_memory = setting( "dbms.track_query_memory", BOOLEAN, FALSE );
+
     @Description( "The size of the morsels" )
     @Internal
     public static final Setting<Integer> cypher_morsel_size =
@@ -370,6 +408,18 @@ public class GraphDatabaseSettings implements LoadableConfig
     public static final Setting<Integer> cypher_worker_count =
             setting( "unsupported.cypher.number_of_workers", INTEGER, "0" );
 
+    @Description( "The maximum number of queries the parallel morsel runtime executes at the same time. Further queries " +
+            "wait until one of the running queries has finished. If set to 0, the number of concurrent queries is not limited." )
+    @Internal
+    public static final Setting<Integer> cypher_morsel_max_concurrent_queries =
+            setting( "unsupported.cypher.morsel_max_concurrent_queries", INTEGER, "0" );
+
+    @Description( "The number of morsels of each size every Cypher worker thread keeps for reuse by later pipelines. " +
+            "If set to 0, a new morsel is allocated for every pipeline iteration." )
+    @Internal
+    public static final Setting<Integer> cypher_morsel_pool_size =
+            setting( "unsupported.cypher.morsel_pool_size", INTEGER, "16" );
+
     @Description( "The maximum amount of time to wait for the database to become available, when " +
                   "starting a new transaction." )
     @Internal
@@ -567,6 +617,7 @@ public class GraphDatabaseSettings implements LoadableConfig
     public enum SchemaIndex
     {
         // These strings are supposed to match provider names, i.e. key-version, see IndexProvider.Descriptor#name()
+        NATIVE30( "lucene+native-3.0" ),
         NATIVE20( "lucene+native-2.0" ),
         NATIVE10( "lucene+native-1.0" ),
         LUCENE10( "lucene-1.0" );
@@ -594,7 +645,12 @@ public class GraphDatabaseSettings implements LoadableConfig
             "This version of the native string index has a value limit of 4039 bytes, such that byte-representation " +
             "of a string to index cannot be larger than that limit, or the transaction trying to index such a value will fail. " +
             "This version of the native string index also has reduced performance for CONTAINS and ENDS WITH queries, " +
-            "due to resorting to index scan+filter internally. " +
+            "due to resorting to index scan+filter internally, unless the index was created with " +
+            "unsupported.dbms.index.string.trigram_index_enabled set, giving it a trigram index for such queries. " +
+            "lucene+native-3.0: Store composite values where all values are strings, booleans or numbers in a native index " +
+            "and remaining value types like lucene+native-2.0. " +
+            "This improves read and write performance for composite indexes and allows ordered and exact-prefix-then-range lookups on them. " +
+            "A value limit similar to that of the native string index applies to the combined byte-representation of the values of a composite key. " +
             "Native indexes generally has these benefits over Lucene:\n" +
             "- Faster writes\n" +
             "- Less garbage and heap presence\n" +
@@ -602,7 +658,8 @@ public class GraphDatabaseSettings implements LoadableConfig
             "- Controllable memory usage, due to being bound by the page cache" )
             public static final Setting<String> default_schema_provider =
             setting( "dbms.index.default_schema_provider",
-                    optionsIgnoreCase( SchemaIndex.NATIVE20.providerName(), SchemaIndex.NATIVE10.providerName(), SchemaIndex.LUCENE10.providerName() ),
+                    optionsIgnoreCase( SchemaIndex.NATIVE30.providerName(), SchemaIndex.NATIVE20.providerName(), SchemaIndex.NATIVE10.providerName(),
+                            SchemaIndex.LUCENE10.providerName() ),
                     null );
 
     @Description( "Location where Neo4j keeps the logical transaction logs." )
@@ -676,6 +733,13 @@ public class GraphDatabaseSettings implements LoadableConfig
     public static final Setting<String> pagecache_swapper =
             setting( "dbms.memory.pagecache.swapper", STRING, null );
 
+    @Description( "The policy the page cache uses to pick the pages to evict, when it needs to make room for other pages. " +
+                  "`CLOCK` ages all pages alike, which lets large scans push the working set out of the page cache. " +
+                  "`SCAN_RESISTANT` protects pages that are used repeatedly from being evicted by pages that are only " +
+                  "used once, such as the pages read by large scans and consistency checks." )
+    public static final Setting<EvictionPolicy> pagecache_eviction_policy =
+            setting( "dbms.memory.pagecache.eviction_policy", options( EvictionPolicy.class, true ), EvictionPolicy.CLOCK.name() );
+
     @Internal
     @Description( "The profiling frequency for the page cache. Accurate profiles allow the page cache to do active " +
                   "warmup after a restart, reducing the mean time to performance. " +
@@ -792,6 +856,11 @@ public class GraphDatabaseSettings implements LoadableConfig
     public static final Setting<Boolean> log_queries_allocation_logging_enabled =
             setting( "dbms.logs.query.allocation_logging_enabled", BOOLEAN, FALSE );
 
+    @Description( "Log the peak estimated amount of heap held by the executed queries being logged. " +
+            "Only available when `dbms.track_query_memory` is enabled." )
+    public static final Setting<Boolean> log_queries_memory_logging_enabled =
+            setting( "dbms.logs.query.memory_logging_enabled", BOOLEAN, FALSE );
+
     @Description( "Logs which runtime that was used to run the query" )
     public static final Setting<Boolean> log_queries_runtime_logging_enabled =
             setting( "dbms.logs.query.runtime_logging_enabled", BOOLEAN, FALSE );
@@ -855,6 +924,15 @@ public class GraphDatabaseSettings implements LoadableConfig
             setting( "dbms.label_index", optionsIgnoreCase( LabelIndex.NATIVE.name(), LabelIndex.AUTO.name() ),
                     LabelIndex.NATIVE.name() );
 
+    @Description( "Maintain a relationship type --> relationships index, which lets scans of relationships of a single " +
+            "type avoid sweeping the whole relationship store. When enabled, Cypher may also plan single-type directed " +
+            "patterns with unbound endpoints as a scan of this index. The index is built on startup when missing, and " +
+            "is removed when this setting is disabled. It is off by default because keeping it up to date adds a write " +
+            "to every relationship creation and deletion." )
+    @Internal
+    public static final Setting<Boolean> relationship_type_scan_store_enabled =
+            setting( "unsupported.dbms.relationship_type_scan_store.enabled", BOOLEAN, FALSE );
+
     // Security settings
 
     @Description( "Enable auth requirement to access Neo4j." )
@@ -995,6 +1073,13 @@ public class GraphDatabaseSettings implements LoadableConfig
             options( TransactionStateMemoryAllocation.class, true ),
             TransactionStateMemoryAllocation.ON_HEAP.name() ).build();
 
+    @Internal
+    @Description( "[Experimental] The maximum amount of off-heap memory a single transaction may allocate for its transaction state " +
+            "when transaction state is allocated off-heap. A transaction that needs more than this fails and is rolled back. " +
+            "Zero means that there is no limit." )
+    public static final Setting<Long> tx_state_max_off_heap_memory = buildSetting(
+            "unsupported.dbms.tx_state.max_off_heap_memory", BYTES, "0" ).constraint( min( 0L ) ).build();
+
     // Needed to validate config, accessed via reflection
     @SuppressWarnings( "unused" )
     public static final HttpConnectorValidator httpValidator = new HttpConnectorValidator();
@@ -99,6 +99,7 @@ import org.neo4j.kernel.impl.locking.StatementLocksFactory;
 import org.neo4j.kernel.impl.logging.LogService;
 import org.neo4j.kernel.impl.newapi.DefaultCursors;
 import org.neo4j.kernel.impl.proc.Procedures;
+import org.neo4j.kernel.impl.query.QueryMemoryPool;
 import org.neo4j.kernel.impl.storageengine.impl.recordstorage.RecordStorageEngine;
 import org.neo4j.kernel.impl.storageengine.impl.recordstorage.id.IdController;
 import org.neo4j.kernel.impl.store.MetaDataStore;
@@ -676,6 +677,7 @@ public class NeoStoreDataSource implements Lifecycle, IndexProviders
     {
         AtomicReference<CpuClock> cpuClockRef = setupCpuClockAtomicReference();
         AtomicReference<HeapAllocation> heapAllocationRef = setupHeapAllocationAtomicReference();
+        QueryMemoryPool queryMemoryPool = setupQueryMemoryPool();
 
         TransactionCommitProcess transactionCommitProcess = commitProcessFactory.create( appender, storageEngine,
                 config );
@@ -694,7 +696,8 @@ public class NeoStoreDataSource implements Lifecycle, IndexProviders
         StatementOperationParts statementOperationParts = dependencies.satisfyDependency(
                 buildStatementOperations(
                         cpuClockRef,
-                        heapAllocationRef ) );
+                        heapAllocationRef,
+                        queryMemoryPool ) );
 
         TransactionHooks hooks = new TransactionHooks();
 
@@ -759,6 +762,22 @@ public class NeoStoreDataSource implements Lifecycle, IndexProviders
         return heapAllocation;
     }
 
+    private QueryMemoryPool setupQueryMemoryPool()
+    {
+        QueryMemoryPool queryMemoryPool = new QueryMemoryPool(
+                config.get( GraphDatabaseSettings.track_query_memory ),
+                config.get( GraphDatabaseSettings.cypher_query_max_memory ),
+                config.get( GraphDatabaseSettings.cypher_global_query_max_memory ) );
+        config.registerDynamicUpdateListener( GraphDatabaseSettings.track_query_memory,
+                ( before, after ) -> queryMemoryPool.setTracking( after ) );
+        config.registerDynamicUpdateListener( GraphDatabaseSettings.cypher_query_max_memory,
+                ( before, after ) -> queryMemoryPool.setQueryLimit( after ) );
+        config.registerDynamicUpdateListener( GraphDatabaseSettings.cypher_global_query_max_memory,
+                ( before, after ) -> queryMemoryPool.setGlobalLimit( after ) );
+        monitors.addMonitorListener( queryMemoryPool );
+        return dependencies.satisfyDependency( queryMemoryPool );
+    }
+
     private void buildTransactionMonitor( KernelTransactions kernelTransactions, SystemNanoClock clock, Config config )
     {
         KernelTransactionTimeoutMonitor kernelTransactionTimeoutMonitor =
@@ -877,10 +896,10 @@ public class NeoStoreDataSource implements Lifecycle, IndexProviders
     }
 
     private StatementOperationParts buildStatementOperations( AtomicReference<CpuClock> cpuClockRef,
-            AtomicReference<HeapAllocation> heapAllocationRef )
+            AtomicReference<HeapAllocation> heapAllocationRef, QueryMemoryPool queryMemoryPool )
     {
         QueryRegistrationOperations queryRegistrationOperations =
-                new StackingQueryRegistrationOperations( clock, cpuClockRef, heapAllocationRef );
+                new StackingQueryRegistrationOperations( clock, cpuClockRef, heapAllocationRef, queryMemoryPool );
 
         return new StatementOperationParts( queryRegistrationOperations );
     }
@@ -41,6 +41,7 @@ package org.neo4j.kernel.api.index;
 import java.io.IOException;
 import java.util.Collection;
 
+import org.neo4j.helpers.CancellationRequest;
 import org.neo4j.internal.kernel.api.InternalIndexState;
 import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
 import org.neo4j.kernel.api.schema.index.SchemaIndexDescriptor;
@@ -124,6 +125,25 @@ public interface IndexPopulator
      */
     IndexUpdater newPopulatingUpdater( PropertyAccessor accessor );
 
+    /**
+     * Called when all existing data has been {@link #add(Collection) added}, after the store scan and before the index
+     * is flipped to online. Updates from {@link #newPopulatingUpdater(PropertyAccessor) populating updaters} may still
+     * come in after this call.
+     * <p>
+     * Committing transactions are not blocked by this call, unlike {@link #close(boolean)} which is called while the
+     * index is being flipped, so this is where populators should do any expensive work needed to complete the index,
+     * leaving as little as possible to do in {@link #close(boolean)}.
+     * <p>
+     * Population may be cancelled while this call is in progress, in which case populators should stop their work and
+     * return as soon as they notice that {@code cancellation} is requested. The populator is then closed as unsuccessful.
+     *
+     * @param cancellation tells whether or not the index population has been cancelled.
+     * @throws IOException on I/O error.
+     */
+    default void scanCompleted( CancellationRequest cancellation ) throws IOException
+    {
+    }
+
     /**
      * Close this populator and releases any resources related to it.
      * If {@code populationCompletedSuccessfully} is {@code true} then it must mark this index
@@ -147,6 +147,16 @@ public abstract class IndexProvider extends LifecycleAdapter implements Comparab
             public void recoveryCleanupFailed( File indexFile, SchemaIndexDescriptor schemaIndexDescriptor, Throwable throwable )
             {   // no-op
             }
+
+            @Override
+            public void indexRefreshed( SchemaIndexDescriptor schemaIndexDescriptor, long coalescedCommits, long visibilityDelayMillis )
+            {   // no-op
+            }
+
+            @Override
+            public void indexRefreshFailed( SchemaIndexDescriptor schemaIndexDescriptor, Throwable throwable )
+            {   // no-op
+            }
         }
 
         void failedToOpenIndex( long indexId, SchemaIndexDescriptor schemaIndexDescriptor, String action, Exception cause );
@@ -161,6 +171,20 @@ public abstract class IndexProvider extends LifecycleAdapter implements Comparab
         void recoveryCleanupClosed( File indexFile, SchemaIndexDescriptor schemaIndexDescriptor );
 
         void recoveryCleanupFailed( File indexFile, SchemaIndexDescriptor schemaIndexDescriptor, Throwable throwable );
+
+        /**
+         * Called when an index refreshed in the background has made committed updates visible to readers.
+         *
+         * @param coalescedCommits number of commits with updates made visible by this refresh.
+         * @param visibilityDelayMillis time from the first of those commits until they became visible.
+         */
+        void indexRefreshed( SchemaIndexDescriptor schemaIndexDescriptor, long coalescedCommits, long visibilityDelayMillis );
+
+        /**
+         * Called when a background refresh of an index failed. The updates it should have made visible are retried
+         * by a later refresh.
+         */
+        void indexRefreshFailed( SchemaIndexDescriptor schemaIndexDescriptor, Throwable throwable );
     }
 
     public static final IndexProvider EMPTY =
@@ -273,6 +297,19 @@ public abstract class IndexProvider extends LifecycleAdapter implements Comparab
      */
     public abstract IndexCapability getCapability( SchemaIndexDescriptor schemaIndexDescriptor );
 
+    /**
+     * Return {@link IndexCapability} of an existing index, opened by {@link #getOnlineAccessor(long, SchemaIndexDescriptor, IndexSamplingConfig)}.
+     * This differs from {@link #getCapability(SchemaIndexDescriptor)}, the capability of an index populated now, if the index
+     * was populated with structures that are no longer created or without ones that are created now.
+     *
+     * @param indexId the index id of the index.
+     * @param schemaIndexDescriptor {@link SchemaIndexDescriptor} to get IndexCapability for.
+     */
+    public IndexCapability getCapability( long indexId, SchemaIndexDescriptor schemaIndexDescriptor )
+    {
+        return getCapability( schemaIndexDescriptor );
+    }
+
     /**
      * @return a description of this index provider
      */
@@ -100,6 +100,17 @@ public class LoggingMonitor implements IndexProvider.Monitor
                 indexDescription( indexFile, schemaIndexDescriptor ), ExceptionUtils.getStackTrace( throwable ) ) );
     }
 
+    @Override
+    public void indexRefreshed( SchemaIndexDescriptor schemaIndexDescriptor, long coalescedCommits, long visibilityDelayMillis )
+    {   // too frequent to log
+    }
+
+    @Override
+    public void indexRefreshFailed( SchemaIndexDescriptor schemaIndexDescriptor, Throwable throwable )
+    {
+        log.warn( "Failed to refresh index " + schemaIndexDescriptor + " in the background, will retry.", throwable );
+    }
+
     private String indexDescription( File indexFile, SchemaIndexDescriptor schemaIndexDescriptor )
     {
         return "descriptor=" + schemaIndexDescriptor.toString() + ", indexFile=" + indexFile.getAbsolutePath();
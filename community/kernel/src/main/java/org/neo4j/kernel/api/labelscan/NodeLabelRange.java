@@ -148,10 +148,18 @@ public class NodeLabelRange
     }
 
     public static void readBitmap( long bitmap, long labelId, PrimitiveLongList[] labelsPerNode )
+    {
+        readBitmap( bitmap, labelId, labelsPerNode, 0 );
+    }
+
+    /**
+     * Adds {@code labelId} to the nodes of the bits set in {@code bitmap}, where the lowest bit is the node at {@code offset} in the range.
+     */
+    public static void readBitmap( long bitmap, long labelId, PrimitiveLongList[] labelsPerNode, int offset )
     {
         while ( bitmap != 0 )
         {
-            int relativeNodeId = Long.numberOfTrailingZeros( bitmap );
+            int relativeNodeId = offset + Long.numberOfTrailingZeros( bitmap );
             if ( labelsPerNode[relativeNodeId] == null )
             {
                 labelsPerNode[relativeNodeId] = Primitive.longList();
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.api.labelscan;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.neo4j.graphdb.ResourceIterator;
+import org.neo4j.io.pagecache.IOLimiter;
+import org.neo4j.kernel.impl.store.UnderlyingStorageException;
+import org.neo4j.kernel.lifecycle.Lifecycle;
+import org.neo4j.storageengine.api.schema.RelationshipTypeScanReader;
+
+/**
+ * Store of relationship type --> relationships mappings, the relationship counterpart of {@link LabelScanStore}.
+ * It lets scans for relationships of a single type avoid reading the whole relationship store.
+ */
+public interface RelationshipTypeScanStore extends Lifecycle
+{
+    interface Monitor
+    {
+        Monitor EMPTY = new Monitor.Adaptor();
+
+        class Adaptor implements Monitor
+        {
+            @Override
+            public void noIndex()
+            {   // empty
+            }
+
+            @Override
+            public void notValidIndex()
+            {   // empty
+            }
+
+            @Override
+            public void rebuilding()
+            {   // empty
+            }
+
+            @Override
+            public void rebuilt( long roughRelationshipCount )
+            {   // empty
+            }
+        }
+
+        void noIndex();
+
+        void notValidIndex();
+
+        void rebuilding();
+
+        void rebuilt( long roughRelationshipCount );
+    }
+
+    /**
+     * @return a {@link RelationshipTypeScanReader} capable of retrieving relationships for relationship types.
+     */
+    RelationshipTypeScanReader newReader();
+
+    /**
+     * Acquire a writer for updating the store.
+     *
+     * @return {@link RelationshipTypeScanWriter} which can modify the {@link RelationshipTypeScanStore}.
+     */
+    RelationshipTypeScanWriter newWriter();
+
+    /**
+     * Forces all changes to disk. Called at checkpoints, after which there cannot be any essential state that
+     * hasn't been forced to disk.
+     *
+     * @throws UnderlyingStorageException if there was a problem forcing the state to persistent storage.
+     */
+    void force( IOLimiter limiter ) throws UnderlyingStorageException;
+
+    ResourceIterator<File> snapshotStoreFiles();
+
+    /**
+     * Initializes the store. After this has been called recovery updates can be processed.
+     */
+    @Override
+    void init() throws IOException;
+
+    /**
+     * Starts the store, rebuilding it first if it was missing or not valid. After this has been called updates
+     * can be processed.
+     */
+    @Override
+    void start() throws IOException;
+
+    @Override
+    void stop();
+
+    /**
+     * Shuts down the store and all resources acquired by it.
+     */
+    @Override
+    void shutdown() throws IOException;
+
+    /**
+     * Drops any persistent storage backing this store.
+     *
+     * @throws IOException on I/O error.
+     */
+    void drop() throws IOException;
+}
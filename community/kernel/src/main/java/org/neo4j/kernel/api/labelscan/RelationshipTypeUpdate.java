@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.api.labelscan;
+
+import java.util.Comparator;
+
+/**
+ * Change of the type of a single relationship, as seen by a {@link RelationshipTypeScanStore}. Since relationships
+ * cannot change type, an update is either a creation, where {@link #getTypeBefore()} is {@link #NO_TYPE},
+ * or a deletion, where {@link #getTypeAfter()} is {@link #NO_TYPE}.
+ */
+public class RelationshipTypeUpdate
+{
+    public static final int NO_TYPE = -1;
+
+    public static final Comparator<? super RelationshipTypeUpdate> SORT_BY_RELATIONSHIP_ID =
+            Comparator.comparingLong( RelationshipTypeUpdate::getRelationshipId );
+
+    private final long relationshipId;
+    private final int typeBefore;
+    private final int typeAfter;
+    private final long txId;
+
+    private RelationshipTypeUpdate( long relationshipId, int typeBefore, int typeAfter, long txId )
+    {
+        this.relationshipId = relationshipId;
+        this.typeBefore = typeBefore;
+        this.typeAfter = typeAfter;
+        this.txId = txId;
+    }
+
+    public long getRelationshipId()
+    {
+        return relationshipId;
+    }
+
+    public int getTypeBefore()
+    {
+        return typeBefore;
+    }
+
+    public int getTypeAfter()
+    {
+        return typeAfter;
+    }
+
+    public long getTxId()
+    {
+        return txId;
+    }
+
+    @Override
+    public String toString()
+    {
+        return getClass().getSimpleName() + "[relationship:" + relationshipId + ", typeBefore:" + typeBefore +
+                ", typeAfter:" + typeAfter + "]";
+    }
+
+    public static RelationshipTypeUpdate typeChange( long relationshipId, int typeBefore, int typeAfter )
+    {
+        return typeChange( relationshipId, typeBefore, typeAfter, -1 );
+    }
+
+    public static RelationshipTypeUpdate typeChange( long relationshipId, int typeBefore, int typeAfter, long txId )
+    {
+        return new RelationshipTypeUpdate( relationshipId, typeBefore, typeAfter, txId );
+    }
+
+    @Override
+    public boolean equals( Object o )
+    {
+        if ( this == o )
+        {
+            return true;
+        }
+        if ( o == null || getClass() != o.getClass() )
+        {
+            return false;
+        }
+
+        RelationshipTypeUpdate that = (RelationshipTypeUpdate) o;
+        return relationshipId == that.relationshipId && typeBefore == that.typeBefore && typeAfter == that.typeAfter;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        int result = (int) (relationshipId ^ (relationshipId >>> 32));
+        result = 31 * result + typeBefore;
+        result = 31 * result + typeAfter;
+        return result;
+    }
+}
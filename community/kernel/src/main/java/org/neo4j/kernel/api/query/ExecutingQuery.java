@@ -86,6 +86,7 @@ public class ExecutingQuery
     private final SystemNanoClock clock;
     private final CpuClock cpuClock;
     private final HeapAllocation heapAllocation;
+    private final QueryMemoryTracker memoryTracker;
     private final long cpuTimeNanosWhenQueryStarted;
     private final long heapAllocatedBytesWhenQueryStarted;
     private final Map<String,Object> transactionAnnotationData;
@@ -109,7 +110,8 @@ public class ExecutingQuery
             String threadExecutingTheQueryName,
             SystemNanoClock clock,
             CpuClock cpuClock,
-            HeapAllocation heapAllocation )
+            HeapAllocation heapAllocation,
+            QueryMemoryTracker memoryTracker )
     {
         // Capture timestamps first
         this.cpuTimeNanosWhenQueryStarted = cpuClock.cpuTimeNanos( threadExecutingTheQueryId );
@@ -129,6 +131,7 @@ public class ExecutingQuery
         this.threadExecutingTheQueryName = threadExecutingTheQueryName;
         this.cpuClock = cpuClock;
         this.heapAllocation = heapAllocation;
+        this.memoryTracker = memoryTracker;
         this.clock = clock;
         this.heapAllocatedBytesWhenQueryStarted = heapAllocation.allocatedBytes( this.threadExecutingTheQueryId );
     }
@@ -186,6 +189,8 @@ public class ExecutingQuery
         long totalActiveLocks = this.activeLockCount.getAsLong();
         // just needs to be captured at some point...
         long heapAllocatedBytes = heapAllocation.allocatedBytes( threadExecutingTheQueryId );
+        long estimatedHeapBytes = memoryTracker.usedBytes();
+        long peakEstimatedHeapBytes = memoryTracker.peakBytes();
         PageCounterValues pageCounters = new PageCounterValues( pageCursorCounters );
 
         // - at this point we are done capturing the "live" state, and can start computing the snapshot -
@@ -211,7 +216,9 @@ public class ExecutingQuery
                 status.toMap( currentTimeNanos ),
                 waitingOnLocks,
                 totalActiveLocks - initialActiveLocks,
-                heapAllocatedBytes
+                heapAllocatedBytes,
+                estimatedHeapBytes,
+                peakEstimatedHeapBytes
         );
     }
 
@@ -283,6 +290,11 @@ public class ExecutingQuery
         return transactionAnnotationData;
     }
 
+    public QueryMemoryTracker memoryTracker()
+    {
+        return memoryTracker;
+    }
+
     public long reportedWaitingTimeNanos()
     {
         return waitTimeNanos;
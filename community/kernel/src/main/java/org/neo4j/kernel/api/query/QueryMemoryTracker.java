@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.api.query;
+
+/**
+ * Tracks the estimated amount of heap held by the rows, lists and operator state of one executing query.
+ * Allocations are reported before the memory is held, so that a query exceeding its limits can be terminated by the
+ * {@link org.neo4j.memory.MemoryLimitExceededException} thrown from {@link #allocated(long)}.
+ * Trackers may be shared by the threads executing a query.
+ */
+public interface QueryMemoryTracker
+{
+    QueryMemoryTracker NONE = new QueryMemoryTracker()
+    {
+        @Override
+        public boolean isTracking()
+        {
+            return false;
+        }
+
+        @Override
+        public void allocated( long bytes )
+        {
+        }
+
+        @Override
+        public void deallocated( long bytes )
+        {
+        }
+
+        @Override
+        public long usedBytes()
+        {
+            return -1;
+        }
+
+        @Override
+        public long peakBytes()
+        {
+            return -1;
+        }
+
+        @Override
+        public void close()
+        {
+        }
+    };
+
+    /**
+     * @return whether allocations are tracked at all. Callers should not estimate memory when this is {@code false}.
+     */
+    boolean isTracking();
+
+    /**
+     * Record that the query now holds {@code bytes} more.
+     * @param bytes estimated number of bytes held.
+     * @throws org.neo4j.memory.MemoryLimitExceededException if the query, or all queries together, would hold more than
+     * they are allowed to. The allocation is not recorded then.
+     */
+    void allocated( long bytes );
+
+    /**
+     * Record that the query no longer holds {@code bytes}.
+     * @param bytes estimated number of bytes released.
+     */
+    void deallocated( long bytes );
+
+    /**
+     * @return estimated number of bytes held by the query, or {@code -1} if not tracking.
+     */
+    long usedBytes();
+
+    /**
+     * @return largest estimated number of bytes held by the query at any time, or {@code -1} if not tracking.
+     */
+    long peakBytes();
+
+    /**
+     * Release everything the query still holds, when it has finished executing.
+     */
+    void close();
+}
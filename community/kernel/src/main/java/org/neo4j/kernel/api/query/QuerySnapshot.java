@@ -60,11 +60,14 @@ public class QuerySnapshot
     private final List<ActiveLock> waitingLocks;
     private final long activeLockCount;
     private final long allocatedBytes;
+    private final long estimatedHeapBytes;
+    private final long peakEstimatedHeapBytes;
     private final PageCounterValues page;
 
     QuerySnapshot( ExecutingQuery query, PlannerInfo plannerInfo, PageCounterValues page, long planningTimeMillis,
             long elapsedTimeMillis, long cpuTimeMillis, long waitTimeMillis, String status,
-            Map<String,Object> resourceInfo, List<ActiveLock> waitingLocks, long activeLockCount, long allocatedBytes )
+            Map<String,Object> resourceInfo, List<ActiveLock> waitingLocks, long activeLockCount, long allocatedBytes,
+            long estimatedHeapBytes, long peakEstimatedHeapBytes )
     {
         this.query = query;
         this.plannerInfo = plannerInfo;
@@ -78,6 +81,8 @@ public class QuerySnapshot
         this.waitingLocks = waitingLocks;
         this.activeLockCount = activeLockCount;
         this.allocatedBytes = allocatedBytes;
+        this.estimatedHeapBytes = estimatedHeapBytes;
+        this.peakEstimatedHeapBytes = peakEstimatedHeapBytes;
     }
 
     public long internalQueryId()
@@ -221,6 +226,26 @@ public class QuerySnapshot
         return allocatedBytes < 0 ? null : allocatedBytes;
     }
 
+    /**
+     * The estimated amount of heap held by the rows, lists and operator state of the query.
+     *
+     * @return the estimated number of bytes the query holds right now, or {@code null} if query memory is not tracked.
+     */
+    public Long estimatedHeapBytes()
+    {
+        return estimatedHeapBytes < 0 ? null : estimatedHeapBytes;
+    }
+
+    /**
+     * The largest estimated amount of heap held by the rows, lists and operator state of the query so far.
+     *
+     * @return the largest estimated number of bytes the query has held, or {@code null} if query memory is not tracked.
+     */
+    public Long peakEstimatedHeapBytes()
+    {
+        return peakEstimatedHeapBytes < 0 ? null : peakEstimatedHeapBytes;
+    }
+
     public long pageHits()
     {
         return page.hits;
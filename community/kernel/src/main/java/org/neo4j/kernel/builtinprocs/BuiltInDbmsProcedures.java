@@ -45,7 +45,9 @@ import org.neo4j.graphdb.security.AuthorizationViolationException;
 import org.neo4j.internal.kernel.api.procs.ProcedureSignature;
 import org.neo4j.internal.kernel.api.procs.UserFunctionSignature;
 import org.neo4j.internal.kernel.api.security.SecurityContext;
+import org.neo4j.io.pagecache.monitoring.PageCacheCounters;
 import org.neo4j.kernel.configuration.Config;
+import org.neo4j.kernel.impl.locking.Locks;
 import org.neo4j.kernel.impl.proc.Procedures;
 import org.neo4j.kernel.impl.query.QueryExecutionEngine;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
@@ -87,6 +89,50 @@ public class BuiltInDbmsProcedures
                 .sorted( Comparator.comparing( c -> c.name ) );
     }
 
+    @Description( "List the page cache statistics of each file that is mapped into the page cache." )
+    @Procedure( name = "dbms.pageCache.fileStats", mode = DBMS )
+    public Stream<PageCacheFileStatsResult> pageCacheFileStats()
+    {
+        securityContext.assertCredentialsNotExpired();
+        if ( !securityContext.isAdmin() )
+        {
+            throw new AuthorizationViolationException( PERMISSION_DENIED );
+        }
+        PageCacheCounters counters = graph.getDependencyResolver().resolveDependency( PageCacheCounters.class );
+        return counters.fileCounters().stream()
+                .map( PageCacheFileStatsResult::new )
+                .sorted( Comparator.comparing( r -> r.file ) );
+    }
+
+    @Description( "List the time spent waiting for locks, per resource type." )
+    @Procedure( name = "dbms.locks.waitStats", mode = DBMS )
+    public Stream<LockWaitStatsResult> lockWaitStats()
+    {
+        securityContext.assertCredentialsNotExpired();
+        if ( !securityContext.isAdmin() )
+        {
+            throw new AuthorizationViolationException( PERMISSION_DENIED );
+        }
+        Locks locks = graph.getDependencyResolver().resolveDependency( Locks.class );
+        return locks.contention().resourceTypes().stream()
+                .map( LockWaitStatsResult::new )
+                .sorted( Comparator.comparing( r -> r.resourceType ) );
+    }
+
+    @Description( "List the resources that lock clients have spent the most time waiting for, most contended first." )
+    @Procedure( name = "dbms.locks.hotResources", mode = DBMS )
+    public Stream<HotLockResult> hotLockResources( @Name( value = "limit", defaultValue = "10" ) long limit )
+    {
+        securityContext.assertCredentialsNotExpired();
+        if ( !securityContext.isAdmin() )
+        {
+            throw new AuthorizationViolationException( PERMISSION_DENIED );
+        }
+        Locks locks = graph.getDependencyResolver().resolveDependency( Locks.class );
+        return locks.contention().hottestResources( Math.toIntExact( limit ) ).stream()
+                .map( HotLockResult::new );
+    }
+
     @Description( "List all procedures in the DBMS." )
     @Procedure( name = "dbms.procedures", mode = DBMS )
     public Stream<ProcedureResult> listProcedures()
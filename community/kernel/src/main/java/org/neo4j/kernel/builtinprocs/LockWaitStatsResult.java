@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.builtinprocs;
+
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.kernel.impl.locking.LockContention;
+
+public class LockWaitStatsResult
+{
+    public final String resourceType;
+    public final long waits;
+    public final long totalWaitMicros;
+    public final long maxWaitMicros;
+    public final long waitP50Micros;
+    public final long waitP99Micros;
+
+    public LockWaitStatsResult( LockContention.ResourceTypeWaits waits )
+    {
+        this.resourceType = waits.resourceType().name();
+        this.waits = waits.waits();
+        this.totalWaitMicros = TimeUnit.NANOSECONDS.toMicros( waits.totalWaitNanos() );
+        this.maxWaitMicros = TimeUnit.NANOSECONDS.toMicros( waits.maxWaitNanos() );
+        this.waitP50Micros = waits.waitPercentileMicros( 50 );
+        this.waitP99Micros = waits.waitPercentileMicros( 99 );
+    }
+}
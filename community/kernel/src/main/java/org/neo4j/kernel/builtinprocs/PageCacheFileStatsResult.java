@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.builtinprocs;
+
+import org.neo4j.io.pagecache.monitoring.PageFileCounters;
+
+public class PageCacheFileStatsResult
+{
+    public final String file;
+    public final long pins;
+    public final long hits;
+    public final long faults;
+    public final long evictions;
+    public final long flushes;
+    public final long bytesRead;
+    public final long bytesWritten;
+    public final double hitRatio;
+    public final long faultLatencyP50Micros;
+    public final long faultLatencyP99Micros;
+
+    public PageCacheFileStatsResult( PageFileCounters counters )
+    {
+        this.file = counters.file().getAbsolutePath();
+        this.pins = counters.pins();
+        this.hits = counters.hits();
+        this.faults = counters.faults();
+        this.evictions = counters.evictions();
+        this.flushes = counters.flushes();
+        this.bytesRead = counters.bytesRead();
+        this.bytesWritten = counters.bytesWritten();
+        this.hitRatio = counters.hitRatio();
+        this.faultLatencyP50Micros = counters.faultLatencyPercentile( 50 );
+        this.faultLatencyP99Micros = counters.faultLatencyPercentile( 99 );
+    }
+}
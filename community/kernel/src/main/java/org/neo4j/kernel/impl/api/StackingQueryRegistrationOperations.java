@@ -43,6 +43,7 @@ import java.util.stream.Stream;
 
 import org.neo4j.kernel.api.query.ExecutingQuery;
 import org.neo4j.kernel.impl.api.operations.QueryRegistrationOperations;
+import org.neo4j.kernel.impl.query.QueryMemoryPool;
 import org.neo4j.kernel.impl.query.clientconnection.ClientConnectionInfo;
 import org.neo4j.kernel.impl.util.MonotonicCounter;
 import org.neo4j.resources.CpuClock;
@@ -56,15 +57,18 @@ public class StackingQueryRegistrationOperations implements QueryRegistrationOpe
     private final SystemNanoClock clock;
     private final AtomicReference<CpuClock> cpuClockRef;
     private final AtomicReference<HeapAllocation> heapAllocationRef;
+    private final QueryMemoryPool memoryPool;
 
     public StackingQueryRegistrationOperations(
             SystemNanoClock clock,
             AtomicReference<CpuClock> cpuClockRef,
-            AtomicReference<HeapAllocation> heapAllocationRef )
+            AtomicReference<HeapAllocation> heapAllocationRef,
+            QueryMemoryPool memoryPool )
     {
         this.clock = clock;
         this.cpuClockRef = cpuClockRef;
         this.heapAllocationRef = heapAllocationRef;
+        this.memoryPool = memoryPool;
     }
 
     @Override
@@ -95,7 +99,8 @@ public class StackingQueryRegistrationOperations implements QueryRegistrationOpe
                 new ExecutingQuery( queryId, clientConnection, statement.username(), queryText, queryParameters,
                         statement.getTransaction().getMetaData(), () -> statement.locks().activeLockCount(),
                         statement.getPageCursorTracer(),
-                        threadId, threadName, clock, cpuClockRef.get(), heapAllocationRef.get() );
+                        threadId, threadName, clock, cpuClockRef.get(), heapAllocationRef.get(),
+                        memoryPool.newTracker() );
         registerExecutingQuery( statement, executingQuery );
         return executingQuery;
     }
@@ -129,6 +129,13 @@ public class IndexPopulationJob implements Runnable
                     // We remain in POPULATING state
                     return;
                 }
+                multiPopulator.scanCompleted( () -> cancelled );
+                if ( cancelled )
+                {
+                    // Cancelled while completing the indexes, which then stopped early and mustn't be flipped
+                    multiPopulator.cancel();
+                    return;
+                }
                 multiPopulator.flipAfterPopulation();
             }
             catch ( Throwable t )
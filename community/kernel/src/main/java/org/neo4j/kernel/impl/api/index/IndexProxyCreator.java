@@ -86,7 +86,7 @@ class IndexProxyCreator
 
         final String indexUserDescription = indexUserDescription( descriptor, providerDescriptor );
         IndexPopulator populator = populatorFromProvider( providerDescriptor, ruleId, descriptor, samplingConfig );
-        IndexMeta indexMeta = indexMetaFromProvider( ruleId, providerDescriptor, descriptor );
+        IndexMeta indexMeta = populatingIndexMetaFromProvider( ruleId, providerDescriptor, descriptor );
 
         FailedIndexProxyFactory failureDelegateFactory = new FailedPopulatingIndexProxyFactory(
                 indexMeta,
@@ -195,9 +195,16 @@ class IndexProxyCreator
         return indexProvider.getOnlineAccessor( ruleId, descriptor, samplingConfig );
     }
 
-    private IndexMeta indexMetaFromProvider( long ruleId, IndexProvider.Descriptor providerDescriptor, SchemaIndexDescriptor schemaIndexDescriptor )
+    private IndexMeta populatingIndexMetaFromProvider( long ruleId, IndexProvider.Descriptor providerDescriptor,
+            SchemaIndexDescriptor schemaIndexDescriptor )
     {
         IndexCapability indexCapability = providerMap.lookup( providerDescriptor ).getCapability( schemaIndexDescriptor );
         return new IndexMeta( ruleId, schemaIndexDescriptor, providerDescriptor, indexCapability );
     }
+
+    private IndexMeta indexMetaFromProvider( long ruleId, IndexProvider.Descriptor providerDescriptor, SchemaIndexDescriptor schemaIndexDescriptor )
+    {
+        IndexCapability indexCapability = providerMap.lookup( providerDescriptor ).getCapability( ruleId, schemaIndexDescriptor );
+        return new IndexMeta( ruleId, schemaIndexDescriptor, providerDescriptor, indexCapability );
+    }
 }
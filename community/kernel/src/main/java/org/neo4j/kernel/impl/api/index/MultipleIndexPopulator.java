@@ -53,6 +53,7 @@ import java.util.function.IntPredicate;
 import java.util.stream.IntStream;
 
 import org.neo4j.function.ThrowingConsumer;
+import org.neo4j.helpers.CancellationRequest;
 import org.neo4j.helpers.collection.Pair;
 import org.neo4j.helpers.collection.Visitor;
 import org.neo4j.internal.kernel.api.InternalIndexState;
@@ -99,6 +100,7 @@ import static org.neo4j.kernel.impl.api.index.IndexPopulationFailure.failure;
  * <li>Call to {@link #create()} to create data structures and files to start accepting updates.</li>
  * <li>Call to {@link #indexAllNodes()} (blocking call).</li>
  * <li>While all nodes are being indexed, calls to {@link #queue(IndexEntryUpdate)} are accepted.</li>
+ * <li>Call to {@link #scanCompleted(CancellationRequest)} after all nodes have been indexed.</li>
  * <li>Call to {@link #flipAfterPopulation()} after successful population, or {@link #fail(Throwable)} if not</li>
  * </ol>
  */
@@ -280,6 +282,21 @@ public class MultipleIndexPopulator implements IndexPopulator
         return new MultipleIndexUpdater( this, updaters, logProvider );
     }
 
+    /**
+     * Lets each populator complete its index after the store scan, and then applies the updates queued meanwhile,
+     * so that as little as possible is left to do when flipping. Populators stop early if {@code cancellation} is requested
+     * or if their population is {@link IndexPopulation#cancel() cancelled} meanwhile.
+     */
+    @Override
+    public void scanCompleted( CancellationRequest cancellation )
+    {
+        forEachPopulation( population -> population.scanCompleted( cancellation ) );
+        if ( !cancellation.cancellationRequested() )
+        {
+            populateFromQueueIfAvailable( Long.MAX_VALUE );
+        }
+    }
+
     @Override
     public void close( boolean populationCompletedSuccessfully )
     {
@@ -507,6 +524,7 @@ public class MultipleIndexPopulator implements IndexPopulator
         private final FailedIndexProxyFactory failedIndexProxyFactory;
         private final String indexUserDescription;
         private boolean populationOngoing = true;
+        private volatile boolean cancelled;
         private final ReentrantLock populatorLock = new ReentrantLock();
 
         List<IndexEntryUpdate<?>> batchedUpdates;
@@ -552,6 +570,8 @@ public class MultipleIndexPopulator implements IndexPopulator
 
         void cancel() throws IOException
         {
+            // Set before taking the lock, so that a populator completing its index outside of the lock stops early
+            cancelled = true;
             populatorLock.lock();
             try
             {
@@ -569,6 +589,28 @@ public class MultipleIndexPopulator implements IndexPopulator
             }
         }
 
+        /**
+         * Completing the index may take a long time and is therefore done without holding the populator lock,
+         * so that {@link #cancel()} isn't blocked by it. The populator stops early when cancelled instead.
+         */
+        void scanCompleted( CancellationRequest jobCancellation ) throws IOException, IndexEntryConflictException
+        {
+            populatorLock.lock();
+            try
+            {
+                if ( !populationOngoing )
+                {
+                    return;
+                }
+                populator.add( takeCurrentBatch() );
+            }
+            finally
+            {
+                populatorLock.unlock();
+            }
+            populator.scanCompleted( () -> cancelled || jobCancellation.cancellationRequested() );
+        }
+
         private void onUpdate( IndexEntryUpdate<?> update )
         {
             populator.includeSample( update );
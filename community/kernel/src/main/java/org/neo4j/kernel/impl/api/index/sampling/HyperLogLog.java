@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api.index.sampling;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * HyperLogLog sketch estimating the number of distinct items added to it, using a fixed amount of memory
+ * regardless of the number of items. Items are added as 64-bit hashes, which must be well distributed,
+ * e.g. {@link org.neo4j.values.storable.Value#hashCode64()} or {@link #hash(long)}. With {@link #REGISTER_COUNT} registers the standard error of
+ * {@link #estimate()} is roughly 2.3%.
+ * <p>
+ * Adding items is thread safe and lock free, which means that a sketch can be updated by concurrent writers.
+ */
+public class HyperLogLog
+{
+    private static final int PRECISION = 11;
+    public static final int REGISTER_COUNT = 1 << PRECISION;
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTER_COUNT);
+
+    private final AtomicIntegerArray registers = new AtomicIntegerArray( REGISTER_COUNT );
+
+    /**
+     * @param hash 64-bit hash of the item to add.
+     */
+    public void add( long hash )
+    {
+        int index = (int) (hash >>> (Long.SIZE - PRECISION));
+        // the guard bit caps the rank at the number of remaining hash bits
+        int rank = Long.numberOfLeadingZeros( (hash << PRECISION) | (1L << (PRECISION - 1)) ) + 1;
+        updateRegister( index, rank );
+    }
+
+    /**
+     * @return estimated number of distinct items added to this sketch.
+     */
+    public long estimate()
+    {
+        double sum = 0;
+        int zeros = 0;
+        for ( int i = 0; i < REGISTER_COUNT; i++ )
+        {
+            int register = registers.get( i );
+            sum += 1.0 / (1L << register);
+            if ( register == 0 )
+            {
+                zeros++;
+            }
+        }
+        double estimate = ALPHA * REGISTER_COUNT * REGISTER_COUNT / sum;
+        if ( estimate <= 2.5 * REGISTER_COUNT && zeros > 0 )
+        {
+            // linear counting is more accurate for small cardinalities
+            estimate = REGISTER_COUNT * Math.log( (double) REGISTER_COUNT / zeros );
+        }
+        return Math.round( estimate );
+    }
+
+    public int register( int index )
+    {
+        return registers.get( index );
+    }
+
+    /**
+     * Sets register at {@code index} to {@code value}, unless it already is higher. Can be used to merge sketches,
+     * or to restore a persisted sketch.
+     */
+    public void updateRegister( int index, int value )
+    {
+        int current;
+        do
+        {
+            current = registers.get( index );
+        }
+        while ( value > current && !registers.compareAndSet( index, current, value ) );
+    }
+
+    public void clear()
+    {
+        for ( int i = 0; i < REGISTER_COUNT; i++ )
+        {
+            registers.set( i, 0 );
+        }
+    }
+
+    /**
+     * Makes this sketch a copy of {@code other}.
+     */
+    public void copyFrom( HyperLogLog other )
+    {
+        for ( int i = 0; i < REGISTER_COUNT; i++ )
+        {
+            registers.set( i, other.registers.get( i ) );
+        }
+    }
+
+    /**
+     * Spreads the bits of {@code value}, e.g. a combination of hash codes, into a hash suitable for {@link #add(long)}.
+     */
+    public static long hash( long value )
+    {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
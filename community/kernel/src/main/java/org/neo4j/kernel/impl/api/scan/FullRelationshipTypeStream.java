@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api.scan;
+
+import java.io.IOException;
+
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.kernel.api.labelscan.RelationshipTypeScanWriter;
+import org.neo4j.kernel.impl.store.RelationshipStore;
+import org.neo4j.kernel.impl.store.record.RecordLoad;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+
+import static org.neo4j.kernel.api.labelscan.RelationshipTypeUpdate.NO_TYPE;
+import static org.neo4j.kernel.api.labelscan.RelationshipTypeUpdate.typeChange;
+
+/**
+ * {@link FullRelationshipStoreChangeStream} which sweeps the relationship store in id order, producing
+ * an addition for every relationship in use.
+ */
+public class FullRelationshipTypeStream implements FullRelationshipStoreChangeStream
+{
+    private final RelationshipStore relationshipStore;
+
+    public FullRelationshipTypeStream( RelationshipStore relationshipStore )
+    {
+        this.relationshipStore = relationshipStore;
+    }
+
+    @Override
+    public long applyTo( RelationshipTypeScanWriter writer ) throws IOException
+    {
+        long count = 0;
+        long highId = relationshipStore.getHighId();
+        RelationshipRecord record = relationshipStore.newRecord();
+        try ( PageCursor cursor = relationshipStore.openPageCursorForReading( 0 ) )
+        {
+            for ( long id = 0; id < highId; id++ )
+            {
+                relationshipStore.getRecordByCursor( id, record, RecordLoad.CHECK, cursor );
+                if ( record.inUse() )
+                {
+                    writer.write( typeChange( id, NO_TYPE, record.getType() ) );
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+}
@@ -72,13 +72,11 @@ import org.neo4j.kernel.impl.api.cursor.TxIteratorRelationshipCursor;
 import org.neo4j.kernel.impl.api.cursor.TxSingleNodeCursor;
 import org.neo4j.kernel.impl.api.cursor.TxSinglePropertyCursor;
 import org.neo4j.kernel.impl.api.cursor.TxSingleRelationshipCursor;
-import org.neo4j.kernel.impl.api.store.RelationshipIterator;
 import org.neo4j.kernel.impl.util.InstanceCache;
 import org.neo4j.kernel.impl.util.collection.CollectionsFactory;
 import org.neo4j.kernel.impl.util.collection.OnHeapCollectionsFactory;
 import org.neo4j.kernel.impl.util.diffsets.DiffSets;
 import org.neo4j.kernel.impl.util.diffsets.PrimitiveLongDiffSets;
-import org.neo4j.kernel.impl.util.diffsets.RelationshipDiffSets;
 import org.neo4j.storageengine.api.Direction;
 import org.neo4j.storageengine.api.NodeItem;
 import org.neo4j.storageengine.api.PropertyItem;
@@ -89,7 +87,6 @@ import org.neo4j.storageengine.api.txstate.NodeState;
 import org.neo4j.storageengine.api.txstate.PrimitiveLongReadableDiffSets;
 import org.neo4j.storageengine.api.txstate.PropertyContainerState;
 import org.neo4j.storageengine.api.txstate.ReadableDiffSets;
-import org.neo4j.storageengine.api.txstate.ReadableRelationshipDiffSets;
 import org.neo4j.storageengine.api.txstate.ReadableTransactionState;
 import org.neo4j.storageengine.api.txstate.RelationshipState;
 import org.neo4j.storageengine.api.txstate.TxStateVisitor;
@@ -98,7 +95,8 @@ import org.neo4j.values.storable.Value;
 import org.neo4j.values.storable.ValueTuple;
 import org.neo4j.values.storable.Values;
 
-import static org.neo4j.collection.primitive.PrimitiveLongCollections.toPrimitiveIterator;
+import static org.neo4j.collection.primitive.PrimitiveLongCollections.emptySet;
+import static org.neo4j.collection.primitive.PrimitiveLongCollections.toSet;
 import static org.neo4j.helpers.collection.Iterables.map;
 import static org.neo4j.values.storable.Values.NO_VALUE;
 
@@ -120,7 +118,7 @@ public class TxState implements TransactionState, RelationshipVisitor.Home
      */
     private final CollectionsFactory collectionsFactory;
 
-    private PrimitiveIntObjectMap<DiffSets<Long>> labelStatesMap;
+    private PrimitiveIntObjectMap<PrimitiveLongDiffSets> labelStatesMap;
     private PrimitiveLongObjectMap<NodeStateImpl> nodeStatesMap;
     private PrimitiveLongObjectMap<RelationshipStateImpl> relationshipStatesMap;
 
@@ -142,7 +140,7 @@ public class TxState implements TransactionState, RelationshipVisitor.Home
     private DiffSets<ConstraintDescriptor> constraintsChanges;
 
     private RemovalsCountingDiffSets nodes;
-    private RemovalsCountingRelationshipsDiffSets relationships;
+    private RemovalsCountingDiffSets relationships;
 
     private Map<IndexBackedConstraintDescriptor, Long> createdConstraintIndexesByConstraint;
 
@@ -215,22 +213,39 @@ public class TxState implements TransactionState, RelationshipVisitor.Home
         // Created nodes
         if ( nodes != null )
         {
-            nodes.accept( createdNodesVisitor( visitor ) );
+            PrimitiveLongIterator createdNodes = nodes.getAdded().iterator();
+            while ( createdNodes.hasNext() )
+            {
+                visitor.visitCreatedNode( createdNodes.next() );
+            }
         }
 
         if ( relationships != null )
         {
             // Created relationships
-            relationships.accept( createdRelationshipsVisitor( this, visitor ) );
+            RelationshipChangeVisitorAdapter createdRelationships = createdRelationshipsVisitor( this, visitor );
+            PrimitiveLongIterator added = relationships.getAdded().iterator();
+            while ( added.hasNext() )
+            {
+                createdRelationships.visitAdded( added.next() );
+            }
 
             // Deleted relationships
-            relationships.accept( deletedRelationshipsVisitor( visitor ) );
+            PrimitiveLongIterator deleted = relationships.getRemoved().iterator();
+            while ( deleted.hasNext() )
+            {
+                visitor.visitDeletedRelationship( deleted.next() );
+            }
         }
 
         // Deleted nodes
         if ( nodes != null )
         {
-            nodes.accept( deletedNodesVisitor( visitor ) );
+            PrimitiveLongIterator deletedNodes = nodes.getRemoved().iterator();
+            while ( deletedNodes.hasNext() )
+            {
+                visitor.visitDeletedNode( deletedNodes.next() );
+            }
         }
 
         for ( NodeState node : modifiedNodes() )
@@ -274,43 +289,7 @@ public class TxState implements TransactionState, RelationshipVisitor.Home
         }
     }
 
-    private static DiffSetsVisitor<Long> deletedNodesVisitor( final TxStateVisitor visitor )
-    {
-        return new DiffSetsVisitor.Adapter<Long>()
-        {
-            @Override
-            public void visitRemoved( Long element )
-            {
-                visitor.visitDeletedNode( element );
-            }
-        };
-    }
-
-    private static DiffSetsVisitor<Long> createdNodesVisitor( final TxStateVisitor visitor )
-    {
-        return new DiffSetsVisitor.Adapter<Long>()
-        {
-            @Override
-            public void visitAdded( Long element )
-            {
-                visitor.visitCreatedNode( element );
-            }
-        };
-    }
-
-    private static DiffSetsVisitor<Long> deletedRelationshipsVisitor( final TxStateVisitor visitor )
-    {
-        return new DiffSetsVisitor.Adapter<Long>()
-        {
-            @Override
-            public void visitRemoved( Long id )
-            {
-                visitor.visitDeletedRelationship( id );
-            }
-        };
-    }
-
-    private static DiffSetsVisitor<Long> createdRelationshipsVisitor( ReadableTransactionState tx, final TxStateVisitor visitor )
+    private static RelationshipChangeVisitorAdapter createdRelationshipsVisitor( ReadableTransactionState tx, final TxStateVisitor visitor )
     {
         return new RelationshipChangeVisitorAdapter( tx )
         {
@@ -389,23 +368,23 @@ public class TxState implements TransactionState, RelationshipVisitor.Home
         return nodeStatesMap == null ? Iterables.empty() : Iterables.cast( nodeStatesMap.values() );
     }
 
-    private DiffSets<Long> getOrCreateLabelStateNodeDiffSets( int labelId )
+    private PrimitiveLongDiffSets getOrCreateLabelStateNodeDiffSets( int labelId )
     {
         if ( labelStatesMap == null )
         {
             labelStatesMap = collectionsFactory.newIntObjectMap();
         }
-        return labelStatesMap.computeIfAbsent( labelId, unused -> new DiffSets<>() );
+        return labelStatesMap.computeIfAbsent( labelId, unused -> collectionsFactory.newLongDiffSets() );
     }
 
-    private ReadableDiffSets<Long> getLabelStateNodeDiffSets( int labelId )
+    private PrimitiveLongReadableDiffSets getLabelStateNodeDiffSets( int labelId )
     {
         if ( labelStatesMap == null )
         {
-            return ReadableDiffSets.Empty.instance();
+            return PrimitiveLongReadableDiffSets.EMPTY;
         }
-        final DiffSets<Long> nodeDiffSets = labelStatesMap.get( labelId );
-        return ReadableDiffSets.Empty.ifNull( nodeDiffSets );
+        final PrimitiveLongDiffSets nodeDiffSets = labelStatesMap.get( labelId );
+        return nodeDiffSets == null ? PrimitiveLongReadableDiffSets.EMPTY : nodeDiffSets;
     }
 
     @Override
@@ -760,12 +739,12 @@ public class TxState implements TransactionState, RelationshipVisitor.Home
     public Cursor<RelationshipItem> augmentRelationshipsGetAllCursor( Cursor<RelationshipItem> cursor )
     {
         return hasChanges && relationships != null && !relationships.isEmpty()
-               ? iteratorRelationshipCursor.get().init( cursor, toPrimitiveIterator( relationships.getAdded().iterator() ) )
+               ? iteratorRelationshipCursor.get().init( cursor, relationships.getAdded().iterator() )
                : cursor;
     }
 
     @Override
-    public ReadableDiffSets<Long> nodesWithLabelChanged( int label )
+    public PrimitiveLongReadableDiffSets nodesWithLabelChanged( int label )
     {
         return getLabelStateNodeDiffSets( label );
     }
@@ -779,16 +758,16 @@ public class TxState implements TransactionState, RelationshipVisitor.Home
         Set<Long> removed = new HashSet<>();
         for ( int i = 0; i < labels.length; i++ )
         {
-            ReadableDiffSets<Long> nodeDiffSets = getLabelStateNodeDiffSets( labels[i] );
+            PrimitiveLongReadableDiffSets nodeDiffSets = getLabelStateNodeDiffSets( labels[i] );
             if ( i == 0 )
             {
-                removed.addAll( nodeDiffSets.getRemoved() );
+                removed.addAll( toSet( nodeDiffSets.getRemoved() ) );
             }
             else
             {
-                removed.retainAll( nodeDiffSets.getRemoved() );
+                removed.retainAll( toSet( nodeDiffSets.getRemoved() ) );
             }
-            added.addAll( nodeDiffSets.getAdded() );
+            added.addAll( toSet( nodeDiffSets.getAdded() ) );
         }
 
         return new DiffSets<>( added, removed );
@@ -800,9 +779,9 @@ public class TxState implements TransactionState, RelationshipVisitor.Home
         DiffSets<Long> changes = new DiffSets<>();
         for ( int label : labels )
         {
-            final ReadableDiffSets<Long> nodeDiffSets = getLabelStateNodeDiffSets( label );
-            changes.addAll( nodeDiffSets.getAdded().iterator() );
-            changes.removeAll( nodeDiffSets.getRemoved().iterator() );
+            final PrimitiveLongReadableDiffSets nodeDiffSets = getLabelStateNodeDiffSets( label );
+            changes.addAll( toSet( nodeDiffSets.getAdded() ).iterator() );
+            changes.removeAll( toSet( nodeDiffSets.getRemoved() ).iterator() );
         }
         return changes;
     }
@@ -865,9 +844,9 @@ public class TxState implements TransactionState, RelationshipVisitor.Home
     }
 
     @Override
-    public ReadableDiffSets<Long> addedAndRemovedNodes()
+    public PrimitiveLongReadableDiffSets addedAndRemovedNodes()
     {
-        return ReadableDiffSets.Empty.ifNull( nodes );
+        return nodes == null ? PrimitiveLongReadableDiffSets.EMPTY : nodes;
     }
 
     private RemovalsCountingDiffSets nodes()
@@ -898,16 +877,16 @@ public class TxState implements TransactionState, RelationshipVisitor.Home
     }
 
     @Override
-    public ReadableRelationshipDiffSets<Long> addedAndRemovedRelationships()
+    public PrimitiveLongReadableDiffSets addedAndRemovedRelationships()
     {
-        return ReadableRelationshipDiffSets.Empty.ifNull( relationships );
+        return relationships == null ? PrimitiveLongReadableDiffSets.EMPTY : relationships;
     }
 
-    private RemovalsCountingRelationshipsDiffSets relationships()
+    private RemovalsCountingDiffSets relationships()
     {
         if ( relationships == null )
         {
-            relationships = new RemovalsCountingRelationshipsDiffSets( this );
+            relationships = new RemovalsCountingDiffSets();
         }
         return relationships;
     }
@@ -1076,6 +1055,46 @@ public class TxState implements TransactionState, RelationshipVisitor.Home
         return diffs;
     }
 
+    @Override
+    public PrimitiveLongReadableDiffSets indexUpdatesForCompositeQuery( SchemaIndexDescriptor descriptor, IndexQuery[] predicates )
+    {
+        assert descriptor.schema().getPropertyIds().length == predicates.length :
+                "Composite queries must have one predicate per indexed property";
+
+        if ( indexUpdates == null )
+        {
+            return PrimitiveLongReadableDiffSets.EMPTY;
+        }
+        Map<ValueTuple, PrimitiveLongDiffSets> updates = indexUpdates.get( descriptor.schema() );
+        if ( updates == null )
+        {
+            return PrimitiveLongReadableDiffSets.EMPTY;
+        }
+        PrimitiveLongDiffSets diffs = new PrimitiveLongDiffSets();
+        for ( Map.Entry<ValueTuple,PrimitiveLongDiffSets> entry : updates.entrySet() )
+        {
+            if ( acceptsAll( predicates, entry.getKey() ) )
+            {
+                PrimitiveLongDiffSets diffsets = entry.getValue();
+                diffs.addAll( diffsets.getAdded().iterator() );
+                diffs.removeAll( diffsets.getRemoved().iterator() );
+            }
+        }
+        return diffs;
+    }
+
+    private static boolean acceptsAll( IndexQuery[] predicates, ValueTuple values )
+    {
+        for ( int i = 0; i < predicates.length; i++ )
+        {
+            if ( !predicates[i].acceptsValue( values.valueAt( i ) ) )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Override
     public PrimitiveLongReadableDiffSets indexUpdatesForSeek( SchemaIndexDescriptor descriptor, ValueTuple values )
     {
@@ -1248,7 +1267,7 @@ public class TxState implements TransactionState, RelationshipVisitor.Home
     private PrimitiveLongDiffSets getIndexUpdatesForSeek( Map<ValueTuple,PrimitiveLongDiffSets> updates,
             ValueTuple values, boolean create )
     {
-        return create ? updates.computeIfAbsent( values, value -> new PrimitiveLongDiffSets() ) : updates.get( values );
+        return create ? updates.computeIfAbsent( values, value -> collectionsFactory.newLongDiffSets() ) : updates.get( values );
     }
 
     private Map<ValueTuple,PrimitiveLongDiffSets> getIndexUpdatesByDescriptor( SchemaDescriptor schema,
@@ -1294,18 +1313,6 @@ public class TxState implements TransactionState, RelationshipVisitor.Home
         return nodeStatesMap != null && nodeStatesMap.containsKey( nodeId );
     }
 
-    @Override
-    public PrimitiveLongIterator augmentNodesGetAll( PrimitiveLongIterator committed )
-    {
-        return addedAndRemovedNodes().augment( committed );
-    }
-
-    @Override
-    public RelationshipIterator augmentRelationshipsGetAll( RelationshipIterator committed )
-    {
-        return addedAndRemovedRelationships().augment( committed );
-    }
-
     @Override
     public <EX extends Exception> boolean relationshipVisit( long relId, RelationshipVisitor<EX> visitor ) throws EX
     {
@@ -1329,8 +1336,20 @@ public class TxState implements TransactionState, RelationshipVisitor.Home
         }
         if ( labelStatesMap != null )
         {
+            labelStatesMap.visitEntries( ( label, nodeDiffSets ) ->
+            {
+                nodeDiffSets.close();
+                return false;
+            } );
             labelStatesMap.close();
         }
+        if ( indexUpdates != null )
+        {
+            for ( Map<ValueTuple,PrimitiveLongDiffSets> updates : indexUpdates.values() )
+            {
+                updates.values().forEach( PrimitiveLongDiffSets::close );
+            }
+        }
         if ( createdLabelTokens != null )
         {
             createdLabelTokens.close();
@@ -1347,13 +1366,13 @@ public class TxState implements TransactionState, RelationshipVisitor.Home
         {
             relationshipStatesMap.close();
         }
-        if ( nodes != null && nodes.removedFromAdded != null )
+        if ( nodes != null )
         {
-            nodes.removedFromAdded.close();
+            nodes.close();
         }
-        if ( relationships != null && relationships.removedFromAdded != null )
+        if ( relationships != null )
         {
-            relationships.removedFromAdded.close();
+            relationships.close();
         }
     }
 
@@ -1431,65 +1450,45 @@ public class TxState implements TransactionState, RelationshipVisitor.Home
     }
 
     /**
-     * This class works around the fact that create-delete in the same transaction is a no-op in {@link DiffSets},
-     * whereas we need to know total number of explicit removals.
+     * This class works around the fact that create-delete in the same transaction is a no-op in
+     * {@link PrimitiveLongDiffSets}, whereas we need to know total number of explicit removals.
      */
-    private class RemovalsCountingDiffSets extends DiffSets<Long>
+    private class RemovalsCountingDiffSets extends PrimitiveLongDiffSets
     {
         private PrimitiveLongSet removedFromAdded;
 
+        RemovalsCountingDiffSets()
+        {
+            super( emptySet(), emptySet(), collectionsFactory );
+        }
+
         @Override
-        public boolean remove( Long elem )
+        public boolean remove( long elem )
         {
-            if ( added( false ).remove( elem ) )
+            if ( isAdded( elem ) )
             {
                 if ( removedFromAdded == null )
                 {
                     removedFromAdded = collectionsFactory.newLongSet();
                 }
                 removedFromAdded.add( elem );
-                return true;
             }
-            return removed( true ).add( elem );
+            return super.remove( elem );
         }
 
         private boolean wasRemoved( long id )
         {
-            return (removedFromAdded != null && removedFromAdded.contains( id )) || super.isRemoved( id );
-        }
-    }
-
-    /**
-     * This class works around the fact that create-delete in the same transaction is a no-op in {@link DiffSets},
-     * whereas we need to know total number of explicit removals.
-     */
-    private class RemovalsCountingRelationshipsDiffSets extends RelationshipDiffSets<Long>
-    {
-        private PrimitiveLongSet removedFromAdded;
-
-        private RemovalsCountingRelationshipsDiffSets( RelationshipVisitor.Home txStateRelationshipHome )
-        {
-            super( txStateRelationshipHome );
+            return (removedFromAdded != null && removedFromAdded.contains( id )) || isRemoved( id );
         }
 
         @Override
-        public boolean remove( Long elem )
+        public void close()
         {
-            if ( added( false ).remove( elem ) )
+            if ( removedFromAdded != null )
             {
-                if ( removedFromAdded == null )
-                {
-                    removedFromAdded = collectionsFactory.newLongSet();
-                }
-                removedFromAdded.add( elem );
-                return true;
+                removedFromAdded.close();
             }
-            return removed( true ).add( elem );
-        }
-
-        private boolean wasRemoved( long id )
-        {
-            return (removedFromAdded != null && removedFromAdded.contains( id )) || super.isRemoved( id );
+            super.close();
         }
     }
 }
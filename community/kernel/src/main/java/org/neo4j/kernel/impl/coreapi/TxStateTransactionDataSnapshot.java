@@ -45,7 +45,9 @@ import java.util.Iterator;
 import java.util.Map;
 
 import org.neo4j.collection.primitive.Primitive;
+import org.neo4j.collection.primitive.PrimitiveLongIterator;
 import org.neo4j.collection.primitive.PrimitiveLongObjectMap;
+import org.neo4j.collection.primitive.PrimitiveLongSet;
 import org.neo4j.cursor.Cursor;
 import org.neo4j.graphdb.Label;
 import org.neo4j.graphdb.Node;
@@ -53,7 +55,6 @@ import org.neo4j.graphdb.Relationship;
 import org.neo4j.graphdb.event.LabelEntry;
 import org.neo4j.graphdb.event.PropertyEntry;
 import org.neo4j.graphdb.event.TransactionData;
-import org.neo4j.helpers.collection.IterableWrapper;
 import org.neo4j.internal.kernel.api.exceptions.EntityNotFoundException;
 import org.neo4j.internal.kernel.api.exceptions.LabelNotFoundKernelException;
 import org.neo4j.internal.kernel.api.exceptions.PropertyKeyIdNotFoundKernelException;
@@ -76,6 +77,7 @@ import org.neo4j.storageengine.api.txstate.RelationshipState;
 import org.neo4j.values.storable.Value;
 import org.neo4j.values.storable.Values;
 
+import static org.neo4j.collection.primitive.PrimitiveLongCollections.map;
 import static org.neo4j.kernel.api.AssertOpen.ALWAYS_OPEN;
 
 /**
@@ -220,8 +222,10 @@ public class TxStateTransactionDataSnapshot implements TransactionData
     {
         try
         {
-            for ( long nodeId : state.addedAndRemovedNodes().getRemoved() )
+            PrimitiveLongIterator deletedNodes = state.addedAndRemovedNodes().getRemoved().iterator();
+            while ( deletedNodes.hasNext() )
             {
+                long nodeId = deletedNodes.next();
                 try ( Cursor<NodeItem> node = storeStatement.acquireSingleNodeCursor( nodeId ) )
                 {
                     if ( node.next() )
@@ -246,8 +250,10 @@ public class TxStateTransactionDataSnapshot implements TransactionData
                     }
                 }
             }
-            for ( long relId : state.addedAndRemovedRelationships().getRemoved() )
+            PrimitiveLongIterator deletedRelationships = state.addedAndRemovedRelationships().getRemoved().iterator();
+            while ( deletedRelationships.hasNext() )
             {
+                long relId = deletedRelationships.next();
                 Relationship relationshipProxy = relationship( relId );
                 try ( Cursor<RelationshipItem> relationship = storeStatement.acquireSingleRelationshipCursor( relId ) )
                 {
@@ -348,28 +354,14 @@ public class TxStateTransactionDataSnapshot implements TransactionData
         return relationship;
     }
 
-    private Iterable<Node> map2Nodes( Iterable<Long> added )
+    private Iterable<Node> map2Nodes( PrimitiveLongSet ids )
     {
-        return new IterableWrapper<Node, Long>( added )
-        {
-            @Override
-            protected Node underlyingObjectToObject( Long id )
-            {
-                return new NodeProxy( proxySpi, id );
-            }
-        };
+        return () -> map( id -> new NodeProxy( proxySpi, id ), ids.iterator() );
     }
 
-    private Iterable<Relationship> map2Rels( Iterable<Long> ids )
+    private Iterable<Relationship> map2Rels( PrimitiveLongSet ids )
     {
-        return new IterableWrapper<Relationship, Long>( ids )
-        {
-            @Override
-            protected Relationship underlyingObjectToObject( Long id )
-            {
-                return relationship( id );
-            }
-        };
+        return () -> map( this::relationship, ids.iterator() );
     }
 
     private Value committedValue( NodeState nodeState, int property )
@@ -257,7 +257,7 @@ public class DataSourceModule
         case ON_HEAP:
             return CollectionsFactorySupplier.ON_HEAP;
         case OFF_HEAP:
-            return CollectionsFactorySupplier.OFF_HEAP;
+            return CollectionsFactorySupplier.offHeap( config.get( GraphDatabaseSettings.tx_state_max_off_heap_memory ) );
         default:
             throw new IllegalArgumentException( "Unknown transaction state memory allocation value: " + allocation );
         }
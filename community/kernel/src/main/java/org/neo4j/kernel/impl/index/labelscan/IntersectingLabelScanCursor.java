@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.labelscan;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.neo4j.cursor.RawCursor;
+import org.neo4j.index.internal.gbptree.Hit;
+
+/**
+ * {@link RawCursor} intersecting the {@link LabelScanValue} of multiple label cursors, one range at a time.
+ * Ranges are only visited where all labels have a value, and for those the containers are intersected word by word,
+ * so node ids are never produced for one label only to be thrown away for missing another one.
+ * Hits have the {@code idRange} of the range and a value with the nodes having all the labels in it,
+ * ranges where that intersection is empty are skipped.
+ */
+class IntersectingLabelScanCursor implements RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException>, Hit<LabelScanKey,LabelScanValue>
+{
+    private final List<RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException>> cursors;
+    private final LabelScanKey key = new LabelScanKey();
+    private final LabelScanValue value;
+    private boolean exhausted;
+
+    IntersectingLabelScanCursor( List<RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException>> cursors, int rangeSize )
+    {
+        this.cursors = cursors;
+        this.value = new LabelScanValue( rangeSize );
+        this.exhausted = cursors.isEmpty();
+    }
+
+    @Override
+    public boolean next() throws IOException
+    {
+        while ( !exhausted && advanceAll() )
+        {
+            if ( align() )
+            {
+                value.clear();
+                value.add( cursors.get( 0 ).get().value() );
+                for ( int i = 1; i < cursors.size(); i++ )
+                {
+                    value.retain( cursors.get( i ).get().value() );
+                }
+                if ( !value.isEmpty() )
+                {
+                    LabelScanKey first = cursors.get( 0 ).get().key();
+                    key.set( first.labelId, first.idRange );
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Moves all cursors to their next range.
+     */
+    private boolean advanceAll() throws IOException
+    {
+        for ( RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException> cursor : cursors )
+        {
+            if ( !cursor.next() )
+            {
+                exhausted = true;
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Moves cursors behind the highest range forward until all are at the same range.
+     *
+     * @return {@code true} if all cursors are at the same range, {@code false} if any of them was exhausted.
+     */
+    private boolean align() throws IOException
+    {
+        long range = cursors.get( 0 ).get().key().idRange;
+        for ( int i = 0; i < cursors.size(); )
+        {
+            RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException> cursor = cursors.get( i );
+            while ( cursor.get().key().idRange < range )
+            {
+                if ( !cursor.next() )
+                {
+                    exhausted = true;
+                    return false;
+                }
+            }
+            long current = cursor.get().key().idRange;
+            if ( current > range )
+            {
+                // the cursors before this one are now behind, start over with the new range
+                range = current;
+                i = 0;
+            }
+            else
+            {
+                i++;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Hit<LabelScanKey,LabelScanValue> get()
+    {
+        return this;
+    }
+
+    @Override
+    public LabelScanKey key()
+    {
+        return key;
+    }
+
+    @Override
+    public LabelScanValue value()
+    {
+        return value;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        for ( RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException> cursor : cursors )
+        {
+            cursor.close();
+        }
+    }
+}
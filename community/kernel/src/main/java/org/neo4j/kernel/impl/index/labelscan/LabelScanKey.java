@@ -40,7 +40,7 @@ package org.neo4j.kernel.impl.index.labelscan;
 
 /**
  * Keys in {@link LabelScanLayout}, each key consists of {@code labelId} and {@code nodeIdRange}, i.e.
- * {@code nodeId/rangeSize}, where each range is a small bit set of size {@link LabelScanValue#RANGE_SIZE}.
+ * {@code nodeId/rangeSize}, where each range is a bit set of size {@link LabelScanLayout#rangeSize()}.
  */
 class LabelScanKey
 {
@@ -40,20 +40,26 @@ package org.neo4j.kernel.impl.index.labelscan;
 
 import org.neo4j.index.internal.gbptree.GBPTree;
 import org.neo4j.index.internal.gbptree.Layout;
+import org.neo4j.index.internal.gbptree.TreeNodeDynamicSize;
 import org.neo4j.io.pagecache.PageCursor;
 
+import static java.lang.String.format;
+
 /**
  * {@link Layout} for {@link GBPTree} used by {@link NativeLabelScanStore}.
  *
  * <ul>
  * <li>
- * Each keys is a combination of {@code labelId} and {@code nodeIdRange} ({@code nodeId/64}).
+ * Each keys is a combination of {@code labelId} and {@code nodeIdRange} ({@code nodeId/rangeSize}).
  * </li>
  * <li>
- * Each value is a 64-bit bit set (a primitive {@code long}) where each set bit in it represents
- * a node with that label, such that {@code nodeId = nodeIdRange+bitOffset}. Range size is 64 bits.
+ * Each value is a {@link LabelScanValue}, a bit set where each set bit in it represents a node with that label,
+ * such that {@code nodeId = nodeIdRange*rangeSize+bitOffset}. It's stored in an array, runs or bitmap container,
+ * whichever is the smallest.
  * </li>
  * </ul>
+ * The range size is the largest, up to {@link #MAX_RANGE_SIZE}, for which a key with a bitmap container still fits in a tree node
+ * of the page size the tree is created with, see {@link #rangeSize(int)}. It's kept in the meta data of the tree.
  */
 class LabelScanLayout extends Layout.Adapter<LabelScanKey,LabelScanValue>
 {
@@ -67,6 +73,50 @@ class LabelScanLayout extends Layout.Adapter<LabelScanKey,LabelScanValue>
      */
     private static final int KEY_SIZE = Integer.BYTES/*labelId*/ + 6/*idRange*/;
 
+    /**
+     * Largest number of node ids in a range. Offsets in containers are stored as unsigned shorts, which would allow
+     * ranges of up to 65536 node ids, but a range must also fit in a tree node as a bitmap.
+     */
+    static final int MAX_RANGE_SIZE = 8192;
+
+    /**
+     * Smallest number of node ids in a range, that of a single word in {@link LabelScanValue}.
+     */
+    static final int MIN_RANGE_SIZE = Long.SIZE;
+
+    private final int rangeSize;
+
+    /**
+     * @param rangeSize number of node ids in each range, a power of two between {@link #MIN_RANGE_SIZE} and {@link #MAX_RANGE_SIZE}.
+     */
+    LabelScanLayout( int rangeSize )
+    {
+        this.rangeSize = rangeSize;
+    }
+
+    /**
+     * @param pageSize page size of the tree.
+     * @return the largest range size whose bitmap container, together with its key, fits in a tree node of the given page size.
+     */
+    static int rangeSize( int pageSize )
+    {
+        int cap = TreeNodeDynamicSize.keyValueSizeCapFromPageSize( pageSize );
+        int rangeSize = MAX_RANGE_SIZE;
+        while ( rangeSize > MIN_RANGE_SIZE && KEY_SIZE + LabelScanValue.maxSize( rangeSize ) > cap )
+        {
+            rangeSize /= 2;
+        }
+        return rangeSize;
+    }
+
+    /**
+     * @return number of node ids in each range.
+     */
+    int rangeSize()
+    {
+        return rangeSize;
+    }
+
     /**
      * Compares {@link LabelScanKey}, giving ascending order of {@code labelId} then {@code nodeIdRange}.
      */
@@ -94,7 +144,7 @@ class LabelScanLayout extends Layout.Adapter<LabelScanKey,LabelScanValue>
     @Override
     public LabelScanValue newValue()
     {
-        return new LabelScanValue();
+        return new LabelScanValue( rangeSize );
     }
 
     @Override
@@ -106,7 +156,7 @@ class LabelScanLayout extends Layout.Adapter<LabelScanKey,LabelScanValue>
     @Override
     public int valueSize( LabelScanValue value )
     {
-        return LabelScanValue.RANGE_SIZE_BYTES;
+        return value.size();
     }
 
     @Override
@@ -125,7 +175,7 @@ class LabelScanLayout extends Layout.Adapter<LabelScanKey,LabelScanValue>
     @Override
     public void writeValue( PageCursor cursor, LabelScanValue value )
     {
-        cursor.putLong( value.bits );
+        value.write( cursor );
     }
 
     @Override
@@ -145,30 +195,53 @@ class LabelScanLayout extends Layout.Adapter<LabelScanKey,LabelScanValue>
     @Override
     public void readValue( PageCursor cursor, LabelScanValue into, int valueSize )
     {
-        into.bits = cursor.getLong();
+        into.read( cursor, valueSize );
     }
 
     @Override
     public boolean fixedSize()
     {
-        return true;
+        return false;
     }
 
     @Override
     public long identifier()
     {
-        return Layout.namedIdentifier( IDENTIFIER_NAME, LabelScanValue.RANGE_SIZE );
+        return Layout.namedIdentifier( IDENTIFIER_NAME, Long.SIZE );
     }
 
     @Override
     public int majorVersion()
     {
-        return 0;
+        return 1;
     }
 
     @Override
     public int minorVersion()
     {
-        return 1;
+        return 0;
+    }
+
+    @Override
+    public String toString()
+    {
+        return format( "%s[version:%d.%d, identifier:%d, rangeSize:%d]", getClass().getSimpleName(), majorVersion(), minorVersion(), identifier(),
+                rangeSize );
+    }
+
+    @Override
+    public void writeMetaData( PageCursor cursor )
+    {
+        cursor.putInt( rangeSize );
+    }
+
+    @Override
+    public void readMetaData( PageCursor cursor )
+    {
+        int storedRangeSize = cursor.getInt();
+        if ( storedRangeSize != rangeSize )
+        {
+            cursor.setCursorException( format( "Tree has range size %d, but expected %d", storedRangeSize, rangeSize ) );
+        }
     }
 }
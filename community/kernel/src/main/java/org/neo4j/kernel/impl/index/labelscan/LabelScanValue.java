@@ -38,28 +38,69 @@
  */
 package org.neo4j.kernel.impl.index.labelscan;
 
+import java.util.Arrays;
+
+import org.neo4j.io.pagecache.PageCursor;
+
+import static java.lang.String.format;
+
 /**
- * A small bit set of maximum 64 bits. Used in {@link LabelScanLayout}.
+ * A bit set of the nodes having a label in one range of node ids, {@link #rangeSize()} bits wide. Used in {@link LabelScanLayout}.
+ * <p>
+ * In memory the bits are kept as a plain bitmap of {@code long} words. In the tree the set is stored in whichever of three
+ * containers is the smallest for its contents:
+ * <ul>
+ * <li>{@link #ARRAY}: the offsets of the set bits, for ranges with few nodes having the label.</li>
+ * <li>{@link #RUNS}: start offset and length of each run of consecutive set bits, for ranges of nodes created together.</li>
+ * <li>{@link #BITMAP}: the bits themselves, for dense ranges.</li>
+ * </ul>
  */
 class LabelScanValue
 {
-    static final int RANGE_SIZE = Long.SIZE;
-    static final int RANGE_SIZE_BYTES = Long.BYTES;
+    static final byte ARRAY = 0;
+    static final byte RUNS = 1;
+    static final byte BITMAP = 2;
+
+    private static final int HEADER_SIZE = Byte.BYTES;
+    private static final int COUNT_SIZE = Short.BYTES;
+    private static final int OFFSET_SIZE = Short.BYTES;
+    private static final int RUN_SIZE = 2 * Short.BYTES;
 
     /**
-     * Small bit set.
+     * The bits of this set, {@link Long#SIZE} per word with offset {@code 0} being the lowest bit of the first word.
      */
-    long bits;
+    final long[] words;
+
+    /**
+     * Number of set bits and number of runs of consecutive set bits, as counted by the last call to {@link #container()}.
+     */
+    private int cardinality;
+    private int runs;
+
+    /**
+     * @param rangeSize number of bits in this set, a multiple of {@link Long#SIZE}.
+     */
+    LabelScanValue( int rangeSize )
+    {
+        words = new long[rangeSize / Long.SIZE];
+    }
+
+    /**
+     * @return number of bits in this set, i.e. the number of node ids in the range it represents.
+     */
+    int rangeSize()
+    {
+        return words.length * Long.SIZE;
+    }
 
     /**
-     * Sets bit at given {@code index}, where {@code index=0} is the lowest index, {@code index=63} the highest.
+     * Sets bit at given {@code index}, where {@code index=0} is the lowest index, {@code index=rangeSize-1} the highest.
      *
      * @param index index into the bit set of the bit to set.
      */
     LabelScanValue set( int index )
     {
-        long mask = 1L << index;
-        bits |= mask;
+        words[index >>> 6] |= 1L << index;
         return this;
     }
 
@@ -72,7 +113,10 @@ class LabelScanValue
      */
     LabelScanValue add( LabelScanValue other )
     {
-        bits |= other.bits;
+        for ( int i = 0; i < words.length; i++ )
+        {
+            words[i] |= other.words[i];
+        }
         return this;
     }
 
@@ -86,7 +130,26 @@ class LabelScanValue
      */
     LabelScanValue remove( LabelScanValue other )
     {
-        bits &= ~other.bits;
+        for ( int i = 0; i < words.length; i++ )
+        {
+            words[i] &= ~other.words[i];
+        }
+        return this;
+    }
+
+    /**
+     * Removes all bits not in {@code other} from this bit set.
+     * Result is an intersection of the two bit sets. {@code other} is kept intact.
+     *
+     * @param other value containing bits to keep.
+     * @return this instance, now with only the bits also in {@code other}.
+     */
+    LabelScanValue retain( LabelScanValue other )
+    {
+        for ( int i = 0; i < words.length; i++ )
+        {
+            words[i] &= other.words[i];
+        }
         return this;
     }
 
@@ -95,12 +158,226 @@ class LabelScanValue
      */
     void clear()
     {
-        bits = 0;
+        Arrays.fill( words, 0 );
+    }
+
+    /**
+     * @return whether or not no bits are set in this bit set.
+     */
+    boolean isEmpty()
+    {
+        for ( long word : words )
+        {
+            if ( word != 0 )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param rangeSize number of bits in the set.
+     * @return the largest number of bytes a set of {@code rangeSize} bits is stored in, which is the size of a {@link #BITMAP}.
+     */
+    static int maxSize( int rangeSize )
+    {
+        return HEADER_SIZE + rangeSize / Byte.SIZE;
+    }
+
+    /**
+     * @return number of bytes this set is stored in by {@link #write(PageCursor)}.
+     */
+    int size()
+    {
+        return sizeOf( container() );
+    }
+
+    /**
+     * Writes this set in its smallest container.
+     *
+     * @param cursor {@link PageCursor} to write to.
+     */
+    void write( PageCursor cursor )
+    {
+        byte container = container();
+        cursor.putByte( container );
+        switch ( container )
+        {
+        case ARRAY:
+            cursor.putShort( (short) cardinality );
+            for ( int i = 0; i < words.length; i++ )
+            {
+                for ( long bits = words[i]; bits != 0; bits &= bits - 1 )
+                {
+                    cursor.putShort( (short) (i * Long.SIZE + Long.numberOfTrailingZeros( bits )) );
+                }
+            }
+            break;
+        case RUNS:
+            cursor.putShort( (short) runs );
+            for ( int start = nextSetBit( 0 ); start != -1; start = nextSetBit( start ) )
+            {
+                int end = nextClearBit( start );
+                cursor.putShort( (short) start );
+                cursor.putShort( (short) (end - start - 1) );
+                start = end;
+            }
+            break;
+        default:
+            for ( long word : words )
+            {
+                cursor.putLong( word );
+            }
+        }
+    }
+
+    /**
+     * Reads a set written by {@link #write(PageCursor)}, replacing the bits of this set. Contents not making up a valid
+     * container of {@code size} bytes, which can be seen when reading concurrently with a writer, are reported through
+     * {@link PageCursor#setCursorException(String)}.
+     *
+     * @param cursor {@link PageCursor} to read from.
+     * @param size number of bytes the set is stored in.
+     */
+    void read( PageCursor cursor, int size )
+    {
+        clear();
+        byte container = cursor.getByte();
+        switch ( container )
+        {
+        case ARRAY:
+            int count = cursor.getShort() & 0xFFFF;
+            if ( size != HEADER_SIZE + COUNT_SIZE + count * OFFSET_SIZE )
+            {
+                cursor.setCursorException( format( "Label scan array container of %d offsets doesn't fit its size %d", count, size ) );
+                return;
+            }
+            for ( int i = 0; i < count; i++ )
+            {
+                int offset = cursor.getShort() & 0xFFFF;
+                if ( offset >= rangeSize() )
+                {
+                    cursor.setCursorException( format( "Label scan offset %d outside of range size %d", offset, rangeSize() ) );
+                    return;
+                }
+                set( offset );
+            }
+            break;
+        case RUNS:
+            int runCount = cursor.getShort() & 0xFFFF;
+            if ( size != HEADER_SIZE + COUNT_SIZE + runCount * RUN_SIZE )
+            {
+                cursor.setCursorException( format( "Label scan runs container of %d runs doesn't fit its size %d", runCount, size ) );
+                return;
+            }
+            for ( int i = 0; i < runCount; i++ )
+            {
+                int start = cursor.getShort() & 0xFFFF;
+                int end = start + (cursor.getShort() & 0xFFFF) + 1;
+                if ( end > rangeSize() )
+                {
+                    cursor.setCursorException( format( "Label scan run [%d,%d) outside of range size %d", start, end, rangeSize() ) );
+                    return;
+                }
+                setRange( start, end );
+            }
+            break;
+        case BITMAP:
+            if ( size != maxSize( rangeSize() ) )
+            {
+                cursor.setCursorException( format( "Label scan bitmap container doesn't fit its size %d", size ) );
+                return;
+            }
+            for ( int i = 0; i < words.length; i++ )
+            {
+                words[i] = cursor.getLong();
+            }
+            break;
+        default:
+            cursor.setCursorException( format( "Unknown label scan container type %d", container ) );
+        }
+    }
+
+    /**
+     * Counts set bits and runs of this set and picks the container storing it in the fewest bytes,
+     * preferring {@link #ARRAY}, then {@link #RUNS}, when they are as small as others.
+     */
+    private byte container()
+    {
+        cardinality = 0;
+        runs = 0;
+        long previous = 0;
+        for ( long word : words )
+        {
+            cardinality += Long.bitCount( word );
+            // a run starts at each set bit whose lower neighbour, possibly the highest bit of the previous word, is clear
+            runs += Long.bitCount( word & ~((word << 1) | (previous >>> (Long.SIZE - 1))) );
+            previous = word;
+        }
+        int arraySize = sizeOf( ARRAY );
+        int runsSize = sizeOf( RUNS );
+        int bitmapSize = sizeOf( BITMAP );
+        if ( arraySize <= runsSize && arraySize <= bitmapSize )
+        {
+            return ARRAY;
+        }
+        return runsSize <= bitmapSize ? RUNS : BITMAP;
+    }
+
+    private int sizeOf( byte container )
+    {
+        switch ( container )
+        {
+        case ARRAY:
+            return HEADER_SIZE + COUNT_SIZE + cardinality * OFFSET_SIZE;
+        case RUNS:
+            return HEADER_SIZE + COUNT_SIZE + runs * RUN_SIZE;
+        default:
+            return maxSize( rangeSize() );
+        }
+    }
+
+    private void setRange( int from, int to )
+    {
+        for ( int i = from; i < to; i = (i | (Long.SIZE - 1)) + 1 )
+        {
+            int count = Math.min( to, (i | (Long.SIZE - 1)) + 1 ) - i;
+            words[i >>> 6] |= count == Long.SIZE ? -1L : ((1L << count) - 1) << i;
+        }
+    }
+
+    private int nextSetBit( int from )
+    {
+        for ( int i = from; i < rangeSize(); i++ )
+        {
+            long bits = words[i >>> 6] & (-1L << i);
+            if ( bits != 0 )
+            {
+                return (i & -Long.SIZE) + Long.numberOfTrailingZeros( bits );
+            }
+            i |= Long.SIZE - 1;
+        }
+        return -1;
+    }
+
+    private int nextClearBit( int from )
+    {
+        for ( int i = from; i < rangeSize(); i++ )
+        {
+            long bits = ~words[i >>> 6] & (-1L << i);
+            if ( bits != 0 )
+            {
+                return (i & -Long.SIZE) + Long.numberOfTrailingZeros( bits );
+            }
+            i |= Long.SIZE - 1;
+        }
+        return rangeSize();
     }
 
     @Override
     public String toString()
     {
-        return String.valueOf( bits );
+        return Arrays.toString( words );
     }
 }
@@ -59,13 +59,25 @@ abstract class LabelScanValueIndexAccessor
      */
     private final Collection<RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException>> toRemoveFromWhenClosed;
     /**
-     * Current base nodeId, i.e. the {@link LabelScanKey#idRange} of the current {@link LabelScanKey}.
+     * Current base nodeId, i.e. the node id of the lowest bit in {@link #bits}.
      */
     long baseNodeId;
     /**
-     * Bit set of the current {@link LabelScanValue}.
+     * Current word of the current {@link LabelScanValue}.
      */
     protected long bits;
+    /**
+     * Current {@link LabelScanValue}, whose words are stepped through one at a time.
+     */
+    private LabelScanValue value;
+    /**
+     * Index of the current word in {@link #value}.
+     */
+    private int wordIndex;
+    /**
+     * Node id of the lowest bit in {@link #value}, i.e. {@code idRange*rangeSize} of the current {@link LabelScanKey}.
+     */
+    private long rangeBaseNodeId;
     /**
      * LabelId of previously retrieved {@link LabelScanKey}, for debugging and asserting purposes.
      */
@@ -78,13 +90,94 @@ abstract class LabelScanValueIndexAccessor
      * Indicate provided cursor has been closed.
      */
     protected boolean closed;
+    /**
+     * Lowest entity id, inclusive, to return.
+     */
+    private final long fromId;
+    /**
+     * Highest entity id, exclusive, to return.
+     */
+    private final long toId;
 
     LabelScanValueIndexAccessor(
             Collection<RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException>> toRemoveFromWhenClosed,
             RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException> cursor )
+    {
+        this( toRemoveFromWhenClosed, cursor, 0, Long.MAX_VALUE );
+    }
+
+    LabelScanValueIndexAccessor(
+            Collection<RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException>> toRemoveFromWhenClosed,
+            RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException> cursor, long fromId, long toId )
     {
         this.toRemoveFromWhenClosed = toRemoveFromWhenClosed;
         this.cursor = cursor;
+        this.fromId = fromId;
+        this.toId = toId;
+    }
+
+    /**
+     * Moves {@link #baseNodeId} and {@link #bits} to the next word with set bits, reading the next {@link LabelScanValue}
+     * from the {@link RawCursor} when the words of the current one are exhausted.
+     *
+     * @return {@code true} if there was a next word, otherwise {@code false} and the cursor has been closed.
+     */
+    boolean nextWord()
+    {
+        while ( true )
+        {
+            if ( value != null )
+            {
+                while ( ++wordIndex < value.words.length )
+                {
+                    baseNodeId = rangeBaseNodeId + (long) wordIndex * Long.SIZE;
+                    bits = maskOutOfRange( value.words[wordIndex] );
+                    if ( bits != 0 )
+                    {
+                        return true;
+                    }
+                }
+            }
+
+            try
+            {
+                if ( !cursor.next() )
+                {
+                    close();
+                    return false;
+                }
+            }
+            catch ( IOException e )
+            {
+                throw new UncheckedIOException( e );
+            }
+
+            Hit<LabelScanKey,LabelScanValue> hit = cursor.get();
+            value = hit.value();
+            wordIndex = -1;
+            rangeBaseNodeId = hit.key().idRange * value.rangeSize();
+
+            //noinspection AssertWithSideEffects
+            assert keysInOrder( hit.key() );
+        }
+    }
+
+    /**
+     * Clears the bits of entities in the current word that fall outside of {@code [fromId, toId)}.
+     */
+    long maskOutOfRange( long bits )
+    {
+        if ( baseNodeId < fromId )
+        {
+            long skip = fromId - baseNodeId;
+            bits = skip >= Long.SIZE ? 0 : bits & (-1L << skip);
+        }
+        if ( toId - baseNodeId < Long.SIZE )
+        {
+            long keep = toId - baseNodeId;
+            bits = keep <= 0 ? 0 : bits & ((1L << keep) - 1);
+        }
+        return bits;
     }
 
     boolean keysInOrder( LabelScanKey key )
@@ -39,7 +39,6 @@
 package org.neo4j.kernel.impl.index.labelscan;
 
 import java.io.IOException;
-import java.io.UncheckedIOException;
 import java.util.Collection;
 
 import org.neo4j.cursor.RawCursor;
@@ -49,7 +48,7 @@ import org.neo4j.storageengine.api.schema.IndexProgressor;
 
 /**
  * {@link IndexProgressor} which steps over multiple {@link LabelScanValue} and for each
- * iterate over each set bit, returning actual node ids, i.e. {@code nodeIdRange+bitOffset}.
+ * iterate over each set bit, returning actual node ids, i.e. {@code nodeIdRange*rangeSize+bitOffset}.
  *
  */
 public class LabelScanValueIndexProgressor extends LabelScanValueIndexAccessor implements IndexProgressor, Resource
@@ -61,7 +60,14 @@ public class LabelScanValueIndexProgressor extends LabelScanValueIndexAccessor i
             Collection<RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException>> toRemoveFromWhenClosed,
             NodeLabelClient client )
     {
-        super( toRemoveFromWhenClosed, cursor );
+        this( cursor, toRemoveFromWhenClosed, client, 0, Long.MAX_VALUE );
+    }
+
+    LabelScanValueIndexProgressor( RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException> cursor,
+            Collection<RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException>> toRemoveFromWhenClosed,
+            NodeLabelClient client, long fromId, long toId )
+    {
+        super( toRemoveFromWhenClosed, cursor, fromId, toId );
         this.client = client;
     }
 
@@ -86,25 +92,10 @@ public class LabelScanValueIndexProgressor extends LabelScanValueIndexAccessor i
                     return true;
                 }
             }
-            try
+            if ( !nextWord() )
             {
-                if ( !cursor.next() )
-                {
-                    close();
-                    return false;
-                }
-            }
-            catch ( IOException e )
-            {
-                throw new UncheckedIOException( e );
+                return false;
             }
-
-            Hit<LabelScanKey,LabelScanValue> hit = cursor.get();
-            baseNodeId = hit.key().idRange * LabelScanValue.RANGE_SIZE;
-            bits = hit.value().bits;
-
-            //noinspection AssertWithSideEffects
-            assert keysInOrder( hit.key() );
         }
     }
 }
@@ -39,7 +39,6 @@
 package org.neo4j.kernel.impl.index.labelscan;
 
 import java.io.IOException;
-import java.io.UncheckedIOException;
 import java.util.Collection;
 import java.util.NoSuchElementException;
 
@@ -50,7 +49,7 @@ import org.neo4j.index.internal.gbptree.Hit;
 
 /**
  * {@link PrimitiveLongIterator} which iterate over multiple {@link LabelScanValue} and for each
- * iterate over each set bit, returning actual node ids, i.e. {@code nodeIdRange+bitOffset}.
+ * iterate over each set bit, returning actual node ids, i.e. {@code nodeIdRange*rangeSize+bitOffset}.
  *
  * The provided {@link RawCursor} is managed externally, e.g. {@link NativeLabelScanReader},
  * this because implemented interface lacks close-method.
@@ -89,6 +88,13 @@ class LabelScanValueIterator extends LabelScanValueIndexAccessor implements Prim
         super( toRemoveFromWhenClosed, cursor );
     }
 
+    LabelScanValueIterator( RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException> cursor,
+            Collection<RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException>> toRemoveFromWhenClosed,
+            long fromId, long toId )
+    {
+        super( toRemoveFromWhenClosed, cursor, fromId, toId );
+    }
+
     /**
      * @return next node id in the current {@link LabelScanValue} or, if current value exhausted,
      * goes to next {@link LabelScanValue} from {@link RawCursor}. Returns {@code true} if next node id
@@ -107,25 +113,10 @@ class LabelScanValueIterator extends LabelScanValueIndexAccessor implements Prim
                 return true;
             }
 
-            try
+            if ( !nextWord() )
             {
-                if ( !cursor.next() )
-                {
-                    close();
-                    return false;
-                }
+                return false;
             }
-            catch ( IOException e )
-            {
-                throw new UncheckedIOException( e );
-            }
-
-            Hit<LabelScanKey,LabelScanValue> hit = cursor.get();
-            baseNodeId = hit.key().idRange * LabelScanValue.RANGE_SIZE;
-            bits = hit.value().bits;
-
-            //noinspection AssertWithSideEffects
-            assert keysInOrder( hit.key() );
         }
     }
 }
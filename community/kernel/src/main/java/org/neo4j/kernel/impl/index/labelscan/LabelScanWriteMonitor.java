@@ -134,14 +134,15 @@ public class LabelScanWriteMonitor implements NativeLabelScanWriter.WriteMonitor
     }
 
     @Override
-    public void range( long range, int labelId )
+    public void range( long range, int labelId, int rangeSize )
     {
         try
         {
             channel.put( TYPE_RANGE );
             channel.putLong( range );
             channel.putInt( labelId );
-            position.add( 1 + 8 + 4 );
+            channel.putInt( rangeSize );
+            position.add( 1 + 8 + 4 + 4 );
         }
         catch ( IOException e )
         {
@@ -167,8 +168,8 @@ public class LabelScanWriteMonitor implements NativeLabelScanWriter.WriteMonitor
         {
             channel.put( type );
             channel.putLong( txId );
-            channel.put( (byte) offset );
-            position.add( 1 + 8 + 1 );
+            channel.putShort( (short) offset );
+            position.add( 1 + 8 + 2 );
         }
         catch ( IOException e )
         {
@@ -192,10 +193,27 @@ public class LabelScanWriteMonitor implements NativeLabelScanWriter.WriteMonitor
     {
         try
         {
+            // only the words having bits to apply are logged
+            int words = 0;
+            for ( long word : newValue.words )
+            {
+                if ( word != 0 )
+                {
+                    words++;
+                }
+            }
             channel.put( type );
-            channel.putLong( existingValue.bits );
-            channel.putLong( newValue.bits );
-            position.add( 1 + 8 + 8 );
+            channel.putShort( (short) words );
+            for ( int i = 0; i < newValue.words.length; i++ )
+            {
+                if ( newValue.words[i] != 0 )
+                {
+                    channel.putShort( (short) i );
+                    channel.putLong( existingValue.words[i] );
+                    channel.putLong( newValue.words[i] );
+                }
+            }
+            position.add( 1 + 2 + words * (2 + 8 + 8) );
         }
         catch ( IOException e )
         {
@@ -383,6 +401,7 @@ public class LabelScanWriteMonitor implements NativeLabelScanWriter.WriteMonitor
      *             │         └── label id of the changed bitset to apply
      *             └──────────── range, i.e. which bitset to apply this change for
      * </pre>
+     * The bitsets of a range are printed per 64 node ids, so the range of such a message is {@code nodeId/64}.
      * Then the bitsets are printed
      * <pre>
      *  [00000000 00000000 00000010 00000000 00000000 00000000 00000000 00000000] : state of the bitset for this label id before the change
@@ -437,6 +456,7 @@ public class LabelScanWriteMonitor implements NativeLabelScanWriter.WriteMonitor
         {
             long range = -1;
             int labelId = -1;
+            int rangeSize = Long.SIZE;
             long flush = 0;
             while ( true )
             {
@@ -446,6 +466,7 @@ public class LabelScanWriteMonitor implements NativeLabelScanWriter.WriteMonitor
                 case TYPE_RANGE:
                     range = channel.getLong();
                     labelId = channel.getInt();
+                    rangeSize = channel.getInt();
                     if ( txFilter != null )
                     {
                         txFilter.clear();
@@ -453,11 +474,11 @@ public class LabelScanWriteMonitor implements NativeLabelScanWriter.WriteMonitor
                     break;
                 case TYPE_PREPARE_ADD:
                 case TYPE_PREPARE_REMOVE:
-                    dumpPrepare( dumper, type, channel, range, labelId, txFilter, session, flush );
+                    dumpPrepare( dumper, type, channel, range * rangeSize, labelId, txFilter, session, flush );
                     break;
                 case TYPE_MERGE_ADD:
                 case TYPE_MERGE_REMOVE:
-                    dumpMerge( dumper, type, channel, range, labelId, txFilter, session, flush );
+                    dumpMerge( dumper, type, channel, range * (rangeSize / Long.SIZE), labelId, txFilter, session, flush );
                     break;
                 case TYPE_FLUSH:
                     flush++;
@@ -479,23 +500,28 @@ public class LabelScanWriteMonitor implements NativeLabelScanWriter.WriteMonitor
         return session;
     }
 
-    private static void dumpMerge( Dumper dumper, byte type, ReadableChannel channel, long range, int labelId, TxFilter txFilter,
+    private static void dumpMerge( Dumper dumper, byte type, ReadableChannel channel, long baseWordRange, int labelId, TxFilter txFilter,
             long session, long flush ) throws IOException
     {
-        long existingBits = channel.getLong();
-        long newBits = channel.getLong();
-        if ( txFilter == null || txFilter.contains() )
+        int words = channel.getShort() & 0xFFFF;
+        for ( int i = 0; i < words; i++ )
         {
-            dumper.merge( type == TYPE_MERGE_ADD, session, flush, range, labelId, existingBits, newBits );
+            int wordIndex = channel.getShort() & 0xFFFF;
+            long existingBits = channel.getLong();
+            long newBits = channel.getLong();
+            if ( txFilter == null || txFilter.contains() )
+            {
+                dumper.merge( type == TYPE_MERGE_ADD, session, flush, baseWordRange + wordIndex, labelId, existingBits, newBits );
+            }
         }
     }
 
-    private static void dumpPrepare( Dumper dumper, byte type, ReadableChannel channel, long range, int labelId, TxFilter txFilter, long session, long flush )
-            throws IOException
+    private static void dumpPrepare( Dumper dumper, byte type, ReadableChannel channel, long baseNodeId, int labelId, TxFilter txFilter,
+            long session, long flush ) throws IOException
     {
         long txId = channel.getLong();
-        int offset = channel.get();
-        long nodeId = range * 64 + offset;
+        int offset = channel.getShort() & 0xFFFF;
+        long nodeId = baseNodeId + offset;
         if ( txFilter == null || txFilter.contains( txId ) )
         {
             // I.e. if the txId this update comes from is within the txFilter
@@ -56,7 +56,6 @@ import static java.lang.Long.min;
 import static java.util.Arrays.fill;
 import static org.neo4j.kernel.api.labelscan.NodeLabelRange.convertState;
 import static org.neo4j.kernel.api.labelscan.NodeLabelRange.readBitmap;
-import static org.neo4j.kernel.impl.index.labelscan.LabelScanValue.RANGE_SIZE;
 
 /**
  * {@link AllEntriesLabelScanReader} for {@link NativeLabelScanStore}.
@@ -71,12 +70,14 @@ class NativeAllEntriesLabelScanReader implements AllEntriesLabelScanReader
     private final IntFunction<RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException>> seekProvider;
     private final List<RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException>> cursors = new ArrayList<>();
     private final int highestLabelId;
+    private final int rangeSize;
 
     NativeAllEntriesLabelScanReader( IntFunction<RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException>> seekProvider,
-            int highestLabelId )
+            int highestLabelId, int rangeSize )
     {
         this.seekProvider = seekProvider;
         this.highestLabelId = highestLabelId;
+        this.rangeSize = rangeSize;
     }
 
     @Override
@@ -88,7 +89,7 @@ class NativeAllEntriesLabelScanReader implements AllEntriesLabelScanReader
     @Override
     public int rangeSize()
     {
-        return RANGE_SIZE;
+        return rangeSize;
     }
 
     @Override
@@ -141,7 +142,7 @@ class NativeAllEntriesLabelScanReader implements AllEntriesLabelScanReader
 
         // nodeId (relative to lowestRange) --> labelId[]
         @SuppressWarnings( "unchecked" )
-        private final PrimitiveLongList[] labelsForEachNode = new PrimitiveLongList[RANGE_SIZE];
+        private final PrimitiveLongList[] labelsForEachNode = new PrimitiveLongList[rangeSize];
 
         NodeLabelRangeIterator( long lowestRange )
         {
@@ -172,9 +173,12 @@ class NativeAllEntriesLabelScanReader implements AllEntriesLabelScanReader
                     }
                     else if ( idRange == currentRange )
                     {
-                        long bits = cursor.get().value().bits;
+                        long[] words = cursor.get().value().words;
                         long labelId = cursor.get().key().labelId;
-                        readBitmap( bits, labelId, labelsForEachNode );
+                        for ( int i = 0; i < words.length; i++ )
+                        {
+                            readBitmap( words[i], labelId, labelsForEachNode, i * Long.SIZE );
+                        }
 
                         // Advance cursor and look ahead to the next range
                         if ( cursor.next() )
@@ -41,9 +41,9 @@ package org.neo4j.kernel.impl.index.labelscan;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.neo4j.collection.primitive.PrimitiveLongIterator;
 import org.neo4j.collection.primitive.PrimitiveLongResourceIterator;
@@ -69,16 +69,23 @@ class NativeLabelScanReader implements LabelScanReader
      */
     private final GBPTree<LabelScanKey,LabelScanValue> index;
 
+    /**
+     * Number of node ids in each range of the {@link #index}.
+     */
+    private final int rangeSize;
+
     /**
      * Currently open {@link RawCursor} from query methods below. Open cursors are closed when calling
-     * new query methods or when {@link #close() closing} this reader.
+     * new query methods or when {@link #close() closing} this reader. Concurrent, since batches of a parallel
+     * label scan may open and close cursors from different threads through the same reader.
      */
     private final Set<RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException>> openCursors;
 
-    NativeLabelScanReader( GBPTree<LabelScanKey,LabelScanValue> index )
+    NativeLabelScanReader( GBPTree<LabelScanKey,LabelScanValue> index, int rangeSize )
     {
         this.index = index;
-        this.openCursors = new HashSet<>();
+        this.rangeSize = rangeSize;
+        this.openCursors = ConcurrentHashMap.newKeySet();
     }
 
     /**
@@ -124,8 +131,21 @@ class NativeLabelScanReader implements LabelScanReader
     @Override
     public PrimitiveLongResourceIterator nodesWithAllLabels( int... labelIds )
     {
-        List<PrimitiveLongResourceIterator> iterators = iteratorsForLabels( labelIds );
-        return new CompositeLabelScanValueIterator( iterators, true );
+        List<RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException>> cursors = new ArrayList<>();
+        try
+        {
+            for ( int labelId : labelIds )
+            {
+                cursors.add( seekerForLabel( labelId ) );
+            }
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+        RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException> cursor = new IntersectingLabelScanCursor( cursors, rangeSize );
+        openCursors.add( cursor );
+        return new LabelScanValueIterator( cursor, openCursors );
     }
 
     @Override
@@ -145,6 +165,29 @@ class NativeLabelScanReader implements LabelScanReader
         client.scan( new LabelScanValueIndexProgressor( cursor, openCursors, client ), false, labelId );
     }
 
+    @Override
+    public void nodesWithLabel( IndexProgressor.NodeLabelClient client, int labelId, long fromId, long toId )
+    {
+        RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException> cursor;
+        try
+        {
+            cursor = seekerForLabel( labelId, fromId, toId );
+            openCursors.add( cursor );
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+
+        client.scan( new LabelScanValueIndexProgressor( cursor, openCursors, client, fromId, toId ), false, labelId );
+    }
+
+    @Override
+    public int rangeSize()
+    {
+        return rangeSize;
+    }
+
     private List<PrimitiveLongResourceIterator> iteratorsForLabels( int[] labelIds )
     {
         List<PrimitiveLongResourceIterator> iterators = new ArrayList<>();
@@ -171,6 +214,14 @@ class NativeLabelScanReader implements LabelScanReader
         return index.seek( from, to );
     }
 
+    private RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException> seekerForLabel( int labelId, long fromId, long toId )
+            throws IOException
+    {
+        LabelScanKey from = new LabelScanKey( labelId, fromId / rangeSize );
+        LabelScanKey to = new LabelScanKey( labelId, (toId - 1) / rangeSize + 1 );
+        return index.seek( from, to );
+    }
+
     private void ensureOpenCursorsClosed() throws IOException
     {
         for ( RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException> cursor : openCursors )
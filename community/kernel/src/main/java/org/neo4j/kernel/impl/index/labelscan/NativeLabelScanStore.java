@@ -158,6 +158,11 @@ public class NativeLabelScanStore implements LabelScanStore
      */
     private final int pageSize;
 
+    /**
+     * {@link LabelScanLayout} of the {@link GBPTree}, with a range size fitting the page size of the tree.
+     */
+    private final LabelScanLayout layout;
+
     /**
      * Used for all file operations on the gbpTree file.
      */
@@ -218,6 +223,7 @@ public class NativeLabelScanStore implements LabelScanStore
         this.pageCache = pageCache;
         this.fs = fs;
         this.pageSize = pageSize;
+        this.layout = new LabelScanLayout( LabelScanLayout.rangeSize( pageSize != 0 ? pageSize : pageCache.pageSize() ) );
         this.fullStoreChangeStream = fullStoreChangeStream;
         this.storeDir = storeDir;
         this.storeFile = getLabelScanStoreFile( storeDir );
@@ -248,7 +254,7 @@ public class NativeLabelScanStore implements LabelScanStore
     @Override
     public LabelScanReader newReader()
     {
-        return new NativeLabelScanReader( index );
+        return new NativeLabelScanReader( index, layout.rangeSize() );
     }
 
     /**
@@ -330,7 +336,7 @@ public class NativeLabelScanStore implements LabelScanStore
         {
             throw new RuntimeException( e );
         }
-        return new NativeAllEntriesLabelScanReader( seekProvider, highestLabelId );
+        return new NativeAllEntriesLabelScanReader( seekProvider, highestLabelId, layout.rangeSize() );
     }
 
     /**
@@ -371,7 +377,7 @@ public class NativeLabelScanStore implements LabelScanStore
         }
 
         writeMonitor = LabelScanWriteMonitor.ENABLED ? new LabelScanWriteMonitor( fs, storeDir ) : NativeLabelScanWriter.EMPTY;
-        singleWriter = new NativeLabelScanWriter( 1_000, writeMonitor );
+        singleWriter = new NativeLabelScanWriter( 1_000, writeMonitor, layout.rangeSize() );
 
         if ( isDirty )
         {
@@ -407,7 +413,7 @@ public class NativeLabelScanStore implements LabelScanStore
         MutableBoolean isRebuilding = new MutableBoolean();
         Header.Reader readRebuilding =
                 headerData -> isRebuilding.setValue( headerData.get() == NEEDS_REBUILDING );
-        index = new GBPTree<>( pageCache, storeFile, new LabelScanLayout(), pageSize, monitor, readRebuilding,
+        index = new GBPTree<>( pageCache, storeFile, layout, pageSize, monitor, readRebuilding,
                 needsRebuildingWriter, recoveryCleanupWorkCollector );
         return isRebuilding.getValue();
     }
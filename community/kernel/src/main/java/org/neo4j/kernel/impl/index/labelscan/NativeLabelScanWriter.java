@@ -51,7 +51,6 @@ import org.neo4j.storageengine.api.schema.LabelScanReader;
 
 import static java.lang.Long.min;
 import static java.lang.Math.toIntExact;
-import static org.neo4j.kernel.impl.index.labelscan.LabelScanValue.RANGE_SIZE;
 
 /**
  * {@link LabelScanWriter} for {@link NativeLabelScanStore}, or rather an {@link Writer} for its
@@ -105,7 +104,12 @@ class NativeLabelScanWriter implements LabelScanWriter
      * Instance of {@link LabelScanValue} acting as place to read values into and also to update
      * for each applied update.
      */
-    private final LabelScanValue value = new LabelScanValue();
+    private final LabelScanValue value;
+
+    /**
+     * Number of node ids in each range of the tree.
+     */
+    private final int rangeSize;
 
     /**
      * Batch currently building up as {@link #write(NodeLabelUpdate) updates} come in. Cursor for where
@@ -139,7 +143,7 @@ class NativeLabelScanWriter implements LabelScanWriter
 
     interface WriteMonitor
     {
-        default void range( long range, int labelId )
+        default void range( long range, int labelId, int rangeSize )
         {
         }
 
@@ -180,8 +184,10 @@ class NativeLabelScanWriter implements LabelScanWriter
     {
     };
 
-    NativeLabelScanWriter( int batchSize, WriteMonitor monitor )
+    NativeLabelScanWriter( int batchSize, WriteMonitor monitor, int rangeSize )
     {
+        this.rangeSize = rangeSize;
+        this.value = new LabelScanValue( rangeSize );
         this.pendingUpdates = new NodeLabelUpdate[batchSize];
         this.addMerger = ( existingKey, newKey, existingValue, newValue ) ->
         {
@@ -309,10 +315,10 @@ class NativeLabelScanWriter implements LabelScanWriter
             key.labelId = labelId;
             key.idRange = idRange;
             addition = add;
-            monitor.range( idRange, labelId );
+            monitor.range( idRange, labelId, rangeSize );
         }
 
-        int offset = toIntExact( nodeId % RANGE_SIZE );
+        int offset = toIntExact( nodeId % rangeSize );
         value.set( offset );
         if ( addition )
         {
@@ -326,7 +332,7 @@ class NativeLabelScanWriter implements LabelScanWriter
 
     private void flushPendingRange() throws IOException
     {
-        if ( value.bits != 0 )
+        if ( !value.isEmpty() )
         {
             // There are changes in the current range, flush them
             writer.merge( key, value, addition ? addMerger : removeMerger );
@@ -336,9 +342,9 @@ class NativeLabelScanWriter implements LabelScanWriter
         }
     }
 
-    private static long rangeOf( long nodeId )
+    private long rangeOf( long nodeId )
     {
-        return nodeId / RANGE_SIZE;
+        return nodeId / rangeSize;
     }
 
     /**
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.labelscan;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.neo4j.collection.primitive.PrimitiveLongResourceIterator;
+import org.neo4j.cursor.RawCursor;
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.Hit;
+import org.neo4j.storageengine.api.schema.RelationshipTypeScanReader;
+
+/**
+ * {@link RelationshipTypeScanReader} for {@link NativeRelationshipTypeScanStore}, where keys are
+ * {@code (typeId, relationshipIdRange)} and values are bit sets of relationships in that range.
+ */
+class NativeRelationshipTypeScanReader implements RelationshipTypeScanReader
+{
+    private final GBPTree<LabelScanKey,LabelScanValue> index;
+    private final int rangeSize;
+
+    /**
+     * Currently open {@link RawCursor} from query methods below. Open cursors are closed when calling
+     * {@link #close() closing} this reader.
+     */
+    private final Set<RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException>> openCursors;
+
+    NativeRelationshipTypeScanReader( GBPTree<LabelScanKey,LabelScanValue> index, int rangeSize )
+    {
+        this.index = index;
+        this.rangeSize = rangeSize;
+        this.openCursors = ConcurrentHashMap.newKeySet();
+    }
+
+    @Override
+    public PrimitiveLongResourceIterator relationshipsWithType( int typeId )
+    {
+        return relationshipsWithType( typeId, 0, Long.MAX_VALUE );
+    }
+
+    @Override
+    public PrimitiveLongResourceIterator relationshipsWithType( int typeId, long fromId, long toId )
+    {
+        try
+        {
+            LabelScanKey from = new LabelScanKey( typeId, fromId / rangeSize );
+            LabelScanKey to = toId == Long.MAX_VALUE
+                              ? new LabelScanKey( typeId, Long.MAX_VALUE )
+                              : new LabelScanKey( typeId, (toId - 1) / rangeSize + 1 );
+            RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException> cursor = index.seek( from, to );
+            openCursors.add( cursor );
+            return new LabelScanValueIterator( cursor, openCursors, fromId, toId );
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    @Override
+    public void close()
+    {
+        try
+        {
+            for ( RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException> cursor : openCursors )
+            {
+                cursor.close();
+            }
+            openCursors.clear();
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+}
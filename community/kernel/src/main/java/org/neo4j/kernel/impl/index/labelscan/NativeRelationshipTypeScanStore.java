@@ -0,0 +1,313 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.labelscan;
+
+import org.apache.commons.lang3.mutable.MutableBoolean;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.NoSuchFileException;
+import java.util.function.Consumer;
+
+import org.neo4j.graphdb.ResourceIterator;
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.Header;
+import org.neo4j.index.internal.gbptree.MetadataMismatchException;
+import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
+import org.neo4j.io.pagecache.IOLimiter;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.kernel.api.labelscan.RelationshipTypeScanStore;
+import org.neo4j.kernel.api.labelscan.RelationshipTypeScanWriter;
+import org.neo4j.kernel.impl.api.scan.FullRelationshipStoreChangeStream;
+import org.neo4j.kernel.impl.index.GBPTreeFileUtil;
+import org.neo4j.kernel.impl.store.UnderlyingStorageException;
+import org.neo4j.kernel.monitoring.Monitors;
+import org.neo4j.storageengine.api.schema.RelationshipTypeScanReader;
+
+import static org.neo4j.helpers.collection.Iterators.asResourceIterator;
+import static org.neo4j.helpers.collection.Iterators.iterator;
+import static org.neo4j.kernel.impl.store.MetaDataStore.DEFAULT_NAME;
+
+/**
+ * {@link RelationshipTypeScanStore} which is implemented using {@link GBPTree} atop a {@link PageCache}, with the
+ * same tree layout as {@link NativeLabelScanStore}: keys are {@code (typeId, relationshipIdRange)} and values are
+ * 64-bit bit sets where each set bit represents a relationship of that type.
+ * Only a single writer is allowed at any given point in time so synchronization or merging of updates
+ * need to be handled externally.
+ * <p>
+ * If the store file is missing, or was left in the middle of a rebuild, the whole store is rebuilt from the
+ * relationship store in {@link #start()}.
+ * <p>
+ * This store is backed by a single store file "neostore.relationshiptypescanstore.db".
+ */
+public class NativeRelationshipTypeScanStore implements RelationshipTypeScanStore
+{
+    /**
+     * Name of the file used for the native relationship type scan store.
+     */
+    public static final String FILE_NAME = DEFAULT_NAME + ".relationshiptypescanstore.db";
+
+    /**
+     * Written in header to indicate native relationship type scan store is clean
+     */
+    private static final byte CLEAN = (byte) 0x00;
+
+    /**
+     * Written in header to indicate native relationship type scan store is rebuilding
+     */
+    private static final byte NEEDS_REBUILDING = (byte) 0x01;
+
+    private static final Consumer<PageCursor> needsRebuildingWriter =
+            pageCursor -> pageCursor.putByte( NEEDS_REBUILDING );
+
+    private static final Consumer<PageCursor> writeClean = pageCursor -> pageCursor.putByte( CLEAN );
+
+    private final PageCache pageCache;
+    private final File storeFile;
+    private final FullRelationshipStoreChangeStream fullStoreChangeStream;
+    private final boolean readOnly;
+    private final Monitor monitor;
+    private final Monitors monitors;
+    private final RecoveryCleanupWorkCollector recoveryCleanupWorkCollector;
+    private final GBPTreeFileUtil gbpTreeUtil;
+    private final int pageSize;
+    private final LabelScanLayout layout;
+
+    private GBPTree<LabelScanKey,LabelScanValue> index;
+    private boolean needsRebuild;
+    private NativeLabelScanWriter singleWriter;
+
+    public NativeRelationshipTypeScanStore( PageCache pageCache, File storeDir,
+            FullRelationshipStoreChangeStream fullStoreChangeStream, boolean readOnly, Monitors monitors,
+            RecoveryCleanupWorkCollector recoveryCleanupWorkCollector )
+    {
+        this( pageCache, storeDir, fullStoreChangeStream, readOnly, monitors, recoveryCleanupWorkCollector,
+                /*means no opinion about page size*/ 0 );
+    }
+
+    /*
+     * Test access to be able to control page size.
+     */
+    NativeRelationshipTypeScanStore( PageCache pageCache, File storeDir,
+            FullRelationshipStoreChangeStream fullStoreChangeStream, boolean readOnly, Monitors monitors,
+            RecoveryCleanupWorkCollector recoveryCleanupWorkCollector, int pageSize )
+    {
+        this.pageCache = pageCache;
+        this.storeFile = getRelationshipTypeScanStoreFile( storeDir );
+        this.fullStoreChangeStream = fullStoreChangeStream;
+        this.readOnly = readOnly;
+        this.monitors = monitors;
+        this.monitor = monitors.newMonitor( Monitor.class );
+        this.recoveryCleanupWorkCollector = recoveryCleanupWorkCollector;
+        this.gbpTreeUtil = new GBPTreePageCacheFileUtil( pageCache );
+        this.pageSize = pageSize;
+        this.layout = new LabelScanLayout( LabelScanLayout.rangeSize( pageSize != 0 ? pageSize : pageCache.pageSize() ) );
+    }
+
+    /**
+     * Returns the file backing the relationship type scan store.
+     *
+     * @param storeDir The store directory to use.
+     * @return the file backing the relationship type scan store
+     */
+    public static File getRelationshipTypeScanStoreFile( File storeDir )
+    {
+        return new File( storeDir, FILE_NAME );
+    }
+
+    @Override
+    public RelationshipTypeScanReader newReader()
+    {
+        return new NativeRelationshipTypeScanReader( index, layout.rangeSize() );
+    }
+
+    @Override
+    public RelationshipTypeScanWriter newWriter()
+    {
+        if ( readOnly )
+        {
+            throw new UnsupportedOperationException( "Can't create index writer in read only mode." );
+        }
+
+        try
+        {
+            return writer();
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    @Override
+    public void force( IOLimiter limiter ) throws UnderlyingStorageException
+    {
+        try
+        {
+            index.checkpoint( limiter );
+        }
+        catch ( IOException e )
+        {
+            throw new UnderlyingStorageException( e );
+        }
+    }
+
+    /**
+     * @return store files, namely the single "neostore.relationshiptypescanstore.db" store file.
+     */
+    @Override
+    public ResourceIterator<File> snapshotStoreFiles()
+    {
+        return asResourceIterator( iterator( storeFile ) );
+    }
+
+    @Override
+    public void init() throws IOException
+    {
+        boolean storeExists = gbpTreeUtil.storeFileExists( storeFile );
+        boolean isDirty;
+        try
+        {
+            needsRebuild = !storeExists;
+            if ( !storeExists )
+            {
+                monitor.noIndex();
+            }
+
+            isDirty = instantiateTree();
+        }
+        catch ( MetadataMismatchException e )
+        {
+            // GBPTree is corrupt. Try to rebuild.
+            isDirty = true;
+        }
+
+        singleWriter = new NativeLabelScanWriter( 1_000, NativeLabelScanWriter.EMPTY, layout.rangeSize() );
+
+        if ( isDirty )
+        {
+            monitor.notValidIndex();
+            if ( !readOnly )
+            {
+                dropStrict();
+                instantiateTree();
+            }
+            needsRebuild = true;
+        }
+    }
+
+    /**
+     * @return true if instantiated tree needs to be rebuilt.
+     */
+    private boolean instantiateTree() throws IOException
+    {
+        GBPTree.Monitor treeMonitor = monitors.newMonitor( GBPTree.Monitor.class );
+        MutableBoolean isRebuilding = new MutableBoolean();
+        Header.Reader readRebuilding =
+                headerData -> isRebuilding.setValue( headerData.get() == NEEDS_REBUILDING );
+        index = new GBPTree<>( pageCache, storeFile, layout, pageSize, treeMonitor, readRebuilding,
+                needsRebuildingWriter, recoveryCleanupWorkCollector );
+        return isRebuilding.getValue();
+    }
+
+    @Override
+    public void start() throws IOException
+    {
+        if ( needsRebuild && !readOnly )
+        {
+            monitor.rebuilding();
+            long numberOfRelationships;
+
+            try ( RelationshipTypeScanWriter writer = writer() )
+            {
+                numberOfRelationships = fullStoreChangeStream.applyTo( writer );
+            }
+
+            index.checkpoint( IOLimiter.unlimited(), writeClean );
+
+            monitor.rebuilt( numberOfRelationships );
+            needsRebuild = false;
+        }
+    }
+
+    private RelationshipTypeScanWriter writer() throws IOException
+    {
+        return new NativeRelationshipTypeScanWriter( singleWriter.initialize( index.writer() ) );
+    }
+
+    @Override
+    public void stop()
+    {   // Not needed
+    }
+
+    @Override
+    public void shutdown() throws IOException
+    {
+        if ( index != null )
+        {
+            index.close();
+            index = null;
+        }
+    }
+
+    @Override
+    public void drop() throws IOException
+    {
+        try
+        {
+            dropStrict();
+        }
+        catch ( NoSuchFileException e )
+        {
+            // Even better, it didn't even exist
+        }
+    }
+
+    private void dropStrict() throws IOException
+    {
+        if ( index != null )
+        {
+            index.close();
+            index = null;
+        }
+        gbpTreeUtil.deleteFile( storeFile );
+    }
+}
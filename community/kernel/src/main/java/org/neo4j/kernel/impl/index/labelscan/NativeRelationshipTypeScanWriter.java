@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.labelscan;
+
+import java.io.IOException;
+
+import org.neo4j.kernel.api.labelscan.NodeLabelUpdate;
+import org.neo4j.kernel.api.labelscan.RelationshipTypeScanWriter;
+import org.neo4j.kernel.api.labelscan.RelationshipTypeUpdate;
+
+import static org.apache.commons.lang3.ArrayUtils.EMPTY_LONG_ARRAY;
+import static org.neo4j.kernel.api.labelscan.RelationshipTypeUpdate.NO_TYPE;
+
+/**
+ * {@link RelationshipTypeScanWriter} for {@link NativeRelationshipTypeScanStore}. The tree has the same shape as
+ * the label scan store, i.e. {@code (typeId, relationshipIdRange) -> bit set}, so updates are translated into
+ * single-token {@link NodeLabelUpdate updates} and applied by a {@link NativeLabelScanWriter}, which already knows
+ * how to batch and merge them per id range.
+ */
+class NativeRelationshipTypeScanWriter implements RelationshipTypeScanWriter
+{
+    private final NativeLabelScanWriter writer;
+
+    NativeRelationshipTypeScanWriter( NativeLabelScanWriter writer )
+    {
+        this.writer = writer;
+    }
+
+    @Override
+    public void write( RelationshipTypeUpdate update ) throws IOException
+    {
+        writer.write( NodeLabelUpdate.labelChanges( update.getRelationshipId(), tokens( update.getTypeBefore() ),
+                tokens( update.getTypeAfter() ), update.getTxId() ) );
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        writer.close();
+    }
+
+    private static long[] tokens( int type )
+    {
+        return type == NO_TYPE ? EMPTY_LONG_ARRAY : new long[]{type};
+    }
+}
@@ -56,8 +56,12 @@ class CapabilityValidator
     {
         if ( indexOrder != IndexOrder.NONE )
         {
-            ValueCategory valueCategory = predicates[0].valueGroup().category();
-            IndexOrder[] orderCapability = capability.orderCapability( valueCategory );
+            ValueCategory[] valueCategories = new ValueCategory[predicates.length];
+            for ( int i = 0; i < predicates.length; i++ )
+            {
+                valueCategories[i] = predicates[i].valueGroup().category();
+            }
+            IndexOrder[] orderCapability = capability.orderCapability( valueCategories );
             if ( !ArrayUtil.contains( orderCapability, indexOrder ) )
             {
                 orderCapability = ArrayUtils.add( orderCapability, IndexOrder.NONE );
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.Layout;
+import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
+import org.neo4j.internal.kernel.api.IndexCapability;
+import org.neo4j.internal.kernel.api.IndexOrder;
+import org.neo4j.internal.kernel.api.IndexValueCapability;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.api.index.IndexAccessor;
+import org.neo4j.kernel.api.index.IndexDirectoryStructure;
+import org.neo4j.kernel.api.index.IndexPopulator;
+import org.neo4j.kernel.api.schema.index.SchemaIndexDescriptor;
+import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingConfig;
+import org.neo4j.values.storable.ValueCategory;
+
+/**
+ * Schema index provider for native indexes on multiple properties, backed by {@link GBPTree}, where each key is a tuple of
+ * strings, booleans and numbers.
+ */
+public class CompositeIndexProvider extends NativeIndexProvider<CompositeSchemaKey,NativeSchemaValue>
+{
+    public static final String KEY = "composite";
+    static final IndexCapability CAPABILITY = new CompositeIndexCapability();
+    private static final Descriptor COMPOSITE_PROVIDER_DESCRIPTOR = new Descriptor( KEY, "1.0" );
+
+    public CompositeIndexProvider( PageCache pageCache, FileSystemAbstraction fs,
+            IndexDirectoryStructure.Factory directoryStructure, Monitor monitor, RecoveryCleanupWorkCollector recoveryCleanupWorkCollector,
+            boolean readOnly )
+    {
+        super( COMPOSITE_PROVIDER_DESCRIPTOR, 0, directoryStructure, pageCache, fs, monitor, recoveryCleanupWorkCollector, readOnly );
+    }
+
+    @Override
+    Layout<CompositeSchemaKey,NativeSchemaValue> layout( SchemaIndexDescriptor descriptor )
+    {
+        return new CompositeLayout( descriptor.schema().getPropertyIds().length );
+    }
+
+    @Override
+    protected IndexPopulator newIndexPopulator( File storeFile, Layout<CompositeSchemaKey,NativeSchemaValue> layout,
+                                                SchemaIndexDescriptor descriptor, long indexId,
+                                                IndexSamplingConfig samplingConfig )
+    {
+        return new CompositeSchemaIndexPopulator( pageCache, fs, storeFile, layout, monitor, descriptor, indexId, samplingConfig );
+    }
+
+    @Override
+    protected IndexAccessor newIndexAccessor( File storeFile, Layout<CompositeSchemaKey,NativeSchemaValue> layout, SchemaIndexDescriptor descriptor,
+            long indexId, IndexSamplingConfig samplingConfig ) throws IOException
+    {
+        return new CompositeSchemaIndexAccessor( pageCache, fs, storeFile, layout, recoveryCleanupWorkCollector, monitor, descriptor,
+                indexId, samplingConfig );
+    }
+
+    @Override
+    public IndexCapability getCapability( SchemaIndexDescriptor schemaIndexDescriptor )
+    {
+        return schemaIndexDescriptor.schema().getPropertyIds().length > 1 ? CAPABILITY : IndexCapability.NO_CAPABILITY;
+    }
+
+    /**
+     * For multiple property queries where all properties are strings or numbers capabilities are
+     * Order: ASCENDING
+     * Value: YES (can provide exact value)
+     *
+     * Booleans are supported by the index, but can't be told apart from other value types by category.
+     *
+     * For other queries there is no support
+     */
+    private static class CompositeIndexCapability implements IndexCapability
+    {
+        @Override
+        public IndexOrder[] orderCapability( ValueCategory... valueCategories )
+        {
+            if ( support( valueCategories ) )
+            {
+                return ORDER_BOTH;
+            }
+            return ORDER_NONE;
+        }
+
+        @Override
+        public IndexValueCapability valueCapability( ValueCategory... valueCategories )
+        {
+            if ( support( valueCategories ) )
+            {
+                return IndexValueCapability.YES;
+            }
+            if ( singleWildcard( valueCategories ) )
+            {
+                return IndexValueCapability.PARTIAL;
+            }
+            return IndexValueCapability.NO;
+        }
+
+        private boolean support( ValueCategory[] valueCategories )
+        {
+            if ( valueCategories.length < 2 )
+            {
+                return false;
+            }
+            for ( ValueCategory valueCategory : valueCategories )
+            {
+                if ( valueCategory != ValueCategory.TEXT && valueCategory != ValueCategory.NUMBER )
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.neo4j.index.internal.gbptree.Layout;
+import org.neo4j.io.pagecache.PageCursor;
+
+import static java.lang.String.format;
+import static org.neo4j.kernel.impl.index.schema.CompositeSchemaKey.BOOLEAN;
+import static org.neo4j.kernel.impl.index.schema.CompositeSchemaKey.BOOLEAN_SIZE;
+import static org.neo4j.kernel.impl.index.schema.CompositeSchemaKey.ENTITY_ID_SIZE;
+import static org.neo4j.kernel.impl.index.schema.CompositeSchemaKey.NUMBER;
+import static org.neo4j.kernel.impl.index.schema.CompositeSchemaKey.NUMBER_SIZE;
+import static org.neo4j.kernel.impl.index.schema.CompositeSchemaKey.TEXT;
+import static org.neo4j.kernel.impl.index.schema.CompositeSchemaKey.TEXT_LENGTH_SIZE;
+import static org.neo4j.kernel.impl.index.schema.CompositeSchemaKey.TYPE_SIZE;
+
+/**
+ * {@link Layout} for tuples of strings, booleans and numbers, i.e. for indexes on multiple properties.
+ * Each value is written as its type followed by the value itself, strings prefixed by their length, and lastly the entity id.
+ * The number of values in each key is written as meta data of the tree.
+ */
+class CompositeLayout extends SchemaLayout<CompositeSchemaKey>
+{
+    private final int numberOfSlots;
+
+    CompositeLayout( int numberOfSlots )
+    {
+        super( "UCI", 0, 1 );
+        this.numberOfSlots = numberOfSlots;
+    }
+
+    @Override
+    public CompositeSchemaKey newKey()
+    {
+        return new CompositeSchemaKey( numberOfSlots );
+    }
+
+    @Override
+    public CompositeSchemaKey copyKey( CompositeSchemaKey key, CompositeSchemaKey into )
+    {
+        into.copyFrom( key );
+        return into;
+    }
+
+    @Override
+    public int keySize( CompositeSchemaKey key )
+    {
+        return key.size();
+    }
+
+    @Override
+    public void writeKey( PageCursor cursor, CompositeSchemaKey key )
+    {
+        for ( int slot = 0; slot < numberOfSlots; slot++ )
+        {
+            byte type = key.types[slot];
+            cursor.putByte( type );
+            switch ( type )
+            {
+            case TEXT:
+                cursor.putShort( (short) key.bytesLength[slot] );
+                cursor.putBytes( key.bytes[slot], 0, key.bytesLength[slot] );
+                break;
+            case BOOLEAN:
+                cursor.putByte( (byte) key.longs[slot] );
+                break;
+            case NUMBER:
+                cursor.putByte( key.numberTypes[slot] );
+                cursor.putLong( key.longs[slot] );
+                break;
+            default:
+                throw new IllegalArgumentException( "Tried to write key with bound marker " + key );
+            }
+        }
+        cursor.putLong( key.getEntityId() );
+    }
+
+    @Override
+    public void readKey( PageCursor cursor, CompositeSchemaKey into, int keySize )
+    {
+        // Reads may be inconsistent and are then retried, so never trust sizes or types read here
+        int remaining = keySize - ENTITY_ID_SIZE;
+        for ( int slot = 0; slot < numberOfSlots; slot++ )
+        {
+            remaining -= TYPE_SIZE;
+            if ( remaining < 0 )
+            {
+                readFailed( cursor, into, keySize );
+                return;
+            }
+            byte type = cursor.getByte();
+            into.types[slot] = type;
+            switch ( type )
+            {
+            case TEXT:
+                int length = remaining >= TEXT_LENGTH_SIZE ? cursor.getShort() & 0xFFFF : -1;
+                remaining -= TEXT_LENGTH_SIZE + length;
+                if ( length < 0 || remaining < 0 )
+                {
+                    readFailed( cursor, into, keySize );
+                    return;
+                }
+                into.setBytesLength( slot, length );
+                cursor.getBytes( into.bytes[slot], 0, length );
+                break;
+            case BOOLEAN:
+                remaining -= BOOLEAN_SIZE;
+                if ( remaining < 0 )
+                {
+                    readFailed( cursor, into, keySize );
+                    return;
+                }
+                into.longs[slot] = cursor.getByte();
+                break;
+            case NUMBER:
+                remaining -= NUMBER_SIZE;
+                if ( remaining < 0 )
+                {
+                    readFailed( cursor, into, keySize );
+                    return;
+                }
+                into.numberTypes[slot] = cursor.getByte();
+                into.longs[slot] = cursor.getLong();
+                break;
+            default:
+                readFailed( cursor, into, keySize );
+                return;
+            }
+        }
+        into.setEntityId( cursor.getLong() );
+    }
+
+    private static void readFailed( PageCursor cursor, CompositeSchemaKey into, int keySize )
+    {
+        cursor.setCursorException( format( "Read unreliable composite key, keySize=%d", keySize ) );
+        into.initialize( Long.MIN_VALUE );
+        into.initValueAsLowest();
+    }
+
+    @Override
+    public boolean fixedSize()
+    {
+        return false;
+    }
+
+    @Override
+    public void writeMetaData( PageCursor cursor )
+    {
+        cursor.putInt( numberOfSlots );
+    }
+
+    @Override
+    public void readMetaData( PageCursor cursor )
+    {
+        int slots = cursor.getInt();
+        if ( slots != numberOfSlots )
+        {
+            cursor.setCursorException( format( "Tried to open composite index with %d properties using layout for %d properties", slots, numberOfSlots ) );
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return format( "%s[version:%d.%d, identifier:%d, slots:%d]", getClass().getSimpleName(), majorVersion(), minorVersion(), identifier(),
+                numberOfSlots );
+    }
+}
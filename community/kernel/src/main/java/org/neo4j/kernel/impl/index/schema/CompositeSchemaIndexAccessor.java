@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.Layout;
+import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.api.index.IndexAccessor;
+import org.neo4j.kernel.api.index.IndexProvider;
+import org.neo4j.kernel.api.schema.index.SchemaIndexDescriptor;
+import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingConfig;
+import org.neo4j.storageengine.api.schema.IndexReader;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
+
+/**
+ * {@link IndexAccessor} using {@link CompositeLayout}, i.e for tuples of strings, booleans and numbers.
+ */
+public class CompositeSchemaIndexAccessor extends NativeSchemaIndexAccessor<CompositeSchemaKey,NativeSchemaValue>
+{
+    private int keyValueSizeCap;
+
+    CompositeSchemaIndexAccessor(
+            PageCache pageCache,
+            FileSystemAbstraction fs,
+            File storeFile,
+            Layout<CompositeSchemaKey,NativeSchemaValue> layout,
+            RecoveryCleanupWorkCollector recoveryCleanupWorkCollector,
+            IndexProvider.Monitor monitor,
+            SchemaIndexDescriptor descriptor,
+            long indexId,
+            IndexSamplingConfig samplingConfig ) throws IOException
+    {
+        super( pageCache, fs, storeFile, layout, recoveryCleanupWorkCollector, monitor, descriptor, indexId, samplingConfig );
+    }
+
+    @Override
+    protected void afterTreeInstantiation( GBPTree<CompositeSchemaKey,NativeSchemaValue> tree )
+    {
+        keyValueSizeCap = tree.keyValueSizeCap();
+    }
+
+    @Override
+    public IndexReader newReader()
+    {
+        assertOpen();
+        return new CompositeSchemaIndexReader( tree, layout, samplingConfig, statistics, descriptor );
+    }
+
+    @Override
+    public void validateBeforeCommit( Value[] tuple )
+    {
+        // Only strings can make keys grow beyond what the tree can hold
+        for ( Value value : tuple )
+        {
+            if ( Values.isTextValue( value ) )
+            {
+                CompositeSchemaKey key = layout.newKey();
+                key.from( 0, tuple );
+                if ( layout.keySize( key ) > keyValueSizeCap )
+                {
+                    throw new IllegalArgumentException( "Property value size is too large for index. Please see index documentation for limitations." );
+                }
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.util.Arrays;
+
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.Layout;
+import org.neo4j.internal.kernel.api.IndexOrder;
+import org.neo4j.internal.kernel.api.IndexQuery;
+import org.neo4j.internal.kernel.api.IndexQuery.ExactPredicate;
+import org.neo4j.internal.kernel.api.IndexQuery.RangePredicate;
+import org.neo4j.internal.kernel.api.IndexQuery.StringPrefixPredicate;
+import org.neo4j.kernel.api.schema.index.SchemaIndexDescriptor;
+import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingConfig;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
+
+import static java.lang.String.format;
+import static org.neo4j.internal.kernel.api.IndexQuery.IndexQueryType.exact;
+import static org.neo4j.internal.kernel.api.IndexQuery.IndexQueryType.exists;
+
+/**
+ * Reader for indexes on multiple properties. Supported queries are exact predicates on a number of leading properties followed by
+ * at most one range or prefix predicate, with exists predicates for the remaining properties. All of those are answered by a single
+ * seek in the tree, without filtering, and in the order of the values. An exists predicate on a single property scans the whole index.
+ */
+class CompositeSchemaIndexReader extends NativeSchemaIndexReader<CompositeSchemaKey,NativeSchemaValue>
+{
+    CompositeSchemaIndexReader( GBPTree<CompositeSchemaKey,NativeSchemaValue> tree, Layout<CompositeSchemaKey,NativeSchemaValue> layout,
+            IndexSamplingConfig samplingConfig, NativeIndexStatistics statistics, SchemaIndexDescriptor descriptor )
+    {
+        super( tree, layout, samplingConfig, statistics, descriptor );
+    }
+
+    @Override
+    void validateQuery( IndexOrder indexOrder, IndexQuery[] predicates )
+    {
+        CapabilityValidator.validateQuery( CompositeIndexProvider.CAPABILITY, indexOrder, predicates );
+    }
+
+    @Override
+    boolean initializeRangeForQuery( CompositeSchemaKey treeKeyFrom, CompositeSchemaKey treeKeyTo, IndexQuery[] predicates )
+    {
+        treeKeyFrom.initialize( Long.MIN_VALUE );
+        treeKeyTo.initialize( Long.MAX_VALUE );
+        if ( predicates.length == 1 && predicates[0].type() == exists )
+        {
+            treeKeyFrom.initValueAsLowest();
+            treeKeyTo.initValueAsHighest();
+            return false;
+        }
+
+        int slots = treeKeyFrom.numberOfSlots();
+        if ( predicates.length != slots )
+        {
+            throw new IllegalArgumentException( format( "Tried to query index on %d properties with %s", slots, Arrays.toString( predicates ) ) );
+        }
+        int slot = 0;
+        for ( ; slot < slots && predicates[slot].type() == exact; slot++ )
+        {
+            Value value = ((ExactPredicate) predicates[slot]).value();
+            treeKeyFrom.initValue( slot, value );
+            treeKeyTo.initValue( slot, value );
+        }
+        if ( slot == slots )
+        {
+            // Exact on all properties, bounds are decided by entity id
+            return false;
+        }
+
+        // Whether or not keys with the same values as the bounds, up to and including this slot, are included
+        boolean includeFrom = true;
+        boolean includeTo = true;
+        IndexQuery predicate = predicates[slot];
+        switch ( predicate.type() )
+        {
+        case exists:
+            treeKeyFrom.initValueAsLowest( slot );
+            treeKeyTo.initValueAsHighest( slot );
+            break;
+        case range:
+            RangePredicate<?> rangePredicate = (RangePredicate<?>) predicate;
+            includeFrom = initFromForRange( slot, rangePredicate, treeKeyFrom );
+            includeTo = initToForRange( slot, rangePredicate, treeKeyTo );
+            break;
+        case stringPrefix:
+            String prefix = ((StringPrefixPredicate) predicate).prefix();
+            treeKeyFrom.initValue( slot, Values.stringValue( prefix ) );
+            treeKeyTo.initValueAsPrefixHigh( slot, prefix );
+            break;
+        default:
+            throw new IllegalArgumentException( "IndexQuery of type " + predicate.type() + " is not supported." );
+        }
+        treeKeyFrom.setEntityId( includeFrom ? Long.MIN_VALUE : Long.MAX_VALUE );
+        treeKeyTo.setEntityId( includeTo ? Long.MAX_VALUE : Long.MIN_VALUE );
+
+        // Remaining properties must be exists predicates, bounds are decided by marking them as lower or higher than all values
+        for ( slot++; slot < slots; slot++ )
+        {
+            if ( predicates[slot].type() != exists )
+            {
+                throw new IllegalArgumentException( format( "Only exact predicates followed by at most one range or prefix predicate " +
+                        "are supported for indexes on multiple properties, tried to query with %s", Arrays.toString( predicates ) ) );
+            }
+            if ( includeFrom )
+            {
+                treeKeyFrom.initValueAsLowest( slot );
+            }
+            else
+            {
+                treeKeyFrom.initValueAsHighest( slot );
+            }
+            if ( includeTo )
+            {
+                treeKeyTo.initValueAsHighest( slot );
+            }
+            else
+            {
+                treeKeyTo.initValueAsLowest( slot );
+            }
+        }
+        return false;
+    }
+
+    private static boolean initFromForRange( int slot, RangePredicate<?> rangePredicate, CompositeSchemaKey treeKeyFrom )
+    {
+        Value fromValue = rangePredicate.fromValue();
+        if ( fromValue == Values.NO_VALUE )
+        {
+            treeKeyFrom.initValueAsLowest( slot, rangePredicate.valueGroup() );
+            return true;
+        }
+        treeKeyFrom.initValue( slot, fromValue );
+        return rangePredicate.fromInclusive();
+    }
+
+    private static boolean initToForRange( int slot, RangePredicate<?> rangePredicate, CompositeSchemaKey treeKeyTo )
+    {
+        Value toValue = rangePredicate.toValue();
+        if ( toValue == Values.NO_VALUE )
+        {
+            treeKeyTo.initValueAsHighest( slot, rangePredicate.valueGroup() );
+            return true;
+        }
+        treeKeyTo.initValue( slot, toValue );
+        return rangePredicate.toInclusive();
+    }
+
+    @Override
+    public boolean hasFullValuePrecision( IndexQuery... predicates )
+    {
+        return true;
+    }
+}
@@ -0,0 +1,459 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.util.Arrays;
+
+import org.neo4j.string.UTF8;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.ValueGroup;
+import org.neo4j.values.storable.Values;
+
+import static java.lang.String.format;
+
+/**
+ * Includes a tuple of values, one for each property of an index on multiple properties, and entity id (to be able to handle non-unique values).
+ * Each value can be a {@link String}, a {@code boolean} or any {@link Number}. Keys are compared value by value, where values of different
+ * types are ordered as in {@link Values#COMPARATOR}, i.e. strings before booleans before numbers.
+ * <p>
+ * Besides real values each slot can also be marked as being lower or higher than all values, or all values of a single type,
+ * which is used for keys acting as bounds of a range seek. Such markers are never written to the index.
+ */
+class CompositeSchemaKey extends NativeSchemaKey<CompositeSchemaKey>
+{
+    static final int ENTITY_ID_SIZE = Long.BYTES;
+
+    // Types of values in the order they compare. Spaced out so that there's room for bound markers around each type.
+    static final byte LOWEST = 0;
+    static final byte TEXT = 2;
+    static final byte BOOLEAN = 4;
+    static final byte NUMBER = 6;
+    static final byte HIGHEST = 8;
+
+    static final int TYPE_SIZE = Byte.BYTES;
+    static final int NUMBER_SIZE = Byte.BYTES + /* number type */ Long.BYTES; /* raw value bits */
+    static final int BOOLEAN_SIZE = Byte.BYTES;
+    static final int TEXT_LENGTH_SIZE = Short.BYTES;
+
+    final byte[] types;
+    // Number type from RawBits, for slots with numbers
+    final byte[] numberTypes;
+    // Raw value bits for numbers, 1 or 0 for booleans
+    final long[] longs;
+    // UTF-8 bytes for strings, grows on demand. Actual length is dictated by bytesLength.
+    final byte[][] bytes;
+    final int[] bytesLength;
+    // Set when the byte[] of a slot have been handed out to an UTF8Value, see StringSchemaKey
+    private final boolean[] bytesDereferenced;
+    private final boolean[] ignoreLength;
+    private int currentSlot;
+
+    CompositeSchemaKey( int numberOfSlots )
+    {
+        types = new byte[numberOfSlots];
+        numberTypes = new byte[numberOfSlots];
+        longs = new long[numberOfSlots];
+        bytes = new byte[numberOfSlots][];
+        bytesLength = new int[numberOfSlots];
+        bytesDereferenced = new boolean[numberOfSlots];
+        ignoreLength = new boolean[numberOfSlots];
+    }
+
+    int numberOfSlots()
+    {
+        return types.length;
+    }
+
+    static boolean isSupported( ValueGroup valueGroup )
+    {
+        switch ( valueGroup )
+        {
+        case TEXT:
+        case BOOLEAN:
+        case NUMBER:
+            return true;
+        default:
+            return false;
+        }
+    }
+
+    int size()
+    {
+        int size = ENTITY_ID_SIZE;
+        for ( int slot = 0; slot < types.length; slot++ )
+        {
+            size += TYPE_SIZE;
+            switch ( types[slot] )
+            {
+            case TEXT:
+                size += TEXT_LENGTH_SIZE + bytesLength[slot];
+                break;
+            case BOOLEAN:
+                size += BOOLEAN_SIZE;
+                break;
+            case NUMBER:
+                size += NUMBER_SIZE;
+                break;
+            default:
+                break;
+            }
+        }
+        return size;
+    }
+
+    @Override
+    void writeValues( Value[] values )
+    {
+        if ( values.length != types.length )
+        {
+            throw new IllegalArgumentException(
+                    format( "Tried to create key with %d values for index on %d properties", values.length, types.length ) );
+        }
+        for ( int slot = 0; slot < values.length; slot++ )
+        {
+            initValue( slot, values[slot] );
+        }
+    }
+
+    /**
+     * Writes a single value into the given slot, leaving the other slots as they are.
+     */
+    void initValue( int slot, Value value )
+    {
+        currentSlot = slot;
+        assertCorrectType( value ).writeTo( this );
+    }
+
+    @Override
+    protected Value assertCorrectType( Value value )
+    {
+        if ( !isSupported( value.valueGroup() ) )
+        {
+            throw new IllegalArgumentException(
+                    "Key layout does only support strings, booleans and numbers, tried to create key from " + value );
+        }
+        return value;
+    }
+
+    @Override
+    void initialize( long entityId )
+    {
+        super.initialize( entityId );
+        Arrays.fill( ignoreLength, false );
+    }
+
+    @Override
+    Value asValue()
+    {
+        throw new UnsupportedOperationException( "Key holds a tuple of values, use asValues" );
+    }
+
+    @Override
+    Value[] asValues()
+    {
+        Value[] values = new Value[types.length];
+        for ( int slot = 0; slot < types.length; slot++ )
+        {
+            values[slot] = asValue( slot );
+        }
+        return values;
+    }
+
+    private Value asValue( int slot )
+    {
+        switch ( types[slot] )
+        {
+        case TEXT:
+            // Dereference our bytes so that we won't overwrite it on next read
+            bytesDereferenced[slot] = true;
+            return Values.utf8Value( bytes[slot], 0, bytesLength[slot] );
+        case BOOLEAN:
+            return Values.booleanValue( longs[slot] != 0 );
+        case NUMBER:
+            return RawBits.asNumberValue( longs[slot], numberTypes[slot] );
+        default:
+            return Values.NO_VALUE;
+        }
+    }
+
+    @Override
+    String propertiesAsString()
+    {
+        return Arrays.toString( asValues() );
+    }
+
+    @Override
+    void initValueAsLowest()
+    {
+        Arrays.fill( types, LOWEST );
+    }
+
+    @Override
+    void initValueAsHighest()
+    {
+        Arrays.fill( types, HIGHEST );
+    }
+
+    void initValueAsLowest( int slot )
+    {
+        types[slot] = LOWEST;
+    }
+
+    void initValueAsHighest( int slot )
+    {
+        types[slot] = HIGHEST;
+    }
+
+    /**
+     * Marks the given slot as lower than all values in the given value group, but higher than values of types ordered before it.
+     */
+    void initValueAsLowest( int slot, ValueGroup valueGroup )
+    {
+        types[slot] = (byte) (typeOf( valueGroup ) - 1);
+    }
+
+    /**
+     * Marks the given slot as higher than all values in the given value group, but lower than values of types ordered after it.
+     */
+    void initValueAsHighest( int slot, ValueGroup valueGroup )
+    {
+        types[slot] = (byte) (typeOf( valueGroup ) + 1);
+    }
+
+    /**
+     * Writes the prefix into the given slot, such that it compares as equal to all strings starting with it.
+     * Used for the upper bound of a prefix seek, where the following slots are marked as highest.
+     */
+    void initValueAsPrefixHigh( int slot, String prefix )
+    {
+        currentSlot = slot;
+        writeString( prefix );
+        ignoreLength[slot] = true;
+    }
+
+    private static byte typeOf( ValueGroup valueGroup )
+    {
+        switch ( valueGroup )
+        {
+        case TEXT:
+            return TEXT;
+        case BOOLEAN:
+            return BOOLEAN;
+        case NUMBER:
+            return NUMBER;
+        default:
+            throw new IllegalArgumentException( "Composite key does not support values of group " + valueGroup );
+        }
+    }
+
+    /**
+     * Compares the values of this key to those of another key, slot by slot.
+     * This method is expected to be called in scenarios where inconsistent reads may happen (and later retried).
+     *
+     * @param other the {@link CompositeSchemaKey} to compare to.
+     * @return comparison against the {@code other} {@link CompositeSchemaKey}.
+     */
+    @Override
+    int compareValueTo( CompositeSchemaKey other )
+    {
+        for ( int slot = 0; slot < types.length; slot++ )
+        {
+            int compare = compareValueTo( other, slot );
+            if ( compare != 0 )
+            {
+                return compare;
+            }
+        }
+        return 0;
+    }
+
+    private int compareValueTo( CompositeSchemaKey other, int slot )
+    {
+        byte type = types[slot];
+        if ( type != other.types[slot] )
+        {
+            return Byte.compare( type, other.types[slot] );
+        }
+        switch ( type )
+        {
+        case TEXT:
+            return StringSchemaKey.unsignedByteArrayCompare( bytes[slot], bytesLength[slot], other.bytes[slot], other.bytesLength[slot],
+                    ignoreLength[slot] | other.ignoreLength[slot] );
+        case BOOLEAN:
+            return Long.compare( longs[slot], other.longs[slot] );
+        case NUMBER:
+            return RawBits.compare( longs[slot], numberTypes[slot], other.longs[slot], other.numberTypes[slot] );
+        default:
+            // bound markers of the same kind
+            return 0;
+        }
+    }
+
+    void copyFrom( CompositeSchemaKey key )
+    {
+        for ( int slot = 0; slot < types.length; slot++ )
+        {
+            types[slot] = key.types[slot];
+            numberTypes[slot] = key.numberTypes[slot];
+            longs[slot] = key.longs[slot];
+            ignoreLength[slot] = key.ignoreLength[slot];
+            if ( key.types[slot] == TEXT )
+            {
+                setBytesLength( slot, key.bytesLength[slot] );
+                System.arraycopy( key.bytes[slot], 0, bytes[slot], 0, key.bytesLength[slot] );
+            }
+        }
+        setEntityId( key.getEntityId() );
+        setCompareId( key.getCompareId() );
+    }
+
+    /**
+     * Ensures that the byte[] of the given slot is at least {@code length} long and sets the length of the string in that slot.
+     * See {@link StringSchemaKey#setBytesLength(int)}.
+     */
+    void setBytesLength( int slot, int length )
+    {
+        if ( bytesDereferenced[slot] || bytes[slot] == null || bytes[slot].length < length )
+        {
+            bytesDereferenced[slot] = false;
+            bytes[slot] = new byte[length + length / 2];
+        }
+        bytesLength[slot] = length;
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder builder = new StringBuilder( "values=[" );
+        for ( int slot = 0; slot < types.length; slot++ )
+        {
+            builder.append( slot == 0 ? "" : "," ).append( slotAsString( slot ) );
+        }
+        return builder.append( "],entityId=" ).append( getEntityId() ).toString();
+    }
+
+    private String slotAsString( int slot )
+    {
+        switch ( types[slot] )
+        {
+        case TEXT:
+        case BOOLEAN:
+        case NUMBER:
+            return asValue( slot ).toString();
+        case LOWEST:
+            return "LOWEST";
+        case HIGHEST:
+            return "HIGHEST";
+        default:
+            return "BOUND(" + types[slot] + ")";
+        }
+    }
+
+    @Override
+    public void writeString( String value )
+    {
+        byte[] encoded = UTF8.encode( value );
+        writeUTF8( encoded, 0, encoded.length );
+    }
+
+    @Override
+    public void writeString( char value )
+    {
+        writeString( String.valueOf( value ) );
+    }
+
+    @Override
+    public void writeUTF8( byte[] utf8, int offset, int length )
+    {
+        int slot = currentSlot;
+        types[slot] = TEXT;
+        setBytesLength( slot, length );
+        System.arraycopy( utf8, offset, bytes[slot], 0, length );
+    }
+
+    @Override
+    public void writeBoolean( boolean value )
+    {
+        types[currentSlot] = BOOLEAN;
+        longs[currentSlot] = value ? 1 : 0;
+    }
+
+    @Override
+    public void writeInteger( byte value )
+    {
+        writeNumber( RawBits.BYTE, value );
+    }
+
+    @Override
+    public void writeInteger( short value )
+    {
+        writeNumber( RawBits.SHORT, value );
+    }
+
+    @Override
+    public void writeInteger( int value )
+    {
+        writeNumber( RawBits.INT, value );
+    }
+
+    @Override
+    public void writeInteger( long value )
+    {
+        writeNumber( RawBits.LONG, value );
+    }
+
+    @Override
+    public void writeFloatingPoint( float value )
+    {
+        writeNumber( RawBits.FLOAT, Float.floatToIntBits( value ) );
+    }
+
+    @Override
+    public void writeFloatingPoint( double value )
+    {
+        writeNumber( RawBits.DOUBLE, Double.doubleToLongBits( value ) );
+    }
+
+    private void writeNumber( byte numberType, long rawValueBits )
+    {
+        types[currentSlot] = NUMBER;
+        numberTypes[currentSlot] = numberType;
+        longs[currentSlot] = rawValueBits;
+    }
+}
@@ -58,6 +58,7 @@ class ConflictDetectingValueMerger<KEY extends NativeSchemaKey<KEY>, VALUE exten
     private final boolean compareEntityIds;
 
     private boolean conflict;
+    private boolean merged;
     private long existingNodeId;
     private long addedNodeId;
 
@@ -69,6 +70,7 @@ class ConflictDetectingValueMerger<KEY extends NativeSchemaKey<KEY>, VALUE exten
     @Override
     public VALUE merge( KEY existingKey, KEY newKey, VALUE existingValue, VALUE newValue )
     {
+        merged = true;
         if ( existingKey.getEntityId() != newKey.getEntityId() )
         {
             conflict = true;
@@ -90,6 +92,18 @@ class ConflictDetectingValueMerger<KEY extends NativeSchemaKey<KEY>, VALUE exten
         key.setCompareId( compareEntityIds );
     }
 
+    /**
+     * To be called after a call to {@link Writer#merge(Object, Object, ValueMerger)} using this merger, i.e. before the next call.
+     *
+     * @return {@code true} if that call inserted a new key, {@code false} if the key already existed.
+     */
+    boolean checkInserted()
+    {
+        boolean inserted = !merged;
+        merged = false;
+        return inserted;
+    }
+
     void checkConflict( Value[] values ) throws IndexEntryConflictException
     {
         if ( conflict )
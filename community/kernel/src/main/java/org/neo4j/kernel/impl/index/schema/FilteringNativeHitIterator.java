@@ -58,8 +58,16 @@ class FilteringNativeHitIterator<KEY extends NativeSchemaKey<KEY>, VALUE extends
     }
 
     @Override
-    boolean acceptValue( Value value )
+    boolean acceptKey( KEY key )
     {
-        return filters[0].acceptsValue( value );
+        Value[] values = key.asValues();
+        for ( int i = 0; i < values.length; i++ )
+        {
+            if ( !filters[i].acceptsValue( values[i] ) )
+            {
+                return false;
+            }
+        }
+        return true;
     }
 }
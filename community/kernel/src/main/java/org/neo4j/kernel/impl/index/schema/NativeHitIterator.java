@@ -47,7 +47,6 @@ import org.neo4j.collection.primitive.PrimitiveLongIterator;
 import org.neo4j.collection.primitive.PrimitiveLongResourceIterator;
 import org.neo4j.cursor.RawCursor;
 import org.neo4j.index.internal.gbptree.Hit;
-import org.neo4j.values.storable.Value;
 
 /**
  * Wraps number key/value results in a {@link PrimitiveLongIterator}.
@@ -78,7 +77,7 @@ public class NativeHitIterator<KEY extends NativeSchemaKey<KEY>, VALUE extends N
             while ( seeker.next() )
             {
                 KEY key = seeker.get().key();
-                if ( acceptValue( key.asValue() ) )
+                if ( acceptKey( key ) )
                 {
                     return next( key.getEntityId() );
                 }
@@ -91,7 +90,7 @@ public class NativeHitIterator<KEY extends NativeSchemaKey<KEY>, VALUE extends N
         }
     }
 
-    boolean acceptValue( Value value )
+    boolean acceptKey( KEY key )
     {
         return true;
     }
@@ -82,6 +82,6 @@ abstract class NativeIndexProgressor<KEY extends NativeSchemaKey<KEY>, VALUE ext
 
     Value[] extractValues( KEY key )
     {
-        return client.needsValues() ? new Value[]{ key.asValue()} : null;
+        return client.needsValues() ? key.asValues() : null;
     }
 }
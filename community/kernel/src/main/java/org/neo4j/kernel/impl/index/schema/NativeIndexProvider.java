@@ -149,7 +149,7 @@ abstract class NativeIndexProvider<KEY extends NativeSchemaKey<KEY>,VALUE extend
         return StoreMigrationParticipant.NOT_PARTICIPATING;
     }
 
-    private File nativeIndexFileFromIndexId( long indexId )
+    File nativeIndexFileFromIndexId( long indexId )
     {
         return new File( directoryStructure().directoryForIndex( indexId ), indexFileName( indexId ) );
     }
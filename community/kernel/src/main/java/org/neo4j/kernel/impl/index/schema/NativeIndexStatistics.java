@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.neo4j.cursor.RawCursor;
+import org.neo4j.hashing.HashFunction;
+import org.neo4j.helpers.CancellationRequest;
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.Header;
+import org.neo4j.index.internal.gbptree.Hit;
+import org.neo4j.index.internal.gbptree.Layout;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.kernel.impl.api.index.sampling.HyperLogLog;
+import org.neo4j.storageengine.api.schema.IndexSample;
+import org.neo4j.values.storable.Value;
+
+import static org.neo4j.kernel.impl.index.schema.NativeSchemaIndexPopulator.BYTE_ONLINE;
+
+/**
+ * Statistics of a native schema index, kept up to date by {@link NativeSchemaIndexUpdater} as entries are added and removed,
+ * so that sampling the index doesn't have to scan it. Number of distinct values is estimated using a {@link HyperLogLog} sketch,
+ * which can't forget values, which is why the statistics are considered stale after too many removals and then rebuilt
+ * from a full scan of the tree. The statistics are persisted after the state byte in the {@link GBPTree} header.
+ * <p>
+ * Updates from concurrent writers are tracked without locking. Statistics rebuilt while the index is being updated are approximate,
+ * just like a sample taken by scanning the index while it's being updated.
+ */
+class NativeIndexStatistics
+{
+    private static final byte FORMAT_VERSION = 1;
+    static final int SIZE = Byte.BYTES + Long.BYTES * 2 + HyperLogLog.REGISTER_COUNT;
+    private static final HashFunction HASH_FUNCTION = HashFunction.incrementalXXH64();
+    // must never change, or persisted sketches would no longer match the values in the index
+    private static final long HASH_SEED = 1;
+    private static final long CANCELLATION_CHECK_INTERVAL_MASK = (1 << 10) - 1;
+
+    private final HyperLogLog distinctValues = new HyperLogLog();
+    private final AtomicLong entries = new AtomicLong();
+    private final AtomicLong removals = new AtomicLong();
+    private volatile boolean known;
+
+    void added( Value[] values )
+    {
+        entries.incrementAndGet();
+        distinctValues.add( hash( values ) );
+    }
+
+    void removed()
+    {
+        entries.decrementAndGet();
+        removals.incrementAndGet();
+    }
+
+    /**
+     * @param updateRatio ratio of removed entries, relative to the number of entries, which makes the statistics stale.
+     * @return whether or not these statistics must be rebuilt before they can be used to sample the index.
+     */
+    boolean isStale( double updateRatio )
+    {
+        return !known || removals.get() > updateRatio * Math.max( entries.get(), 1 );
+    }
+
+    /**
+     * Rebuilds these statistics from a full scan of {@code tree}, unless cancelled, in which case they are left as they were.
+     *
+     * @return {@code true} if the statistics were rebuilt, otherwise {@code false} if cancelled.
+     */
+    <KEY extends NativeSchemaKey<KEY>, VALUE extends NativeSchemaValue> boolean rebuild( GBPTree<KEY,VALUE> tree,
+            Layout<KEY,VALUE> layout, CancellationRequest cancellation )
+    {
+        KEY lowest = layout.newKey();
+        lowest.initAsLowest();
+        KEY highest = layout.newKey();
+        highest.initAsHighest();
+        HyperLogLog scannedValues = new HyperLogLog();
+        long scannedEntries = 0;
+        try ( RawCursor<Hit<KEY,VALUE>,IOException> seek = tree.seek( lowest, highest ) )
+        {
+            while ( seek.next() )
+            {
+                if ( (scannedEntries & CANCELLATION_CHECK_INTERVAL_MASK) == 0 && cancellation.cancellationRequested() )
+                {
+                    return false;
+                }
+                scannedValues.add( hash( seek.get().key().asValues() ) );
+                scannedEntries++;
+            }
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+        distinctValues.copyFrom( scannedValues );
+        entries.set( scannedEntries );
+        removals.set( 0 );
+        known = true;
+        return true;
+    }
+
+    /**
+     * @param unique whether or not the index is unique, in which case all entries have distinct values.
+     * @return {@link IndexSample} based on these statistics.
+     */
+    IndexSample sample( boolean unique )
+    {
+        long indexSize = Math.max( entries.get(), 0 );
+        long uniqueValues = unique ? indexSize : Math.min( distinctValues.estimate(), indexSize );
+        return new IndexSample( indexSize, uniqueValues, indexSize );
+    }
+
+    void write( PageCursor cursor )
+    {
+        cursor.putByte( FORMAT_VERSION );
+        cursor.putLong( entries.get() );
+        cursor.putLong( removals.get() );
+        for ( int i = 0; i < HyperLogLog.REGISTER_COUNT; i++ )
+        {
+            cursor.putByte( (byte) distinctValues.register( i ) );
+        }
+    }
+
+    /**
+     * {@link Header.Reader} reading statistics of an online index from a header written by {@link NativeSchemaIndexHeaderWriter}.
+     */
+    void readHeader( ByteBuffer headerData )
+    {
+        if ( headerData.hasRemaining() && headerData.get() == BYTE_ONLINE )
+        {
+            read( headerData );
+        }
+    }
+
+    /**
+     * Reads statistics written by {@link #write(PageCursor)}. Statistics of an unknown format are left unknown,
+     * which means that they will be rebuilt when first needed.
+     */
+    void read( ByteBuffer headerData )
+    {
+        if ( headerData.remaining() < SIZE || headerData.get() != FORMAT_VERSION )
+        {
+            return;
+        }
+        entries.set( headerData.getLong() );
+        removals.set( headerData.getLong() );
+        distinctValues.clear();
+        for ( int i = 0; i < HyperLogLog.REGISTER_COUNT; i++ )
+        {
+            distinctValues.updateRegister( i, headerData.get() );
+        }
+        known = true;
+    }
+
+    private static long hash( Value[] values )
+    {
+        // Value#hashCode is only 32 bits and collides for values like 0 and -1, so use the 64-bit hash of the values
+        long hash = HASH_FUNCTION.initialise( HASH_SEED );
+        for ( Value value : values )
+        {
+            hash = value.updateHash( HASH_FUNCTION, hash );
+        }
+        return HASH_FUNCTION.finalise( hash );
+    }
+}
@@ -44,6 +44,7 @@ import java.io.IOException;
 import java.util.function.Consumer;
 
 import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.Header;
 import org.neo4j.index.internal.gbptree.Layout;
 import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
 import org.neo4j.io.fs.FileSystemAbstraction;
@@ -81,10 +82,16 @@ abstract class NativeSchemaIndex<KEY extends NativeSchemaKey<KEY>, VALUE extends
 
     void instantiateTree( RecoveryCleanupWorkCollector recoveryCleanupWorkCollector, Consumer<PageCursor> headerWriter )
             throws IOException
+    {
+        instantiateTree( recoveryCleanupWorkCollector, NO_HEADER_READER, headerWriter );
+    }
+
+    void instantiateTree( RecoveryCleanupWorkCollector recoveryCleanupWorkCollector, Header.Reader headerReader,
+            Consumer<PageCursor> headerWriter ) throws IOException
     {
         ensureDirectoryExist();
         GBPTree.Monitor monitor = treeMonitor();
-        tree = new GBPTree<>( pageCache, storeFile, layout, 0, monitor, NO_HEADER_READER, headerWriter, recoveryCleanupWorkCollector );
+        tree = new GBPTree<>( pageCache, storeFile, layout, 0, monitor, headerReader, headerWriter, recoveryCleanupWorkCollector );
         afterTreeInstantiation( tree );
     }
 
@@ -60,13 +60,15 @@ import org.neo4j.storageengine.api.schema.IndexReader;
 
 import static org.neo4j.helpers.collection.Iterators.asResourceIterator;
 import static org.neo4j.helpers.collection.Iterators.iterator;
+import static org.neo4j.index.internal.gbptree.GBPTree.NO_HEADER_READER;
 import static org.neo4j.index.internal.gbptree.GBPTree.NO_HEADER_WRITER;
+import static org.neo4j.kernel.impl.index.schema.NativeSchemaIndexPopulator.BYTE_ONLINE;
 
 public abstract class NativeSchemaIndexAccessor<KEY extends NativeSchemaKey<KEY>, VALUE extends NativeSchemaValue>
         extends NativeSchemaIndex<KEY,VALUE> implements IndexAccessor
 {
-    private final NativeSchemaIndexUpdater<KEY,VALUE> singleUpdater;
     final IndexSamplingConfig samplingConfig;
+    final NativeIndexStatistics statistics;
 
     NativeSchemaIndexAccessor(
             PageCache pageCache,
@@ -80,9 +82,18 @@ public abstract class NativeSchemaIndexAccessor<KEY extends NativeSchemaKey<KEY>
             IndexSamplingConfig samplingConfig ) throws IOException
     {
         super( pageCache, fs, storeFile, layout, monitor, descriptor, indexId );
-        singleUpdater = new NativeSchemaIndexUpdater<>( layout.newKey(), layout.newValue() );
         this.samplingConfig = samplingConfig;
-        instantiateTree( recoveryCleanupWorkCollector, NO_HEADER_WRITER );
+        this.statistics = keepsStatistics() ? new NativeIndexStatistics() : null;
+        instantiateTree( recoveryCleanupWorkCollector, statistics != null ? statistics::readHeader : NO_HEADER_READER, NO_HEADER_WRITER );
+    }
+
+    /**
+     * Whether or not this index keeps {@link NativeIndexStatistics} in its header. Called from the constructor.
+     * Indexes which have other data after the state byte in their header must override this to return {@code false}.
+     */
+    boolean keepsStatistics()
+    {
+        return true;
     }
 
     @Override
@@ -98,7 +109,8 @@ public abstract class NativeSchemaIndexAccessor<KEY extends NativeSchemaKey<KEY>
         assertOpen();
         try
         {
-            return singleUpdater.initialize( tree.writer() );
+            // Parallel writer so that updaters may be used from multiple threads at the same time
+            return new NativeSchemaIndexUpdater<>( layout.newKey(), layout.newValue(), statistics ).initialize( tree.parallelWriter() );
         }
         catch ( IOException e )
         {
@@ -109,7 +121,14 @@ public abstract class NativeSchemaIndexAccessor<KEY extends NativeSchemaKey<KEY>
     @Override
     public void force( IOLimiter ioLimiter ) throws IOException
     {
-        tree.checkpoint( ioLimiter );
+        if ( statistics != null )
+        {
+            tree.checkpoint( ioLimiter, new NativeSchemaIndexHeaderWriter( BYTE_ONLINE, statistics ) );
+        }
+        else
+        {
+            tree.checkpoint( ioLimiter );
+        }
     }
 
     @Override
@@ -44,20 +44,32 @@ import org.neo4j.index.internal.gbptree.GBPTree;
 import org.neo4j.io.pagecache.PageCursor;
 
 /**
- * Writes index state in the {@link GBPTree} header.
+ * Writes index state in the {@link GBPTree} header, optionally followed by {@link NativeIndexStatistics}.
  */
 class NativeSchemaIndexHeaderWriter implements Consumer<PageCursor>
 {
     private final byte state;
+    private final NativeIndexStatistics statistics;
 
     NativeSchemaIndexHeaderWriter( byte state )
+    {
+        this( state, null );
+    }
+
+    NativeSchemaIndexHeaderWriter( byte state, NativeIndexStatistics statistics )
     {
         this.state = state;
+        this.statistics = statistics;
     }
 
     @Override
     public void accept( PageCursor cursor )
     {
         cursor.putByte( state );
+        // statistics are optional, they will be rebuilt if they don't fit in the header
+        if ( statistics != null && cursor.getCurrentPageSize() - cursor.getOffset() >= NativeIndexStatistics.SIZE )
+        {
+            statistics.write( cursor );
+        }
     }
 }
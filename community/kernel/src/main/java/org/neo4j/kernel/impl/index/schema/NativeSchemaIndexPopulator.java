@@ -48,6 +48,10 @@ import java.util.function.Consumer;
 
 import org.neo4j.concurrent.Work;
 import org.neo4j.concurrent.WorkSync;
+import org.neo4j.helpers.CancellationRequest;
+import org.neo4j.index.internal.gbptree.BulkLoader;
+import org.neo4j.index.internal.gbptree.DeferredWriter;
+import org.neo4j.index.internal.gbptree.EntrySorter;
 import org.neo4j.index.internal.gbptree.GBPTree;
 import org.neo4j.index.internal.gbptree.Layout;
 import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
@@ -55,6 +59,7 @@ import org.neo4j.index.internal.gbptree.Writer;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.pagecache.IOLimiter;
 import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.ByteUnit;
 import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
 import org.neo4j.kernel.api.index.IndexEntryUpdate;
@@ -69,6 +74,8 @@ import org.neo4j.kernel.impl.api.index.sampling.NonUniqueIndexSampler;
 import org.neo4j.kernel.impl.api.index.sampling.UniqueIndexSampler;
 import org.neo4j.storageengine.api.schema.IndexReader;
 import org.neo4j.storageengine.api.schema.IndexSample;
+import org.neo4j.util.FeatureToggles;
+import org.neo4j.values.storable.Value;
 
 import static org.neo4j.index.internal.gbptree.GBPTree.NO_HEADER_WRITER;
 import static org.neo4j.kernel.api.schema.index.SchemaIndexDescriptor.Type.GENERAL;
@@ -76,6 +83,17 @@ import static org.neo4j.kernel.api.schema.index.SchemaIndexDescriptor.Type.UNIQU
 
 /**
  * {@link IndexPopulator} backed by a {@link GBPTree}.
+ * <p>
+ * Non-unique indexes are bulk loaded: entries from {@link #add(Collection)} are sorted by an {@link EntrySorter} and
+ * the tree is built bottom-up from the sorted entries when population completes, instead of inserting entries one by one.
+ * Updates from {@link #newPopulatingUpdater(PropertyAccessor) populating updaters} may refer to entries still in the
+ * sorter and are therefore held back by a {@link DeferredWriter}, which spills them to disk rather than keeping them
+ * all in memory, and applied, in order, after the tree has been built.
+ * Unique indexes need to detect conflicts as entries are added and insert entries directly into the tree.
+ * <p>
+ * The tree is built and its {@link NativeIndexStatistics} rebuilt in {@link #scanCompleted(CancellationRequest)}, which doesn't block
+ * committing transactions and stops early if the population is cancelled. Later updates are applied directly to the tree and the statistics, so that {@link #close(boolean)}, called
+ * while the index is being flipped, only has to mark the tree as online.
  *
  * @param <KEY> type of {@link NativeSchemaKey}.
  * @param <VALUE> type of {@link NativeSchemaValue}.
@@ -87,14 +105,29 @@ public abstract class NativeSchemaIndexPopulator<KEY extends NativeSchemaKey<KEY
     static final byte BYTE_ONLINE = 1;
     static final byte BYTE_POPULATING = 2;
 
+    static final boolean BULK_LOAD = FeatureToggles.flag( NativeSchemaIndexPopulator.class, "bulkLoad", true );
+    static final int SORT_BUFFER_SIZE =
+            FeatureToggles.getInteger( NativeSchemaIndexPopulator.class, "sortBufferSize", (int) ByteUnit.mebiBytes( 16 ) );
+    /**
+     * How full to make tree nodes when bulk loading, leaving some space for updates after the index has come online.
+     */
+    static final double BULK_LOAD_FILL_FACTOR = FeatureToggles.getDouble( NativeSchemaIndexPopulator.class, "bulkLoadFillFactor", 0.9 );
+
     private final KEY treeKey;
     private final VALUE treeValue;
     private final UniqueIndexSampler uniqueSampler;
     private final NonUniqueIndexSampler nonUniqueSampler;
     final IndexSamplingConfig samplingConfig;
+    private final FileSystemAbstraction fs;
 
     private WorkSync<IndexUpdateApply<KEY,VALUE>,IndexUpdateWork<KEY,VALUE>> additionsWorkSync;
     private WorkSync<IndexUpdateApply<KEY,VALUE>,IndexUpdateWork<KEY,VALUE>> updatesWorkSync;
+    private final KEY deferredKey;
+    private final VALUE deferredValue;
+    private EntrySorter<KEY,VALUE> sorter;
+    private DeferredWriter<KEY,VALUE> deferredWriter;
+    private final NativeIndexStatistics statistics;
+    private boolean statisticsBuilt;
 
     private byte[] failureBytes;
     private boolean dropped;
@@ -106,7 +139,11 @@ public abstract class NativeSchemaIndexPopulator<KEY extends NativeSchemaKey<KEY
         super( pageCache, fs, storeFile, layout, monitor, descriptor, indexId );
         this.treeKey = layout.newKey();
         this.treeValue = layout.newValue();
+        this.deferredKey = layout.newKey();
+        this.deferredValue = layout.newValue();
         this.samplingConfig = samplingConfig;
+        this.fs = fs;
+        this.statistics = keepsStatistics() ? new NativeIndexStatistics() : null;
         switch ( descriptor.type() )
         {
         case GENERAL:
@@ -122,6 +159,15 @@ public abstract class NativeSchemaIndexPopulator<KEY extends NativeSchemaKey<KEY
         }
     }
 
+    /**
+     * Whether or not this index keeps {@link NativeIndexStatistics} in its header. Called from the constructor.
+     * Indexes which have other data after the state byte in their header must override this to return {@code false}.
+     */
+    boolean keepsStatistics()
+    {
+        return true;
+    }
+
     public void clear() throws IOException
     {
         gbpTreeFileUtil.deleteFileIfPresent( storeFile );
@@ -143,11 +189,25 @@ public abstract class NativeSchemaIndexPopulator<KEY extends NativeSchemaKey<KEY
 
         // true:  tree uniqueness is (value,entityId)
         // false: tree uniqueness is (value) <-- i.e. more strict
-        additionsWorkSync = new WorkSync<>( new IndexUpdateApply<>( tree, treeKey, treeValue, getMainConflictDetector() ) );
+        additionsWorkSync = new WorkSync<>( new IndexUpdateApply<>( tree, treeKey, treeValue, getMainConflictDetector(), statistics ) );
 
         // for updates we have to have uniqueness on (value,entityId) to allow for intermediary violating updates.
         // there are added conflict checks after updates have been applied.
-        updatesWorkSync = new WorkSync<>( new IndexUpdateApply<>( tree, treeKey, treeValue, new ConflictDetectingValueMerger<>( true ) ) );
+        updatesWorkSync =
+                new WorkSync<>( new IndexUpdateApply<>( tree, treeKey, treeValue, new ConflictDetectingValueMerger<>( true ), statistics ) );
+
+        statisticsBuilt = false;
+        closeBulkLoad();
+        if ( BULK_LOAD && descriptor.type() == GENERAL )
+        {
+            sorter = new EntrySorter<>( layout, fs, bulkLoadFile( ".sort" ), SORT_BUFFER_SIZE );
+            deferredWriter = new DeferredWriter<>( layout, fs, bulkLoadFile( ".deferred" ), SORT_BUFFER_SIZE );
+        }
+    }
+
+    private File bulkLoadFile( String suffix )
+    {
+        return new File( storeFile.getParentFile(), storeFile.getName() + suffix );
     }
 
     ConflictDetectingValueMerger<KEY,VALUE> getMainConflictDetector()
@@ -160,6 +220,7 @@ public abstract class NativeSchemaIndexPopulator<KEY extends NativeSchemaKey<KEY
     {
         try
         {
+            closeBulkLoad();
             closeTree();
             gbpTreeFileUtil.deleteFileIfPresent( storeFile );
         }
@@ -173,7 +234,24 @@ public abstract class NativeSchemaIndexPopulator<KEY extends NativeSchemaKey<KEY
     @Override
     public void add( Collection<? extends IndexEntryUpdate<?>> updates ) throws IOException, IndexEntryConflictException
     {
-        applyWithWorkSync( additionsWorkSync, updates );
+        if ( sorter != null )
+        {
+            addToSorter( updates );
+        }
+        else
+        {
+            applyWithWorkSync( additionsWorkSync, updates );
+        }
+    }
+
+    private synchronized void addToSorter( Collection<? extends IndexEntryUpdate<?>> updates ) throws IOException
+    {
+        for ( IndexEntryUpdate<?> update : updates )
+        {
+            treeKey.from( update.getEntityId(), update.values() );
+            treeValue.from( update.values() );
+            sorter.add( treeKey, treeValue );
+        }
     }
 
     @Override
@@ -200,7 +278,10 @@ public abstract class NativeSchemaIndexPopulator<KEY extends NativeSchemaKey<KEY
             @Override
             public void close() throws IOException, IndexEntryConflictException
             {
-                applyWithWorkSync( updatesWorkSync, updates );
+                if ( !deferUpdates( updates ) )
+                {
+                    applyWithWorkSync( updatesWorkSync, updates );
+                }
                 closed = true;
             }
 
@@ -222,6 +303,51 @@ public abstract class NativeSchemaIndexPopulator<KEY extends NativeSchemaKey<KEY
         return updater;
     }
 
+    /**
+     * Holds back updates from a populating updater while entries are being bulk loaded.
+     *
+     * @return whether or not the updates were deferred, otherwise they should be applied directly.
+     */
+    private synchronized boolean deferUpdates( Collection<IndexEntryUpdate<?>> updates ) throws IOException
+    {
+        if ( deferredWriter == null )
+        {
+            return false;
+        }
+        for ( IndexEntryUpdate<?> update : updates )
+        {
+            switch ( update.updateMode() )
+            {
+            case ADDED:
+                deferPut( update.getEntityId(), update.values() );
+                break;
+            case CHANGED:
+                deferRemove( update.getEntityId(), update.beforeValues() );
+                deferPut( update.getEntityId(), update.values() );
+                break;
+            case REMOVED:
+                deferRemove( update.getEntityId(), update.values() );
+                break;
+            default:
+                throw new IllegalArgumentException();
+            }
+        }
+        return true;
+    }
+
+    private void deferPut( long entityId, Value[] values ) throws IOException
+    {
+        deferredKey.from( entityId, values );
+        deferredValue.from( values );
+        deferredWriter.put( deferredKey, deferredValue );
+    }
+
+    private void deferRemove( long entityId, Value[] values ) throws IOException
+    {
+        deferredKey.from( entityId, values );
+        deferredWriter.remove( deferredKey );
+    }
+
     boolean canCheckConflictsWithoutStoreAccess()
     {
         return true;
@@ -229,6 +355,21 @@ public abstract class NativeSchemaIndexPopulator<KEY extends NativeSchemaKey<KEY
 
     abstract IndexReader newReader();
 
+    /**
+     * Builds the tree from the bulk loaded entries and rebuilds the statistics of the index, which would otherwise be done
+     * in {@link #close(boolean)}, while the index is being flipped. Returns early if {@code cancellation} is requested,
+     * leaving the populator to be closed.
+     */
+    @Override
+    public synchronized void scanCompleted( CancellationRequest cancellation ) throws IOException
+    {
+        assertPopulatorOpen();
+        if ( completeBulkLoad( cancellation ) )
+        {
+            buildStatistics( cancellation );
+        }
+    }
+
     @Override
     public synchronized void close( boolean populationCompletedSuccessfully ) throws IOException
     {
@@ -242,6 +383,7 @@ public abstract class NativeSchemaIndexPopulator<KEY extends NativeSchemaKey<KEY
             if ( populationCompletedSuccessfully )
             {
                 assertPopulatorOpen();
+                completeBulkLoad( CancellationRequest.NEVER_CANCELLED );
                 markTreeAsOnline();
             }
             else
@@ -253,11 +395,56 @@ public abstract class NativeSchemaIndexPopulator<KEY extends NativeSchemaKey<KEY
         }
         finally
         {
+            closeBulkLoad();
             closeTree();
             closed = true;
         }
     }
 
+    /**
+     * Builds the tree from all sorted entries and then applies the updates held back while populating.
+     * Updates coming in after this are applied directly to the tree.
+     *
+     * @return {@code true} if the bulk load is complete, otherwise {@code false} if it was cancelled before that.
+     */
+    private boolean completeBulkLoad( CancellationRequest cancellation ) throws IOException
+    {
+        if ( sorter == null )
+        {
+            return true;
+        }
+
+        boolean drained;
+        try ( BulkLoader<KEY,VALUE> bulkLoader = tree.bulkLoader( BULK_LOAD_FILL_FACTOR ) )
+        {
+            drained = sorter.drainTo( bulkLoader, cancellation::cancellationRequested );
+        }
+        if ( !drained || cancellation.cancellationRequested() )
+        {
+            return false;
+        }
+        try ( Writer<KEY,VALUE> writer = tree.writer() )
+        {
+            deferredWriter.replayTo( writer );
+        }
+        closeBulkLoad();
+        return true;
+    }
+
+    private void closeBulkLoad() throws IOException
+    {
+        if ( sorter != null )
+        {
+            sorter.close();
+            sorter = null;
+        }
+        if ( deferredWriter != null )
+        {
+            deferredWriter.close();
+            deferredWriter = null;
+        }
+    }
+
     private void applyWithWorkSync( WorkSync<IndexUpdateApply<KEY,VALUE>,IndexUpdateWork<KEY,VALUE>> workSync,
             Collection<? extends IndexEntryUpdate<?>> updates ) throws IOException, IndexEntryConflictException
     {
@@ -327,9 +514,22 @@ public abstract class NativeSchemaIndexPopulator<KEY extends NativeSchemaKey<KEY
         tree.checkpoint( IOLimiter.unlimited(), new FailureHeaderWriter( failureBytes ) );
     }
 
+    /**
+     * Rebuilds the statistics from a full scan of the tree, unless already done or cancelled. From then on they are kept
+     * up to date by the updates applied to the tree.
+     */
+    private void buildStatistics( CancellationRequest cancellation )
+    {
+        if ( statistics != null && !statisticsBuilt )
+        {
+            statisticsBuilt = statistics.rebuild( tree, layout, cancellation );
+        }
+    }
+
     void markTreeAsOnline() throws IOException
     {
-        tree.checkpoint( IOLimiter.unlimited(), pc -> pc.putByte( BYTE_ONLINE ) );
+        buildStatistics( CancellationRequest.NEVER_CANCELLED );
+        tree.checkpoint( IOLimiter.unlimited(), new NativeSchemaIndexHeaderWriter( BYTE_ONLINE, statistics ) );
     }
 
     static class IndexUpdateApply<KEY extends NativeSchemaKey<KEY>, VALUE extends NativeSchemaValue>
@@ -338,13 +538,16 @@ public abstract class NativeSchemaIndexPopulator<KEY extends NativeSchemaKey<KEY
         private final KEY treeKey;
         private final VALUE treeValue;
         private final ConflictDetectingValueMerger<KEY,VALUE> conflictDetectingValueMerger;
+        private final NativeIndexStatistics statistics;
 
-        IndexUpdateApply( GBPTree<KEY,VALUE> tree, KEY treeKey, VALUE treeValue, ConflictDetectingValueMerger<KEY,VALUE> conflictDetectingValueMerger )
+        IndexUpdateApply( GBPTree<KEY,VALUE> tree, KEY treeKey, VALUE treeValue, ConflictDetectingValueMerger<KEY,VALUE> conflictDetectingValueMerger,
+                NativeIndexStatistics statistics )
         {
             this.tree = tree;
             this.treeKey = treeKey;
             this.treeValue = treeValue;
             this.conflictDetectingValueMerger = conflictDetectingValueMerger;
+            this.statistics = statistics;
         }
 
         void process( Iterable<? extends IndexEntryUpdate<?>> indexEntryUpdates ) throws Exception
@@ -353,7 +556,7 @@ public abstract class NativeSchemaIndexPopulator<KEY extends NativeSchemaKey<KEY
             {
                 for ( IndexEntryUpdate<?> indexEntryUpdate : indexEntryUpdates )
                 {
-                    NativeSchemaIndexUpdater.processUpdate( treeKey, treeValue, indexEntryUpdate, writer, conflictDetectingValueMerger );
+                    NativeSchemaIndexUpdater.processUpdate( treeKey, treeValue, indexEntryUpdate, writer, conflictDetectingValueMerger, statistics );
                 }
             }
         }
@@ -46,6 +46,7 @@ import java.util.Set;
 import org.neo4j.collection.primitive.PrimitiveLongResourceCollections;
 import org.neo4j.collection.primitive.PrimitiveLongResourceIterator;
 import org.neo4j.cursor.RawCursor;
+import org.neo4j.helpers.CancellationRequest;
 import org.neo4j.index.internal.gbptree.GBPTree;
 import org.neo4j.index.internal.gbptree.Hit;
 import org.neo4j.index.internal.gbptree.Layout;
@@ -68,14 +69,27 @@ abstract class NativeSchemaIndexReader<KEY extends NativeSchemaKey<KEY>, VALUE e
     final Set<RawCursor<Hit<KEY,VALUE>,IOException>> openSeekers;
     final GBPTree<KEY,VALUE> tree;
     private final IndexSamplingConfig samplingConfig;
+    private final NativeIndexStatistics statistics;
 
     NativeSchemaIndexReader( GBPTree<KEY,VALUE> tree, Layout<KEY,VALUE> layout,
             IndexSamplingConfig samplingConfig,
             SchemaIndexDescriptor descriptor )
+    {
+        this( tree, layout, samplingConfig, null, descriptor );
+    }
+
+    /**
+     * @param statistics {@link NativeIndexStatistics} of the index, used for sampling it, or {@code null} if the index doesn't keep any,
+     * in which case sampling scans the index.
+     */
+    NativeSchemaIndexReader( GBPTree<KEY,VALUE> tree, Layout<KEY,VALUE> layout,
+            IndexSamplingConfig samplingConfig, NativeIndexStatistics statistics,
+            SchemaIndexDescriptor descriptor )
     {
         this.tree = tree;
         this.layout = layout;
         this.samplingConfig = samplingConfig;
+        this.statistics = statistics;
         this.descriptor = descriptor;
         this.openSeekers = new HashSet<>();
     }
@@ -89,6 +103,21 @@ abstract class NativeSchemaIndexReader<KEY extends NativeSchemaKey<KEY>, VALUE e
     @Override
     public IndexSampler createSampler()
     {
+        if ( statistics != null )
+        {
+            // The statistics are kept up to date by the updaters, only needing a full scan of the index if they aren't
+            // known, e.g. for an index written by an older version, or if too many entries have been removed since the last scan.
+            boolean unique = descriptor.type() == SchemaIndexDescriptor.Type.UNIQUE;
+            return () ->
+            {
+                if ( statistics.isStale( samplingConfig.updateRatio() ) )
+                {
+                    statistics.rebuild( tree, layout, CancellationRequest.NEVER_CANCELLED );
+                }
+                return statistics.sample( unique );
+            };
+        }
+
         // For a unique index there's an optimization, knowing that all values in it are unique, to simply count
         // the number of indexed values and create a sample for that count. The GBPTree doesn't have an O(1)
         // count mechanism, it will have to manually count the indexed values in it to get it.
@@ -165,7 +194,7 @@ abstract class NativeSchemaIndexReader<KEY extends NativeSchemaKey<KEY>, VALUE e
         KEY treeKeyTo = layout.newKey();
 
         boolean needFilter = initializeRangeForQuery( treeKeyFrom, treeKeyTo, predicates );
-        startSeekForInitializedRange( cursor, treeKeyFrom, treeKeyTo, predicates, needFilter );
+        startSeekForInitializedRange( cursor, treeKeyFrom, treeKeyTo, predicates, indexOrder, needFilter );
     }
 
     @Override
@@ -201,6 +230,12 @@ abstract class NativeSchemaIndexReader<KEY extends NativeSchemaKey<KEY>, VALUE e
     abstract boolean initializeRangeForQuery( KEY treeKeyFrom, KEY treeKeyTo, IndexQuery[] predicates );
 
     void startSeekForInitializedRange( IndexProgressor.NodeValueClient client, KEY treeKeyFrom, KEY treeKeyTo, IndexQuery[] query, boolean needFilter )
+    {
+        startSeekForInitializedRange( client, treeKeyFrom, treeKeyTo, query, IndexOrder.NONE, needFilter );
+    }
+
+    void startSeekForInitializedRange( IndexProgressor.NodeValueClient client, KEY treeKeyFrom, KEY treeKeyTo, IndexQuery[] query,
+            IndexOrder indexOrder, boolean needFilter )
     {
         if ( isBackwardsSeek( treeKeyFrom, treeKeyTo ) )
         {
@@ -209,7 +244,10 @@ abstract class NativeSchemaIndexReader<KEY extends NativeSchemaKey<KEY>, VALUE e
         }
         try
         {
-            RawCursor<Hit<KEY,VALUE>,IOException> seeker = makeIndexSeeker( treeKeyFrom, treeKeyTo );
+            // The tree is seeked backwards by swapping the keys. The range keys have entity ids which no entry has,
+            // so which of them is inclusive and which is exclusive doesn't matter.
+            RawCursor<Hit<KEY,VALUE>,IOException> seeker = indexOrder == IndexOrder.DESCENDING ? makeIndexSeeker( treeKeyTo, treeKeyFrom )
+                                                                                                : makeIndexSeeker( treeKeyFrom, treeKeyTo );
             IndexProgressor hitProgressor = getIndexProgressor( seeker, client, needFilter, query );
             client.initialize( descriptor, hitProgressor, query );
         }
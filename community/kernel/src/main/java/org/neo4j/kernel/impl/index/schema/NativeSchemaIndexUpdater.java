@@ -51,14 +51,24 @@ class NativeSchemaIndexUpdater<KEY extends NativeSchemaKey<KEY>, VALUE extends N
     private final KEY treeKey;
     private final VALUE treeValue;
     private final ConflictDetectingValueMerger<KEY,VALUE> conflictDetectingValueMerger = new ConflictDetectingValueMerger<>( true );
+    private final NativeIndexStatistics statistics;
     private Writer<KEY,VALUE> writer;
 
     private boolean closed = true;
 
     NativeSchemaIndexUpdater( KEY treeKey, VALUE treeValue )
+    {
+        this( treeKey, treeValue, null );
+    }
+
+    /**
+     * @param statistics {@link NativeIndexStatistics} to keep up to date with the applied updates, or {@code null} if none.
+     */
+    NativeSchemaIndexUpdater( KEY treeKey, VALUE treeValue, NativeIndexStatistics statistics )
     {
         this.treeKey = treeKey;
         this.treeValue = treeValue;
+        this.statistics = statistics;
     }
 
     NativeSchemaIndexUpdater<KEY,VALUE> initialize( Writer<KEY,VALUE> writer )
@@ -77,7 +87,7 @@ class NativeSchemaIndexUpdater<KEY extends NativeSchemaKey<KEY>, VALUE extends N
     public void process( IndexEntryUpdate<?> update ) throws IOException, IndexEntryConflictException
     {
         assertOpen();
-        processUpdate( treeKey, treeValue, update, writer, conflictDetectingValueMerger );
+        processUpdate( treeKey, treeValue, update, writer, conflictDetectingValueMerger, statistics );
     }
 
     @Override
@@ -98,17 +108,24 @@ class NativeSchemaIndexUpdater<KEY extends NativeSchemaKey<KEY>, VALUE extends N
     static <KEY extends NativeSchemaKey<KEY>, VALUE extends NativeSchemaValue> void processUpdate( KEY treeKey, VALUE treeValue,
             IndexEntryUpdate<?> update, Writer<KEY,VALUE> writer, ConflictDetectingValueMerger<KEY,VALUE> conflictDetectingValueMerger )
             throws IOException, IndexEntryConflictException
+    {
+        processUpdate( treeKey, treeValue, update, writer, conflictDetectingValueMerger, null );
+    }
+
+    static <KEY extends NativeSchemaKey<KEY>, VALUE extends NativeSchemaValue> void processUpdate( KEY treeKey, VALUE treeValue,
+            IndexEntryUpdate<?> update, Writer<KEY,VALUE> writer, ConflictDetectingValueMerger<KEY,VALUE> conflictDetectingValueMerger,
+            NativeIndexStatistics statistics ) throws IOException, IndexEntryConflictException
     {
         switch ( update.updateMode() )
         {
         case ADDED:
-            processAdd( treeKey, treeValue, update, writer, conflictDetectingValueMerger );
+            processAdd( treeKey, treeValue, update, writer, conflictDetectingValueMerger, statistics );
             break;
         case CHANGED:
-            processChange( treeKey, treeValue, update, writer, conflictDetectingValueMerger );
+            processChange( treeKey, treeValue, update, writer, conflictDetectingValueMerger, statistics );
             break;
         case REMOVED:
-            processRemove( treeKey, update, writer );
+            processRemove( treeKey, update, writer, statistics );
             break;
         default:
             throw new IllegalArgumentException();
@@ -116,39 +133,49 @@ class NativeSchemaIndexUpdater<KEY extends NativeSchemaKey<KEY>, VALUE extends N
     }
 
     private static <KEY extends NativeSchemaKey<KEY>, VALUE extends NativeSchemaValue> void processRemove( KEY treeKey,
-            IndexEntryUpdate<?> update, Writer<KEY,VALUE> writer ) throws IOException
+            IndexEntryUpdate<?> update, Writer<KEY,VALUE> writer, NativeIndexStatistics statistics ) throws IOException
     {
         // todo Do we need to verify that we actually removed something at all?
         // todo Difference between online and recovery?
         treeKey.from( update.getEntityId(), update.values() );
-        writer.remove( treeKey );
+        remove( treeKey, writer, statistics );
     }
 
     private static <KEY extends NativeSchemaKey<KEY>, VALUE extends NativeSchemaValue> void processChange( KEY treeKey, VALUE treeValue,
             IndexEntryUpdate<?> update, Writer<KEY,VALUE> writer,
-            ConflictDetectingValueMerger<KEY,VALUE> conflictDetectingValueMerger )
+            ConflictDetectingValueMerger<KEY,VALUE> conflictDetectingValueMerger, NativeIndexStatistics statistics )
             throws IOException, IndexEntryConflictException
     {
         // Remove old entry
         treeKey.from( update.getEntityId(), update.beforeValues() );
-        writer.remove( treeKey );
+        remove( treeKey, writer, statistics );
         // Insert new entry
-        treeKey.from( update.getEntityId(), update.values() );
-        treeValue.from( update.values() );
-        conflictDetectingValueMerger.controlConflictDetection( treeKey );
-        writer.merge( treeKey, treeValue, conflictDetectingValueMerger );
-        conflictDetectingValueMerger.checkConflict( update.values() );
+        processAdd( treeKey, treeValue, update, writer, conflictDetectingValueMerger, statistics );
     }
 
     static <KEY extends NativeSchemaKey<KEY>, VALUE extends NativeSchemaValue> void processAdd( KEY treeKey, VALUE treeValue,
             IndexEntryUpdate<?> update, Writer<KEY,VALUE> writer,
-            ConflictDetectingValueMerger<KEY,VALUE> conflictDetectingValueMerger )
+            ConflictDetectingValueMerger<KEY,VALUE> conflictDetectingValueMerger, NativeIndexStatistics statistics )
             throws IOException, IndexEntryConflictException
     {
         treeKey.from( update.getEntityId(), update.values() );
         treeValue.from( update.values() );
         conflictDetectingValueMerger.controlConflictDetection( treeKey );
         writer.merge( treeKey, treeValue, conflictDetectingValueMerger );
+        // Entries which already existed, e.g. when updates are replayed during recovery, shouldn't be counted again
+        if ( conflictDetectingValueMerger.checkInserted() && statistics != null )
+        {
+            statistics.added( update.values() );
+        }
         conflictDetectingValueMerger.checkConflict( update.values() );
     }
+
+    private static <KEY extends NativeSchemaKey<KEY>, VALUE extends NativeSchemaValue> void remove( KEY treeKey, Writer<KEY,VALUE> writer,
+            NativeIndexStatistics statistics ) throws IOException
+    {
+        if ( writer.remove( treeKey ) != null && statistics != null )
+        {
+            statistics.removed();
+        }
+    }
 }
@@ -85,6 +85,17 @@ abstract class NativeSchemaKey<SELF extends NativeSchemaKey<SELF>> extends Tempo
     {
         initialize( entityId );
         // copy value state and store in this key instance
+        writeValues( values );
+    }
+
+    /**
+     * Writes the given property values into this key. Keys for single property indexes accept exactly one value,
+     * keys able to hold a tuple of values override this.
+     *
+     * @param values property values to write into this key.
+     */
+    void writeValues( Value[] values )
+    {
         assertValidValue( values ).writeTo( this );
     }
 
@@ -122,6 +133,14 @@ abstract class NativeSchemaKey<SELF extends NativeSchemaKey<SELF>> extends Tempo
 
     abstract Value asValue();
 
+    /**
+     * @return all property values of this key, i.e. a single value unless this key holds a tuple of values.
+     */
+    Value[] asValues()
+    {
+        return new Value[]{asValue()};
+    }
+
     final void initAsLowest()
     {
         initialize( Long.MIN_VALUE );
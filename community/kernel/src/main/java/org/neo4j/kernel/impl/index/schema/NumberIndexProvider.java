@@ -123,7 +123,7 @@ public class NumberIndexProvider extends NativeIndexProvider<NumberSchemaKey,Nat
         {
             if ( support( valueCategories ) )
             {
-                return ORDER_ASC;
+                return ORDER_BOTH;
             }
             return ORDER_NONE;
         }
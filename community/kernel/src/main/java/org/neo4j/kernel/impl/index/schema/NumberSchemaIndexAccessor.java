@@ -70,6 +70,6 @@ public class NumberSchemaIndexAccessor extends NativeSchemaIndexAccessor<NumberS
     public IndexReader newReader()
     {
         assertOpen();
-        return new NumberSchemaIndexReader<>( tree, layout, samplingConfig, descriptor );
+        return new NumberSchemaIndexReader<>( tree, layout, samplingConfig, statistics, descriptor );
     }
 }
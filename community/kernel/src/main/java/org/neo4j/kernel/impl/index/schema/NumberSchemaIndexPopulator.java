@@ -59,6 +59,6 @@ class NumberSchemaIndexPopulator extends NativeSchemaIndexPopulator<NumberSchema
     @Override
     IndexReader newReader()
     {
-        return new NumberSchemaIndexReader<>( tree, layout, samplingConfig, descriptor );
+        return new NumberSchemaIndexReader<>( tree, layout, samplingConfig, null, descriptor );
     }
 }
@@ -52,9 +52,9 @@ import org.neo4j.values.storable.Values;
 class NumberSchemaIndexReader<VALUE extends NativeSchemaValue> extends NativeSchemaIndexReader<NumberSchemaKey,VALUE>
 {
     NumberSchemaIndexReader( GBPTree<NumberSchemaKey,VALUE> tree, Layout<NumberSchemaKey,VALUE> layout,
-            IndexSamplingConfig samplingConfig, SchemaIndexDescriptor descriptor )
+            IndexSamplingConfig samplingConfig, NativeIndexStatistics statistics, SchemaIndexDescriptor descriptor )
     {
-        super( tree, layout, samplingConfig, descriptor );
+        super( tree, layout, samplingConfig, statistics, descriptor );
     }
 
     @Override
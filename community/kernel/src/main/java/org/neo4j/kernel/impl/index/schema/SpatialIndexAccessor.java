@@ -227,6 +227,13 @@ class SpatialIndexAccessor extends SpatialIndexCache<SpatialIndexAccessor.PartAc
             this.searchConfiguration = searchConfiguration;
         }
 
+        @Override
+        boolean keepsStatistics()
+        {
+            // the header has space filling curve settings after the state byte
+            return false;
+        }
+
         @Override
         public SpatialIndexPartReader<NativeSchemaValue> newReader()
         {
@@ -54,6 +54,7 @@ import org.neo4j.internal.kernel.api.IndexOrder;
 import org.neo4j.internal.kernel.api.IndexQuery;
 import org.neo4j.internal.kernel.api.IndexQuery.ExactPredicate;
 import org.neo4j.internal.kernel.api.IndexQuery.GeometryRangePredicate;
+import org.neo4j.internal.kernel.api.IndexQuery.NearestNeighbourPredicate;
 import org.neo4j.internal.kernel.api.exceptions.EntityNotFoundException;
 import org.neo4j.kernel.api.index.PropertyAccessor;
 import org.neo4j.kernel.api.schema.index.SchemaIndexDescriptor;
@@ -170,6 +171,19 @@ public class SpatialIndexPartReader<VALUE extends NativeSchemaValue> extends Nat
         }
     }
 
+    @Override
+    public void nearestNeighbours( IndexProgressor.NodeValueClient client, PropertyAccessor propertyAccessor, NearestNeighbourPredicate predicate )
+    {
+        if ( !predicate.crs().equals( spatial.crs ) )
+        {
+            throw new IllegalArgumentException(
+                    "IndexQuery on spatial index with mismatching CoordinateReferenceSystem: " + predicate.crs() + " != " + spatial.crs );
+        }
+        IndexProgressor progressor = new SpatialNearestNeighbourProgressor<>( tree, layout, spatial.getSpaceFillingCurve(), configuration, client,
+                propertyAccessor, descriptor.schema().getPropertyId(), predicate );
+        client.initialize( descriptor, progressor, new IndexQuery[]{predicate} );
+    }
+
     private void startSeekForExists( IndexProgressor.NodeValueClient client, IndexQuery... predicates )
     {
         SpatialSchemaKey treeKeyFrom = layout.newKey();
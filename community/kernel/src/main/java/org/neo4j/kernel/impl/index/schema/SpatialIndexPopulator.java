@@ -47,6 +47,7 @@ import java.util.Map;
 import java.util.stream.StreamSupport;
 
 import org.neo4j.gis.spatial.index.curves.SpaceFillingCurveConfiguration;
+import org.neo4j.helpers.CancellationRequest;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.pagecache.IOLimiter;
 import org.neo4j.io.pagecache.PageCache;
@@ -133,6 +134,12 @@ class SpatialIndexPopulator extends SpatialIndexCache<SpatialIndexPopulator.Part
         return new SpatialIndexPopulatingUpdater( this, accessor );
     }
 
+    @Override
+    public synchronized void scanCompleted( CancellationRequest cancellation ) throws IOException
+    {
+        forAll( part -> part.scanCompleted( cancellation ), this );
+    }
+
     @Override
     public synchronized void close( boolean populationCompletedSuccessfully ) throws IOException
     {
@@ -190,6 +197,13 @@ class SpatialIndexPopulator extends SpatialIndexCache<SpatialIndexPopulator.Part
             super.verifyDeferredConstraints( nodePropertyAccessor );
         }
 
+        @Override
+        boolean keepsStatistics()
+        {
+            // the header has space filling curve settings after the state byte
+            return false;
+        }
+
         @Override
         boolean canCheckConflictsWithoutStoreAccess()
         {
@@ -165,6 +165,21 @@ class SpatialIndexReader extends SpatialIndexCache<SpatialIndexPartReader<Native
         }
     }
 
+    @Override
+    public void nearestNeighbours( IndexProgressor.NodeValueClient cursor, PropertyAccessor propertyAccessor,
+            IndexQuery.NearestNeighbourPredicate predicate )
+    {
+        SpatialIndexPartReader<NativeSchemaValue> part = uncheckedSelect( predicate.crs() );
+        if ( part != null )
+        {
+            part.nearestNeighbours( cursor, propertyAccessor, predicate );
+        }
+        else
+        {
+            cursor.initialize( descriptor, IndexProgressor.EMPTY, new IndexQuery[]{predicate} );
+        }
+    }
+
     private boolean validPredicate( IndexQuery predicate )
     {
         return predicate instanceof IndexQuery.ExactPredicate || predicate instanceof IndexQuery.RangePredicate;
@@ -0,0 +1,284 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import org.neo4j.collection.primitive.Primitive;
+import org.neo4j.collection.primitive.PrimitiveLongSet;
+import org.neo4j.cursor.RawCursor;
+import org.neo4j.gis.spatial.index.curves.SpaceFillingCurve;
+import org.neo4j.gis.spatial.index.curves.SpaceFillingCurveConfiguration;
+import org.neo4j.helpers.collection.Pair;
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.Hit;
+import org.neo4j.index.internal.gbptree.Layout;
+import org.neo4j.internal.kernel.api.IndexQuery.NearestNeighbourPredicate;
+import org.neo4j.internal.kernel.api.exceptions.EntityNotFoundException;
+import org.neo4j.kernel.api.index.PropertyAccessor;
+import org.neo4j.storageengine.api.schema.IndexProgressor;
+import org.neo4j.values.storable.PointValue;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
+
+/**
+ * Finds the nodes nearest to a point by searching the index within a radius around the point which is doubled every time
+ * the nodes within the current radius have been returned. Every time the radius grows, only the ranges of the space filling curve
+ * which weren't already covered by the smaller radius are searched.
+ * <p>
+ * Points in the index are lossy, so the exact values of the nodes found in the searched ranges are looked up and ordered
+ * by their distance to the point. A node found within the bounding box of the radius can be returned as soon as its distance
+ * isn't larger than the radius, since all nodes nearer than that are within the bounding box too and so have been found already.
+ */
+class SpatialNearestNeighbourProgressor<VALUE extends NativeSchemaValue> implements IndexProgressor
+{
+    private final GBPTree<SpatialSchemaKey,VALUE> tree;
+    private final Layout<SpatialSchemaKey,VALUE> layout;
+    private final SpaceFillingCurve curve;
+    private final SpaceFillingCurveConfiguration configuration;
+    private final NodeValueClient client;
+    private final PropertyAccessor propertyAccessor;
+    private final int propertyKeyId;
+    private final NearestNeighbourPredicate predicate;
+
+    private final PriorityQueue<Neighbour> found = new PriorityQueue<>( Comparator.comparingDouble( neighbour -> neighbour.distance ) );
+    private final PrimitiveLongSet seen = Primitive.longSet();
+    // Ranges of the curve which have been searched, sorted by their start
+    private final List<CurveRange> searched = new ArrayList<>();
+    private double radius;
+    private boolean exhausted;
+
+    SpatialNearestNeighbourProgressor( GBPTree<SpatialSchemaKey,VALUE> tree, Layout<SpatialSchemaKey,VALUE> layout, SpaceFillingCurve curve,
+            SpaceFillingCurveConfiguration configuration, NodeValueClient client, PropertyAccessor propertyAccessor, int propertyKeyId,
+            NearestNeighbourPredicate predicate )
+    {
+        this.tree = tree;
+        this.layout = layout;
+        this.curve = curve;
+        this.configuration = configuration;
+        this.client = client;
+        this.propertyAccessor = propertyAccessor;
+        this.propertyKeyId = propertyKeyId;
+        this.predicate = predicate;
+        this.radius = initialRadius() / 2;
+    }
+
+    @Override
+    public boolean next()
+    {
+        while ( true )
+        {
+            Neighbour nearest = found.peek();
+            if ( nearest != null && (exhausted || nearest.distance <= radius) )
+            {
+                found.poll();
+                if ( client.acceptNode( nearest.entityId, new Value[]{nearest.point} ) )
+                {
+                    return true;
+                }
+            }
+            else if ( exhausted )
+            {
+                return false;
+            }
+            else
+            {
+                radius *= 2;
+                search();
+            }
+        }
+    }
+
+    @Override
+    public void close()
+    {
+        found.clear();
+        seen.close();
+    }
+
+    /**
+     * The width of the smallest tile of the curve, as a distance from the point.
+     */
+    private double initialRadius()
+    {
+        double[] coordinate = predicate.point().coordinate().clone();
+        double width = curve.getTileWidth( 0, curve.getMaxLevel() );
+        coordinate[0] += coordinate[0] > 0 ? -width : width;
+        return predicate.distance( Values.pointValue( predicate.crs(), coordinate ) );
+    }
+
+    private void search()
+    {
+        List<SpaceFillingCurve.LongRange> ranges = new ArrayList<>();
+        for ( Pair<PointValue,PointValue> box : predicate.crs().getCalculator().boundingBox( predicate.point(), radius ) )
+        {
+            ranges.addAll( curve.getTilesIntersectingEnvelope( box.first().coordinate(), box.other().coordinate(), configuration ) );
+        }
+        for ( CurveRange range : notSearched( ranges ) )
+        {
+            search( range );
+        }
+        exhausted = coversCurve() || Double.isInfinite( radius );
+    }
+
+    /**
+     * The bounding boxes of a radius may never cover the whole range of the curve, e.g. when they are split at the date line,
+     * so the search is done when the searched ranges together cover all values of the curve.
+     */
+    private boolean coversCurve()
+    {
+        long next = 0;
+        for ( CurveRange range : searched )
+        {
+            if ( range.min > next )
+            {
+                return false;
+            }
+            next = Math.max( next, range.max + 1 );
+        }
+        return next >= curve.getValueWidth();
+    }
+
+    private void search( CurveRange range )
+    {
+        SpatialSchemaKey from = layout.newKey();
+        SpatialSchemaKey to = layout.newKey();
+        from.fromDerivedValue( Long.MIN_VALUE, range.min );
+        to.fromDerivedValue( Long.MAX_VALUE, range.max + 1 );
+        try ( RawCursor<Hit<SpatialSchemaKey,VALUE>,IOException> seeker = tree.seek( from, to ) )
+        {
+            while ( seeker.next() )
+            {
+                long entityId = seeker.get().key().getEntityId();
+                if ( seen.add( entityId ) )
+                {
+                    addIfPoint( entityId );
+                }
+            }
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    private void addIfPoint( long entityId )
+    {
+        try
+        {
+            Value value = propertyAccessor.getPropertyValue( entityId, propertyKeyId );
+            if ( predicate.acceptsValue( value ) )
+            {
+                PointValue point = (PointValue) value;
+                found.add( new Neighbour( entityId, point, predicate.distance( point ) ) );
+            }
+        }
+        catch ( EntityNotFoundException e )
+        {
+            // The node has been deleted since the reader was opened, so it's not a neighbour anymore
+        }
+    }
+
+    /**
+     * Subtracts the ranges which have already been searched from {@code ranges}, and remembers the rest as searched.
+     */
+    private List<CurveRange> notSearched( List<SpaceFillingCurve.LongRange> ranges )
+    {
+        ranges.sort( Comparator.comparingLong( range -> range.min ) );
+        List<CurveRange> result = new ArrayList<>();
+        for ( SpaceFillingCurve.LongRange range : ranges )
+        {
+            long min = range.min;
+            for ( CurveRange done : searched )
+            {
+                if ( done.max < min )
+                {
+                    continue;
+                }
+                if ( done.min > range.max )
+                {
+                    break;
+                }
+                if ( done.min > min )
+                {
+                    result.add( new CurveRange( min, done.min - 1 ) );
+                }
+                min = Math.max( min, done.max + 1 );
+            }
+            if ( min <= range.max )
+            {
+                result.add( new CurveRange( min, range.max ) );
+            }
+        }
+        searched.addAll( result );
+        searched.sort( Comparator.comparingLong( range -> range.min ) );
+        return result;
+    }
+
+    private static class CurveRange
+    {
+        private final long min;
+        private final long max;
+
+        CurveRange( long min, long max )
+        {
+            this.min = min;
+            this.max = max;
+        }
+    }
+
+    private static class Neighbour
+    {
+        private final long entityId;
+        private final PointValue point;
+        private final double distance;
+
+        Neighbour( long entityId, PointValue point, double distance )
+        {
+            this.entityId = entityId;
+            this.point = point;
+            this.distance = distance;
+        }
+    }
+}
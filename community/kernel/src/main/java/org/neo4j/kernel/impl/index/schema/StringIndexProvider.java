@@ -54,7 +54,9 @@ import org.neo4j.kernel.api.index.IndexAccessor;
 import org.neo4j.kernel.api.index.IndexDirectoryStructure;
 import org.neo4j.kernel.api.index.IndexPopulator;
 import org.neo4j.kernel.api.schema.index.SchemaIndexDescriptor;
+import org.neo4j.kernel.configuration.Config;
 import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingConfig;
+import org.neo4j.kernel.impl.index.schema.config.StringIndexSettings;
 import org.neo4j.values.storable.ValueCategory;
 
 /**
@@ -63,20 +65,26 @@ import org.neo4j.values.storable.ValueCategory;
 public class StringIndexProvider extends NativeIndexProvider<StringSchemaKey,NativeSchemaValue>
 {
     public static final String KEY = "string";
-    static final IndexCapability CAPABILITY = new StringIndexCapability();
+    static final IndexCapability CAPABILITY = new StringIndexCapability( false );
+    private static final IndexCapability TRIGRAM_CAPABILITY = new StringIndexCapability( true );
     private static final Descriptor STRING_PROVIDER_DESCRIPTOR = new Descriptor( KEY, "1.0" );
 
+    private final boolean trigrams;
+    private final boolean prefixCompression;
+
     public StringIndexProvider( PageCache pageCache, FileSystemAbstraction fs,
             IndexDirectoryStructure.Factory directoryStructure, Monitor monitor, RecoveryCleanupWorkCollector recoveryCleanupWorkCollector,
-            boolean readOnly )
+            boolean readOnly, Config config )
     {
         super( STRING_PROVIDER_DESCRIPTOR, 0, directoryStructure, pageCache, fs, monitor, recoveryCleanupWorkCollector, readOnly );
+        this.trigrams = config.get( StringIndexSettings.trigram_index_enabled );
+        this.prefixCompression = config.get( StringIndexSettings.prefix_compression_enabled );
     }
 
     @Override
     Layout<StringSchemaKey,NativeSchemaValue> layout( SchemaIndexDescriptor descriptor )
     {
-        return new StringLayout();
+        return new StringLayout( prefixCompression );
     }
 
     @Override
@@ -84,7 +92,7 @@ public class StringIndexProvider extends NativeIndexProvider<StringSchemaKey,Nat
                                                 SchemaIndexDescriptor descriptor, long indexId,
                                                 IndexSamplingConfig samplingConfig )
     {
-        return new StringSchemaIndexPopulator( pageCache, fs, storeFile, layout, monitor, descriptor, indexId, samplingConfig );
+        return new StringSchemaIndexPopulator( pageCache, fs, storeFile, layout, monitor, descriptor, indexId, samplingConfig, trigrams );
     }
 
     @Override
@@ -92,13 +100,23 @@ public class StringIndexProvider extends NativeIndexProvider<StringSchemaKey,Nat
             long indexId, IndexSamplingConfig samplingConfig ) throws IOException
     {
         return new StringSchemaIndexAccessor( pageCache, fs, storeFile, layout, recoveryCleanupWorkCollector, monitor, descriptor,
-                indexId, samplingConfig );
+                indexId, samplingConfig, trigrams );
     }
 
     @Override
     public IndexCapability getCapability( SchemaIndexDescriptor schemaIndexDescriptor )
     {
-        return CAPABILITY;
+        return trigrams ? TRIGRAM_CAPABILITY : CAPABILITY;
+    }
+
+    /**
+     * Only an index populated while trigram indexes were enabled has one, see {@link StringSchemaIndexAccessor}.
+     */
+    @Override
+    public IndexCapability getCapability( long indexId, SchemaIndexDescriptor schemaIndexDescriptor )
+    {
+        boolean hasTrigramIndex = trigrams && fs.fileExists( TrigramIndex.trigramFile( nativeIndexFileFromIndexId( indexId ) ) );
+        return hasTrigramIndex ? TRIGRAM_CAPABILITY : CAPABILITY;
     }
 
     /**
@@ -107,17 +125,24 @@ public class StringIndexProvider extends NativeIndexProvider<StringSchemaKey,Nat
      * Value: YES (can provide exact value)
      *
      * For other queries there is no support
+     *
+     * CONTAINS and ENDS WITH queries are slow, unless answered by trigram indexes
      */
     private static class StringIndexCapability implements IndexCapability
     {
-        private final IndexLimitation[] limitations = {IndexLimitation.SLOW_CONTAINS};
+        private final IndexLimitation[] limitations;
+
+        StringIndexCapability( boolean trigrams )
+        {
+            this.limitations = trigrams ? LIMITIATION_NONE : new IndexLimitation[]{IndexLimitation.SLOW_CONTAINS};
+        }
 
         @Override
         public IndexOrder[] orderCapability( ValueCategory... valueCategories )
         {
             if ( support( valueCategories ) )
             {
-                return ORDER_ASC;
+                return ORDER_BOTH;
             }
             return ORDER_NONE;
         }
@@ -49,9 +49,21 @@ import static org.neo4j.kernel.impl.index.schema.StringSchemaKey.ENTITY_ID_SIZE;
  */
 class StringLayout extends SchemaLayout<StringSchemaKey>
 {
+    private final boolean prefixCompression;
+
     StringLayout()
+    {
+        this( false );
+    }
+
+    /**
+     * @param prefixCompression whether or not new trees are created prefix compressed, see {@link #prefixCompressible()}.
+     * Trees created prefix compressed can be opened either way.
+     */
+    StringLayout( boolean prefixCompression )
     {
         super( "USI", 0, 1 );
+        this.prefixCompression = prefixCompression;
     }
 
     @Override
@@ -101,6 +113,61 @@ class StringLayout extends SchemaLayout<StringSchemaKey>
         return false;
     }
 
+    @Override
+    public StringSchemaKey minimalSplitter( StringSchemaKey left, StringSchemaKey right, StringSchemaKey into )
+    {
+        // The shortest prefix of right which is still greater than left. Keeps entity id of right, which only matters
+        // if the string values are equal, in which case the whole of right is the separator.
+        int limit = Math.min( left.bytesLength, right.bytesLength );
+        int sharedLength = 0;
+        while ( sharedLength < limit && left.bytes[sharedLength] == right.bytes[sharedLength] )
+        {
+            sharedLength++;
+        }
+        into.copyFrom( right );
+        into.setBytesLength( Math.min( right.bytesLength, sharedLength + 1 ) );
+        return into;
+    }
+
+    @Override
+    public boolean prefixCompressible()
+    {
+        return prefixCompression;
+    }
+
+    @Override
+    public int prefixCompressibleLength( StringSchemaKey key )
+    {
+        // Only the string bytes, the entity id is written after them
+        return key.bytesLength;
+    }
+
+    @Override
+    public void writeKeySuffix( PageCursor cursor, StringSchemaKey key, int prefixLength )
+    {
+        cursor.putBytes( key.bytes, prefixLength, key.bytesLength - prefixLength );
+        cursor.putLong( key.getEntityId() );
+    }
+
+    @Override
+    public void readKeyWithPrefix( PageCursor cursor, StringSchemaKey into, int prefixOffset, int prefixLength, int suffixSize )
+    {
+        if ( suffixSize < ENTITY_ID_SIZE )
+        {
+            into.setEntityId( Long.MIN_VALUE );
+            into.setBytesLength( 0 );
+            return;
+        }
+        int bytesLength = prefixLength + suffixSize - ENTITY_ID_SIZE;
+        into.setBytesLength( bytesLength );
+        int suffixOffset = cursor.getOffset();
+        cursor.setOffset( prefixOffset );
+        cursor.getBytes( into.bytes, 0, prefixLength );
+        cursor.setOffset( suffixOffset );
+        cursor.getBytes( into.bytes, prefixLength, bytesLength - prefixLength );
+        into.setEntityId( cursor.getLong() );
+    }
+
     @Override
     public String toString()
     {
@@ -40,26 +40,39 @@ package org.neo4j.kernel.impl.index.schema;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 
+import org.neo4j.graphdb.ResourceIterator;
 import org.neo4j.index.internal.gbptree.GBPTree;
 import org.neo4j.index.internal.gbptree.Layout;
 import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
 import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.IOLimiter;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.kernel.api.index.IndexAccessor;
 import org.neo4j.kernel.api.index.IndexProvider;
 import org.neo4j.kernel.api.schema.index.SchemaIndexDescriptor;
+import org.neo4j.kernel.impl.api.index.IndexUpdateMode;
 import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingConfig;
 import org.neo4j.kernel.impl.util.Validator;
 import org.neo4j.storageengine.api.schema.IndexReader;
 import org.neo4j.values.storable.Value;
 
+import static org.neo4j.helpers.collection.Iterators.asResourceIterator;
+import static org.neo4j.helpers.collection.Iterators.iterator;
+
 /**
  * {@link IndexAccessor} using {@link StringLayout}, i.e for {@link String} values.
+ * <p>
+ * If the index was populated with a {@link TrigramIndex} it's kept up to date with the index and used for
+ * {@code CONTAINS} and {@code ENDS WITH} queries, as long as trigram indexes are enabled. Otherwise any trigram index is deleted,
+ * since it will no longer be kept up to date.
  */
 public class StringSchemaIndexAccessor extends NativeSchemaIndexAccessor<StringSchemaKey,NativeSchemaValue>
 {
     private Validator<Value> validator;
+    private final File trigramFile;
+    private TrigramIndex trigramIndex;
 
     StringSchemaIndexAccessor(
             PageCache pageCache,
@@ -70,9 +83,22 @@ public class StringSchemaIndexAccessor extends NativeSchemaIndexAccessor<StringS
             IndexProvider.Monitor monitor,
             SchemaIndexDescriptor descriptor,
             long indexId,
-            IndexSamplingConfig samplingConfig ) throws IOException
+            IndexSamplingConfig samplingConfig,
+            boolean trigrams ) throws IOException
     {
         super( pageCache, fs, storeFile, layout, recoveryCleanupWorkCollector, monitor, descriptor, indexId, samplingConfig );
+        trigramFile = TrigramIndex.trigramFile( storeFile );
+        if ( gbpTreeFileUtil.storeFileExists( trigramFile ) )
+        {
+            if ( trigrams )
+            {
+                trigramIndex = new TrigramIndex( pageCache, trigramFile, recoveryCleanupWorkCollector );
+            }
+            else
+            {
+                gbpTreeFileUtil.deleteFile( trigramFile );
+            }
+        }
     }
 
     @Override
@@ -81,11 +107,79 @@ public class StringSchemaIndexAccessor extends NativeSchemaIndexAccessor<StringS
         validator = new NativeIndexKeyLengthValidator<>( tree.keyValueSizeCap(), layout );
     }
 
+    @Override
+    public NativeSchemaIndexUpdater<StringSchemaKey,NativeSchemaValue> newUpdater( IndexUpdateMode mode )
+    {
+        if ( trigramIndex == null )
+        {
+            return super.newUpdater( mode );
+        }
+        assertOpen();
+        try
+        {
+            return new StringSchemaIndexUpdater( layout.newKey(), layout.newValue(), statistics )
+                    .initialize( tree.parallelWriter(), trigramIndex.parallelWriter() );
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    @Override
+    public void force( IOLimiter ioLimiter ) throws IOException
+    {
+        super.force( ioLimiter );
+        if ( trigramIndex != null )
+        {
+            trigramIndex.force( ioLimiter );
+        }
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        try
+        {
+            super.close();
+        }
+        finally
+        {
+            trigramIndex = closeIfPresent( trigramIndex );
+        }
+    }
+
+    @Override
+    public void drop() throws IOException
+    {
+        try
+        {
+            super.drop();
+        }
+        finally
+        {
+            trigramIndex = closeIfPresent( trigramIndex );
+            gbpTreeFileUtil.deleteFileIfPresent( trigramFile );
+        }
+    }
+
+    @Override
+    public boolean isDirty()
+    {
+        return super.isDirty() || trigramIndex != null && trigramIndex.wasDirtyOnStartup();
+    }
+
+    @Override
+    public ResourceIterator<File> snapshotFiles()
+    {
+        return trigramIndex == null ? super.snapshotFiles() : asResourceIterator( iterator( storeFile, trigramFile ) );
+    }
+
     @Override
     public IndexReader newReader()
     {
         assertOpen();
-        return new StringSchemaIndexReader( tree, layout, samplingConfig, descriptor );
+        return new StringSchemaIndexReader( tree, layout, samplingConfig, statistics, descriptor, trigramIndex );
     }
 
     @Override
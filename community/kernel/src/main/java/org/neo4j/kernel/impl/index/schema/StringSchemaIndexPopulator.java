@@ -39,26 +39,137 @@
 package org.neo4j.kernel.impl.index.schema;
 
 import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 
+import org.neo4j.helpers.CancellationRequest;
 import org.neo4j.index.internal.gbptree.Layout;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
+import org.neo4j.kernel.api.index.IndexEntryUpdate;
 import org.neo4j.kernel.api.index.IndexProvider;
+import org.neo4j.kernel.api.index.IndexUpdater;
+import org.neo4j.kernel.api.index.PropertyAccessor;
 import org.neo4j.kernel.api.schema.index.SchemaIndexDescriptor;
 import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingConfig;
+import org.neo4j.kernel.impl.api.index.updater.DelegatingIndexUpdater;
 import org.neo4j.storageengine.api.schema.IndexReader;
 
+/**
+ * {@link NativeSchemaIndexPopulator} for {@link String} values, which optionally also populates a {@link TrigramIndex}
+ * for the index, with the trigrams of all indexed strings.
+ */
 public class StringSchemaIndexPopulator extends NativeSchemaIndexPopulator<StringSchemaKey,NativeSchemaValue>
 {
+    private final TrigramIndexPopulator trigramPopulator;
+
     StringSchemaIndexPopulator( PageCache pageCache, FileSystemAbstraction fs, File storeFile, Layout<StringSchemaKey,NativeSchemaValue> layout,
-                                IndexProvider.Monitor monitor, SchemaIndexDescriptor descriptor, long indexId, IndexSamplingConfig samplingConfig )
+                                IndexProvider.Monitor monitor, SchemaIndexDescriptor descriptor, long indexId, IndexSamplingConfig samplingConfig,
+                                boolean trigrams )
     {
         super( pageCache, fs, storeFile, layout, monitor, descriptor, indexId, samplingConfig );
+        this.trigramPopulator = trigrams ? new TrigramIndexPopulator( pageCache, fs, gbpTreeFileUtil, storeFile ) : null;
+    }
+
+    @Override
+    public synchronized void create() throws IOException
+    {
+        super.create();
+        if ( trigramPopulator != null )
+        {
+            trigramPopulator.create();
+        }
+    }
+
+    @Override
+    public void add( Collection<? extends IndexEntryUpdate<?>> updates ) throws IOException, IndexEntryConflictException
+    {
+        super.add( updates );
+        if ( trigramPopulator != null )
+        {
+            trigramPopulator.add( updates );
+        }
+    }
+
+    @Override
+    public IndexUpdater newPopulatingUpdater( PropertyAccessor accessor )
+    {
+        IndexUpdater updater = super.newPopulatingUpdater( accessor );
+        if ( trigramPopulator == null )
+        {
+            return updater;
+        }
+        return new DelegatingIndexUpdater( updater )
+        {
+            private final List<IndexEntryUpdate<?>> updates = new ArrayList<>();
+
+            @Override
+            public void process( IndexEntryUpdate<?> update ) throws IOException, IndexEntryConflictException
+            {
+                super.process( update );
+                updates.add( update );
+            }
+
+            @Override
+            public void close() throws IOException, IndexEntryConflictException
+            {
+                delegate.close();
+                trigramPopulator.update( updates );
+            }
+        };
+    }
+
+    @Override
+    public synchronized void scanCompleted( CancellationRequest cancellation ) throws IOException
+    {
+        super.scanCompleted( cancellation );
+        if ( trigramPopulator != null && !cancellation.cancellationRequested() )
+        {
+            trigramPopulator.scanCompleted( cancellation );
+        }
+    }
+
+    @Override
+    public synchronized void close( boolean populationCompletedSuccessfully ) throws IOException
+    {
+        boolean online = false;
+        try
+        {
+            super.close( populationCompletedSuccessfully );
+            online = populationCompletedSuccessfully;
+        }
+        finally
+        {
+            if ( trigramPopulator != null )
+            {
+                // The trigram index is only kept for an online index
+                trigramPopulator.close( online );
+            }
+        }
+    }
+
+    @Override
+    public synchronized void drop() throws IOException
+    {
+        try
+        {
+            super.drop();
+        }
+        finally
+        {
+            if ( trigramPopulator != null )
+            {
+                trigramPopulator.drop();
+            }
+        }
     }
 
     @Override
     IndexReader newReader()
     {
-        return new StringSchemaIndexReader( tree, layout, samplingConfig, descriptor );
+        return new StringSchemaIndexReader( tree, layout, samplingConfig, null, descriptor, null );
     }
 }
@@ -38,6 +38,12 @@
  */
 package org.neo4j.kernel.impl.index.schema;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.neo4j.collection.primitive.PrimitiveLongResourceIterator;
 import org.neo4j.index.internal.gbptree.GBPTree;
 import org.neo4j.index.internal.gbptree.Layout;
 import org.neo4j.internal.kernel.api.IndexOrder;
@@ -46,17 +52,102 @@ import org.neo4j.internal.kernel.api.IndexQuery.ExactPredicate;
 import org.neo4j.internal.kernel.api.IndexQuery.RangePredicate;
 import org.neo4j.kernel.api.schema.index.SchemaIndexDescriptor;
 import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingConfig;
+import org.neo4j.storageengine.api.schema.IndexProgressor;
+import org.neo4j.storageengine.api.schema.NodeValueIndexProgressor;
 import org.neo4j.values.storable.Value;
 import org.neo4j.values.storable.Values;
 
+import static org.neo4j.internal.kernel.api.IndexQuery.StringContainsPredicate;
 import static org.neo4j.internal.kernel.api.IndexQuery.StringPrefixPredicate;
+import static org.neo4j.internal.kernel.api.IndexQuery.StringSuffixPredicate;
 
+/**
+ * Reader of a native string index. {@code CONTAINS} and {@code ENDS WITH} queries need to look at every entry in the index,
+ * unless the index has a {@link TrigramIndex}, in which case unordered queries are answered with candidates from the trigram index.
+ * Those candidates need to be verified against the actual values, which is signaled by
+ * {@link #hasFullValuePrecision(IndexOrder, IndexQuery...)}.
+ */
 class StringSchemaIndexReader extends NativeSchemaIndexReader<StringSchemaKey,NativeSchemaValue>
 {
+    private final TrigramIndex trigramIndex;
+    private final Set<PrimitiveLongResourceIterator> openCandidates = new HashSet<>();
+
     StringSchemaIndexReader( GBPTree<StringSchemaKey,NativeSchemaValue> tree, Layout<StringSchemaKey,NativeSchemaValue> layout,
-            IndexSamplingConfig samplingConfig, SchemaIndexDescriptor descriptor )
+            IndexSamplingConfig samplingConfig, NativeIndexStatistics statistics, SchemaIndexDescriptor descriptor, TrigramIndex trigramIndex )
+    {
+        super( tree, layout, samplingConfig, statistics, descriptor );
+        this.trigramIndex = trigramIndex;
+    }
+
+    @Override
+    public void query( IndexProgressor.NodeValueClient client, IndexOrder indexOrder, IndexQuery... predicates )
+    {
+        String searchString = trigramSearchString( indexOrder, predicates );
+        if ( searchString == null )
+        {
+            super.query( client, indexOrder, predicates );
+            return;
+        }
+
+        validateQuery( indexOrder, predicates );
+        try
+        {
+            PrimitiveLongResourceIterator candidates = trigramIndex.candidates( searchString );
+            openCandidates.add( candidates );
+            client.initialize( descriptor, new NodeValueIndexProgressor( candidates, client )
+            {
+                @Override
+                public void close()
+                {
+                    super.close();
+                    openCandidates.remove( candidates );
+                }
+            }, predicates );
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    @Override
+    public void close()
     {
-        super( tree, layout, samplingConfig, descriptor );
+        try
+        {
+            openCandidates.forEach( PrimitiveLongResourceIterator::close );
+            openCandidates.clear();
+        }
+        finally
+        {
+            super.close();
+        }
+    }
+
+    /**
+     * @return the string to look up trigram candidates for, if the predicates is an unordered {@code CONTAINS} or {@code ENDS WITH}
+     * query which can be answered by the trigram index, otherwise {@code null}. Trigram candidates come in entity id order,
+     * so ordered queries scan the tree instead.
+     */
+    private String trigramSearchString( IndexOrder indexOrder, IndexQuery[] predicates )
+    {
+        if ( trigramIndex == null || indexOrder != IndexOrder.NONE || predicates.length != 1 )
+        {
+            return null;
+        }
+        String searchString;
+        switch ( predicates[0].type() )
+        {
+        case stringContains:
+            searchString = ((StringContainsPredicate) predicates[0]).contains();
+            break;
+        case stringSuffix:
+            searchString = ((StringSuffixPredicate) predicates[0]).suffix();
+            break;
+        default:
+            return null;
+        }
+        return TrigramIndex.canSearch( searchString ) ? searchString : null;
     }
 
     @Override
@@ -136,6 +227,13 @@ class StringSchemaIndexReader extends NativeSchemaIndexReader<StringSchemaKey,Na
     @Override
     public boolean hasFullValuePrecision( IndexQuery... predicates )
     {
-        return true;
+        return hasFullValuePrecision( IndexOrder.NONE, predicates );
+    }
+
+    @Override
+    public boolean hasFullValuePrecision( IndexOrder indexOrder, IndexQuery... predicates )
+    {
+        // Trigram candidates include entities with all trigrams of the search string, but not necessarily in the right order
+        return trigramSearchString( indexOrder, predicates ) == null;
     }
 }
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.io.IOException;
+
+import org.neo4j.index.internal.gbptree.Writer;
+import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
+import org.neo4j.kernel.api.index.IndexEntryUpdate;
+
+/**
+ * {@link NativeSchemaIndexUpdater} for {@link String} values, which also applies the updates to the {@link TrigramIndex} of the index.
+ */
+class StringSchemaIndexUpdater extends NativeSchemaIndexUpdater<StringSchemaKey,NativeSchemaValue>
+{
+    private final TrigramKey trigramKey = new TrigramKey();
+    private Writer<TrigramKey,NativeSchemaValue> trigramWriter;
+
+    StringSchemaIndexUpdater( StringSchemaKey treeKey, NativeSchemaValue treeValue, NativeIndexStatistics statistics )
+    {
+        super( treeKey, treeValue, statistics );
+    }
+
+    StringSchemaIndexUpdater initialize( Writer<StringSchemaKey,NativeSchemaValue> writer, Writer<TrigramKey,NativeSchemaValue> trigramWriter )
+    {
+        initialize( writer );
+        this.trigramWriter = trigramWriter;
+        return this;
+    }
+
+    @Override
+    public void process( IndexEntryUpdate<?> update ) throws IOException, IndexEntryConflictException
+    {
+        super.process( update );
+        TrigramIndex.processUpdate( update, trigramKey, trigramWriter );
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        try
+        {
+            super.close();
+        }
+        finally
+        {
+            trigramWriter.close();
+        }
+    }
+}
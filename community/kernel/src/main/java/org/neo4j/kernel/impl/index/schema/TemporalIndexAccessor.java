@@ -214,7 +214,7 @@ class TemporalIndexAccessor extends TemporalIndexCache<TemporalIndexAccessor.Par
         public TemporalIndexPartReader<KEY> newReader()
         {
             assertOpen();
-            return new TemporalIndexPartReader<>( tree, layout, samplingConfig, descriptor );
+            return new TemporalIndexPartReader<>( tree, layout, samplingConfig, statistics, descriptor );
         }
     }
 
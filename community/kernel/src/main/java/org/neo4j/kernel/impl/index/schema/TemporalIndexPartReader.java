@@ -52,9 +52,10 @@ class TemporalIndexPartReader<KEY extends NativeSchemaKey<KEY>> extends NativeSc
     TemporalIndexPartReader( GBPTree<KEY,NativeSchemaValue> tree,
                              Layout<KEY,NativeSchemaValue> layout,
                              IndexSamplingConfig samplingConfig,
+                             NativeIndexStatistics statistics,
                              SchemaIndexDescriptor descriptor )
     {
-        super( tree, layout, samplingConfig, descriptor );
+        super( tree, layout, samplingConfig, statistics, descriptor );
     }
 
     @Override
@@ -46,6 +46,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.StreamSupport;
 
+import org.neo4j.helpers.CancellationRequest;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
@@ -125,6 +126,12 @@ class TemporalIndexPopulator extends TemporalIndexCache<TemporalIndexPopulator.P
         return new TemporalIndexPopulatingUpdater( this, accessor );
     }
 
+    @Override
+    public synchronized void scanCompleted( CancellationRequest cancellation ) throws IOException
+    {
+        forAll( part -> part.scanCompleted( cancellation ), this );
+    }
+
     @Override
     public synchronized void close( boolean populationCompletedSuccessfully ) throws IOException
     {
@@ -172,7 +179,7 @@ class TemporalIndexPopulator extends TemporalIndexCache<TemporalIndexPopulator.P
         @Override
         IndexReader newReader()
         {
-            return new TemporalIndexPartReader<>( tree, layout, samplingConfig, descriptor );
+            return new TemporalIndexPartReader<>( tree, layout, samplingConfig, null, descriptor );
         }
     }
 
@@ -0,0 +1,339 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+import org.neo4j.collection.primitive.PrimitiveLongCollections;
+import org.neo4j.collection.primitive.PrimitiveLongResourceCollections;
+import org.neo4j.collection.primitive.PrimitiveLongResourceIterator;
+import org.neo4j.cursor.RawCursor;
+import org.neo4j.index.internal.gbptree.BulkLoader;
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.Hit;
+import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
+import org.neo4j.index.internal.gbptree.Writer;
+import org.neo4j.io.IOUtils;
+import org.neo4j.io.pagecache.IOLimiter;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.api.index.IndexEntryUpdate;
+import org.neo4j.util.FeatureToggles;
+import org.neo4j.values.storable.TextValue;
+import org.neo4j.values.storable.Value;
+
+import static org.neo4j.index.internal.gbptree.GBPTree.NO_HEADER_READER;
+import static org.neo4j.index.internal.gbptree.GBPTree.NO_HEADER_WRITER;
+import static org.neo4j.index.internal.gbptree.GBPTree.NO_MONITOR;
+import static org.neo4j.kernel.impl.index.schema.TrigramKey.HIGHEST_ENTITY_ID;
+import static org.neo4j.kernel.impl.index.schema.TrigramKey.LOWEST_ENTITY_ID;
+
+/**
+ * Secondary index kept next to a native string index, mapping every {@link Trigrams trigram} of each indexed string
+ * to the ids of the entities with that string, in a {@link GBPTree} using {@link TrigramLayout}.
+ * <p>
+ * An entity whose string contains, or ends with, a search string has all trigrams of the search string.
+ * {@link #candidates(String)} looks up entities having all of them by intersecting the, entity id ordered, lists of entities of each trigram.
+ * Those candidates are a superset of the matching entities, since the trigrams may appear in another order or in other places,
+ * so each candidate needs to be verified against its actual value.
+ */
+class TrigramIndex implements Closeable
+{
+    private static final String FILE_SUFFIX = ".trigrams";
+
+    /**
+     * Maximum number of trigrams of a search string to look up, each trigram looked up costs a seek and a scan of its entities.
+     */
+    private static final int MAX_SEARCH_GRAMS = FeatureToggles.getInteger( TrigramIndex.class, "maxSearchGrams", 8 );
+
+    private final TrigramLayout layout = new TrigramLayout();
+    private final GBPTree<TrigramKey,NativeSchemaValue> tree;
+
+    TrigramIndex( PageCache pageCache, File file, RecoveryCleanupWorkCollector recoveryCleanupWorkCollector ) throws IOException
+    {
+        tree = new GBPTree<>( pageCache, file, layout, 0, NO_MONITOR, NO_HEADER_READER, NO_HEADER_WRITER, recoveryCleanupWorkCollector );
+    }
+
+    /**
+     * @param storeFile file of the native string index.
+     * @return file of the trigram index of the native string index in {@code storeFile}.
+     */
+    static File trigramFile( File storeFile )
+    {
+        return new File( storeFile.getParentFile(), storeFile.getName() + FILE_SUFFIX );
+    }
+
+    /**
+     * @param searchString string to search for in indexed strings.
+     * @return whether or not {@link #candidates(String)} can be used to search for {@code searchString}, i.e. if it has any trigrams.
+     */
+    static boolean canSearch( String searchString )
+    {
+        return searchString.length() >= Trigrams.GRAM_LENGTH;
+    }
+
+    /**
+     * Looks up entities whose strings have all trigrams of {@code searchString}, which must be {@link #canSearch(String) searchable}.
+     *
+     * @param searchString string to search for in indexed strings.
+     * @return ids of candidate entities, in ascending order, which needs to be closed after use.
+     * @throws IOException on error seeking in the tree.
+     */
+    PrimitiveLongResourceIterator candidates( String searchString ) throws IOException
+    {
+        long[] grams = Trigrams.forSearch( searchString, MAX_SEARCH_GRAMS );
+        @SuppressWarnings( "unchecked" )
+        RawCursor<Hit<TrigramKey,NativeSchemaValue>,IOException>[] seekers = new RawCursor[grams.length];
+        try
+        {
+            for ( int i = 0; i < grams.length; i++ )
+            {
+                TrigramKey from = layout.newKey().set( grams[i], LOWEST_ENTITY_ID );
+                TrigramKey to = layout.newKey().set( grams[i], HIGHEST_ENTITY_ID );
+                seekers[i] = tree.seek( from, to );
+            }
+        }
+        catch ( IOException e )
+        {
+            IOUtils.closeAllSilently( seekers );
+            throw e;
+        }
+        return grams.length == 0 ? PrimitiveLongResourceCollections.emptyIterator() : new IntersectingCandidates( seekers );
+    }
+
+    Writer<TrigramKey,NativeSchemaValue> parallelWriter() throws IOException
+    {
+        return tree.parallelWriter();
+    }
+
+    Writer<TrigramKey,NativeSchemaValue> writer() throws IOException
+    {
+        return tree.writer();
+    }
+
+    BulkLoader<TrigramKey,NativeSchemaValue> bulkLoader( double fillFactor ) throws IOException
+    {
+        return tree.bulkLoader( fillFactor );
+    }
+
+    TrigramLayout layout()
+    {
+        return layout;
+    }
+
+    void force( IOLimiter ioLimiter ) throws IOException
+    {
+        tree.checkpoint( ioLimiter );
+    }
+
+    boolean wasDirtyOnStartup()
+    {
+        return tree.wasDirtyOnStartup();
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        tree.close();
+    }
+
+    /**
+     * Applies an update of the native string index to the trigram index. Only the trigrams that differ between the
+     * before and after values of changes are touched.
+     *
+     * @param update update to apply.
+     * @param key key instance to use when writing.
+     * @param writer writer of the trigram index.
+     * @throws IOException on error writing to the tree.
+     */
+    static void processUpdate( IndexEntryUpdate<?> update, TrigramKey key, Writer<TrigramKey,NativeSchemaValue> writer ) throws IOException
+    {
+        long entityId = update.getEntityId();
+        switch ( update.updateMode() )
+        {
+        case ADDED:
+            put( entityId, grams( update.values() ), key, writer );
+            break;
+        case CHANGED:
+            long[] before = grams( update.beforeValues() );
+            long[] after = grams( update.values() );
+            remove( entityId, Trigrams.difference( before, after ), key, writer );
+            put( entityId, Trigrams.difference( after, before ), key, writer );
+            break;
+        case REMOVED:
+            remove( entityId, grams( update.values() ), key, writer );
+            break;
+        default:
+            throw new IllegalArgumentException();
+        }
+    }
+
+    /**
+     * @param values indexed values of a native string index, i.e. a single {@link TextValue}.
+     * @return distinct trigrams of the indexed string, in ascending order.
+     */
+    static long[] grams( Value[] values )
+    {
+        return Trigrams.distinct( ((TextValue) values[0]).stringValue() );
+    }
+
+    private static void put( long entityId, long[] grams, TrigramKey key, Writer<TrigramKey,NativeSchemaValue> writer ) throws IOException
+    {
+        for ( long gram : grams )
+        {
+            writer.put( key.set( gram, entityId ), NativeSchemaValue.INSTANCE );
+        }
+    }
+
+    private static void remove( long entityId, long[] grams, TrigramKey key, Writer<TrigramKey,NativeSchemaValue> writer ) throws IOException
+    {
+        for ( long gram : grams )
+        {
+            writer.remove( key.set( gram, entityId ) );
+        }
+    }
+
+    /**
+     * Intersection of the entity ids of a number of trigrams. All seekers give entity ids in ascending order,
+     * so the intersection is found by advancing every seeker which is behind the highest entity id seen so far, until they all agree.
+     */
+    private static class IntersectingCandidates extends PrimitiveLongCollections.PrimitiveLongBaseIterator implements PrimitiveLongResourceIterator
+    {
+        private static final long NO_ENTITY = -1;
+
+        private final RawCursor<Hit<TrigramKey,NativeSchemaValue>,IOException>[] seekers;
+        private final long[] current;
+        private boolean exhausted;
+        private boolean closed;
+
+        IntersectingCandidates( RawCursor<Hit<TrigramKey,NativeSchemaValue>,IOException>[] seekers )
+        {
+            this.seekers = seekers;
+            this.current = new long[seekers.length];
+            Arrays.fill( current, NO_ENTITY );
+        }
+
+        @Override
+        protected boolean fetchNext()
+        {
+            if ( exhausted )
+            {
+                return false;
+            }
+            try
+            {
+                if ( !advance( 0, current[0] + 1 ) )
+                {
+                    return false;
+                }
+                long candidate = current[0];
+                int agreeing = 1;
+                int i = 1 % seekers.length;
+                while ( agreeing < seekers.length )
+                {
+                    if ( !advanceTo( i, candidate ) )
+                    {
+                        return false;
+                    }
+                    if ( current[i] == candidate )
+                    {
+                        agreeing++;
+                    }
+                    else
+                    {
+                        candidate = current[i];
+                        agreeing = 1;
+                    }
+                    i = (i + 1) % seekers.length;
+                }
+                return next( candidate );
+            }
+            catch ( IOException e )
+            {
+                throw new UncheckedIOException( e );
+            }
+        }
+
+        /**
+         * Moves seeker {@code i} to its first entity id which is at least {@code target}, unless it's already there.
+         */
+        private boolean advanceTo( int i, long target ) throws IOException
+        {
+            return current[i] >= target || advance( i, target );
+        }
+
+        private boolean advance( int i, long target ) throws IOException
+        {
+            RawCursor<Hit<TrigramKey,NativeSchemaValue>,IOException> seeker = seekers[i];
+            while ( seeker.next() )
+            {
+                long entityId = seeker.get().key().entityId;
+                if ( entityId >= target )
+                {
+                    current[i] = entityId;
+                    return true;
+                }
+            }
+            exhausted = true;
+            return false;
+        }
+
+        @Override
+        public void close()
+        {
+            if ( closed )
+            {
+                return;
+            }
+            closed = true;
+            exhausted = true;
+            try
+            {
+                IOUtils.closeAll( seekers );
+            }
+            catch ( IOException e )
+            {
+                throw new UncheckedIOException( e );
+            }
+        }
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+
+import org.neo4j.helpers.CancellationRequest;
+import org.neo4j.index.internal.gbptree.BulkLoader;
+import org.neo4j.index.internal.gbptree.DeferredWriter;
+import org.neo4j.index.internal.gbptree.EntrySorter;
+import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
+import org.neo4j.index.internal.gbptree.Writer;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.IOLimiter;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.api.index.IndexEntryUpdate;
+import org.neo4j.kernel.impl.index.GBPTreeFileUtil;
+
+import static org.neo4j.kernel.impl.index.schema.NativeSchemaIndexPopulator.BULK_LOAD;
+import static org.neo4j.kernel.impl.index.schema.NativeSchemaIndexPopulator.BULK_LOAD_FILL_FACTOR;
+import static org.neo4j.kernel.impl.index.schema.NativeSchemaIndexPopulator.SORT_BUFFER_SIZE;
+
+/**
+ * Populates the {@link TrigramIndex} of a native string index alongside its {@link StringSchemaIndexPopulator}.
+ * <p>
+ * Like the non-unique native populators the trigrams of added entries are sorted and bulk loaded when the store scan completes,
+ * with updates from populating updaters held back by a {@link DeferredWriter} until then. There are no conflicts to detect in a trigram index,
+ * so this is done for unique indexes too.
+ */
+class TrigramIndexPopulator
+{
+    private final PageCache pageCache;
+    private final FileSystemAbstraction fs;
+    private final GBPTreeFileUtil fileUtil;
+    private final File file;
+    private final TrigramKey key = new TrigramKey();
+
+    private final TrigramKey deferredKey = new TrigramKey();
+
+    private TrigramIndex index;
+    private EntrySorter<TrigramKey,NativeSchemaValue> sorter;
+    private DeferredWriter<TrigramKey,NativeSchemaValue> deferredWriter;
+
+    TrigramIndexPopulator( PageCache pageCache, FileSystemAbstraction fs, GBPTreeFileUtil fileUtil, File storeFile )
+    {
+        this.pageCache = pageCache;
+        this.fs = fs;
+        this.fileUtil = fileUtil;
+        this.file = TrigramIndex.trigramFile( storeFile );
+    }
+
+    synchronized void create() throws IOException
+    {
+        closeBulkLoad();
+        closeIndex();
+        fileUtil.deleteFileIfPresent( file );
+        index = new TrigramIndex( pageCache, file, RecoveryCleanupWorkCollector.immediate() );
+        if ( BULK_LOAD )
+        {
+            sorter = new EntrySorter<>( index.layout(), fs, bulkLoadFile( ".sort" ), SORT_BUFFER_SIZE );
+            deferredWriter = new DeferredWriter<>( index.layout(), fs, bulkLoadFile( ".deferred" ), SORT_BUFFER_SIZE );
+        }
+    }
+
+    private File bulkLoadFile( String suffix )
+    {
+        return new File( file.getParentFile(), file.getName() + suffix );
+    }
+
+    synchronized void add( Collection<? extends IndexEntryUpdate<?>> updates ) throws IOException
+    {
+        if ( sorter == null )
+        {
+            apply( updates );
+            return;
+        }
+        for ( IndexEntryUpdate<?> update : updates )
+        {
+            long entityId = update.getEntityId();
+            for ( long gram : TrigramIndex.grams( update.values() ) )
+            {
+                sorter.add( key.set( gram, entityId ), NativeSchemaValue.INSTANCE );
+            }
+        }
+    }
+
+    /**
+     * Applies updates from a populating updater, or holds them back until trigrams from {@link #add(Collection)} have been bulk loaded.
+     */
+    synchronized void update( Collection<? extends IndexEntryUpdate<?>> updates ) throws IOException
+    {
+        if ( deferredWriter != null )
+        {
+            for ( IndexEntryUpdate<?> update : updates )
+            {
+                TrigramIndex.processUpdate( update, deferredKey, deferredWriter );
+            }
+        }
+        else
+        {
+            apply( updates );
+        }
+    }
+
+    /**
+     * Bulk loads the sorted trigrams and then applies the updates held back meanwhile. Updates coming in after this are applied directly.
+     *
+     * @param cancellation stops bulk loading early when requested, leaving this populator to be closed.
+     * @throws IOException on error writing the trigram index.
+     */
+    synchronized void scanCompleted( CancellationRequest cancellation ) throws IOException
+    {
+        if ( sorter == null )
+        {
+            return;
+        }
+        boolean drained;
+        try ( BulkLoader<TrigramKey,NativeSchemaValue> bulkLoader = index.bulkLoader( BULK_LOAD_FILL_FACTOR ) )
+        {
+            drained = sorter.drainTo( bulkLoader, cancellation::cancellationRequested );
+        }
+        if ( !drained || cancellation.cancellationRequested() )
+        {
+            return;
+        }
+        try ( Writer<TrigramKey,NativeSchemaValue> writer = index.writer() )
+        {
+            deferredWriter.replayTo( writer );
+        }
+        closeBulkLoad();
+    }
+
+    /**
+     * Completes population, or deletes the trigram index if population failed, and closes it.
+     *
+     * @param populationCompletedSuccessfully whether or not population of the native string index completed successfully.
+     * @throws IOException on error writing or deleting the trigram index.
+     */
+    synchronized void close( boolean populationCompletedSuccessfully ) throws IOException
+    {
+        try
+        {
+            if ( populationCompletedSuccessfully )
+            {
+                scanCompleted( CancellationRequest.NEVER_CANCELLED );
+                index.force( IOLimiter.unlimited() );
+            }
+        }
+        finally
+        {
+            closeBulkLoad();
+            closeIndex();
+        }
+        if ( !populationCompletedSuccessfully )
+        {
+            fileUtil.deleteFileIfPresent( file );
+        }
+    }
+
+    synchronized void drop() throws IOException
+    {
+        closeBulkLoad();
+        closeIndex();
+        fileUtil.deleteFileIfPresent( file );
+    }
+
+    private void apply( Collection<? extends IndexEntryUpdate<?>> updates ) throws IOException
+    {
+        try ( Writer<TrigramKey,NativeSchemaValue> writer = index.writer() )
+        {
+            for ( IndexEntryUpdate<?> update : updates )
+            {
+                TrigramIndex.processUpdate( update, key, writer );
+            }
+        }
+    }
+
+    private void closeBulkLoad() throws IOException
+    {
+        if ( sorter != null )
+        {
+            sorter.close();
+            sorter = null;
+        }
+        if ( deferredWriter != null )
+        {
+            deferredWriter.close();
+            deferredWriter = null;
+        }
+    }
+
+    private void closeIndex() throws IOException
+    {
+        if ( index != null )
+        {
+            index.close();
+            index = null;
+        }
+    }
+}
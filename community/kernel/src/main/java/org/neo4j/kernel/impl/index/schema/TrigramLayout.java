@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.Layout;
+import org.neo4j.io.pagecache.PageCursor;
+
+/**
+ * {@link Layout} for the {@link GBPTree} of a {@link TrigramIndex}, giving ascending order of {@code gram} then {@code entityId}.
+ * All information is in the keys, values are empty.
+ */
+class TrigramLayout extends Layout.Adapter<TrigramKey,NativeSchemaValue>
+{
+    /**
+     * Name part of the {@link #identifier()} value.
+     */
+    private static final String IDENTIFIER_NAME = "TGI";
+
+    /**
+     * Size of each {@link TrigramKey}.
+     */
+    private static final int KEY_SIZE = 6/*gram*/ + Long.BYTES/*entityId*/;
+
+    @Override
+    public int compare( TrigramKey o1, TrigramKey o2 )
+    {
+        int gramComparison = Long.compare( o1.gram, o2.gram );
+        return gramComparison != 0 ? gramComparison : Long.compare( o1.entityId, o2.entityId );
+    }
+
+    @Override
+    public TrigramKey newKey()
+    {
+        return new TrigramKey();
+    }
+
+    @Override
+    public TrigramKey copyKey( TrigramKey key, TrigramKey into )
+    {
+        return into.set( key.gram, key.entityId );
+    }
+
+    @Override
+    public NativeSchemaValue newValue()
+    {
+        return NativeSchemaValue.INSTANCE;
+    }
+
+    @Override
+    public int keySize( TrigramKey key )
+    {
+        return KEY_SIZE;
+    }
+
+    @Override
+    public int valueSize( NativeSchemaValue value )
+    {
+        return NativeSchemaValue.SIZE;
+    }
+
+    @Override
+    public void writeKey( PageCursor cursor, TrigramKey key )
+    {
+        cursor.putInt( (int) key.gram );
+        cursor.putShort( (short) (key.gram >>> Integer.SIZE) );
+        cursor.putLong( key.entityId );
+    }
+
+    @Override
+    public void writeValue( PageCursor cursor, NativeSchemaValue value )
+    {
+        // nothing to write
+    }
+
+    @Override
+    public void readKey( PageCursor cursor, TrigramKey into, int keySize )
+    {
+        long low4b = cursor.getInt() & 0xFFFFFFFFL;
+        long high2b = cursor.getShort() & 0xFFFFL;
+        into.gram = low4b | (high2b << Integer.SIZE);
+        into.entityId = cursor.getLong();
+    }
+
+    @Override
+    public void readValue( PageCursor cursor, NativeSchemaValue into, int valueSize )
+    {
+        // nothing to read
+    }
+
+    @Override
+    public boolean fixedSize()
+    {
+        return true;
+    }
+
+    @Override
+    public long identifier()
+    {
+        return Layout.namedIdentifier( IDENTIFIER_NAME, NativeSchemaValue.SIZE );
+    }
+
+    @Override
+    public int majorVersion()
+    {
+        return 0;
+    }
+
+    @Override
+    public int minorVersion()
+    {
+        return 1;
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.util.Arrays;
+
+/**
+ * Splits strings into trigrams, i.e. all sequences of three consecutive characters, each packed into a {@code long}
+ * of which the lower 48 bits are used.
+ */
+final class Trigrams
+{
+    static final int GRAM_LENGTH = 3;
+    private static final long[] NO_GRAMS = new long[0];
+
+    private Trigrams()
+    {
+    }
+
+    /**
+     * @param string string to get trigrams for.
+     * @return all distinct trigrams of {@code string}, in ascending order. Strings shorter than {@link #GRAM_LENGTH} have no trigrams.
+     */
+    static long[] distinct( String string )
+    {
+        int count = string.length() - GRAM_LENGTH + 1;
+        if ( count <= 0 )
+        {
+            return NO_GRAMS;
+        }
+        long[] grams = new long[count];
+        for ( int i = 0; i < count; i++ )
+        {
+            grams[i] = gram( string.charAt( i ), string.charAt( i + 1 ), string.charAt( i + 2 ) );
+        }
+        Arrays.sort( grams );
+        int distinct = 0;
+        for ( int i = 0; i < count; i++ )
+        {
+            if ( distinct == 0 || grams[distinct - 1] != grams[i] )
+            {
+                grams[distinct++] = grams[i];
+            }
+        }
+        return distinct == count ? grams : Arrays.copyOf( grams, distinct );
+    }
+
+    /**
+     * Selects the trigrams to look up for a string which is searched for as part of indexed strings.
+     * Any indexed string containing the search string has all of them, so more trigrams filter out more false positives,
+     * but each trigram is a separate lookup, so at most {@code maxCount} of them are selected, evenly spread over all of them.
+     *
+     * @param searchString string searched for.
+     * @param maxCount maximum number of trigrams to select.
+     * @return distinct trigrams to look up, in ascending order, or an empty array if {@code searchString} has no trigrams.
+     */
+    static long[] forSearch( String searchString, int maxCount )
+    {
+        long[] grams = distinct( searchString );
+        if ( grams.length <= maxCount )
+        {
+            return grams;
+        }
+        long[] selected = new long[maxCount];
+        for ( int i = 0; i < maxCount; i++ )
+        {
+            selected[i] = grams[(int) ((long) i * (grams.length - 1) / Math.max( 1, maxCount - 1 ))];
+        }
+        return selected;
+    }
+
+    /**
+     * @param grams distinct trigrams in ascending order.
+     * @param exclude distinct trigrams in ascending order.
+     * @return the trigrams in {@code grams} which are not in {@code exclude}, in ascending order.
+     */
+    static long[] difference( long[] grams, long[] exclude )
+    {
+        long[] result = new long[grams.length];
+        int count = 0;
+        int e = 0;
+        for ( long gram : grams )
+        {
+            while ( e < exclude.length && exclude[e] < gram )
+            {
+                e++;
+            }
+            if ( e == exclude.length || exclude[e] != gram )
+            {
+                result[count++] = gram;
+            }
+        }
+        return count == result.length ? result : Arrays.copyOf( result, count );
+    }
+
+    static long gram( char first, char second, char third )
+    {
+        return ((long) first << 32) | ((long) second << 16) | third;
+    }
+
+    static String toString( long gram )
+    {
+        return new String( new char[]{(char) (gram >>> 32), (char) (gram >>> 16), (char) gram} );
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema.config;
+
+import org.neo4j.configuration.Description;
+import org.neo4j.configuration.Internal;
+import org.neo4j.configuration.LoadableConfig;
+import org.neo4j.graphdb.config.Setting;
+
+import static org.neo4j.kernel.configuration.Settings.BOOLEAN;
+import static org.neo4j.kernel.configuration.Settings.FALSE;
+import static org.neo4j.kernel.configuration.Settings.setting;
+
+public class StringIndexSettings implements LoadableConfig
+{
+    @Description( "Keep a trigram index next to each native string index populated while this setting is enabled. " +
+            "The trigram index maps every three character sequence of indexed strings to the entities having them, " +
+            "such that CONTAINS and ENDS WITH queries for strings of at least three characters can look up candidate entities " +
+            "instead of scanning and filtering the whole string index. Candidates are verified against the property store. " +
+            "The trigram index takes additional disk space and makes updates slower. Native string indexes populated while this " +
+            "setting was disabled need to be recreated to get a trigram index. Disabling this setting deletes existing trigram indexes." )
+    @Internal
+    public static final Setting<Boolean> trigram_index_enabled = setting(
+            "unsupported.dbms.index.string.trigram_index_enabled", BOOLEAN, FALSE );
+
+    @Description( "Create native string indexes with tree nodes storing the prefix common to the keys in a node only once. " +
+            "This makes indexes of strings sharing long prefixes smaller, but lowers the string value limit of indexes " +
+            "created while this setting is enabled from 4039 to 4005 bytes with 8 KiB pages. " +
+            "Existing native string indexes keep the format they were created with, regardless of this setting." )
+    @Internal
+    public static final Setting<Boolean> prefix_compression_enabled = setting(
+            "unsupported.dbms.index.string.prefix_compression_enabled", BOOLEAN, FALSE );
+}
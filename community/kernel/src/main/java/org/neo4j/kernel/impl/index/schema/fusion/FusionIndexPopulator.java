@@ -42,6 +42,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 
+import org.neo4j.helpers.CancellationRequest;
 import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
 import org.neo4j.kernel.api.index.IndexEntryUpdate;
 import org.neo4j.kernel.api.index.IndexPopulator;
@@ -122,6 +123,12 @@ class FusionIndexPopulator extends FusionIndexBase<IndexPopulator> implements In
         return new FusionIndexUpdater( slotSelector, updaterSelector );
     }
 
+    @Override
+    public void scanCompleted( CancellationRequest cancellation ) throws IOException
+    {
+        instanceSelector.forAll( populator -> populator.scanCompleted( cancellation ) );
+    }
+
     @Override
     public void close( boolean populationCompletedSuccessfully ) throws IOException
     {
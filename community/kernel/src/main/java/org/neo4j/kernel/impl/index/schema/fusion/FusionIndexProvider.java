@@ -64,6 +64,7 @@ import org.neo4j.values.storable.ValueCategory;
 
 import static org.neo4j.internal.kernel.api.InternalIndexState.FAILED;
 import static org.neo4j.internal.kernel.api.InternalIndexState.POPULATING;
+import static org.neo4j.kernel.impl.index.schema.fusion.SlotSelector.COMPOSITE;
 import static org.neo4j.kernel.impl.index.schema.fusion.SlotSelector.INSTANCE_COUNT;
 import static org.neo4j.kernel.impl.index.schema.fusion.SlotSelector.LUCENE;
 import static org.neo4j.kernel.impl.index.schema.fusion.SlotSelector.NUMBER;
@@ -72,8 +73,8 @@ import static org.neo4j.kernel.impl.index.schema.fusion.SlotSelector.STRING;
 import static org.neo4j.kernel.impl.index.schema.fusion.SlotSelector.TEMPORAL;
 
 /**
- * This {@link IndexProvider index provider} act as one logical index but is backed by four physical
- * indexes, the number, spatial, temporal native indexes, and the general purpose lucene index.
+ * This {@link IndexProvider index provider} act as one logical index but is backed by multiple physical
+ * indexes, the string, number, spatial, temporal and composite native indexes, and the general purpose lucene index.
  */
 public class FusionIndexProvider extends IndexProvider
 {
@@ -89,6 +90,7 @@ public class FusionIndexProvider extends IndexProvider
             IndexProvider spatialProvider,
             IndexProvider temporalProvider,
             IndexProvider luceneProvider,
+            IndexProvider compositeProvider,
             SlotSelector slotSelector,
             Descriptor descriptor,
             int priority,
@@ -98,7 +100,7 @@ public class FusionIndexProvider extends IndexProvider
     {
         super( descriptor, priority, directoryStructure );
         IndexProvider[] providers = new IndexProvider[INSTANCE_COUNT];
-        fillProvidersArray( providers, stringProvider, numberProvider, spatialProvider, temporalProvider, luceneProvider );
+        fillProvidersArray( providers, stringProvider, numberProvider, spatialProvider, temporalProvider, luceneProvider, compositeProvider );
         slotSelector.validateSatisfied( providers );
         this.archiveFailedIndex = archiveFailedIndex;
         this.slotSelector = slotSelector;
@@ -108,13 +110,14 @@ public class FusionIndexProvider extends IndexProvider
 
     private void fillProvidersArray( IndexProvider[] providers,
             IndexProvider stringProvider, IndexProvider numberProvider, IndexProvider spatialProvider,
-            IndexProvider temporalProvider, IndexProvider luceneProvider )
+            IndexProvider temporalProvider, IndexProvider luceneProvider, IndexProvider compositeProvider )
     {
         providers[STRING] = stringProvider;
         providers[NUMBER] = numberProvider;
         providers[SPATIAL] = spatialProvider;
         providers[TEMPORAL] = temporalProvider;
         providers[LUCENE] = luceneProvider;
+        providers[COMPOSITE] = compositeProvider;
     }
 
     @Override
@@ -183,8 +186,19 @@ public class FusionIndexProvider extends IndexProvider
     @Override
     public IndexCapability getCapability( SchemaIndexDescriptor schemaIndexDescriptor )
     {
-        IndexCapability[] capabilities =
-                providers.instancesAs( new IndexCapability[INSTANCE_COUNT], provider -> provider.getCapability( schemaIndexDescriptor ) );
+        return unionCapability( providers.instancesAs( new IndexCapability[INSTANCE_COUNT],
+                provider -> provider.getCapability( schemaIndexDescriptor ) ) );
+    }
+
+    @Override
+    public IndexCapability getCapability( long indexId, SchemaIndexDescriptor schemaIndexDescriptor )
+    {
+        return unionCapability( providers.instancesAs( new IndexCapability[INSTANCE_COUNT],
+                provider -> provider.getCapability( indexId, schemaIndexDescriptor ) ) );
+    }
+
+    private static IndexCapability unionCapability( IndexCapability[] capabilities )
+    {
         return new UnionIndexCapability( capabilities )
         {
             @Override
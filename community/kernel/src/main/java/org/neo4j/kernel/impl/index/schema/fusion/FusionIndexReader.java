@@ -56,7 +56,9 @@ import org.neo4j.values.storable.Value;
 
 import static java.lang.String.format;
 import static org.neo4j.collection.primitive.PrimitiveLongResourceCollections.concat;
+import static org.neo4j.kernel.impl.index.schema.fusion.SlotSelector.COMPOSITE;
 import static org.neo4j.kernel.impl.index.schema.fusion.SlotSelector.INSTANCE_COUNT;
+import static org.neo4j.kernel.impl.index.schema.fusion.SlotSelector.LUCENE;
 import static org.neo4j.kernel.impl.index.schema.fusion.SlotSelector.UNKNOWN;
 
 class FusionIndexReader extends FusionIndexBase<IndexReader> implements IndexReader
@@ -91,9 +93,15 @@ class FusionIndexReader extends FusionIndexBase<IndexReader> implements IndexRea
     public PrimitiveLongResourceIterator query( IndexQuery... predicates ) throws IndexNotApplicableKernelException
     {
         int slot = slotSelector.selectSlot( predicates, IndexQuery::valueGroup );
-        return slot != UNKNOWN
-               ? instanceSelector.select( slot ).query( predicates )
-               : concat( instanceSelector.instancesAs( new PrimitiveLongResourceIterator[INSTANCE_COUNT], reader -> reader.query( predicates ) ) );
+        if ( slot != UNKNOWN )
+        {
+            return instanceSelector.select( slot ).query( predicates );
+        }
+        if ( predicates.length > 1 )
+        {
+            return concat( instanceSelector.select( COMPOSITE ).query( predicates ), instanceSelector.select( LUCENE ).query( predicates ) );
+        }
+        return concat( instanceSelector.instancesAs( new PrimitiveLongResourceIterator[INSTANCE_COUNT], reader -> reader.query( predicates ) ) );
     }
 
     @Override
@@ -116,7 +124,16 @@ class FusionIndexReader extends FusionIndexBase<IndexReader> implements IndexRea
             BridgingIndexProgressor multiProgressor = new BridgingIndexProgressor( cursor,
                     descriptor.schema().getPropertyIds() );
             cursor.initialize( descriptor, multiProgressor, predicates );
-            instanceSelector.forAll( reader -> reader.query( multiProgressor, indexOrder, predicates ) );
+            if ( predicates.length > 1 )
+            {
+                // Only the composite and the lucene index hold tuples of values
+                instanceSelector.select( COMPOSITE ).query( multiProgressor, indexOrder, predicates );
+                instanceSelector.select( LUCENE ).query( multiProgressor, indexOrder, predicates );
+            }
+            else
+            {
+                instanceSelector.forAll( reader -> reader.query( multiProgressor, indexOrder, predicates ) );
+            }
         }
     }
 
@@ -129,18 +146,37 @@ class FusionIndexReader extends FusionIndexBase<IndexReader> implements IndexRea
         instanceSelector.forAll( reader -> reader.distinctValues( multiProgressor, propertyAccessor ) );
     }
 
+    @Override
+    public void nearestNeighbours( IndexProgressor.NodeValueClient cursor, PropertyAccessor propertyAccessor,
+            IndexQuery.NearestNeighbourPredicate predicate ) throws IndexNotApplicableKernelException
+    {
+        instanceSelector.select( slotSelector.selectSlot( new IndexQuery[]{predicate}, IndexQuery::valueGroup ) )
+                .nearestNeighbours( cursor, propertyAccessor, predicate );
+    }
+
     @Override
     public boolean hasFullValuePrecision( IndexQuery... predicates )
+    {
+        return hasFullValuePrecision( IndexOrder.NONE, predicates );
+    }
+
+    @Override
+    public boolean hasFullValuePrecision( IndexOrder indexOrder, IndexQuery... predicates )
     {
         int slot = slotSelector.selectSlot( predicates, IndexQuery::valueGroup );
         if ( slot != UNKNOWN )
         {
-            return instanceSelector.select( slot ).hasFullValuePrecision( predicates );
+            return instanceSelector.select( slot ).hasFullValuePrecision( indexOrder, predicates );
         }
         else
         {
             // UNKNOWN slot which basically means the EXISTS predicate
-            if ( !(predicates.length == 1 && predicates[0] instanceof ExistsPredicate) )
+            if ( predicates.length > 1 )
+            {
+                return instanceSelector.select( COMPOSITE ).hasFullValuePrecision( indexOrder, predicates ) &&
+                       instanceSelector.select( LUCENE ).hasFullValuePrecision( indexOrder, predicates );
+            }
+            if ( !(predicates[0] instanceof ExistsPredicate) )
             {
                 throw new IllegalStateException( "Selected IndexReader null for predicates " + Arrays.toString( predicates ) );
             }
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema.fusion;
+
+import java.util.function.Function;
+
+import org.neo4j.kernel.api.index.IndexProvider;
+import org.neo4j.values.storable.ValueCategory;
+import org.neo4j.values.storable.ValueGroup;
+
+/**
+ * Selector for "lucene+native-3.x".
+ * Separates composite tuples of strings, booleans and numbers into native index, otherwise like "lucene+native-2.x".
+ */
+public class FusionSlotSelector30 implements SlotSelector
+{
+    private final SlotSelector singleValueSelector = new FusionSlotSelector20();
+
+    @Override
+    public void validateSatisfied( IndexProvider[] instances )
+    {
+        SlotSelector.validateSelectorInstances( instances, STRING, NUMBER, SPATIAL, TEMPORAL, LUCENE, COMPOSITE );
+    }
+
+    @Override
+    public <V> int selectSlot( V[] values, Function<V,ValueGroup> groupOf )
+    {
+        if ( values.length == 1 )
+        {
+            return singleValueSelector.selectSlot( values, groupOf );
+        }
+
+        int slot = COMPOSITE;
+        for ( V value : values )
+        {
+            ValueGroup group = groupOf.apply( value );
+            switch ( group )
+            {
+            case TEXT:
+            case BOOLEAN:
+            case NUMBER:
+                break;
+            default:
+                if ( group.category() == ValueCategory.UNKNOWN )
+                {
+                    // e.g. exists predicates, matching tuples can be in both the composite and the lucene index
+                    return UNKNOWN;
+                }
+                slot = LUCENE;
+            }
+        }
+        return slot;
+    }
+}
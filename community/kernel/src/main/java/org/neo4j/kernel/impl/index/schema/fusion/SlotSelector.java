@@ -52,7 +52,7 @@ public interface SlotSelector
 {
     SlotSelector nullInstance = new NullInstance();
 
-    int INSTANCE_COUNT = 5;
+    int INSTANCE_COUNT = 6;
 
     int UNKNOWN = -1;
     int STRING = 0;
@@ -60,6 +60,7 @@ public interface SlotSelector
     int SPATIAL = 2;
     int TEMPORAL = 3;
     int LUCENE = 4;
+    int COMPOSITE = 5;
 
     void validateSatisfied( IndexProvider[] instances );
 
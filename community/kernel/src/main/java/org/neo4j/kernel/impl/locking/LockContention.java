@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.locking;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.neo4j.storageengine.api.lock.ResourceType;
+
+/**
+ * Statistics about the time lock clients have spent waiting for locks held by other clients, for finding out which
+ * resources a workload is contending on. Only acquisitions that actually had to wait are recorded.
+ */
+public interface LockContention
+{
+    /**
+     * Number of buckets in the {@link ResourceTypeWaits#waitHistogram() wait histograms}. Bucket 0 counts waits that
+     * took less than a microsecond, and bucket {@code i} counts waits that took at least 2^(i-1) and less than 2^i
+     * microseconds. The last bucket also counts all waits that took longer than that.
+     */
+    int WAIT_HISTOGRAM_BUCKETS = 32;
+
+    LockContention NONE = new LockContention()
+    {
+        @Override
+        public List<ResourceTypeWaits> resourceTypes()
+        {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public List<ResourceWaits> hottestResources( int limit )
+        {
+            return Collections.emptyList();
+        }
+    };
+
+    /**
+     * @return the lock waits observed so far, one entry for each resource type that has seen any waits.
+     */
+    List<ResourceTypeWaits> resourceTypes();
+
+    /**
+     * @param limit the maximum number of resources to return.
+     * @return the most contended resources that are still being tracked, by total wait time, most contended first.
+     */
+    List<ResourceWaits> hottestResources( int limit );
+
+    /** Lock waits on all resources of a {@link ResourceType}. */
+    final class ResourceTypeWaits
+    {
+        private final ResourceType resourceType;
+        private final long waits;
+        private final long totalWaitNanos;
+        private final long maxWaitNanos;
+        private final long[] waitHistogram;
+
+        public ResourceTypeWaits( ResourceType resourceType, long waits, long totalWaitNanos, long maxWaitNanos,
+                long[] waitHistogram )
+        {
+            this.resourceType = resourceType;
+            this.waits = waits;
+            this.totalWaitNanos = totalWaitNanos;
+            this.maxWaitNanos = maxWaitNanos;
+            this.waitHistogram = waitHistogram;
+        }
+
+        public ResourceType resourceType()
+        {
+            return resourceType;
+        }
+
+        public long waits()
+        {
+            return waits;
+        }
+
+        public long totalWaitNanos()
+        {
+            return totalWaitNanos;
+        }
+
+        public long maxWaitNanos()
+        {
+            return maxWaitNanos;
+        }
+
+        /**
+         * @return the number of waits in each of the {@link #WAIT_HISTOGRAM_BUCKETS} log2 microsecond buckets.
+         */
+        public long[] waitHistogram()
+        {
+            return waitHistogram;
+        }
+
+        /**
+         * Estimate the given percentile of the wait times from the {@link #waitHistogram() histogram}.
+         *
+         * @param percentile The percentile to estimate, between 0 and 100.
+         * @return The upper bound in microseconds of the histogram bucket that holds the given percentile, or 0 if
+         * no waits have been observed.
+         */
+        public long waitPercentileMicros( double percentile )
+        {
+            long total = 0;
+            for ( long count : waitHistogram )
+            {
+                total += count;
+            }
+            if ( total == 0 )
+            {
+                return 0;
+            }
+            long rank = (long) Math.ceil( total * (percentile / 100d) );
+            long seen = 0;
+            for ( int bucket = 0; bucket < waitHistogram.length; bucket++ )
+            {
+                seen += waitHistogram[bucket];
+                if ( seen >= rank )
+                {
+                    return 1L << bucket;
+                }
+            }
+            return 1L << (waitHistogram.length - 1);
+        }
+    }
+
+    /** Lock waits on a single resource. */
+    final class ResourceWaits
+    {
+        private final ResourceType resourceType;
+        private final long resourceId;
+        private final long waits;
+        private final long exclusiveWaits;
+        private final long totalWaitNanos;
+        private final long maxWaitNanos;
+
+        public ResourceWaits( ResourceType resourceType, long resourceId, long waits, long exclusiveWaits,
+                long totalWaitNanos, long maxWaitNanos )
+        {
+            this.resourceType = resourceType;
+            this.resourceId = resourceId;
+            this.waits = waits;
+            this.exclusiveWaits = exclusiveWaits;
+            this.totalWaitNanos = totalWaitNanos;
+            this.maxWaitNanos = maxWaitNanos;
+        }
+
+        public ResourceType resourceType()
+        {
+            return resourceType;
+        }
+
+        public long resourceId()
+        {
+            return resourceId;
+        }
+
+        public long waits()
+        {
+            return waits;
+        }
+
+        /**
+         * @return how many of the {@link #waits()} were for an exclusive lock.
+         */
+        public long exclusiveWaits()
+        {
+            return exclusiveWaits;
+        }
+
+        public long totalWaitNanos()
+        {
+            return totalWaitNanos;
+        }
+
+        public long maxWaitNanos()
+        {
+            return maxWaitNanos;
+        }
+    }
+}
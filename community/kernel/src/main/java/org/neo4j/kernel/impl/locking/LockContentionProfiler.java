@@ -0,0 +1,273 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.locking;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.neo4j.storageengine.api.lock.ResourceType;
+import org.neo4j.util.FeatureToggles;
+
+/**
+ * Records the lock waits that lock clients report through {@link #lockWaited(ResourceType, long, boolean, long)}.
+ * <p>
+ * Waits are aggregated per {@link ResourceType} into counters and a wait time histogram, and per resource into a
+ * bounded table of the most contended resources. Nothing is recorded for locks that were granted without waiting,
+ * and all counters are {@link LongAdder LongAdders}, so the profiler can stay enabled in production.
+ * <p>
+ * When the resource table is full, the half of it with the least total wait time is dropped to make room for new
+ * resources. Resources that are contended over and over will therefore stay in the table, while resources that only
+ * saw the odd wait come and go.
+ */
+public class LockContentionProfiler implements LockContention
+{
+    private static final int DEFAULT_MAX_TRACKED_RESOURCES =
+            FeatureToggles.getInteger( LockContentionProfiler.class, "maxTrackedResources", 1024 );
+
+    private final ResourceType[] resourceTypes;
+    private final TypeWaits[] typeWaits;
+    private final int maxTrackedResources;
+    private final Map<ResourceKey,HotResource> hotResources = new ConcurrentHashMap<>();
+    private final AtomicBoolean pruning = new AtomicBoolean();
+
+    public LockContentionProfiler( ResourceType... resourceTypes )
+    {
+        this( DEFAULT_MAX_TRACKED_RESOURCES, resourceTypes );
+    }
+
+    public LockContentionProfiler( int maxTrackedResources, ResourceType... resourceTypes )
+    {
+        int maxTypeId = 0;
+        for ( ResourceType type : resourceTypes )
+        {
+            maxTypeId = Math.max( maxTypeId, type.typeId() );
+        }
+        this.resourceTypes = new ResourceType[maxTypeId + 1];
+        this.typeWaits = new TypeWaits[maxTypeId + 1];
+        for ( ResourceType type : resourceTypes )
+        {
+            this.resourceTypes[type.typeId()] = type;
+            this.typeWaits[type.typeId()] = new TypeWaits();
+        }
+        this.maxTrackedResources = maxTrackedResources;
+    }
+
+    /**
+     * Record that a lock client had to wait for a lock before it was granted.
+     *
+     * @param resourceType type of the locked resource.
+     * @param resourceId id of the locked resource.
+     * @param exclusive whether the client was waiting for an exclusive lock.
+     * @param waitNanos how long the client waited.
+     */
+    public void lockWaited( ResourceType resourceType, long resourceId, boolean exclusive, long waitNanos )
+    {
+        typeWaits[resourceType.typeId()].record( waitNanos );
+        if ( maxTrackedResources <= 0 )
+        {
+            return;
+        }
+
+        ResourceKey key = new ResourceKey( resourceType.typeId(), resourceId );
+        HotResource resource = hotResources.get( key );
+        if ( resource == null )
+        {
+            if ( hotResources.size() >= maxTrackedResources )
+            {
+                pruneColdResources();
+            }
+            resource = hotResources.computeIfAbsent( key, k -> new HotResource() );
+        }
+        resource.record( exclusive, waitNanos );
+    }
+
+    @Override
+    public List<ResourceTypeWaits> resourceTypes()
+    {
+        List<ResourceTypeWaits> result = new ArrayList<>();
+        for ( int typeId = 0; typeId < typeWaits.length; typeId++ )
+        {
+            TypeWaits waits = typeWaits[typeId];
+            if ( waits != null && waits.waits.sum() > 0 )
+            {
+                result.add( waits.snapshot( resourceTypes[typeId] ) );
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<ResourceWaits> hottestResources( int limit )
+    {
+        List<ResourceWaits> result = new ArrayList<>( hotResources.size() );
+        hotResources.forEach( ( key, resource ) -> result.add( resource.snapshot( resourceTypes[key.typeId], key.resourceId ) ) );
+        result.sort( Comparator.comparingLong( ResourceWaits::totalWaitNanos ).reversed() );
+        return result.size() > limit ? new ArrayList<>( result.subList( 0, limit ) ) : result;
+    }
+
+    private void pruneColdResources()
+    {
+        if ( !pruning.compareAndSet( false, true ) )
+        {
+            // Someone else is already making room, and it's fine for the table to go over its limit for a moment.
+            return;
+        }
+        try
+        {
+            List<Map.Entry<ResourceKey,Long>> entries = new ArrayList<>( hotResources.size() );
+            hotResources.forEach( ( key, resource ) -> entries.add( new AbstractMap.SimpleImmutableEntry<>(
+                    key, resource.totalWaitNanos.sum() ) ) );
+            entries.sort( Map.Entry.comparingByValue() );
+            for ( int i = 0; i < entries.size() / 2; i++ )
+            {
+                hotResources.remove( entries.get( i ).getKey() );
+            }
+        }
+        finally
+        {
+            pruning.set( false );
+        }
+    }
+
+    private static int histogramBucket( long waitNanos )
+    {
+        long micros = TimeUnit.NANOSECONDS.toMicros( waitNanos );
+        return Math.min( 64 - Long.numberOfLeadingZeros( Math.max( micros, 0 ) ), WAIT_HISTOGRAM_BUCKETS - 1 );
+    }
+
+    private static class TypeWaits
+    {
+        private final LongAdder waits = new LongAdder();
+        private final LongAdder totalWaitNanos = new LongAdder();
+        private final LongAccumulator maxWaitNanos = new LongAccumulator( Math::max, 0 );
+        private final LongAdder[] histogram = new LongAdder[WAIT_HISTOGRAM_BUCKETS];
+
+        TypeWaits()
+        {
+            for ( int i = 0; i < histogram.length; i++ )
+            {
+                histogram[i] = new LongAdder();
+            }
+        }
+
+        void record( long waitNanos )
+        {
+            waits.increment();
+            totalWaitNanos.add( waitNanos );
+            maxWaitNanos.accumulate( waitNanos );
+            histogram[histogramBucket( waitNanos )].increment();
+        }
+
+        ResourceTypeWaits snapshot( ResourceType resourceType )
+        {
+            long[] buckets = new long[histogram.length];
+            for ( int i = 0; i < buckets.length; i++ )
+            {
+                buckets[i] = histogram[i].sum();
+            }
+            return new ResourceTypeWaits( resourceType, waits.sum(), totalWaitNanos.sum(), maxWaitNanos.get(), buckets );
+        }
+    }
+
+    private static class HotResource
+    {
+        private final LongAdder waits = new LongAdder();
+        private final LongAdder exclusiveWaits = new LongAdder();
+        private final LongAdder totalWaitNanos = new LongAdder();
+        private final LongAccumulator maxWaitNanos = new LongAccumulator( Math::max, 0 );
+
+        void record( boolean exclusive, long waitNanos )
+        {
+            waits.increment();
+            if ( exclusive )
+            {
+                exclusiveWaits.increment();
+            }
+            totalWaitNanos.add( waitNanos );
+            maxWaitNanos.accumulate( waitNanos );
+        }
+
+        ResourceWaits snapshot( ResourceType resourceType, long resourceId )
+        {
+            return new ResourceWaits( resourceType, resourceId, waits.sum(), exclusiveWaits.sum(), totalWaitNanos.sum(),
+                    maxWaitNanos.get() );
+        }
+    }
+
+    private static final class ResourceKey
+    {
+        private final int typeId;
+        private final long resourceId;
+
+        ResourceKey( int typeId, long resourceId )
+        {
+            this.typeId = typeId;
+            this.resourceId = resourceId;
+        }
+
+        @Override
+        public boolean equals( Object o )
+        {
+            if ( this == o )
+            {
+                return true;
+            }
+            if ( o == null || getClass() != o.getClass() )
+            {
+                return false;
+            }
+            ResourceKey that = (ResourceKey) o;
+            return typeId == that.typeId && resourceId == that.resourceId;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return 31 * typeId + Long.hashCode( resourceId );
+        }
+    }
+}
@@ -165,5 +165,14 @@ public interface Locks
     /** Visit all held locks. */
     void accept( Visitor visitor );
 
+    /**
+     * @return statistics about the time clients of this lock manager have spent waiting for locks, or
+     * {@link LockContention#NONE} if this lock manager doesn't keep any.
+     */
+    default LockContention contention()
+    {
+        return LockContention.NONE;
+    }
+
     void close();
 }
@@ -105,6 +105,7 @@ import org.neo4j.storageengine.api.StoreReadLayer;
 import org.neo4j.storageengine.api.schema.IndexReader;
 import org.neo4j.storageengine.api.schema.LabelScanReader;
 import org.neo4j.storageengine.api.schema.PopulationProgress;
+import org.neo4j.storageengine.api.schema.RelationshipTypeScanReader;
 import org.neo4j.storageengine.api.txstate.ReadableDiffSets;
 import org.neo4j.string.UTF8;
 import org.neo4j.values.AnyValue;
@@ -281,6 +282,12 @@ public class AllStoreHolder extends Read
         return statement.getLabelScanReader();
     }
 
+    @Override
+    RelationshipTypeScanReader relationshipTypeScanReader()
+    {
+        return statement.getRelationshipTypeScanReader();
+    }
+
     @Override
     ExplicitIndex explicitNodeIndex( String indexName ) throws ExplicitIndexNotFoundKernelException
     {
@@ -780,6 +787,18 @@ public class AllStoreHolder extends Read
         return relationships.getHighestPossibleIdInUse();
     }
 
+    @Override
+    int nodeRecordsPerPage()
+    {
+        return nodes.getRecordsPerPage();
+    }
+
+    @Override
+    int relationshipRecordsPerPage()
+    {
+        return relationships.getRecordsPerPage();
+    }
+
     @Override
     TextValue string( DefaultPropertyCursor cursor, long reference, PageCursor page )
     {
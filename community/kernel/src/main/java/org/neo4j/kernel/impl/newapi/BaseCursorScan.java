@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.newapi;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.neo4j.internal.kernel.api.Cursor;
+import org.neo4j.internal.kernel.api.Scan;
+
+import static java.util.Collections.emptySet;
+
+/**
+ * Base implementation of a {@link Scan} over an id space. The id space, from zero up to and including the highest
+ * possible id in use, is handed out in batches whose sizes are multiples of an alignment, such as the number of
+ * records per page of the store being scanned, so that two batches never read the same page of that store.
+ * <p>
+ * Transaction state is snapshotted when the scan is created, so that all batches see the same set of added entities
+ * regardless of which thread reserves them. Added entities always have ids from the id space of the store, so the
+ * upper bound of the scan is widened to include the highest added id.
+ *
+ * @param <C> the type of cursor initialized by this scan.
+ */
+abstract class BaseCursorScan<C extends Cursor> implements Scan<C>
+{
+    private final AtomicLong nextStart = new AtomicLong();
+    private final long highMark;
+    private final int alignment;
+    final Read read;
+    final boolean hasChanges;
+    final Set<Long> added;
+
+    BaseCursorScan( Read read, long storeHighMark, int alignment, boolean hasChanges, Set<Long> added )
+    {
+        assert alignment > 0 : "alignment must be positive, was " + alignment;
+        this.read = read;
+        this.alignment = alignment;
+        this.hasChanges = hasChanges;
+        this.added = hasChanges ? added : emptySet();
+        this.highMark = Math.max( storeHighMark, highestId( this.added ) );
+    }
+
+    @Override
+    public boolean reserveBatch( C cursor, int sizeHint )
+    {
+        if ( sizeHint <= 0 )
+        {
+            throw new IllegalArgumentException( "Batch size hint must be positive, was " + sizeHint );
+        }
+        read.ktx.assertOpen();
+
+        long batchSize = alignedBatchSize( sizeHint );
+        long start = nextStart.getAndAdd( batchSize );
+        if ( start > highMark || start < 0 )
+        {
+            // Either exhausted or so many reservations have been made past the end that the counter has wrapped
+            return false;
+        }
+        long stop = Math.min( start + batchSize, highMark + 1 );
+        scanBatch( cursor, start, stop );
+        return true;
+    }
+
+    /**
+     * Initializes the given cursor to iterate over ids from {@code start} (inclusive) to {@code stop} (exclusive).
+     */
+    abstract void scanBatch( C cursor, long start, long stop );
+
+    private long alignedBatchSize( int sizeHint )
+    {
+        long pages = (sizeHint + alignment - 1) / alignment;
+        return pages * alignment;
+    }
+
+    private static long highestId( Set<Long> ids )
+    {
+        long highest = -1;
+        for ( long id : ids )
+        {
+            highest = Math.max( highest, id );
+        }
+        return highest;
+    }
+}
@@ -58,6 +58,7 @@ import org.neo4j.storageengine.api.StorageProperty;
 import org.neo4j.storageengine.api.txstate.NodeState;
 
 import static java.util.Collections.emptySet;
+import static org.neo4j.collection.primitive.PrimitiveLongCollections.toSet;
 
 class DefaultNodeCursor extends NodeRecord implements NodeCursor
 {
@@ -66,6 +67,7 @@ class DefaultNodeCursor extends NodeRecord implements NodeCursor
     private PageCursor pageCursor;
     private long next;
     private long highMark;
+    private boolean batch;
     private HasChanges hasChanges = HasChanges.MAYBE;
     private Set<Long> addedNodes;
     private PropertyCursor propertyCursor;
@@ -90,11 +92,35 @@ class DefaultNodeCursor extends NodeRecord implements NodeCursor
         }
         this.next = 0;
         this.highMark = read.nodeHighMark();
+        this.batch = false;
         this.read = read;
         this.hasChanges = HasChanges.MAYBE;
         this.addedNodes = emptySet();
     }
 
+    /**
+     * Initializes this cursor to scan one batch of a {@link NodeCursorScan}, i.e. the nodes with ids from
+     * {@code start} (inclusive) to {@code stop} (exclusive). The transaction state snapshot is shared between
+     * all batches of the scan and so is given here, rather than taken lazily by this cursor.
+     */
+    void scanBatch( Read read, long start, long stop, boolean hasChanges, Set<Long> addedNodes )
+    {
+        if ( getId() != NO_ID )
+        {
+            reset();
+        }
+        if ( pageCursor == null )
+        {
+            pageCursor = read.nodePage( start );
+        }
+        this.next = start;
+        this.highMark = stop - 1;
+        this.batch = true;
+        this.read = read;
+        this.hasChanges = hasChanges ? HasChanges.YES : HasChanges.NO;
+        this.addedNodes = addedNodes;
+    }
+
     void single( long reference, Read read )
     {
         if ( getId() != NO_ID )
@@ -108,6 +134,7 @@ class DefaultNodeCursor extends NodeRecord implements NodeCursor
         this.next = reference >= 0 ? reference : NO_ID;
         //This marks the cursor as a "single cursor"
         this.highMark = NO_ID;
+        this.batch = false;
         this.read = read;
         this.hasChanges = HasChanges.MAYBE;
         this.addedNodes = emptySet();
@@ -240,6 +267,12 @@ class DefaultNodeCursor extends NodeRecord implements NodeCursor
                     next = NO_ID;
                     return inUse();
                 }
+                else if ( batch )
+                {
+                    //we are a "batch cursor", the end of a batch is fixed when it is reserved
+                    next = NO_ID;
+                    return inUse();
+                }
                 else
                 {
                     //we are a "scan cursor"
@@ -307,7 +340,7 @@ class DefaultNodeCursor extends NodeRecord implements NodeCursor
             {
                 if ( !isSingle() )
                 {
-                    addedNodes = read.txState().addedAndRemovedNodes().getAddedSnapshot();
+                    addedNodes = toSet( read.txState().addedAndRemovedNodes().getAdded() );
                 }
                 hasChanges = HasChanges.YES;
             }
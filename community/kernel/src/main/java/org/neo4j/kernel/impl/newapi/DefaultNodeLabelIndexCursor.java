@@ -38,7 +38,6 @@
  */
 package org.neo4j.kernel.impl.newapi;
 
-import java.util.HashSet;
 import java.util.Set;
 
 import org.neo4j.collection.primitive.PrimitiveLongCollections;
@@ -49,7 +48,7 @@ import org.neo4j.internal.kernel.api.NodeLabelIndexCursor;
 import org.neo4j.kernel.impl.index.labelscan.LabelScanValueIndexProgressor;
 import org.neo4j.storageengine.api.schema.IndexProgressor;
 import org.neo4j.storageengine.api.schema.IndexProgressor.NodeLabelClient;
-import org.neo4j.storageengine.api.txstate.ReadableDiffSets;
+import org.neo4j.storageengine.api.txstate.PrimitiveLongReadableDiffSets;
 
 import static org.neo4j.kernel.impl.store.record.AbstractBaseRecord.NO_ID;
 
@@ -61,6 +60,7 @@ class DefaultNodeLabelIndexCursor extends IndexCursor<LabelScanValueIndexProgres
     private LabelSet labels;
     private PrimitiveLongIterator added;
     private Set<Long> removed;
+    private boolean txStateFromBatch;
 
     private final DefaultCursors pool;
 
@@ -74,13 +74,18 @@ class DefaultNodeLabelIndexCursor extends IndexCursor<LabelScanValueIndexProgres
     public void scan( LabelScanValueIndexProgressor progressor, boolean providesLabels, int label )
     {
         super.initialize( progressor );
-        if ( read.hasTxStateWithChanges() )
+        if ( txStateFromBatch )
         {
-            ReadableDiffSets<Long> changes =
+            // added and removed were already given by the scan this batch belongs to
+            txStateFromBatch = false;
+        }
+        else if ( read.hasTxStateWithChanges() )
+        {
+            PrimitiveLongReadableDiffSets changes =
                     read.txState().nodesWithLabelChanged( label );
             added = changes.augment( PrimitiveLongCollections.emptyIterator() );
-            removed = new HashSet<>( read.txState().addedAndRemovedNodes().getRemoved() );
-            removed.addAll( changes.getRemoved() );
+            removed = PrimitiveLongCollections.toSet( read.txState().addedAndRemovedNodes().getRemoved() );
+            removed.addAll( PrimitiveLongCollections.toSet( changes.getRemoved() ) );
         }
     }
 
@@ -141,6 +146,19 @@ class DefaultNodeLabelIndexCursor extends IndexCursor<LabelScanValueIndexProgres
         this.read = read;
     }
 
+    /**
+     * Prepares this cursor for one batch of a {@link NodeLabelIndexCursorScan}. The transaction state for the batch
+     * is computed by the scan, so the following call to {@link #scan(LabelScanValueIndexProgressor, boolean, int)}
+     * will use the given {@code added} and {@code removed} instead of reading the transaction state itself.
+     */
+    void prepareBatch( Read read, PrimitiveLongIterator added, Set<Long> removed )
+    {
+        this.read = read;
+        this.added = added;
+        this.removed = removed;
+        this.txStateFromBatch = true;
+    }
+
     @Override
     public void node( NodeCursor cursor )
     {
@@ -168,7 +186,9 @@ class DefaultNodeLabelIndexCursor extends IndexCursor<LabelScanValueIndexProgres
             node = NO_ID;
             labels = null;
             read = null;
+            added = null;
             removed = null;
+            txStateFromBatch = false;
 
             pool.accept( this );
         }
@@ -39,23 +39,30 @@
 package org.neo4j.kernel.impl.newapi;
 
 import java.util.Arrays;
+import java.util.Comparator;
 
 import org.neo4j.collection.primitive.PrimitiveLongCollections;
 import org.neo4j.collection.primitive.PrimitiveLongIterator;
 import org.neo4j.collection.primitive.PrimitiveLongSet;
+import org.neo4j.internal.kernel.api.IndexOrder;
 import org.neo4j.internal.kernel.api.IndexQuery;
 import org.neo4j.internal.kernel.api.NodeCursor;
 import org.neo4j.internal.kernel.api.NodeValueIndexCursor;
+import org.neo4j.internal.kernel.api.exceptions.EntityNotFoundException;
+import org.neo4j.kernel.api.index.PropertyAccessor;
 import org.neo4j.kernel.api.schema.index.SchemaIndexDescriptor;
 import org.neo4j.kernel.api.txstate.TransactionState;
 import org.neo4j.storageengine.api.schema.IndexProgressor;
 import org.neo4j.storageengine.api.schema.IndexProgressor.NodeValueClient;
 import org.neo4j.storageengine.api.txstate.PrimitiveLongReadableDiffSets;
+import org.neo4j.values.storable.PointValue;
 import org.neo4j.values.storable.Value;
 import org.neo4j.values.storable.ValueCategory;
 import org.neo4j.values.storable.ValueGroup;
+import org.neo4j.values.storable.Values;
 
 import static java.util.Arrays.stream;
+import static org.neo4j.collection.primitive.PrimitiveLongCollections.asArray;
 import static org.neo4j.collection.primitive.PrimitiveLongCollections.asSet;
 import static org.neo4j.collection.primitive.PrimitiveLongCollections.emptyIterator;
 import static org.neo4j.collection.primitive.PrimitiveLongCollections.emptySet;
@@ -71,6 +78,16 @@ final class DefaultNodeValueIndexCursor extends IndexCursor<IndexProgressor>
     private PrimitiveLongIterator added = emptyIterator();
     private PrimitiveLongSet removed = emptySet();
     private boolean needsValues;
+    private IndexOrder indexOrder = IndexOrder.NONE;
+    // When results are ordered the nodes added in the transaction are merged, in order, with those from the index
+    private Comparator<Value[]> resultOrder;
+    private long[] sortedAdded;
+    private Value[][] sortedAddedValues;
+    private int sortedAddedPosition;
+    private boolean indexPeeked;
+    private long peekedNode;
+    private Value[] peekedValues;
+    private CursorPropertyAccessor propertyAccessor;
     private final DefaultCursors pool;
 
     DefaultNodeValueIndexCursor( DefaultCursors pool )
@@ -86,6 +103,9 @@ final class DefaultNodeValueIndexCursor extends IndexCursor<IndexProgressor>
         assert query != null;
         super.initialize( progressor );
         this.query = query;
+        this.resultOrder = indexOrder == IndexOrder.NONE ? null : this::compareInOrder;
+        this.sortedAdded = null;
+        this.indexPeeked = false;
 
         if ( query.length > 0 )
         {
@@ -93,7 +113,14 @@ final class DefaultNodeValueIndexCursor extends IndexCursor<IndexProgressor>
             switch ( firstPredicate.type() )
             {
             case exact:
-                seekQuery( descriptor, query );
+                if ( isOnlyExactPredicates( query ) )
+                {
+                    seekQuery( descriptor, query );
+                }
+                else
+                {
+                    compositeQuery( descriptor, query );
+                }
                 break;
 
             case exists:
@@ -116,6 +143,11 @@ final class DefaultNodeValueIndexCursor extends IndexCursor<IndexProgressor>
                 suffixOrContainsQuery( descriptor, firstPredicate );
                 break;
 
+            case nearestNeighbours:
+                assert query.length == 1;
+                nearestNeighboursQuery( descriptor, (IndexQuery.NearestNeighbourPredicate) firstPredicate );
+                break;
+
             default:
                 throw new UnsupportedOperationException( "Query not supported: " + Arrays.toString( query ) );
             }
@@ -125,6 +157,12 @@ final class DefaultNodeValueIndexCursor extends IndexCursor<IndexProgressor>
             // this is used for distinct values query
             needsValues = true;
         }
+
+        // Results of exact seeks all have the same values, so they are always in order
+        if ( resultOrder != null && needsValues && added.hasNext() )
+        {
+            sortAdded( descriptor );
+        }
     }
 
     private boolean isRemoved( long reference )
@@ -156,6 +194,10 @@ final class DefaultNodeValueIndexCursor extends IndexCursor<IndexProgressor>
     @Override
     public boolean next()
     {
+        if ( sortedAdded != null )
+        {
+            return nextInOrder();
+        }
         if ( added.hasNext() )
         {
             this.node = added.next();
@@ -168,11 +210,131 @@ final class DefaultNodeValueIndexCursor extends IndexCursor<IndexProgressor>
         }
     }
 
+    private boolean nextInOrder()
+    {
+        if ( !indexPeeked && innerNext() )
+        {
+            indexPeeked = true;
+            peekedNode = node;
+            peekedValues = values;
+        }
+        boolean hasAdded = sortedAddedPosition < sortedAdded.length;
+        if ( indexPeeked && (!hasAdded || resultOrder.compare( peekedValues, sortedAddedValues[sortedAddedPosition] ) <= 0) )
+        {
+            indexPeeked = false;
+            this.node = peekedNode;
+            this.values = peekedValues;
+            return true;
+        }
+        if ( hasAdded )
+        {
+            this.node = sortedAdded[sortedAddedPosition];
+            this.values = sortedAddedValues[sortedAddedPosition];
+            sortedAddedPosition++;
+            return true;
+        }
+        this.node = NO_ID;
+        this.values = null;
+        return false;
+    }
+
+    private void sortAdded( SchemaIndexDescriptor descriptor )
+    {
+        long[] nodes = asArray( added );
+        int[] propertyIds = descriptor.schema().getPropertyIds();
+        Value[][] nodeValues = new Value[nodes.length][];
+        int accepted = 0;
+        try
+        {
+            for ( long node : nodes )
+            {
+                Value[] values = new Value[propertyIds.length];
+                for ( int j = 0; j < propertyIds.length; j++ )
+                {
+                    values[j] = propertyAccessor().getPropertyValue( node, propertyIds[j] );
+                }
+                // Results of queries which are answered by scanning the changes, like nearest neighbours, still need filtering
+                if ( acceptsValues( values ) )
+                {
+                    nodes[accepted] = node;
+                    nodeValues[accepted++] = values;
+                }
+            }
+        }
+        catch ( EntityNotFoundException e )
+        {
+            throw new IllegalStateException( "Node added to index in this transaction doesn't exist", e );
+        }
+
+        Integer[] order = new Integer[accepted];
+        Arrays.setAll( order, i -> i );
+        Arrays.sort( order, ( a, b ) -> resultOrder.compare( nodeValues[a], nodeValues[b] ) );
+        sortedAdded = new long[accepted];
+        sortedAddedValues = new Value[accepted][];
+        for ( int i = 0; i < order.length; i++ )
+        {
+            sortedAdded[i] = nodes[order[i]];
+            sortedAddedValues[i] = nodeValues[order[i]];
+        }
+        sortedAddedPosition = 0;
+        added = emptyIterator();
+    }
+
+    private boolean acceptsValues( Value[] values )
+    {
+        for ( int i = 0; i < query.length && i < values.length; i++ )
+        {
+            if ( !query[i].acceptsValue( values[i] ) )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int compareInOrder( Value[] a, Value[] b )
+    {
+        if ( a == null || b == null )
+        {
+            return 0;
+        }
+        int length = Math.min( a.length, b.length );
+        for ( int i = 0; i < length; i++ )
+        {
+            int compare = Values.COMPARATOR.compare( a[i], b[i] );
+            if ( compare != 0 )
+            {
+                return indexOrder == IndexOrder.DESCENDING ? -compare : compare;
+            }
+        }
+        return 0;
+    }
+
     public void setRead( Read read )
     {
         this.read = read;
     }
 
+    /**
+     * @param indexOrder order which the index has been asked to return results in, which results added in the transaction must follow too.
+     */
+    void setIndexOrder( IndexOrder indexOrder )
+    {
+        this.indexOrder = indexOrder;
+    }
+
+    /**
+     * @return accessor for property values of nodes, which stays open until this cursor is closed.
+     */
+    PropertyAccessor propertyAccessor()
+    {
+        if ( propertyAccessor == null )
+        {
+            propertyAccessor = new CursorPropertyAccessor( pool.allocateNodeCursor(), pool.allocatePropertyCursor(), read );
+        }
+        return propertyAccessor;
+    }
+
     @Override
     public void node( NodeCursor cursor )
     {
@@ -221,6 +383,16 @@ final class DefaultNodeValueIndexCursor extends IndexCursor<IndexProgressor>
             this.read = null;
             this.added = emptyIterator();
             this.removed = PrimitiveLongCollections.emptySet();
+            this.indexOrder = IndexOrder.NONE;
+            this.resultOrder = null;
+            this.sortedAdded = null;
+            this.sortedAddedValues = null;
+            this.peekedValues = null;
+            if ( propertyAccessor != null )
+            {
+                propertyAccessor.close();
+                propertyAccessor = null;
+            }
 
             pool.accept( this );
         }
@@ -299,6 +471,19 @@ final class DefaultNodeValueIndexCursor extends IndexCursor<IndexProgressor>
         }
     }
 
+    private void nearestNeighboursQuery( SchemaIndexDescriptor descriptor, IndexQuery.NearestNeighbourPredicate predicate )
+    {
+        needsValues = true;
+        resultOrder = Comparator.comparingDouble( values -> predicate.distance( (PointValue) values[0] ) );
+        if ( read.hasTxStateWithChanges() )
+        {
+            TransactionState txState = read.txState();
+            PrimitiveLongReadableDiffSets changes = txState.indexUpdatesForScan( descriptor );
+            added = changes.augment( emptyIterator() );
+            removed = removed( txState, changes );
+        }
+    }
+
     private void seekQuery( SchemaIndexDescriptor descriptor, IndexQuery[] query )
     {
         needsValues = false;
@@ -313,6 +498,18 @@ final class DefaultNodeValueIndexCursor extends IndexCursor<IndexProgressor>
         }
     }
 
+    private void compositeQuery( SchemaIndexDescriptor descriptor, IndexQuery[] query )
+    {
+        needsValues = true;
+        if ( read.hasTxStateWithChanges() )
+        {
+            TransactionState txState = read.txState();
+            PrimitiveLongReadableDiffSets changes = txState.indexUpdatesForCompositeQuery( descriptor, query );
+            added = changes.augment( emptyIterator() );
+            removed = removed( txState, changes );
+        }
+    }
+
     private PrimitiveLongSet removed( TransactionState txState, PrimitiveLongReadableDiffSets changes )
     {
         PrimitiveLongSet longSet = asSet( txState.addedAndRemovedNodes().getRemoved() );
@@ -320,6 +517,18 @@ final class DefaultNodeValueIndexCursor extends IndexCursor<IndexProgressor>
         return longSet;
     }
 
+    private static boolean isOnlyExactPredicates( IndexQuery[] predicates )
+    {
+        for ( IndexQuery predicate : predicates )
+        {
+            if ( predicate.type() != IndexQuery.IndexQueryType.exact )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private static IndexQuery.ExactPredicate[] assertOnlyExactPredicates( IndexQuery[] predicates )
     {
         IndexQuery.ExactPredicate[] exactPredicates;
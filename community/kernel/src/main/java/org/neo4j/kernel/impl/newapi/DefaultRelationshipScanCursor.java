@@ -38,21 +38,30 @@
  */
 package org.neo4j.kernel.impl.newapi;
 
+import java.util.Iterator;
 import java.util.Set;
 
+import org.neo4j.collection.primitive.PrimitiveLongResourceIterator;
 import org.neo4j.internal.kernel.api.RelationshipScanCursor;
 import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.kernel.api.txstate.TransactionState;
+import org.neo4j.storageengine.api.schema.RelationshipTypeScanReader;
 
+import static java.util.Collections.emptyIterator;
 import static java.util.Collections.emptySet;
+import static org.neo4j.collection.primitive.PrimitiveLongCollections.toSet;
 
 class DefaultRelationshipScanCursor extends RelationshipCursor implements RelationshipScanCursor
 {
     private int type;
     private long next;
     private long highMark;
+    private boolean batch;
     private PageCursor pageCursor;
     private Set<Long> addedRelationships;
+    private long low;
+    private PrimitiveLongResourceIterator typeScan;
+    private Iterator<Long> addedOfType;
 
     DefaultRelationshipScanCursor( DefaultCursors pool )
     {
@@ -72,8 +81,50 @@ class DefaultRelationshipScanCursor extends RelationshipCursor implements Relati
         next = 0;
         this.type = type;
         highMark = read.relationshipHighMark();
+        batch = false;
         init( read );
         this.addedRelationships = emptySet();
+        initTypeScan( read, Long.MIN_VALUE, Long.MAX_VALUE );
+    }
+
+    /**
+     * Initializes this cursor to scan one batch of a {@link RelationshipCursorScan}, i.e. the relationships with ids
+     * from {@code start} (inclusive) to {@code stop} (exclusive). The transaction state snapshot is shared between
+     * all batches of the scan and so is given here, rather than taken lazily by this cursor.
+     */
+    void scanBatch( int type, Read read, long start, long stop, boolean hasChanges, Set<Long> addedRelationships )
+    {
+        if ( getId() != NO_ID )
+        {
+            reset();
+        }
+        if ( pageCursor == null )
+        {
+            pageCursor = read.relationshipPage( start );
+        }
+        next = start;
+        this.type = type;
+        highMark = stop - 1;
+        batch = true;
+        init( read, hasChanges );
+        this.addedRelationships = addedRelationships;
+        initTypeScan( read, start, stop );
+    }
+
+    /**
+     * Scans of a single relationship type are served by the relationship type scan store, if there is one,
+     * instead of by sweeping the whole relationship store. Relationships of the type added in this transaction
+     * are returned after the ones found in the store.
+     */
+    private void initTypeScan( Read read, long start, long stop )
+    {
+        closeTypeScan();
+        low = start;
+        RelationshipTypeScanReader reader = type == -1 ? null : read.relationshipTypeScanReader();
+        if ( reader != null )
+        {
+            typeScan = batch ? reader.relationshipsWithType( type, start, stop ) : reader.relationshipsWithType( type );
+        }
     }
 
     void single( long reference, Read read )
@@ -89,8 +140,10 @@ class DefaultRelationshipScanCursor extends RelationshipCursor implements Relati
         next = reference >= 0 ? reference : NO_ID;
         type = -1;
         highMark = NO_ID;
+        batch = false;
         init( read );
         this.addedRelationships = emptySet();
+        closeTypeScan();
     }
 
     @Override
@@ -106,6 +159,11 @@ class DefaultRelationshipScanCursor extends RelationshipCursor implements Relati
         boolean hasChanges = hasChanges();
         TransactionState txs = hasChanges ? read.txState() : null;
 
+        if ( typeScan != null )
+        {
+            return nextFromTypeScan( hasChanges, txs );
+        }
+
         do
         {
             if ( hasChanges && containsRelationship( txs ) )
@@ -130,6 +188,11 @@ class DefaultRelationshipScanCursor extends RelationshipCursor implements Relati
                     next = NO_ID;
                     return isWantedTypeAndInUse();
                 }
+                else if ( batch )
+                {
+                    next = NO_ID;
+                    return isWantedTypeAndInUse();
+                }
                 else
                 {
                     highMark = read.relationshipHighMark();
@@ -146,6 +209,43 @@ class DefaultRelationshipScanCursor extends RelationshipCursor implements Relati
         return true;
     }
 
+    private boolean nextFromTypeScan( boolean hasChanges, TransactionState txs )
+    {
+        if ( addedOfType == null )
+        {
+            while ( typeScan.hasNext() )
+            {
+                long reference = typeScan.next();
+                if ( hasChanges && txs.relationshipIsDeletedInThisTx( reference ) )
+                {
+                    continue;
+                }
+                read.relationship( this, reference, pageCursor );
+                if ( isWantedTypeAndInUse() )
+                {
+                    return true;
+                }
+            }
+            addedOfType = hasChanges ? addedRelationships.iterator() : emptyIterator();
+        }
+
+        while ( addedOfType.hasNext() )
+        {
+            long reference = addedOfType.next();
+            if ( !batch || (reference >= low && reference <= highMark) )
+            {
+                loadFromTxState( reference );
+                setInUse( true );
+                if ( isWantedTypeAndInUse() )
+                {
+                    return true;
+                }
+            }
+        }
+        reset();
+        return false;
+    }
+
     private boolean isWantedTypeAndInUse()
     {
         return (type == -1 || type() == type) && inUse();
@@ -172,6 +272,17 @@ class DefaultRelationshipScanCursor extends RelationshipCursor implements Relati
     private void reset()
     {
         setId( next = NO_ID );
+        closeTypeScan();
+    }
+
+    private void closeTypeScan()
+    {
+        if ( typeScan != null )
+        {
+            typeScan.close();
+            typeScan = null;
+        }
+        addedOfType = null;
     }
 
     @Override
@@ -203,7 +314,7 @@ class DefaultRelationshipScanCursor extends RelationshipCursor implements Relati
     {
         if ( !isSingle() )
         {
-            addedRelationships = read.txState().addedAndRemovedRelationships().getAddedSnapshot();
+            addedRelationships = toSet( read.txState().addedAndRemovedRelationships().getAdded() );
         }
     }
 
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.newapi;
+
+import java.util.Set;
+
+import org.neo4j.internal.kernel.api.NodeCursor;
+
+/**
+ * {@link BaseCursorScan} over the node store, handing out batches of {@link DefaultNodeCursor node cursors}.
+ */
+class NodeCursorScan extends BaseCursorScan<NodeCursor>
+{
+    NodeCursorScan( Read read, long highMark, int recordsPerPage, boolean hasChanges, Set<Long> addedNodes )
+    {
+        super( read, highMark, recordsPerPage, hasChanges, addedNodes );
+    }
+
+    @Override
+    void scanBatch( NodeCursor cursor, long start, long stop )
+    {
+        ((DefaultNodeCursor) cursor).scanBatch( read, start, stop, hasChanges, added );
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.newapi;
+
+import java.util.Arrays;
+import java.util.Set;
+
+import org.neo4j.collection.primitive.PrimitiveLongCollections;
+import org.neo4j.collection.primitive.PrimitiveLongIterator;
+import org.neo4j.internal.kernel.api.NodeLabelIndexCursor;
+import org.neo4j.storageengine.api.schema.LabelScanReader;
+
+import static java.util.Collections.emptySet;
+
+/**
+ * {@link BaseCursorScan} over the label scan store, handing out batches of node id ranges of a single label to
+ * {@link DefaultNodeLabelIndexCursor node label index cursors}.
+ * <p>
+ * Batches are aligned to the {@link LabelScanReader#rangeSize() range size} of the label scan store rather than to
+ * the pages of the node store, since the label scan store is what each batch reads: every range is then read, and
+ * its bitmap decoded, by exactly one batch.
+ * <p>
+ * The label scan reader is acquired once, by the thread creating the scan, since the statement creates its reader
+ * lazily and without synchronization. The nodes added in the transaction are sorted once, so that each batch only
+ * looks up the added nodes within its own id range.
+ */
+class NodeLabelIndexCursorScan extends BaseCursorScan<NodeLabelIndexCursor>
+{
+    private final LabelScanReader labelScanReader;
+    private final int label;
+    private final long[] sortedAdded;
+    private final Set<Long> removed;
+
+    NodeLabelIndexCursorScan( Read read, LabelScanReader labelScanReader, int label, long highMark, boolean hasChanges,
+            Set<Long> addedNodes, Set<Long> removedNodes )
+    {
+        super( read, highMark, labelScanReader.rangeSize(), hasChanges, addedNodes );
+        this.labelScanReader = labelScanReader;
+        this.label = label;
+        this.sortedAdded = PrimitiveLongCollections.asArray( added.iterator() );
+        Arrays.sort( sortedAdded );
+        this.removed = hasChanges ? removedNodes : emptySet();
+    }
+
+    @Override
+    void scanBatch( NodeLabelIndexCursor cursor, long start, long stop )
+    {
+        DefaultNodeLabelIndexCursor client = (DefaultNodeLabelIndexCursor) cursor;
+        client.prepareBatch( read, hasChanges ? addedInBatch( start, stop ) : null, removed );
+        labelScanReader.nodesWithLabel( client, label, start, stop );
+    }
+
+    private PrimitiveLongIterator addedInBatch( long start, long stop )
+    {
+        int from = insertionPoint( start );
+        int to = insertionPoint( stop );
+        return PrimitiveLongCollections.iterator( Arrays.copyOfRange( sortedAdded, from, to ) );
+    }
+
+    private int insertionPoint( long id )
+    {
+        int index = Arrays.binarySearch( sortedAdded, id );
+        return index >= 0 ? index : -index - 1;
+    }
+}
@@ -39,7 +39,9 @@
 package org.neo4j.kernel.impl.newapi;
 
 import java.util.Arrays;
+import java.util.Set;
 
+import org.neo4j.collection.primitive.PrimitiveLongCollections;
 import org.neo4j.internal.kernel.api.CapableIndexReference;
 import org.neo4j.internal.kernel.api.IndexOrder;
 import org.neo4j.internal.kernel.api.IndexQuery;
@@ -80,6 +82,8 @@ import org.neo4j.storageengine.api.lock.ResourceType;
 import org.neo4j.storageengine.api.schema.IndexProgressor;
 import org.neo4j.storageengine.api.schema.IndexReader;
 import org.neo4j.storageengine.api.schema.LabelScanReader;
+import org.neo4j.storageengine.api.schema.RelationshipTypeScanReader;
+import org.neo4j.storageengine.api.txstate.PrimitiveLongReadableDiffSets;
 import org.neo4j.values.storable.ArrayValue;
 import org.neo4j.values.storable.TextValue;
 import org.neo4j.values.storable.Value;
@@ -87,6 +91,7 @@ import org.neo4j.values.storable.ValueGroup;
 import org.neo4j.values.storable.Values;
 
 import static java.lang.String.format;
+import static java.util.Collections.emptySet;
 import static org.neo4j.kernel.impl.locking.ResourceTypes.INDEX_ENTRY;
 import static org.neo4j.kernel.impl.locking.ResourceTypes.indexEntryResourceId;
 import static org.neo4j.kernel.impl.newapi.GroupReferenceEncoding.isRelationship;
@@ -131,7 +136,14 @@ abstract class Read implements TxStateHolder,
         DefaultNodeValueIndexCursor cursorImpl = (DefaultNodeValueIndexCursor) cursor;
         IndexReader reader = indexReader( index, false );
         cursorImpl.setRead( this );
-        IndexProgressor.NodeValueClient target = withFullValuePrecision( cursorImpl, query, reader );
+        cursorImpl.setIndexOrder( indexOrder );
+        if ( query.length == 1 && query[0].type() == IndexQuery.IndexQueryType.nearestNeighbours )
+        {
+            // The exact values are needed to order by distance, so results are never filtered afterwards
+            reader.nearestNeighbours( cursorImpl, cursorImpl.propertyAccessor(), (IndexQuery.NearestNeighbourPredicate) query[0] );
+            return;
+        }
+        IndexProgressor.NodeValueClient target = withFullValuePrecision( cursorImpl, indexOrder, query, reader );
         reader.query( target, indexOrder, query );
     }
 
@@ -142,6 +154,7 @@ abstract class Read implements TxStateHolder,
         DefaultNodeValueIndexCursor cursorImpl = (DefaultNodeValueIndexCursor) cursor;
         IndexReader reader = indexReader( index, true );
         cursorImpl.setRead( this );
+        cursorImpl.setIndexOrder( IndexOrder.NONE );
         try ( CursorPropertyAccessor accessor = new CursorPropertyAccessor( cursors.allocateNodeCursor(), cursors.allocatePropertyCursor(), this ) )
         {
             reader.distinctValues( cursorImpl, accessor );
@@ -149,10 +162,10 @@ abstract class Read implements TxStateHolder,
     }
 
     private IndexProgressor.NodeValueClient withFullValuePrecision( DefaultNodeValueIndexCursor cursor,
-            IndexQuery[] query, IndexReader reader )
+            IndexOrder indexOrder, IndexQuery[] query, IndexReader reader )
     {
         IndexProgressor.NodeValueClient target = cursor;
-        if ( !reader.hasFullValuePrecision( query ) )
+        if ( !reader.hasFullValuePrecision( indexOrder, query ) )
         {
             IndexQuery[] filters = new IndexQuery[query.length];
             int j = 0;
@@ -162,7 +175,7 @@ abstract class Read implements TxStateHolder,
                 {
                 case range:
                     ValueGroup valueGroup = q.valueGroup();
-                    if ( ( valueGroup == NUMBER || valueGroup == GEOMETRY) && !reader.hasFullValuePrecision( q ) )
+                    if ( ( valueGroup == NUMBER || valueGroup == GEOMETRY) && !reader.hasFullValuePrecision( indexOrder, q ) )
                     {
                         filters[j++] = q;
                     }
@@ -171,12 +184,19 @@ abstract class Read implements TxStateHolder,
                     Value value = ((IndexQuery.ExactPredicate) q).value();
                     if ( value.valueGroup() == ValueGroup.NUMBER || Values.isArrayValue( value ) || value.valueGroup() == ValueGroup.GEOMETRY )
                     {
-                        if ( !reader.hasFullValuePrecision( q ) )
+                        if ( !reader.hasFullValuePrecision( indexOrder, q ) )
                         {
                             filters[j++] = q;
                         }
                     }
                     break;
+                case stringSuffix:
+                case stringContains:
+                    if ( !reader.hasFullValuePrecision( indexOrder, q ) )
+                    {
+                        filters[j++] = q;
+                    }
+                    break;
                 default:
                     break;
                 }
@@ -235,7 +255,8 @@ abstract class Read implements TxStateHolder,
             IndexQuery.ExactPredicate... query ) throws IndexNotApplicableKernelException
     {
         cursor.setRead( this );
-        IndexProgressor.NodeValueClient target = withFullValuePrecision( cursor, query, indexReader );
+        cursor.setIndexOrder( IndexOrder.NONE );
+        IndexProgressor.NodeValueClient target = withFullValuePrecision( cursor, IndexOrder.NONE, query, indexReader );
         indexReader.query( target, IndexOrder.NONE, query );
     }
 
@@ -254,8 +275,10 @@ abstract class Read implements TxStateHolder,
 
         // for a scan, we simply query for existence of the first property, which covers all entries in an index
         int firstProperty = index.properties()[0];
-        ((DefaultNodeValueIndexCursor) cursor).setRead( this );
-        indexReader( index, false ).query( (DefaultNodeValueIndexCursor) cursor, indexOrder, IndexQuery.exists( firstProperty ) );
+        DefaultNodeValueIndexCursor cursorImpl = (DefaultNodeValueIndexCursor) cursor;
+        cursorImpl.setRead( this );
+        cursorImpl.setIndexOrder( indexOrder );
+        indexReader( index, false ).query( cursorImpl, indexOrder, IndexQuery.exists( firstProperty ) );
     }
 
     private boolean hasForbiddenProperties( IndexReference index )
@@ -308,7 +331,17 @@ abstract class Read implements TxStateHolder,
     public final Scan<NodeLabelIndexCursor> nodeLabelScan( int label )
     {
         ktx.assertOpen();
-        throw new UnsupportedOperationException( "not implemented" );
+        Set<Long> added = emptySet();
+        Set<Long> removed = emptySet();
+        boolean hasChanges = hasTxStateWithChanges();
+        if ( hasChanges )
+        {
+            PrimitiveLongReadableDiffSets changes = txState().nodesWithLabelChanged( label );
+            added = PrimitiveLongCollections.toSet( changes.getAdded() );
+            removed = PrimitiveLongCollections.toSet( txState().addedAndRemovedNodes().getRemoved() );
+            removed.addAll( PrimitiveLongCollections.toSet( changes.getRemoved() ) );
+        }
+        return new NodeLabelIndexCursorScan( this, labelScanReader(), label, nodeHighMark(), hasChanges, added, removed );
     }
 
     @Override
@@ -322,7 +355,9 @@ abstract class Read implements TxStateHolder,
     public final Scan<NodeCursor> allNodesScan()
     {
         ktx.assertOpen();
-        throw new UnsupportedOperationException( "not implemented" );
+        boolean hasChanges = hasTxStateWithChanges();
+        Set<Long> added = hasChanges ? PrimitiveLongCollections.toSet( txState().addedAndRemovedNodes().getAdded() ) : emptySet();
+        return new NodeCursorScan( this, nodeHighMark(), nodeRecordsPerPage(), hasChanges, added );
     }
 
     @Override
@@ -350,7 +385,7 @@ abstract class Read implements TxStateHolder,
     public final Scan<RelationshipScanCursor> allRelationshipsScan()
     {
         ktx.assertOpen();
-        throw new UnsupportedOperationException( "not implemented" );
+        return relationshipScan( -1/*include all types*/ );
     }
 
     @Override
@@ -364,7 +399,16 @@ abstract class Read implements TxStateHolder,
     public final Scan<RelationshipScanCursor> relationshipTypeScan( int type )
     {
         ktx.assertOpen();
-        throw new UnsupportedOperationException( "not implemented" );
+        return relationshipScan( type );
+    }
+
+    private Scan<RelationshipScanCursor> relationshipScan( int type )
+    {
+        boolean hasChanges = hasTxStateWithChanges();
+        Set<Long> added =
+                hasChanges ? PrimitiveLongCollections.toSet( txState().addedAndRemovedRelationships().getAdded() ) : emptySet();
+        return new RelationshipCursorScan( this, type, relationshipHighMark(), relationshipRecordsPerPage(),
+                hasChanges, added );
     }
 
     @Override
@@ -597,6 +641,11 @@ abstract class Read implements TxStateHolder,
 
     abstract LabelScanReader labelScanReader();
 
+    /**
+     * @return reader of the relationship type scan store, or {@code null} if there is no such store.
+     */
+    abstract RelationshipTypeScanReader relationshipTypeScanReader();
+
     abstract ExplicitIndex explicitNodeIndex( String indexName ) throws ExplicitIndexNotFoundKernelException;
 
     abstract ExplicitIndex explicitRelationshipIndex( String indexName ) throws ExplicitIndexNotFoundKernelException;
@@ -632,6 +681,10 @@ abstract class Read implements TxStateHolder,
 
     abstract long relationshipHighMark();
 
+    abstract int nodeRecordsPerPage();
+
+    abstract int relationshipRecordsPerPage();
+
     abstract TextValue string( DefaultPropertyCursor cursor, long reference, PageCursor page );
 
     abstract ArrayValue array( DefaultPropertyCursor cursor, long reference, PageCursor page );
@@ -64,6 +64,17 @@ abstract class RelationshipCursor extends RelationshipRecord implements Relation
         this.checkHasChanges = true;
     }
 
+    /**
+     * Initializes this cursor with an already known answer to whether or not there are transaction state changes,
+     * in which case the subclass is responsible for providing its snapshot of added relationships.
+     */
+    protected void init( Read read, boolean hasChanges )
+    {
+        this.read = read;
+        this.hasChanges = hasChanges;
+        this.checkHasChanges = false;
+    }
+
     @Override
     public long relationshipReference()
     {
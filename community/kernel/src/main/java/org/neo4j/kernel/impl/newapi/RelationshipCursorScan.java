@@ -36,40 +36,30 @@
  * You should have received a copy of the GNU General Public License
  * along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
-package org.neo4j.kernel.impl.util.diffsets;
+package org.neo4j.kernel.impl.newapi;
 
 import java.util.Set;
 
-import org.neo4j.graphdb.Resource;
-import org.neo4j.kernel.impl.api.RelationshipVisitor;
-import org.neo4j.kernel.impl.api.store.RelationshipIterator;
+import org.neo4j.internal.kernel.api.RelationshipScanCursor;
 
 /**
- * Applies a diffset to the given source {@link RelationshipIterator}.
- * If the given source is a {@link Resource}, then so is this {@link DiffApplyingRelationshipIterator}.
+ * {@link BaseCursorScan} over the relationship store, handing out batches of
+ * {@link DefaultRelationshipScanCursor relationship scan cursors}, optionally filtered on relationship type.
  */
-class DiffApplyingRelationshipIterator extends DiffApplyingLongIterator implements RelationshipIterator
+class RelationshipCursorScan extends BaseCursorScan<RelationshipScanCursor>
 {
-    private final RelationshipVisitor.Home sourceHome;
-    private final RelationshipVisitor.Home addedHome;
+    private final int type;
 
-    DiffApplyingRelationshipIterator( RelationshipIterator source, Set<?> addedElements, Set<?> removedElements, RelationshipVisitor.Home addedHome )
+    RelationshipCursorScan( Read read, int type, long highMark, int recordsPerPage, boolean hasChanges,
+            Set<Long> addedRelationships )
     {
-        super( source, addedElements, removedElements, null );
-        this.sourceHome = source;
-        this.addedHome = addedHome;
+        super( read, highMark, recordsPerPage, hasChanges, addedRelationships );
+        this.type = type;
     }
 
     @Override
-    public <EXCEPTION extends Exception> boolean relationshipVisit( long relId,
-            RelationshipVisitor<EXCEPTION> visitor ) throws EXCEPTION
+    void scanBatch( RelationshipScanCursor cursor, long start, long stop )
     {
-        assert relId == next;
-        switch ( phase )
-        {
-        case FILTERED_SOURCE: return sourceHome.relationshipVisit( next, visitor );
-        case ADDED_ELEMENTS: return addedHome.relationshipVisit( next, visitor );
-        default: throw new IllegalStateException( "Shouldn't have come here in phase " + phase );
-        }
+        ((DefaultRelationshipScanCursor) cursor).scanBatch( type, read, start, stop, hasChanges, added );
     }
 }
@@ -55,6 +55,7 @@ import org.neo4j.logging.Log;
 import org.neo4j.memory.GlobalMemoryTracker;
 
 import static org.neo4j.graphdb.factory.GraphDatabaseSettings.mapped_memory_page_size;
+import static org.neo4j.graphdb.factory.GraphDatabaseSettings.pagecache_eviction_policy;
 import static org.neo4j.graphdb.factory.GraphDatabaseSettings.pagecache_memory;
 import static org.neo4j.graphdb.factory.GraphDatabaseSettings.pagecache_swapper;
 import static org.neo4j.kernel.configuration.Settings.BYTES;
@@ -107,7 +108,7 @@ public class ConfiguringPageCacheFactory
         checkPageSize( config );
         MemoryAllocator memoryAllocator = buildMemoryAllocator( config );
         return new MuninnPageCache( swapperFactory, memoryAllocator, pageCacheTracer, pageCursorTracerSupplier,
-                versionContextSupplier );
+                versionContextSupplier, config.get( pagecache_eviction_policy ) );
     }
 
     private MemoryAllocator buildMemoryAllocator( Config config )
@@ -191,7 +192,8 @@ public class ConfiguringPageCacheFactory
         long maxVmUsageMb = ByteUnit.Byte.toMebiBytes( Runtime.getRuntime().maxMemory() );
         String msg = "Physical mem: " + totalPhysicalMemMb + " MiB," +
                      " Heap size: " + maxVmUsageMb + " MiB," +
-                     " Page cache: " + pageCacheMemory + ".";
+                     " Page cache: " + pageCacheMemory + "," +
+                     " Eviction policy: " + config.get( pagecache_eviction_policy ) + ".";
 
         log.info( msg );
     }
@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.query;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.neo4j.kernel.api.exceptions.Status;
+import org.neo4j.kernel.api.query.ExecutingQuery;
+import org.neo4j.kernel.api.query.QueryMemoryTracker;
+import org.neo4j.memory.MemoryLimitExceededException;
+
+/**
+ * The estimated heap held by all executing queries of a database, handing out a {@link QueryMemoryTracker} per query.
+ * Queries are limited individually to {@link #queryLimit()} and together to {@link #globalLimit()}, where a limit of
+ * {@code 0} means unlimited. A changed query limit applies to queries started after the change.
+ * <p>
+ * The trackers are closed, giving back what their queries still hold, when the queries end as seen by the
+ * {@link QueryExecutionMonitor}, since the transactional context of a query can be closed and reopened while it runs.
+ */
+public class QueryMemoryPool implements QueryExecutionMonitor
+{
+    private final AtomicLong usedBytes = new AtomicLong();
+    private volatile boolean tracking;
+    private volatile long queryLimit;
+    private volatile long globalLimit;
+
+    public QueryMemoryPool( boolean tracking, long queryLimit, long globalLimit )
+    {
+        this.tracking = tracking;
+        this.queryLimit = queryLimit;
+        this.globalLimit = globalLimit;
+    }
+
+    /**
+     * @return a tracker for a query starting now, or {@link QueryMemoryTracker#NONE} if tracking is disabled.
+     */
+    public QueryMemoryTracker newTracker()
+    {
+        return tracking ? new Tracker( queryLimit ) : QueryMemoryTracker.NONE;
+    }
+
+    public void setTracking( boolean tracking )
+    {
+        this.tracking = tracking;
+    }
+
+    public void setQueryLimit( long queryLimit )
+    {
+        this.queryLimit = queryLimit;
+    }
+
+    public void setGlobalLimit( long globalLimit )
+    {
+        this.globalLimit = globalLimit;
+    }
+
+    @Override
+    public void startQueryExecution( ExecutingQuery query )
+    {
+    }
+
+    @Override
+    public void endFailure( ExecutingQuery query, Throwable failure )
+    {
+        query.memoryTracker().close();
+    }
+
+    @Override
+    public void endSuccess( ExecutingQuery query )
+    {
+        query.memoryTracker().close();
+    }
+
+    public long queryLimit()
+    {
+        return queryLimit;
+    }
+
+    public long globalLimit()
+    {
+        return globalLimit;
+    }
+
+    /**
+     * @return estimated number of bytes held by all tracked queries.
+     */
+    public long usedBytes()
+    {
+        return usedBytes.get();
+    }
+
+    private void reserve( long bytes )
+    {
+        long limit = globalLimit;
+        long used = usedBytes.addAndGet( bytes );
+        if ( limit > 0 && used > limit )
+        {
+            usedBytes.addAndGet( -bytes );
+            throw new MemoryLimitExceededException( bytes, limit, used - bytes, Status.General.OutOfMemoryError );
+        }
+    }
+
+    private void release( long bytes )
+    {
+        usedBytes.addAndGet( -bytes );
+    }
+
+    /**
+     * Allocations, deallocations and closing are serialized on the tracker, so that bytes reserved in the global pool
+     * by an allocation racing with {@link #close()} are either given back by the close, or not reserved at all.
+     */
+    private class Tracker implements QueryMemoryTracker
+    {
+        private final long limit;
+        private final AtomicLong used = new AtomicLong();
+        private final AtomicLong peak = new AtomicLong();
+        private boolean closed;
+
+        Tracker( long limit )
+        {
+            this.limit = limit;
+        }
+
+        @Override
+        public boolean isTracking()
+        {
+            return true;
+        }
+
+        @Override
+        public synchronized void allocated( long bytes )
+        {
+            if ( closed )
+            {
+                return;
+            }
+            long now = used.addAndGet( bytes );
+            if ( limit > 0 && now > limit )
+            {
+                used.addAndGet( -bytes );
+                throw new MemoryLimitExceededException( bytes, limit, now - bytes, Status.Statement.QueryOutOfMemoryError );
+            }
+            try
+            {
+                reserve( bytes );
+            }
+            catch ( MemoryLimitExceededException e )
+            {
+                used.addAndGet( -bytes );
+                throw e;
+            }
+            peak.accumulateAndGet( now, Math::max );
+        }
+
+        @Override
+        public synchronized void deallocated( long bytes )
+        {
+            if ( closed )
+            {
+                // everything was already given back to the pool when the query ended
+                return;
+            }
+            used.addAndGet( -bytes );
+            release( bytes );
+        }
+
+        @Override
+        public long usedBytes()
+        {
+            return used.get();
+        }
+
+        @Override
+        public long peakBytes()
+        {
+            return peak.get();
+        }
+
+        @Override
+        public synchronized void close()
+        {
+            if ( !closed )
+            {
+                closed = true;
+                release( used.getAndSet( 0 ) );
+            }
+        }
+    }
+}
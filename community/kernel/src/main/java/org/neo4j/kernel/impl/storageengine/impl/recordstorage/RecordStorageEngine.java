@@ -61,6 +61,8 @@ import org.neo4j.kernel.api.exceptions.schema.CreateConstraintFailureException;
 import org.neo4j.kernel.api.labelscan.LabelScanStore;
 import org.neo4j.kernel.api.labelscan.LabelScanWriter;
 import org.neo4j.kernel.api.labelscan.LoggingMonitor;
+import org.neo4j.kernel.api.labelscan.RelationshipTypeScanStore;
+import org.neo4j.kernel.api.labelscan.RelationshipTypeScanWriter;
 import org.neo4j.kernel.api.txstate.TransactionCountingStateVisitor;
 import org.neo4j.kernel.configuration.Config;
 import org.neo4j.kernel.impl.api.BatchTransactionApplier;
@@ -81,6 +83,7 @@ import org.neo4j.kernel.impl.api.index.IndexingServiceFactory;
 import org.neo4j.kernel.impl.api.index.IndexingUpdateService;
 import org.neo4j.kernel.impl.api.index.PropertyPhysicalToLogicalConverter;
 import org.neo4j.kernel.impl.api.scan.FullLabelStream;
+import org.neo4j.kernel.impl.api.scan.FullRelationshipTypeStream;
 import org.neo4j.kernel.impl.api.store.SchemaCache;
 import org.neo4j.kernel.impl.api.store.StorageLayer;
 import org.neo4j.kernel.impl.cache.BridgingCacheAccess;
@@ -92,6 +95,7 @@ import org.neo4j.kernel.impl.core.RelationshipTypeTokenHolder;
 import org.neo4j.kernel.impl.factory.OperationalMode;
 import org.neo4j.kernel.impl.index.IndexConfigStore;
 import org.neo4j.kernel.impl.index.labelscan.NativeLabelScanStore;
+import org.neo4j.kernel.impl.index.labelscan.NativeRelationshipTypeScanStore;
 import org.neo4j.kernel.impl.locking.LockGroup;
 import org.neo4j.kernel.impl.locking.LockService;
 import org.neo4j.kernel.impl.storageengine.impl.recordstorage.id.IdController;
@@ -110,6 +114,7 @@ import org.neo4j.kernel.impl.transaction.command.IndexBatchTransactionApplier;
 import org.neo4j.kernel.impl.transaction.command.IndexUpdatesWork;
 import org.neo4j.kernel.impl.transaction.command.LabelUpdateWork;
 import org.neo4j.kernel.impl.transaction.command.NeoStoreBatchTransactionApplier;
+import org.neo4j.kernel.impl.transaction.command.RelationshipTypeUpdateWork;
 import org.neo4j.kernel.impl.transaction.state.IntegrityValidator;
 import org.neo4j.kernel.impl.transaction.state.TransactionRecordState;
 import org.neo4j.kernel.impl.transaction.state.storeview.DynamicIndexStoreView;
@@ -132,6 +137,7 @@ import org.neo4j.storageengine.api.StoreFileMetadata;
 import org.neo4j.storageengine.api.StoreReadLayer;
 import org.neo4j.storageengine.api.TransactionApplicationMode;
 import org.neo4j.storageengine.api.lock.ResourceLocker;
+import org.neo4j.storageengine.api.schema.RelationshipTypeScanReader;
 import org.neo4j.storageengine.api.schema.SchemaRule;
 import org.neo4j.storageengine.api.txstate.ReadableTransactionState;
 import org.neo4j.storageengine.api.txstate.TxStateVisitor;
@@ -158,6 +164,7 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     private final IntegrityValidator integrityValidator;
     private final CacheAccessBackDoor cacheAccess;
     private final LabelScanStore labelScanStore;
+    private final RelationshipTypeScanStore relationshipTypeScanStore;
     private final IndexProviderMap indexProviderMap;
     private final ExplicitIndexApplierLookup explicitIndexApplierLookup;
     private final SchemaState schemaState;
@@ -166,6 +173,7 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     private final IdOrderingQueue explicitIndexTransactionOrdering;
     private final LockService lockService;
     private final WorkSync<Supplier<LabelScanWriter>,LabelUpdateWork> labelScanStoreSync;
+    private final WorkSync<Supplier<RelationshipTypeScanWriter>,RelationshipTypeUpdateWork> relationshipTypeScanStoreSync;
     private final CommandReaderFactory commandReaderFactory;
     private final WorkSync<IndexingUpdateService,IndexUpdatesWork> indexUpdatesSync;
     private final IndexStoreView indexStoreView;
@@ -230,6 +238,8 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
             monitors.addMonitorListener( new LoggingMonitor( logProvider.getLog( NativeLabelScanStore.class ) ) );
             labelScanStore = new NativeLabelScanStore( pageCache, fs, storeDir, new FullLabelStream( neoStoreIndexStoreView ),
                     readOnly, monitors, recoveryCleanupWorkCollector );
+            relationshipTypeScanStore = relationshipTypeScanStore( config, pageCache, fs, storeDir, readOnly, monitors,
+                    recoveryCleanupWorkCollector );
 
             indexStoreView = new DynamicIndexStoreView( neoStoreIndexStoreView, labelScanStore, lockService, neoStores, logProvider );
             this.indexProviderMap = indexProviderMap;
@@ -251,6 +261,8 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
             explicitIndexApplierLookup = new ExplicitIndexApplierLookup.Direct( explicitIndexProviderLookup );
 
             labelScanStoreSync = new WorkSync<>( labelScanStore::newWriter );
+            relationshipTypeScanStoreSync = relationshipTypeScanStore != null
+                                            ? new WorkSync<>( relationshipTypeScanStore::newWriter ) : null;
 
             commandReaderFactory = new RecordStorageCommandReaderFactory();
             indexUpdatesSync = new WorkSync<>( indexingService );
@@ -265,13 +277,35 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
         }
     }
 
+    private RelationshipTypeScanStore relationshipTypeScanStore( Config config, PageCache pageCache, FileSystemAbstraction fs,
+            File storeDir, boolean readOnly, Monitors monitors, RecoveryCleanupWorkCollector recoveryCleanupWorkCollector )
+    {
+        if ( !config.get( GraphDatabaseSettings.relationship_type_scan_store_enabled ) )
+        {
+            // A store left behind from an earlier run would miss all updates made while disabled, so get rid of it
+            // to have it rebuilt from scratch if the setting is enabled again.
+            File storeFile = NativeRelationshipTypeScanStore.getRelationshipTypeScanStoreFile( storeDir );
+            if ( !readOnly && fs.fileExists( storeFile ) )
+            {
+                fs.deleteFile( storeFile );
+            }
+            return null;
+        }
+        return new NativeRelationshipTypeScanStore( pageCache, storeDir,
+                new FullRelationshipTypeStream( neoStores.getRelationshipStore() ), readOnly, monitors,
+                recoveryCleanupWorkCollector );
+    }
+
     private Supplier<StorageStatement> storeStatementSupplier( NeoStores neoStores )
     {
         Supplier<IndexReaderFactory> indexReaderFactory = () -> new IndexReaderFactory.Caching( indexingService );
         LockService lockService = takePropertyReadLocks ? this.lockService : NO_LOCK_SERVICE;
 
-        return () -> new StoreStatement( neoStores, indexReaderFactory, labelScanStore::newReader, lockService,
-                allocateCommandCreationContext() );
+        Supplier<RelationshipTypeScanReader> relationshipTypeScanReader =
+                relationshipTypeScanStore != null ? relationshipTypeScanStore::newReader : () -> null;
+
+        return () -> new StoreStatement( neoStores, indexReaderFactory, labelScanStore::newReader,
+                relationshipTypeScanReader, lockService, allocateCommandCreationContext() );
     }
 
     @Override
@@ -386,8 +420,8 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
             appliers.add( new CountsStoreBatchTransactionApplier( neoStores.getCounts(), mode ) );
 
             // Schema index application
-            appliers.add( new IndexBatchTransactionApplier( indexingService, labelScanStoreSync, indexUpdatesSync,
-                    neoStores.getNodeStore(),
+            appliers.add( new IndexBatchTransactionApplier( indexingService, labelScanStoreSync,
+                    relationshipTypeScanStoreSync, indexUpdatesSync, neoStores.getNodeStore(),
                     indexUpdatesConverter, indexActivator ) );
 
             // Explicit index application
@@ -414,6 +448,10 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
         satisfier.satisfyDependency( indexProviderMap );
         satisfier.satisfyDependency( integrityValidator );
         satisfier.satisfyDependency( labelScanStore );
+        if ( relationshipTypeScanStore != null )
+        {
+            satisfier.satisfyDependency( relationshipTypeScanStore );
+        }
         satisfier.satisfyDependency( indexingService );
         // providing TransactionIdStore, LogVersionRepository
         satisfier.satisfyDependency( neoStores.getMetaDataStore() );
@@ -425,6 +463,10 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     {
         indexingService.init();
         labelScanStore.init();
+        if ( relationshipTypeScanStore != null )
+        {
+            relationshipTypeScanStore.init();
+        }
     }
 
     @Override
@@ -443,6 +485,10 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
         loadSchemaCache();
         indexingService.start();
         labelScanStore.start();
+        if ( relationshipTypeScanStore != null )
+        {
+            relationshipTypeScanStore.start();
+        }
         idController.start();
     }
 
@@ -464,6 +510,10 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     {
         indexingService.stop();
         labelScanStore.stop();
+        if ( relationshipTypeScanStore != null )
+        {
+            relationshipTypeScanStore.stop();
+        }
         idController.stop();
     }
 
@@ -472,6 +522,10 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     {
         indexingService.shutdown();
         labelScanStore.shutdown();
+        if ( relationshipTypeScanStore != null )
+        {
+            relationshipTypeScanStore.shutdown();
+        }
         neoStores.close();
     }
 
@@ -480,6 +534,10 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     {
         indexingService.forceAll( limiter );
         labelScanStore.force( limiter );
+        if ( relationshipTypeScanStore != null )
+        {
+            relationshipTypeScanStore.force( limiter );
+        }
         for ( IndexImplementation index : explicitIndexProviderLookup.all() )
         {
             index.force();
@@ -70,6 +70,7 @@ import org.neo4j.storageengine.api.RelationshipItem;
 import org.neo4j.storageengine.api.StorageStatement;
 import org.neo4j.storageengine.api.schema.IndexReader;
 import org.neo4j.storageengine.api.schema.LabelScanReader;
+import org.neo4j.storageengine.api.schema.RelationshipTypeScanReader;
 
 /**
  * Statement for store layer. This allows for acquisition of cursors on the store data.
@@ -96,10 +97,12 @@ public class StoreStatement implements StorageStatement
     private final Supplier<IndexReaderFactory> indexReaderFactorySupplier;
     private final RecordCursors recordCursors;
     private final Supplier<LabelScanReader> labelScanStore;
+    private final Supplier<RelationshipTypeScanReader> relationshipTypeScanStore;
     private final RecordStorageCommandCreationContext commandCreationContext;
 
     private IndexReaderFactory indexReaderFactory;
     private LabelScanReader labelScanReader;
+    private RelationshipTypeScanReader relationshipTypeScanReader;
 
     private boolean acquired;
     private boolean closed;
@@ -107,10 +110,19 @@ public class StoreStatement implements StorageStatement
     public StoreStatement( NeoStores neoStores, Supplier<IndexReaderFactory> indexReaderFactory,
             Supplier<LabelScanReader> labelScanReaderSupplier, LockService lockService,
             RecordStorageCommandCreationContext commandCreationContext )
+    {
+        this( neoStores, indexReaderFactory, labelScanReaderSupplier, () -> null, lockService, commandCreationContext );
+    }
+
+    public StoreStatement( NeoStores neoStores, Supplier<IndexReaderFactory> indexReaderFactory,
+            Supplier<LabelScanReader> labelScanReaderSupplier,
+            Supplier<RelationshipTypeScanReader> relationshipTypeScanReaderSupplier, LockService lockService,
+            RecordStorageCommandCreationContext commandCreationContext )
     {
         this.neoStores = neoStores;
         this.indexReaderFactorySupplier = indexReaderFactory;
         this.labelScanStore = labelScanReaderSupplier;
+        this.relationshipTypeScanStore = relationshipTypeScanReaderSupplier;
         this.commandCreationContext = commandCreationContext;
 
         this.nodeStore = neoStores.getNodeStore();
@@ -254,6 +266,11 @@ public class StoreStatement implements StorageStatement
             labelScanReader.close();
             labelScanReader = null;
         }
+        if ( relationshipTypeScanReader != null )
+        {
+            relationshipTypeScanReader.close();
+            relationshipTypeScanReader = null;
+        }
     }
 
     @Override
@@ -263,6 +280,13 @@ public class StoreStatement implements StorageStatement
                 labelScanReader : (labelScanReader = labelScanStore.get());
     }
 
+    @Override
+    public RelationshipTypeScanReader getRelationshipTypeScanReader()
+    {
+        return relationshipTypeScanReader != null ?
+                relationshipTypeScanReader : (relationshipTypeScanReader = relationshipTypeScanStore.get());
+    }
+
     private IndexReaderFactory indexReaderFactory()
     {
         return indexReaderFactory != null ?
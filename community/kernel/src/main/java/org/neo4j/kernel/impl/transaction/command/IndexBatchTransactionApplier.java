@@ -48,6 +48,8 @@ import org.neo4j.concurrent.AsyncApply;
 import org.neo4j.concurrent.WorkSync;
 import org.neo4j.kernel.api.labelscan.LabelScanWriter;
 import org.neo4j.kernel.api.labelscan.NodeLabelUpdate;
+import org.neo4j.kernel.api.labelscan.RelationshipTypeScanWriter;
+import org.neo4j.kernel.api.labelscan.RelationshipTypeUpdate;
 import org.neo4j.kernel.impl.api.BatchTransactionApplier;
 import org.neo4j.kernel.impl.api.TransactionApplier;
 import org.neo4j.kernel.impl.api.index.IndexingService;
@@ -58,36 +60,54 @@ import org.neo4j.kernel.impl.store.NodeLabels;
 import org.neo4j.kernel.impl.store.NodeStore;
 import org.neo4j.kernel.impl.store.record.IndexRule;
 import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
 import org.neo4j.kernel.impl.transaction.command.Command.PropertyCommand;
 import org.neo4j.kernel.impl.transaction.state.IndexUpdates;
 import org.neo4j.kernel.impl.transaction.state.OnlineIndexUpdates;
 import org.neo4j.storageengine.api.CommandsToApply;
 
+import static org.neo4j.kernel.api.labelscan.RelationshipTypeUpdate.NO_TYPE;
+import static org.neo4j.kernel.api.labelscan.RelationshipTypeUpdate.typeChange;
 import static org.neo4j.kernel.impl.store.NodeLabelsField.parseLabelsField;
 
 /**
- * Gather node and property changes, converting them into logical updates to the indexes. {@link #close()} will actually
- * apply the indexes.
+ * Gather node, relationship and property changes, converting them into logical updates to the indexes.
+ * {@link #close()} will actually apply the indexes.
  */
 public class IndexBatchTransactionApplier extends BatchTransactionApplier.Adapter
 {
     private final IndexingService indexingService;
     private final WorkSync<Supplier<LabelScanWriter>,LabelUpdateWork> labelScanStoreSync;
+    private final WorkSync<Supplier<RelationshipTypeScanWriter>,RelationshipTypeUpdateWork> relationshipTypeScanStoreSync;
     private final WorkSync<IndexingUpdateService,IndexUpdatesWork> indexUpdatesSync;
     private final SingleTransactionApplier transactionApplier;
     private final IndexActivator indexActivator;
     private final PropertyPhysicalToLogicalConverter indexUpdateConverter;
 
     private List<NodeLabelUpdate> labelUpdates;
+    private List<RelationshipTypeUpdate> relationshipTypeUpdates;
     private IndexUpdates indexUpdates;
     private long txId;
 
     public IndexBatchTransactionApplier( IndexingService indexingService, WorkSync<Supplier<LabelScanWriter>,LabelUpdateWork> labelScanStoreSync,
             WorkSync<IndexingUpdateService,IndexUpdatesWork> indexUpdatesSync, NodeStore nodeStore, PropertyPhysicalToLogicalConverter indexUpdateConverter,
             IndexActivator indexActivator )
+    {
+        this( indexingService, labelScanStoreSync, null, indexUpdatesSync, nodeStore, indexUpdateConverter, indexActivator );
+    }
+
+    /**
+     * @param relationshipTypeScanStoreSync work sync for applying updates to the relationship type scan store,
+     * or {@code null} if there is no relationship type scan store to keep up to date.
+     */
+    public IndexBatchTransactionApplier( IndexingService indexingService, WorkSync<Supplier<LabelScanWriter>,LabelUpdateWork> labelScanStoreSync,
+            WorkSync<Supplier<RelationshipTypeScanWriter>,RelationshipTypeUpdateWork> relationshipTypeScanStoreSync,
+            WorkSync<IndexingUpdateService,IndexUpdatesWork> indexUpdatesSync, NodeStore nodeStore, PropertyPhysicalToLogicalConverter indexUpdateConverter,
+            IndexActivator indexActivator )
     {
         this.indexingService = indexingService;
         this.labelScanStoreSync = labelScanStoreSync;
+        this.relationshipTypeScanStoreSync = relationshipTypeScanStoreSync;
         this.indexUpdatesSync = indexUpdatesSync;
         this.indexUpdateConverter = indexUpdateConverter;
         this.transactionApplier = new SingleTransactionApplier( nodeStore );
@@ -111,6 +131,13 @@ public class IndexBatchTransactionApplier extends BatchTransactionApplier.Adapte
             labelUpdatesApply = labelScanStoreSync.applyAsync( new LabelUpdateWork( labelUpdates ) );
             labelUpdates = null;
         }
+        AsyncApply relationshipTypeUpdatesApply = null;
+        if ( relationshipTypeUpdates != null )
+        {
+            relationshipTypeUpdatesApply = relationshipTypeScanStoreSync.applyAsync(
+                    new RelationshipTypeUpdateWork( relationshipTypeUpdates ) );
+            relationshipTypeUpdates = null;
+        }
         if ( indexUpdates != null && indexUpdates.hasUpdates() )
         {
             try
@@ -135,6 +162,17 @@ public class IndexBatchTransactionApplier extends BatchTransactionApplier.Adapte
                 throw new IOException( "Failed to flush label updates", e );
             }
         }
+        if ( relationshipTypeUpdatesApply != null )
+        {
+            try
+            {
+                relationshipTypeUpdatesApply.await();
+            }
+            catch ( ExecutionException e )
+            {
+                throw new IOException( "Failed to flush relationship type updates", e );
+            }
+        }
     }
 
     @Override
@@ -216,6 +254,29 @@ public class IndexBatchTransactionApplier extends BatchTransactionApplier.Adapte
             return indexUpdatesExtractor.visitNodeCommand( command );
         }
 
+        @Override
+        public boolean visitRelationshipCommand( Command.RelationshipCommand command )
+        {
+            if ( relationshipTypeScanStoreSync != null )
+            {
+                // for relationship type scan store updates, relationships never change type so only
+                // creations and deletions are of interest
+                RelationshipRecord before = command.getBefore();
+                RelationshipRecord after = command.getAfter();
+                if ( before.inUse() != after.inUse() )
+                {
+                    if ( relationshipTypeUpdates == null )
+                    {
+                        relationshipTypeUpdates = new ArrayList<>();
+                    }
+                    relationshipTypeUpdates.add( after.inUse()
+                            ? typeChange( command.getKey(), NO_TYPE, after.getType(), txId )
+                            : typeChange( command.getKey(), before.getType(), NO_TYPE, txId ) );
+                }
+            }
+            return false;
+        }
+
         @Override
         public boolean visitPropertyCommand( PropertyCommand command )
         {
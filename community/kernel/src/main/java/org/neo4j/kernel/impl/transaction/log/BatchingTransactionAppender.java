@@ -41,12 +41,16 @@ package org.neo4j.kernel.impl.transaction.log;
 import java.io.Flushable;
 import java.io.IOException;
 import java.nio.channels.ClosedChannelException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.LockSupport;
 import java.util.concurrent.locks.ReentrantLock;
 
+import org.neo4j.collection.pool.LinkedQueuePool;
+import org.neo4j.collection.pool.MarshlandPool;
 import org.neo4j.kernel.impl.api.TransactionToApply;
 import org.neo4j.kernel.impl.transaction.TransactionRepresentation;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryWriter;
@@ -86,6 +90,10 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
     private final LogPositionMarker positionMarker = new LogPositionMarker();
     private final DatabaseHealth databaseHealth;
     private final Lock forceLock = new ReentrantLock();
+    // Buffers that committing threads serialize their transactions into before entering the logFile monitor.
+    // Committing threads generally serialize one transaction at a time, so the thread-local marshland pool
+    // mostly hands each thread back the buffer it used for its previous commit.
+    private final MarshlandPool<SerializedTransactionChannel> serializationChannels;
 
     private FlushablePositionAwareChannel writer;
     private TransactionLogWriter transactionLogWriter;
@@ -95,6 +103,19 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
             TransactionMetadataCache transactionMetadataCache, TransactionIdStore transactionIdStore,
             IdOrderingQueue explicitIndexTransactionOrdering, DatabaseHealth databaseHealth )
     {
+        this( logFiles, logRotation, transactionMetadataCache, transactionIdStore, explicitIndexTransactionOrdering, databaseHealth,
+                SerializedTransactionChannel.MAX_SERIALIZED_SIZE );
+    }
+
+    /**
+     * <b>NOTE:</b> for testing only, to be able to lower the size of transactions that are written directly into the log.
+     */
+    BatchingTransactionAppender( LogFiles logFiles, LogRotation logRotation,
+            TransactionMetadataCache transactionMetadataCache, TransactionIdStore transactionIdStore,
+            IdOrderingQueue explicitIndexTransactionOrdering, DatabaseHealth databaseHealth, int maxSerializedSize )
+    {
+        this.serializationChannels =
+                new MarshlandPool<>( new LinkedQueuePool<>( 4, () -> new SerializedTransactionChannel( maxSerializedSize ) ) );
         this.logFile = logFiles.getLogFile();
         this.logRotation = logRotation;
         this.transactionIdStore = transactionIdStore;
@@ -114,35 +135,48 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
     @Override
     public long append( TransactionToApply batch, LogAppendEvent logAppendEvent ) throws IOException
     {
+        // Serialize the transactions before entering the logFile monitor. That way concurrent committers
+        // serialize their commands in parallel and the critical section below only copies the serialized
+        // bytes into the log, instead of every committer waiting for the serialization of large transactions.
+        List<SerializedTransactionChannel> serializedBatch = serialize( batch );
         // Assigned base tx id just to make compiler happy
         long lastTransactionId = TransactionIdStore.BASE_TX_ID;
-        // Synchronized with logFile to get absolute control over concurrent rotations happening
-        synchronized ( logFile )
+        try
         {
-            // Assert that kernel is healthy before making any changes
-            databaseHealth.assertHealthy( IOException.class );
-            try ( SerializeTransactionEvent serialiseEvent = logAppendEvent.beginSerializeTransaction() )
+            // Synchronized with logFile to get absolute control over concurrent rotations happening
+            synchronized ( logFile )
             {
-                // Append all transactions in this batch to the log under the same logFile monitor
-                TransactionToApply tx = batch;
-                while ( tx != null )
+                // Assert that kernel is healthy before making any changes
+                databaseHealth.assertHealthy( IOException.class );
+                try ( SerializeTransactionEvent serialiseEvent = logAppendEvent.beginSerializeTransaction() )
                 {
-                    long transactionId = transactionIdStore.nextCommittingTransactionId();
-
-                    // If we're in a scenario where we're merely replicating transactions, i.e. transaction
-                    // id have already been generated by another entity we simply check that our id
-                    // that we generated match that id. If it doesn't we've run into a problem we can't ´
-                    // really recover from and would point to a bug somewhere.
-                    matchAgainstExpectedTransactionIdIfAny( transactionId, tx );
-
-                    TransactionCommitment commitment = appendToLog( tx.transactionRepresentation(), transactionId );
-                    tx.commitment( commitment, transactionId );
-                    tx.logPosition( commitment.logPosition() );
-                    tx = tx.next();
-                    lastTransactionId = transactionId;
+                    // Append all transactions in this batch to the log under the same logFile monitor
+                    TransactionToApply tx = batch;
+                    int index = 0;
+                    while ( tx != null )
+                    {
+                        long transactionId = transactionIdStore.nextCommittingTransactionId();
+
+                        // If we're in a scenario where we're merely replicating transactions, i.e. transaction
+                        // id have already been generated by another entity we simply check that our id
+                        // that we generated match that id. If it doesn't we've run into a problem we can't ´
+                        // really recover from and would point to a bug somewhere.
+                        matchAgainstExpectedTransactionIdIfAny( transactionId, tx );
+
+                        TransactionCommitment commitment =
+                                appendToLog( tx.transactionRepresentation(), serializedBatch.get( index++ ), transactionId );
+                        tx.commitment( commitment, transactionId );
+                        tx.logPosition( commitment.logPosition() );
+                        tx = tx.next();
+                        lastTransactionId = transactionId;
+                    }
                 }
             }
         }
+        finally
+        {
+            release( serializedBatch );
+        }
 
         // At this point we've appended all transactions in this batch, but we can't mark any of them
         // as committed since they haven't been forced to disk yet. So here we force, or potentially
@@ -162,6 +196,52 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
         return lastTransactionId;
     }
 
+    /**
+     * @return the serialized transactions of the batch, in order, with {@code null} for transactions too large to be
+     * serialized up front, which are instead written directly into the log.
+     */
+    private List<SerializedTransactionChannel> serialize( TransactionToApply batch ) throws IOException
+    {
+        List<SerializedTransactionChannel> serializedBatch = new ArrayList<>( batch.next() == null ? 1 : 4 );
+        try
+        {
+            for ( TransactionToApply tx = batch; tx != null; tx = tx.next() )
+            {
+                SerializedTransactionChannel channel = serializationChannels.acquire();
+                serializedBatch.add( channel );
+                if ( !channel.serialize( tx.transactionRepresentation() ) )
+                {
+                    serializedBatch.set( serializedBatch.size() - 1, null );
+                    release( channel );
+                }
+            }
+        }
+        catch ( Throwable e )
+        {
+            // Nothing has been written to the log at this point, so there's no need to panic
+            release( serializedBatch );
+            throw e;
+        }
+        return serializedBatch;
+    }
+
+    private void release( List<SerializedTransactionChannel> serializedBatch )
+    {
+        for ( SerializedTransactionChannel channel : serializedBatch )
+        {
+            if ( channel != null )
+            {
+                release( channel );
+            }
+        }
+    }
+
+    private void release( SerializedTransactionChannel channel )
+    {
+        channel.clear();
+        serializationChannels.release( channel );
+    }
+
     private void matchAgainstExpectedTransactionIdIfAny( long transactionId, TransactionToApply tx )
     {
         long expectedTransactionId = tx.transactionId();
@@ -212,8 +292,8 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
      * @return A TransactionCommitment instance with metadata about the committed transaction, such as whether or not
      * this transaction contains any explicit index changes.
      */
-    private TransactionCommitment appendToLog( TransactionRepresentation transaction, long transactionId )
-            throws IOException
+    private TransactionCommitment appendToLog( TransactionRepresentation transaction,
+            SerializedTransactionChannel serializedTransaction, long transactionId ) throws IOException
     {
         // Reset command writer so that we, after we've written the transaction, can ask it whether or
         // not any explicit index command was written. If so then there's additional ordering to care about below.
@@ -228,7 +308,15 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
         try
         {
             LogPosition logPositionBeforeCommit = writer.getCurrentPosition( positionMarker ).newPosition();
-            transactionLogWriter.append( transaction, transactionId );
+            if ( serializedTransaction != null )
+            {
+                transactionLogWriter.append( serializedTransaction, transactionId, transaction.getTimeCommitted() );
+            }
+            else
+            {
+                // Too large to have been serialized up front, so stream it straight into the log
+                transactionLogWriter.append( transaction, transactionId );
+            }
             LogPosition logPositionAfterCommit = writer.getCurrentPosition( positionMarker ).newPosition();
 
             long transactionChecksum =
@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.neo4j.io.ByteUnit;
+import org.neo4j.kernel.impl.transaction.TransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryWriter;
+import org.neo4j.util.FeatureToggles;
+
+/**
+ * A growable in-memory {@link FlushableChannel} that a committing thread serializes the start entry and commands of
+ * its transaction into before entering the {@link BatchingTransactionAppender} critical section. Since the
+ * commit entry carries the transaction id, which is only known inside that critical section, it is not part of
+ * the serialized form and is written by {@link TransactionLogWriter#append(SerializedTransactionChannel, long, long)}.
+ * <p>
+ * Instances are pooled and reused. A channel that had to grow beyond {@link #MAX_RETAINED_CAPACITY} to fit a large
+ * transaction shrinks back to its initial capacity when {@link #clear() cleared}, so that the pool doesn't retain
+ * memory for the odd huge transaction.
+ * <p>
+ * Transactions larger than {@link #MAX_SERIALIZED_SIZE} are not serialized up front, since that would keep a copy of the
+ * whole transaction on heap. Those are instead written straight into the log inside the critical section, like before.
+ */
+public class SerializedTransactionChannel implements FlushableChannel, Flushable
+{
+    static final int INITIAL_CAPACITY = (int) ByteUnit.kibiBytes( 8 );
+    static final int MAX_RETAINED_CAPACITY = (int) ByteUnit.mebiBytes( 1 );
+    static final int MAX_SERIALIZED_SIZE =
+            FeatureToggles.getInteger( SerializedTransactionChannel.class, "maxSerializedSize", (int) ByteUnit.mebiBytes( 8 ) );
+
+    private final TransactionLogWriter transactionLogWriter = new TransactionLogWriter( new LogEntryWriter( this ) );
+    private final int maxSize;
+    private ByteBuffer buffer = ByteBuffer.allocate( INITIAL_CAPACITY );
+
+    public SerializedTransactionChannel()
+    {
+        this( MAX_SERIALIZED_SIZE );
+    }
+
+    SerializedTransactionChannel( int maxSize )
+    {
+        this.maxSize = Math.min( maxSize, Integer.MAX_VALUE - 8 );
+    }
+
+    /**
+     * Clears this channel and serializes the start entry and commands of the given transaction into it.
+     *
+     * @param transaction the transaction to serialize.
+     * @return {@code true} if the transaction was serialized, or {@code false} if it is larger than the maximum size of
+     * this channel, in which case this channel is left empty and the transaction should be written directly into the log.
+     * @throws IOException if any of the commands fail to serialize.
+     */
+    public boolean serialize( TransactionRepresentation transaction ) throws IOException
+    {
+        clear();
+        try
+        {
+            transactionLogWriter.serialize( transaction );
+            return true;
+        }
+        catch ( TransactionTooLargeException e )
+        {
+            clear();
+            return false;
+        }
+    }
+
+    /**
+     * Copies the serialized bytes of this channel into the given channel.
+     *
+     * @param channel the channel to write the serialized bytes into.
+     * @throws IOException if the given channel throws {@link IOException}.
+     */
+    public void writeTo( FlushableChannel channel ) throws IOException
+    {
+        channel.put( buffer.array(), buffer.position() );
+    }
+
+    /**
+     * @return the number of serialized bytes in this channel.
+     */
+    public int size()
+    {
+        return buffer.position();
+    }
+
+    public void clear()
+    {
+        if ( buffer.capacity() > MAX_RETAINED_CAPACITY )
+        {
+            buffer = ByteBuffer.allocate( INITIAL_CAPACITY );
+        }
+        else
+        {
+            buffer.clear();
+        }
+    }
+
+    @Override
+    public Flushable prepareForFlush()
+    {
+        return this;
+    }
+
+    @Override
+    public FlushableChannel put( byte value )
+    {
+        bufferWithGuaranteedSpace( 1 ).put( value );
+        return this;
+    }
+
+    @Override
+    public FlushableChannel putShort( short value )
+    {
+        bufferWithGuaranteedSpace( 2 ).putShort( value );
+        return this;
+    }
+
+    @Override
+    public FlushableChannel putInt( int value )
+    {
+        bufferWithGuaranteedSpace( 4 ).putInt( value );
+        return this;
+    }
+
+    @Override
+    public FlushableChannel putLong( long value )
+    {
+        bufferWithGuaranteedSpace( 8 ).putLong( value );
+        return this;
+    }
+
+    @Override
+    public FlushableChannel putFloat( float value )
+    {
+        bufferWithGuaranteedSpace( 4 ).putFloat( value );
+        return this;
+    }
+
+    @Override
+    public FlushableChannel putDouble( double value )
+    {
+        bufferWithGuaranteedSpace( 8 ).putDouble( value );
+        return this;
+    }
+
+    @Override
+    public FlushableChannel put( byte[] value, int length )
+    {
+        bufferWithGuaranteedSpace( length ).put( value, 0, length );
+        return this;
+    }
+
+    private ByteBuffer bufferWithGuaranteedSpace( int spaceInBytes )
+    {
+        if ( buffer.remaining() < spaceInBytes )
+        {
+            long required = (long) buffer.position() + spaceInBytes;
+            if ( required > maxSize )
+            {
+                throw TransactionTooLargeException.INSTANCE;
+            }
+            int newCapacity = (int) Math.min( maxSize, Math.max( required, (long) buffer.capacity() << 1 ) );
+            ByteBuffer grown = ByteBuffer.allocate( newCapacity );
+            buffer.flip();
+            grown.put( buffer );
+            buffer = grown;
+        }
+        return buffer;
+    }
+
+    @Override
+    public void flush()
+    {
+    }
+
+    @Override
+    public void close()
+    {
+    }
+
+    /**
+     * Thrown from within command serialization to abort serializing a transaction larger than the maximum size.
+     * Never escapes {@link #serialize(TransactionRepresentation)}.
+     */
+    private static class TransactionTooLargeException extends RuntimeException
+    {
+        static final TransactionTooLargeException INSTANCE = new TransactionTooLargeException();
+
+        private TransactionTooLargeException()
+        {
+            super( null, null, false, false );
+        }
+    }
+}
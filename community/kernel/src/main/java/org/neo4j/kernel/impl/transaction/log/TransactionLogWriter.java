@@ -53,6 +53,35 @@ public class TransactionLogWriter
     }
 
     public void append( TransactionRepresentation transaction, long transactionId ) throws IOException
+    {
+        serialize( transaction );
+
+        // Write commit record
+        writer.writeCommitEntry( transactionId, transaction.getTimeCommitted() );
+    }
+
+    /**
+     * Appends a transaction whose start entry and commands have already been serialized, followed by its commit entry.
+     *
+     * @param serializedTransaction the start entry and commands of the transaction, serialized with
+     * {@link SerializedTransactionChannel#serialize(TransactionRepresentation)}.
+     * @param transactionId the id of the transaction.
+     * @param timeCommitted the commit timestamp of the transaction.
+     * @throws IOException if the underlying channel throws {@link IOException}.
+     */
+    public void append( SerializedTransactionChannel serializedTransaction, long transactionId, long timeCommitted )
+            throws IOException
+    {
+        writer.writeSerialized( serializedTransaction );
+
+        // Write commit record
+        writer.writeCommitEntry( transactionId, timeCommitted );
+    }
+
+    /**
+     * Writes the start entry and the commands of the given transaction, i.e. everything but the commit entry.
+     */
+    void serialize( TransactionRepresentation transaction ) throws IOException
     {
         writer.writeStartEntry( transaction.getMasterId(), transaction.getAuthorId(),
                 transaction.getTimeStarted(), transaction.getLatestCommittedTxWhenStarted(),
@@ -60,9 +89,6 @@ public class TransactionLogWriter
 
         // Write all the commands to the log channel
         writer.serialize( transaction );
-
-        // Write commit record
-        writer.writeCommitEntry( transactionId, transaction.getTimeCommitted() );
     }
 
     public void checkPoint( LogPosition logPosition ) throws IOException
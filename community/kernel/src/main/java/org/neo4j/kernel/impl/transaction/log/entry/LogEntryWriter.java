@@ -46,6 +46,7 @@ import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
 import org.neo4j.kernel.impl.transaction.TransactionRepresentation;
 import org.neo4j.kernel.impl.transaction.log.FlushableChannel;
 import org.neo4j.kernel.impl.transaction.log.LogPosition;
+import org.neo4j.kernel.impl.transaction.log.SerializedTransactionChannel;
 import org.neo4j.storageengine.api.StorageCommand;
 
 import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryByteCodes.CHECK_POINT;
@@ -119,6 +120,11 @@ public class LogEntryWriter
         }
     }
 
+    public void writeSerialized( SerializedTransactionChannel serializedTransaction ) throws IOException
+    {
+        serializedTransaction.writeTo( channel );
+    }
+
     public void writeCheckPointEntry( LogPosition logPosition ) throws IOException
     {
         writeLogEntryHeader( CHECK_POINT );
@@ -38,6 +38,8 @@
  */
 package org.neo4j.kernel.impl.util.collection;
 
+import org.neo4j.kernel.api.exceptions.Status;
+import org.neo4j.memory.BoundedMemoryTracker;
 import org.neo4j.memory.LocalMemoryTracker;
 
 public interface CollectionsFactorySupplier
@@ -47,4 +49,20 @@ public interface CollectionsFactorySupplier
     CollectionsFactorySupplier OFF_HEAP = () -> new OffHeapCollectionsFactory( new LocalMemoryTracker() );
 
     CollectionsFactory create();
+
+    /**
+     * @param maxTransactionMemory maximum number of off-heap bytes the collections of a single factory, i.e. of a single transaction,
+     * may use at the same time, or {@code 0} for no limit.
+     * @return a supplier of off-heap collection factories that refuse allocations beyond the given limit with
+     * {@link Status.Transaction#TransactionOutOfMemoryError}.
+     */
+    static CollectionsFactorySupplier offHeap( long maxTransactionMemory )
+    {
+        if ( maxTransactionMemory == 0 )
+        {
+            return OFF_HEAP;
+        }
+        return () -> new OffHeapCollectionsFactory(
+                new BoundedMemoryTracker( maxTransactionMemory, Status.Transaction.TransactionOutOfMemoryError ) );
+    }
 }
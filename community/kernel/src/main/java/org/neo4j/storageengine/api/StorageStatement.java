@@ -60,6 +60,7 @@ import org.neo4j.kernel.impl.store.record.RelationshipGroupRecord;
 import org.neo4j.kernel.impl.store.record.RelationshipRecord;
 import org.neo4j.storageengine.api.schema.IndexReader;
 import org.neo4j.storageengine.api.schema.LabelScanReader;
+import org.neo4j.storageengine.api.schema.RelationshipTypeScanReader;
 
 /**
  * A statement for accessing data from a {@link StoreReadLayer}. Most data about the entities of a graph
@@ -154,6 +155,12 @@ public interface StorageStatement extends AutoCloseable
      */
     LabelScanReader getLabelScanReader();
 
+    /**
+     * @return {@link RelationshipTypeScanReader} capable of reading relationships for specific relationship type ids,
+     * or {@code null} if no relationship type scan store is available.
+     */
+    RelationshipTypeScanReader getRelationshipTypeScanReader();
+
     /**
      * Returns an {@link IndexReader} for searching entity ids given property values. One reader is allocated
      * and kept per index throughout the life of a statement, making the returned reader repeatable-read isolation.
@@ -245,6 +252,12 @@ public interface StorageStatement extends AutoCloseable
                 throws InvalidRecordException;
 
         long getHighestPossibleIdInUse();
+
+        /**
+         * @return the number of records that fit in one page of the underlying store, useful for aligning
+         * work on the store to page boundaries.
+         */
+        int getRecordsPerPage();
     }
 
     interface Nodes extends RecordReads<NodeRecord>
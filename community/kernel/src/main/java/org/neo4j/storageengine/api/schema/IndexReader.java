@@ -89,6 +89,18 @@ public interface IndexReader extends Resource
      */
     boolean hasFullValuePrecision( IndexQuery... predicates );
 
+    /**
+     * @param indexOrder order in which the results are requested from {@link #query(IndexProgressor.NodeValueClient, IndexOrder, IndexQuery...)}.
+     * @param predicates query to determine whether or not index has full value precision for.
+     * @return whether or not this reader will only return 100% matching results from
+     * {@link #query(IndexProgressor.NodeValueClient, IndexOrder, IndexQuery...)} when queried in the given order.
+     * Readers which answer a query differently depending on the requested order need to override this.
+     */
+    default boolean hasFullValuePrecision( IndexOrder indexOrder, IndexQuery... predicates )
+    {
+        return hasFullValuePrecision( predicates );
+    }
+
     /**
      * Initializes {@code client} to be able to progress through all distinct values in this index. {@link IndexProgressor.NodeValueClient}
      * is used because it has a perfect method signature, even if the {@code reference} argument will instead be used
@@ -103,6 +115,23 @@ public interface IndexReader extends Resource
      */
     void distinctValues( IndexProgressor.NodeValueClient client, PropertyAccessor propertyAccessor );
 
+    /**
+     * Initializes {@code client} to be able to progress through the nodes with a point value in the coordinate reference system
+     * of the given predicate, nearest to {@link IndexQuery.NearestNeighbourPredicate#point()} first. The nodes are found lazily,
+     * the further the client progresses the larger the searched part of the index gets. The values given to the client are the
+     * exact property values, so that the client doesn't need to filter or re-order the results.
+     *
+     * @param client {@link IndexProgressor.NodeValueClient} to get initialized with this progression.
+     * @param propertyAccessor used for getting the exact values of lossy indexed points, for as long as the client progresses.
+     * @param predicate the point to find the nearest neighbours of.
+     * @throws IndexNotApplicableKernelException if this index can't order its values by distance.
+     */
+    default void nearestNeighbours( IndexProgressor.NodeValueClient client, PropertyAccessor propertyAccessor,
+            IndexQuery.NearestNeighbourPredicate predicate ) throws IndexNotApplicableKernelException
+    {
+        throw new IndexNotApplicableKernelException( "Index doesn't support nearest neighbour queries: " + predicate );
+    }
+
     IndexReader EMPTY = new IndexReader()
     {
         // Used for checking index correctness
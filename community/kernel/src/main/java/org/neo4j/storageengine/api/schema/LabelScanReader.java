@@ -60,6 +60,23 @@ public interface LabelScanReader extends Resource
      */
     void nodesWithLabel( IndexProgressor.NodeLabelClient client, int labelId );
 
+    /**
+     * Sets the client up for a label scan on <code>labelId</code>, limited to nodes with ids in the given range.
+     * Used for splitting a label scan into batches that can be processed in parallel.
+     *
+     * @param client the client to communicate with
+     * @param labelId label token id
+     * @param fromId lowest node id to include, inclusive
+     * @param toId highest node id to include, exclusive
+     */
+    void nodesWithLabel( IndexProgressor.NodeLabelClient client, int labelId, long fromId, long toId );
+
+    /**
+     * @return number of node ids in each range of the label scan store. Limiting a label scan to node ids from one
+     * multiple of the range size up to another means that no range is read by more than one of the scans.
+     */
+    int rangeSize();
+
     /**
      * @param labelIds label token ids.
      * @return node ids with any of the given label ids.
@@ -41,12 +41,15 @@ package org.neo4j.storageengine.api.schema;
 import org.neo4j.collection.primitive.PrimitiveLongResourceIterator;
 import org.neo4j.values.storable.Value;
 
-class NodeValueIndexProgressor implements IndexProgressor
+/**
+ * {@link IndexProgressor} giving the nodes of an id iterator, without values, to its client.
+ */
+public class NodeValueIndexProgressor implements IndexProgressor
 {
     private final PrimitiveLongResourceIterator ids;
     private final NodeValueClient client;
 
-    NodeValueIndexProgressor( PrimitiveLongResourceIterator ids, NodeValueClient client )
+    public NodeValueIndexProgressor( PrimitiveLongResourceIterator ids, NodeValueClient client )
     {
         this.ids = ids;
         this.client = client;
@@ -41,7 +41,6 @@ package org.neo4j.storageengine.api.txstate;
 import java.util.Iterator;
 
 import org.neo4j.collection.primitive.PrimitiveIntSet;
-import org.neo4j.collection.primitive.PrimitiveLongIterator;
 import org.neo4j.cursor.Cursor;
 import org.neo4j.internal.kernel.api.IndexQuery;
 import org.neo4j.internal.kernel.api.exceptions.schema.ConstraintValidationException;
@@ -51,7 +50,6 @@ import org.neo4j.kernel.api.exceptions.schema.CreateConstraintFailureException;
 import org.neo4j.kernel.api.schema.index.SchemaIndexDescriptor;
 import org.neo4j.kernel.impl.api.RelationshipVisitor;
 import org.neo4j.kernel.impl.api.state.GraphState;
-import org.neo4j.kernel.impl.api.store.RelationshipIterator;
 import org.neo4j.storageengine.api.Direction;
 import org.neo4j.storageengine.api.NodeItem;
 import org.neo4j.storageengine.api.PropertyItem;
@@ -76,7 +74,7 @@ public interface ReadableTransactionState
     /**
      * Returns all nodes that, in this tx, have had the labels changed.
      */
-    ReadableDiffSets<Long> nodesWithLabelChanged( int label );
+    PrimitiveLongReadableDiffSets nodesWithLabelChanged( int label );
 
     /**
      * Returns all nodes that, in this tx, have had any of the labels changed.
@@ -91,12 +89,12 @@ public interface ReadableTransactionState
     /**
      * Returns nodes that have been added and removed in this tx.
      */
-    ReadableDiffSets<Long> addedAndRemovedNodes();
+    PrimitiveLongReadableDiffSets addedAndRemovedNodes();
 
     /**
      * Returns rels that have been added and removed in this tx.
      */
-    ReadableRelationshipDiffSets<Long> addedAndRemovedRelationships();
+    PrimitiveLongReadableDiffSets addedAndRemovedRelationships();
 
     /**
      * Nodes that have had labels, relationships, or properties modified in this tx.
@@ -128,10 +126,6 @@ public interface ReadableTransactionState
 
     int augmentNodeDegree( long node, int committedDegree, Direction direction, int relType );
 
-    PrimitiveLongIterator augmentNodesGetAll( PrimitiveLongIterator committed );
-
-    RelationshipIterator augmentRelationshipsGetAll( RelationshipIterator committed );
-
     /**
      * @return {@code true} if the relationship was visited in this state, i.e. if it was created
      * by this current transaction, otherwise {@code false} where the relationship might need to be
@@ -167,6 +161,13 @@ public interface ReadableTransactionState
 
     PrimitiveLongReadableDiffSets indexUpdatesForRangeSeekByPrefix( SchemaIndexDescriptor index, String prefix );
 
+    /**
+     * @param index composite index to get updates for.
+     * @param predicates one predicate per property of the index, all of which must accept the values of an update for it to be included.
+     * @return changes to the index matching all the predicates.
+     */
+    PrimitiveLongReadableDiffSets indexUpdatesForCompositeQuery( SchemaIndexDescriptor index, IndexQuery[] predicates );
+
     NodeState getNodeState( long id );
 
     RelationshipState getRelationshipState( long id );
@@ -274,7 +274,7 @@ public abstract class LabelScanStoreTest
         int labelId1 = 1;
         int labelId2 = 2;
         long nodeId1 = 10;
-        long nodeId2 = 1280;
+        long nodeId2 = 100_000;
         start( asList(
                 labelChanges( nodeId1, NO_LABELS, new long[]{labelId1} ),
                 labelChanges( nodeId2, NO_LABELS, new long[]{labelId1, labelId2} )
@@ -45,6 +45,7 @@ import java.util.Arrays;
 
 import org.neo4j.collection.primitive.PrimitiveLongCollections;
 import org.neo4j.collection.primitive.PrimitiveLongIterator;
+import org.neo4j.helpers.Exceptions;
 import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
 import org.neo4j.internal.kernel.api.IndexQuery;
 import org.neo4j.kernel.api.schema.index.SchemaIndexDescriptor;
@@ -124,11 +125,11 @@ public class CompositeIndexPopulatorCompatibility extends IndexProviderCompatibi
             IndexSamplingConfig indexSamplingConfig = new IndexSamplingConfig( Config.defaults() );
             withPopulator( indexProvider.getPopulator( 17, descriptor, indexSamplingConfig ), p ->
             {
-                p.add( Arrays.asList(
-                        IndexEntryUpdate.add( nodeId1, descriptor.schema(), value1, value2 ),
-                        IndexEntryUpdate.add( nodeId2, descriptor.schema(), value1, value2 ) ) );
                 try
                 {
+                    p.add( Arrays.asList(
+                            IndexEntryUpdate.add( nodeId1, descriptor.schema(), value1, value2 ),
+                            IndexEntryUpdate.add( nodeId2, descriptor.schema(), value1, value2 ) ) );
                     NodePropertyAccessor propertyAccessor =
                             new NodePropertyAccessor( nodeId1, descriptor.schema(), value1, value2 );
                     propertyAccessor.addNode( nodeId2, descriptor.schema(), value1, value2 );
@@ -137,11 +138,20 @@ public class CompositeIndexPopulatorCompatibility extends IndexProviderCompatibi
                     fail( "expected exception" );
                 }
                 // then
-                catch ( IndexEntryConflictException conflict )
+                catch ( Exception e )
                 {
-                    assertEquals( nodeId1, conflict.getExistingNodeId() );
-                    assertEquals( ValueTuple.of( value1, value2 ), conflict.getPropertyValues() );
-                    assertEquals( nodeId2, conflict.getAddedNodeId() );
+                    Throwable root = Exceptions.rootCause( e );
+                    if ( root instanceof IndexEntryConflictException )
+                    {
+                        IndexEntryConflictException conflict = (IndexEntryConflictException)root;
+                        assertEquals( nodeId1, conflict.getExistingNodeId() );
+                        assertEquals( ValueTuple.of( value1, value2 ), conflict.getPropertyValues() );
+                        assertEquals( nodeId2, conflict.getAddedNodeId() );
+                    }
+                    else
+                    {
+                        throw e;
+                    }
                 }
             } );
         }
@@ -56,6 +56,7 @@ import org.neo4j.helpers.MathUtil;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorCounters;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.kernel.impl.locking.LockWaitEvent;
+import org.neo4j.kernel.impl.query.QueryMemoryPool;
 import org.neo4j.kernel.impl.query.clientconnection.ClientConnectionInfo;
 import org.neo4j.resources.HeapAllocation;
 import org.neo4j.storageengine.api.lock.ResourceType;
@@ -83,6 +84,7 @@ public class ExecutingQueryTest
     public final FakeHeapAllocation heapAllocation = new FakeHeapAllocation().add( randomLong( 0x1_0000_0000L ) );
     private final PageCursorCountersStub page = new PageCursorCountersStub();
     private long lockCount;
+    private final QueryMemoryTracker memoryTracker = new QueryMemoryPool( true, 0, 0 ).newTracker();
     private ExecutingQuery query = createExecutingquery( 1, "hello world", page, clock, cpuClock, heapAllocation );
     private ExecutingQuery subQuery = createExecutingquery( 2, "goodbye world", page, clock, cpuClock, heapAllocation );
 
@@ -261,7 +263,8 @@ public class ExecutingQueryTest
                 Thread.currentThread().getName(),
                 clock,
                 FakeCpuClock.NOT_AVAILABLE,
-                HeapAllocation.NOT_AVAILABLE );
+                HeapAllocation.NOT_AVAILABLE,
+                QueryMemoryTracker.NONE );
 
         // when
         QuerySnapshot snapshot = query.snapshot();
@@ -307,13 +310,31 @@ public class ExecutingQueryTest
                 Thread.currentThread().getName(),
                 clock,
                 FakeCpuClock.NOT_AVAILABLE,
-                HeapAllocation.NOT_AVAILABLE );
+                HeapAllocation.NOT_AVAILABLE,
+                QueryMemoryTracker.NONE );
 
         // when
         QuerySnapshot snapshot = query.snapshot();
 
         // then
         assertNull( snapshot.allocatedBytes() );
+        assertNull( snapshot.estimatedHeapBytes() );
+        assertNull( snapshot.peakEstimatedHeapBytes() );
+    }
+
+    @Test
+    public void shouldReportEstimatedHeap()
+    {
+        // given
+        memoryTracker.allocated( 4096 );
+        memoryTracker.deallocated( 1024 );
+
+        // when
+        QuerySnapshot snapshot = query.snapshot();
+
+        // then
+        assertEquals( 3072L, snapshot.estimatedHeapBytes().longValue() );
+        assertEquals( 4096L, snapshot.peakEstimatedHeapBytes().longValue() );
     }
 
     @Test
@@ -427,7 +448,7 @@ public class ExecutingQueryTest
     {
         return new ExecutingQuery( queryId, ClientConnectionInfo.EMBEDDED_CONNECTION, "neo4j", hello_world,
                 EMPTY_MAP, Collections.emptyMap(), () -> lockCount, page, Thread.currentThread().getId(),
-                Thread.currentThread().getName(), clock, cpuClock, heapAllocation );
+                Thread.currentThread().getName(), clock, cpuClock, heapAllocation, memoryTracker );
     }
 
     private static class PageCursorCountersStub implements PageCursorCounters
@@ -230,6 +230,19 @@ public class BuiltInProceduresTest
                         "value" +
                         " :: STRING?)",
                         "List the currently active config of Neo4j.", "DBMS" ),
+                record( "dbms.pageCache.fileStats",
+                        "dbms.pageCache.fileStats() :: (file :: STRING?, pins :: INTEGER?, hits :: INTEGER?, faults :: INTEGER?, " +
+                                "evictions :: INTEGER?, flushes :: INTEGER?, bytesRead :: INTEGER?, bytesWritten :: INTEGER?, " +
+                                "hitRatio :: FLOAT?, faultLatencyP50Micros :: INTEGER?, faultLatencyP99Micros :: INTEGER?)",
+                        "List the page cache statistics of each file that is mapped into the page cache.", "DBMS" ),
+                record( "dbms.locks.waitStats",
+                        "dbms.locks.waitStats() :: (resourceType :: STRING?, waits :: INTEGER?, totalWaitMicros :: INTEGER?, maxWaitMicros :: INTEGER?, " +
+                                "waitP50Micros :: INTEGER?, waitP99Micros :: INTEGER?)",
+                        "List the time spent waiting for locks, per resource type.", "DBMS" ),
+                record( "dbms.locks.hotResources",
+                        "dbms.locks.hotResources(limit = 10 :: INTEGER?) :: (resourceType :: STRING?, resourceId :: INTEGER?, waits :: INTEGER?, " +
+                                "exclusiveWaits :: INTEGER?, totalWaitMicros :: INTEGER?, maxWaitMicros :: INTEGER?)",
+                        "List the resources that lock clients have spent the most time waiting for, most contended first.", "DBMS" ),
                 record( "db.awaitIndex", "db.awaitIndex(index :: STRING?, timeOutSeconds = 300 :: INTEGER?) :: VOID",
                         "Wait for an index to come online (for example: CALL db.awaitIndex(\":Person(name)\")).", "READ" ),
                 record( "db.awaitIndexes", "db.awaitIndexes(timeOutSeconds = 300 :: INTEGER?) :: VOID",
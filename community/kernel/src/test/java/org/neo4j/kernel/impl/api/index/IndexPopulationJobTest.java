@@ -50,11 +50,13 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.IntPredicate;
 
 import org.neo4j.graphdb.Label;
 import org.neo4j.graphdb.Node;
 import org.neo4j.graphdb.factory.GraphDatabaseSettings;
+import org.neo4j.helpers.CancellationRequest;
 import org.neo4j.helpers.collection.Pair;
 import org.neo4j.helpers.collection.Visitor;
 import org.neo4j.internal.kernel.api.InternalIndexState;
@@ -97,10 +99,12 @@ import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.sameInstance;
 import static org.hamcrest.core.IsEqual.equalTo;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -180,7 +184,8 @@ public class IndexPopulationJobTest
 
         verify( populator ).create();
         verify( populator ).includeSample( update );
-        verify( populator, times( 2 ) ).add( any( Collection.class) );
+        verify( populator, times( 3 ) ).add( any( Collection.class) );
+        verify( populator ).scanCompleted( any( CancellationRequest.class ) );
         verify( populator ).sampleResult();
         verify( populator ).close( true );
 
@@ -228,7 +233,8 @@ public class IndexPopulationJobTest
         verify( populator ).create();
         verify( populator ).includeSample( update1 );
         verify( populator ).includeSample( update2 );
-        verify( populator, times( 2 ) ).add( anyCollection() );
+        verify( populator, times( 3 ) ).add( anyCollection() );
+        verify( populator ).scanCompleted( any( CancellationRequest.class ) );
         verify( populator ).sampleResult();
         verify( populator ).close( true );
 
@@ -348,6 +354,32 @@ public class IndexPopulationJobTest
         verify( index, never() ).flip( any(), any() );
     }
 
+    @Test
+    public void shouldNotFlipIfCancelledWhileCompletingIndexAfterScan() throws Exception
+    {
+        // GIVEN
+        createNode( map( name, "Mattias" ), FIRST );
+        IndexPopulator populator = mock( IndexPopulator.class );
+        FlippableIndexProxy index = mock( FlippableIndexProxy.class );
+        IndexPopulationJob job = newIndexPopulationJob( populator, index, false );
+        AtomicReference<CancellationRequest> cancellation = new AtomicReference<>();
+        doAnswer( invocation ->
+        {
+            job.cancel();
+            cancellation.set( invocation.getArgument( 0 ) );
+            return null;
+        } ).when( populator ).scanCompleted( any( CancellationRequest.class ) );
+
+        // WHEN
+        job.run();
+
+        // THEN
+        assertTrue( cancellation.get().cancellationRequested() );
+        verify( populator, times( 1 ) ).close( false );
+        verify( populator, never() ).close( true );
+        verify( index, never() ).flip( any(), any() );
+    }
+
     @Test
     public void shouldLogJobProgress() throws Exception
     {
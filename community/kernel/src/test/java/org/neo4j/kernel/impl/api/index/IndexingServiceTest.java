@@ -66,6 +66,7 @@ import java.util.function.IntPredicate;
 import org.neo4j.collection.primitive.PrimitiveLongObjectMap;
 import org.neo4j.graphdb.ResourceIterator;
 import org.neo4j.graphdb.factory.GraphDatabaseSettings;
+import org.neo4j.helpers.CancellationRequest;
 import org.neo4j.helpers.collection.BoundedIterable;
 import org.neo4j.helpers.collection.Visitor;
 import org.neo4j.internal.kernel.api.InternalIndexState;
@@ -308,6 +309,7 @@ public class IndexingServiceTest
         order.verify( populator ).create();
         order.verify( populator ).includeSample( add( 1, "value1" ) );
         order.verify( populator, times( 2 ) ).add( any( Collection.class ) );
+        order.verify( populator ).scanCompleted( any( CancellationRequest.class ) );
 
         // invoked from indexAllNodes(), empty because the id we added (2) is bigger than the one we indexed (1)
         //
@@ -315,6 +317,7 @@ public class IndexingServiceTest
         //  just for the purpose of testing this behavior)
         order.verify( populator ).newPopulatingUpdater( storeView );
         order.verify( updater ).close();
+        order.verify( populator ).add( any( Collection.class ) );
         order.verify( populator ).sampleResult();
         order.verify( populator ).close( true );
         verifyNoMoreInteractions( updater );
@@ -48,8 +48,11 @@ import org.mockito.junit.MockitoJUnitRunner;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.IntPredicate;
 
+import org.neo4j.helpers.CancellationRequest;
 import org.neo4j.helpers.collection.Visitor;
 import org.neo4j.internal.kernel.api.schema.LabelSchemaDescriptor;
 import org.neo4j.kernel.api.exceptions.index.FlipFailedKernelException;
@@ -67,6 +70,7 @@ import org.neo4j.kernel.impl.api.index.MultipleIndexPopulator.IndexPopulation;
 import org.neo4j.logging.LogProvider;
 import org.neo4j.storageengine.api.schema.IndexSample;
 
+import static java.util.concurrent.TimeUnit.MINUTES;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
@@ -141,6 +145,27 @@ public class MultipleIndexPopulatorTest
         verify( indexPopulation.populator, never() ).close( false );
     }
 
+    @Test
+    public void populationCanBeCanceledWhileCompletingIndexAfterScan() throws Exception
+    {
+        IndexPopulator populator = createIndexPopulator();
+        IndexPopulation indexPopulation = addPopulator( populator, 1 );
+        AtomicReference<CancellationRequest> cancellationAfterCancel = new AtomicReference<>();
+        doAnswer( invocation ->
+        {
+            // Canceling from another thread would block if the index was completed while holding the populator lock
+            CompletableFuture.runAsync( () -> multipleIndexPopulator.cancelIndexPopulation( indexPopulation ) ).get( 1, MINUTES );
+            cancellationAfterCancel.set( invocation.getArgument( 0 ) );
+            return null;
+        } ).when( populator ).scanCompleted( any( CancellationRequest.class ) );
+
+        multipleIndexPopulator.scanCompleted( CancellationRequest.NEVER_CANCELLED );
+
+        assertTrue( cancellationAfterCancel.get().cancellationRequested() );
+        verify( populator ).close( false );
+        assertFalse( multipleIndexPopulator.hasPopulators() );
+    }
+
     @Test
     public void testMultiplePopulatorsCreation() throws Exception
     {
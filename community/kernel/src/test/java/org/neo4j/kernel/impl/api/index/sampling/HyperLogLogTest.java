@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api.index.sampling;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.neo4j.test.rule.RandomRule;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HyperLogLogTest
+{
+    @Rule
+    public final RandomRule random = new RandomRule();
+
+    @Test
+    public void shouldEstimateZeroForEmptySketch()
+    {
+        assertEquals( 0, new HyperLogLog().estimate() );
+    }
+
+    @Test
+    public void shouldEstimateSmallCardinalitiesAlmostExactly()
+    {
+        // given
+        HyperLogLog sketch = new HyperLogLog();
+
+        // when
+        for ( long i = 0; i < 100; i++ )
+        {
+            sketch.add( HyperLogLog.hash( i ) );
+            sketch.add( HyperLogLog.hash( i ) );
+        }
+
+        // then
+        assertWithin( 100, sketch.estimate(), 0.02 );
+    }
+
+    @Test
+    public void shouldEstimateLargeCardinalities()
+    {
+        // given
+        HyperLogLog sketch = new HyperLogLog();
+        long offset = random.nextLong();
+        int distinct = 1_000_000;
+
+        // when
+        for ( int i = 0; i < distinct; i++ )
+        {
+            sketch.add( HyperLogLog.hash( offset + i ) );
+        }
+
+        // then
+        assertWithin( distinct, sketch.estimate(), 0.05 );
+    }
+
+    @Test
+    public void shouldCopyAndRestoreRegisters()
+    {
+        // given
+        HyperLogLog sketch = new HyperLogLog();
+        for ( long i = 0; i < 10_000; i++ )
+        {
+            sketch.add( HyperLogLog.hash( i ) );
+        }
+
+        // when
+        HyperLogLog copy = new HyperLogLog();
+        copy.copyFrom( sketch );
+        HyperLogLog restored = new HyperLogLog();
+        for ( int i = 0; i < HyperLogLog.REGISTER_COUNT; i++ )
+        {
+            restored.updateRegister( i, sketch.register( i ) );
+        }
+
+        // then
+        assertEquals( sketch.estimate(), copy.estimate() );
+        assertEquals( sketch.estimate(), restored.estimate() );
+        sketch.clear();
+        assertEquals( 0, sketch.estimate() );
+    }
+
+    private static void assertWithin( long expected, long actual, double error )
+    {
+        assertTrue( "expected " + expected + " but was " + actual, Math.abs( expected - actual ) <= expected * error );
+    }
+}
@@ -171,6 +171,19 @@ public class BuiltInProceduresIT extends KernelIntegrationTest
                         "dbms.listConfig(searchString =  :: STRING?) :: (name :: STRING?, description :: STRING?, " +
                         "value :: STRING?)",
                         "List the currently active config of Neo4j.", "DBMS"} ),
+                equalTo( new Object[]{"dbms.pageCache.fileStats",
+                        "dbms.pageCache.fileStats() :: (file :: STRING?, pins :: INTEGER?, hits :: INTEGER?, faults :: INTEGER?, " +
+                                "evictions :: INTEGER?, flushes :: INTEGER?, bytesRead :: INTEGER?, bytesWritten :: INTEGER?, " +
+                                "hitRatio :: FLOAT?, faultLatencyP50Micros :: INTEGER?, faultLatencyP99Micros :: INTEGER?)",
+                        "List the page cache statistics of each file that is mapped into the page cache.", "DBMS"} ),
+                equalTo( new Object[]{"dbms.locks.waitStats",
+                        "dbms.locks.waitStats() :: (resourceType :: STRING?, waits :: INTEGER?, totalWaitMicros :: INTEGER?, maxWaitMicros :: INTEGER?, " +
+                                "waitP50Micros :: INTEGER?, waitP99Micros :: INTEGER?)",
+                        "List the time spent waiting for locks, per resource type.", "DBMS"} ),
+                equalTo( new Object[]{"dbms.locks.hotResources",
+                        "dbms.locks.hotResources(limit = 10 :: INTEGER?) :: (resourceType :: STRING?, resourceId :: INTEGER?, waits :: INTEGER?, " +
+                                "exclusiveWaits :: INTEGER?, totalWaitMicros :: INTEGER?, maxWaitMicros :: INTEGER?)",
+                        "List the resources that lock clients have spent the most time waiting for, most contended first.", "DBMS"} ),
                 equalTo( new Object[]{"db.constraints", "db.constraints() :: (description :: STRING?)",
                         "List all constraints in the database.", "READ"} ),
                 equalTo( new Object[]{"db.indexes",
@@ -61,12 +61,15 @@ import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
 
+import org.neo4j.collection.primitive.PrimitiveLongSet;
 import org.neo4j.cursor.Cursor;
 import org.neo4j.helpers.collection.Iterables;
 import org.neo4j.helpers.collection.Pair;
 import org.neo4j.internal.kernel.api.IndexQuery;
 import org.neo4j.internal.kernel.api.exceptions.schema.ConstraintValidationException;
 import org.neo4j.internal.kernel.api.schema.constraints.ConstraintDescriptor;
+import org.neo4j.io.ByteUnit;
+import org.neo4j.kernel.api.exceptions.Status;
 import org.neo4j.kernel.api.exceptions.schema.CreateConstraintFailureException;
 import org.neo4j.kernel.api.index.IndexProvider;
 import org.neo4j.kernel.api.schema.constaints.ConstraintDescriptorFactory;
@@ -75,6 +78,7 @@ import org.neo4j.kernel.api.schema.index.SchemaIndexDescriptor;
 import org.neo4j.kernel.api.schema.index.SchemaIndexDescriptorFactory;
 import org.neo4j.kernel.impl.util.collection.CollectionsFactory;
 import org.neo4j.kernel.impl.util.collection.CollectionsFactorySupplier;
+import org.neo4j.memory.MemoryLimitExceededException;
 import org.neo4j.storageengine.api.Direction;
 import org.neo4j.storageengine.api.RelationshipItem;
 import org.neo4j.storageengine.api.txstate.PrimitiveLongReadableDiffSets;
@@ -91,6 +95,7 @@ import static java.util.Arrays.asList;
 import static java.util.Collections.emptySet;
 import static java.util.Collections.singleton;
 import static java.util.Collections.singletonList;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.hamcrest.core.IsEqual.equalTo;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -279,10 +284,67 @@ public class TxStateTest
         state.nodeDoRemoveLabel( 2, 2 );
 
         // WHEN
-        Set<Long> nodes = state.nodesWithLabelChanged( 2 ).getRemoved();
+        PrimitiveLongSet nodes = state.nodesWithLabelChanged( 2 ).getRemoved();
 
         // THEN
-        assertEquals( asSet( 0L, 2L ), Iterables.asSet( nodes ) );
+        assertEquals( asSet( 0L, 2L ), toSet( nodes ) );
+    }
+
+    @Test
+    public void shouldRefuseToGrowOffHeapStateBeyondTransactionMemoryLimit()
+    {
+        // GIVEN
+        CollectionsFactory limitedFactory = CollectionsFactorySupplier.offHeap( ByteUnit.kibiBytes( 64 ) ).create();
+        TxState limitedState = new TxState( limitedFactory );
+
+        // WHEN
+        try
+        {
+            for ( long nodeId = 0; nodeId < 1_000_000; nodeId++ )
+            {
+                limitedState.nodeDoAddLabel( 1, nodeId );
+            }
+            fail( "Should have exceeded the memory limit of the transaction" );
+        }
+        catch ( MemoryLimitExceededException e )
+        {
+            // THEN
+            assertEquals( Status.Transaction.TransactionOutOfMemoryError, e.status() );
+            assertThat( limitedFactory.getMemoryTracker().usedDirectMemory(), lessThanOrEqualTo( ByteUnit.kibiBytes( 64 ) ) );
+        }
+        finally
+        {
+            limitedState.release();
+        }
+        assertEquals( 0L, limitedFactory.getMemoryTracker().usedDirectMemory() );
+    }
+
+    @Test
+    public void shouldRefuseToGrowOffHeapCreatedNodesBeyondTransactionMemoryLimit()
+    {
+        // GIVEN
+        CollectionsFactory limitedFactory = CollectionsFactorySupplier.offHeap( ByteUnit.kibiBytes( 64 ) ).create();
+        TxState limitedState = new TxState( limitedFactory );
+
+        // WHEN
+        try
+        {
+            for ( long nodeId = 0; nodeId < 1_000_000; nodeId++ )
+            {
+                limitedState.nodeDoCreate( nodeId );
+            }
+            fail( "Should have exceeded the memory limit of the transaction" );
+        }
+        catch ( MemoryLimitExceededException e )
+        {
+            // THEN
+            assertEquals( Status.Transaction.TransactionOutOfMemoryError, e.status() );
+        }
+        finally
+        {
+            limitedState.release();
+        }
+        assertEquals( 0L, limitedFactory.getMemoryTracker().usedDirectMemory() );
     }
 
     //endregion
@@ -1143,7 +1205,21 @@ public class TxStateTest
         state.nodeDoDelete( nodeId );
 
         // Then
-        assertThat( Iterables.asSet( state.addedAndRemovedNodes().getRemoved() ), equalTo( asSet( nodeId ) ) );
+        assertThat( toSet( state.addedAndRemovedNodes().getRemoved() ), equalTo( asSet( nodeId ) ) );
+    }
+
+    @Test
+    public void shouldListNodeAsDeletedButNotRemovedIfItIsCreatedAndDeleted()
+    {
+        // When
+        long nodeId = 1337L;
+        state.nodeDoCreate( nodeId );
+        state.nodeDoDelete( nodeId );
+
+        // Then
+        assertTrue( state.nodeIsDeletedInThisTx( nodeId ) );
+        assertFalse( state.nodeIsAddedInThisTx( nodeId ) );
+        assertTrue( state.addedAndRemovedNodes().isEmpty() );
     }
 
     @Test
@@ -38,41 +38,183 @@
  */
 package org.neo4j.kernel.impl.index.labelscan;
 
+import org.junit.Rule;
 import org.junit.Test;
 
+import org.neo4j.io.pagecache.ByteArrayPageCursor;
+import org.neo4j.io.pagecache.CursorException;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.test.rule.RandomRule;
+
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class LabelScanValueTest
 {
+    private static final int RANGE_SIZE = 1024;
+
+    @Rule
+    public final RandomRule random = new RandomRule();
+
     @Test
     public void shouldAddBits()
     {
         // GIVEN
-        LabelScanValue value = new LabelScanValue();
-        value.bits = 0b0000__1000_0100__0010_0001;
+        LabelScanValue value = new LabelScanValue( RANGE_SIZE );
+        value.words[0] = 0b0000__1000_0100__0010_0001;
 
         // WHEN
-        LabelScanValue other = new LabelScanValue();
-        other.bits = 0b1100__0100_0100__0100_0100;
+        LabelScanValue other = new LabelScanValue( RANGE_SIZE );
+        other.words[0] = 0b1100__0100_0100__0100_0100;
         value.add( other );
 
         // THEN
-        assertEquals( 0b1100__1100_0100__0110_0101, value.bits );
+        assertEquals( 0b1100__1100_0100__0110_0101, value.words[0] );
     }
 
     @Test
     public void shouldRemoveBits()
     {
         // GIVEN
-        LabelScanValue value = new LabelScanValue();
-        value.bits = 0b1100__1000_0100__0010_0001;
+        LabelScanValue value = new LabelScanValue( RANGE_SIZE );
+        value.words[0] = 0b1100__1000_0100__0010_0001;
 
         // WHEN
-        LabelScanValue other = new LabelScanValue();
-        other.bits = 0b1000__0100_0100__0100_0100;
+        LabelScanValue other = new LabelScanValue( RANGE_SIZE );
+        other.words[0] = 0b1000__0100_0100__0100_0100;
         value.remove( other );
 
         // THEN
-        assertEquals( 0b0100__1000_0000__0010_0001, value.bits );
+        assertEquals( 0b0100__1000_0000__0010_0001, value.words[0] );
+    }
+
+    @Test
+    public void shouldRetainBits()
+    {
+        // GIVEN
+        LabelScanValue value = new LabelScanValue( RANGE_SIZE );
+        value.words[0] = 0b1100__1000_0100__0010_0001;
+        value.words[1] = 0b0001;
+
+        // WHEN
+        LabelScanValue other = new LabelScanValue( RANGE_SIZE );
+        other.words[0] = 0b1000__0100_0100__0100_0001;
+        value.retain( other );
+
+        // THEN
+        assertEquals( 0b1000__0000_0100__0000_0001, value.words[0] );
+        assertEquals( 0, value.words[1] );
+    }
+
+    @Test
+    public void shouldStoreFewBitsAsArray()
+    {
+        // GIVEN
+        LabelScanValue value = new LabelScanValue( RANGE_SIZE ).set( 3 ).set( 100 ).set( RANGE_SIZE - 1 );
+
+        // THEN
+        assertContainer( LabelScanValue.ARRAY, value );
+        assertEquals( 1 + 2 + 3 * 2, value.size() );
+    }
+
+    @Test
+    public void shouldStoreConsecutiveBitsAsRuns()
+    {
+        // GIVEN
+        LabelScanValue value = new LabelScanValue( RANGE_SIZE );
+        setRange( value, 10, 300 );
+        setRange( value, 500, 501 );
+        setRange( value, 640, RANGE_SIZE );
+
+        // THEN
+        assertContainer( LabelScanValue.RUNS, value );
+        assertEquals( 1 + 2 + 3 * 4, value.size() );
+    }
+
+    @Test
+    public void shouldStoreDenseBitsAsBitmap()
+    {
+        // GIVEN
+        LabelScanValue value = new LabelScanValue( RANGE_SIZE );
+        for ( int i = 0; i < RANGE_SIZE; i += 2 )
+        {
+            value.set( i );
+        }
+
+        // THEN
+        assertContainer( LabelScanValue.BITMAP, value );
+        assertEquals( LabelScanValue.maxSize( RANGE_SIZE ), value.size() );
+    }
+
+    @Test
+    public void shouldReadWhatWasWritten()
+    {
+        LabelScanValue value = new LabelScanValue( RANGE_SIZE );
+        LabelScanValue read = new LabelScanValue( RANGE_SIZE );
+        PageCursor cursor = ByteArrayPageCursor.wrap( LabelScanValue.maxSize( RANGE_SIZE ) );
+        for ( int round = 0; round < 1_000; round++ )
+        {
+            // GIVEN
+            value.clear();
+            int count = random.nextInt( RANGE_SIZE );
+            for ( int i = 0; i < count; i++ )
+            {
+                int start = random.nextInt( RANGE_SIZE );
+                setRange( value, start, Math.min( RANGE_SIZE, start + 1 + random.nextInt( random.nextBoolean() ? 2 : 100 ) ) );
+            }
+
+            // WHEN
+            int size = value.size();
+            cursor.setOffset( 0 );
+            value.write( cursor );
+            assertEquals( size, cursor.getOffset() );
+            cursor.setOffset( 0 );
+            read.read( cursor, size );
+
+            // THEN
+            assertArrayEquals( value.words, read.words );
+            assertEquals( size, cursor.getOffset() );
+        }
+    }
+
+    @Test
+    public void shouldReportInconsistentReadAsCursorException()
+    {
+        // GIVEN
+        LabelScanValue value = new LabelScanValue( RANGE_SIZE ).set( 3 ).set( 5 );
+        PageCursor cursor = ByteArrayPageCursor.wrap( LabelScanValue.maxSize( RANGE_SIZE ) );
+        value.write( cursor );
+
+        // WHEN
+        cursor.setOffset( 0 );
+        new LabelScanValue( RANGE_SIZE ).read( cursor, value.size() + 2 );
+
+        // THEN
+        try
+        {
+            cursor.checkAndClearCursorException();
+            fail( "Should have reported size mismatch" );
+        }
+        catch ( CursorException e )
+        {
+            assertTrue( e.getMessage().contains( "array container" ) );
+        }
+    }
+
+    private static void assertContainer( byte expected, LabelScanValue value )
+    {
+        PageCursor cursor = ByteArrayPageCursor.wrap( LabelScanValue.maxSize( RANGE_SIZE ) );
+        value.write( cursor );
+        assertEquals( expected, cursor.getByte( 0 ) );
+    }
+
+    private static void setRange( LabelScanValue value, int from, int to )
+    {
+        for ( int i = from; i < to; i++ )
+        {
+            value.set( i );
+        }
     }
 }
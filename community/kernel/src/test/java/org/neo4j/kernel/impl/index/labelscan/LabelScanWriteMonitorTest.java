@@ -60,6 +60,8 @@ import static org.mockito.Mockito.mock;
 
 public class LabelScanWriteMonitorTest
 {
+    private static final int RANGE_SIZE = 128;
+
     @Rule
     public final DefaultFileSystemRule fs = new DefaultFileSystemRule();
     @Rule
@@ -86,18 +88,18 @@ public class LabelScanWriteMonitorTest
         // given
         File storeDir = this.directory.directory();
         LabelScanWriteMonitor writeMonitor = new LabelScanWriteMonitor( fs, storeDir );
-        LabelScanValue value = new LabelScanValue();
-        writeMonitor.range( 3, 0 );
+        LabelScanValue value = new LabelScanValue( RANGE_SIZE );
+        writeMonitor.range( 3, 0, RANGE_SIZE );
         writeMonitor.prepareAdd( 123, 4 );
         writeMonitor.prepareAdd( 123, 5 );
-        writeMonitor.mergeAdd( new LabelScanValue(), value.set( 4 ).set( 5 ) );
+        writeMonitor.mergeAdd( new LabelScanValue( RANGE_SIZE ), value.set( 4 ).set( 5 ) );
         writeMonitor.flushPendingUpdates();
         writeMonitor.prepareRemove( 124, 5 );
-        writeMonitor.mergeRemove( value, new LabelScanValue().set( 5 ) );
+        writeMonitor.mergeRemove( value, new LabelScanValue( RANGE_SIZE ).set( 5 ) );
         writeMonitor.writeSessionEnded();
-        writeMonitor.range( 5, 1 );
-        writeMonitor.prepareAdd( 125, 10 );
-        writeMonitor.mergeAdd( new LabelScanValue().set( 9 ), new LabelScanValue().set( 10 ) );
+        writeMonitor.range( 5, 1, RANGE_SIZE );
+        writeMonitor.prepareAdd( 125, 64 + 10 );
+        writeMonitor.mergeAdd( new LabelScanValue( RANGE_SIZE ).set( 64 + 9 ), new LabelScanValue( RANGE_SIZE ).set( 64 + 10 ) );
         writeMonitor.flushPendingUpdates();
         writeMonitor.writeSessionEnded();
         writeMonitor.close();
@@ -108,16 +110,16 @@ public class LabelScanWriteMonitorTest
 
         // then
         InOrder inOrder = Mockito.inOrder( dumper );
-        inOrder.verify( dumper ).prepare( true, 0, 0, 123, 64 * 3 + 4, 0 );
-        inOrder.verify( dumper ).prepare( true, 0, 0, 123, 64 * 3 + 5, 0 );
-        inOrder.verify( dumper ).merge( true, 0, 0, 3, 0, 0,
+        inOrder.verify( dumper ).prepare( true, 0, 0, 123, RANGE_SIZE * 3 + 4, 0 );
+        inOrder.verify( dumper ).prepare( true, 0, 0, 123, RANGE_SIZE * 3 + 5, 0 );
+        inOrder.verify( dumper ).merge( true, 0, 0, 2 * 3, 0, 0,
                 0b00000000_0000000_00000000_00000000__00000000_00000000_00000000_00110000 );
-        inOrder.verify( dumper ).prepare( false, 0, 1, 124, 64 * 3 + 5, 0 );
-        inOrder.verify( dumper ).merge( false, 0, 1, 3, 0,
+        inOrder.verify( dumper ).prepare( false, 0, 1, 124, RANGE_SIZE * 3 + 5, 0 );
+        inOrder.verify( dumper ).merge( false, 0, 1, 2 * 3, 0,
                 0b00000000_0000000_00000000_00000000__00000000_00000000_00000000_00110000,
                 0b00000000_0000000_00000000_00000000__00000000_00000000_00000000_00100000 );
-        inOrder.verify( dumper ).prepare( true, 1, 0, 125, 64 * 5 + 10, 1 );
-        inOrder.verify( dumper ).merge( true, 1, 0, 5, 1,
+        inOrder.verify( dumper ).prepare( true, 1, 0, 125, RANGE_SIZE * 5 + 64 + 10, 1 );
+        inOrder.verify( dumper ).merge( true, 1, 0, 2 * 5 + 1, 1,
                 0b00000000_0000000_00000000_00000000__00000000_00000000_00000010_00000000,
                 0b00000000_0000000_00000000_00000000__00000000_00000000_00000100_00000000 );
         inOrder.verifyNoMoreInteractions();
@@ -193,9 +195,9 @@ public class LabelScanWriteMonitorTest
         // when
         for ( int i = 0; storeDir.listFiles().length < 5; i++ )
         {
-            writeMonitor.range( i, 1 );
+            writeMonitor.range( i, 1, RANGE_SIZE );
             writeMonitor.prepareAdd( i, 5 );
-            writeMonitor.mergeAdd( new LabelScanValue(), new LabelScanValue().set( 5 ) );
+            writeMonitor.mergeAdd( new LabelScanValue( RANGE_SIZE ), new LabelScanValue( RANGE_SIZE ).set( 5 ) );
             writeMonitor.writeSessionEnded();
         }
 
@@ -221,9 +223,9 @@ public class LabelScanWriteMonitorTest
         long endTime = startTime + TimeUnit.SECONDS.toMillis( 1 );
         for ( int i = 0; currentTimeMillis() < endTime; i++ )
         {
-            writeMonitor.range( i, 1 );
+            writeMonitor.range( i, 1, RANGE_SIZE );
             writeMonitor.prepareAdd( i, 5 );
-            writeMonitor.mergeAdd( new LabelScanValue(), new LabelScanValue().set( 5 ) );
+            writeMonitor.mergeAdd( new LabelScanValue( RANGE_SIZE ), new LabelScanValue( RANGE_SIZE ).set( 5 ) );
             writeMonitor.writeSessionEnded();
         }
 
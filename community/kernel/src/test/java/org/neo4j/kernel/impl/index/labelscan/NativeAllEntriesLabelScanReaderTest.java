@@ -66,10 +66,11 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.neo4j.collection.primitive.PrimitiveLongCollections.asArray;
-import static org.neo4j.kernel.impl.index.labelscan.LabelScanValue.RANGE_SIZE;
 
 public class NativeAllEntriesLabelScanReaderTest
 {
+    private static final int RANGE_SIZE = 128;
+
     @Rule
     public final RandomRule random = new RandomRule();
 
@@ -109,7 +110,7 @@ public class NativeAllEntriesLabelScanReaderTest
     {
         // GIVEN
         try ( AllEntriesLabelScanReader reader = new NativeAllEntriesLabelScanReader(
-                store( data ), highestLabelId( data ) ) )
+                store( data ), highestLabelId( data ), RANGE_SIZE ) )
         {
             // WHEN/THEN
             assertRanges( reader, data );
@@ -181,12 +182,16 @@ public class NativeAllEntriesLabelScanReaderTest
                 if ( entry.first().idRange == rangeId )
                 {
                     long baseNodeId = entry.first().idRange * RANGE_SIZE;
-                    long bits = entry.other().bits;
-                    while ( bits != 0 )
+                    long[] words = entry.other().words;
+                    for ( int i = 0; i < words.length; i++ )
                     {
-                        long nodeId = baseNodeId + Long.numberOfTrailingZeros( bits );
-                        result.computeIfAbsent( nodeId, id -> new ArrayList<>() ).add( (long) label.labelId );
-                        bits &= bits - 1;
+                        long bits = words[i];
+                        while ( bits != 0 )
+                        {
+                            long nodeId = baseNodeId + i * Long.SIZE + Long.numberOfTrailingZeros( bits );
+                            result.computeIfAbsent( nodeId, id -> new ArrayList<>() ).add( (long) label.labelId );
+                            bits &= bits - 1;
+                        }
                     }
                 }
             }
@@ -224,23 +229,23 @@ public class NativeAllEntriesLabelScanReaderTest
     {
         List<Pair<LabelScanKey,LabelScanValue>> entries = new ArrayList<>();
         long currentRange = 0;
-        LabelScanValue value = new LabelScanValue();
+        LabelScanValue value = new LabelScanValue( RANGE_SIZE );
         for ( long nodeId : nodeIds )
         {
             long range = nodeId / RANGE_SIZE;
             if ( range != currentRange )
             {
-                if ( value.bits != 0 )
+                if ( !value.isEmpty() )
                 {
                     entries.add( Pair.of( new LabelScanKey().set( labelId, currentRange ), value ) );
-                    value = new LabelScanValue();
+                    value = new LabelScanValue( RANGE_SIZE );
                 }
             }
             value.set( toIntExact( nodeId % RANGE_SIZE ) );
             currentRange = range;
         }
 
-        if ( value.bits != 0 )
+        if ( !value.isEmpty() )
         {
             entries.add( Pair.of( new LabelScanKey().set( labelId, currentRange ), value ) );
         }
@@ -42,10 +42,15 @@ import org.junit.Test;
 
 import java.io.IOException;
 
+import org.neo4j.collection.primitive.Primitive;
 import org.neo4j.collection.primitive.PrimitiveLongIterator;
+import org.neo4j.collection.primitive.PrimitiveLongList;
 import org.neo4j.cursor.RawCursor;
 import org.neo4j.index.internal.gbptree.GBPTree;
 import org.neo4j.index.internal.gbptree.Hit;
+import org.neo4j.internal.kernel.api.LabelSet;
+import org.neo4j.storageengine.api.schema.IndexProgressor;
+import org.neo4j.storageengine.api.schema.IndexProgressor.NodeLabelClient;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.mockito.ArgumentMatchers.any;
@@ -59,6 +64,7 @@ import static org.neo4j.collection.primitive.PrimitiveLongCollections.asArray;
 public class NativeLabelScanReaderTest
 {
     private static final int LABEL_ID = 1;
+    private static final int RANGE_SIZE = Long.SIZE;
 
     @SuppressWarnings( "unchecked" )
     @Test
@@ -76,7 +82,7 @@ public class NativeLabelScanReaderTest
                 null );
         when( index.seek( any( LabelScanKey.class ), any( LabelScanKey.class ) ) )
                 .thenReturn( cursor );
-        try ( NativeLabelScanReader reader = new NativeLabelScanReader( index ) )
+        try ( NativeLabelScanReader reader = new NativeLabelScanReader( index, RANGE_SIZE ) )
         {
             // WHEN
             PrimitiveLongIterator iterator = reader.nodesWithLabel( LABEL_ID );
@@ -94,6 +100,98 @@ public class NativeLabelScanReaderTest
         }
     }
 
+    @SuppressWarnings( "unchecked" )
+    @Test
+    public void shouldOnlyFindNodesWithinRequestedIdRange() throws Exception
+    {
+        // GIVEN
+        GBPTree<LabelScanKey,LabelScanValue> index = mock( GBPTree.class );
+        RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException> cursor = mock( RawCursor.class );
+        when( cursor.next() ).thenReturn( true, true, false );
+        when( cursor.get() ).thenReturn(
+                // range, bits
+                hit( 0, 0b1000_1000__1100_0010L ),
+                hit( 1, 0b0000_0010__0000_1000L ),
+                null );
+        when( index.seek( any( LabelScanKey.class ), any( LabelScanKey.class ) ) )
+                .thenReturn( cursor );
+        PrimitiveLongList found = Primitive.longList();
+        NodeLabelClient client = new NodeLabelClient()
+        {
+            @Override
+            public void scan( LabelScanValueIndexProgressor progressor, boolean providesLabels, int label )
+            {
+                while ( progressor.next() )
+                {
+                    // exhaust, collecting accepted nodes
+                }
+            }
+
+            @Override
+            public void unionScan( IndexProgressor progressor, boolean providesLabels, int... labels )
+            {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public void intersectionScan( IndexProgressor progressor, boolean providesLabels, int... labels )
+            {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public boolean acceptNode( long reference, LabelSet labels )
+            {
+                found.add( reference );
+                return true;
+            }
+        };
+        try ( NativeLabelScanReader reader = new NativeLabelScanReader( index, RANGE_SIZE ) )
+        {
+            // WHEN
+            reader.nodesWithLabel( client, LABEL_ID, 7, 64 + 9 );
+
+            // THEN
+            assertArrayEquals( new long[] {
+                    // base 0*64 = 0, excluding 1 and 6
+                    7, 11, 15,
+                    // base 1*64 = 64, excluding 64 + 9
+                    64 + 3 },
+
+                    found.toArray() );
+        }
+    }
+
+    @SuppressWarnings( "unchecked" )
+    @Test
+    public void shouldIntersectRangesOfAllLabels() throws Exception
+    {
+        // GIVEN
+        GBPTree<LabelScanKey,LabelScanValue> index = mock( GBPTree.class );
+        RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException> cursor1 = cursor(
+                // range, bits of each word
+                hit( 0, 0b1111L, 0b1111L ),
+                hit( 1, 0b1010L, 0b1010L ),
+                hit( 3, 0b1111_0000L, 0b0001L ) );
+        RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException> cursor2 = cursor(
+                hit( 1, 0b0101L, 0b0101L ),
+                hit( 2, 0b1111L, 0b1111L ),
+                hit( 3, 0b0011_1100L, 0b1001L ) );
+        when( index.seek( any( LabelScanKey.class ), any( LabelScanKey.class ) ) ).thenReturn( cursor1, cursor2 );
+        try ( NativeLabelScanReader reader = new NativeLabelScanReader( index, 2 * Long.SIZE ) )
+        {
+            // WHEN
+            PrimitiveLongIterator iterator = reader.nodesWithAllLabels( LABEL_ID, LABEL_ID + 1 );
+
+            // THEN
+            assertArrayEquals( new long[] {
+                    // base 3*128 = 384, range 1 has nodes with either label, but none with both
+                    384 + 4, 384 + 5, 384 + 64 },
+
+                    asArray( iterator ) );
+        }
+    }
+
     @Test
     public void shouldSupportMultipleOpenCursorsConcurrently() throws Exception
     {
@@ -106,7 +204,7 @@ public class NativeLabelScanReaderTest
         when( index.seek( any( LabelScanKey.class ), any( LabelScanKey.class ) ) ).thenReturn( cursor1, cursor2 );
 
         // WHEN
-        try ( NativeLabelScanReader reader = new NativeLabelScanReader( index ) )
+        try ( NativeLabelScanReader reader = new NativeLabelScanReader( index, RANGE_SIZE ) )
         {
             // first check test invariants
             verify( cursor1, never() ).close();
@@ -142,7 +240,7 @@ public class NativeLabelScanReaderTest
         when( index.seek( any( LabelScanKey.class ), any( LabelScanKey.class ) ) ).thenReturn( cursor1, cursor2 );
 
         // WHEN
-        try ( NativeLabelScanReader reader = new NativeLabelScanReader( index ) )
+        try ( NativeLabelScanReader reader = new NativeLabelScanReader( index, RANGE_SIZE ) )
         {
             // first check test invariants
             reader.nodesWithLabel( LABEL_ID );
@@ -156,14 +254,40 @@ public class NativeLabelScanReaderTest
         verify( cursor2, times( 1 ) ).close();
     }
 
-    private static Hit<LabelScanKey,LabelScanValue> hit( long baseNodeId, long bits )
+    private static Hit<LabelScanKey,LabelScanValue> hit( long baseNodeId, long... words )
     {
         LabelScanKey key = new LabelScanKey( LABEL_ID, baseNodeId );
-        LabelScanValue value = new LabelScanValue();
-        value.bits = bits;
+        LabelScanValue value = new LabelScanValue( words.length * Long.SIZE );
+        System.arraycopy( words, 0, value.words, 0, words.length );
         return new MutableHit<>( key, value );
     }
 
+    @SafeVarargs
+    private static RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException> cursor( Hit<LabelScanKey,LabelScanValue>... hits )
+    {
+        return new RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException>()
+        {
+            private int index = -1;
+
+            @Override
+            public boolean next()
+            {
+                return ++index < hits.length;
+            }
+
+            @Override
+            public Hit<LabelScanKey,LabelScanValue> get()
+            {
+                return hits[index];
+            }
+
+            @Override
+            public void close()
+            {   // Nothing to close
+            }
+        };
+    }
+
     private void exhaust( PrimitiveLongIterator iterator )
     {
         while ( iterator.hasNext() )
@@ -71,7 +71,8 @@ public class NativeLabelScanWriterTest
 {
     private static final int LABEL_COUNT = 5;
     private static final int NODE_COUNT = 10_000;
-    private static final Comparator<LabelScanKey> KEY_COMPARATOR = new LabelScanLayout();
+    private static final int RANGE_SIZE = 256;
+    private static final Comparator<LabelScanKey> KEY_COMPARATOR = new LabelScanLayout( RANGE_SIZE );
 
     @Rule
     public final RandomRule random = new RandomRule();
@@ -82,7 +83,7 @@ public class NativeLabelScanWriterTest
         // GIVEN
         ControlledInserter inserter = new ControlledInserter();
         long[] expected = new long[NODE_COUNT];
-        try ( NativeLabelScanWriter writer = new NativeLabelScanWriter( max( 5, NODE_COUNT / 100 ), NativeLabelScanWriter.EMPTY ) )
+        try ( NativeLabelScanWriter writer = new NativeLabelScanWriter( max( 5, NODE_COUNT / 100 ), NativeLabelScanWriter.EMPTY, RANGE_SIZE ) )
         {
             writer.initialize( inserter );
 
@@ -109,7 +110,7 @@ public class NativeLabelScanWriterTest
         // GIVEN
         ControlledInserter inserter = new ControlledInserter();
         boolean failed = false;
-        try ( NativeLabelScanWriter writer = new NativeLabelScanWriter( 1, NativeLabelScanWriter.EMPTY ) )
+        try ( NativeLabelScanWriter writer = new NativeLabelScanWriter( 1, NativeLabelScanWriter.EMPTY, RANGE_SIZE ) )
         {
             writer.initialize( inserter );
 
@@ -179,9 +180,7 @@ public class NativeLabelScanWriterTest
 
         private static LabelScanValue clone( LabelScanValue value )
         {
-            LabelScanValue result = new LabelScanValue();
-            result.bits = value.bits;
-            return result;
+            return new LabelScanValue( value.rangeSize() ).add( value );
         }
 
         private static LabelScanKey clone( LabelScanKey key )
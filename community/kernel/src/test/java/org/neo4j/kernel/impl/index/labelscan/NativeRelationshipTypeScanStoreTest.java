@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.labelscan;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+import java.io.IOException;
+
+import org.neo4j.collection.primitive.PrimitiveLongResourceIterator;
+import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
+import org.neo4j.kernel.api.labelscan.RelationshipTypeScanStore;
+import org.neo4j.kernel.api.labelscan.RelationshipTypeScanWriter;
+import org.neo4j.kernel.impl.api.scan.FullRelationshipStoreChangeStream;
+import org.neo4j.kernel.lifecycle.LifeSupport;
+import org.neo4j.kernel.monitoring.Monitors;
+import org.neo4j.storageengine.api.schema.RelationshipTypeScanReader;
+import org.neo4j.test.rule.PageCacheRule;
+import org.neo4j.test.rule.TestDirectory;
+import org.neo4j.test.rule.fs.DefaultFileSystemRule;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.neo4j.collection.primitive.PrimitiveLongCollections.asArray;
+import static org.neo4j.kernel.api.labelscan.RelationshipTypeUpdate.NO_TYPE;
+import static org.neo4j.kernel.api.labelscan.RelationshipTypeUpdate.typeChange;
+import static org.neo4j.kernel.impl.api.scan.FullRelationshipStoreChangeStream.asStream;
+
+public class NativeRelationshipTypeScanStoreTest
+{
+    private static final int TYPE_A = 0;
+    private static final int TYPE_B = 1;
+
+    private final TestDirectory testDirectory = TestDirectory.testDirectory();
+    private final DefaultFileSystemRule fileSystemRule = new DefaultFileSystemRule();
+    private final PageCacheRule pageCacheRule = new PageCacheRule();
+
+    @Rule
+    public final RuleChain ruleChain = RuleChain.outerRule( testDirectory ).around( fileSystemRule ).around( pageCacheRule );
+
+    private LifeSupport life;
+    private TrackingMonitor monitor;
+    private RelationshipTypeScanStore store;
+
+    @After
+    public void shutdown()
+    {
+        if ( life != null )
+        {
+            life.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldRebuildFromFullStoreStreamWhenThereIsNoIndex()
+    {
+        // when
+        start( asStream( asList(
+                typeChange( 1, NO_TYPE, TYPE_A ),
+                typeChange( 2, NO_TYPE, TYPE_B ),
+                typeChange( 70, NO_TYPE, TYPE_A ) ) ) );
+
+        // then
+        assertTrue( monitor.noIndexCalled );
+        assertTrue( monitor.rebuildingCalled );
+        assertEquals( 3, monitor.rebuiltCount );
+        assertRelationshipsWithType( TYPE_A, 1, 70 );
+        assertRelationshipsWithType( TYPE_B, 2 );
+    }
+
+    @Test
+    public void shouldSeeWrittenUpdates() throws IOException
+    {
+        // given
+        start( asStream( asList( typeChange( 1, NO_TYPE, TYPE_A ), typeChange( 2, NO_TYPE, TYPE_A ) ) ) );
+
+        // when
+        try ( RelationshipTypeScanWriter writer = store.newWriter() )
+        {
+            writer.write( typeChange( 1, TYPE_A, NO_TYPE ) );
+            writer.write( typeChange( 3, NO_TYPE, TYPE_A ) );
+            writer.write( typeChange( 4, NO_TYPE, TYPE_B ) );
+        }
+
+        // then
+        assertRelationshipsWithType( TYPE_A, 2, 3 );
+        assertRelationshipsWithType( TYPE_B, 4 );
+    }
+
+    @Test
+    public void shouldOnlyFindRelationshipsWithinRequestedIdRange()
+    {
+        // given
+        start( asStream( asList(
+                typeChange( 10, NO_TYPE, TYPE_A ),
+                typeChange( 63, NO_TYPE, TYPE_A ),
+                typeChange( 64, NO_TYPE, TYPE_A ),
+                typeChange( 100, NO_TYPE, TYPE_A ),
+                typeChange( 130, NO_TYPE, TYPE_A ) ) ) );
+
+        // then
+        try ( RelationshipTypeScanReader reader = store.newReader();
+              PrimitiveLongResourceIterator relationships = reader.relationshipsWithType( TYPE_A, 20, 101 ) )
+        {
+            assertArrayEquals( new long[]{63, 64, 100}, asArray( relationships ) );
+        }
+    }
+
+    @Test
+    public void shouldKeepDataAndNotRebuildAfterCleanRestart()
+    {
+        // given
+        start( asStream( asList( typeChange( 5, NO_TYPE, TYPE_A ) ) ) );
+        life.shutdown();
+
+        // when
+        start( asStream( asList( typeChange( 6, NO_TYPE, TYPE_A ) ) ) );
+
+        // then
+        assertFalse( monitor.noIndexCalled );
+        assertFalse( monitor.rebuildingCalled );
+        assertRelationshipsWithType( TYPE_A, 5 );
+    }
+
+    private void start( FullRelationshipStoreChangeStream fullStoreChangeStream )
+    {
+        life = new LifeSupport();
+        monitor = new TrackingMonitor();
+        Monitors monitors = new Monitors();
+        monitors.addMonitorListener( monitor );
+        store = life.add( new NativeRelationshipTypeScanStore( pageCacheRule.getPageCache( fileSystemRule.get() ),
+                testDirectory.directory(), fullStoreChangeStream, false, monitors, RecoveryCleanupWorkCollector.immediate() ) );
+        life.start();
+    }
+
+    private void assertRelationshipsWithType( int type, long... expected )
+    {
+        try ( RelationshipTypeScanReader reader = store.newReader();
+              PrimitiveLongResourceIterator relationships = reader.relationshipsWithType( type ) )
+        {
+            assertArrayEquals( expected, asArray( relationships ) );
+        }
+    }
+
+    private static class TrackingMonitor extends RelationshipTypeScanStore.Monitor.Adaptor
+    {
+        boolean noIndexCalled;
+        boolean rebuildingCalled;
+        long rebuiltCount = -1;
+
+        @Override
+        public void noIndex()
+        {
+            noIndexCalled = true;
+        }
+
+        @Override
+        public void rebuilding()
+        {
+            rebuildingCalled = true;
+        }
+
+        @Override
+        public void rebuilt( long roughRelationshipCount )
+        {
+            rebuiltCount = roughRelationshipCount;
+        }
+    }
+}
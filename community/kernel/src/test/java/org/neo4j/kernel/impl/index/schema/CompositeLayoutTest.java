@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.io.pagecache.ByteArrayPageCursor;
+import org.neo4j.io.pagecache.CursorException;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.test.rule.RandomRule;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.neo4j.values.storable.Values.COMPARATOR;
+
+public class CompositeLayoutTest
+{
+    private final CompositeLayout layout = new CompositeLayout( 2 );
+
+    @Rule
+    public final RandomRule random = new RandomRule();
+
+    @Test
+    public void shouldOrderKeysAsTuplesOfValues()
+    {
+        // given
+        List<Value[]> tuples = new ArrayList<>();
+        for ( int i = 0; i < 1_000; i++ )
+        {
+            tuples.add( new Value[]{randomValue(), randomValue()} );
+        }
+
+        for ( Value[] first : tuples )
+        {
+            for ( int i = 0; i < 10; i++ )
+            {
+                Value[] second = tuples.get( random.nextInt( tuples.size() ) );
+
+                // when
+                int compare = layout.compare( key( 1, first ), key( 1, second ) );
+
+                // then
+                assertEquals( Integer.signum( compareTuples( first, second ) ), Integer.signum( compare ) );
+            }
+        }
+    }
+
+    @Test
+    public void shouldOrderKeysWithEqualValuesByEntityId()
+    {
+        // given
+        Value[] values = {Values.stringValue( "tenant" ), Values.longValue( 10 )};
+
+        // then
+        assertTrue( layout.compare( key( 1, values ), key( 2, values ) ) < 0 );
+        assertEquals( 0, layout.compare( key( 2, values ), key( 2, values ) ) );
+    }
+
+    @Test
+    public void shouldPlaceBoundsAroundValueGroup()
+    {
+        // given
+        CompositeSchemaKey lowestNumber = key( 0, Values.stringValue( "a" ), Values.intValue( 0 ) );
+        lowestNumber.initValueAsLowest( 1, Values.intValue( 0 ).valueGroup() );
+        CompositeSchemaKey highestNumber = key( 0, Values.stringValue( "a" ), Values.intValue( 0 ) );
+        highestNumber.initValueAsHighest( 1, Values.intValue( 0 ).valueGroup() );
+
+        // then
+        assertTrue( layout.compare( lowestNumber, key( 0, Values.stringValue( "a" ), Values.booleanValue( true ) ) ) > 0 );
+        assertTrue( layout.compare( lowestNumber, key( 0, Values.stringValue( "a" ), Values.doubleValue( Double.NEGATIVE_INFINITY ) ) ) < 0 );
+        assertTrue( layout.compare( highestNumber, key( 0, Values.stringValue( "a" ), Values.doubleValue( Double.POSITIVE_INFINITY ) ) ) > 0 );
+        assertTrue( layout.compare( highestNumber, key( 0, Values.stringValue( "b" ), Values.stringValue( "" ) ) ) < 0 );
+    }
+
+    @Test
+    public void shouldPlacePrefixHighAfterAllStringsWithPrefix()
+    {
+        // given
+        CompositeSchemaKey prefixHigh = key( 0, Values.stringValue( "" ), Values.stringValue( "" ) );
+        prefixHigh.initValueAsPrefixHigh( 0, "abc" );
+        prefixHigh.initValueAsHighest( 1 );
+
+        // then
+        assertTrue( layout.compare( prefixHigh, key( Long.MAX_VALUE, Values.stringValue( "abc" ), Values.longValue( Long.MAX_VALUE ) ) ) > 0 );
+        assertTrue( layout.compare( prefixHigh, key( 0, Values.stringValue( "abcÿÿÿ" ), Values.stringValue( "z" ) ) ) > 0 );
+        assertTrue( layout.compare( prefixHigh, key( 0, Values.stringValue( "abd" ), Values.stringValue( "" ) ) ) < 0 );
+    }
+
+    @Test
+    public void shouldReadWrittenKey() throws IOException
+    {
+        for ( int i = 0; i < 1_000; i++ )
+        {
+            // given
+            CompositeSchemaKey key = key( random.nextLong( Long.MAX_VALUE ), randomValue(), randomValue() );
+            PageCursor cursor = ByteArrayPageCursor.wrap( 8 * 1024 );
+
+            // when
+            layout.writeKey( cursor, key );
+            int keySize = cursor.getOffset();
+            cursor.setOffset( 0 );
+            CompositeSchemaKey readKey = layout.newKey();
+            layout.readKey( cursor, readKey, keySize );
+
+            // then
+            assertFalse( cursor.checkAndClearBoundsFlag() );
+            cursor.checkAndClearCursorException();
+            assertEquals( layout.keySize( key ), keySize );
+            assertEquals( keySize, cursor.getOffset() );
+            assertArrayEquals( key.asValues(), readKey.asValues() );
+            assertEquals( key.getEntityId(), readKey.getEntityId() );
+            assertEquals( 0, layout.compare( key, readKey ) );
+        }
+    }
+
+    @Test
+    public void shouldFailReadingCorruptKey() throws IOException
+    {
+        // given
+        PageCursor cursor = ByteArrayPageCursor.wrap( 8 * 1024 );
+        cursor.putByte( (byte) 127 );
+
+        // when
+        CompositeSchemaKey readKey = layout.newKey();
+        layout.readKey( cursor, readKey, 20 );
+
+        // then
+        try
+        {
+            cursor.checkAndClearCursorException();
+            fail( "Expected read of corrupt key to fail" );
+        }
+        catch ( CursorException e )
+        {
+            // good
+        }
+    }
+
+    private Value randomValue()
+    {
+        switch ( random.nextInt( 4 ) )
+        {
+        case 0:
+            char[] chars = new char[random.nextInt( 5 )];
+            for ( int i = 0; i < chars.length; i++ )
+            {
+                chars[i] = (char) ('a' + random.nextInt( 3 ));
+            }
+            return Values.stringValue( new String( chars ) );
+        case 1:
+            return Values.booleanValue( random.nextBoolean() );
+        case 2:
+            return Values.longValue( random.nextInt( 10 ) - 5 );
+        default:
+            return Values.doubleValue( random.nextInt( 20 ) / 2.0 - 5 );
+        }
+    }
+
+    private static int compareTuples( Value[] first, Value[] second )
+    {
+        for ( int i = 0; i < first.length; i++ )
+        {
+            int compare = COMPARATOR.compare( first[i], second[i] );
+            if ( compare != 0 )
+            {
+                return compare;
+            }
+        }
+        return 0;
+    }
+
+    private CompositeSchemaKey key( long entityId, Value... values )
+    {
+        CompositeSchemaKey key = layout.newKey();
+        key.from( entityId, values );
+        return key;
+    }
+}
@@ -0,0 +1,314 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+import org.neo4j.internal.kernel.api.IndexOrder;
+import org.neo4j.internal.kernel.api.IndexQuery;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.api.index.IndexEntryUpdate;
+import org.neo4j.kernel.api.index.IndexProvider;
+import org.neo4j.kernel.api.schema.index.SchemaIndexDescriptor;
+import org.neo4j.kernel.api.schema.index.SchemaIndexDescriptorFactory;
+import org.neo4j.kernel.configuration.Config;
+import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingConfig;
+import org.neo4j.storageengine.api.schema.IndexReader;
+import org.neo4j.storageengine.api.schema.SimpleNodeValueClient;
+import org.neo4j.test.rule.PageCacheRule;
+import org.neo4j.test.rule.RandomRule;
+import org.neo4j.test.rule.TestDirectory;
+import org.neo4j.test.rule.fs.DefaultFileSystemRule;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.junit.rules.RuleChain.outerRule;
+import static org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector.immediate;
+import static org.neo4j.test.rule.PageCacheRule.config;
+import static org.neo4j.values.storable.Values.COMPARATOR;
+
+public class CompositeSchemaIndexAccessorTest
+{
+    private static final int TENANT = 0;
+    private static final int EXTERNAL_ID = 1;
+    private static final int TENANTS = 10;
+
+    private final DefaultFileSystemRule fs = new DefaultFileSystemRule();
+    private final TestDirectory directory = TestDirectory.testDirectory( getClass(), fs.get() );
+    private final PageCacheRule pageCacheRule = new PageCacheRule( config().withAccessChecks( true ) );
+    private final RandomRule random = new RandomRule();
+    @Rule
+    public final RuleChain rules = outerRule( fs ).around( directory ).around( pageCacheRule ).around( random );
+
+    private final SchemaIndexDescriptor descriptor = SchemaIndexDescriptorFactory.forLabel( 42, TENANT, EXTERNAL_ID );
+    private final CompositeLayout layout = new CompositeLayout( 2 );
+    private final IndexSamplingConfig samplingConfig = new IndexSamplingConfig( Config.defaults() );
+    private final TreeMap<Long,Value[]> tuples = new TreeMap<>();
+    private File indexFile;
+    private PageCache pageCache;
+
+    @Before
+    public void setup()
+    {
+        indexFile = directory.file( "index" );
+        pageCache = pageCacheRule.getPageCache( fs );
+    }
+
+    @Test
+    public void shouldFindExactMatchesOnAllProperties() throws Exception
+    {
+        // given
+        populate( 1_000 );
+
+        try ( CompositeSchemaIndexAccessor accessor = accessor();
+              IndexReader reader = accessor.newReader() )
+        {
+            for ( int i = 0; i < 100; i++ )
+            {
+                // when
+                Value tenant = tenant();
+                Value externalId = externalId();
+                IndexQuery[] query = {IndexQuery.exact( TENANT, tenant ), IndexQuery.exact( EXTERNAL_ID, externalId )};
+
+                // then
+                assertResult( reader, query, t -> t[0].equals( tenant ) && t[1].equals( externalId ) );
+            }
+        }
+    }
+
+    @Test
+    public void shouldFindRangeAfterExactPrefix() throws Exception
+    {
+        // given
+        populate( 1_000 );
+
+        try ( CompositeSchemaIndexAccessor accessor = accessor();
+              IndexReader reader = accessor.newReader() )
+        {
+            for ( int i = 0; i < 100; i++ )
+            {
+                // when
+                Value tenant = tenant();
+                Value from = random.nextInt( 5 ) == 0 ? null : Values.longValue( random.nextInt( 100 ) );
+                Value to = from != null && random.nextInt( 5 ) == 0 ? null : Values.longValue( random.nextInt( 100 ) );
+                boolean fromInclusive = random.nextBoolean();
+                boolean toInclusive = random.nextBoolean();
+                IndexQuery[] query = {IndexQuery.exact( TENANT, tenant ),
+                        IndexQuery.range( EXTERNAL_ID, from, fromInclusive, to, toInclusive )};
+
+                // then
+                assertResult( reader, query, t -> t[0].equals( tenant ) && Values.isNumberValue( t[1] ) &&
+                        (from == null || COMPARATOR.compare( t[1], from ) > (fromInclusive ? -1 : 0)) &&
+                        (to == null || COMPARATOR.compare( t[1], to ) < (toInclusive ? 1 : 0)) );
+            }
+        }
+    }
+
+    @Test
+    public void shouldFindStringPrefixAfterExactPrefix() throws Exception
+    {
+        // given
+        populate( 1_000 );
+
+        try ( CompositeSchemaIndexAccessor accessor = accessor();
+              IndexReader reader = accessor.newReader() )
+        {
+            for ( int i = 0; i < 100; i++ )
+            {
+                // when
+                Value tenant = tenant();
+                String prefix = String.valueOf( random.nextInt( 10 ) );
+                IndexQuery[] query = {IndexQuery.exact( TENANT, tenant ), IndexQuery.stringPrefix( EXTERNAL_ID, prefix )};
+
+                // then
+                assertResult( reader, query,
+                        t -> t[0].equals( tenant ) && Values.isTextValue( t[1] ) && ((String) t[1].asObject()).startsWith( prefix ) );
+            }
+        }
+    }
+
+    @Test
+    public void shouldFindExistsAfterExactPrefix() throws Exception
+    {
+        // given
+        populate( 1_000 );
+
+        try ( CompositeSchemaIndexAccessor accessor = accessor();
+              IndexReader reader = accessor.newReader() )
+        {
+            // when
+            Value tenant = tenant();
+            IndexQuery[] query = {IndexQuery.exact( TENANT, tenant ), IndexQuery.exists( EXTERNAL_ID )};
+
+            // then exists predicates don't guarantee order, but results will still come in tree order
+            assertResult( reader, query, IndexOrder.NONE, t -> t[0].equals( tenant ) );
+        }
+    }
+
+    @Test
+    public void shouldScanAllEntries() throws Exception
+    {
+        // given
+        populate( 100 );
+
+        try ( CompositeSchemaIndexAccessor accessor = accessor();
+              IndexReader reader = accessor.newReader() )
+        {
+            // then
+            assertResult( reader, new IndexQuery[]{IndexQuery.exists( TENANT )}, IndexOrder.NONE, t -> true );
+        }
+    }
+
+    @Test
+    public void shouldRejectTooLargeStrings() throws Exception
+    {
+        // given
+        populate( 10 );
+        char[] chars = new char[pageCache.pageSize()];
+        Arrays.fill( chars, 'a' );
+
+        try ( CompositeSchemaIndexAccessor accessor = accessor() )
+        {
+            // when
+            try
+            {
+                accessor.validateBeforeCommit( new Value[]{Values.stringValue( new String( chars ) ), Values.longValue( 0 )} );
+                fail( "Should have failed" );
+            }
+            catch ( IllegalArgumentException e )
+            {
+                // then
+                assertTrue( e.getMessage().contains( "Property value size is too large for index" ) );
+            }
+
+            // and
+            accessor.validateBeforeCommit( new Value[]{Values.stringValue( "tenant" ), Values.longValue( 0 )} );
+        }
+    }
+
+    private void assertResult( IndexReader reader, IndexQuery[] query, Predicate<Value[]> filter ) throws Exception
+    {
+        assertResult( reader, query, IndexOrder.ASCENDING, filter );
+    }
+
+    private void assertResult( IndexReader reader, IndexQuery[] query, IndexOrder order, Predicate<Value[]> filter ) throws Exception
+    {
+        List<Long> expected = new ArrayList<>();
+        List<Value[]> expectedValues = new ArrayList<>();
+        tuples.entrySet().stream()
+                .filter( entry -> filter.test( entry.getValue() ) )
+                .sorted( ( e1, e2 ) -> compareTuples( e1.getValue(), e2.getValue() ) )
+                .forEach( entry ->
+                {
+                    expected.add( entry.getKey() );
+                    expectedValues.add( entry.getValue() );
+                } );
+
+        SimpleNodeValueClient client = new SimpleNodeValueClient();
+        reader.query( client, order, query );
+        List<Long> actual = new ArrayList<>();
+        while ( client.next() )
+        {
+            assertArrayEquals( expectedValues.get( actual.size() ), client.values );
+            actual.add( client.reference );
+        }
+        assertTrue( reader.hasFullValuePrecision( query ) );
+        assertEquals( expected, actual );
+    }
+
+    private static int compareTuples( Value[] first, Value[] second )
+    {
+        for ( int i = 0; i < first.length; i++ )
+        {
+            int compare = COMPARATOR.compare( first[i], second[i] );
+            if ( compare != 0 )
+            {
+                return compare;
+            }
+        }
+        return 0;
+    }
+
+    private void populate( int count ) throws Exception
+    {
+        List<IndexEntryUpdate<SchemaIndexDescriptor>> updates = new ArrayList<>();
+        for ( long id = 0; id < count; id++ )
+        {
+            Value[] tuple = {tenant(), externalId()};
+            tuples.put( id, tuple );
+            updates.add( IndexEntryUpdate.add( id, descriptor, tuple ) );
+        }
+        CompositeSchemaIndexPopulator populator =
+                new CompositeSchemaIndexPopulator( pageCache, fs, indexFile, layout, IndexProvider.Monitor.EMPTY, descriptor, 1, samplingConfig );
+        populator.create();
+        populator.add( updates );
+        populator.close( true );
+    }
+
+    private CompositeSchemaIndexAccessor accessor() throws Exception
+    {
+        return new CompositeSchemaIndexAccessor( pageCache, fs, indexFile, layout, immediate(), IndexProvider.Monitor.EMPTY, descriptor, 1,
+                samplingConfig );
+    }
+
+    private Value tenant()
+    {
+        return Values.stringValue( "tenant-" + random.nextInt( TENANTS ) );
+    }
+
+    private Value externalId()
+    {
+        // mixes strings and numbers on the same property, to verify range queries stay within the value group
+        return random.nextBoolean() ? Values.stringValue( String.valueOf( random.nextInt( 1_000 ) ) ) : Values.longValue( random.nextInt( 100 ) );
+    }
+}
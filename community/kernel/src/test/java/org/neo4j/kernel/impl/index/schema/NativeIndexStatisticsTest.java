@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.io.pagecache.IOLimiter;
+import org.neo4j.kernel.api.index.IndexEntryUpdate;
+import org.neo4j.kernel.api.index.IndexUpdater;
+import org.neo4j.kernel.api.schema.index.SchemaIndexDescriptor;
+import org.neo4j.kernel.configuration.Config;
+import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingConfig;
+import org.neo4j.storageengine.api.schema.IndexReader;
+import org.neo4j.storageengine.api.schema.IndexSample;
+import org.neo4j.values.storable.Values;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector.immediate;
+import static org.neo4j.kernel.impl.api.index.IndexUpdateMode.ONLINE;
+
+public class NativeIndexStatisticsTest extends NativeSchemaIndexTestUtil<NumberSchemaKey,NativeSchemaValue>
+{
+    private static final int DISTINCT_VALUES = 100;
+
+    private final IndexSamplingConfig samplingConfig = new IndexSamplingConfig( Config.defaults() );
+
+    @Test
+    public void shouldSampleFromStatisticsWrittenByPopulation() throws Exception
+    {
+        // given
+        populate( 1_000 );
+
+        // when
+        try ( NumberSchemaIndexAccessor accessor = accessor() )
+        {
+            // then
+            assertFalse( accessor.statistics.isStale( samplingConfig.updateRatio() ) );
+            assertSample( accessor, 1_000, DISTINCT_VALUES );
+        }
+    }
+
+    @Test
+    public void shouldKeepStatisticsUpToDateWithUpdates() throws Exception
+    {
+        // given
+        populate( 1_000 );
+
+        try ( NumberSchemaIndexAccessor accessor = accessor() )
+        {
+            // when
+            try ( IndexUpdater updater = accessor.newUpdater( ONLINE ) )
+            {
+                for ( long id = 1_000; id < 1_500; id++ )
+                {
+                    updater.process( add( id, DISTINCT_VALUES + id % 50 ) );
+                }
+                // adding an already existing entry, as may happen during recovery, doesn't count
+                updater.process( add( 1_000, DISTINCT_VALUES ) );
+                updater.process( IndexEntryUpdate.change( 0, schemaIndexDescriptor, Values.of( 0 ), Values.of( -1 ) ) );
+                updater.process( IndexEntryUpdate.remove( 1, schemaIndexDescriptor, Values.of( 1 ) ) );
+            }
+
+            // then
+            assertFalse( accessor.statistics.isStale( samplingConfig.updateRatio() ) );
+            assertSample( accessor, 1_499, DISTINCT_VALUES + 50 + 1 );
+        }
+    }
+
+    @Test
+    public void shouldPersistStatisticsWhenForced() throws Exception
+    {
+        // given
+        populate( 1_000 );
+        try ( NumberSchemaIndexAccessor accessor = accessor() )
+        {
+            try ( IndexUpdater updater = accessor.newUpdater( ONLINE ) )
+            {
+                for ( long id = 1_000; id < 2_000; id++ )
+                {
+                    updater.process( add( id, id ) );
+                }
+            }
+
+            // when
+            accessor.force( IOLimiter.unlimited() );
+        }
+
+        // then
+        try ( NumberSchemaIndexAccessor accessor = accessor() )
+        {
+            assertFalse( accessor.statistics.isStale( samplingConfig.updateRatio() ) );
+            assertSample( accessor, 2_000, DISTINCT_VALUES + 1_000 );
+        }
+    }
+
+    @Test
+    public void shouldRebuildStatisticsAfterManyRemovals() throws Exception
+    {
+        // given
+        populate( 1_000 );
+
+        try ( NumberSchemaIndexAccessor accessor = accessor() )
+        {
+            // when
+            try ( IndexUpdater updater = accessor.newUpdater( ONLINE ) )
+            {
+                for ( long id = 0; id < 1_000; id++ )
+                {
+                    if ( id % DISTINCT_VALUES >= 10 )
+                    {
+                        updater.process( IndexEntryUpdate.remove( id, schemaIndexDescriptor, Values.of( id % DISTINCT_VALUES ) ) );
+                    }
+                }
+            }
+
+            // then
+            assertTrue( accessor.statistics.isStale( samplingConfig.updateRatio() ) );
+            assertSample( accessor, 100, 10 );
+            assertFalse( accessor.statistics.isStale( samplingConfig.updateRatio() ) );
+        }
+    }
+
+    private void assertSample( NumberSchemaIndexAccessor accessor, long expectedSize, long expectedUniqueValues ) throws Exception
+    {
+        IndexSample sample;
+        try ( IndexReader reader = accessor.newReader() )
+        {
+            sample = reader.createSampler().sampleIndex();
+        }
+        assertEquals( expectedSize, sample.indexSize() );
+        assertEquals( expectedSize, sample.sampleSize() );
+        assertTrue( "expected around " + expectedUniqueValues + " unique values, but was " + sample.uniqueValues(),
+                Math.abs( expectedUniqueValues - sample.uniqueValues() ) <= Math.max( 1, expectedUniqueValues * 0.05 ) );
+    }
+
+    private void populate( int count ) throws Exception
+    {
+        List<IndexEntryUpdate<SchemaIndexDescriptor>> updates = new ArrayList<>();
+        for ( long id = 0; id < count; id++ )
+        {
+            updates.add( add( id, id % DISTINCT_VALUES ) );
+        }
+        NumberSchemaIndexPopulator populator =
+                new NumberSchemaIndexPopulator( pageCache, fs, getIndexFile(), layout, monitor, schemaIndexDescriptor, indexId, samplingConfig );
+        populator.create();
+        populator.add( updates );
+        populator.close( true );
+    }
+
+    private IndexEntryUpdate<SchemaIndexDescriptor> add( long id, long value )
+    {
+        return IndexEntryUpdate.add( id, schemaIndexDescriptor, Values.of( value ) );
+    }
+
+    private NumberSchemaIndexAccessor accessor() throws IOException
+    {
+        return new NumberSchemaIndexAccessor( pageCache, fs, getIndexFile(), layout, immediate(), monitor, schemaIndexDescriptor, indexId,
+                samplingConfig );
+    }
+
+    @Override
+    LayoutTestUtil<NumberSchemaKey,NativeSchemaValue> createLayoutTestUtil()
+    {
+        return new NumberNonUniqueLayoutTestUtil();
+    }
+}
@@ -537,17 +537,23 @@ public abstract class NativeSchemaIndexAccessorTest<KEY extends NativeSchemaKey<
     }
 
     @Test
-    public void requestForSecondUpdaterMustThrow() throws Exception
+    public void shouldAllowMultipleUpdatersAtTheSameTime() throws Exception
     {
         // given
-        try ( IndexUpdater ignored = accessor.newUpdater( ONLINE ) )
+        IndexEntryUpdate<SchemaIndexDescriptor>[] updates = layoutUtil.someUpdates();
+        try ( IndexUpdater first = accessor.newUpdater( ONLINE );
+              IndexUpdater second = accessor.newUpdater( ONLINE ) )
         {
-            // then
-            expected.expect( IllegalStateException.class );
-
             // when
-            accessor.newUpdater( ONLINE );
+            for ( int i = 0; i < updates.length; i++ )
+            {
+                (i % 2 == 0 ? first : second).process( updates[i] );
+            }
         }
+
+        // then
+        forceAndCloseAccessor();
+        verifyUpdates( updates );
     }
 
     @Test
@@ -53,6 +53,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Random;
 
+import org.neo4j.helpers.CancellationRequest;
 import org.neo4j.index.internal.gbptree.GBPTree;
 import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
 import org.neo4j.io.fs.OpenMode;
@@ -207,6 +208,93 @@ public abstract class NativeSchemaIndexPopulatorTest<KEY extends NativeSchemaKey
         verifyUpdates( updates );
     }
 
+    @Test
+    public void updaterShouldApplyRemovalsOfAddedEntries() throws Exception
+    {
+        // given
+        populator.create();
+        IndexEntryUpdate<SchemaIndexDescriptor>[] updates = layoutUtil.someUpdates();
+        populator.add( Arrays.asList( updates ) );
+
+        // when
+        List<IndexEntryUpdate<SchemaIndexDescriptor>> remaining = new ArrayList<>();
+        try ( IndexUpdater updater = populator.newPopulatingUpdater( null_property_accessor ) )
+        {
+            for ( int i = 0; i < updates.length; i++ )
+            {
+                if ( i % 2 == 0 )
+                {
+                    updater.process( IndexEntryUpdate.remove( updates[i].getEntityId(), schemaIndexDescriptor, updates[i].values() ) );
+                }
+                else
+                {
+                    remaining.add( updates[i] );
+                }
+            }
+        }
+
+        // then
+        populator.close( true );
+        @SuppressWarnings( "unchecked" )
+        IndexEntryUpdate<SchemaIndexDescriptor>[] expected = remaining.toArray( new IndexEntryUpdate[0] );
+        verifyUpdates( expected );
+    }
+
+    @Test
+    public void updaterShouldApplyUpdatesBeforeAndAfterScanCompleted() throws Exception
+    {
+        // given
+        populator.create();
+        IndexEntryUpdate<SchemaIndexDescriptor>[] updates = layoutUtil.someUpdates();
+        populator.add( Arrays.asList( updates ) );
+        List<IndexEntryUpdate<SchemaIndexDescriptor>> remaining = new ArrayList<>();
+        try ( IndexUpdater updater = populator.newPopulatingUpdater( null_property_accessor ) )
+        {
+            for ( int i = 0; i < updates.length; i++ )
+            {
+                if ( i % 4 == 0 )
+                {
+                    updater.process( IndexEntryUpdate.remove( updates[i].getEntityId(), schemaIndexDescriptor, updates[i].values() ) );
+                }
+                else if ( i % 2 == 1 )
+                {
+                    remaining.add( updates[i] );
+                }
+            }
+        }
+
+        // when
+        populator.scanCompleted( CancellationRequest.NEVER_CANCELLED );
+        try ( IndexUpdater updater = populator.newPopulatingUpdater( null_property_accessor ) )
+        {
+            for ( int i = 2; i < updates.length; i += 4 )
+            {
+                updater.process( IndexEntryUpdate.remove( updates[i].getEntityId(), schemaIndexDescriptor, updates[i].values() ) );
+            }
+        }
+
+        // then
+        populator.close( true );
+        @SuppressWarnings( "unchecked" )
+        IndexEntryUpdate<SchemaIndexDescriptor>[] expected = remaining.toArray( new IndexEntryUpdate[0] );
+        verifyUpdates( expected );
+    }
+
+    @Test
+    public void unsuccessfulCloseAfterCancelledScanCompletedMustNotMarkIndexAsOnline() throws Exception
+    {
+        // given
+        populator.create();
+        populator.add( Arrays.asList( layoutUtil.someUpdates() ) );
+
+        // when
+        populator.scanCompleted( () -> true );
+        populator.close( false );
+
+        // then
+        assertHeader( false, "", false );
+    }
+
     @Test
     public void updaterMustThrowIfProcessAfterClose() throws Exception
     {
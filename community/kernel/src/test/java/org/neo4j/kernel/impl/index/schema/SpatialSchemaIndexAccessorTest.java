@@ -38,15 +38,30 @@
  */
 package org.neo4j.kernel.impl.index.schema;
 
+import org.junit.Test;
+
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.neo4j.gis.spatial.index.curves.StandardConfiguration;
+import org.neo4j.internal.kernel.api.IndexQuery;
+import org.neo4j.internal.kernel.api.IndexQuery.NearestNeighbourPredicate;
+import org.neo4j.kernel.api.index.IndexEntryUpdate;
+import org.neo4j.kernel.api.schema.index.SchemaIndexDescriptor;
 import org.neo4j.kernel.configuration.Config;
 import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingConfig;
 import org.neo4j.kernel.impl.index.schema.config.SpaceFillingCurveSettingsFactory;
+import org.neo4j.storageengine.api.schema.IndexReader;
+import org.neo4j.storageengine.api.schema.SimpleNodeValueClient;
 import org.neo4j.values.storable.CoordinateReferenceSystem;
+import org.neo4j.values.storable.PointValue;
 
+import static org.junit.Assert.assertEquals;
 import static org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector.immediate;
 
 abstract class SpatialSchemaIndexAccessorTest extends NativeSchemaIndexAccessorTest<SpatialSchemaKey,NativeSchemaValue>
@@ -70,6 +85,40 @@ abstract class SpatialSchemaIndexAccessorTest extends NativeSchemaIndexAccessorT
         return spatialFile.indexFile;
     }
 
+    @Test
+    public void shouldFindNearestNeighboursInOrderOfDistance() throws Exception
+    {
+        // given
+        Map<Long,PointValue> points = new HashMap<>();
+        List<IndexEntryUpdate<SchemaIndexDescriptor>> updates = new ArrayList<>();
+        for ( long id = 0; id < 500; id++ )
+        {
+            PointValue point = SpatialLayoutTestUtil.randomPoint( random.randoms() );
+            points.put( id, point );
+            updates.add( IndexEntryUpdate.add( id, schemaIndexDescriptor, point ) );
+        }
+        processAll( updates.toArray( new IndexEntryUpdate[0] ) );
+        NearestNeighbourPredicate predicate = IndexQuery.nearestNeighbours( 0, SpatialLayoutTestUtil.randomPoint( random.randoms() ) );
+
+        // when
+        List<Long> found = new ArrayList<>();
+        try ( IndexReader reader = accessor.newReader() )
+        {
+            SimpleNodeValueClient client = new SimpleNodeValueClient();
+            reader.nearestNeighbours( client, ( nodeId, propertyKeyId ) -> points.get( nodeId ), predicate );
+            while ( client.next() )
+            {
+                found.add( client.reference );
+                assertEquals( points.get( client.reference ), client.values[0] );
+            }
+        }
+
+        // then
+        List<Long> expected = new ArrayList<>( points.keySet() );
+        expected.sort( Comparator.comparingDouble( id -> predicate.distance( points.get( id ) ) ) );
+        assertEquals( expected, found );
+    }
+
     @Override
     public void shouldNotSeeFilteredEntries()
     {
@@ -38,30 +38,65 @@
  */
 package org.neo4j.kernel.impl.index.schema;
 
+import org.junit.Test;
+
 import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
+import org.neo4j.internal.kernel.api.IndexCapability;
+import org.neo4j.internal.kernel.api.IndexLimitation;
 import org.neo4j.internal.kernel.api.InternalIndexState;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.kernel.api.index.IndexDirectoryStructure;
 import org.neo4j.kernel.api.index.IndexProvider;
 import org.neo4j.kernel.api.index.IndexProvider.Monitor;
+import org.neo4j.kernel.api.index.IndexPopulator;
+import org.neo4j.kernel.api.schema.index.SchemaIndexDescriptor;
+import org.neo4j.kernel.api.schema.index.SchemaIndexDescriptorFactory;
+import org.neo4j.kernel.configuration.Config;
+import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingConfig;
+import org.neo4j.kernel.impl.index.schema.config.StringIndexSettings;
 import org.neo4j.values.storable.Value;
 import org.neo4j.values.storable.Values;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.neo4j.helpers.collection.MapUtil.stringMap;
+import static org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector.immediate;
+import static org.neo4j.kernel.api.index.IndexDirectoryStructure.directoriesByProvider;
+
 public class StringIndexProviderTest extends NativeIndexProviderTest
 {
+    private static final IndexLimitation[] SLOW_CONTAINS = {IndexLimitation.SLOW_CONTAINS};
+
+    @Test
+    public void shouldOnlyReportFastContainsForIndexesHavingTrigramIndex() throws Exception
+    {
+        // given
+        SchemaIndexDescriptor descriptor = SchemaIndexDescriptorFactory.forLabel( 1, 1 );
+        populate( trigramProvider( false ), 1, descriptor );
+        populate( trigramProvider( true ), 2, descriptor );
+
+        // when
+        IndexProvider provider = trigramProvider( true );
+
+        // then
+        assertArrayEquals( IndexCapability.LIMITIATION_NONE, provider.getCapability( descriptor ).limitations() );
+        assertArrayEquals( SLOW_CONTAINS, provider.getCapability( 1, descriptor ).limitations() );
+        assertArrayEquals( IndexCapability.LIMITIATION_NONE, provider.getCapability( 2, descriptor ).limitations() );
+        assertArrayEquals( SLOW_CONTAINS, trigramProvider( false ).getCapability( 2, descriptor ).limitations() );
+    }
+
     @Override
     IndexProvider newProvider( PageCache pageCache, FileSystemAbstraction fs, IndexDirectoryStructure.Factory dir,
                                Monitor monitor, RecoveryCleanupWorkCollector collector )
     {
-        return new StringIndexProvider( pageCache, fs, dir, monitor, collector, false );
+        return new StringIndexProvider( pageCache, fs, dir, monitor, collector, false, Config.defaults() );
     }
 
     @Override
     IndexProvider newReadOnlyProvider( PageCache pageCache, FileSystemAbstraction fs, IndexDirectoryStructure.Factory dir,
                                        Monitor monitor, RecoveryCleanupWorkCollector collector )
     {
-        return new StringIndexProvider( pageCache, fs, dir, monitor, collector, true );
+        return new StringIndexProvider( pageCache, fs, dir, monitor, collector, true, Config.defaults() );
     }
 
     @Override
@@ -75,4 +110,18 @@ public class StringIndexProviderTest extends NativeIndexProviderTest
     {
         return Values.stringValue( "abc" );
     }
+
+    private IndexProvider trigramProvider( boolean trigrams )
+    {
+        Config config = Config.defaults( stringMap( StringIndexSettings.trigram_index_enabled.name(), String.valueOf( trigrams ) ) );
+        return new StringIndexProvider( rules.pageCache(), rules.fileSystem(), directoriesByProvider( rules.directory().absolutePath() ),
+                IndexProvider.Monitor.EMPTY, immediate(), false, config );
+    }
+
+    private static void populate( IndexProvider provider, long indexId, SchemaIndexDescriptor descriptor ) throws Exception
+    {
+        IndexPopulator populator = provider.getPopulator( indexId, descriptor, new IndexSamplingConfig( Config.defaults() ) );
+        populator.create();
+        populator.close( true );
+    }
 }
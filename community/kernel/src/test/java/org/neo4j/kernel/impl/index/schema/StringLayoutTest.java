@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.junit.Test;
+
+import org.neo4j.io.pagecache.ByteArrayPageCursor;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.values.storable.Values;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class StringLayoutTest
+{
+    private final StringLayout layout = new StringLayout();
+
+    @Test
+    public void minimalSplitterShouldBeShortestPrefixOfRightGreaterThanLeft()
+    {
+        // given
+        StringSchemaKey left = key( "http://example.org/users/1234", 1 );
+        StringSchemaKey right = key( "http://example.org/users/1299", 2 );
+
+        // when
+        StringSchemaKey splitter = layout.minimalSplitter( left, right, layout.newKey() );
+
+        // then
+        assertEquals( Values.stringValue( "http://example.org/users/129" ), splitter.asValue() );
+        assertTrue( layout.compare( left, splitter ) < 0 );
+        assertTrue( layout.compare( splitter, right ) <= 0 );
+    }
+
+    @Test
+    public void minimalSplitterShouldBeRightWhenValuesAreEqual()
+    {
+        // given
+        StringSchemaKey left = key( "http://example.org", 1 );
+        StringSchemaKey right = key( "http://example.org", 2 );
+
+        // when
+        StringSchemaKey splitter = layout.minimalSplitter( left, right, layout.newKey() );
+
+        // then
+        assertEquals( 0, layout.compare( splitter, right ) );
+        assertTrue( layout.compare( left, splitter ) < 0 );
+    }
+
+    @Test
+    public void minimalSplitterShouldHandleLeftBeingPrefixOfRight()
+    {
+        // given
+        StringSchemaKey left = key( "http://example.org", 1 );
+        StringSchemaKey right = key( "http://example.org/users", 0 );
+
+        // when
+        StringSchemaKey splitter = layout.minimalSplitter( left, right, layout.newKey() );
+
+        // then
+        assertEquals( Values.stringValue( "http://example.org/" ), splitter.asValue() );
+        assertTrue( layout.compare( left, splitter ) < 0 );
+        assertTrue( layout.compare( splitter, right ) <= 0 );
+    }
+
+    @Test
+    public void shouldReadKeyWithPrefixWrittenAsSuffix()
+    {
+        // given
+        String prefix = "http://example.org/";
+        StringSchemaKey key = key( prefix + "users/1234", 42 );
+        PageCursor cursor = ByteArrayPageCursor.wrap( 8 * 1024 );
+        int prefixOffset = 0;
+        cursor.putBytes( prefix.getBytes() );
+        int suffixOffset = cursor.getOffset();
+
+        // when
+        layout.writeKeySuffix( cursor, key, prefix.length() );
+        int suffixSize = cursor.getOffset() - suffixOffset;
+        cursor.setOffset( suffixOffset );
+        StringSchemaKey readKey = layout.newKey();
+        layout.readKeyWithPrefix( cursor, readKey, prefixOffset, prefix.length(), suffixSize );
+
+        // then
+        assertEquals( key.asValue(), readKey.asValue() );
+        assertEquals( key.getEntityId(), readKey.getEntityId() );
+        assertEquals( layout.keySize( key ), prefix.length() + suffixSize );
+        assertEquals( suffixOffset + suffixSize, cursor.getOffset() );
+    }
+
+    private StringSchemaKey key( String value, long entityId )
+    {
+        StringSchemaKey key = layout.newKey();
+        key.from( entityId, Values.stringValue( value ) );
+        return key;
+    }
+}
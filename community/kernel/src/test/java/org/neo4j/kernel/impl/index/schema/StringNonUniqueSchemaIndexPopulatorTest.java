@@ -45,7 +45,7 @@ public class StringNonUniqueSchemaIndexPopulatorTest extends NativeNonUniqueSche
     @Override
     NativeSchemaIndexPopulator<StringSchemaKey,NativeSchemaValue> createPopulator( IndexSamplingConfig samplingConfig )
     {
-        return new StringSchemaIndexPopulator( pageCache, fs, getIndexFile(), layout, monitor, schemaIndexDescriptor, indexId, samplingConfig );
+        return new StringSchemaIndexPopulator( pageCache, fs, getIndexFile(), layout, monitor, schemaIndexDescriptor, indexId, samplingConfig, false );
     }
 
     @Override
@@ -38,10 +38,23 @@
  */
 package org.neo4j.kernel.impl.index.schema;
 
+import org.junit.Test;
+
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
+import org.neo4j.internal.kernel.api.IndexOrder;
+import org.neo4j.internal.kernel.api.IndexQuery;
+import org.neo4j.kernel.api.index.IndexEntryUpdate;
+import org.neo4j.kernel.api.schema.index.SchemaIndexDescriptor;
 import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingConfig;
+import org.neo4j.storageengine.api.schema.IndexReader;
+import org.neo4j.storageengine.api.schema.SimpleNodeValueClient;
+import org.neo4j.values.storable.Value;
 
+import static org.junit.Assert.assertEquals;
 import static org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector.immediate;
 
 public abstract class StringSchemaIndexAccessorTest extends NativeSchemaIndexAccessorTest<StringSchemaKey,NativeSchemaValue>
@@ -50,7 +63,42 @@ public abstract class StringSchemaIndexAccessorTest extends NativeSchemaIndexAcc
     StringSchemaIndexAccessor makeAccessorWithSamplingConfig( IndexSamplingConfig samplingConfig ) throws IOException
     {
         return new StringSchemaIndexAccessor( pageCache, fs, getIndexFile(), layout, immediate(), monitor,
-                schemaIndexDescriptor, indexId, samplingConfig );
+                schemaIndexDescriptor, indexId, samplingConfig, false );
+    }
+
+    @Test
+    public void shouldReturnValuesInDescendingOrderAsReversedAscendingOrder() throws Exception
+    {
+        // given
+        IndexEntryUpdate<SchemaIndexDescriptor>[] someUpdates = layoutUtil.someUpdates();
+        processAll( someUpdates );
+
+        try ( IndexReader reader = accessor.newReader() )
+        {
+            for ( IndexQuery query : new IndexQuery[]{IndexQuery.stringPrefix( 0, "" ), IndexQuery.range( 0, (String) null, true, null, true )} )
+            {
+                // when
+                List<Value> ascending = values( reader, IndexOrder.ASCENDING, query );
+                List<Value> descending = values( reader, IndexOrder.DESCENDING, query );
+
+                // then
+                assertEquals( someUpdates.length, ascending.size() );
+                Collections.reverse( descending );
+                assertEquals( ascending, descending );
+            }
+        }
+    }
+
+    private static List<Value> values( IndexReader reader, IndexOrder indexOrder, IndexQuery query ) throws Exception
+    {
+        SimpleNodeValueClient client = new SimpleNodeValueClient();
+        reader.query( client, indexOrder, query );
+        List<Value> values = new ArrayList<>();
+        while ( client.next() )
+        {
+            values.add( client.values[0] );
+        }
+        return values;
     }
 
     // TODO test reader unsupported index order
@@ -0,0 +1,322 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+
+import org.neo4j.internal.kernel.api.IndexOrder;
+import org.neo4j.internal.kernel.api.IndexQuery;
+import org.neo4j.kernel.api.index.IndexEntryUpdate;
+import org.neo4j.kernel.api.index.IndexUpdater;
+import org.neo4j.kernel.api.schema.index.SchemaIndexDescriptor;
+import org.neo4j.kernel.configuration.Config;
+import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingConfig;
+import org.neo4j.storageengine.api.schema.IndexReader;
+import org.neo4j.storageengine.api.schema.SimpleNodeValueClient;
+import org.neo4j.values.storable.Values;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector.immediate;
+import static org.neo4j.kernel.impl.api.index.IndexUpdateMode.ONLINE;
+
+public class StringSchemaIndexTrigramTest extends NativeSchemaIndexTestUtil<StringSchemaKey,NativeSchemaValue>
+{
+    private static final String ALPHABET = "abcd";
+
+    private final IndexSamplingConfig samplingConfig = new IndexSamplingConfig( Config.defaults() );
+    private final Map<Long,String> strings = new HashMap<>();
+
+    @Override
+    LayoutTestUtil<StringSchemaKey,NativeSchemaValue> createLayoutTestUtil()
+    {
+        return new StringNonUniqueLayoutTestUtil();
+    }
+
+    @Test
+    public void shouldFindCandidatesHavingAllTrigramsOfSearchString() throws Exception
+    {
+        // given
+        populate( true, 1_000 );
+
+        try ( StringSchemaIndexAccessor accessor = accessor( true ) )
+        {
+            // when
+            applyRandomUpdates( accessor, 200 );
+
+            // then
+            try ( IndexReader reader = accessor.newReader() )
+            {
+                for ( int i = 0; i < 100; i++ )
+                {
+                    String search = randomString( 3, 8 );
+                    assertCandidates( reader, IndexQuery.stringContains( propertyKeyId(), search ), search );
+                    assertCandidates( reader, IndexQuery.stringSuffix( propertyKeyId(), search ), search );
+                }
+            }
+        }
+    }
+
+    @Test
+    public void shouldScanForSearchStringsWithoutTrigrams() throws Exception
+    {
+        // given
+        populate( true, 100 );
+
+        try ( StringSchemaIndexAccessor accessor = accessor( true );
+              IndexReader reader = accessor.newReader() )
+        {
+            // when
+            IndexQuery query = IndexQuery.stringContains( propertyKeyId(), "ab" );
+
+            // then
+            assertTrue( reader.hasFullValuePrecision( query ) );
+            assertEquals( expected( s -> s.contains( "ab" ) ), result( reader, query ) );
+        }
+    }
+
+    @Test
+    public void shouldScanForOrderedQueriesWithFullValuePrecision() throws Exception
+    {
+        // given
+        populate( true, 100 );
+
+        try ( StringSchemaIndexAccessor accessor = accessor( true );
+              IndexReader reader = accessor.newReader() )
+        {
+            // when
+            IndexQuery query = IndexQuery.stringContains( propertyKeyId(), "abc" );
+            SimpleNodeValueClient client = new SimpleNodeValueClient();
+            reader.query( client, IndexOrder.ASCENDING, query );
+
+            // then
+            assertFalse( reader.hasFullValuePrecision( IndexOrder.NONE, query ) );
+            assertTrue( reader.hasFullValuePrecision( IndexOrder.ASCENDING, query ) );
+            TreeSet<Long> result = new TreeSet<>();
+            String previous = "";
+            while ( client.next() )
+            {
+                String value = strings.get( client.reference );
+                assertTrue( "values in ascending order", value.compareTo( previous ) >= 0 );
+                previous = value;
+                result.add( client.reference );
+            }
+            assertEquals( expected( s -> s.contains( "abc" ) ), result );
+        }
+    }
+
+    @Test
+    public void shouldDeleteTrigramIndexWhenOpenedWithTrigramsDisabled() throws Exception
+    {
+        // given
+        populate( true, 100 );
+        File trigramFile = TrigramIndex.trigramFile( getIndexFile() );
+        assertTrue( fs.fileExists( trigramFile ) );
+
+        // when
+        try ( StringSchemaIndexAccessor accessor = accessor( false );
+              IndexReader reader = accessor.newReader() )
+        {
+            // then
+            assertFalse( fs.fileExists( trigramFile ) );
+            IndexQuery query = IndexQuery.stringContains( propertyKeyId(), "abc" );
+            assertTrue( reader.hasFullValuePrecision( query ) );
+            assertEquals( expected( s -> s.contains( "abc" ) ), result( reader, query ) );
+        }
+        try ( StringSchemaIndexAccessor accessor = accessor( true );
+              IndexReader reader = accessor.newReader() )
+        {
+            assertTrue( reader.hasFullValuePrecision( IndexQuery.stringContains( propertyKeyId(), "abc" ) ) );
+        }
+    }
+
+    @Test
+    public void shouldNotKeepTrigramIndexOfFailedPopulation() throws Exception
+    {
+        // given
+        StringSchemaIndexPopulator populator = populator( true );
+        populator.create();
+        populator.add( randomAdditions( 100 ) );
+
+        // when
+        populator.markAsFailed( "failed" );
+        populator.close( false );
+
+        // then
+        assertFalse( fs.fileExists( TrigramIndex.trigramFile( getIndexFile() ) ) );
+    }
+
+    @Test
+    public void shouldDropTrigramIndexWithIndex() throws Exception
+    {
+        // given
+        populate( true, 100 );
+        StringSchemaIndexAccessor accessor = accessor( true );
+
+        // when
+        accessor.drop();
+
+        // then
+        assertFalse( fs.fileExists( getIndexFile() ) );
+        assertFalse( fs.fileExists( TrigramIndex.trigramFile( getIndexFile() ) ) );
+    }
+
+    private void assertCandidates( IndexReader reader, IndexQuery query, String search ) throws Exception
+    {
+        assertFalse( reader.hasFullValuePrecision( query ) );
+        long[] searchGrams = Trigrams.distinct( search );
+        TreeSet<Long> expected = expected( s -> Trigrams.difference( searchGrams, Trigrams.distinct( s ) ).length == 0 );
+        assertEquals( "candidates for " + query, expected, result( reader, query ) );
+    }
+
+    private TreeSet<Long> result( IndexReader reader, IndexQuery query ) throws Exception
+    {
+        SimpleNodeValueClient client = new SimpleNodeValueClient();
+        reader.query( client, IndexOrder.NONE, query );
+        TreeSet<Long> result = new TreeSet<>();
+        long previous = -1;
+        while ( client.next() )
+        {
+            if ( !reader.hasFullValuePrecision( query ) )
+            {
+                assertTrue( "candidates in ascending order", client.reference > previous );
+            }
+            previous = client.reference;
+            result.add( client.reference );
+        }
+        return result;
+    }
+
+    private TreeSet<Long> expected( Predicate<String> filter )
+    {
+        TreeSet<Long> expected = new TreeSet<>();
+        strings.forEach( ( id, string ) ->
+        {
+            if ( filter.test( string ) )
+            {
+                expected.add( id );
+            }
+        } );
+        return expected;
+    }
+
+    private void populate( boolean trigrams, int count ) throws Exception
+    {
+        StringSchemaIndexPopulator populator = populator( trigrams );
+        populator.create();
+        populator.add( randomAdditions( count ) );
+        populator.close( true );
+    }
+
+    private List<IndexEntryUpdate<SchemaIndexDescriptor>> randomAdditions( int count )
+    {
+        List<IndexEntryUpdate<SchemaIndexDescriptor>> updates = new ArrayList<>();
+        for ( long id = 0; id < count; id++ )
+        {
+            String string = randomString( 0, 12 );
+            strings.put( id, string );
+            updates.add( IndexEntryUpdate.add( id, schemaIndexDescriptor, Values.stringValue( string ) ) );
+        }
+        return updates;
+    }
+
+    private void applyRandomUpdates( StringSchemaIndexAccessor accessor, int count ) throws Exception
+    {
+        try ( IndexUpdater updater = accessor.newUpdater( ONLINE ) )
+        {
+            for ( int i = 0; i < count; i++ )
+            {
+                long id = random.nextInt( strings.size() + 10 );
+                String before = strings.get( id );
+                String after = randomString( 0, 12 );
+                if ( before == null )
+                {
+                    updater.process( IndexEntryUpdate.add( id, schemaIndexDescriptor, Values.stringValue( after ) ) );
+                    strings.put( id, after );
+                }
+                else if ( random.nextBoolean() )
+                {
+                    updater.process( IndexEntryUpdate.change( id, schemaIndexDescriptor, Values.stringValue( before ), Values.stringValue( after ) ) );
+                    strings.put( id, after );
+                }
+                else
+                {
+                    updater.process( IndexEntryUpdate.remove( id, schemaIndexDescriptor, Values.stringValue( before ) ) );
+                    strings.remove( id );
+                }
+            }
+        }
+    }
+
+    private String randomString( int minLength, int maxLength )
+    {
+        char[] chars = new char[minLength + random.nextInt( maxLength - minLength + 1 )];
+        for ( int i = 0; i < chars.length; i++ )
+        {
+            chars[i] = ALPHABET.charAt( random.nextInt( ALPHABET.length() ) );
+        }
+        return new String( chars );
+    }
+
+    private int propertyKeyId()
+    {
+        return schemaIndexDescriptor.schema().getPropertyId();
+    }
+
+    private StringSchemaIndexPopulator populator( boolean trigrams )
+    {
+        return new StringSchemaIndexPopulator( pageCache, fs, getIndexFile(), layout, monitor, schemaIndexDescriptor, indexId, samplingConfig, trigrams );
+    }
+
+    private StringSchemaIndexAccessor accessor( boolean trigrams ) throws IOException
+    {
+        return new StringSchemaIndexAccessor( pageCache, fs, getIndexFile(), layout, immediate(), monitor, schemaIndexDescriptor, indexId,
+                samplingConfig, trigrams );
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.neo4j.kernel.impl.index.schema.Trigrams.gram;
+
+public class TrigramsTest
+{
+    @Test
+    public void shouldHaveNoTrigramsForShortStrings()
+    {
+        assertEquals( 0, Trigrams.distinct( "" ).length );
+        assertEquals( 0, Trigrams.distinct( "ab" ).length );
+    }
+
+    @Test
+    public void shouldGiveDistinctTrigramsInOrder()
+    {
+        // when
+        long[] grams = Trigrams.distinct( "ababa" );
+
+        // then
+        assertArrayEquals( new long[]{gram( 'a', 'b', 'a' ), gram( 'b', 'a', 'b' )}, grams );
+    }
+
+    @Test
+    public void shouldOrderTrigramsLikeStrings()
+    {
+        // when
+        long[] grams = Trigrams.distinct( "zyxa\u00e5\uffffb" );
+
+        // then
+        long[] sortedByString = Arrays.stream( grams ).boxed()
+                .sorted( Comparator.comparing( Trigrams::toString ) )
+                .mapToLong( Long::longValue ).toArray();
+        assertArrayEquals( sortedByString, grams );
+        for ( long gram : grams )
+        {
+            assertArrayEquals( new long[]{gram}, Trigrams.distinct( Trigrams.toString( gram ) ) );
+        }
+    }
+
+    @Test
+    public void shouldSelectEvenlySpreadTrigramsForSearch()
+    {
+        // given
+        long[] all = Trigrams.distinct( "abcdefghij" );
+
+        // when
+        long[] selected = Trigrams.forSearch( "abcdefghij", 3 );
+
+        // then
+        assertArrayEquals( new long[]{all[0], all[3], all[7]}, selected );
+        assertArrayEquals( all, Trigrams.forSearch( "abcdefghij", 8 ) );
+        assertArrayEquals( new long[]{all[0]}, Trigrams.forSearch( "abcdefghij", 1 ) );
+    }
+
+    @Test
+    public void shouldGiveDifferenceOfTrigrams()
+    {
+        // given
+        long[] before = Trigrams.distinct( "abcdef" );
+        long[] after = Trigrams.distinct( "xbcdefy" );
+
+        // then
+        assertArrayEquals( new long[]{gram( 'a', 'b', 'c' )}, Trigrams.difference( before, after ) );
+        assertArrayEquals( new long[]{gram( 'e', 'f', 'y' ), gram( 'x', 'b', 'c' )}, Trigrams.difference( after, before ) );
+        assertEquals( 0, Trigrams.difference( before, before ).length );
+    }
+}
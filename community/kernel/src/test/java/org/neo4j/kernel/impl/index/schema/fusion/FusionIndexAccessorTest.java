@@ -85,6 +85,8 @@ import static org.neo4j.kernel.impl.index.schema.fusion.FusionIndexTestHelp.veri
 import static org.neo4j.kernel.impl.index.schema.fusion.FusionVersion.v00;
 import static org.neo4j.kernel.impl.index.schema.fusion.FusionVersion.v10;
 import static org.neo4j.kernel.impl.index.schema.fusion.FusionVersion.v20;
+import static org.neo4j.kernel.impl.index.schema.fusion.FusionVersion.v30;
+import static org.neo4j.kernel.impl.index.schema.fusion.SlotSelector.COMPOSITE;
 import static org.neo4j.kernel.impl.index.schema.fusion.SlotSelector.INSTANCE_COUNT;
 import static org.neo4j.kernel.impl.index.schema.fusion.SlotSelector.LUCENE;
 import static org.neo4j.kernel.impl.index.schema.fusion.SlotSelector.NUMBER;
@@ -110,7 +112,7 @@ public class FusionIndexAccessorTest
     {
         return new FusionVersion[]
                 {
-                        v00, v10, v20
+                        v00, v10, v20, v30
                 };
     }
 
@@ -150,6 +152,9 @@ public class FusionIndexAccessorTest
             case LUCENE:
                 accessors[LUCENE] = mock;
                 break;
+            case COMPOSITE:
+                accessors[COMPOSITE] = mock;
+                break;
             default:
                 throw new RuntimeException();
             }
@@ -69,10 +69,13 @@ import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.neo4j.kernel.impl.index.schema.fusion.FusionIndexTestHelp.add;
+import static org.neo4j.kernel.impl.index.schema.fusion.FusionIndexTestHelp.supportedByComposite;
 import static org.neo4j.kernel.impl.index.schema.fusion.FusionIndexTestHelp.verifyCallFail;
 import static org.neo4j.kernel.impl.index.schema.fusion.FusionVersion.v00;
 import static org.neo4j.kernel.impl.index.schema.fusion.FusionVersion.v10;
 import static org.neo4j.kernel.impl.index.schema.fusion.FusionVersion.v20;
+import static org.neo4j.kernel.impl.index.schema.fusion.FusionVersion.v30;
+import static org.neo4j.kernel.impl.index.schema.fusion.SlotSelector.COMPOSITE;
 import static org.neo4j.kernel.impl.index.schema.fusion.SlotSelector.INSTANCE_COUNT;
 import static org.neo4j.kernel.impl.index.schema.fusion.SlotSelector.LUCENE;
 import static org.neo4j.kernel.impl.index.schema.fusion.SlotSelector.NUMBER;
@@ -94,7 +97,7 @@ public class FusionIndexPopulatorTest
     {
         return new FusionVersion[]
                 {
-                        v00, v10, v20
+                        v00, v10, v20, v30
                 };
     }
 
@@ -134,6 +137,9 @@ public class FusionIndexPopulatorTest
             case LUCENE:
                 populators[LUCENE] = mock;
                 break;
+            case COMPOSITE:
+                populators[COMPOSITE] = mock;
+                break;
             default:
                 throw new RuntimeException();
             }
@@ -250,7 +256,8 @@ public class FusionIndexPopulatorTest
         {
             for ( Value secondValue : allValues )
             {
-                verifyAddWithCorrectPopulator( populators[LUCENE], firstValue, secondValue );
+                int compositeSlot = supportedByComposite( firstValue, secondValue ) ? COMPOSITE : LUCENE;
+                verifyAddWithCorrectPopulator( orLucene( populators[compositeSlot] ), firstValue, secondValue );
             }
         }
     }
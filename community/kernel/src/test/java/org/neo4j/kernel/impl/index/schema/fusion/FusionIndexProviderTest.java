@@ -53,6 +53,7 @@ import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.kernel.api.index.IndexProvider;
 import org.neo4j.kernel.api.schema.index.SchemaIndexDescriptor;
 import org.neo4j.kernel.api.schema.index.SchemaIndexDescriptorFactory;
+import org.neo4j.kernel.impl.index.schema.CompositeIndexProvider;
 import org.neo4j.kernel.impl.index.schema.NumberIndexProvider;
 import org.neo4j.kernel.impl.index.schema.SpatialIndexProvider;
 import org.neo4j.kernel.impl.index.schema.StringIndexProvider;
@@ -74,9 +75,12 @@ import static org.neo4j.helpers.ArrayUtil.array;
 import static org.neo4j.kernel.api.index.IndexDirectoryStructure.NONE;
 import static org.neo4j.kernel.api.schema.index.SchemaIndexDescriptorFactory.forLabel;
 import static org.neo4j.kernel.impl.index.schema.fusion.FusionIndexBase.GROUP_OF;
+import static org.neo4j.kernel.impl.index.schema.fusion.FusionIndexTestHelp.supportedByComposite;
 import static org.neo4j.kernel.impl.index.schema.fusion.FusionVersion.v00;
 import static org.neo4j.kernel.impl.index.schema.fusion.FusionVersion.v10;
 import static org.neo4j.kernel.impl.index.schema.fusion.FusionVersion.v20;
+import static org.neo4j.kernel.impl.index.schema.fusion.FusionVersion.v30;
+import static org.neo4j.kernel.impl.index.schema.fusion.SlotSelector.COMPOSITE;
 import static org.neo4j.kernel.impl.index.schema.fusion.SlotSelector.INSTANCE_COUNT;
 import static org.neo4j.kernel.impl.index.schema.fusion.SlotSelector.LUCENE;
 import static org.neo4j.kernel.impl.index.schema.fusion.SlotSelector.NUMBER;
@@ -100,7 +104,7 @@ public class FusionIndexProviderTest
     {
         return new FusionVersion[]
                 {
-                        v00, v10, v20
+                        v00, v10, v20, v30
                 };
     }
 
@@ -146,7 +150,8 @@ public class FusionIndexProviderTest
                 IndexProvider selected = instanceSelector.select( slotSelector.selectSlot( array( firstValue, secondValue ), GROUP_OF ) );
 
                 // then
-                assertSame( providers[LUCENE], selected );
+                int compositeSlot = supportedByComposite( firstValue, secondValue ) ? COMPOSITE : LUCENE;
+                assertSame( orLucene( providers[compositeSlot] ), selected );
             }
         }
     }
@@ -328,6 +333,11 @@ public class FusionIndexProviderTest
                 providers[LUCENE] = lucene;
                 aliveProviders[i] = lucene;
                 break;
+            case COMPOSITE:
+                IndexProvider composite = mockProvider( CompositeIndexProvider.class, "composite" );
+                providers[COMPOSITE] = composite;
+                aliveProviders[i] = composite;
+                break;
             default:
                 throw new RuntimeException();
             }
@@ -338,6 +348,7 @@ public class FusionIndexProviderTest
                 providers[SPATIAL],
                 providers[TEMPORAL],
                 providers[LUCENE],
+                providers[COMPOSITE],
                 fusionVersion.slotSelector(), DESCRIPTOR, 10, NONE, mock( FileSystemAbstraction.class ), false );
         instanceSelector = new InstanceSelector<>( providers );
     }
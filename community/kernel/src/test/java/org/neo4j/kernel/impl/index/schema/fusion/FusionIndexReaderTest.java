@@ -73,9 +73,12 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
+import static org.neo4j.kernel.impl.index.schema.fusion.FusionIndexTestHelp.supportedByComposite;
 import static org.neo4j.kernel.impl.index.schema.fusion.FusionVersion.v00;
 import static org.neo4j.kernel.impl.index.schema.fusion.FusionVersion.v10;
 import static org.neo4j.kernel.impl.index.schema.fusion.FusionVersion.v20;
+import static org.neo4j.kernel.impl.index.schema.fusion.FusionVersion.v30;
+import static org.neo4j.kernel.impl.index.schema.fusion.SlotSelector.COMPOSITE;
 import static org.neo4j.kernel.impl.index.schema.fusion.SlotSelector.INSTANCE_COUNT;
 import static org.neo4j.kernel.impl.index.schema.fusion.SlotSelector.LUCENE;
 import static org.neo4j.kernel.impl.index.schema.fusion.SlotSelector.NUMBER;
@@ -97,7 +100,7 @@ public class FusionIndexReaderTest
     {
         return new FusionVersion[]
                 {
-                        v00, v10, v20
+                        v00, v10, v20, v30
                 };
     }
 
@@ -137,6 +140,9 @@ public class FusionIndexReaderTest
             case LUCENE:
                 readers[LUCENE] = mock;
                 break;
+            case COMPOSITE:
+                readers[COMPOSITE] = mock;
+                break;
             default:
                 throw new RuntimeException();
             }
@@ -214,7 +220,8 @@ public class FusionIndexReaderTest
         {
             for ( Value secondValue : allValues )
             {
-                verifyCountIndexedNodesWithCorrectReader( readers[LUCENE], firstValue, secondValue );
+                int compositeSlot = supportedByComposite( firstValue, secondValue ) ? COMPOSITE : LUCENE;
+                verifyCountIndexedNodesWithCorrectReader( orLucene( readers[compositeSlot] ), firstValue, secondValue );
             }
         }
     }
@@ -237,8 +244,22 @@ public class FusionIndexReaderTest
     @Test
     public void mustSelectLuceneForCompositePredicate() throws Exception
     {
+        // given
+        PointValue point = Values.pointValue( CoordinateReferenceSystem.Cartesian, 1.0, 1.0 );
+        IndexQuery[] predicates = {IndexQuery.exact( PROP_KEY, "abc" ), IndexQuery.exact( PROP_KEY + 1, point )};
+
+        // then
+        verifyQueryWithCorrectReader( readers[LUCENE], predicates );
+    }
+
+    @Test
+    public void mustSelectCompositeForCompositePredicateWithNativeValues() throws Exception
+    {
+        // given
+        IndexQuery[] predicates = {IndexQuery.exact( PROP_KEY, "abc" ), IndexQuery.range( PROP_KEY + 1, 0, true, 10, false )};
+
         // then
-        verifyQueryWithCorrectReader( readers[LUCENE], any( IndexQuery.class ), any( IndexQuery.class ) );
+        verifyQueryWithCorrectReader( orLucene( readers[COMPOSITE] ), predicates );
     }
 
     @Test
@@ -400,7 +421,7 @@ public class FusionIndexReaderTest
         Value[][] values = FusionIndexTestHelp.valuesByGroup();
         for ( int i = 0; i < readers.length; i++ )
         {
-            if ( readers[i] != IndexReader.EMPTY )
+            if ( readers[i] != IndexReader.EMPTY && values[i].length > 0 )
             {
                 // when
                 Value value = values[i][0];
@@ -153,10 +153,29 @@ class FusionIndexTestHelp
                         FusionIndexTestHelp.valuesSupportedByNumber(),
                         FusionIndexTestHelp.valuesSupportedBySpatial(),
                         FusionIndexTestHelp.valuesSupportedByTemporal(),
-                        FusionIndexTestHelp.valuesNotSupportedBySpecificIndex()
+                        FusionIndexTestHelp.valuesNotSupportedBySpecificIndex(),
+                        // composite slot, only ever gets tuples of values
+                        new Value[0]
                 };
     }
 
+    static boolean supportedByComposite( Value... values )
+    {
+        for ( Value value : values )
+        {
+            switch ( value.valueGroup() )
+            {
+            case TEXT:
+            case BOOLEAN:
+            case NUMBER:
+                break;
+            default:
+                return false;
+            }
+        }
+        return true;
+    }
+
     static void verifyCallFail( Exception expectedFailure, Callable failingCall )
     {
         try
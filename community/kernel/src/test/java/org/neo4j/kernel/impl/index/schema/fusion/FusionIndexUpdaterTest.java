@@ -67,9 +67,12 @@ import static org.neo4j.helpers.ArrayUtil.without;
 import static org.neo4j.kernel.impl.index.schema.fusion.FusionIndexTestHelp.add;
 import static org.neo4j.kernel.impl.index.schema.fusion.FusionIndexTestHelp.change;
 import static org.neo4j.kernel.impl.index.schema.fusion.FusionIndexTestHelp.remove;
+import static org.neo4j.kernel.impl.index.schema.fusion.FusionIndexTestHelp.supportedByComposite;
 import static org.neo4j.kernel.impl.index.schema.fusion.FusionVersion.v00;
 import static org.neo4j.kernel.impl.index.schema.fusion.FusionVersion.v10;
 import static org.neo4j.kernel.impl.index.schema.fusion.FusionVersion.v20;
+import static org.neo4j.kernel.impl.index.schema.fusion.FusionVersion.v30;
+import static org.neo4j.kernel.impl.index.schema.fusion.SlotSelector.COMPOSITE;
 import static org.neo4j.kernel.impl.index.schema.fusion.SlotSelector.INSTANCE_COUNT;
 import static org.neo4j.kernel.impl.index.schema.fusion.SlotSelector.LUCENE;
 import static org.neo4j.kernel.impl.index.schema.fusion.SlotSelector.NUMBER;
@@ -91,7 +94,7 @@ public class FusionIndexUpdaterTest
     {
         return new FusionVersion[]
                 {
-                        v00, v10, v20
+                        v00, v10, v20, v30
                 };
     }
 
@@ -131,6 +134,9 @@ public class FusionIndexUpdaterTest
             case LUCENE:
                 updaters[LUCENE] = mock;
                 break;
+            case COMPOSITE:
+                updaters[COMPOSITE] = mock;
+                break;
             default:
                 throw new RuntimeException();
             }
@@ -177,7 +183,8 @@ public class FusionIndexUpdaterTest
         {
             for ( Value secondValue : allValues )
             {
-                verifyAddWithCorrectUpdater( updaters[LUCENE], firstValue, secondValue );
+                int compositeSlot = supportedByComposite( firstValue, secondValue ) ? COMPOSITE : LUCENE;
+                verifyAddWithCorrectUpdater( orLucene( updaters[compositeSlot] ), firstValue, secondValue );
             }
         }
     }
@@ -203,7 +210,8 @@ public class FusionIndexUpdaterTest
         {
             for ( Value secondValue : allValues )
             {
-                verifyRemoveWithCorrectUpdater( updaters[LUCENE], firstValue, secondValue );
+                int compositeSlot = supportedByComposite( firstValue, secondValue ) ? COMPOSITE : LUCENE;
+                verifyRemoveWithCorrectUpdater( orLucene( updaters[compositeSlot] ), firstValue, secondValue );
             }
         }
     }
@@ -387,7 +395,7 @@ public class FusionIndexUpdaterTest
         Value[][] values = FusionIndexTestHelp.valuesByGroup();
         for ( int i = 0; i < updaters.length; i++ )
         {
-            if ( updaters[i] != SwallowingIndexUpdater.INSTANCE )
+            if ( updaters[i] != SwallowingIndexUpdater.INSTANCE && values[i].length > 0 )
             {
                 // when
                 Value value = values[i][0];
@@ -38,6 +38,7 @@
  */
 package org.neo4j.kernel.impl.index.schema.fusion;
 
+import static org.neo4j.kernel.impl.index.schema.fusion.SlotSelector.COMPOSITE;
 import static org.neo4j.kernel.impl.index.schema.fusion.SlotSelector.LUCENE;
 import static org.neo4j.kernel.impl.index.schema.fusion.SlotSelector.NUMBER;
 import static org.neo4j.kernel.impl.index.schema.fusion.SlotSelector.SPATIAL;
@@ -87,6 +88,20 @@ enum FusionVersion
                 {
                     return new FusionSlotSelector20();
                 }
+            },
+    v30
+            {
+                @Override
+                int[] aliveSlots()
+                {
+                    return new int[]{STRING, NUMBER, SPATIAL, TEMPORAL, LUCENE, COMPOSITE};
+                }
+
+                @Override
+                SlotSelector slotSelector()
+                {
+                    return new FusionSlotSelector30();
+                }
             };
 
     abstract int[] aliveSlots();
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.locking;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.kernel.impl.locking.LockContention.ResourceTypeWaits;
+import org.neo4j.kernel.impl.locking.LockContention.ResourceWaits;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.neo4j.kernel.impl.locking.ResourceTypes.LABEL;
+import static org.neo4j.kernel.impl.locking.ResourceTypes.NODE;
+import static org.neo4j.kernel.impl.locking.ResourceTypes.RELATIONSHIP;
+
+public class LockContentionProfilerTest
+{
+    @Test
+    public void shouldNotReportResourceTypesWithoutWaits()
+    {
+        LockContentionProfiler profiler = new LockContentionProfiler( ResourceTypes.values() );
+
+        assertTrue( profiler.resourceTypes().isEmpty() );
+        assertTrue( profiler.hottestResources( 10 ).isEmpty() );
+    }
+
+    @Test
+    public void shouldAggregateWaitsPerResourceType()
+    {
+        LockContentionProfiler profiler = new LockContentionProfiler( ResourceTypes.values() );
+
+        profiler.lockWaited( NODE, 1, true, TimeUnit.MICROSECONDS.toNanos( 3 ) );
+        profiler.lockWaited( NODE, 2, false, TimeUnit.MICROSECONDS.toNanos( 100 ) );
+        profiler.lockWaited( LABEL, 1, false, TimeUnit.MICROSECONDS.toNanos( 5 ) );
+
+        List<ResourceTypeWaits> types = profiler.resourceTypes();
+        assertEquals( 2, types.size() );
+        ResourceTypeWaits nodes = types.get( 0 );
+        assertEquals( NODE, nodes.resourceType() );
+        assertEquals( 2, nodes.waits() );
+        assertEquals( TimeUnit.MICROSECONDS.toNanos( 103 ), nodes.totalWaitNanos() );
+        assertEquals( TimeUnit.MICROSECONDS.toNanos( 100 ), nodes.maxWaitNanos() );
+        assertEquals( 4, nodes.waitPercentileMicros( 50 ) );
+        assertEquals( 128, nodes.waitPercentileMicros( 99 ) );
+        assertEquals( LABEL, types.get( 1 ).resourceType() );
+        assertEquals( 1, types.get( 1 ).waits() );
+    }
+
+    @Test
+    public void shouldListHottestResourcesFirst()
+    {
+        LockContentionProfiler profiler = new LockContentionProfiler( ResourceTypes.values() );
+
+        profiler.lockWaited( NODE, 1, true, 10 );
+        profiler.lockWaited( NODE, 2, true, 1_000 );
+        profiler.lockWaited( RELATIONSHIP, 1, false, 500 );
+        profiler.lockWaited( NODE, 2, false, 1_000 );
+
+        List<ResourceWaits> hottest = profiler.hottestResources( 2 );
+        assertEquals( 2, hottest.size() );
+        assertEquals( NODE, hottest.get( 0 ).resourceType() );
+        assertEquals( 2, hottest.get( 0 ).resourceId() );
+        assertEquals( 2, hottest.get( 0 ).waits() );
+        assertEquals( 1, hottest.get( 0 ).exclusiveWaits() );
+        assertEquals( 2_000, hottest.get( 0 ).totalWaitNanos() );
+        assertEquals( RELATIONSHIP, hottest.get( 1 ).resourceType() );
+        assertEquals( 1, hottest.get( 1 ).resourceId() );
+    }
+
+    @Test
+    public void shouldDropLeastContendedResourcesWhenFull()
+    {
+        LockContentionProfiler profiler = new LockContentionProfiler( 4, ResourceTypes.values() );
+
+        for ( int resourceId = 1; resourceId <= 4; resourceId++ )
+        {
+            profiler.lockWaited( NODE, resourceId, true, resourceId * 1_000 );
+        }
+        profiler.lockWaited( NODE, 5, true, 1 );
+
+        List<ResourceWaits> hottest = profiler.hottestResources( 10 );
+        assertEquals( 3, hottest.size() );
+        assertEquals( 4, hottest.get( 0 ).resourceId() );
+        assertEquals( 3, hottest.get( 1 ).resourceId() );
+        assertEquals( 5, hottest.get( 2 ).resourceId() );
+        // The per type statistics still count every wait.
+        assertEquals( 5, profiler.resourceTypes().get( 0 ).waits() );
+    }
+}
@@ -83,6 +83,7 @@ import org.neo4j.register.Register;
 import org.neo4j.storageengine.api.schema.IndexReader;
 import org.neo4j.storageengine.api.schema.LabelScanReader;
 import org.neo4j.storageengine.api.schema.PopulationProgress;
+import org.neo4j.storageengine.api.schema.RelationshipTypeScanReader;
 import org.neo4j.values.AnyValue;
 import org.neo4j.values.ValueMapper;
 import org.neo4j.values.storable.ArrayValue;
@@ -131,6 +132,12 @@ public class MockStore extends Read implements TestRule
         throw new UnsupportedOperationException( "not implemented" );
     }
 
+    @Override
+    RelationshipTypeScanReader relationshipTypeScanReader()
+    {
+        throw new UnsupportedOperationException( "not implemented" );
+    }
+
     @Override
     ExplicitIndex explicitNodeIndex( String indexName )
     {
@@ -637,6 +644,18 @@ public class MockStore extends Read implements TestRule
         throw new UnsupportedOperationException( "not implemented" );
     }
 
+    @Override
+    int nodeRecordsPerPage()
+    {
+        throw new UnsupportedOperationException( "not implemented" );
+    }
+
+    @Override
+    int relationshipRecordsPerPage()
+    {
+        throw new UnsupportedOperationException( "not implemented" );
+    }
+
     @Override
     TextValue string( DefaultPropertyCursor cursor, long reference, PageCursor page )
     {
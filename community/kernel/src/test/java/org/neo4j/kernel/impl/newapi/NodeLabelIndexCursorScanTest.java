@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.newapi;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+
+import org.neo4j.internal.kernel.api.NodeLabelIndexCursor;
+import org.neo4j.storageengine.api.schema.LabelScanReader;
+
+import static java.util.Collections.emptySet;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class NodeLabelIndexCursorScanTest
+{
+    private static final int LABEL = 3;
+    private static final int RANGE_SIZE = 64;
+
+    @Rule
+    public final MockStore store = new MockStore( new DefaultCursors() );
+    private final LabelScanReader labelScanReader = mock( LabelScanReader.class );
+    private final NodeLabelIndexCursor cursor = mock( DefaultNodeLabelIndexCursor.class );
+
+    @Test
+    public void shouldAlignBatchesToLabelScanRanges()
+    {
+        // given
+        when( labelScanReader.rangeSize() ).thenReturn( RANGE_SIZE );
+        long highMark = 10 * RANGE_SIZE + 17;
+        NodeLabelIndexCursorScan scan = new NodeLabelIndexCursorScan( store, labelScanReader, LABEL, highMark, false,
+                emptySet(), emptySet() );
+
+        // when
+        int[] sizeHints = {1, RANGE_SIZE - 1, RANGE_SIZE, RANGE_SIZE + 1, 3 * RANGE_SIZE - 5, 100};
+        int batches = 0;
+        while ( scan.reserveBatch( cursor, sizeHints[batches % sizeHints.length] ) )
+        {
+            batches++;
+        }
+
+        // then
+        assertFalse( "should not reserve any more batches", scan.reserveBatch( cursor, 1 ) );
+        ArgumentCaptor<Long> from = ArgumentCaptor.forClass( Long.class );
+        ArgumentCaptor<Long> to = ArgumentCaptor.forClass( Long.class );
+        verify( labelScanReader, atLeastOnce() ).nodesWithLabel( any(), eq( LABEL ), from.capture(), to.capture() );
+        List<Long> starts = from.getAllValues();
+        List<Long> stops = to.getAllValues();
+        assertEquals( batches, starts.size() );
+
+        long expectedStart = 0;
+        for ( int i = 0; i < batches; i++ )
+        {
+            long start = starts.get( i );
+            long stop = stops.get( i );
+            assertEquals( "batches should be contiguous and not overlap", expectedStart, start );
+            assertTrue( "batches should not be empty", stop > start );
+            assertEquals( "batch should start at the beginning of a range", 0, start % RANGE_SIZE );
+            if ( i < batches - 1 )
+            {
+                assertEquals( "batch should stop at the end of a range", 0, stop % RANGE_SIZE );
+            }
+            expectedStart = stop;
+        }
+        assertEquals( "batches should cover all node ids", highMark + 1, expectedStart );
+    }
+
+    @Test
+    public void shouldReadEachLabelScanRangeInOneBatchOnly()
+    {
+        // given
+        when( labelScanReader.rangeSize() ).thenReturn( RANGE_SIZE );
+        long highMark = 4 * RANGE_SIZE - 1;
+        NodeLabelIndexCursorScan scan = new NodeLabelIndexCursorScan( store, labelScanReader, LABEL, highMark, false,
+                emptySet(), emptySet() );
+
+        // when
+        int batches = 0;
+        while ( scan.reserveBatch( cursor, 1 ) )
+        {
+            batches++;
+        }
+
+        // then
+        assertEquals( "a batch smaller than a range should still span the whole range", 4, batches );
+        for ( long range = 0; range < 4; range++ )
+        {
+            long start = range * RANGE_SIZE;
+            verify( labelScanReader ).nodesWithLabel( any(), eq( LABEL ), eq( start ), eq( start + RANGE_SIZE ) );
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.query;
+
+import org.junit.Test;
+
+import org.neo4j.kernel.api.exceptions.Status;
+import org.neo4j.kernel.api.query.QueryMemoryTracker;
+import org.neo4j.memory.MemoryLimitExceededException;
+import org.neo4j.test.Race;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class QueryMemoryPoolTest
+{
+    @Test
+    public void handOutNoTrackerWhenNotTracking()
+    {
+        QueryMemoryPool pool = new QueryMemoryPool( false, 100, 100 );
+        QueryMemoryTracker tracker = pool.newTracker();
+
+        assertSame( QueryMemoryTracker.NONE, tracker );
+        assertFalse( tracker.isTracking() );
+        assertEquals( -1, tracker.usedBytes() );
+    }
+
+    @Test
+    public void trackUsedAndPeakBytesOfQueries()
+    {
+        QueryMemoryPool pool = new QueryMemoryPool( true, 0, 0 );
+        QueryMemoryTracker first = pool.newTracker();
+        QueryMemoryTracker second = pool.newTracker();
+
+        first.allocated( 60 );
+        first.deallocated( 20 );
+        second.allocated( 10 );
+
+        assertEquals( 40, first.usedBytes() );
+        assertEquals( 60, first.peakBytes() );
+        assertEquals( 50, pool.usedBytes() );
+    }
+
+    @Test
+    public void refuseAllocationBeyondQueryLimitWithoutRecordingIt()
+    {
+        QueryMemoryPool pool = new QueryMemoryPool( true, 100, 0 );
+        QueryMemoryTracker tracker = pool.newTracker();
+        tracker.allocated( 60 );
+
+        try
+        {
+            tracker.allocated( 41 );
+            fail( "Should have refused allocation beyond the query limit" );
+        }
+        catch ( MemoryLimitExceededException e )
+        {
+            assertEquals( Status.Statement.QueryOutOfMemoryError, e.status() );
+        }
+        assertEquals( 60, tracker.usedBytes() );
+        assertEquals( 60, pool.usedBytes() );
+    }
+
+    @Test
+    public void refuseAllocationBeyondGlobalLimitWithoutRecordingIt()
+    {
+        QueryMemoryPool pool = new QueryMemoryPool( true, 0, 100 );
+        QueryMemoryTracker first = pool.newTracker();
+        QueryMemoryTracker second = pool.newTracker();
+        first.allocated( 60 );
+
+        try
+        {
+            second.allocated( 41 );
+            fail( "Should have refused allocation beyond the global limit" );
+        }
+        catch ( MemoryLimitExceededException e )
+        {
+            assertEquals( Status.General.OutOfMemoryError, e.status() );
+        }
+        assertEquals( 0, second.usedBytes() );
+        assertEquals( 60, pool.usedBytes() );
+    }
+
+    @Test
+    public void giveBackWhatQueryStillHoldsWhenItEnds()
+    {
+        QueryMemoryPool pool = new QueryMemoryPool( true, 0, 0 );
+        QueryMemoryTracker tracker = pool.newTracker();
+        tracker.allocated( 60 );
+
+        tracker.close();
+        tracker.deallocated( 60 );
+        tracker.allocated( 10 );
+
+        assertEquals( 0, tracker.usedBytes() );
+        assertEquals( 60, tracker.peakBytes() );
+        assertEquals( 0, pool.usedBytes() );
+    }
+
+    @Test
+    public void notLeakReservationsOfAllocationsRacingWithEnd() throws Throwable
+    {
+        QueryMemoryPool pool = new QueryMemoryPool( true, 0, 0 );
+        for ( int i = 0; i < 100; i++ )
+        {
+            QueryMemoryTracker tracker = pool.newTracker();
+            Race race = new Race().withRandomStartDelays();
+            race.addContestants( 4, () ->
+            {
+                for ( int j = 0; j < 100; j++ )
+                {
+                    tracker.allocated( 10 );
+                }
+            } );
+            race.addContestant( tracker::close );
+            race.go();
+            tracker.close();
+
+            assertEquals( 0, pool.usedBytes() );
+        }
+    }
+}
@@ -56,6 +56,7 @@ import org.neo4j.kernel.impl.transaction.command.Command.NodeCommand;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryCommit;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryReader;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryStart;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryWriter;
 import org.neo4j.kernel.impl.transaction.log.entry.VersionAwareLogEntryReader;
 import org.neo4j.kernel.impl.transaction.log.files.LogFile;
 import org.neo4j.kernel.impl.transaction.log.files.LogFiles;
@@ -70,10 +71,13 @@ import org.neo4j.test.rule.CleanupRule;
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyByte;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
@@ -169,6 +173,43 @@ public class BatchingTransactionAppenderTest
         assertNull( tx.next() );
     }
 
+    @Test
+    public void shouldAppendTransactionsTooLargeToSerializeUpFront() throws Exception
+    {
+        // GIVEN
+        when( logFile.getWriter() ).thenReturn( channel );
+        when( transactionIdStore.nextCommittingTransactionId() ).thenReturn( 2L, 3L, 4L );
+        TransactionRepresentation small = transaction( singleCreateNodeCommand( 0 ), new byte[0], 0, 0, 0, 1, 0 );
+        Collection<StorageCommand> commands = new ArrayList<>();
+        for ( int id = 1; id <= 3; id++ )
+        {
+            commands.addAll( singleCreateNodeCommand( id ) );
+        }
+        TransactionRepresentation large = transaction( commands, new byte[0], 0, 0, 0, 1, 0 );
+        InMemoryClosableChannel serializedSmall = new InMemoryClosableChannel();
+        new TransactionLogWriter( new LogEntryWriter( serializedSmall ) ).serialize( small );
+        TransactionAppender appender = life.add( new BatchingTransactionAppender( logFiles, NO_ROTATION, positionCache,
+                transactionIdStore, BYPASS, databaseHealth, serializedSmall.writerPosition() ) );
+
+        // WHEN
+        appender.append( batchOf( small, large, small ), logAppendEvent );
+
+        // THEN
+        LogEntryReader<ReadableLogChannel> logEntryReader = new VersionAwareLogEntryReader<>();
+        try ( PhysicalTransactionCursor<ReadableLogChannel> reader =
+                      new PhysicalTransactionCursor<>( channel, logEntryReader ) )
+        {
+            for ( long txId = 2; txId <= 4; txId++ )
+            {
+                assertTrue( reader.next() );
+                CommittedTransactionRepresentation tx = reader.get();
+                assertEquals( txId, tx.getCommitEntry().getTxId() );
+                assertEquals( txId == 3 ? 3 : 1, countCommands( tx.getTransactionRepresentation() ) );
+            }
+            assertFalse( reader.next() );
+        }
+    }
+
     @Test
     public void shouldAppendCommittedTransactions() throws Exception
     {
@@ -265,7 +306,7 @@ public class BatchingTransactionAppenderTest
         FlushablePositionAwareChannel channel =
                 spy( new PositionAwarePhysicalFlushableChannel( mock( PhysicalLogVersionedStoreChannel.class ) ) );
         IOException failure = new IOException( failureMessage );
-        when( channel.putInt( anyInt() ) ).thenThrow( failure );
+        when( channel.put( any( byte[].class ), anyInt() ) ).thenThrow( failure );
         when( logFile.getWriter() ).thenReturn( channel );
         when( transactionIdStore.nextCommittingTransactionId() ).thenReturn( txId );
         Mockito.reset( databaseHealth );
@@ -385,7 +426,9 @@ public class BatchingTransactionAppenderTest
         // Given
         BatchingTransactionAppender appender = life.add( createTransactionAppender() );
         when( transactionIdStore.nextCommittingTransactionId() ).thenReturn( 42L );
-        TransactionToApply batch = new TransactionToApply( mock( TransactionRepresentation.class ), 43L );
+        TransactionRepresentation transaction = mock( TransactionRepresentation.class );
+        when( transaction.additionalHeader() ).thenReturn( new byte[0] );
+        TransactionToApply batch = new TransactionToApply( transaction, 43L );
 
         // When
         try
@@ -415,6 +458,17 @@ public class BatchingTransactionAppenderTest
         return tx;
     }
 
+    private static int countCommands( TransactionRepresentation transaction ) throws IOException
+    {
+        int[] count = new int[1];
+        transaction.accept( command ->
+        {
+            count[0]++;
+            return false;
+        } );
+        return count[0];
+    }
+
     private Collection<StorageCommand> singleCreateNodeCommand( long id )
     {
         Collection<StorageCommand> commands = new ArrayList<>();
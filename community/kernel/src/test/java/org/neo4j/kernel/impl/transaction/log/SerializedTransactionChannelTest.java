@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.transaction.command.Command.NodeCommand;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryWriter;
+import org.neo4j.storageengine.api.StorageCommand;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SerializedTransactionChannelTest
+{
+    @Test
+    public void shouldWriteSameBytesAsSerializingDirectlyIntoLog() throws Exception
+    {
+        // given
+        PhysicalTransactionRepresentation transaction = transaction( 10 );
+        InMemoryClosableChannel expected = new InMemoryClosableChannel();
+        new TransactionLogWriter( new LogEntryWriter( expected ) ).append( transaction, 42 );
+
+        // when
+        SerializedTransactionChannel serialized = new SerializedTransactionChannel();
+        serialized.serialize( transaction );
+        InMemoryClosableChannel actual = new InMemoryClosableChannel();
+        new TransactionLogWriter( new LogEntryWriter( actual ) ).append( serialized, 42, transaction.getTimeCommitted() );
+
+        // then
+        assertArrayEquals( writtenBytes( expected ), writtenBytes( actual ) );
+    }
+
+    @Test
+    public void shouldGrowToFitLargeTransactionsAndShrinkWhenCleared() throws Exception
+    {
+        // given
+        SerializedTransactionChannel serialized = new SerializedTransactionChannel();
+        PhysicalTransactionRepresentation transaction = transaction( 100_000 );
+
+        // when
+        serialized.serialize( transaction );
+
+        // then
+        assertTrue( serialized.size() > SerializedTransactionChannel.MAX_RETAINED_CAPACITY );
+        InMemoryClosableChannel expected = new InMemoryClosableChannel( serialized.size() + 1024 );
+        new TransactionLogWriter( new LogEntryWriter( expected ) ).serialize( transaction );
+        assertEquals( expected.writerPosition(), serialized.size() );
+
+        // and when
+        serialized.clear();
+        serialized.serialize( transaction( 1 ) );
+        InMemoryClosableChannel small = new InMemoryClosableChannel();
+        new TransactionLogWriter( new LogEntryWriter( small ) ).serialize( transaction( 1 ) );
+
+        // then
+        assertEquals( small.writerPosition(), serialized.size() );
+    }
+
+    @Test
+    public void shouldNotSerializeTransactionsLargerThanMaxSize() throws Exception
+    {
+        // given
+        PhysicalTransactionRepresentation transaction = transaction( 100 );
+        InMemoryClosableChannel expected = new InMemoryClosableChannel( 100_000 );
+        new TransactionLogWriter( new LogEntryWriter( expected ) ).serialize( transaction );
+        SerializedTransactionChannel serialized = new SerializedTransactionChannel( expected.writerPosition() - 1 );
+
+        // when
+        boolean fits = serialized.serialize( transaction );
+
+        // then
+        assertFalse( fits );
+        assertEquals( 0, serialized.size() );
+
+        // and when
+        fits = serialized.serialize( transaction( 1 ) );
+
+        // then
+        assertTrue( fits );
+        InMemoryClosableChannel small = new InMemoryClosableChannel();
+        new TransactionLogWriter( new LogEntryWriter( small ) ).serialize( transaction( 1 ) );
+        assertEquals( small.writerPosition(), serialized.size() );
+    }
+
+    private static byte[] writtenBytes( InMemoryClosableChannel channel ) throws IOException
+    {
+        byte[] bytes = new byte[channel.writerPosition()];
+        channel.get( bytes, bytes.length );
+        return bytes;
+    }
+
+    private static PhysicalTransactionRepresentation transaction( int nodes )
+    {
+        List<StorageCommand> commands = new ArrayList<>();
+        for ( int id = 0; id < nodes; id++ )
+        {
+            NodeRecord before = new NodeRecord( id );
+            NodeRecord after = new NodeRecord( id );
+            after.setInUse( true );
+            commands.add( new NodeCommand( before, after ) );
+        }
+        PhysicalTransactionRepresentation transaction = new PhysicalTransactionRepresentation( commands );
+        transaction.setHeader( new byte[]{1, 2, 3}, 1, 2, 3, 4, 5, -1 );
+        return transaction;
+    }
+}
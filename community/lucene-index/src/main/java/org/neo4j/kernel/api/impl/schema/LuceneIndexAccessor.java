@@ -62,12 +62,22 @@ public class LuceneIndexAccessor implements IndexAccessor
     private final LuceneIndexWriter writer;
     private final SchemaIndex luceneIndex;
     private final SchemaIndexDescriptor descriptor;
+    private final LuceneIndexRefresher refresher;
 
     public LuceneIndexAccessor( SchemaIndex luceneIndex, SchemaIndexDescriptor descriptor )
+    {
+        this( luceneIndex, descriptor, null );
+    }
+
+    /**
+     * @param refresher making committed updates visible in the background, or {@code null} to refresh on every commit.
+     */
+    LuceneIndexAccessor( SchemaIndex luceneIndex, SchemaIndexDescriptor descriptor, LuceneIndexRefresher refresher )
     {
         this.luceneIndex = luceneIndex;
         this.descriptor = descriptor;
         this.writer = luceneIndex.isReadOnly() ? null : luceneIndex.getIndexWriter();
+        this.refresher = refresher;
     }
 
     @Override
@@ -83,6 +93,7 @@ public class LuceneIndexAccessor implements IndexAccessor
     @Override
     public void drop() throws IOException
     {
+        closeRefresher();
         luceneIndex.drop();
     }
 
@@ -94,21 +105,42 @@ public class LuceneIndexAccessor implements IndexAccessor
         {
             luceneIndex.markAsOnline();
         }
-        luceneIndex.maybeRefreshBlocking();
+        refreshNow();
     }
 
     @Override
     public void refresh() throws IOException
     {
-        luceneIndex.maybeRefreshBlocking();
+        refreshNow();
     }
 
     @Override
     public void close() throws IOException
     {
+        closeRefresher();
         luceneIndex.close();
     }
 
+    private void refreshNow() throws IOException
+    {
+        if ( refresher != null )
+        {
+            refresher.refreshNow();
+        }
+        else
+        {
+            luceneIndex.maybeRefreshBlocking();
+        }
+    }
+
+    private void closeRefresher()
+    {
+        if ( refresher != null )
+        {
+            refresher.close();
+        }
+    }
+
     @Override
     public IndexReader newReader()
     {
@@ -205,7 +237,14 @@ public class LuceneIndexAccessor implements IndexAccessor
         {
             if ( hasChanges && refresh )
             {
-                luceneIndex.maybeRefreshBlocking();
+                if ( refresher != null )
+                {
+                    refresher.committed();
+                }
+                else
+                {
+                    luceneIndex.maybeRefreshBlocking();
+                }
             }
         }
 
@@ -61,6 +61,7 @@ import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingConfig;
 import org.neo4j.kernel.impl.factory.OperationalMode;
 import org.neo4j.kernel.impl.storemigration.StoreMigrationParticipant;
 import org.neo4j.kernel.impl.storemigration.participant.SchemaIndexMigrator;
+import org.neo4j.scheduler.JobScheduler;
 
 import static org.neo4j.kernel.api.schema.index.SchemaIndexDescriptor.Type.UNIQUE;
 
@@ -73,13 +74,15 @@ public class LuceneIndexProvider extends IndexProvider
     private final OperationalMode operationalMode;
     private final FileSystemAbstraction fileSystem;
     private final Monitor monitor;
+    private final JobScheduler scheduler;
 
     public LuceneIndexProvider( FileSystemAbstraction fileSystem, DirectoryFactory directoryFactory,
                                 IndexDirectoryStructure.Factory directoryStructureFactory, Monitor monitor, Config config,
-                                OperationalMode operationalMode )
+                                OperationalMode operationalMode, JobScheduler scheduler )
     {
         super( LuceneIndexProviderFactory.PROVIDER_DESCRIPTOR, PRIORITY, directoryStructureFactory );
         this.monitor = monitor;
+        this.scheduler = scheduler;
         this.indexStorageFactory = buildIndexStorageFactory( fileSystem, directoryFactory );
         this.fileSystem = fileSystem;
         this.config = config;
@@ -133,6 +136,12 @@ public class LuceneIndexProvider extends IndexProvider
                                             .withIndexStorage( getIndexStorage( indexId ) )
                                             .build();
         luceneIndex.open();
+        long refreshIntervalMillis = config.get( LuceneIndexSettings.async_refresh_interval ).toMillis();
+        if ( refreshIntervalMillis > 0 && descriptor.type() != UNIQUE && !luceneIndex.isReadOnly() )
+        {
+            LuceneIndexRefresher refresher = new LuceneIndexRefresher( luceneIndex, descriptor, monitor, refreshIntervalMillis, scheduler );
+            return new LuceneIndexAccessor( luceneIndex, descriptor, refresher );
+        }
         return new LuceneIndexAccessor( luceneIndex, descriptor );
     }
 
@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.api.impl.schema;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.kernel.api.index.IndexProvider;
+import org.neo4j.kernel.api.schema.index.SchemaIndexDescriptor;
+import org.neo4j.scheduler.JobScheduler;
+
+/**
+ * Makes committed updates of a {@link SchemaIndex} visible to its readers in the background, coalescing the commits
+ * of one {@link LuceneIndexSettings#async_refresh_interval interval} into a single
+ * {@link SchemaIndex#maybeRefreshBlocking() refresh}, instead of refreshing as part of every commit.
+ * <p>
+ * The first commit after a refresh schedules the next one, so an index without updates costs nothing and committed
+ * updates become visible at most one interval, plus the time the refresh takes, after they were committed.
+ * Refreshes run in the {@link JobScheduler.Groups#luceneIndexRefresh} group of the database job scheduler, so they
+ * are shut down together with the database rather than by a thread of their own.
+ */
+class LuceneIndexRefresher
+{
+    private final SchemaIndex index;
+    private final SchemaIndexDescriptor descriptor;
+    private final IndexProvider.Monitor monitor;
+    private final long intervalMillis;
+    private final JobScheduler scheduler;
+    /**
+     * Serializes refreshes, such that pending commits taken by one refresh are not reported by another.
+     */
+    private final Object refreshLock = new Object();
+
+    // guarded by this
+    private boolean scheduled;
+    private boolean closed;
+    private long pendingCommits;
+    private long firstPendingCommitMillis;
+
+    LuceneIndexRefresher( SchemaIndex index, SchemaIndexDescriptor descriptor, IndexProvider.Monitor monitor, long intervalMillis,
+            JobScheduler scheduler )
+    {
+        this.index = index;
+        this.descriptor = descriptor;
+        this.monitor = monitor;
+        this.intervalMillis = intervalMillis;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Called after a commit has applied updates to the index, to have them made visible within the refresh interval.
+     */
+    synchronized void committed()
+    {
+        if ( closed )
+        {
+            return;
+        }
+        if ( pendingCommits++ == 0 )
+        {
+            firstPendingCommitMillis = System.currentTimeMillis();
+        }
+        scheduleRefresh();
+    }
+
+    /**
+     * Makes all committed updates visible before returning, e.g. on checkpoint or when readers must see them right away.
+     *
+     * @throws IOException on failure to refresh the index. Pending commits are kept and refreshed by a later attempt.
+     */
+    void refreshNow() throws IOException
+    {
+        synchronized ( refreshLock )
+        {
+            long commits;
+            long since;
+            synchronized ( this )
+            {
+                commits = pendingCommits;
+                since = firstPendingCommitMillis;
+                pendingCommits = 0;
+            }
+            try
+            {
+                index.maybeRefreshBlocking();
+            }
+            catch ( IOException | RuntimeException e )
+            {
+                restorePending( commits, since );
+                throw e;
+            }
+            refreshed( commits, since );
+        }
+    }
+
+    /**
+     * Stops refreshing. A background refresh already in progress is waited for, pending commits are left to whoever
+     * closes or drops the index.
+     */
+    void close()
+    {
+        synchronized ( refreshLock )
+        {
+            synchronized ( this )
+            {
+                closed = true;
+                pendingCommits = 0;
+            }
+        }
+    }
+
+    private void backgroundRefresh()
+    {
+        synchronized ( refreshLock )
+        {
+            long commits;
+            long since;
+            synchronized ( this )
+            {
+                scheduled = false;
+                if ( closed || pendingCommits == 0 )
+                {
+                    return;
+                }
+                commits = pendingCommits;
+                since = firstPendingCommitMillis;
+                pendingCommits = 0;
+            }
+            try
+            {
+                index.maybeRefreshBlocking();
+            }
+            catch ( IOException | RuntimeException e )
+            {
+                monitor.indexRefreshFailed( descriptor, e );
+                retry( commits, since );
+                return;
+            }
+            refreshed( commits, since );
+        }
+    }
+
+    /**
+     * Leaves the commits of a failed background refresh pending and schedules another refresh for them, rather than
+     * keeping them invisible until the next commit or checkpoint.
+     */
+    private synchronized void retry( long commits, long since )
+    {
+        restorePending( commits, since );
+        if ( pendingCommits > 0 )
+        {
+            scheduleRefresh();
+        }
+    }
+
+    private synchronized void scheduleRefresh()
+    {
+        if ( !scheduled && !closed )
+        {
+            scheduled = true;
+            scheduler.schedule( JobScheduler.Groups.luceneIndexRefresh, this::backgroundRefresh, intervalMillis, TimeUnit.MILLISECONDS );
+        }
+    }
+
+    private synchronized void restorePending( long commits, long since )
+    {
+        if ( commits > 0 && !closed )
+        {
+            if ( pendingCommits == 0 || since < firstPendingCommitMillis )
+            {
+                firstPendingCommitMillis = since;
+            }
+            pendingCommits += commits;
+        }
+    }
+
+    private void refreshed( long commits, long since )
+    {
+        if ( commits > 0 )
+        {
+            monitor.indexRefreshed( descriptor, commits, System.currentTimeMillis() - since );
+        }
+    }
+}
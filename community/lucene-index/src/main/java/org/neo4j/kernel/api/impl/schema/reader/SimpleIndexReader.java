@@ -159,8 +159,11 @@ public class SimpleIndexReader extends AbstractIndexReader
             Value[] values = new Value[predicates.length];
             for ( int i = 0; i < predicates.length; i++ )
             {
-                assert predicates[i].type() == exact :
-                        "Exact followed by another query predicate type is not supported at this moment.";
+                if ( predicates[i].type() != exact )
+                {
+                    throw new IndexNotApplicableKernelException(
+                            "Exact followed by another query predicate type is not supported at this moment." );
+                }
                 values[i] = ((IndexQuery.ExactPredicate) predicates[i]).value();
             }
             return LuceneDocumentStructure.newSeekQuery( values );
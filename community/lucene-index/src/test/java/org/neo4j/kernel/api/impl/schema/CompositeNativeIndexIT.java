@@ -0,0 +1,247 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.api.impl.schema;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.factory.GraphDatabaseSettings;
+import org.neo4j.internal.kernel.api.IndexOrder;
+import org.neo4j.internal.kernel.api.IndexQuery;
+import org.neo4j.internal.kernel.api.NodeValueIndexCursor;
+import org.neo4j.internal.kernel.api.TokenRead;
+import org.neo4j.internal.kernel.api.exceptions.KernelException;
+import org.neo4j.kernel.api.KernelTransaction;
+import org.neo4j.kernel.api.schema.index.SchemaIndexDescriptorFactory;
+import org.neo4j.kernel.impl.api.store.DefaultIndexReference;
+import org.neo4j.test.rule.DatabaseRule;
+import org.neo4j.test.rule.EmbeddedDatabaseRule;
+import org.neo4j.test.rule.RandomRule;
+import org.neo4j.values.storable.CoordinateReferenceSystem;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
+
+import static org.junit.Assert.assertEquals;
+import static org.neo4j.test.TestLabels.LABEL_ONE;
+import static org.neo4j.values.storable.Values.COMPARATOR;
+
+public class CompositeNativeIndexIT
+{
+    private static final String TENANT = "tenantId";
+    private static final String EXTERNAL_ID = "externalId";
+
+    private final DatabaseRule db = new EmbeddedDatabaseRule()
+            .withSetting( GraphDatabaseSettings.default_schema_provider, GraphDatabaseSettings.SchemaIndex.NATIVE30.providerName() );
+    private final RandomRule random = new RandomRule();
+    @Rule
+    public final RuleChain rules = RuleChain.outerRule( random ).around( db );
+
+    private final Map<Long,Value[]> tuples = new HashMap<>();
+
+    @Test
+    public void shouldFindNodesByExactAndRangePredicates() throws Exception
+    {
+        // given
+        createNodes( 500 );
+        createIndex();
+        createNodes( 200 );
+
+        // when/then
+        for ( int i = 0; i < 50; i++ )
+        {
+            Value tenant = tenant();
+            Value externalId = externalId();
+            assertQueryResult( t -> t[0].equals( tenant ) && t[1].equals( externalId ),
+                    IndexQuery.exact( tenantKey(), tenant ), IndexQuery.exact( externalIdKey(), externalId ) );
+
+            int from = random.nextInt( 50 );
+            int to = from + random.nextInt( 50 );
+            assertQueryResult( t -> t[0].equals( tenant ) && Values.isNumberValue( t[1] ) &&
+                            COMPARATOR.compare( t[1], Values.intValue( from ) ) >= 0 && COMPARATOR.compare( t[1], Values.intValue( to ) ) < 0,
+                    IndexQuery.exact( tenantKey(), tenant ), IndexQuery.range( externalIdKey(), from, true, to, false ) );
+        }
+    }
+
+    @Test
+    public void shouldSeeTransactionStateForRangeAfterExact() throws Exception
+    {
+        // given
+        createNodes( 200 );
+        createIndex();
+
+        try ( Transaction tx = db.beginTx() )
+        {
+            // when
+            long changedId = tuples.keySet().iterator().next();
+            Value[] changed = {Values.stringValue( "tenant-0" ), Values.intValue( 10 )};
+            db.getNodeById( changedId ).setProperty( TENANT, changed[0].asObject() );
+            db.getNodeById( changedId ).setProperty( EXTERNAL_ID, changed[1].asObject() );
+            tuples.put( changedId, changed );
+            Node added = db.createNode( LABEL_ONE );
+            added.setProperty( TENANT, "tenant-0" );
+            added.setProperty( EXTERNAL_ID, 11 );
+            tuples.put( added.getId(), new Value[]{Values.stringValue( "tenant-0" ), Values.intValue( 11 )} );
+
+            // then
+            Predicate<Value[]> filter = t -> t[0].equals( Values.stringValue( "tenant-0" ) ) && Values.isNumberValue( t[1] ) &&
+                    COMPARATOR.compare( t[1], Values.intValue( 10 ) ) >= 0 && COMPARATOR.compare( t[1], Values.intValue( 20 ) ) <= 0;
+            assertEquals( expected( filter ), query( IndexQuery.exact( tenantKey(), "tenant-0" ), IndexQuery.range( externalIdKey(), 10, true, 20, true ) ) );
+            tx.success();
+        }
+    }
+
+    private void assertQueryResult( Predicate<Value[]> filter, IndexQuery... query ) throws KernelException
+    {
+        try ( Transaction tx = db.beginTx() )
+        {
+            assertEquals( "nodes for " + Arrays.toString( query ), expected( filter ), query( query ) );
+            tx.success();
+        }
+    }
+
+    private TreeSet<Long> query( IndexQuery... query ) throws KernelException
+    {
+        KernelTransaction ktx = db.transaction();
+        TreeSet<Long> result = new TreeSet<>();
+        try ( NodeValueIndexCursor cursor = ktx.cursors().allocateNodeValueIndexCursor() )
+        {
+            int label = ktx.tokenRead().nodeLabel( LABEL_ONE.name() );
+            ktx.dataRead().nodeIndexSeek( DefaultIndexReference.fromDescriptor( SchemaIndexDescriptorFactory.forLabel( label, tenantKey(), externalIdKey() ) ),
+                    cursor, IndexOrder.NONE, query );
+            while ( cursor.next() )
+            {
+                result.add( cursor.nodeReference() );
+            }
+        }
+        return result;
+    }
+
+    private TreeSet<Long> expected( Predicate<Value[]> filter )
+    {
+        TreeSet<Long> expected = new TreeSet<>();
+        tuples.forEach( ( id, tuple ) ->
+        {
+            if ( filter.test( tuple ) )
+            {
+                expected.add( id );
+            }
+        } );
+        return expected;
+    }
+
+    private int tenantKey()
+    {
+        return propertyKeyId( TENANT );
+    }
+
+    private int externalIdKey()
+    {
+        return propertyKeyId( EXTERNAL_ID );
+    }
+
+    private int propertyKeyId( String key )
+    {
+        try ( Transaction tx = db.beginTx() )
+        {
+            TokenRead tokenRead = db.transaction().tokenRead();
+            int propertyKeyId = tokenRead.propertyKey( key );
+            tx.success();
+            return propertyKeyId;
+        }
+    }
+
+    private void createIndex()
+    {
+        try ( Transaction tx = db.beginTx() )
+        {
+            db.schema().indexFor( LABEL_ONE ).on( TENANT ).on( EXTERNAL_ID ).create();
+            tx.success();
+        }
+        try ( Transaction tx = db.beginTx() )
+        {
+            db.schema().awaitIndexesOnline( 1, TimeUnit.MINUTES );
+            tx.success();
+        }
+    }
+
+    private void createNodes( int count )
+    {
+        try ( Transaction tx = db.beginTx() )
+        {
+            for ( int i = 0; i < count; i++ )
+            {
+                Node node = db.createNode( LABEL_ONE );
+                Value[] tuple = {tenant(), externalId()};
+                node.setProperty( TENANT, tuple[0].asObject() );
+                node.setProperty( EXTERNAL_ID, tuple[1].asObject() );
+                tuples.put( node.getId(), tuple );
+            }
+            tx.success();
+        }
+    }
+
+    private Value tenant()
+    {
+        return Values.stringValue( "tenant-" + random.nextInt( 5 ) );
+    }
+
+    private Value externalId()
+    {
+        // points are not supported by the composite index and end up in lucene
+        switch ( random.nextInt( 3 ) )
+        {
+        case 0:
+            return Values.intValue( random.nextInt( 100 ) );
+        case 1:
+            return Values.stringValue( String.valueOf( random.nextInt( 100 ) ) );
+        default:
+            return Values.pointValue( CoordinateReferenceSystem.Cartesian, random.nextInt( 10 ), random.nextInt( 10 ) );
+        }
+    }
+}
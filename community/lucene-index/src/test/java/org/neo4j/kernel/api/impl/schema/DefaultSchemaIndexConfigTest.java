@@ -119,6 +119,20 @@ public class DefaultSchemaIndexConfigTest
         assertIndexProvider( db, NativeLuceneFusionIndexProviderFactory20.DESCRIPTOR );
     }
 
+    @Test
+    public void shouldUseConfiguredIndexProviderNative30() throws IndexNotFoundKernelException
+    {
+        // given
+        GraphDatabaseService db = dbBuilder.setConfig( GraphDatabaseSettings.default_schema_provider,
+                GraphDatabaseSettings.SchemaIndex.NATIVE30.providerName() ).newGraphDatabase();
+
+        // when
+        createIndex( db );
+
+        // then
+        assertIndexProvider( db, NativeLuceneFusionIndexProviderFactory30.DESCRIPTOR );
+    }
+
     private void assertIndexProvider( GraphDatabaseService db, IndexProvider.Descriptor expected ) throws IndexNotFoundKernelException
     {
         GraphDatabaseAPI graphDatabaseAPI = (GraphDatabaseAPI) db;
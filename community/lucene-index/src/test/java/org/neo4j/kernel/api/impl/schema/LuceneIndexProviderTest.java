@@ -59,6 +59,7 @@ import org.neo4j.kernel.configuration.Settings;
 import org.neo4j.kernel.impl.api.index.IndexUpdateMode;
 import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingConfig;
 import org.neo4j.kernel.impl.factory.OperationalMode;
+import org.neo4j.test.OnDemandJobScheduler;
 import org.neo4j.test.rule.TestDirectory;
 import org.neo4j.test.rule.fs.DefaultFileSystemRule;
 
@@ -157,6 +158,6 @@ public class LuceneIndexProviderTest
                                                         FileSystemAbstraction fs, File graphDbDir )
     {
         return new LuceneIndexProvider( fs, directoryFactory, defaultDirectoryStructure( graphDbDir ),
-                IndexProvider.Monitor.EMPTY, config, OperationalMode.single );
+                IndexProvider.Monitor.EMPTY, config, OperationalMode.single, new OnDemandJobScheduler() );
     }
 }
@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.api.impl.schema;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.kernel.api.index.IndexProvider;
+import org.neo4j.kernel.api.schema.index.SchemaIndexDescriptor;
+import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.test.OnDemandJobScheduler;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@RunWith( MockitoJUnitRunner.class )
+public class LuceneIndexRefresherTest
+{
+    private static final long INTERVAL_MILLIS = 100;
+
+    @Mock
+    private SchemaIndex schemaIndex;
+    @Mock
+    private SchemaIndexDescriptor descriptor;
+    @Mock
+    private IndexProvider.Monitor monitor;
+
+    private final OnDemandJobScheduler scheduler = new OnDemandJobScheduler();
+
+    @Test
+    public void shouldScheduleRefreshInLuceneIndexRefreshGroup()
+    {
+        JobScheduler jobScheduler = mock( JobScheduler.class );
+        LuceneIndexRefresher refresher = new LuceneIndexRefresher( schemaIndex, descriptor, monitor, INTERVAL_MILLIS, jobScheduler );
+
+        refresher.committed();
+        refresher.committed();
+
+        verify( jobScheduler ).schedule( eq( JobScheduler.Groups.luceneIndexRefresh ), any( Runnable.class ),
+                eq( INTERVAL_MILLIS ), eq( TimeUnit.MILLISECONDS ) );
+        refresher.close();
+    }
+
+    @Test
+    public void shouldNotRefreshOnCommit() throws IOException
+    {
+        LuceneIndexRefresher refresher = newRefresher();
+
+        refresher.committed();
+
+        verify( schemaIndex, never() ).maybeRefreshBlocking();
+        refresher.close();
+    }
+
+    @Test
+    public void shouldCoalesceCommitsIntoOneBackgroundRefresh() throws Exception
+    {
+        LuceneIndexRefresher refresher = newRefresher();
+
+        for ( int i = 0; i < 10; i++ )
+        {
+            refresher.committed();
+        }
+        scheduler.runJob();
+
+        verify( monitor ).indexRefreshed( eq( descriptor ), eq( 10L ), anyLong() );
+        verify( schemaIndex, times( 1 ) ).maybeRefreshBlocking();
+        refresher.close();
+    }
+
+    @Test
+    public void shouldScheduleNextRefreshOnCommitAfterRefresh() throws Exception
+    {
+        LuceneIndexRefresher refresher = newRefresher();
+
+        refresher.committed();
+        scheduler.runJob();
+        verify( monitor ).indexRefreshed( eq( descriptor ), eq( 1L ), anyLong() );
+        assertNull( scheduler.getJob() );
+        refresher.committed();
+        refresher.committed();
+        scheduler.runJob();
+
+        verify( monitor ).indexRefreshed( eq( descriptor ), eq( 2L ), anyLong() );
+        verify( schemaIndex, times( 2 ) ).maybeRefreshBlocking();
+        refresher.close();
+    }
+
+    @Test
+    public void shouldRefreshPendingCommitsImmediatelyWhenAsked() throws Exception
+    {
+        LuceneIndexRefresher refresher = newRefresher();
+        refresher.committed();
+        refresher.committed();
+
+        refresher.refreshNow();
+
+        verify( schemaIndex ).maybeRefreshBlocking();
+        verify( monitor ).indexRefreshed( eq( descriptor ), eq( 2L ), anyLong() );
+        refresher.close();
+    }
+
+    @Test
+    public void shouldKeepCommitsPendingWhenRefreshFails() throws Exception
+    {
+        LuceneIndexRefresher refresher = newRefresher();
+        IOException failure = new IOException( "Simulated failure" );
+        doThrow( failure ).doNothing().when( schemaIndex ).maybeRefreshBlocking();
+        refresher.committed();
+
+        try
+        {
+            refresher.refreshNow();
+            fail( "Should have failed" );
+        }
+        catch ( IOException e )
+        {
+            assertSame( failure, e );
+        }
+        refresher.committed();
+        refresher.refreshNow();
+
+        verify( monitor ).indexRefreshed( eq( descriptor ), eq( 2L ), anyLong() );
+        refresher.close();
+    }
+
+    @Test
+    public void shouldReportAndRetryFailedBackgroundRefresh() throws Exception
+    {
+        LuceneIndexRefresher refresher = newRefresher();
+        IOException failure = new IOException( "Simulated failure" );
+        doThrow( failure ).doNothing().when( schemaIndex ).maybeRefreshBlocking();
+        refresher.committed();
+
+        scheduler.runJob();
+        verify( monitor ).indexRefreshFailed( descriptor, failure );
+        assertNotNull( scheduler.getJob() );
+        scheduler.runJob();
+
+        verify( monitor ).indexRefreshed( eq( descriptor ), eq( 1L ), anyLong() );
+        verify( schemaIndex, times( 2 ) ).maybeRefreshBlocking();
+        assertNull( scheduler.getJob() );
+        refresher.close();
+    }
+
+    @Test
+    public void shouldNotRefreshAfterClose() throws Exception
+    {
+        LuceneIndexRefresher refresher = newRefresher();
+        refresher.committed();
+
+        refresher.close();
+        refresher.committed();
+        scheduler.runJob();
+
+        verify( schemaIndex, never() ).maybeRefreshBlocking();
+    }
+
+    private LuceneIndexRefresher newRefresher()
+    {
+        return new LuceneIndexRefresher( schemaIndex, descriptor, monitor, INTERVAL_MILLIS, scheduler );
+    }
+}
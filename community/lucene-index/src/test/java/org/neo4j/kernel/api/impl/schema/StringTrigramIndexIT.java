@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.api.impl.schema;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.factory.GraphDatabaseSettings;
+import org.neo4j.internal.kernel.api.IndexOrder;
+import org.neo4j.internal.kernel.api.IndexQuery;
+import org.neo4j.internal.kernel.api.NodeValueIndexCursor;
+import org.neo4j.internal.kernel.api.TokenRead;
+import org.neo4j.internal.kernel.api.exceptions.KernelException;
+import org.neo4j.kernel.api.KernelTransaction;
+import org.neo4j.kernel.api.schema.index.SchemaIndexDescriptorFactory;
+import org.neo4j.kernel.impl.api.store.DefaultIndexReference;
+import org.neo4j.kernel.impl.index.schema.config.StringIndexSettings;
+import org.neo4j.kernel.configuration.Settings;
+import org.neo4j.test.rule.DatabaseRule;
+import org.neo4j.test.rule.EmbeddedDatabaseRule;
+import org.neo4j.test.rule.RandomRule;
+
+import static org.junit.Assert.assertEquals;
+import static org.neo4j.test.TestLabels.LABEL_ONE;
+
+public class StringTrigramIndexIT
+{
+    private static final String KEY = "name";
+    private static final String ALPHABET = "abcd";
+
+    private final DatabaseRule db = new EmbeddedDatabaseRule()
+            .withSetting( GraphDatabaseSettings.default_schema_provider, GraphDatabaseSettings.SchemaIndex.NATIVE20.providerName() )
+            .withSetting( StringIndexSettings.trigram_index_enabled, Settings.TRUE );
+    private final RandomRule random = new RandomRule();
+    @Rule
+    public final RuleChain rules = RuleChain.outerRule( random ).around( db );
+
+    private final Map<Long,String> strings = new HashMap<>();
+
+    @Test
+    public void shouldFindExactlyMatchingNodesForContainsAndEndsWith() throws Exception
+    {
+        // given
+        createNodes( 500 );
+        createIndex();
+        createNodes( 200 );
+        changeNodes( 100 );
+
+        // when/then
+        for ( int i = 0; i < 50; i++ )
+        {
+            String search = randomString( 3, 6 );
+            assertQueryResult( search, s -> s.contains( search ), IndexQuery.stringContains( propertyKeyId(), search ) );
+            assertQueryResult( search, s -> s.endsWith( search ), IndexQuery.stringSuffix( propertyKeyId(), search ) );
+        }
+    }
+
+    @Test
+    public void shouldSeeTransactionStateForContains() throws Exception
+    {
+        // given
+        createNodes( 200 );
+        createIndex();
+
+        try ( Transaction tx = db.beginTx() )
+        {
+            // when
+            long removedId = strings.keySet().iterator().next();
+            db.getNodeById( removedId ).setProperty( KEY, "xxxx" );
+            strings.put( removedId, "xxxx" );
+            Node added = db.createNode( LABEL_ONE );
+            added.setProperty( KEY, "dcbadcba" );
+            strings.put( added.getId(), "dcbadcba" );
+
+            // then
+            assertEquals( expected( s -> s.contains( "cbad" ) ), query( IndexQuery.stringContains( propertyKeyId(), "cbad" ) ) );
+            tx.success();
+        }
+    }
+
+    private void assertQueryResult( String search, Predicate<String> filter, IndexQuery query ) throws KernelException
+    {
+        try ( Transaction tx = db.beginTx() )
+        {
+            assertEquals( "nodes for " + search, expected( filter ), query( query ) );
+            tx.success();
+        }
+    }
+
+    private TreeSet<Long> query( IndexQuery query ) throws KernelException
+    {
+        KernelTransaction ktx = db.transaction();
+        TreeSet<Long> result = new TreeSet<>();
+        try ( NodeValueIndexCursor cursor = ktx.cursors().allocateNodeValueIndexCursor() )
+        {
+            int label = ktx.tokenRead().nodeLabel( LABEL_ONE.name() );
+            ktx.dataRead().nodeIndexSeek( DefaultIndexReference.fromDescriptor( SchemaIndexDescriptorFactory.forLabel( label, query.propertyKeyId() ) ),
+                    cursor, IndexOrder.NONE, query );
+            while ( cursor.next() )
+            {
+                result.add( cursor.nodeReference() );
+            }
+        }
+        return result;
+    }
+
+    private TreeSet<Long> expected( Predicate<String> filter )
+    {
+        TreeSet<Long> expected = new TreeSet<>();
+        strings.forEach( ( id, string ) ->
+        {
+            if ( filter.test( string ) )
+            {
+                expected.add( id );
+            }
+        } );
+        return expected;
+    }
+
+    private int propertyKeyId()
+    {
+        try ( Transaction tx = db.beginTx() )
+        {
+            TokenRead tokenRead = db.transaction().tokenRead();
+            int propertyKeyId = tokenRead.propertyKey( KEY );
+            tx.success();
+            return propertyKeyId;
+        }
+    }
+
+    private void createIndex()
+    {
+        try ( Transaction tx = db.beginTx() )
+        {
+            db.schema().indexFor( LABEL_ONE ).on( KEY ).create();
+            tx.success();
+        }
+        try ( Transaction tx = db.beginTx() )
+        {
+            db.schema().awaitIndexesOnline( 1, TimeUnit.MINUTES );
+            tx.success();
+        }
+    }
+
+    private void createNodes( int count )
+    {
+        try ( Transaction tx = db.beginTx() )
+        {
+            for ( int i = 0; i < count; i++ )
+            {
+                Node node = db.createNode( LABEL_ONE );
+                String string = randomString( 0, 12 );
+                node.setProperty( KEY, string );
+                strings.put( node.getId(), string );
+            }
+            tx.success();
+        }
+    }
+
+    private void changeNodes( int count )
+    {
+        try ( Transaction tx = db.beginTx() )
+        {
+            Long[] ids = strings.keySet().toArray( new Long[0] );
+            for ( int i = 0; i < count; i++ )
+            {
+                long id = ids[random.nextInt( ids.length )];
+                Node node = db.getNodeById( id );
+                if ( random.nextBoolean() && strings.containsKey( id ) )
+                {
+                    node.removeProperty( KEY );
+                    strings.remove( id );
+                }
+                else
+                {
+                    String string = randomString( 0, 12 );
+                    node.setProperty( KEY, string );
+                    strings.put( id, string );
+                }
+            }
+            tx.success();
+        }
+    }
+
+    private String randomString( int minLength, int maxLength )
+    {
+        char[] chars = new char[minLength + random.nextInt( maxLength - minLength + 1 )];
+        for ( int i = 0; i < chars.length; i++ )
+        {
+            chars[i] = ALPHABET.charAt( random.nextInt( ALPHABET.length() ) );
+        }
+        return new String( chars );
+    }
+}
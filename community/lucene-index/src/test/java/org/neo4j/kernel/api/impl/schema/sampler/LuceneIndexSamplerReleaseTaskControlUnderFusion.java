@@ -66,6 +66,7 @@ import org.neo4j.kernel.impl.index.schema.fusion.FusionIndexProvider;
 import org.neo4j.kernel.impl.index.schema.fusion.SlotSelector;
 import org.neo4j.storageengine.api.schema.IndexReader;
 import org.neo4j.storageengine.api.schema.IndexSampler;
+import org.neo4j.test.OnDemandJobScheduler;
 import org.neo4j.test.rule.TestDirectory;
 import org.neo4j.test.rule.fs.EphemeralFileSystemRule;
 import org.neo4j.test.rule.fs.FileSystemRule;
@@ -154,8 +155,8 @@ public class LuceneIndexSamplerReleaseTaskControlUnderFusion
     private FusionIndexProvider createFusionProvider( LuceneIndexProvider luceneProvider, IndexProvider failingProvider )
     {
         SlotSelector slotSelector = SlotSelector.nullInstance;
-        return new FusionIndexProvider( failingProvider, EMPTY, EMPTY, EMPTY, luceneProvider, slotSelector, providerDescriptor, 1, directoryFactory, fs.get(),
-                false );
+        return new FusionIndexProvider( failingProvider, EMPTY, EMPTY, EMPTY, luceneProvider, EMPTY, slotSelector, providerDescriptor, 1,
+                directoryFactory, fs.get(), false );
     }
 
     private IndexSamplingJob createIndexSamplingJob( IndexAccessor fusionAccessor )
@@ -182,7 +183,8 @@ public class LuceneIndexSamplerReleaseTaskControlUnderFusion
 
     private LuceneIndexProvider luceneProvider()
     {
-        return new LuceneIndexProvider( fs.get(), luceneDirectoryFactory, directoryFactory, IndexProvider.Monitor.EMPTY, config, OperationalMode.single );
+        return new LuceneIndexProvider( fs.get(), luceneDirectoryFactory, directoryFactory, IndexProvider.Monitor.EMPTY, config, OperationalMode.single,
+                new OnDemandJobScheduler() );
     }
 
     /**
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB.
+ *
+ * ONgDB is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.newapi;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.factory.GraphDatabaseSettings;
+import org.neo4j.internal.kernel.api.IndexOrder;
+import org.neo4j.internal.kernel.api.IndexQuery;
+import org.neo4j.internal.kernel.api.IndexReference;
+import org.neo4j.internal.kernel.api.NodeIndexTransactionStateTestBase;
+import org.neo4j.internal.kernel.api.NodeValueIndexCursor;
+import org.neo4j.internal.kernel.api.Transaction;
+import org.neo4j.kernel.api.KernelTransaction;
+import org.neo4j.kernel.api.exceptions.Status;
+import org.neo4j.test.TestGraphDatabaseFactory;
+import org.neo4j.values.storable.PointValue;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.neo4j.values.storable.CoordinateReferenceSystem.Cartesian;
+import static org.neo4j.values.storable.CoordinateReferenceSystem.WGS84;
+import static org.neo4j.values.storable.Values.pointValue;
+
+public class NodeIndexTransactionStateNative20Test extends NodeIndexTransactionStateTestBase<WriteTestSupport>
+{
+    @Override
+    public WriteTestSupport newTestSupport()
+    {
+        return new WriteTestSupport()
+        {
+            @Override
+            protected GraphDatabaseService newDb( File storeDir )
+            {
+                return new TestGraphDatabaseFactory().newImpermanentDatabaseBuilder( storeDir )
+                        .setConfig( GraphDatabaseSettings.default_schema_provider, GraphDatabaseSettings.SchemaIndex.NATIVE20.providerName() )
+                        .newGraphDatabase();
+            }
+        };
+    }
+
+    @Test
+    public void shouldFindNearestNeighboursAddedInTransaction() throws Exception
+    {
+        // given
+        try ( Transaction tx = session.beginTransaction() )
+        {
+            nodeWithProp( tx, pointValue( Cartesian, 1, 0 ) );
+            nodeWithProp( tx, pointValue( Cartesian, 3, 0 ) );
+            nodeWithProp( tx, pointValue( Cartesian, -5, 0 ) );
+            tx.success();
+        }
+
+        createIndex();
+
+        // when
+        try ( Transaction tx = session.beginTransaction() )
+        {
+            int label = tx.tokenRead().nodeLabel( "Node" );
+            int prop = tx.tokenRead().propertyKey( "prop" );
+            nodeWithProp( tx, pointValue( Cartesian, 0, -2 ) );
+            nodeWithProp( tx, pointValue( Cartesian, 4, 0 ) );
+            nodeWithProp( tx, pointValue( WGS84, 0, 0 ) );
+            nodeWithProp( tx, "not a point" );
+            IndexReference index = tx.schemaRead().index( label, prop );
+
+            // then
+            List<PointValue> found = new ArrayList<>();
+            try ( NodeValueIndexCursor nodes = tx.cursors().allocateNodeValueIndexCursor() )
+            {
+                tx.dataRead().nodeIndexSeek( index, nodes, IndexOrder.NONE, IndexQuery.nearestNeighbours( prop, pointValue( Cartesian, 0, 0 ) ) );
+                while ( nodes.next() )
+                {
+                    found.add( (PointValue) nodes.propertyValue( 0 ) );
+                }
+            }
+            assertThat( found, equalTo( asList( pointValue( Cartesian, 1, 0 ), pointValue( Cartesian, 0, -2 ), pointValue( Cartesian, 3, 0 ),
+                    pointValue( Cartesian, 4, 0 ), pointValue( Cartesian, -5, 0 ) ) ) );
+        }
+    }
+
+    @Override
+    protected void terminate( Transaction transaction )
+    {
+        ((KernelTransaction) transaction).markForTermination( Status.Transaction.Terminated );
+    }
+}
@@ -91,6 +91,12 @@ public class TrackingIndexReader implements IndexReader
         return delegate.hasFullValuePrecision( predicates );
     }
 
+    @Override
+    public boolean hasFullValuePrecision( IndexOrder indexOrder, IndexQuery... predicates )
+    {
+        return delegate.hasFullValuePrecision( indexOrder, predicates );
+    }
+
     @Override
     public void distinctValues( IndexProgressor.NodeValueClient client, PropertyAccessor propertyAccessor )
     {
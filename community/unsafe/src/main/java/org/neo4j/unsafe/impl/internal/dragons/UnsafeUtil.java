@@ -406,6 +406,8 @@ public final class UnsafeUtil
      */
     public static long allocateMemory( long sizeInBytes, MemoryAllocationTracker allocationTracker ) throws NativeMemoryAllocationRefusedError
     {
+        // Report the allocation up front, so that trackers with a limit can refuse it before any memory is allocated
+        allocationTracker.allocated( sizeInBytes );
         final long pointer;
         try
         {
@@ -413,6 +415,7 @@ public final class UnsafeUtil
         }
         catch ( Throwable e )
         {
+            allocationTracker.deallocated( sizeInBytes );
             throw new NativeMemoryAllocationRefusedError( sizeInBytes, allocationTracker.usedDirectMemory(), e );
         }
         if ( DIRTY_MEMORY )
@@ -420,7 +423,6 @@ public final class UnsafeUtil
             setMemory( pointer, sizeInBytes, (byte) 0xA5 );
         }
         addAllocatedPointer( pointer, sizeInBytes );
-        allocationTracker.allocated( sizeInBytes );
         return pointer;
     }
 
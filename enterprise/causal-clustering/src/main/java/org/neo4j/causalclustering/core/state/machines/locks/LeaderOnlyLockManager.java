@@ -44,6 +44,7 @@ import org.neo4j.causalclustering.core.replication.Replicator;
 import org.neo4j.causalclustering.core.state.machines.tx.ReplicatedTransactionStateMachine;
 import org.neo4j.causalclustering.identity.MemberId;
 import org.neo4j.kernel.impl.locking.ActiveLock;
+import org.neo4j.kernel.impl.locking.LockContention;
 import org.neo4j.kernel.impl.locking.LockTracer;
 import org.neo4j.kernel.impl.locking.Locks;
 import org.neo4j.storageengine.api.lock.AcquireLockTimeoutException;
@@ -180,6 +181,12 @@ public class LeaderOnlyLockManager implements Locks
         localLocks.accept( visitor );
     }
 
+    @Override
+    public LockContention contention()
+    {
+        return localLocks.contention();
+    }
+
     @Override
     public void close()
     {
@@ -143,7 +143,8 @@ class CartesianProductNotificationAcceptanceTest extends CypherFunSuite with Gra
     csvBufferSize = CSVResources.DEFAULT_BUFFER_SIZE,
     nonIndexedLabelWarningThreshold = 10000L,
     planWithMinimumCardinalityEstimates = false,
-    lenientCreateRelationship = true
+    lenientCreateRelationship = true,
+    operatorMemoryBudget = 0
   )
   private lazy val monitors = WrappedMonitors(kernelMonitors)
   private val metricsFactory = CachedMetricsFactory(SimpleMetricsFactory)
@@ -66,7 +66,7 @@ class MorselRuntimeAcceptanceTest extends ExecutionEngineFunSuite {
 
   test("should fallback if morsel doesn't support query") {
     //Given
-    val result = graph.execute("CYPHER runtime=morsel MATCH (n)-[*]->(m) RETURN n")
+    val result = graph.execute("CYPHER runtime=morsel MATCH p = shortestPath((n)-[*]->(m)) RETURN p")
 
     // When (exhaust result)
     result.resultAsString()
@@ -254,6 +254,47 @@ class MorselRuntimeAcceptanceTest extends ExecutionEngineFunSuite {
     result.getExecutionPlanDescription.getArguments.get("runtime") should equal("MORSEL")
   }
 
+  test("should support var length expand") {
+    //Given
+    val nodes = 1 to 4 map (i => createNode("prop" -> i))
+    nodes.sliding(2).foreach { case Seq(from, to) => relate(from, to, "weight" -> (if (to == nodes.last) 2 else 1)) }
+
+    //When
+    val result = graph.execute("CYPHER runtime=morsel MATCH (n)-[*]->(m) RETURN n.prop, m.prop")
+
+    //Then
+    asScalaResult(result).toList.map(row => (row("n.prop"), row("m.prop"))) should contain theSameElementsAs
+      List((1, 2), (1, 3), (1, 4), (2, 3), (2, 4), (3, 4))
+    result.getExecutionPlanDescription.getArguments.get("runtime") should equal("MORSEL")
+  }
+
+  test("should support var length expand with predicates") {
+    //Given
+    val nodes = 1 to 4 map (i => createNode("prop" -> i))
+    nodes.sliding(2).foreach { case Seq(from, to) => relate(from, to, "weight" -> (if (to == nodes.last) 2 else 1)) }
+
+    //When
+    val result = graph.execute(
+      "CYPHER runtime=morsel MATCH (n {prop: 1})-[rs*0..]->(m) WHERE all(r IN rs WHERE r.weight = 1) RETURN m.prop, size(rs)")
+
+    //Then
+    asScalaResult(result).toList.map(row => (row("m.prop"), row("size(rs)"))) should contain theSameElementsAs
+      List((1, 0), (2, 1), (3, 2))
+    result.getExecutionPlanDescription.getArguments.get("runtime") should equal("MORSEL")
+  }
+
+  test("should support limit") {
+    //Given
+    1 to 100 foreach (i => createNode("prop" -> i))
+
+    //When
+    val result = graph.execute("CYPHER runtime=morsel MATCH (n) RETURN n.prop LIMIT 10")
+
+    //Then
+    asScalaResult(result).toList should have size 10
+    result.getExecutionPlanDescription.getArguments.get("runtime") should equal("MORSEL")
+  }
+
   //we use a ridiculously small morsel size in order to trigger as many morsel overflows as possible
   override def databaseConfig(): Map[Setting[_], String] = Map(GraphDatabaseSettings.cypher_morsel_size -> "4")
 }
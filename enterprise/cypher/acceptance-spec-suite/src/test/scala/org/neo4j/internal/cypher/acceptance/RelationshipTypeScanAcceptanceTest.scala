@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) as found
+ * in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ */
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.cypher.acceptance
+
+
+import org.neo4j.cypher.ExecutionEngineFunSuite
+import org.neo4j.graphdb.config.Setting
+import org.neo4j.graphdb.factory.GraphDatabaseSettings
+import org.neo4j.internal.cypher.acceptance.CypherComparisonSupport._
+
+class RelationshipTypeScanAcceptanceTest extends ExecutionEngineFunSuite with CypherComparisonSupport {
+
+  override def databaseConfig(): collection.Map[Setting[_], String] =
+    super.databaseConfig() + (GraphDatabaseSettings.relationship_type_scan_store_enabled -> "true")
+
+  test("should scan the relationship type for a directed single type pattern") {
+    // Given
+    val a = createNode("name" -> "a")
+    val b = createNode("name" -> "b")
+    val c = createNode("name" -> "c")
+    relate(a, b, "T")
+    relate(c, a, "T")
+    relate(a, c, "U")
+
+    // When
+    val result = executeWith(Configs.Interpreted, "MATCH (x)<-[r:T]-(y) RETURN x.name, y.name",
+      planComparisonStrategy = ComparePlansWithAssertion(_ should useOperators("DirectedRelationshipTypeScan"),
+        expectPlansToFail = Configs.OldAndRule + Configs.Cost3_3))
+
+    // Then
+    result.toSet should equal(Set(Map("x.name" -> "b", "y.name" -> "a"), Map("x.name" -> "a", "y.name" -> "c")))
+  }
+}
@@ -604,6 +604,41 @@ class SpatialDistanceAcceptanceTest extends ExecutionEngineFunSuite with CypherC
     expectResultsAndIndexUsage(query, expected, inclusiveRange = true)
   }
 
+  test("nearest points first from the index, followed by nodes without a comparable point") {
+    // Given
+    graph.createIndex("Place", "location")
+    Range(1, 21).foreach(i => graph.execute(s"CREATE (p:Place) SET p.location = point({y: $i, x: $i, crs: 'cartesian'})"))
+    graph.execute("CREATE (p:Place) SET p.location = point({latitude: 1, longitude: 1})")
+    graph.execute("CREATE (p:Place) SET p.location = 5")
+    graph.execute("CREATE (p:Place)")
+
+    val query =
+      """MATCH (p:Place)
+        |RETURN p.location as point
+        |ORDER BY distance(p.location, point({x: 0, y: 0, crs: 'cartesian'}))
+        |LIMIT $limit
+      """.stripMargin
+
+    // When
+    val nearest = executeWith(distanceConfig, query, params = Map("limit" -> 3))
+
+    // Then
+    nearest.executionPlanDescription() should useOperatorWithText("NodeIndexSeekByRange", ":Place(location)", "ORDER BY distance")
+    nearest.toList should equal(List(
+      Map("point" -> Values.pointValue(CoordinateReferenceSystem.Cartesian, 1, 1)),
+      Map("point" -> Values.pointValue(CoordinateReferenceSystem.Cartesian, 2, 2)),
+      Map("point" -> Values.pointValue(CoordinateReferenceSystem.Cartesian, 3, 3))
+    ))
+
+    // When, with the nodes of null distance in any order
+    val all = innerExecuteDeprecated(query, Map("limit" -> 30)).toList
+
+    // Then
+    all.take(20) should equal(Range(1, 21).map(i => Map("point" -> Values.pointValue(CoordinateReferenceSystem.Cartesian, i, i))))
+    all.drop(20).map(_("point")) should contain theSameElementsAs List(
+      Values.pointValue(CoordinateReferenceSystem.WGS84, 1, 1), 5, null)
+  }
+
   test("invalid location with index") {
     // Given
     graph.createIndex("Place", "location")
@@ -36,6 +36,8 @@ package org.neo4j.cypher.internal.codegen;
 
 import java.util.ArrayList;
 
+import org.neo4j.kernel.api.query.QueryMemoryTracker;
+
 /**
  * The default implementation of a table used for a full sort by the generated code
  *
@@ -53,13 +55,42 @@ import java.util.ArrayList;
  *     Iterator<T> iterator();
  * }
  *
- * This implementation just adapts Java's standard ArrayList
+ * This implementation just adapts Java's standard ArrayList. The tuples held are accounted to the memory tracker of the
+ * query, at an estimated size per tuple, until {@link #release()} is called after they have been iterated.
  */
 public class DefaultFullSortTable<T extends Comparable<?>> extends ArrayList<T> // implements SortTable<T>
 {
+    /**
+     * Estimated heap of a tuple besides its fields, and of each field including the value it references.
+     */
+    public static final long TUPLE_OVERHEAD = 16;
+    public static final long FIELD_BYTES = 24;
+
+    private final QueryMemoryTracker memoryTracker;
+    private final long tupleBytes;
+    private long allocatedBytes;
+
     public DefaultFullSortTable( int initialCapacity )
+    {
+        this( initialCapacity, QueryMemoryTracker.NONE, 0 );
+    }
+
+    public DefaultFullSortTable( int initialCapacity, QueryMemoryTracker memoryTracker, long tupleBytes )
     {
         super( initialCapacity );
+        this.memoryTracker = memoryTracker;
+        this.tupleBytes = tupleBytes;
+    }
+
+    @Override
+    public boolean add( T tuple )
+    {
+        if ( memoryTracker.isTracking() )
+        {
+            memoryTracker.allocated( tupleBytes );
+            allocatedBytes += tupleBytes;
+        }
+        return super.add( tuple );
     }
 
     public void sort()
@@ -67,4 +98,10 @@ public class DefaultFullSortTable<T extends Comparable<?>> extends ArrayList<T>
         // Sort using the default array sort implementation (currently ComparableTimSort)
         sort( null );
     }
+
+    public void release()
+    {
+        memoryTracker.deallocated( allocatedBytes );
+        allocatedBytes = 0;
+    }
 }
@@ -86,6 +86,7 @@ object BuildVectorizedExecutionPlan extends Phase[EnterpriseRuntimeContext, Logi
       val dispatcher =
         if (context.debugOptions.contains("singlethreaded")) new SingleThreadedExecutor()
         else context.dispatcher
+      dispatcher.pipelinesBuilt(operators)
       val fieldNames = from.statement().returnColumns.toArray
 
       context.notificationLogger.log(
@@ -39,6 +39,8 @@ import org.neo4j.cypher.internal.compatibility.v3_4.Compatibility
 import org.neo4j.cypher.internal.compatibility.v3_4.runtime.compiled.EnterpriseRuntimeContextCreator
 import org.neo4j.cypher.internal.compatibility.{v2_3, v3_1, v3_3 => v3_3compat}
 import org.neo4j.cypher.internal.compiler.v3_4._
+import org.neo4j.cypher.internal.runtime.MorselDispatcherMonitor
+import org.neo4j.cypher.internal.runtime.vectorized.MorselPool
 import org.neo4j.cypher.internal.runtime.vectorized.dispatcher.{ParallelDispatcher, SingleThreadedExecutor}
 import org.neo4j.cypher.internal.spi.v3_4.codegen.GeneratedQueryStructure
 import org.neo4j.graphdb.factory.GraphDatabaseSettings
@@ -74,8 +76,11 @@ class EnterpriseCompatibilityFactory(inner: CompatibilityFactory, graph: GraphDa
             val numberOfThreads = if (workers == 0) Runtime.getRuntime.availableProcessors() else workers
             val jobScheduler = graph.getDependencyResolver.resolveDependency(classOf[JobScheduler])
             val executorService = jobScheduler.workStealingExecutor(JobScheduler.Groups.cypherWorker, numberOfThreads)
+            val maxConcurrentQueries: Int = settings.get(GraphDatabaseSettings.cypher_morsel_max_concurrent_queries)
+            val morselPool = new MorselPool(morselSize, settings.get(GraphDatabaseSettings.cypher_morsel_pool_size))
+            val monitor = kernelMonitors.newMonitor(classOf[MorselDispatcherMonitor])
 
-            new ParallelDispatcher(morselSize, numberOfThreads, executorService)
+            new ParallelDispatcher(numberOfThreads, executorService, maxConcurrentQueries, morselPool, monitor)
           }
         Compatibility(config, CompilerEngineDelegator.CLOCK, kernelMonitors, logProvider.getLog(getClass),
                           spec.planner, spec.runtime, spec.updateStrategy, EnterpriseRuntimeBuilder,
@@ -48,7 +48,7 @@ import org.neo4j.cypher.internal.compatibility.v3_4.runtime.compiled.codegen.ir.
 import org.neo4j.cypher.internal.compatibility.v3_4.runtime.compiled.codegen.spi._
 import org.neo4j.cypher.internal.compatibility.v3_4.runtime.compiled.codegen.{CodeGenContext, QueryExecutionEvent}
 import org.neo4j.cypher.internal.frontend.v3_4.helpers._
-import org.neo4j.cypher.internal.spi.v3_4.codegen.GeneratedMethodStructure.CompletableFinalizer
+import org.neo4j.cypher.internal.spi.v3_4.codegen.GeneratedMethodStructure._
 import org.neo4j.cypher.internal.spi.v3_4.codegen.Methods._
 import org.neo4j.cypher.internal.spi.v3_4.codegen.Templates._
 import org.neo4j.cypher.internal.util.v3_4.attribution.Id
@@ -57,7 +57,9 @@ import org.neo4j.cypher.internal.util.v3_4.{ParameterNotFoundException, symbols}
 import org.neo4j.cypher.internal.v3_4.expressions.SemanticDirection
 import org.neo4j.graphdb.Direction
 import org.neo4j.internal.kernel.api._
+import org.neo4j.cypher.internal.runtime.QueryContext
 import org.neo4j.internal.kernel.api.helpers.RelationshipSelectionCursor
+import org.neo4j.kernel.api.query.QueryMemoryTracker
 import org.neo4j.kernel.impl.util.ValueUtils
 import org.neo4j.values.AnyValue
 import org.neo4j.values.storable._
@@ -67,6 +69,21 @@ import scala.collection.mutable
 
 object GeneratedMethodStructure {
   type CompletableFinalizer = Boolean => CodeBlock => Unit
+
+  /**
+    * Estimated heap of an entry of a primitive hash table, of an entry of a java.util hash table, of a boxed number,
+    * of an empty set or list held as the value of an entry, and of a reference to a tuple held in such a list.
+    */
+  private val PrimitiveEntryBytes = 16L
+  private val HashEntryBytes = 48L
+  private val BoxBytes = 16L
+  private val SetBytes = 64L
+  private val ListBytes = 40L
+  private val ReferenceBytes = 8L
+
+  private def tupleBytes(fields: Int): Long = DefaultFullSortTable.TUPLE_OVERHEAD + fields * DefaultFullSortTable.FIELD_BYTES
+
+  private def compositeKeyBytes(keys: Int): Long = 2 * BoxBytes + keys * java.lang.Long.BYTES
 }
 
 
@@ -672,6 +689,18 @@ class GeneratedMethodStructure(val fields: Fields, val generator: CodeBlock, aux
 
   private def params = get(generator.self(), fields.params)
 
+  private def memoryTracker =
+    invoke(get(generator.self(), fields.queryContext), method[QueryContext, QueryMemoryTracker]("memoryTracker"))
+
+  /**
+    * Accounts a new entry of a distinct set, aggregation map or probe table to the memory tracker of the query.
+    * These tables are held until the generated query has finished, so their entries are released together when the
+    * tracker is closed at the end of the query.
+    */
+  private def tableEntryAdded(block: CodeBlock, bytes: Long): Unit =
+    block.expression(invoke(memoryTracker, method[QueryMemoryTracker, Unit]("allocated", typeRef[Long]),
+                            constant(Long.box(bytes))))
+
   private def parameterNotFoundException(key: String) =
     invoke(newInstance(typeRef[ParameterNotFoundException]),
            MethodReference.constructorReference(typeRef[ParameterNotFoundException], typeRef[String]),
@@ -828,6 +857,7 @@ class GeneratedMethodStructure(val fields: Fields, val generator: CodeBlock, aux
       using(generator.ifStatement(not(invoke(generator.load(name),
                                              method[PrimitiveLongSet, Boolean]("contains", typeRef[Long]), value)))) { body =>
         body.expression(pop(invoke(generator.load(name), method[PrimitiveLongSet, Boolean]("add", typeRef[Long]), value)))
+        tableEntryAdded(body, PrimitiveEntryBytes)
         block(copy(generator = body))
       }
     } else {
@@ -835,6 +865,7 @@ class GeneratedMethodStructure(val fields: Fields, val generator: CodeBlock, aux
       newUniqueAggregationKey(tmpName, structure)
       using(generator.ifStatement(not(invoke(generator.load(name), Methods.setContains, generator.load(tmpName))))) { body =>
         body.expression(pop(invoke(loadVariable(name), Methods.setAdd, generator.load(tmpName))))
+        tableEntryAdded(body, HashEntryBytes + tupleBytes(structure.size))
         block(copy(generator = body))
       }
     }
@@ -944,7 +975,17 @@ class GeneratedMethodStructure(val fields: Fields, val generator: CodeBlock, aux
     val localVariable = generator.declare(tableType, name)
     locals += name -> localVariable
     val boxedInteger = box(count, CodeGenType.Any) // TODO: we shouldn't need to box here, we know it's either 'int' or 'long'
-    generator.assign(localVariable, createNewInstance(tableType, (typeRef[Int], invoke(Methods.mathCastToInt, boxedInteger))))
+    val initialCapacity = (typeRef[Int], invoke(Methods.mathCastToInt, boxedInteger))
+    tableDescriptor match {
+      case FullSortTableDescriptor(tupleDescriptor) =>
+        // a full sort holds all its input, so it is accounted to the memory tracker of the query
+        val bytes = tupleBytes(tupleDescriptor.structure.size)
+        generator.assign(localVariable, createNewInstance(tableType, initialCapacity,
+          (typeRef[QueryMemoryTracker], memoryTracker), (typeRef[Long], constant(Long.box(bytes)))))
+
+      case _ =>
+        generator.assign(localVariable, createNewInstance(tableType, initialCapacity))
+    }
   }
 
   override def sortTableAdd(name: String, tableDescriptor: SortTableDescriptor, value: Expression): Unit = {
@@ -982,6 +1023,10 @@ class GeneratedMethodStructure(val fields: Fields, val generator: CodeBlock, aux
       }
       block(copy(generator = body))
     }
+    if (tableDescriptor.isInstanceOf[FullSortTableDescriptor]) {
+      generator.expression(invoke(generator.load(tableName),
+        methodReference(sortTableType(tableDescriptor), typeRef[Unit], "release")))
+    }
   }
 
   override def aggregationMapGet(mapName: String, valueVarName: String, key: Map[String, (CodeGenType, Expression)],
@@ -1029,10 +1074,12 @@ class GeneratedMethodStructure(val fields: Fields, val generator: CodeBlock, aux
                                       method[PrimitiveLongObjectMap[Object], Object]("put", typeRef[Long],
                                                                                      typeRef[Object]),
                                       keyExpression, inner.load(tmp))))
+          tableEntryAdded(inner, PrimitiveEntryBytes + SetBytes)
         }
         using(generator.ifStatement(not(invoke(generator.load(tmp),
                                                method[PrimitiveLongSet, Boolean]("contains", typeRef[Long]),
                                                value)))) { inner =>
+          tableEntryAdded(inner, PrimitiveEntryBytes)
           block(copy(generator = inner))
         }
         generator.expression(pop(invoke(generator.load(tmp),
@@ -1050,10 +1097,12 @@ class GeneratedMethodStructure(val fields: Fields, val generator: CodeBlock, aux
                                       method[PrimitiveLongObjectMap[Object], Object]("put", typeRef[Long],
                                                                                      typeRef[Object]),
                                       keyExpression, inner.load(tmp))))
+          tableEntryAdded(inner, PrimitiveEntryBytes + SetBytes)
         }
         using(generator.ifStatement(not(invoke(generator.load(tmp),
                                                method[JHashSet[Object], Boolean]("contains", typeRef[Object]),
                                                value)))) { inner =>
+          tableEntryAdded(inner, HashEntryBytes)
           block(copy(generator = inner))
         }
         generator.expression(pop(invoke(generator.load(tmp),
@@ -1077,11 +1126,13 @@ class GeneratedMethodStructure(val fields: Fields, val generator: CodeBlock, aux
                                       method[JHashMap[Object, PrimitiveLongSet], Object]("put", typeRef[Object],
                                                                                              typeRef[Object]),
                                       generator.load(keyVar), inner.load(setVar))))
+          tableEntryAdded(inner, HashEntryBytes + tupleBytes(key.size) + SetBytes)
         }
 
         using(generator.ifStatement(not(invoke(generator.load(setVar),
                                                method[PrimitiveLongSet, Boolean]("contains", typeRef[Long]),
                                                value)))) { inner =>
+          tableEntryAdded(inner, PrimitiveEntryBytes)
           block(copy(generator = inner))
           inner.expression(pop(invoke(generator.load(setVar),
                                       method[PrimitiveLongSet, Boolean]("add", typeRef[Long]),
@@ -1103,6 +1154,7 @@ class GeneratedMethodStructure(val fields: Fields, val generator: CodeBlock, aux
                                       method[JHashMap[Object, JHashSet[Object]], Object]("put", typeRef[Object],
                                                                                                  typeRef[Object]),
                                       generator.load(keyVar), inner.load(setVar))))
+          tableEntryAdded(inner, HashEntryBytes + tupleBytes(key.size) + SetBytes)
         }
         val valueVar = context.namer.newVarName()
         newUniqueAggregationKey(valueVar, Map(context.namer.newVarName() -> (valueType -> value)))
@@ -1110,6 +1162,7 @@ class GeneratedMethodStructure(val fields: Fields, val generator: CodeBlock, aux
         using(generator.ifStatement(not(invoke(generator.load(setVar),
                                                method[JHashSet[Object], Boolean]("contains", typeRef[Object]),
                                                generator.load(valueVar))))) { inner =>
+          tableEntryAdded(inner, HashEntryBytes + tupleBytes(1))
           block(copy(generator = inner))
           inner.expression(pop(invoke(generator.load(setVar),
                                       method[JHashSet[Object], Boolean]("add", typeRef[Object]),
@@ -1123,16 +1176,21 @@ class GeneratedMethodStructure(val fields: Fields, val generator: CodeBlock, aux
                                  value: Expression) = {
     if (key.size == 1 && key.head._2._1.repr == LongType) {
       val (_, (_, keyExpression)) = key.head
-      generator.expression(pop(invoke(generator.load(name),
-                                      method[PrimitiveLongLongMap, Long]("put", typeRef[Long], typeRef[Long]),
-                                      keyExpression, value)))
+      val previous = invoke(generator.load(name),
+                            method[PrimitiveLongLongMap, Long]("put", typeRef[Long], typeRef[Long]),
+                            keyExpression, value)
+      using(generator.ifStatement(equal(previous, constant(Long.box(-1L))))) { body =>
+        tableEntryAdded(body, PrimitiveEntryBytes)
+      }
     } else {
 
       if (!locals.contains(keyVar)) newUniqueAggregationKey(keyVar, key)
-      generator.expression(pop(invoke(generator.load(name),
-                                      method[JHashMap[Object, java.lang.Long], Object]("put", typeRef[Object],
-                                                                                           typeRef[Object]),
-                                      generator.load(keyVar), box(value, CodeGenType.javaLong))))
+      val previous = invoke(generator.load(name),
+                            method[JHashMap[Object, java.lang.Long], Object]("put", typeRef[Object], typeRef[Object]),
+                            generator.load(keyVar), box(value, CodeGenType.javaLong))
+      using(generator.ifStatement(Expression.isNull(previous))) { body =>
+        tableEntryAdded(body, HashEntryBytes + tupleBytes(key.size) + BoxBytes)
+      }
     }
   }
 
@@ -1250,6 +1308,10 @@ class GeneratedMethodStructure(val fields: Fields, val generator: CodeBlock, aux
       val countName = context.namer.newVarName()
       generator.assign(typeRef[Int], countName,
                        invoke(generator.load(tableVar), countingTableGet, generator.load(keyVar)))
+      using(generator.ifStatement(
+        equal(generator.load(countName), getStatic(staticField[LongKeyIntValueTable, Int]("NULL"))))) { body =>
+        tableEntryAdded(body, PrimitiveEntryBytes)
+      }
       generator.expression(
         pop(
           invoke(generator.load(tableVar), countingTablePut, generator.load(keyVar),
@@ -1268,6 +1330,9 @@ class GeneratedMethodStructure(val fields: Fields, val generator: CodeBlock, aux
                             invoke(generator.load(tableVar), countingTableCompositeKeyGet,
                                    generator.load(keyName))
                        ))
+      using(generator.ifStatement(Expression.isNull(generator.load(countName)))) { body =>
+        tableEntryAdded(body, HashEntryBytes + compositeKeyBytes(keyVars.size) + BoxBytes)
+      }
       generator.expression(
         pop(
           invoke(generator.load(tableVar), countingTableCompositeKeyPut,
@@ -1368,6 +1433,7 @@ class GeneratedMethodStructure(val fields: Fields, val generator: CodeBlock, aux
     case _: LongToListTable =>
       assert(keyVars.size == 1)
       val keyVar = keyVars.head
+      val elementBytes = tupleBytes(tupleDescriptor.structure.size) + ReferenceBytes
       val hashTable = extractHashTable(tableType)
       // generate the code
       val listName = context.namer.newVarName()
@@ -1386,14 +1452,17 @@ class GeneratedMethodStructure(val fields: Fields, val generator: CodeBlock, aux
           pop(
             invoke(
               generator.load(tableVar), hashTable.put, generator.load(keyVar), generator.load(listName))))
+        tableEntryAdded(onTrue, PrimitiveEntryBytes + ListBytes)
       }
       // list.add( element );
       generator.expression(
         pop(
           invoke(list, hashTable.add, element))
       )
+      tableEntryAdded(generator, elementBytes)
 
     case _: LongsToListTable =>
+      val elementBytes = tupleBytes(tupleDescriptor.structure.size) + ReferenceBytes
       val hashTable = extractHashTable(tableType)
       // generate the code
       val listName = context.namer.newVarName()
@@ -1414,11 +1483,13 @@ class GeneratedMethodStructure(val fields: Fields, val generator: CodeBlock, aux
           pop(
             invoke(generator.load(tableVar), hashTable.put, generator.load(keyName),
                    generator.load(listName))))
+        tableEntryAdded(onTrue, HashEntryBytes + compositeKeyBytes(keyVars.size) + ListBytes)
       }
       // list.add( element );
       generator.expression(
         pop(
           invoke(list, hashTable.add, element)))
+      tableEntryAdded(generator, elementBytes)
   }
 
   override def declareProperty(propertyVar: String) = {
@@ -54,6 +54,7 @@ import org.neo4j.cypher.internal.util.v3_4.test_helpers.CypherFunSuite
 import org.neo4j.graphdb.Node
 import org.neo4j.internal.kernel.api._
 import org.neo4j.internal.kernel.api.helpers.StubNodeCursor
+import org.neo4j.kernel.api.query.QueryMemoryTracker
 import org.neo4j.kernel.impl.core.{EmbeddedProxySPI, NodeProxy}
 import org.neo4j.values.AnyValue
 import org.neo4j.values.storable._
@@ -85,6 +86,7 @@ class BuildProbeTableInstructionsTest extends CypherFunSuite with CodeGenSugar {
   // used by instructions that generate probe tables
   private implicit val codeGenContext = new CodeGenContext(SemanticTable(), Map.empty)
   when(queryContext.transactionalContext).thenReturn(transactionalContext)
+  when(queryContext.memoryTracker).thenReturn(QueryMemoryTracker.NONE)
   when(cursors.allocateNodeCursor()).thenAnswer(new Answer[NodeCursor] {
     override def answer(invocation: InvocationOnMock): NodeCursor = nodeCursor
   })
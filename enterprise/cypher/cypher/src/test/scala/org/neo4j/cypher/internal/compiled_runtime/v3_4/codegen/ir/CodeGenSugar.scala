@@ -59,6 +59,7 @@ import org.neo4j.graphdb.GraphDatabaseService
 import org.neo4j.graphdb.Result.{ResultRow, ResultVisitor}
 import org.neo4j.internal.kernel.api.Transaction.Type
 import org.neo4j.kernel.GraphDatabaseQueryService
+import org.neo4j.kernel.api.query.QueryMemoryTracker
 import org.neo4j.kernel.api.security.AnonymousContext
 import org.neo4j.kernel.impl.coreapi.PropertyContainerLocker
 import org.neo4j.kernel.impl.query.Neo4jTransactionalContextFactory
@@ -163,6 +164,7 @@ trait CodeGenSugar extends MockitoSugar with LogicalPlanConstructionTestSupport
     val qc = mock[QueryContext]
     val transactionalContext = mock[TransactionalContextWrapper]
     when(qc.transactionalContext).thenReturn(transactionalContext)
+    when(qc.memoryTracker).thenReturn(QueryMemoryTracker.NONE)
 
     qc
   }
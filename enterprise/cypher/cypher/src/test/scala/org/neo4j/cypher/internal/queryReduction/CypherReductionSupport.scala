@@ -89,7 +89,8 @@ object CypherReductionSupport {
     csvBufferSize = CSVResources.DEFAULT_BUFFER_SIZE,
     nonIndexedLabelWarningThreshold = 0,
     planWithMinimumCardinalityEstimates = true,
-    lenientCreateRelationship = true)
+    lenientCreateRelationship = true,
+    operatorMemoryBudget = 0)
   private val kernelMonitors = new Monitors
   private val compiler = CypherCompiler(WrappedMonitors(kernelMonitors), stepSequencer, metricsFactory, config, defaultUpdateStrategy,
     CompilerEngineDelegator.CLOCK, CommunityRuntimeContextCreator)
@@ -46,6 +46,7 @@ sealed trait Message {
 * not other runs will be scheduled, giving the pipeline a chance to initialise global state.
 * */
 case class StartLeafLoop(iterationState: Iteration) extends Message
+case class StartLeafLoopWithTask(task: AnyRef, iterationState: Iteration) extends Message
 case class StartLoopWithSingleMorsel(data: Morsel, iterationState: Iteration) extends Message
 case class StartLoopWithEagerData(data: Array[Morsel], iterationState: Iteration) extends Message
 
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) as found
+ * in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ */
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.vectorized
+
+import java.util
+
+import org.neo4j.cypher.internal.compatibility.v3_4.runtime.SlotConfiguration
+
+import scala.collection.mutable
+
+/*
+Recycles morsels no longer used by any pipeline, instead of allocating new arrays for every pipeline iteration. Every
+worker thread has its own pool, so morsels are taken and returned without synchronization and a worker keeps reusing
+arrays it has recently touched. Morsels are returned to the pool of the thread finishing with them, and every pool keeps
+at most maxPooled morsels of each size, leaving the rest to the garbage collector.
+ */
+class MorselPool(morselSize: Int, maxPooled: Int) {
+
+  private val pools = new ThreadLocal[mutable.Map[(Int, Int), mutable.ArrayStack[Morsel]]] {
+    override def initialValue(): mutable.Map[(Int, Int), mutable.ArrayStack[Morsel]] = mutable.Map.empty
+  }
+
+  def acquire(slots: SlotConfiguration): Morsel = {
+    val key = (slots.numberOfLongs * morselSize, slots.numberOfReferences * morselSize)
+    pools.get().get(key) match {
+      case Some(pool) if pool.nonEmpty =>
+        val morsel = pool.pop()
+        morsel.validRows = morselSize
+        morsel
+      case _ =>
+        Morsel.create(slots, morselSize)
+    }
+  }
+
+  def release(morsel: Morsel): Unit = {
+    if (maxPooled > 0) {
+      val pool = pools.get().getOrElseUpdate((morsel.longs.length, morsel.refs.length), new mutable.ArrayStack[Morsel])
+      if (pool.size < maxPooled) {
+        // Don't keep values of finished pipelines reachable
+        util.Arrays.fill(morsel.refs.asInstanceOf[Array[AnyRef]], null)
+        pool.push(morsel)
+      }
+    }
+  }
+}
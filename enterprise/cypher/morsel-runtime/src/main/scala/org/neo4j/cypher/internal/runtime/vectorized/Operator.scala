@@ -35,6 +35,8 @@
 package org.neo4j.cypher.internal.runtime.vectorized
 
 import java.util
+import java.util.concurrent.ConcurrentHashMap
+import java.util.function
 
 import org.neo4j.cypher.internal.compatibility.v3_4.runtime.SlotConfiguration
 import org.neo4j.cypher.internal.runtime.QueryContext
@@ -50,6 +52,16 @@ trait Operator {
   def addDependency(pipeline: Pipeline): Dependency
 }
 
+/*
+A leaf operator whose input can be split between workers. The dispatcher calls init once per query to create the task
+shared by all workers, and then starts one loop per worker with a StartLeafLoopWithTask message. Each loop keeps claiming
+parts of the shared task until it is exhausted, so workers that finish early pick up what slower workers have not yet
+claimed. Started with a plain StartLeafLoop, the operator produces all of its input from a single loop.
+ */
+trait ParallelLeafOperator extends Operator {
+  def init(context: QueryContext, state: QueryState): AnyRef
+}
+
 trait MiddleOperator {
   def operate(iterationState: Iteration,
               data: Morsel,
@@ -86,7 +98,27 @@ case object NoDependencies extends Dependency {
   override def pipeline = throw new IllegalArgumentException("No dependencies here!")
 }
 
-case class QueryState(params: MapValue, visitor: QueryResultVisitor[_])
+case class QueryState(params: MapValue, visitor: QueryResultVisitor[_], operatorStates: OperatorStates = new OperatorStates) {
+  /*
+  Set by a limit once it has let through all the rows it will. The morsel runtime only builds a single chain of
+  pipelines, so nothing a leaf produces after that can reach the result, and leaf loops stop claiming more input.
+   */
+  @volatile var inputExhausted: Boolean = false
+}
+
+/*
+State an operator keeps for the duration of one query, shared by all workers executing it. Operators are created once
+per plan and reused between queries, so operators that need to see the rows of all morsels, like limit and distinct,
+keep that state here instead of in fields.
+ */
+class OperatorStates {
+  private val states = new ConcurrentHashMap[AnyRef, AnyRef]()
+
+  def getOrCreate[T <: AnyRef](operator: AnyRef, create: () => T): T =
+    states.computeIfAbsent(operator, new function.Function[AnyRef, AnyRef] {
+      override def apply(t: AnyRef): AnyRef = create()
+    }).asInstanceOf[T]
+}
 
 case class Pipeline(start: Operator,
                     operators: IndexedSeq[MiddleOperator],
@@ -139,8 +171,8 @@ case class Pipeline(start: Operator,
     parent = Some(daddy)
   }
 
-  override def toString: String = {
-    val x = (start +: operators).map(x => x.getClass.getSimpleName)
-    s"Pipeline(${x.mkString(",")})"
-  }
+  // The operators of this pipeline, used to tell pipelines apart in metrics
+  lazy val name: String = (start +: operators).map(x => x.getClass.getSimpleName).mkString(",")
+
+  override def toString: String = s"Pipeline($name)"
 }
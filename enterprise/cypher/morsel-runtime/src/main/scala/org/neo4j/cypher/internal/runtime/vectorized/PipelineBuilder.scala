@@ -35,9 +35,10 @@
 package org.neo4j.cypher.internal.runtime.vectorized
 
 import org.neo4j.cypher.internal.compatibility.v3_4.runtime.PhysicalPlanningAttributes.SlotConfigurations
-import org.neo4j.cypher.internal.compatibility.v3_4.runtime.RefSlot
+import org.neo4j.cypher.internal.compatibility.v3_4.runtime.{RefSlot, SlotConfiguration}
 import org.neo4j.cypher.internal.compiler.v3_4.planner.CantCompileQueryException
 import org.neo4j.cypher.internal.frontend.v3_4.semantics.SemanticTable
+import org.neo4j.cypher.internal.ir.v3_4.VarPatternLength
 import org.neo4j.cypher.internal.runtime.interpreted.commands.convert.ExpressionConverters
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.{LazyLabel, LazyTypes}
 import org.neo4j.cypher.internal.runtime.slotted.SlottedPipeBuilder.translateColumnOrder
@@ -72,14 +73,14 @@ class PipelineBuilder(slotConfigurations: SlotConfigurations, converters: Expres
           slots.getLongOffsetFor(column),
           LazyLabel(label)(SemanticTable()))
 
-      case plans.NodeIndexSeek(column, label, propertyKeys, SingleQueryExpression(valueExpr),  _) if propertyKeys.size == 1 =>
+      case plans.NodeIndexSeek(column, label, propertyKeys, SingleQueryExpression(valueExpr),  _, _) if propertyKeys.size == 1 =>
         new NodeIndexSeekOperator(
           slots.numberOfLongs,
           slots.numberOfReferences,
           slots.getLongOffsetFor(column),
           label, propertyKeys.head, converters.toCommandExpression(valueExpr))
 
-      case plans.NodeUniqueIndexSeek(column, label, propertyKeys, SingleQueryExpression(valueExpr),  _) if propertyKeys.size == 1 =>
+      case plans.NodeUniqueIndexSeek(column, label, propertyKeys, SingleQueryExpression(valueExpr),  _, _) if propertyKeys.size == 1 =>
         new NodeIndexSeekOperator(
           slots.numberOfLongs,
           slots.numberOfReferences,
@@ -115,6 +116,44 @@ class PipelineBuilder(slotConfigurations: SlotConfigurations, converters: Expres
           val lazyTypes = LazyTypes(types.toArray)(SemanticTable())
           new ExpandAllOperator(slots, fromPipe, fromOffset, relOffset, toOffset, dir, lazyTypes)
 
+        case plans.Expand(lhs, fromName, dir, types, to, relName, ExpandInto) =>
+          val fromOffset = slots.getLongOffsetFor(fromName)
+          val relOffset = slots.getLongOffsetFor(relName)
+          val toOffset = slots.getLongOffsetFor(to)
+          val fromPipe = slotConfigurations(lhs.id)
+          val lazyTypes = LazyTypes(types.toArray)(SemanticTable())
+          new ExpandIntoOperator(slots, fromPipe, fromOffset, relOffset, toOffset, dir, lazyTypes)
+
+        case plans.OptionalExpand(lhs, fromName, dir, types, to, relName, ExpandAll, predicates) =>
+          val fromOffset = slots.getLongOffsetFor(fromName)
+          val relOffset = slots.getLongOffsetFor(relName)
+          val toOffset = slots.getLongOffsetFor(to)
+          val fromPipe = slotConfigurations(lhs.id)
+          val lazyTypes = LazyTypes(types.toArray)(SemanticTable())
+          val predicate = predicates.map(converters.toCommandPredicate).reduceOption(_ andWith _)
+          new OptionalExpandAllOperator(slots, fromPipe, fromOffset, relOffset, toOffset, dir, lazyTypes, predicate)
+
+        case plans.VarExpand(lhs, fromName, dir, projectedDir, types, to, relName, VarPatternLength(min, max), ExpandAll,
+                             tempNode, tempEdge, nodePredicate, edgePredicate, _) =>
+          val fromPipe = slotConfigurations(lhs.id)
+          val lazyTypes = LazyTypes(types.toArray)(SemanticTable())
+          // The node/edge predicates are evaluated on the input rows, like in slotted
+          val argumentSize = SlotConfiguration.Size(fromPipe.numberOfLongs - 2, fromPipe.numberOfReferences)
+          new VarExpandOperator(slots, fromPipe, fromPipe.getLongOffsetFor(fromName), slots.getReferenceOffsetFor(relName),
+                                slots.getLongOffsetFor(to), dir, projectedDir, lazyTypes, min, max,
+                                fromPipe.getLongOffsetFor(tempNode), fromPipe.getLongOffsetFor(tempEdge),
+                                converters.toCommandPredicate(nodePredicate), converters.toCommandPredicate(edgePredicate),
+                                argumentSize)
+
+        case plans.Limit(_, count, DoNotIncludeTies) =>
+          new LimitOperator(converters.toCommandExpression(count))
+
+        case plans.Distinct(lhs, groupingExpressions) =>
+          val groupings = groupingExpressions.map {
+            case (key, expression) => slots(key) -> converters.toCommandExpression(expression)
+          }.toArray
+          new DistinctOperator(slotConfigurations(lhs.id), slots, groupings)
+
         case plans.Projection(_, expressions) =>
           val projectionOps = expressions.map {
             case (key, e) => slots(key) -> converters.toCommandExpression(e)
@@ -186,6 +225,7 @@ class PipelineBuilder(slotConfigurations: SlotConfigurations, converters: Expres
     }
   }
 
+  // Plans with two inputs, like the hash joins, need a pipeline fed by two others, which the dispatchers cannot run yet
   override protected def build(plan: LogicalPlan, lhs: Pipeline, rhs: Pipeline): Pipeline =
     throw new CantCompileQueryException(s"$plan is not supported in morsel runtime")
 }
@@ -45,5 +45,8 @@ trait Dispatcher {
                               queryContext: QueryContext,
                               params: MapValue,
                               taskCloser: TaskCloser)(visitor: QueryResultVisitor[E]): Unit
+
+  // Called once for every plan this dispatcher is going to execute, when the pipelines of the plan have been built
+  def pipelinesBuilt(operators: Pipeline): Unit = {}
 }
 
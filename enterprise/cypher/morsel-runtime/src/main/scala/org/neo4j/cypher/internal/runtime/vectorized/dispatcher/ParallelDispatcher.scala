@@ -34,12 +34,12 @@
  */
 package org.neo4j.cypher.internal.runtime.vectorized.dispatcher
 
-import java.util.concurrent.Executor
 import java.util.concurrent.atomic.{AtomicInteger, AtomicReference}
+import java.util.concurrent.{ConcurrentLinkedQueue, Executor, Semaphore}
 import java.util.{concurrent, function}
 
 import org.neo4j.concurrent.BinaryLatch
-import org.neo4j.cypher.internal.runtime.QueryContext
+import org.neo4j.cypher.internal.runtime.{MorselDispatcherMonitor, QueryContext}
 import org.neo4j.cypher.internal.runtime.vectorized._
 import org.neo4j.cypher.internal.util.v3_4.{InternalException, TaskCloser}
 import org.neo4j.cypher.result.QueryResult.QueryResultVisitor
@@ -47,19 +47,59 @@ import org.neo4j.values.virtual.MapValue
 
 import scala.collection.JavaConverters._
 
-class ParallelDispatcher(morselSize: Int, workers: Int, executor: Executor) extends Dispatcher {
+/*
+Executes queries on a shared work-stealing executor. Every query queues its tasks in a queue of its own, and has at most
+one task per worker in the executor at any time. A task returns its worker to the executor when it is done, so tasks of
+concurrent queries interleave rather than one query flooding the executor with continuations. With maxConcurrentQueries
+set, queries beyond that many wait to be admitted until a running query has finished.
+ */
+class ParallelDispatcher(workers: Int,
+                         executor: Executor,
+                         maxConcurrentQueries: Int,
+                         morselPool: MorselPool,
+                         monitor: MorselDispatcherMonitor) extends Dispatcher {
+
+  private val admission = if (maxConcurrentQueries > 0) new Semaphore(maxConcurrentQueries, true) else null
 
   def execute[E <: Exception](operators: Pipeline,
                               queryContext: QueryContext,
                               params: MapValue,
                               taskCloser: TaskCloser)(visitor: QueryResultVisitor[E]): Unit = {
+    val waitStart = System.nanoTime()
+    if (admission != null) admission.acquire()
+    monitor.queryAdmitted(System.nanoTime() - waitStart)
+    try {
+      executeAdmitted(operators, queryContext, params, taskCloser)(visitor)
+    } finally {
+      if (admission != null) admission.release()
+      monitor.queryFinished()
+    }
+  }
+
+  // Lets the monitor resolve what it needs for reporting on the pipelines up front, rather than for every morsel
+  override def pipelinesBuilt(operators: Pipeline): Unit = {
+    monitor.pipelineBuilt(operators.name)
+    operators.dependency.foreach(pipelinesBuilt)
+  }
+
+  private def executeAdmitted[E <: Exception](operators: Pipeline,
+                                              queryContext: QueryContext,
+                                              params: MapValue,
+                                              taskCloser: TaskCloser)(visitor: QueryResultVisitor[E]): Unit = {
     val leaf = getLeaf(operators)
     val iteration = new Iteration(None)
     val query = new Query()
-    val startMessage = StartLeafLoop(iteration)
     val state = QueryState(params, visitor)
-    val action = createAction(query, startMessage, leaf, queryContext, state)
-    executor.execute(action)
+    val actions = leaf.start match {
+      case parallelLeaf: ParallelLeafOperator if workers > 1 =>
+        // Every worker gets a loop over the same task, and they claim parts of it until it is exhausted
+        val task = parallelLeaf.init(queryContext, state)
+        (0 until workers).map(_ => createAction(query, StartLeafLoopWithTask(task, iteration), leaf, queryContext, state))
+      case _ =>
+        Seq(createAction(query, StartLeafLoop(iteration), leaf, queryContext, state))
+    }
+    // All leaf loops are registered before any of them runs, so the first one to finish does not end the query
+    actions.foreach(query.schedule)
     query.blockUntilQueryFinishes()
     val failure = query.failure
     if (failure != null) {
@@ -77,13 +117,26 @@ class ParallelDispatcher(morselSize: Int, workers: Int, executor: Executor) exte
     // We remember that the loop has started even before the task has been scheduled
     query.startLoop(incoming.iterationState)
     new Runnable {
+      private var queryContext: QueryContext = _
+      private var message = incoming
+
       override def run(): Unit = try {
-        val queryContext = q.createNewQueryContext()
-        var message = incoming
-        var continuation: Continuation = null
-        while (continuation == null || !continuation.isInstanceOf[EndOfLoop]) {
-          continuation = execute(query, pipeline, message, queryContext, state)
-          message = ContinueLoopWith(continuation)
+        if (queryContext == null) {
+          queryContext = q.createNewQueryContext()
+        }
+        val continuation = execute(query, pipeline, message, queryContext, state)
+        message = ContinueLoopWith(continuation)
+        if (!continuation.isInstanceOf[EndOfLoop]) {
+          // Continue behind the tasks consuming the data just produced, and behind the tasks of other queries
+          query.schedule(this)
+          return
+        }
+
+        // The data this loop was started with has been consumed, see execute below for who hands it over
+        incoming match {
+          case StartLoopWithSingleMorsel(data, _) => morselPool.release(data)
+          case StartLoopWithEagerData(data, _) => data.foreach(morselPool.release)
+          case _ =>
         }
 
         // Once we have exhausted this loop, we check if we just closed the last loop.
@@ -96,9 +149,8 @@ class ParallelDispatcher(morselSize: Int, workers: Int, executor: Executor) exte
               query.releaseBlockedThreads()
 
             case Some(eagerConsumingPipeline) =>
-              query.eagerReceiver = None
-              val startEager = StartLoopWithEagerData(query.eagerData.asScala.toArray, incoming.iterationState)
-              executor.execute(createAction(query, startEager, eagerConsumingPipeline, queryContext, state))
+              val startEager = StartLoopWithEagerData(query.takeEagerData(), incoming.iterationState)
+              query.schedule(createAction(query, startEager, eagerConsumingPipeline, queryContext, state))
           }
 
         }
@@ -112,25 +164,21 @@ class ParallelDispatcher(morselSize: Int, workers: Int, executor: Executor) exte
   }
 
   private def execute(query: Query, pipeline: Pipeline, message: Message, queryContext: QueryContext, state: QueryState) = {
-    val data = Morsel.create(pipeline.slots, morselSize)
+    val data = morselPool.acquire(pipeline.slots)
     val continuation = pipeline.operate(message, data, queryContext, state)
+    monitor.morselProduced(pipeline.name, data.validRows)
 
+    // The produced data is handed over to the loop of the next pipeline, which returns it to the pool when done
     pipeline.parent match {
-      case Some(mother) if mother.dependency.isInstanceOf[Eager] && query.eagerReceiver.contains(mother) =>
-        query.eagerData.add(data)
-
-      case Some(mother) if mother.dependency.isInstanceOf[Eager] && query.eagerReceiver.isEmpty =>
-        query.eagerReceiver = Some(mother)
-        query.eagerData.add(data)
-
       case Some(mother) if mother.dependency.isInstanceOf[Eager] =>
-        throw new InternalException("This is not the same eager receiver as I want to use")
+        query.addEagerData(mother, data)
 
       case Some(mother) if mother.dependency.isInstanceOf[Lazy] =>
         val nextStep = StartLoopWithSingleMorsel(data, message.iterationState)
-        executor.execute(createAction(query, nextStep, mother, queryContext, state))
+        query.schedule(createAction(query, nextStep, mother, queryContext, state))
 
       case _ =>
+        morselPool.release(data)
     }
     continuation
   }
@@ -148,9 +196,65 @@ class ParallelDispatcher(morselSize: Int, workers: Int, executor: Executor) exte
     private val loopCount = new concurrent.ConcurrentHashMap[Iteration, AtomicInteger]()
     private val error = new AtomicReference[Throwable]()
     private val latch = new BinaryLatch
-    var eagerReceiver: Option[Pipeline] = None
+    private val tasks = new ConcurrentLinkedQueue[Runnable]()
+    private val tasksInExecutor = new AtomicInteger()
+    @volatile var eagerReceiver: Option[Pipeline] = None
     lazy val eagerData = new java.util.concurrent.ConcurrentLinkedQueue[Morsel]()
 
+    // Loops of a parallel leaf feed the same eager receiver from several threads at once
+    def addEagerData(receiver: Pipeline, data: Morsel): Unit = {
+      synchronized {
+        if (eagerReceiver.isEmpty)
+          eagerReceiver = Some(receiver)
+        else if (!eagerReceiver.contains(receiver))
+          throw new InternalException("This is not the same eager receiver as I want to use")
+      }
+      eagerData.add(data)
+    }
+
+    // Hands the collected data to the eager receiver, leaving room for the next eager pipeline to collect its own
+    def takeEagerData(): Array[Morsel] = synchronized {
+      eagerReceiver = None
+      val data = eagerData.asScala.toArray
+      eagerData.clear()
+      data
+    }
+
+    def schedule(task: Runnable): Unit = {
+      tasks.add(task)
+      monitor.taskQueued()
+      submitWorkers()
+    }
+
+    // Submits a worker for every queued task, up to one per worker thread for this query
+    private def submitWorkers(): Unit = {
+      var full = false
+      while (!full && !tasks.isEmpty) {
+        val inExecutor = tasksInExecutor.get()
+        if (inExecutor >= workers)
+          full = true
+        else if (tasksInExecutor.compareAndSet(inExecutor, inExecutor + 1)) {
+          executor.execute(worker)
+        }
+      }
+    }
+
+    // Runs a single task and then goes back to the end of the executor queue, letting tasks of other queries run
+    private val worker = new Runnable {
+      override def run(): Unit = {
+        try {
+          val task = tasks.poll()
+          if (task != null) {
+            monitor.taskStarted()
+            task.run()
+          }
+        } finally {
+          tasksInExecutor.decrementAndGet()
+          submitWorkers()
+        }
+      }
+    }
+
     def startLoop(iteration: Iteration): Unit = {
       loopCount.computeIfAbsent(iteration, createAtomicInteger).incrementAndGet()
     }
@@ -36,15 +36,19 @@ package org.neo4j.cypher.internal.runtime.vectorized.operators
 
 import org.neo4j.cypher.internal.runtime.QueryContext
 import org.neo4j.cypher.internal.runtime.vectorized._
-import org.neo4j.internal.kernel.api.NodeCursor
+import org.neo4j.internal.kernel.api.{NodeCursor, Scan}
 
-class AllNodeScanOperator(longsPerRow: Int, refsPerRow: Int, offset: Int) extends Operator {
+class AllNodeScanOperator(longsPerRow: Int, refsPerRow: Int, offset: Int) extends ParallelLeafOperator {
+
+  override def init(context: QueryContext, state: QueryState): AnyRef =
+    context.transactionalContext.dataRead.allNodesScan()
 
   override def operate(message: Message,
                        data: Morsel,
                        context: QueryContext,
                        state: QueryState): Continuation = {
     var nodeCursor: NodeCursor = null
+    var scan: ParallelScanSource[NodeCursor] = null
     var iterationState: Iteration = null
     val read = context.transactionalContext.dataRead
 
@@ -53,6 +57,14 @@ class AllNodeScanOperator(longsPerRow: Int, refsPerRow: Int, offset: Int) extend
         nodeCursor = context.transactionalContext.cursors.allocateNodeCursor()
         read.allNodesScan(nodeCursor)
         iterationState = is
+      case StartLeafLoopWithTask(task, is) =>
+        nodeCursor = context.transactionalContext.cursors.allocateNodeCursor()
+        scan = new ParallelScanSource(task.asInstanceOf[Scan[NodeCursor]], nodeCursor, data.validRows, state)
+        iterationState = is
+      case ContinueLoopWith(ContinueWithSource(it: ParallelScanSource[NodeCursor @unchecked], is, _)) =>
+        scan = it
+        nodeCursor = it.cursor
+        iterationState = is
       case ContinueLoopWith(ContinueWithSource(it, is, _)) =>
         nodeCursor = it.asInstanceOf[NodeCursor]
         iterationState = is
@@ -64,7 +76,7 @@ class AllNodeScanOperator(longsPerRow: Int, refsPerRow: Int, offset: Int) extend
     var processedRows = 0
     var hasMore = true
     while (processedRows < data.validRows && hasMore) {
-      hasMore = nodeCursor.next()
+      hasMore = if (scan == null) nodeCursor.next() else scan.next()
       if (hasMore) {
         longs(processedRows * longsPerRow + offset) = nodeCursor.nodeReference()
         processedRows += 1
@@ -73,8 +85,8 @@ class AllNodeScanOperator(longsPerRow: Int, refsPerRow: Int, offset: Int) extend
 
     data.validRows = processedRows
 
-    if (hasMore)
-      ContinueWithSource(nodeCursor, iterationState, needsSameThread = false)
+    if (hasMore && !state.inputExhausted)
+      ContinueWithSource(if (scan == null) nodeCursor else scan, iterationState, needsSameThread = false)
     else {
       if (nodeCursor != null) {
         nodeCursor.close()
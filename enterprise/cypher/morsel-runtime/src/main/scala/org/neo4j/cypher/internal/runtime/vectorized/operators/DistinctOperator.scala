@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) as found
+ * in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ */
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.vectorized.operators
+
+import java.util.concurrent.ConcurrentHashMap
+
+import org.neo4j.cypher.internal.compatibility.v3_4.runtime.{Slot, SlotConfiguration}
+import org.neo4j.cypher.internal.runtime.QueryContext
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expression
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.{QueryState => OldQueryState}
+import org.neo4j.cypher.internal.runtime.slotted.helpers.SlottedPipeBuilderUtils
+import org.neo4j.cypher.internal.runtime.vectorized._
+import org.neo4j.cypher.internal.util.v3_4.InternalException
+import org.neo4j.values.AnyValue
+import org.neo4j.values.virtual.VirtualValues
+
+/*
+Writes the rows of an input morsel that have not been seen before into the output morsel. The rows seen so far are
+shared by all workers of a query, so a combination of values is only produced once no matter which worker sees it first.
+Since distinct never produces more rows than it gets, every input morsel fits in a single output morsel.
+ */
+class DistinctOperator(fromSlots: SlotConfiguration,
+                       toSlots: SlotConfiguration,
+                       groupings: Array[(Slot, Expression)]) extends Operator {
+
+  private val expressions = groupings.map(_._2)
+  private val setInSlotFunctions = groupings.map {
+    case (slot, _) => SlottedPipeBuilderUtils.makeSetValueInSlotFunctionFor(slot)
+  }
+
+  override def operate(message: Message, output: Morsel, context: QueryContext, state: QueryState): Continuation = {
+    val (input, iterationState) = message match {
+      case StartLoopWithSingleMorsel(data, is) => (data, is)
+      case _ => throw new InternalException("Unknown continuation received")
+    }
+
+    val seen = state.operatorStates.getOrCreate(this, () => ConcurrentHashMap.newKeySet[AnyValue]())
+    val queryState = new OldQueryState(context, resources = null, params = state.params)
+    val inputRow = new MorselExecutionContext(input, fromSlots.numberOfLongs, fromSlots.numberOfReferences, currentRow = 0)
+    val outputRow = new MorselExecutionContext(output, toSlots.numberOfLongs, toSlots.numberOfReferences, currentRow = 0)
+    val values = new Array[AnyValue](expressions.length)
+
+    while (inputRow.currentRow < input.validRows) {
+      var i = 0
+      while (i < expressions.length) {
+        values(i) = expressions(i)(inputRow, queryState)
+        i += 1
+      }
+      if (seen.add(VirtualValues.list(values.clone(): _*))) {
+        i = 0
+        while (i < values.length) {
+          setInSlotFunctions(i)(outputRow, values(i))
+          i += 1
+        }
+        outputRow.moveToNextRow()
+      }
+      inputRow.moveToNextRow()
+    }
+
+    output.validRows = outputRow.currentRow
+    EndOfLoop(iterationState)
+  }
+
+  override def addDependency(pipeline: Pipeline): Dependency = Lazy(pipeline)
+}
@@ -37,25 +37,43 @@ package org.neo4j.cypher.internal.runtime.vectorized.operators
 import org.neo4j.cypher.internal.runtime.QueryContext
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.LazyLabel
 import org.neo4j.cypher.internal.runtime.vectorized._
-import org.neo4j.internal.kernel.api.NodeLabelIndexCursor
+import org.neo4j.internal.kernel.api.{NodeLabelIndexCursor, Scan}
 
-class LabelScanOperator(longsPerRow: Int, refsPerRow: Int, offset: Int, label: LazyLabel) extends Operator {
+class LabelScanOperator(longsPerRow: Int, refsPerRow: Int, offset: Int, label: LazyLabel) extends ParallelLeafOperator {
+
+  override def init(context: QueryContext, state: QueryState): AnyRef = {
+    val labelId = label.getOptId(context)
+    if (labelId.isEmpty) null
+    else context.transactionalContext.dataRead.nodeLabelScan(labelId.get.id)
+  }
 
   override def operate(message: Message,
                        data: Morsel,
                        context: QueryContext,
                        state: QueryState): Continuation = {
     var nodeCursor: NodeLabelIndexCursor  = null
+    var scan: ParallelScanSource[NodeLabelIndexCursor] = null
     var iterationState: Iteration = null
     val read = context.transactionalContext.dataRead
     val labelId = label.getOptId(context)
-    if (labelId.isEmpty) return EndOfLoop(iterationState)
+    if (labelId.isEmpty) {
+      data.validRows = 0
+      return EndOfLoop(message.iterationState)
+    }
 
     message match {
       case StartLeafLoop(is) =>
         nodeCursor = context.transactionalContext.cursors.allocateNodeLabelIndexCursor()
         read.nodeLabelScan(labelId.get.id,  nodeCursor)
         iterationState = is
+      case StartLeafLoopWithTask(task, is) =>
+        nodeCursor = context.transactionalContext.cursors.allocateNodeLabelIndexCursor()
+        scan = new ParallelScanSource(task.asInstanceOf[Scan[NodeLabelIndexCursor]], nodeCursor, data.validRows, state)
+        iterationState = is
+      case ContinueLoopWith(ContinueWithSource(it: ParallelScanSource[NodeLabelIndexCursor @unchecked], is, _)) =>
+        scan = it
+        nodeCursor = it.cursor
+        iterationState = is
       case ContinueLoopWith(ContinueWithSource(it, is, _)) =>
         nodeCursor = it.asInstanceOf[NodeLabelIndexCursor]
         iterationState = is
@@ -68,7 +86,7 @@ class LabelScanOperator(longsPerRow: Int, refsPerRow: Int, offset: Int, label: L
     var processedRows = 0
     var hasMore = true
     while (processedRows < data.validRows && hasMore) {
-      hasMore = nodeCursor.next()
+      hasMore = if (scan == null) nodeCursor.next() else scan.next()
       if (hasMore) {
         longs(processedRows * longsPerRow + offset) = nodeCursor.nodeReference()
         processedRows += 1
@@ -77,8 +95,8 @@ class LabelScanOperator(longsPerRow: Int, refsPerRow: Int, offset: Int, label: L
 
     data.validRows = processedRows
 
-    if (hasMore)
-      ContinueWithSource(nodeCursor, iterationState, needsSameThread = false)
+    if (hasMore && !state.inputExhausted)
+      ContinueWithSource(if (scan == null) nodeCursor else scan, iterationState, needsSameThread = false)
     else {
       if (nodeCursor != null) {
         nodeCursor.close()
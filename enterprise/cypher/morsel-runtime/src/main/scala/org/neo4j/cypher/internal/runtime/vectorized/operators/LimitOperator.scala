@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) as found
+ * in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ */
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.vectorized.operators
+
+import java.util.concurrent.atomic.AtomicLong
+
+import org.neo4j.cypher.internal.runtime.QueryContext
+import org.neo4j.cypher.internal.runtime.interpreted.ExecutionContext
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.{Expression, NumericHelper}
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.{QueryState => OldQueryState}
+import org.neo4j.cypher.internal.runtime.vectorized._
+
+/*
+Cuts morsels short once the limit has been reached. The rows left to produce are shared by all workers of a query, and
+each morsel claims as many of them as it has rows, so that no more than the limit is produced in total. Once all of them
+have been claimed, the query state is marked as exhausted so that leaf loops stop scanning.
+ */
+class LimitOperator(countExpression: Expression) extends MiddleOperator with NumericHelper {
+
+  override def operate(iterationState: Iteration, data: Morsel, context: QueryContext, state: QueryState): Unit = {
+    val remaining = state.operatorStates.getOrCreate(this, () => {
+      val queryState = new OldQueryState(context, resources = null, params = state.params)
+      new AtomicLong(asPrimitiveLong(countExpression(ExecutionContext.empty, queryState)))
+    })
+
+    var left = 0L
+    var claimed = 0L
+    var done = false
+    while (!done) {
+      left = remaining.get()
+      claimed = Math.max(0L, Math.min(left, data.validRows.toLong))
+      done = claimed == 0 || remaining.compareAndSet(left, left - claimed)
+    }
+
+    // Nothing is left for later morsels, so the leaves feeding them can stop
+    if (claimed >= left)
+      state.inputExhausted = true
+    data.validRows = claimed.toInt
+  }
+}
@@ -92,7 +92,7 @@ class NodeIndexSeekOperator(longsPerRow: Int, refsPerRow: Int, offset: Int,
 
     data.validRows = processedRows
 
-    if (hasMore)
+    if (hasMore && !state.inputExhausted)
       ContinueWithSource(nodeCursor, iterationState, needsSameThread = false)
     else {
       if (nodeCursor != null) {
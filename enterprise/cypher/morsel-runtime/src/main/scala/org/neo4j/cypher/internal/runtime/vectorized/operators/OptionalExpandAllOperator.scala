@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) as found
+ * in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ */
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.vectorized.operators
+
+import org.neo4j.cypher.internal.compatibility.v3_4.runtime.SlotConfiguration
+import org.neo4j.cypher.internal.runtime.QueryContext
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Predicate
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.{LazyTypes, QueryState => OldQueryState}
+import org.neo4j.cypher.internal.runtime.slotted.helpers.NullChecker.entityIsNull
+import org.neo4j.cypher.internal.runtime.vectorized._
+import org.neo4j.cypher.internal.util.v3_4.InternalException
+import org.neo4j.cypher.internal.v3_4.expressions.SemanticDirection
+import org.neo4j.internal.kernel.api.helpers.RelationshipSelectionCursor
+
+/*
+Like ExpandAllOperator, but only keeps expanded rows matching the predicate, and produces a row with the relationship and
+the other node set to null for input rows without any matching relationship.
+ */
+class OptionalExpandAllOperator(toSlots: SlotConfiguration,
+                                fromSlots: SlotConfiguration,
+                                fromOffset: Int,
+                                relOffset: Int,
+                                toOffset: Int,
+                                dir: SemanticDirection,
+                                types: LazyTypes,
+                                predicate: Option[Predicate]) extends Operator {
+
+  override def operate(source: Message,
+                       output: Morsel,
+                       context: QueryContext,
+                       state: QueryState): Continuation = {
+
+    // Same resumable loop as ExpandAllOperator, see there
+    var readPos = 0
+    var writePos = 0
+    var relationships: RelationshipSelectionCursor = null
+    var input: Morsel = null
+    var iterationState: Iteration = null
+
+    source match {
+      case StartLoopWithSingleMorsel(data, is) =>
+        input = data
+        iterationState = is
+      case ContinueLoopWith(ContinueWithData(data, index, is)) =>
+        input = data
+        readPos = index
+        iterationState = is
+      case ContinueLoopWith(ContinueWithDataAndSource(data, index, rels, is)) =>
+        input = data
+        readPos = index
+        iterationState = is
+        relationships = rels.asInstanceOf[RelationshipSelectionCursor]
+      case _ =>
+        throw new InternalException("Unknown continuation received")
+    }
+
+    val inputLongCount = fromSlots.numberOfLongs
+    val inputRefCount = fromSlots.numberOfReferences
+    val outputLongCount = toSlots.numberOfLongs
+    val outputRefCount = toSlots.numberOfReferences
+    val outputRow = new MorselExecutionContext(output, outputLongCount, outputRefCount, currentRow = 0)
+    val queryState = new OldQueryState(context, resources = null, params = state.params)
+
+    def writeRow(relId: Long, otherSide: Long): Unit = {
+      System.arraycopy(input.longs, readPos * inputLongCount, output.longs, writePos * outputLongCount, inputLongCount)
+      System.arraycopy(input.refs, readPos * inputRefCount, output.refs, writePos * outputRefCount, inputRefCount)
+      output.longs(writePos * outputLongCount + relOffset) = relId
+      output.longs(writePos * outputLongCount + toOffset) = otherSide
+    }
+
+    // A loop resumed with relationships stopped after producing a matching row for the current input row
+    var matched = relationships != null
+
+    while (readPos < input.validRows && writePos < output.validRows) {
+
+      val fromNode = input.longs(readPos * inputLongCount + fromOffset)
+      if (entityIsNull(fromNode)) {
+        writeRow(-1, -1)
+        writePos += 1
+        readPos += 1
+      }
+      else {
+        if (relationships == null) {
+          relationships = context.getRelationshipsCursor(fromNode, dir, types.types(context))
+          matched = false
+        }
+
+        while (writePos < output.validRows && relationships.next()) {
+          writeRow(relationships.relationshipReference(), relationships.otherNodeReference())
+          outputRow.currentRow = writePos
+          if (predicate.forall(_.isTrue(outputRow, queryState))) {
+            matched = true
+            writePos += 1
+          }
+        }
+
+        //we haven't filled up the rows, so all relationships of this input row have been seen
+        if (writePos < output.validRows) {
+          relationships.close()
+          relationships = null
+          if (!matched) {
+            writeRow(-1, -1)
+            writePos += 1
+          }
+          readPos += 1
+        }
+      }
+    }
+
+    val next = if (readPos < input.validRows || relationships != null) {
+      if(relationships == null)
+        ContinueWithData(input, readPos, iterationState)
+      else
+        ContinueWithDataAndSource(input, readPos, relationships, iterationState)
+    } else {
+      EndOfLoop(iterationState)
+    }
+
+    output.validRows = writePos
+    next
+  }
+
+  override def addDependency(pipeline: Pipeline): Dependency = Lazy(pipeline)
+}
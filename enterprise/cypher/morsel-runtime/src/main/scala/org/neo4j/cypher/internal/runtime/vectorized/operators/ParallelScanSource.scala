@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) as found
+ * in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ */
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.vectorized.operators
+
+import org.neo4j.cypher.internal.runtime.vectorized.QueryState
+import org.neo4j.internal.kernel.api.{Cursor, Scan}
+
+/*
+Source of a leaf loop started with a shared scan as its task. The cursor iterates over the batch of the scan this loop
+claimed last, and when it is exhausted the next unclaimed batch is reserved, until the whole scan has been claimed by
+the loops of all workers, or until a limit of the query has seen all the rows it needs.
+ */
+class ParallelScanSource[C <: Cursor](scan: Scan[C], val cursor: C, batchSize: Int, state: QueryState) {
+  private var reserved = false
+
+  def next(): Boolean = {
+    while (!reserved || !cursor.next()) {
+      if (state.inputExhausted || !scan.reserveBatch(cursor, batchSize))
+        return false
+      reserved = true
+    }
+    true
+  }
+}
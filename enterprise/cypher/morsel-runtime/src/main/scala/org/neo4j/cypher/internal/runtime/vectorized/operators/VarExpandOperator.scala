@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) as found
+ * in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ */
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.vectorized.operators
+
+import org.neo4j.cypher.internal.compatibility.v3_4.runtime.SlotConfiguration
+import org.neo4j.cypher.internal.runtime.QueryContext
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Predicate
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.{LazyTypes, QueryState => OldQueryState}
+import org.neo4j.cypher.internal.runtime.slotted.helpers.NullChecker.entityIsNull
+import org.neo4j.cypher.internal.runtime.vectorized._
+import org.neo4j.cypher.internal.util.v3_4.InternalException
+import org.neo4j.cypher.internal.v3_4.expressions.SemanticDirection
+import org.neo4j.internal.kernel.api.helpers.RelationshipSelectionCursor
+import org.neo4j.values.storable.Values
+import org.neo4j.values.virtual.{RelationshipValue, VirtualValues}
+
+import scala.collection.mutable
+
+/*
+Expands every input row into all paths of between min and max relationships, like VarLengthExpandSlottedPipe. The paths
+of an input row are found depth first, and the stack of partial paths is the source of the continuation when the output
+morsel fills up before the row is done. The node and relationship predicates are evaluated on the input row, with the
+node or relationship to test in its temporary slots, which are not copied to the output.
+ */
+class VarExpandOperator(toSlots: SlotConfiguration,
+                        fromSlots: SlotConfiguration,
+                        fromOffset: Int,
+                        relOffset: Int,
+                        toOffset: Int,
+                        dir: SemanticDirection,
+                        projectedDir: SemanticDirection,
+                        types: LazyTypes,
+                        min: Int,
+                        maxDepth: Option[Int],
+                        tempNodeOffset: Int,
+                        tempEdgeOffset: Int,
+                        nodePredicate: Predicate,
+                        edgePredicate: Predicate,
+                        argumentSize: SlotConfiguration.Size) extends Operator {
+
+  private val needsFlipping =
+    if (dir == SemanticDirection.BOTH) projectedDir == SemanticDirection.INCOMING else dir != projectedDir
+
+  override def operate(source: Message,
+                       output: Morsel,
+                       context: QueryContext,
+                       state: QueryState): Continuation = {
+
+    // Same resumable loop as ExpandAllOperator, see there
+    var readPos = 0
+    var writePos = 0
+    var paths: mutable.Stack[(Long, Seq[RelationshipValue])] = null
+    var input: Morsel = null
+    var iterationState: Iteration = null
+
+    source match {
+      case StartLoopWithSingleMorsel(data, is) =>
+        input = data
+        iterationState = is
+      case ContinueLoopWith(ContinueWithData(data, index, is)) =>
+        input = data
+        readPos = index
+        iterationState = is
+      case ContinueLoopWith(ContinueWithDataAndSource(data, index, stack, is)) =>
+        input = data
+        readPos = index
+        iterationState = is
+        paths = stack.asInstanceOf[mutable.Stack[(Long, Seq[RelationshipValue])]]
+      case _ =>
+        throw new InternalException("Unknown continuation received")
+    }
+
+    val inputLongCount = fromSlots.numberOfLongs
+    val inputRefCount = fromSlots.numberOfReferences
+    val outputLongCount = toSlots.numberOfLongs
+    val outputRefCount = toSlots.numberOfReferences
+    val inputRow = new MorselExecutionContext(input, inputLongCount, inputRefCount, currentRow = 0)
+    val queryState = new OldQueryState(context, resources = null, params = state.params)
+
+    def writeRow(toNode: Long, rels: Seq[RelationshipValue]): Unit = {
+      System.arraycopy(input.longs, readPos * inputLongCount, output.longs, writePos * outputLongCount, argumentSize.nLongs)
+      System.arraycopy(input.refs, readPos * inputRefCount, output.refs, writePos * outputRefCount, argumentSize.nReferences)
+      output.longs(writePos * outputLongCount + toOffset) = toNode
+      output.refs(writePos * outputRefCount + relOffset) =
+        if (rels == null) Values.NO_VALUE
+        else VirtualValues.list((if (needsFlipping) rels.reverse else rels): _*)
+      writePos += 1
+    }
+
+    def expand(fromNode: Long, rels: Seq[RelationshipValue]): Unit = {
+      val relationships: RelationshipSelectionCursor = context.getRelationshipsCursor(fromNode, dir, types.types(context))
+      try {
+        while (relationships.next()) {
+          val relationship = context.getRelationshipFor(relationships.relationshipReference(), relationships.`type`(),
+                                                        relationships.sourceNodeReference(),
+                                                        relationships.targetNodeReference())
+          if (!rels.contains(relationship)) {
+            val otherNode = relationships.otherNodeReference()
+            inputRow.setLongAt(tempEdgeOffset, relationship.id())
+            inputRow.setLongAt(tempNodeOffset, otherNode)
+            if (edgePredicate.isTrue(inputRow, queryState) && nodePredicate.isTrue(inputRow, queryState))
+              paths.push((otherNode, rels :+ relationship))
+          }
+        }
+      } finally {
+        relationships.close()
+      }
+    }
+
+    while (readPos < input.validRows && writePos < output.validRows) {
+      inputRow.currentRow = readPos
+      val fromNode = input.longs(readPos * inputLongCount + fromOffset)
+
+      if (paths == null) {
+        paths = new mutable.Stack[(Long, Seq[RelationshipValue])]
+        if (entityIsNull(fromNode))
+          writeRow(-1L, null)
+        else {
+          // The start node has to pass the node predicate as well
+          inputRow.setLongAt(tempNodeOffset, fromNode)
+          if (nodePredicate.isTrue(inputRow, queryState))
+            paths.push((fromNode, Seq.empty))
+        }
+      }
+
+      while (writePos < output.validRows && paths.nonEmpty) {
+        val (node, rels) = paths.pop()
+        if (rels.length < maxDepth.getOrElse(Int.MaxValue))
+          expand(node, rels)
+        if (rels.length >= min)
+          writeRow(node, rels)
+      }
+
+      //we haven't filled up the rows, so all paths of this input row have been produced
+      if (paths.isEmpty) {
+        paths = null
+        readPos += 1
+      }
+    }
+
+    val next = if (readPos < input.validRows || paths != null) {
+      if (paths == null)
+        ContinueWithData(input, readPos, iterationState)
+      else
+        ContinueWithDataAndSource(input, readPos, paths, iterationState)
+    } else {
+      EndOfLoop(iterationState)
+    }
+
+    output.validRows = writePos
+    next
+  }
+
+  override def addDependency(pipeline: Pipeline): Dependency = Lazy(pipeline)
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) as found
+ * in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ */
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.vectorized
+
+import org.neo4j.cypher.internal.compatibility.v3_4.runtime.SlotConfiguration
+import org.neo4j.cypher.internal.util.v3_4.symbols.CTNode
+import org.neo4j.cypher.internal.util.v3_4.test_helpers.CypherFunSuite
+import org.neo4j.values.storable.Values
+
+class MorselPoolTest extends CypherFunSuite {
+
+  private val slots = SlotConfiguration.empty.newLong("n", nullable = false, CTNode).newReference("x", nullable = true, CTNode)
+  private val otherSlots = SlotConfiguration.empty.newLong("n", nullable = false, CTNode)
+
+  test("reuses released morsels") {
+    // Given
+    val pool = new MorselPool(4, 2)
+    val morsel = pool.acquire(slots)
+    morsel.refs(0) = Values.intValue(42)
+    morsel.validRows = 1
+
+    // When
+    pool.release(morsel)
+    val reused = pool.acquire(slots)
+
+    // Then
+    reused should be theSameInstanceAs morsel
+    reused.validRows should equal(4)
+    reused.refs(0) should be(null)
+  }
+
+  test("keeps at most the configured number of morsels of each size") {
+    // Given
+    val pool = new MorselPool(4, 1)
+    val first = pool.acquire(slots)
+    val second = pool.acquire(slots)
+
+    // When
+    pool.release(first)
+    pool.release(second)
+
+    // Then
+    pool.acquire(slots) should be theSameInstanceAs first
+    pool.acquire(slots) should not be theSameInstanceAs(second)
+  }
+
+  test("does not keep morsels when pooling is disabled") {
+    // Given
+    val pool = new MorselPool(4, 0)
+    val morsel = pool.acquire(slots)
+
+    // When
+    pool.release(morsel)
+
+    // Then
+    pool.acquire(slots) should not be theSameInstanceAs(morsel)
+  }
+
+  test("does not hand out morsels of another size") {
+    // Given
+    val pool = new MorselPool(4, 2)
+    val morsel = pool.acquire(slots)
+
+    // When
+    pool.release(morsel)
+    val other = pool.acquire(otherSlots)
+
+    // Then
+    other should not be theSameInstanceAs(morsel)
+    other.longs.length should equal(4)
+    other.refs.length should equal(0)
+  }
+
+  test("does not share morsels between threads") {
+    // Given
+    val pool = new MorselPool(4, 2)
+    val morsel = pool.acquire(slots)
+
+    // When
+    val thread = new Thread(new Runnable {
+      override def run(): Unit = pool.release(morsel)
+    })
+    thread.start()
+    thread.join()
+
+    // Then
+    pool.acquire(slots) should not be theSameInstanceAs(morsel)
+  }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) as found
+ * in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ */
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.vectorized.dispatcher
+
+import java.util.concurrent.TimeUnit.{MILLISECONDS, SECONDS}
+import java.util.concurrent._
+import java.util.concurrent.atomic.AtomicInteger
+
+import org.neo4j.cypher.internal.compatibility.v3_4.runtime.SlotConfiguration
+import org.neo4j.cypher.internal.runtime.vectorized._
+import org.neo4j.cypher.internal.runtime.{MorselDispatcherMonitor, QueryContext}
+import org.neo4j.cypher.internal.util.v3_4.TaskCloser
+import org.neo4j.cypher.internal.util.v3_4.test_helpers.CypherFunSuite
+import org.neo4j.cypher.result.QueryResult.QueryResultVisitor
+import org.neo4j.values.virtual.VirtualValues
+
+import scala.collection.JavaConverters._
+
+class ParallelDispatcherTest extends CypherFunSuite {
+
+  private var callers: ExecutorService = _
+
+  override protected def beforeEach(): Unit = {
+    super.beforeEach()
+    callers = Executors.newCachedThreadPool()
+  }
+
+  override protected def afterEach(): Unit = {
+    callers.shutdownNow()
+    super.afterEach()
+  }
+
+  test("queries beyond the admission limit wait for a running query to finish") {
+    // Given
+    val workers = Executors.newCachedThreadPool()
+    try {
+      val dispatcher = new ParallelDispatcher(2, workers, 1, new MorselPool(4, 0), mock[MorselDispatcherMonitor])
+      val firstStarted = new CountDownLatch(1)
+      val finishFirst = new CountDownLatch(1)
+      val secondStarted = new CountDownLatch(1)
+      val first = executeAsync(dispatcher, leafPipeline(1, () => {
+        firstStarted.countDown()
+        finishFirst.await()
+      }))
+      firstStarted.await()
+
+      // When
+      val second = executeAsync(dispatcher, leafPipeline(1, () => secondStarted.countDown()))
+
+      // Then
+      secondStarted.await(100, MILLISECONDS) should be(false)
+      finishFirst.countDown()
+      first.get(10, SECONDS)
+      second.get(10, SECONDS)
+      secondStarted.getCount should equal(0)
+    } finally {
+      workers.shutdown()
+    }
+  }
+
+  test("tasks of concurrent queries take turns on the workers") {
+    // Given a single worker, whose tasks are run by the test in the order they were handed to the executor
+    val submitted = new LinkedBlockingQueue[Runnable]()
+    val executor = new Executor {
+      override def execute(command: Runnable): Unit = submitted.add(command)
+    }
+    val dispatcher = new ParallelDispatcher(1, executor, 0, new MorselPool(4, 0), mock[MorselDispatcherMonitor])
+    val ran = new ConcurrentLinkedQueue[String]()
+
+    // When
+    val first = executeAsync(dispatcher, leafPipeline(3, () => ran.add("first")))
+    awaitSubmitted(submitted, 1)
+    val second = executeAsync(dispatcher, leafPipeline(3, () => ran.add("second")))
+    awaitSubmitted(submitted, 2)
+    val deadline = System.currentTimeMillis() + SECONDS.toMillis(10)
+    while (!(first.isDone && second.isDone) && System.currentTimeMillis() < deadline) {
+      val task = submitted.poll(10, MILLISECONDS)
+      if (task != null) task.run()
+    }
+
+    // Then
+    first.get(0, SECONDS)
+    second.get(0, SECONDS)
+    ran.asScala.toList should equal(List("first", "second", "first", "second", "first", "second"))
+  }
+
+  private def awaitSubmitted(submitted: BlockingQueue[Runnable], count: Int): Unit = {
+    val deadline = System.currentTimeMillis() + SECONDS.toMillis(10)
+    while (submitted.size() < count && System.currentTimeMillis() < deadline) {
+      Thread.sleep(1)
+    }
+    submitted.size() should equal(count)
+  }
+
+  private def executeAsync(dispatcher: Dispatcher, pipeline: Pipeline): Future[_] =
+    callers.submit(new Runnable {
+      override def run(): Unit =
+        dispatcher.execute[Exception](pipeline, mock[QueryContext], VirtualValues.EMPTY_MAP, new TaskCloser)(
+          null.asInstanceOf[QueryResultVisitor[Exception]])
+    })
+
+  // A leaf that calls the given function, producing no rows, for each of the given number of times it is operated on
+  private def leafPipeline(times: Int, f: () => Unit): Pipeline = {
+    val leaf = new Operator {
+      private val left = new AtomicInteger(times)
+
+      override def operate(message: Message, data: Morsel, context: QueryContext, state: QueryState): Continuation = {
+        f()
+        data.validRows = 0
+        if (left.decrementAndGet() > 0) ContinueWithSource(this, message.iterationState, needsSameThread = false)
+        else EndOfLoop(message.iterationState)
+      }
+
+      override def addDependency(pipeline: Pipeline): Dependency = NoDependencies
+    }
+    Pipeline(leaf, IndexedSeq.empty, SlotConfiguration.empty, NoDependencies)()
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) as found
+ * in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ */
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.vectorized.operators
+
+import org.neo4j.cypher.internal.compatibility.v3_4.runtime.{RefSlot, SlotConfiguration}
+import org.neo4j.cypher.internal.runtime.slotted.expressions.ReferenceFromSlot
+import org.neo4j.cypher.internal.runtime.vectorized._
+import org.neo4j.cypher.internal.util.v3_4.symbols.CTAny
+import org.neo4j.cypher.internal.util.v3_4.test_helpers.CypherFunSuite
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.Values.stringValue
+import org.neo4j.values.virtual.VirtualValues
+
+import scala.collection.mutable
+
+class DistinctOperatorTest extends CypherFunSuite {
+
+  test("distinct across morsels of the same query") {
+    // Given
+    val fromSlots = new SlotConfiguration(mutable.Map("x" -> RefSlot(0, nullable = false, CTAny),
+                                                      "y" -> RefSlot(1, nullable = false, CTAny)), 0, 2)
+    val toSlot = RefSlot(0, nullable = false, CTAny)
+    val toSlots = new SlotConfiguration(mutable.Map("x" -> toSlot), 0, 1)
+    val distinct = new DistinctOperator(fromSlots, toSlots, Array(toSlot -> ReferenceFromSlot(0)))
+    val state = QueryState(VirtualValues.EMPTY_MAP, null)
+    val iteration = new Iteration(None)
+
+    val in1 = new Morsel(Array.empty, Array[AnyValue](stringValue("A"), stringValue("1"),
+                                                      stringValue("B"), stringValue("2"),
+                                                      stringValue("A"), stringValue("3")), 3)
+    val in2 = new Morsel(Array.empty, Array[AnyValue](stringValue("C"), stringValue("4"),
+                                                      stringValue("B"), stringValue("5")), 2)
+    val out1 = new Morsel(Array.empty, new Array[AnyValue](3), 3)
+    val out2 = new Morsel(Array.empty, new Array[AnyValue](2), 2)
+
+    // When
+    distinct.operate(StartLoopWithSingleMorsel(in1, iteration), out1, null, state) should equal(EndOfLoop(iteration))
+    distinct.operate(StartLoopWithSingleMorsel(in2, iteration), out2, null, state) should equal(EndOfLoop(iteration))
+
+    // Then
+    out1.validRows should equal(2)
+    out1.refs.take(2) should equal(Array(stringValue("A"), stringValue("B")))
+    out2.validRows should equal(1)
+    out2.refs.head should equal(stringValue("C"))
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) as found
+ * in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ */
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.vectorized.operators
+
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Literal
+import org.neo4j.cypher.internal.runtime.vectorized.{Iteration, Morsel, QueryState}
+import org.neo4j.cypher.internal.util.v3_4.test_helpers.CypherFunSuite
+import org.neo4j.values.AnyValue
+import org.neo4j.values.virtual.VirtualValues
+
+class LimitOperatorTest extends CypherFunSuite {
+
+  test("limit across morsels of the same query") {
+    // Given
+    val limit = new LimitOperator(Literal(5))
+    val state = QueryState(VirtualValues.EMPTY_MAP, null)
+    val morsels = (0 until 3).map(_ => new Morsel(Array[Long](0, 1, 2, 3), new Array[AnyValue](0), 4))
+
+    // When
+    morsels.foreach(limit.operate(new Iteration(None), _, null, state))
+
+    // Then
+    morsels.map(_.validRows) should equal(Seq(4, 1, 0))
+  }
+
+  test("limit is counted per query") {
+    // Given
+    val limit = new LimitOperator(Literal(3))
+    val first = new Morsel(Array[Long](0, 1, 2, 3), new Array[AnyValue](0), 4)
+    val second = new Morsel(Array[Long](0, 1, 2, 3), new Array[AnyValue](0), 4)
+
+    // When
+    limit.operate(new Iteration(None), first, null, QueryState(VirtualValues.EMPTY_MAP, null))
+    limit.operate(new Iteration(None), second, null, QueryState(VirtualValues.EMPTY_MAP, null))
+
+    // Then
+    first.validRows should equal(3)
+    second.validRows should equal(3)
+  }
+
+  test("limit marks the query as exhausted once all rows have been claimed") {
+    // Given
+    val limit = new LimitOperator(Literal(5))
+    val state = QueryState(VirtualValues.EMPTY_MAP, null)
+
+    // When
+    limit.operate(new Iteration(None), new Morsel(Array[Long](0, 1, 2, 3), new Array[AnyValue](0), 4), null, state)
+
+    // Then
+    state.inputExhausted should equal(false)
+
+    // When
+    limit.operate(new Iteration(None), new Morsel(Array[Long](0, 1, 2, 3), new Array[AnyValue](0), 4), null, state)
+
+    // Then
+    state.inputExhausted should equal(true)
+  }
+}
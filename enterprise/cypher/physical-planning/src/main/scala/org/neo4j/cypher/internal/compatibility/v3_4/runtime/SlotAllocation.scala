@@ -281,6 +281,13 @@ object SlotAllocation {
         result.newLong(leaf.endNode, nullable, CTNode)
         result
 
+      case leaf: DirectedRelationshipTypeScan =>
+        val result = argument
+        result.newLong(leaf.idName, nullable, CTRelationship)
+        result.newLong(leaf.startNode, nullable, CTNode)
+        result.newLong(leaf.endNode, nullable, CTNode)
+        result
+
       case leaf: UndirectedRelationshipByIdSeek =>
         val result = argument
         result.newLong(leaf.idName, nullable, CTRelationship)
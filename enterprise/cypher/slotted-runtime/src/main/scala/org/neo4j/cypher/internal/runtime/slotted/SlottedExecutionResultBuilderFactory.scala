@@ -38,6 +38,7 @@ import org.neo4j.cypher.internal.compatibility.v3_4.runtime.PhysicalPlanningAttr
 import org.neo4j.cypher.internal.compatibility.v3_4.runtime.{ClosingQueryResultRecordIterator, ResultIterator}
 import org.neo4j.cypher.internal.compatibility.v3_4.runtime.executionplan.{BaseExecutionResultBuilderFactory, ExecutionResultBuilder, PipeInfo}
 import org.neo4j.cypher.internal.runtime.interpreted.ExecutionContext
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.QueryOperatorMemory
 import org.neo4j.cypher.internal.v3_4.logical.plans.LogicalPlan
 import org.neo4j.values.virtual.MapValue
 
@@ -46,7 +47,8 @@ import scala.collection.mutable
 class SlottedExecutionResultBuilderFactory(pipeInfo: PipeInfo,
                                            columns: List[String],
                                            logicalPlan: LogicalPlan,
-                                           pipelines: SlotConfigurations)
+                                           pipelines: SlotConfigurations,
+                                           operatorMemoryBudget: Long)
   extends BaseExecutionResultBuilderFactory(pipeInfo, columns, logicalPlan) {
 
   override def create(): ExecutionResultBuilder =
@@ -55,7 +57,8 @@ class SlottedExecutionResultBuilderFactory(pipeInfo: PipeInfo,
   class SlottedExecutionWorkflowBuilder() extends BaseExecutionWorkflowBuilder {
     override protected def createQueryState(params: MapValue) = {
       new SlottedQueryState(queryContext, externalResource, params, pipeDecorator,
-        triadicState = mutable.Map.empty, repeatableReads = mutable.Map.empty)
+        triadicState = mutable.Map.empty, repeatableReads = mutable.Map.empty, operatorMemory = new QueryOperatorMemory(operatorMemoryBudget),
+        memoryTracker = queryContext.memoryTracker)
     }
 
     override def buildResultIterator(results: Iterator[ExecutionContext], isUpdating: Boolean): ResultIterator = {
@@ -83,18 +83,18 @@ class SlottedPipeBuilder(fallback: PipeBuilder,
       case AllNodesScan(column, _) =>
         AllNodesScanSlottedPipe(column, slots, argumentSize)(id)
 
-      case NodeIndexScan(column, label, propertyKeys, _) =>
-        NodeIndexScanSlottedPipe(column, label, propertyKeys, slots, argumentSize)(id)
+      case NodeIndexScan(column, label, propertyKeys, _, indexOrder) =>
+        NodeIndexScanSlottedPipe(column, label, propertyKeys, slots, argumentSize, indexOrder)(id)
 
-      case NodeIndexSeek(column, label, propertyKeys, valueExpr, _) =>
+      case NodeIndexSeek(column, label, propertyKeys, valueExpr, _, indexOrder) =>
         val indexSeekMode = IndexSeekModeFactory(unique = false, readOnly = readOnly).fromQueryExpression(valueExpr)
         NodeIndexSeekSlottedPipe(column, label, propertyKeys,
-                                  valueExpr.map(convertExpressions), indexSeekMode, slots, argumentSize)(id)
+                                  valueExpr.map(convertExpressions), indexSeekMode, slots, argumentSize, indexOrder)(id)
 
-      case NodeUniqueIndexSeek(column, label, propertyKeys, valueExpr, _) =>
+      case NodeUniqueIndexSeek(column, label, propertyKeys, valueExpr, _, indexOrder) =>
         val indexSeekMode = IndexSeekModeFactory(unique = true, readOnly = readOnly).fromQueryExpression(valueExpr)
         NodeIndexSeekSlottedPipe(column, label, propertyKeys,
-                                  valueExpr.map(convertExpressions), indexSeekMode, slots, argumentSize)(id = id)
+                                  valueExpr.map(convertExpressions), indexSeekMode, slots, argumentSize, indexOrder)(id = id)
 
       case NodeByLabelScan(column, label, _) =>
         NodesByLabelScanSlottedPipe(column, LazyLabel(label), slots, argumentSize)(id)
@@ -39,7 +39,9 @@ import org.neo4j.cypher.internal.compatibility.v3_4.runtime.SlotConfiguration
 import org.neo4j.cypher.internal.runtime.QueryContext
 import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.{InCheckContainer, SingleThreadedLRUCache}
 import org.neo4j.cypher.internal.runtime.interpreted.pipes._
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.QueryOperatorMemory
 import org.neo4j.cypher.internal.runtime.interpreted.{ExecutionContext, MutableMaps}
+import org.neo4j.kernel.api.query.QueryMemoryTracker
 import org.neo4j.values.AnyValue
 import org.neo4j.values.virtual.MapValue
 
@@ -54,21 +56,26 @@ class SlottedQueryState(query: QueryContext,
                         triadicState: mutable.Map[String, PrimitiveLongSet] = mutable.Map.empty,
                         repeatableReads: mutable.Map[Pipe, Seq[ExecutionContext]] = mutable.Map.empty,
                         cachedIn: SingleThreadedLRUCache[Any, InCheckContainer] =
-                        new SingleThreadedLRUCache(maxSize = 16))
+                        new SingleThreadedLRUCache(maxSize = 16),
+                        operatorMemory: QueryOperatorMemory = QueryOperatorMemory.NONE,
+                        memoryTracker: QueryMemoryTracker = QueryMemoryTracker.NONE)
   extends QueryState(query, resources, params, decorator, timeReader, initialContext, triadicState,
-    repeatableReads, cachedIn) {
+    repeatableReads, cachedIn, operatorMemory = operatorMemory, memoryTracker = memoryTracker) {
 
   override def createOrGetInitialContext(factory: ExecutionContextFactory): ExecutionContext =
     initialContext.getOrElse(factory.newExecutionContext())
 
   override def withDecorator(decorator: PipeDecorator) =
-    new SlottedQueryState(query, resources, params, decorator, timeReader, initialContext, triadicState, repeatableReads, cachedIn)
+    new SlottedQueryState(query, resources, params, decorator, timeReader, initialContext, triadicState, repeatableReads, cachedIn,
+      operatorMemory, memoryTracker)
 
   override def withInitialContext(initialContext: ExecutionContext) =
-    new SlottedQueryState(query, resources, params, decorator, timeReader, Some(initialContext), triadicState, repeatableReads, cachedIn)
+    new SlottedQueryState(query, resources, params, decorator, timeReader, Some(initialContext), triadicState, repeatableReads, cachedIn,
+      operatorMemory, memoryTracker)
 
   override def withQueryContext(query: QueryContext) =
-    new SlottedQueryState(query, resources, params, decorator, timeReader, initialContext, triadicState, repeatableReads, cachedIn)
+    new SlottedQueryState(query, resources, params, decorator, timeReader, initialContext, triadicState, repeatableReads, cachedIn,
+      operatorMemory, memoryTracker)
 }
 
 case class SlottedExecutionContextFactory(slots: SlotConfiguration) extends ExecutionContextFactory {
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) as found
+ * in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ */
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.slotted
+
+import java.io.{DataInputStream, DataOutputStream}
+
+import org.neo4j.cypher.internal.compatibility.v3_4.runtime.SlotConfiguration
+import org.neo4j.cypher.internal.runtime.interpreted.ExecutionContext
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.{RowSerializer, ValueSerializer}
+
+/**
+  * Serializes slotted rows as their long slots followed by their reference slots. All rows written by one serializer come
+  * from the same pipe, so rows are read back with the slot configuration of the rows that were written.
+  */
+class SlottedRowSerializer(values: ValueSerializer) extends RowSerializer {
+
+  private var slots: SlotConfiguration = _
+
+  override def write(row: ExecutionContext, out: DataOutputStream): Unit = {
+    if (slots == null) {
+      slots = row.asInstanceOf[SlottedExecutionContext].slots
+    }
+    val longs = row.longs()
+    val refs = row.refs()
+    for (i <- longs.indices) {
+      out.writeLong(longs(i))
+    }
+    for (i <- refs.indices) {
+      values.write(refs(i), out)
+    }
+  }
+
+  override def read(in: DataInputStream): ExecutionContext = {
+    val row = SlottedExecutionContext(slots)
+    for (i <- 0 until slots.numberOfLongs) {
+      row.setLongAt(i, in.readLong())
+    }
+    for (i <- 0 until slots.numberOfReferences) {
+      row.setRefAt(i, values.read(in))
+    }
+    row
+  }
+}
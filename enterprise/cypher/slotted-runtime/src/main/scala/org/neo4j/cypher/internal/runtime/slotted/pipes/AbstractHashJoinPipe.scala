@@ -36,8 +36,9 @@ package org.neo4j.cypher.internal.runtime.slotted.pipes
 
 import org.neo4j.cypher.internal.compatibility.v3_4.runtime.SlotConfiguration
 import org.neo4j.cypher.internal.runtime.interpreted.ExecutionContext
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.{OperatorMemoryBudget, SpillPartitions, ValueSerializer}
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.{Pipe, PipeWithSource, QueryState}
-import org.neo4j.cypher.internal.runtime.slotted.SlottedExecutionContext
+import org.neo4j.cypher.internal.runtime.slotted.{SlottedExecutionContext, SlottedRowSerializer}
 
 import scala.collection.mutable
 
@@ -57,13 +58,72 @@ abstract class AbstractHashJoinPipe[Key, T](left: Pipe,
     if (rhsIterator.isEmpty)
       return Iterator.empty
 
-    val table = buildProbeTable(input, state)
+    val lhsSerializer = new SlottedRowSerializer(new ValueSerializer(state))
+    val rhsSerializer = new SlottedRowSerializer(new ValueSerializer(state))
+    join(input, rhsIterator, state, lhsSerializer, rhsSerializer, level = 0)
+  }
+
+  /*
+   * Grace hash join. If the probe table outgrows the operator memory budget, both sides are spilled to hash partitions
+   * and each pair of partitions with the same keys is joined on its own.
+   */
+  private def join(lhsIterator: Iterator[ExecutionContext],
+                   rhsIterator: Iterator[ExecutionContext],
+                   state: QueryState,
+                   lhsSerializer: SlottedRowSerializer,
+                   rhsSerializer: SlottedRowSerializer,
+                   level: Int): Iterator[ExecutionContext] = {
+    val budget = OperatorMemoryBudget(state)
+    val table = new mutable.HashMap[Key, mutable.MutableList[ExecutionContext]]
+    var lhsPartitions: SpillPartitions = null
+
+    for {context <- lhsIterator
+         joinKey <- computeKey(context, leftSide, state)} {
+      if (lhsPartitions != null) {
+        lhsPartitions.add(joinKey.hashCode(), context)
+      } else {
+        val matchingRows = table.getOrElseUpdate(joinKey, mutable.MutableList.empty)
+        matchingRows += context
+        budget.allocateRow(context)
+        if (budget.isExceeded && level < SpillPartitions.MAX_LEVEL) {
+          lhsPartitions = new SpillPartitions(lhsSerializer, state, level)
+          table.foreach {
+            case (key, rows) => rows.foreach(lhsPartitions.add(key.hashCode(), _))
+          }
+          table.clear()
+          budget.reset()
+        }
+      }
+    }
+
+    if (lhsPartitions != null) {
+      val rhsPartitions = new SpillPartitions(rhsSerializer, state, level)
+      for {rhs <- rhsIterator
+           joinKey <- computeKey(rhs, rightSide, state)} {
+        rhsPartitions.add(joinKey.hashCode(), rhs)
+      }
 
+      Iterator.range(0, SpillPartitions.COUNT).flatMap { partition =>
+        if (lhsPartitions.isEmpty(partition) || rhsPartitions.isEmpty(partition)) {
+          lhsPartitions.delete(partition)
+          rhsPartitions.delete(partition)
+          Iterator.empty
+        } else {
+          join(lhsPartitions.rows(partition), rhsPartitions.rows(partition), state, lhsSerializer, rhsSerializer, level + 1)
+        }
+      }
+    }
     // This will only happen if all the lhs-values evaluate to null, which is probably rare.
     // But, it's cheap to check and will save us from exhausting the rhs, so it's probably worth it
-    if (table.isEmpty)
-      return Iterator.empty
+    else if (table.isEmpty)
+      Iterator.empty
+    else
+      budget.releaseWhenExhausted(probe(table, rhsIterator, state))
+  }
 
+  private def probe(table: mutable.HashMap[Key, mutable.MutableList[ExecutionContext]],
+                    rhsIterator: Iterator[ExecutionContext],
+                    state: QueryState): Iterator[ExecutionContext] = {
     val result = for {rhs: ExecutionContext <- rhsIterator
                       joinKey <- computeKey(rhs, rightSide, state)}
       yield {
@@ -80,18 +140,6 @@ abstract class AbstractHashJoinPipe[Key, T](left: Pipe,
     result.flatten
   }
 
-  private def buildProbeTable(input: Iterator[ExecutionContext], queryState: QueryState): mutable.HashMap[Key, mutable.MutableList[ExecutionContext]] = {
-    val table = new mutable.HashMap[Key, mutable.MutableList[ExecutionContext]]
-
-    for {context <- input
-         joinKey <- computeKey(context, leftSide, queryState)} {
-      val matchingRows = table.getOrElseUpdate(joinKey, mutable.MutableList.empty)
-      matchingRows += context
-    }
-
-    table
-  }
-
   def computeKey(context: ExecutionContext, keyColumns: T, queryState: QueryState): Option[Key]
 
   def copyDataFromRhs(newRow: SlottedExecutionContext, rhs: ExecutionContext): Unit
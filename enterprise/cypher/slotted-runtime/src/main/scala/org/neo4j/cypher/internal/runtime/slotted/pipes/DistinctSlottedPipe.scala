@@ -37,8 +37,9 @@ package org.neo4j.cypher.internal.runtime.slotted.pipes
 import org.neo4j.cypher.internal.compatibility.v3_4.runtime.{Slot, SlotConfiguration}
 import org.neo4j.cypher.internal.runtime.interpreted.ExecutionContext
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expression
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.{OperatorMemoryBudget, SpillPartitions, ValueSerializer}
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.{Pipe, PipeWithSource, QueryState}
-import org.neo4j.cypher.internal.runtime.slotted.SlottedExecutionContext
+import org.neo4j.cypher.internal.runtime.slotted.{SlottedExecutionContext, SlottedRowSerializer}
 import org.neo4j.cypher.internal.runtime.slotted.helpers.SlottedPipeBuilderUtils
 import org.neo4j.cypher.internal.util.v3_4.attribution.Id
 import org.neo4j.values.AnyValue
@@ -81,17 +82,45 @@ case class DistinctSlottedPipe(source: Pipe,
       outgoing
     })
 
-    /*
-     * Filter out rows we have already seen
-     */
-    var seen = mutable.Set[AnyValue]()
-    result.filter { ctx =>
+    distinct(result, state, new SlottedRowSerializer(new ValueSerializer(state)), level = 0)
+  }
+
+  /*
+   * Filter out rows we have already seen. Once the seen values use up the operator memory budget, rows with values
+   * not seen so far are spilled to hash partitions, and each partition is made distinct on its own afterwards.
+   */
+  private def distinct(rows: Iterator[ExecutionContext],
+                       state: QueryState,
+                       serializer: SlottedRowSerializer,
+                       level: Int): Iterator[ExecutionContext] = {
+    val budget = OperatorMemoryBudget(state)
+    val seen = mutable.Set[AnyValue]()
+    var spilled: SpillPartitions = null
+
+    val inMemory = rows.filter { ctx =>
       val values = VirtualValues.list(groupingGetFromSlotFunctions.map(f => f(ctx)): _*)
       if (seen.contains(values)) {
         false
-      } else {
+      } else if (spilled == null) {
         seen += values
+        budget.allocateValue(values)
+        if (budget.isExceeded && level < SpillPartitions.MAX_LEVEL) {
+          spilled = new SpillPartitions(serializer, state, level)
+        }
         true
+      } else {
+        spilled.add(values.hashCode(), ctx)
+        false
+      }
+    }
+
+    inMemory ++ {
+      seen.clear()
+      budget.reset()
+      if (spilled == null) {
+        Iterator.empty
+      } else {
+        spilled.partitions.flatMap(partition => distinct(partition, state, serializer, level + 1))
       }
     }
   }
@@ -38,15 +38,15 @@ import org.neo4j.cypher.internal.compatibility.v3_4.runtime.{Slot, SlotConfigura
 import org.neo4j.cypher.internal.runtime.interpreted.ExecutionContext
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.{AggregationExpression, Expression}
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.aggregation.AggregationFunction
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.{SpillingAggregation, ValueSerializer}
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.{Pipe, PipeWithSource, QueryState}
-import org.neo4j.cypher.internal.runtime.slotted.SlottedExecutionContext
+import org.neo4j.cypher.internal.runtime.slotted.{SlottedExecutionContext, SlottedRowSerializer}
 import org.neo4j.cypher.internal.runtime.slotted.helpers.SlottedPipeBuilderUtils
 import org.neo4j.cypher.internal.util.v3_4.attribution.Id
 import org.neo4j.values.AnyValue
 import org.neo4j.values.virtual.{ListValue, MapValue, VirtualValues}
 
 import scala.collection.immutable
-import scala.collection.mutable.{Map => MutableMap}
 
 // Eager aggregation means that this pipe will eagerly load the whole resulting sub graphs before starting
 // to emit aggregated results.
@@ -133,8 +133,6 @@ case class EagerAggregationSlottedPipe(source: Pipe,
   protected def internalCreateResults(input: Iterator[ExecutionContext],
                                       state: QueryState): Iterator[ExecutionContext] = {
 
-    val result = MutableMap[AnyValue, Seq[AggregationFunction]]()
-
     // Used when we have no input and no grouping expressions. In this case, we'll return a single row
     def createEmptyResult(params: MapValue): Iterator[ExecutionContext] = {
       val context = SlottedExecutionContext(slots)
@@ -156,20 +154,17 @@ case class EagerAggregationSlottedPipe(source: Pipe,
       context
     }
 
-    // Consume all input and aggregate
-    input.foreach(ctx => {
-      val groupingValue: AnyValue = groupingFunction(ctx, state)
-      val functions = result.getOrElseUpdate(groupingValue, aggregationFunctions.map(_.createAggregationFunction))
-      functions.foreach(func => func(ctx, state))
-    })
+    // Consume all input and aggregate, spilling groups that do not fit in memory
+    val result = SpillingAggregation(input, state, new SlottedRowSerializer(new ValueSerializer(state)), groupingFunction,
+      () => aggregationFunctions.map(_.createAggregationFunction))
 
     // Write the produced aggregation map to the output pipeline
-    if (result.isEmpty && groupingExpressions.isEmpty) {
+    if (!result.hasNext && groupingExpressions.isEmpty) {
       createEmptyResult(state.params)
     } else {
       result.map {
         case (key, aggregator) => writeAggregationResultToContext(key, aggregator)
-      }.toIterator
+      }
     }
   }
 }
@@ -36,6 +36,7 @@ package org.neo4j.cypher.internal.runtime.slotted.pipes
 
 import org.neo4j.cypher.internal.compatibility.v3_4.runtime.SlotConfiguration
 import org.neo4j.cypher.internal.runtime.interpreted.ExecutionContext
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.OperatorMemoryBudget
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.{Pipe, PipeWithSource, QueryState}
 import org.neo4j.cypher.internal.runtime.slotted.SlottedExecutionContext
 import org.neo4j.cypher.internal.util.v3_4.attribution.Id
@@ -44,11 +45,13 @@ case class EagerSlottedPipe(source: Pipe, slots: SlotConfiguration)(val id: Id =
   extends PipeWithSource(source) {
 
   override protected def internalCreateResults(input: Iterator[ExecutionContext], state: QueryState): Iterator[ExecutionContext] = {
-    input.map { inputRow =>
+    val budget = OperatorMemoryBudget.withoutSpilling(state)
+    val buffer = budget.allocatingRows(input.map { inputRow =>
       // this is necessary because Eager is the beginning of a new pipeline
       val outputRow = SlottedExecutionContext(slots)
       inputRow.copyTo(outputRow)
       outputRow
-    }.toIndexedSeq.iterator
+    }).toIndexedSeq
+    budget.releaseWhenExhausted(buffer.iterator)
   }
 }
@@ -42,13 +42,15 @@ import org.neo4j.cypher.internal.runtime.interpreted.pipes._
 import org.neo4j.cypher.internal.runtime.slotted.SlottedExecutionContext
 import org.neo4j.cypher.internal.util.v3_4.attribution.Id
 import org.neo4j.cypher.internal.v3_4.expressions.{LabelToken, PropertyKeyToken}
+import org.neo4j.cypher.internal.v3_4.logical.plans.{IndexOrder, IndexOrderNone}
 import org.neo4j.internal.kernel.api.{CapableIndexReference, IndexReference}
 
 case class NodeIndexScanSlottedPipe(ident: String,
                                     label: LabelToken,
                                     propertyKey: PropertyKeyToken,
                                     slots: SlotConfiguration,
-                                    argumentSize: SlotConfiguration.Size)
+                                    argumentSize: SlotConfiguration.Size,
+                                    indexOrder: IndexOrder = IndexOrderNone)
                                    (val id: Id = Id.INVALID_ID)
   extends Pipe {
 
@@ -64,7 +66,7 @@ case class NodeIndexScanSlottedPipe(ident: String,
   }
 
   protected def internalCreateResults(state: QueryState): Iterator[ExecutionContext] = {
-    val nodes = state.query.indexScanPrimitive(reference(state.query))
+    val nodes = state.query.indexScanPrimitive(reference(state.query), NodeIndexSeeker.asKernelIndexOrder(indexOrder))
     PrimitiveLongHelper.map(nodes, { node =>
       val context = SlottedExecutionContext(slots)
       state.copyArgumentStateTo(context, argumentSize.nLongs, argumentSize.nReferences)
@@ -42,7 +42,7 @@ import org.neo4j.cypher.internal.runtime.interpreted.pipes._
 import org.neo4j.cypher.internal.runtime.slotted.SlottedExecutionContext
 import org.neo4j.cypher.internal.util.v3_4.attribution.Id
 import org.neo4j.cypher.internal.v3_4.expressions.{LabelToken, PropertyKeyToken}
-import org.neo4j.cypher.internal.v3_4.logical.plans.QueryExpression
+import org.neo4j.cypher.internal.v3_4.logical.plans.{IndexOrder, IndexOrderNone, QueryExpression}
 import org.neo4j.internal.kernel.api.{CapableIndexReference, IndexReference}
 
 case class NodeIndexSeekSlottedPipe(ident: String,
@@ -51,7 +51,8 @@ case class NodeIndexSeekSlottedPipe(ident: String,
                                     valueExpr: QueryExpression[Expression],
                                     indexMode: IndexSeekMode = IndexSeek,
                                     slots: SlotConfiguration,
-                                    argumentSize: SlotConfiguration.Size)
+                                    argumentSize: SlotConfiguration.Size,
+                                    indexOrder: IndexOrder = IndexOrderNone)
                                    (val id: Id = Id.INVALID_ID) extends Pipe with NodeIndexSeeker {
 
   private val offset = slots.getLongOffsetFor(ident)
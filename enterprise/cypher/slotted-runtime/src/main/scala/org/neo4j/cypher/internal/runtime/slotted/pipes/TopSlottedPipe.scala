@@ -39,7 +39,9 @@ import java.util.Comparator
 import org.neo4j.cypher.internal.compatibility.v3_4.runtime.slotted.DefaultComparatorTopTable
 import org.neo4j.cypher.internal.runtime.interpreted.ExecutionContext
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expression
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.{ExternalSort, ValueSerializer}
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.{Pipe, PipeWithSource, QueryState}
+import org.neo4j.cypher.internal.runtime.slotted.SlottedRowSerializer
 import org.neo4j.cypher.internal.util.v3_4.attribution.Id
 import org.neo4j.values.storable.NumberValue
 
@@ -70,17 +72,19 @@ case class TopNSlottedPipe(source: Pipe, orderBy: Seq[ColumnOrder], countExpress
     else {
       val first = input.next()
       val count = countExpression(first, state).asInstanceOf[NumberValue].longValue().toInt
-      val topTable = new DefaultComparatorTopTable(comparator, count)
-      topTable.add(first)
+      val serializer = new SlottedRowSerializer(new ValueSerializer(state))
+      ExternalSort.top(Iterator.single(first) ++ input, count, comparator, serializer, state) { rows =>
+        val topTable = new DefaultComparatorTopTable(comparator, count)
 
-      input.foreach {
-        ctx =>
-          topTable.add(ctx)
-      }
+        rows.foreach {
+          ctx =>
+            topTable.add(ctx)
+        }
 
-      topTable.sort()
+        topTable.sort()
 
-      topTable.iterator.asScala
+        topTable.iterator.asScala
+      }
     }
   }
 }
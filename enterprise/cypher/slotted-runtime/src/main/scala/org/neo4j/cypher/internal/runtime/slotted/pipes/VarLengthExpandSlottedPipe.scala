@@ -37,6 +37,7 @@ package org.neo4j.cypher.internal.runtime.slotted.pipes
 import org.neo4j.cypher.internal.compatibility.v3_4.runtime.{Slot, SlotConfiguration}
 import org.neo4j.cypher.internal.runtime.interpreted.ExecutionContext
 import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Predicate
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.{HeapEstimator, OperatorMemoryBudget}
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.{LazyTypes, Pipe, PipeWithSource, QueryState}
 import org.neo4j.cypher.internal.runtime.slotted.SlottedExecutionContext
 import org.neo4j.cypher.internal.runtime.slotted.helpers.NullChecker.entityIsNull
@@ -85,13 +86,16 @@ case class VarLengthExpandSlottedPipe(source: Pipe,
 
   private def varLengthExpand(node: LNode,
                               state: QueryState,
-                              row: ExecutionContext): Iterator[(LNode, Seq[RelationshipValue])] = {
+                              row: ExecutionContext,
+                              budget: OperatorMemoryBudget): Iterator[(LNode, Seq[RelationshipValue])] = {
     val stack = new mutable.Stack[(LNode, Seq[RelationshipValue])]
     stack.push((node, Seq.empty))
+    budget.allocate(HeapEstimator.expansion(0))
 
     new Iterator[(LNode, Seq[RelationshipValue])] {
       override def next(): (LNode, Seq[RelationshipValue]) = {
         val (fromNode, rels) = stack.pop()
+        budget.release(HeapEstimator.expansion(rels.length))
         if (rels.length < maxDepth.getOrElse(Int.MaxValue)) {
           val relationships: RelationshipIterator = state.query.getRelationshipsForIdsPrimitive(fromNode, dir, types.types(state.query))
 
@@ -116,6 +120,7 @@ case class VarLengthExpandSlottedPipe(source: Pipe,
               if (edgePredicate.isTrue(row, state) && nodePredicate.isTrue(row, state)) {
                 // TODO: This call creates an intermediate NodeProxy which should not be necessary
                 stack.push((relationship.otherNodeId(fromNode), rels :+ relationship))
+                budget.allocate(HeapEstimator.expansion(rels.length + 1))
               }
             }
           }
@@ -138,6 +143,9 @@ case class VarLengthExpandSlottedPipe(source: Pipe,
   }
 
   protected def internalCreateResults(input: Iterator[ExecutionContext], state: QueryState): Iterator[ExecutionContext] = {
+    // the partial paths on the stack of the expansion are held until they are popped
+    val budget = OperatorMemoryBudget.withoutSpilling(state)
+
     input.flatMap {
       inputRow =>
         val fromNode = getFromNodeFunction(inputRow)
@@ -155,7 +163,7 @@ case class VarLengthExpandSlottedPipe(source: Pipe,
           inputRow.setLongAt(tempNodeOffset, fromNode)
           if (nodePredicate.isTrue(inputRow, state)) {
 
-            val paths: Iterator[(LNode, Seq[RelationshipValue])] = varLengthExpand(fromNode, state, inputRow)
+            val paths: Iterator[(LNode, Seq[RelationshipValue])] = varLengthExpand(fromNode, state, inputRow, budget)
             paths collect {
               case (toNode: LNode, rels: Seq[RelationshipValue])
                 if rels.length >= min && isToNodeValid(inputRow, toNode) =>
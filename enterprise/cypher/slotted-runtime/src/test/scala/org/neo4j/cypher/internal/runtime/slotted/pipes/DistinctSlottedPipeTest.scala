@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) as found
+ * in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ */
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.slotted.pipes
+
+import org.neo4j.cypher.internal.compatibility.v3_4.runtime.{RefSlot, SlotConfiguration}
+import org.neo4j.cypher.internal.runtime.QueryContext
+import org.neo4j.cypher.internal.runtime.interpreted.QueryStateHelper
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
+import org.neo4j.cypher.internal.runtime.slotted.expressions.ReferenceFromSlot
+import org.neo4j.cypher.internal.util.v3_4.symbols._
+import org.neo4j.cypher.internal.util.v3_4.test_helpers.CypherFunSuite
+import org.neo4j.values.storable.Values.{intValue, stringValue}
+
+import scala.util.Random
+
+class DistinctSlottedPipeTest extends CypherFunSuite {
+
+  private val slots = SlotConfiguration.empty
+    .newReference("x", nullable = true, CTAny)
+    .newReference("y", nullable = true, CTAny)
+
+  private val x = slots("x").asInstanceOf[RefSlot]
+  private val y = slots("y").asInstanceOf[RefSlot]
+
+  private def distinct(data: Seq[Map[String, Any]], state: QueryState): List[(Any, Any)] = {
+    val source = FakeSlottedPipe(data.toIterator, slots)
+    val pipe = DistinctSlottedPipe(source, slots, Map(x -> ReferenceFromSlot(x.offset), y -> ReferenceFromSlot(y.offset)))()
+    pipe.createResults(state).map(row => (row.getRefAt(x.offset), row.getRefAt(y.offset))).toList
+  }
+
+  private def input(rows: Int, distinctRows: Int): Seq[Map[String, Any]] =
+    Random.shuffle((0 until rows).map(i => Map[String, Any]("x" -> i % distinctRows, "y" -> s"row ${i % distinctRows}")))
+
+  private def expected(distinctRows: Int): Set[(Any, Any)] =
+    (0 until distinctRows).map(i => (intValue(i), stringValue(s"row $i"))).toSet
+
+  test("should return distinct rows") {
+    val result = distinct(input(100, 10), QueryStateHelper.empty)
+
+    result should have size 10
+    result.toSet should equal(expected(10))
+  }
+
+  test("should return distinct rows spilled to disk when over the operator memory budget") {
+    val state = QueryStateHelper.emptyWith(query = mock[QueryContext], operatorMemoryBudget = 1024)
+
+    // the unseen rows need more than one level of partitions before each partition fits in the budget
+    val result = distinct(input(3000, 1000), state)
+
+    result should have size 1000
+    result.toSet should equal(expected(1000))
+  }
+
+  test("should return distinct rows spilled to disk when every seen row is over the operator memory budget") {
+    val state = QueryStateHelper.emptyWith(query = mock[QueryContext], operatorMemoryBudget = 64)
+
+    // each level keeps a single row in memory and spills the rest
+    val result = distinct(input(400, 50), state)
+
+    result should have size 50
+    result.toSet should equal(expected(50))
+  }
+}
@@ -37,6 +37,7 @@ package org.neo4j.cypher.internal.runtime.slotted.pipes
 import org.mockito.ArgumentMatchers._
 import org.mockito.Mockito._
 import org.neo4j.cypher.internal.compatibility.v3_4.runtime.SlotConfiguration
+import org.neo4j.cypher.internal.runtime.QueryContext
 import org.neo4j.cypher.internal.runtime.slotted.pipes.HashJoinSlottedPipeTestHelper.{RowL, mockPipeFor, testableResult}
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.Pipe
 import org.neo4j.cypher.internal.runtime.interpreted.{ExecutionContext, QueryStateHelper}
@@ -151,6 +152,39 @@ class NodeHashJoinSlottedPipeTest extends CypherFunSuite {
     verifyNoMoreInteractions(right)
   }
 
+  test("should join rows spilled to disk when the lhs is over the operator memory budget") {
+    // given
+    val queryState = QueryStateHelper.emptyWith(query = mock[QueryContext], operatorMemoryBudget = 1024)
+
+    val leftSlots = SlotConfiguration.empty
+    leftSlots.newLong("a", nullable = false, CTNode)
+    leftSlots.newLong("b", nullable = false, CTNode)
+    val rightSlots = SlotConfiguration.empty
+    rightSlots.newLong("a", nullable = false, CTNode)
+    rightSlots.newLong("c", nullable = false, CTNode)
+    val hashSlots = SlotConfiguration.empty
+    hashSlots.newLong("a", nullable = false, CTNode)
+    hashSlots.newLong("b", nullable = false, CTNode)
+    hashSlots.newLong("c", nullable = false, CTNode)
+
+    val lhs = (0L until 1000L).map(i => (i % 300, i))
+    val rhs = (0L until 400L).map(i => (i % 400, 1000 + i))
+    val left = mockPipeFor(leftSlots, lhs.map { case (a, b) => RowL(a, b) }: _*)
+    val right = mockPipeFor(rightSlots, rhs.map { case (a, c) => RowL(a, c) }: _*)
+
+    // when
+    val result = NodeHashJoinSlottedPipe(Array(0), Array(0), left, right, hashSlots, Array((1, 2)), Array())().
+      createResults(queryState)
+
+    // then
+    val expected = for {(lhsA, b) <- lhs
+                        (rhsA, c) <- rhs if lhsA == rhsA}
+      yield Map("a" -> lhsA, "b" -> b, "c" -> c)
+    val list = testableResult(result, hashSlots)
+    list should have size expected.size
+    list.toSet should equal(expected.toSet)
+  }
+
   private val node0 = 0
   private val node1 = 1
   private val node2 = 2
@@ -36,9 +36,10 @@ package org.neo4j.cypher.internal.runtime.slotted.pipes
 
 import org.neo4j.cypher.InternalException
 import org.neo4j.cypher.internal.compatibility.v3_4.runtime.{LongSlot, RefSlot, SlotConfiguration}
+import org.neo4j.cypher.internal.runtime.QueryContext
 import org.neo4j.cypher.internal.runtime.interpreted.QueryStateHelper
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Literal
-import org.neo4j.cypher.internal.runtime.interpreted.pipes.Pipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.{Pipe, QueryState}
 import org.neo4j.cypher.internal.runtime.slotted.SlottedExecutionContext
 import org.neo4j.cypher.internal.runtime.slotted.pipes.TopSlottedPipeTestSupport._
 import org.neo4j.cypher.internal.util.v3_4.symbols._
@@ -200,6 +201,30 @@ class TopSlottedPipeTest extends CypherFunSuite {
     )
     result should equal(list((0, 5)))
   }
+
+  test("returning top 500 from 1000 possible should sort on disk when over the operator memory budget") {
+    val state = QueryStateHelper.emptyWith(query = mock[QueryContext], operatorMemoryBudget = 2 * 1024)
+    val result = singleColumnTopWithInput(
+      randomlyShuffledIntDataFromZeroUntil(1000), orderBy = AscendingOrder, limit = 500, state = state
+    )
+    result should equal(list(0 until 500: _*))
+  }
+
+  test("returning top 500 descending from 1000 possible should sort on disk when over the operator memory budget") {
+    val state = QueryStateHelper.emptyWith(query = mock[QueryContext], operatorMemoryBudget = 2 * 1024)
+    val result = singleColumnTopWithInput(
+      randomlyShuffledIntDataFromZeroUntil(1000), orderBy = DescendingOrder, limit = 500, state = state
+    )
+    result should equal(list(999 until 499 by -1: _*))
+  }
+
+  test("returning top 5 from 1000 possible should stay in memory when within the operator memory budget") {
+    val state = QueryStateHelper.emptyWith(query = mock[QueryContext], operatorMemoryBudget = 2 * 1024)
+    val result = singleColumnTopWithInput(
+      randomlyShuffledIntDataFromZeroUntil(1000), orderBy = AscendingOrder, limit = 5, state = state
+    )
+    result should equal(list(0, 1, 2, 3, 4))
+  }
 }
 
 object TopSlottedPipeTestSupport {
@@ -232,7 +257,8 @@ object TopSlottedPipeTestSupport {
     }
   }
 
-  def singleColumnTopWithInput(data: Traversable[Any], orderBy: TestColumnOrder, limit: Int, withTies: Boolean = false) = {
+  def singleColumnTopWithInput(data: Traversable[Any], orderBy: TestColumnOrder, limit: Int, withTies: Boolean = false,
+                               state: QueryState = QueryStateHelper.empty) = {
     val slots = SlotConfiguration.empty
       .newReference("a", nullable = true, CTAny)
 
@@ -247,7 +273,7 @@ object TopSlottedPipeTestSupport {
 
     val topPipe = createTopPipe(source, topOrderBy, limit, withTies)
 
-    val results = topPipe.createResults(QueryStateHelper.empty)
+    val results = topPipe.createResults(state)
     results.map {
       case c: SlottedExecutionContext =>
         slot match {
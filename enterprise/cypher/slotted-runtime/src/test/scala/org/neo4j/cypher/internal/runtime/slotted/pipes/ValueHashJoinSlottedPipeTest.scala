@@ -37,6 +37,7 @@ package org.neo4j.cypher.internal.runtime.slotted.pipes
 import org.mockito.ArgumentMatchers._
 import org.mockito.Mockito._
 import org.neo4j.cypher.internal.compatibility.v3_4.runtime.SlotConfiguration
+import org.neo4j.cypher.internal.runtime.QueryContext
 import org.neo4j.cypher.internal.runtime.interpreted.QueryStateHelper
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.Pipe
 import org.neo4j.cypher.internal.runtime.slotted.expressions.ReferenceFromSlot
@@ -190,4 +191,61 @@ class ValueHashJoinSlottedPipeTest extends CypherFunSuite {
       List(Map("arg1" -> 42L, "arg2" -> intValue(666), "a" -> intValue(2), "b" -> intValue(2))))
   }
 
+  test("should join rows spilled to disk when the lhs is over the operator memory budget") {
+    // given
+    val queryState = QueryStateHelper.emptyWith(query = mock[QueryContext], operatorMemoryBudget = 1024)
+    val slotInfoForInputs = SlotConfiguration.empty
+      .newReference("a", nullable = false, CTInteger)
+      .newReference("b", nullable = false, CTInteger)
+    val slotInfoForJoin = SlotConfiguration.empty
+      .newReference("a", nullable = false, CTInteger)
+      .newReference("b", nullable = false, CTInteger)
+      .newReference("c", nullable = false, CTInteger)
+      .newReference("d", nullable = false, CTInteger)
+
+    // the lhs needs more than one level of partitions before each partition fits in the budget
+    val lhs = (0 until 300).map(i => (i % 100, i))
+    val rhs = (0 until 200).map(i => (i % 150, -i))
+    val left = mockPipeFor(slotInfoForInputs, lhs.map { case (key, value) => RowR(intValue(key), intValue(value)) }: _*)
+    val right = mockPipeFor(slotInfoForInputs, rhs.map { case (key, value) => RowR(intValue(key), intValue(value)) }: _*)
+
+    val pipe = ValueHashJoinSlottedPipe(ReferenceFromSlot(0), ReferenceFromSlot(0), left, right, slotInfoForJoin, 0, 2, SlotConfiguration.Size.zero)()
+
+    // when
+    val result = testableResult(pipe.createResults(queryState), slotInfoForJoin)
+
+    // then
+    val expected = for {(lhsKey, a) <- lhs
+                        (rhsKey, b) <- rhs if lhsKey == rhsKey}
+      yield Map("a" -> intValue(lhsKey), "b" -> intValue(a), "c" -> intValue(rhsKey), "d" -> intValue(b))
+    result should have size expected.size
+    result.toSet should equal(expected.toSet)
+  }
+
+  test("should join rows with the same key in memory once partitioning cannot split them any further") {
+    // given
+    val queryState = QueryStateHelper.emptyWith(query = mock[QueryContext], operatorMemoryBudget = 1024)
+    val slotInfoForInputs = SlotConfiguration.empty
+      .newReference("a", nullable = false, CTInteger)
+      .newReference("b", nullable = false, CTInteger)
+    val slotInfoForJoin = SlotConfiguration.empty
+      .newReference("a", nullable = false, CTInteger)
+      .newReference("b", nullable = false, CTInteger)
+      .newReference("c", nullable = false, CTInteger)
+      .newReference("d", nullable = false, CTInteger)
+
+    // all rows end up in the same partition on every level, up to the last one
+    val left = mockPipeFor(slotInfoForInputs, (0 until 100).map(i => RowR(intValue(1), intValue(i))): _*)
+    val right = mockPipeFor(slotInfoForInputs, RowR(intValue(1), intValue(-1)), RowR(intValue(2), intValue(-2)))
+
+    val pipe = ValueHashJoinSlottedPipe(ReferenceFromSlot(0), ReferenceFromSlot(0), left, right, slotInfoForJoin, 0, 2, SlotConfiguration.Size.zero)()
+
+    // when
+    val result = testableResult(pipe.createResults(queryState), slotInfoForJoin)
+
+    // then
+    result.toSet should equal((0 until 100).map(i =>
+      Map("a" -> intValue(1), "b" -> intValue(i), "c" -> intValue(1), "d" -> intValue(-1))).toSet)
+    result should have size 100
+  }
 }
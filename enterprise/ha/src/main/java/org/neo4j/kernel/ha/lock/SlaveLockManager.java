@@ -38,6 +38,7 @@ import org.neo4j.kernel.AvailabilityGuard;
 import org.neo4j.kernel.configuration.Config;
 import org.neo4j.kernel.ha.com.RequestContextFactory;
 import org.neo4j.kernel.ha.com.master.Master;
+import org.neo4j.kernel.impl.locking.LockContention;
 import org.neo4j.kernel.impl.locking.Locks;
 import org.neo4j.logging.LogProvider;
 
@@ -72,6 +73,12 @@ public class SlaveLockManager implements Locks
         local.accept( visitor );
     }
 
+    @Override
+    public LockContention contention()
+    {
+        return local.contention();
+    }
+
     @Override
     public void close()
     {
@@ -88,6 +88,7 @@ import org.neo4j.kernel.impl.index.schema.fusion.FusionIndexProvider;
 import org.neo4j.kernel.impl.spi.KernelContext;
 import org.neo4j.kernel.impl.storemigration.StoreMigrationParticipant;
 import org.neo4j.kernel.lifecycle.Lifecycle;
+import org.neo4j.scheduler.JobScheduler;
 import org.neo4j.storageengine.api.schema.IndexSample;
 import org.neo4j.test.DoubleLatch;
 import org.neo4j.test.ha.ClusterRule;
@@ -561,6 +562,7 @@ public class SchemaIndexHaIT
         Config config();
         PageCache pageCache();
         RecoveryCleanupWorkCollector recoveryCleanupWorkCollector();
+        JobScheduler scheduler();
     }
 
     private static class ControllingIndexProviderFactory extends KernelExtensionFactory<IndexProviderDependencies>
@@ -586,9 +588,10 @@ public class SchemaIndexHaIT
             Config config = deps.config();
             OperationalMode operationalMode = context.databaseInfo().operationalMode;
             RecoveryCleanupWorkCollector recoveryCleanupWorkCollector = deps.recoveryCleanupWorkCollector();
+            JobScheduler scheduler = deps.scheduler();
 
             FusionIndexProvider fusionIndexProvider = NativeLuceneFusionIndexProviderFactory20
-                    .create( pageCache, storeDir, fs, monitor, config, operationalMode, recoveryCleanupWorkCollector );
+                    .create( pageCache, storeDir, fs, monitor, config, operationalMode, recoveryCleanupWorkCollector, scheduler );
 
             if ( injectLatchPredicate.test( deps.db() ) )
             {
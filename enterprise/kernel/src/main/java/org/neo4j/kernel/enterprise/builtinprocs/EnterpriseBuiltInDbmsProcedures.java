@@ -34,6 +34,7 @@
  */
 package org.neo4j.kernel.enterprise.builtinprocs;
 
+import java.io.IOException;
 import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -42,14 +43,18 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.Function;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.neo4j.function.UncaughtCheckedException;
 import org.neo4j.graphdb.DependencyResolver;
+import org.neo4j.graphdb.Result;
+import org.neo4j.graphdb.Transaction;
 import org.neo4j.graphdb.factory.GraphDatabaseSettings;
 import org.neo4j.graphdb.security.AuthorizationViolationException;
 import org.neo4j.helpers.collection.Pair;
+import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.internal.kernel.api.procs.ProcedureSignature;
 import org.neo4j.internal.kernel.api.procs.UserFunctionSignature;
 import org.neo4j.internal.kernel.api.security.SecurityContext;
@@ -89,6 +94,7 @@ import static org.neo4j.procedure.Mode.DBMS;
 public class EnterpriseBuiltInDbmsProcedures
 {
     private static final int HARD_CHAR_LIMIT = 2048;
+    private static final Pattern EXECUTION_MODE = Pattern.compile( "^\\s*(?i:explain|profile)\\b" );
 
     @Context
     public DependencyResolver resolver;
@@ -273,8 +279,12 @@ public class EnterpriseBuiltInDbmsProcedures
         {
             return name.startsWith( "dbms.security." ) && ADMIN_PROCEDURES.contains( procedureName ) ||
                     name.equals( "dbms.listConfig" ) ||
+                    name.equals( "dbms.pageCache.fileStats" ) ||
+                    name.equals( "dbms.locks.waitStats" ) ||
+                    name.equals( "dbms.locks.hotResources" ) ||
                     name.equals( "dbms.setConfigValue" ) ||
-                    name.equals( "dbms.clearQueryCaches" );
+                    name.equals( "dbms.clearQueryCaches" ) ||
+                    name.equals( "dbms.warmUpQueryCache" );
         }
     }
 
@@ -290,6 +300,58 @@ public class EnterpriseBuiltInDbmsProcedures
         config.updateDynamicSetting( setting, value, "dbms.setConfigValue" ); // throws if something goes wrong
     }
 
+    @Description( "Warms up the query cache by planning, without running them, the queries most frequently found in the " +
+            "query log. Meant to be called after the database has started." )
+    @Procedure( name = "dbms.warmUpQueryCache", mode = DBMS )
+    public Stream<QueryCacheWarmUpResult> warmUpQueryCache( @Name( value = "maxQueries", defaultValue = "1000" ) long maxQueries )
+            throws IOException, InterruptedException
+    {
+        securityContext.assertCredentialsNotExpired();
+        assertAdmin();
+
+        Config config = resolver.resolveDependency( Config.class );
+        List<String> queries = new LoggedQueries(
+                config.get( GraphDatabaseSettings.log_queries_parameter_logging_enabled ),
+                config.get( GraphDatabaseSettings.log_queries_runtime_logging_enabled ) )
+                .readAll( resolver.resolveDependency( FileSystemAbstraction.class ),
+                        config.get( GraphDatabaseSettings.log_queries_filename ) )
+                .mostFrequent( (int) Math.min( maxQueries, Integer.MAX_VALUE ) );
+
+        // planned in transactions of their own, which cannot be started on this thread bound to the procedure call
+        long[] planned = new long[1];
+        Thread planner = new Thread( () -> planned[0] = queries.stream().filter( this::plan ).count(), "query-cache-warm-up" );
+        planner.start();
+        planner.join();
+        return Stream.of( new QueryCacheWarmUpResult( planned[0], queries.size() - planned[0] ) );
+    }
+
+    private boolean plan( String query )
+    {
+        String explainQuery = "EXPLAIN " + EXECUTION_MODE.matcher( query ).replaceFirst( "" );
+        try ( Transaction tx = graph.beginTransaction( KernelTransaction.Type.explicit, securityContext );
+              Result result = graph.execute( explainQuery ) )
+        {
+            tx.success();
+            return true;
+        }
+        catch ( RuntimeException e )
+        {
+            return false;
+        }
+    }
+
+    public static class QueryCacheWarmUpResult
+    {
+        public final long queriesPlanned;
+        public final long queriesFailed;
+
+        QueryCacheWarmUpResult( long queriesPlanned, long queriesFailed )
+        {
+            this.queriesPlanned = queriesPlanned;
+            this.queriesFailed = queriesFailed;
+        }
+    }
+
     /*
     ==================================================================================
      */
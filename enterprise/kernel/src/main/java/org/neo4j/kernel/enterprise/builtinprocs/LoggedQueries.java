@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) as found
+ * in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ */
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.enterprise.builtinprocs;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.neo4j.io.fs.FileSystemAbstraction;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * The texts of the queries logged as successful in the query log and its archives. The texts are cut out of the
+ * log entries on a best effort basis, and can come out wrong for queries themselves containing the {@code " - "}
+ * separating the parts of an entry.
+ */
+class LoggedQueries
+{
+    private static final Pattern ENTRY_START =
+            Pattern.compile( "^\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2}\\.\\d{3}[+-]\\d{4} (\\w+) +(\\d+ ms: .*)$" );
+    private static final String[] SESSIONS = {"embedded-session", "bolt-session", "server-session"};
+    private static final String SEPARATOR = " - ";
+    private static final String SUCCESS = "INFO";
+
+    private final Map<String,Integer> counts = new HashMap<>();
+    private final boolean withParameters;
+    private final boolean withRuntime;
+
+    /**
+     * @param withParameters whether the entries end with the query parameters, as configured by
+     * {@code dbms.logs.query.parameter_logging_enabled}.
+     * @param withRuntime whether the entries end with the runtime, as configured by
+     * {@code dbms.logs.query.runtime_logging_enabled}.
+     */
+    LoggedQueries( boolean withParameters, boolean withRuntime )
+    {
+        this.withParameters = withParameters;
+        this.withRuntime = withRuntime;
+    }
+
+    /**
+     * Reads {@code queryLog}, and the archives of it kept by log rotation.
+     */
+    LoggedQueries readAll( FileSystemAbstraction fs, File queryLog ) throws IOException
+    {
+        File file = queryLog;
+        for ( int archive = 1; fs.fileExists( file ); archive++ )
+        {
+            try ( BufferedReader reader = new BufferedReader( fs.openAsReader( file, UTF_8 ) ) )
+            {
+                read( reader );
+            }
+            file = new File( queryLog.getPath() + "." + archive );
+        }
+        return this;
+    }
+
+    LoggedQueries read( BufferedReader reader ) throws IOException
+    {
+        StringBuilder entry = null;
+        for ( String line = reader.readLine(); line != null; line = reader.readLine() )
+        {
+            Matcher matcher = ENTRY_START.matcher( line );
+            if ( matcher.matches() )
+            {
+                add( entry );
+                // failures are followed by their stack traces, and not worth planning anyway
+                entry = SUCCESS.equals( matcher.group( 1 ) ) ? new StringBuilder( matcher.group( 2 ) ) : null;
+            }
+            else if ( entry != null )
+            {
+                entry.append( '\n' ).append( line );
+            }
+        }
+        add( entry );
+        return this;
+    }
+
+    /**
+     * @return at most {@code maxQueries} distinct query texts, the most frequently logged first.
+     */
+    List<String> mostFrequent( int maxQueries )
+    {
+        return counts.entrySet().stream()
+                .sorted( Map.Entry.<String,Integer>comparingByValue().reversed() )
+                .limit( maxQueries )
+                .map( Map.Entry::getKey )
+                .collect( toList() );
+    }
+
+    private void add( StringBuilder entry )
+    {
+        String queryText = entry == null ? null : queryText( entry.toString() );
+        if ( queryText != null )
+        {
+            counts.merge( queryText, 1, Integer::sum );
+        }
+    }
+
+    /**
+     * An entry reads {@code <time> ms: [<details>] <session> - <query> [- <parameters>] [- runtime=<runtime>] - <meta data>},
+     * where the details can contain the separator, but the session does not.
+     */
+    private String queryText( String entry )
+    {
+        int start = -1;
+        for ( String session : SESSIONS )
+        {
+            int sessionStart = entry.indexOf( session );
+            if ( sessionStart != -1 )
+            {
+                start = entry.indexOf( SEPARATOR, sessionStart );
+                break;
+            }
+        }
+        int end = entry.lastIndexOf( SEPARATOR + "{" );
+        if ( withRuntime && end > start )
+        {
+            end = entry.lastIndexOf( SEPARATOR + "runtime=", end - 1 );
+        }
+        if ( withParameters && end > start )
+        {
+            end = entry.lastIndexOf( SEPARATOR + "{", end - 1 );
+        }
+        if ( start == -1 || end <= start )
+        {
+            return null;
+        }
+        String queryText = entry.substring( start + SEPARATOR.length(), end ).trim();
+        return queryText.isEmpty() ? null : queryText;
+    }
+}
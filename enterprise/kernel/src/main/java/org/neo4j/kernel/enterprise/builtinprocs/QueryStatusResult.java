@@ -98,6 +98,10 @@ public class QueryStatusResult
     public final Long idleTimeMillis; // TODO: we want this field to be of a Duration type (when Cypher supports that)
     /** @since Neo4j 3.2, will be {@code null} if measuring allocation is not supported. */
     public final Long allocatedBytes;
+    /** Will be {@code null} if query memory is not tracked. */
+    public final Long estimatedHeapBytes;
+    /** Will be {@code null} if query memory is not tracked. */
+    public final Long peakEstimatedHeapBytes;
     /** @since Neo4j 3.2 */
     public final long pageHits;
     /** @since Neo4j 3.2 */
@@ -133,6 +137,8 @@ public class QueryStatusResult
         this.runtime = query.runtime();
         this.indexes = query.indexes();
         this.allocatedBytes = query.allocatedBytes();
+        this.estimatedHeapBytes = query.estimatedHeapBytes();
+        this.peakEstimatedHeapBytes = query.peakEstimatedHeapBytes();
         this.pageHits = query.pageHits();
         this.pageFaults = query.pageFaults();
     }
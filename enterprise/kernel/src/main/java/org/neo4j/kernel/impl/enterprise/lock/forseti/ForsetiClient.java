@@ -58,6 +58,7 @@ import org.neo4j.kernel.impl.locking.ActiveLock;
 import org.neo4j.kernel.impl.locking.LockAcquisitionTimeoutException;
 import org.neo4j.kernel.impl.locking.LockClientStateHolder;
 import org.neo4j.kernel.impl.locking.LockClientStoppedException;
+import org.neo4j.kernel.impl.locking.LockContentionProfiler;
 import org.neo4j.kernel.impl.locking.LockTracer;
 import org.neo4j.kernel.impl.locking.LockWaitEvent;
 import org.neo4j.kernel.impl.locking.Locks;
@@ -122,6 +123,9 @@ public class ForsetiClient implements Locks.Client
     private final long lockAcquisitionTimeoutMillis;
     private final Clock clock;
 
+    /** Where we report how long we had to wait for the locks we acquire. */
+    private final LockContentionProfiler contentionProfiler;
+
     /** List of other clients this client is waiting for. */
     private final SimpleBitSet waitList = new SimpleBitSet( 64 );
     private long waitListCheckPoint;
@@ -156,7 +160,7 @@ public class ForsetiClient implements Locks.Client
     public ForsetiClient( int id, ConcurrentMap<Long,ForsetiLockManager.Lock>[] lockMaps,
                           WaitStrategy<AcquireLockTimeoutException>[] waitStrategies, Pool<ForsetiClient> clientPool,
                           DeadlockResolutionStrategy deadlockResolutionStrategy, IntFunction<ForsetiClient> clientById,
-                          long lockAcquisitionTimeoutMillis, Clock clock )
+                          long lockAcquisitionTimeoutMillis, Clock clock, LockContentionProfiler contentionProfiler )
     {
         this.clientId = id;
         this.lockMaps = lockMaps;
@@ -168,6 +172,7 @@ public class ForsetiClient implements Locks.Client
         this.exclusiveLockCounts = new PrimitiveLongIntMap[lockMaps.length];
         this.lockAcquisitionTimeoutMillis = lockAcquisitionTimeoutMillis;
         this.clock = clock;
+        this.contentionProfiler = contentionProfiler;
 
         for ( int i = 0; i < sharedLockCounts.length; i++ )
         {
@@ -227,6 +232,7 @@ public class ForsetiClient implements Locks.Client
                 int tries = 0;
                 SharedLock mySharedLock = null;
                 long waitStartMillis = clock.millis();
+                long waitStartNanos = 0;
 
                 // Retry loop
                 while ( true )
@@ -280,10 +286,18 @@ public class ForsetiClient implements Locks.Client
                     {
                         waitEvent = tracer.waitForLock( false, resourceType, resourceId );
                     }
+                    if ( tries == 0 )
+                    {
+                        waitStartNanos = System.nanoTime();
+                    }
                     // And take note of who we are waiting for. This is used for deadlock detection.
                     waitFor( existingLock, resourceType, resourceId, tries++ );
                 }
 
+                if ( tries > 0 )
+                {
+                    contentionProfiler.lockWaited( resourceType, resourceId, false, System.nanoTime() - waitStartNanos );
+                }
                 // Make a local note about the fact that we now hold this lock
                 heldShareLocks.put( resourceId, 1 );
             }
@@ -327,6 +341,7 @@ public class ForsetiClient implements Locks.Client
                 ForsetiLockManager.Lock existingLock;
                 int tries = 0;
                 long waitStartMillis = clock.millis();
+                long waitStartNanos = 0;
                 while ( (existingLock = lockMap.putIfAbsent( resourceId, myExclusiveLock )) != null )
                 {
                     assertValid( waitStartMillis, resourceType, resourceId );
@@ -350,9 +365,17 @@ public class ForsetiClient implements Locks.Client
                     {
                         waitEvent = tracer.waitForLock( true, resourceType, resourceId );
                     }
+                    if ( tries == 0 )
+                    {
+                        waitStartNanos = System.nanoTime();
+                    }
                     waitFor( existingLock, resourceType, resourceId, tries++ );
                 }
 
+                if ( tries > 0 )
+                {
+                    contentionProfiler.lockWaited( resourceType, resourceId, true, System.nanoTime() - waitStartNanos );
+                }
                 heldLocks.put( resourceId, 1 );
             }
         }
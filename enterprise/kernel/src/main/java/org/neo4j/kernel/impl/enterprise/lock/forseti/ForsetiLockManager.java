@@ -47,6 +47,8 @@ import org.neo4j.collection.pool.LinkedQueuePool;
 import org.neo4j.collection.pool.Pool;
 import org.neo4j.graphdb.factory.GraphDatabaseSettings;
 import org.neo4j.kernel.configuration.Config;
+import org.neo4j.kernel.impl.locking.LockContention;
+import org.neo4j.kernel.impl.locking.LockContentionProfiler;
 import org.neo4j.kernel.impl.locking.Locks;
 import org.neo4j.kernel.impl.util.collection.SimpleBitSet;
 import org.neo4j.storageengine.api.lock.AcquireLockTimeoutException;
@@ -209,6 +211,9 @@ public class ForsetiLockManager implements Locks
     /** Pool forseti clients. */
     private final Pool<ForsetiClient> clientPool;
 
+    /** Lock waits reported by our clients. */
+    private final LockContentionProfiler contentionProfiler;
+
     private volatile boolean closed;
 
     @SuppressWarnings( "unchecked" )
@@ -232,7 +237,8 @@ public class ForsetiLockManager implements Locks
         // TODO be good enough. In fact, we could add the required fields for such a stack
         // TODO to the ForsetiClient objects themselves, making the stack garbage-free in
         // TODO the (presumably) common case of client re-use.
-        clientPool = new ForsetiClientFlyweightPool( config, clock, lockMaps, waitStrategies );
+        contentionProfiler = new LockContentionProfiler( resourceTypes );
+        clientPool = new ForsetiClientFlyweightPool( config, clock, lockMaps, waitStrategies, contentionProfiler );
     }
 
     /**
@@ -271,6 +277,12 @@ public class ForsetiLockManager implements Locks
         }
     }
 
+    @Override
+    public LockContention contention()
+    {
+        return contentionProfiler;
+    }
+
     private int findMaxResourceId( ResourceType[] resourceTypes )
     {
         int max = 0;
@@ -300,15 +312,17 @@ public class ForsetiLockManager implements Locks
         private final ConcurrentMap<Long,ForsetiLockManager.Lock>[] lockMaps;
         private final WaitStrategy<AcquireLockTimeoutException>[] waitStrategies;
         private final DeadlockResolutionStrategy deadlockResolutionStrategy = DeadlockStrategies.DEFAULT;
+        private final LockContentionProfiler contentionProfiler;
 
         ForsetiClientFlyweightPool( Config config, Clock clock, ConcurrentMap<Long,Lock>[] lockMaps,
-                WaitStrategy<AcquireLockTimeoutException>[] waitStrategies )
+                WaitStrategy<AcquireLockTimeoutException>[] waitStrategies, LockContentionProfiler contentionProfiler )
         {
             super( 128, null );
             this.config = config;
             this.clock = clock;
             this.lockMaps = lockMaps;
             this.waitStrategies = waitStrategies;
+            this.contentionProfiler = contentionProfiler;
         }
 
         @Override
@@ -321,7 +335,7 @@ public class ForsetiLockManager implements Locks
             }
             long lockAcquisitionTimeoutMillis = config.get( GraphDatabaseSettings.lock_acquisition_timeout ).toMillis();
             ForsetiClient client = new ForsetiClient( id, lockMaps, waitStrategies, this,
-                    deadlockResolutionStrategy, clientsById::get, lockAcquisitionTimeoutMillis, clock );
+                    deadlockResolutionStrategy, clientsById::get, lockAcquisitionTimeoutMillis, clock, contentionProfiler );
             clientsById.put( id, client );
             return client;
         }
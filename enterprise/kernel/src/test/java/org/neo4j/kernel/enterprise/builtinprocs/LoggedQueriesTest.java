@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) as found
+ * in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ */
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.enterprise.builtinprocs;
+
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static java.util.Collections.singletonList;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+public class LoggedQueriesTest
+{
+    private static final String BOLT = "bolt-session\tbolt\tneo4j\tneo4j-java/1.5\t\tclient/127.0.0.1:5000\tserver/127.0.0.1:7687>\tneo4j";
+
+    @Test
+    public void shouldListMostFrequentQueriesFirst() throws IOException
+    {
+        List<String> queries = read( false, false,
+                entry( "INFO", "12 ms: " + BOLT + " - MATCH (n) RETURN n - {}" ),
+                entry( "INFO", "10 ms: " + BOLT + " - MATCH (n:Person) RETURN n - {}" ),
+                entry( "INFO", "11 ms: " + BOLT + " - MATCH (n:Person) RETURN n - {}" ),
+                entry( "INFO", "13 ms: " + BOLT + " - RETURN 1 - {}" ) )
+                .mostFrequent( 2 );
+
+        assertThat( queries.size(), equalTo( 2 ) );
+        assertThat( queries.get( 0 ), equalTo( "MATCH (n:Person) RETURN n" ) );
+    }
+
+    @Test
+    public void shouldReadQueriesSpanningLines() throws IOException
+    {
+        List<String> queries = read( false, false,
+                entry( "INFO", "12 ms: embedded-session\t - MATCH (n)\nRETURN n - {}" ),
+                entry( "INFO", "13 ms: embedded-session\t - RETURN 1 - {}" ) )
+                .mostFrequent( 10 );
+
+        assertThat( queries.size(), equalTo( 2 ) );
+        assertThat( queries.contains( "MATCH (n)\nRETURN n" ), equalTo( true ) );
+    }
+
+    @Test
+    public void shouldSkipFailedQueries() throws IOException
+    {
+        List<String> queries = read( false, false,
+                entry( "ERROR", "12 ms: embedded-session\t - RETURN foo - {}\n" +
+                        "org.neo4j.graphdb.QueryExecutionException: Variable `foo` not defined\n" +
+                        "\tat org.neo4j.kernel.impl.query.QueryExecutionKernelException.asUserException" ),
+                entry( "INFO", "13 ms: embedded-session\t - RETURN 1 - {}" ) )
+                .mostFrequent( 10 );
+
+        assertThat( queries, equalTo( singletonList( "RETURN 1" ) ) );
+    }
+
+    @Test
+    public void shouldCutQueryOutOfDetailedEntries() throws IOException
+    {
+        List<String> queries = read( true, true,
+                entry( "INFO", "12 ms: (planning: 2, waiting: 0) - 1024 B - " + BOLT +
+                        " - RETURN $x - 2 AS y - {x: 1} - runtime=slotted - {app: 'test'}" ) )
+                .mostFrequent( 10 );
+
+        assertThat( queries, equalTo( singletonList( "RETURN $x - 2 AS y" ) ) );
+    }
+
+    @Test
+    public void shouldIgnoreEntriesWithoutQuery() throws IOException
+    {
+        List<String> queries = read( true, false,
+                "not a log entry",
+                entry( "INFO", "12 ms: " + BOLT + " - {}" ) )
+                .mostFrequent( 10 );
+
+        assertThat( queries.isEmpty(), equalTo( true ) );
+    }
+
+    private static LoggedQueries read( boolean withParameters, boolean withRuntime, String... lines ) throws IOException
+    {
+        String log = String.join( "\n", lines );
+        return new LoggedQueries( withParameters, withRuntime ).read( new BufferedReader( new StringReader( log ) ) );
+    }
+
+    private static String entry( String level, String message )
+    {
+        return "2018-05-04 12:00:00.000+0000 " + level + "  " + message;
+    }
+}
@@ -84,4 +84,11 @@ public interface PageCache
     {
        return Double.NaN;
     }
+
+    @Description( "Statistics for each of the files that have been mapped into the page cache. " +
+                  "Fault latencies are upper bounds in microseconds." )
+    default PageCacheFileInfo[] getFileStatistics()
+    {
+        return new PageCacheFileInfo[0];
+    }
 }
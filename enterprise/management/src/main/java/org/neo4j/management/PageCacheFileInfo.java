@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) as found
+ * in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ */
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.management;
+
+import java.beans.ConstructorProperties;
+import java.io.Serializable;
+
+public final class PageCacheFileInfo implements Serializable
+{
+    private static final long serialVersionUID = 2861284365294724187L;
+
+    private String file;
+    private long pins;
+    private long hits;
+    private long faults;
+    private long evictions;
+    private long flushes;
+    private long bytesRead;
+    private long bytesWritten;
+    private long faultLatencyP50;
+    private long faultLatencyP99;
+
+    @ConstructorProperties( {"file", "pins", "hits", "faults", "evictions", "flushes", "bytesRead", "bytesWritten",
+            "faultLatencyP50", "faultLatencyP99"} )
+    public PageCacheFileInfo( String file, long pins, long hits, long faults, long evictions, long flushes,
+            long bytesRead, long bytesWritten, long faultLatencyP50, long faultLatencyP99 )
+    {
+        this.file = file;
+        this.pins = pins;
+        this.hits = hits;
+        this.faults = faults;
+        this.evictions = evictions;
+        this.flushes = flushes;
+        this.bytesRead = bytesRead;
+        this.bytesWritten = bytesWritten;
+        this.faultLatencyP50 = faultLatencyP50;
+        this.faultLatencyP99 = faultLatencyP99;
+    }
+
+    public String getFile()
+    {
+        return file;
+    }
+
+    public long getPins()
+    {
+        return pins;
+    }
+
+    public long getHits()
+    {
+        return hits;
+    }
+
+    public long getFaults()
+    {
+        return faults;
+    }
+
+    public long getEvictions()
+    {
+        return evictions;
+    }
+
+    public long getFlushes()
+    {
+        return flushes;
+    }
+
+    public long getBytesRead()
+    {
+        return bytesRead;
+    }
+
+    public long getBytesWritten()
+    {
+        return bytesWritten;
+    }
+
+    public long getFaultLatencyP50()
+    {
+        return faultLatencyP50;
+    }
+
+    public long getFaultLatencyP99()
+    {
+        return faultLatencyP99;
+    }
+}
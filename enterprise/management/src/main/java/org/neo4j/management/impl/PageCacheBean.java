@@ -34,13 +34,16 @@
  */
 package org.neo4j.management.impl;
 
+import java.util.Comparator;
 import javax.management.NotCompliantMBeanException;
 
 import org.neo4j.io.pagecache.monitoring.PageCacheCounters;
+import org.neo4j.io.pagecache.monitoring.PageFileCounters;
 import org.neo4j.jmx.impl.ManagementBeanProvider;
 import org.neo4j.jmx.impl.ManagementData;
 import org.neo4j.jmx.impl.Neo4jMBean;
 import org.neo4j.management.PageCache;
+import org.neo4j.management.PageCacheFileInfo;
 
 public final class PageCacheBean extends ManagementBeanProvider
 {
@@ -130,5 +133,17 @@ public final class PageCacheBean extends ManagementBeanProvider
         {
             return pageCacheCounters.usageRatio();
         }
+
+        @Override
+        public PageCacheFileInfo[] getFileStatistics()
+        {
+            return pageCacheCounters.fileCounters().stream()
+                    .sorted( Comparator.comparing( PageFileCounters::file ) )
+                    .map( counters -> new PageCacheFileInfo( counters.file().getPath(), counters.pins(), counters.hits(),
+                            counters.faults(), counters.evictions(), counters.flushes(), counters.bytesRead(),
+                            counters.bytesWritten(), counters.faultLatencyPercentile( 50 ),
+                            counters.faultLatencyPercentile( 99 ) ) )
+                    .toArray( PageCacheFileInfo[]::new );
+        }
     }
 }
@@ -87,6 +87,11 @@ public class MetricsSettings implements LoadableConfig
     public static final Setting<Boolean> neoPageCacheEnabled = buildSetting(
             "metrics.neo4j.pagecache.enabled", BOOLEAN ).inherits( neoEnabled ).build();
 
+    @Description( "Enable reporting metrics about how long transactions have spent waiting for locks, per resource " +
+                  "type, and for the most contended resource." )
+    public static final Setting<Boolean> neoLocksEnabled = buildSetting(
+            "metrics.neo4j.locks.enabled", BOOLEAN ).inherits( neoEnabled ).build();
+
     @Description( "Enable reporting metrics about approximately how many entities are in the database; nodes, " +
                   "relationships, properties, etc." )
     public static final Setting<Boolean> neoCountsEnabled = buildSetting(
@@ -110,6 +115,11 @@ public class MetricsSettings implements LoadableConfig
     public static final Setting<Boolean> neoLogRotationEnabled = buildSetting(
             "metrics.neo4j.logrotation.enabled", BOOLEAN ).inherits( neoEnabled ).build();
 
+    @Description( "Enable reporting metrics about asynchronously refreshed Lucene indexes; how often they are refreshed " +
+                  "and how long committed updates wait to become visible to index readers." )
+    public static final Setting<Boolean> neoIndexRefreshEnabled = buildSetting(
+            "metrics.neo4j.index_refresh.enabled", BOOLEAN ).inherits( neoEnabled ).build();
+
     @Description( "Enable reporting metrics about HA cluster info." )
     public static final Setting<Boolean> neoClusterEnabled = buildSetting(
             "metrics.neo4j.cluster.enabled", BOOLEAN ).inherits( neoEnabled ).build();
@@ -135,6 +145,10 @@ public class MetricsSettings implements LoadableConfig
     public static final Setting<Boolean> cypherPlanningEnabled =
             buildSetting( "metrics.cypher.replanning.enabled", BOOLEAN ).inherits( neoEnabled ).build();
 
+    @Description( "Enable reporting metrics about how the parallel morsel runtime schedules queries on its workers." )
+    public static final Setting<Boolean> cypherMorselEnabled =
+            buildSetting( "metrics.cypher.morsel.enabled", BOOLEAN ).inherits( neoEnabled ).build();
+
     @Description( "Enable reporting metrics about Bolt Protocol message processing." )
     public static final Setting<Boolean> boltMessagesEnabled = buildSetting( "metrics.bolt.messages.enabled", BOOLEAN ).inherits( neoEnabled ).build();
 
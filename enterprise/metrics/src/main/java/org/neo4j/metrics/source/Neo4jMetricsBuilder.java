@@ -45,6 +45,7 @@ import org.neo4j.kernel.ha.cluster.member.ClusterMembers;
 import org.neo4j.kernel.impl.api.LogRotationMonitor;
 import org.neo4j.kernel.impl.factory.Edition;
 import org.neo4j.kernel.impl.factory.OperationalMode;
+import org.neo4j.kernel.impl.locking.Locks;
 import org.neo4j.kernel.impl.logging.LogService;
 import org.neo4j.kernel.impl.spi.KernelContext;
 import org.neo4j.kernel.impl.store.stats.StoreEntityCounters;
@@ -64,7 +65,10 @@ import org.neo4j.metrics.source.db.BoltMetrics;
 import org.neo4j.metrics.source.db.CheckPointingMetrics;
 import org.neo4j.metrics.source.db.CypherMetrics;
 import org.neo4j.metrics.source.db.EntityCountMetrics;
+import org.neo4j.metrics.source.db.IndexRefreshMetrics;
+import org.neo4j.metrics.source.db.LockMetrics;
 import org.neo4j.metrics.source.db.LogRotationMetrics;
+import org.neo4j.metrics.source.db.MorselRuntimeMetrics;
 import org.neo4j.metrics.source.db.PageCacheMetrics;
 import org.neo4j.metrics.source.db.TransactionMetrics;
 import org.neo4j.metrics.source.jvm.GCMetrics;
@@ -91,6 +95,8 @@ public class Neo4jMetricsBuilder
 
         PageCacheCounters pageCacheCounters();
 
+        Locks locks();
+
         CheckPointerMonitor checkPointerMonitor();
 
         LogRotationMonitor logRotationMonitor();
@@ -128,7 +134,13 @@ public class Neo4jMetricsBuilder
 
         if ( config.get( MetricsSettings.neoPageCacheEnabled ) )
         {
-            life.add( new PageCacheMetrics( registry, dependencies.pageCacheCounters() ) );
+            life.add( new PageCacheMetrics( registry, dependencies.pageCacheCounters(), kernelContext.storeDir() ) );
+            result = true;
+        }
+
+        if ( config.get( MetricsSettings.neoLocksEnabled ) )
+        {
+            life.add( new LockMetrics( registry, dependencies.locks() ) );
             result = true;
         }
 
@@ -146,6 +158,12 @@ public class Neo4jMetricsBuilder
             result = true;
         }
 
+        if ( config.get( MetricsSettings.neoIndexRefreshEnabled ) )
+        {
+            life.add( new IndexRefreshMetrics( reporter, registry, dependencies.monitors() ) );
+            result = true;
+        }
+
         if ( config.get( MetricsSettings.neoCountsEnabled ) )
         {
             if ( kernelContext.databaseInfo().edition != Edition.community &&
@@ -177,6 +195,12 @@ public class Neo4jMetricsBuilder
             result = true;
         }
 
+        if ( config.get( MetricsSettings.cypherMorselEnabled ) )
+        {
+            life.add( new MorselRuntimeMetrics( registry, dependencies.monitors() ) );
+            result = true;
+        }
+
         if ( config.get( MetricsSettings.jvmGcEnabled ) )
         {
             life.add( new GCMetrics( registry ) );
@@ -37,7 +37,9 @@ package org.neo4j.metrics.source.db;
 import com.codahale.metrics.Gauge;
 import com.codahale.metrics.MetricRegistry;
 
+import org.neo4j.cypher.CompilationMetricsMonitor;
 import org.neo4j.cypher.PlanCacheMetricsMonitor;
+import org.neo4j.cypher.internal.ExecutionEngine;
 import org.neo4j.kernel.impl.annotations.Documented;
 import org.neo4j.kernel.lifecycle.LifecycleAdapter;
 import org.neo4j.kernel.monitoring.Monitors;
@@ -55,9 +57,25 @@ public class CypherMetrics extends LifecycleAdapter
     @Documented( "The total number of seconds waited between query replans" )
     public static final String REPLAN_WAIT_TIME = name( NAME_PREFIX, "replan_wait_time" );
 
+    @Documented( "The total number of times a query was found in the query cache" )
+    public static final String QUERY_CACHE_HITS = name( NAME_PREFIX, "query_cache_hits" );
+
+    @Documented( "The total number of times a query was not found in the query cache" )
+    public static final String QUERY_CACHE_MISSES = name( NAME_PREFIX, "query_cache_misses" );
+
+    @Documented( "The ratio of query cache lookups finding the query in the cache" )
+    public static final String QUERY_CACHE_HIT_RATIO = name( NAME_PREFIX, "query_cache_hit_ratio" );
+
+    @Documented( "The total number of times Cypher has compiled a query, including replans" )
+    public static final String COMPILATION_EVENTS = name( NAME_PREFIX, "compilation_events" );
+
+    @Documented( "The total number of milliseconds spent compiling queries" )
+    public static final String COMPILATION_TIME = name( NAME_PREFIX, "compilation_time" );
+
     private final MetricRegistry registry;
     private final Monitors monitors;
     private final PlanCacheMetricsMonitor cacheMonitor = new PlanCacheMetricsMonitor();
+    private final CompilationMetricsMonitor compilationMonitor = new CompilationMetricsMonitor();
 
     public CypherMetrics( MetricRegistry registry, Monitors monitors )
     {
@@ -68,9 +86,15 @@ public class CypherMetrics extends LifecycleAdapter
     @Override
     public void start()
     {
-        monitors.addMonitorListener( cacheMonitor );
+        monitors.addMonitorListener( cacheMonitor, ExecutionEngine.PLAN_CACHE_MONITOR_TAG() );
+        monitors.addMonitorListener( compilationMonitor );
         registry.register( REPLAN_EVENTS, (Gauge<Long>) cacheMonitor::numberOfReplans );
         registry.register( REPLAN_WAIT_TIME, (Gauge<Long>) cacheMonitor::replanWaitTime );
+        registry.register( QUERY_CACHE_HITS, (Gauge<Long>) cacheMonitor::numberOfHits );
+        registry.register( QUERY_CACHE_MISSES, (Gauge<Long>) cacheMonitor::numberOfMisses );
+        registry.register( QUERY_CACHE_HIT_RATIO, (Gauge<Double>) cacheMonitor::hitRatio );
+        registry.register( COMPILATION_EVENTS, (Gauge<Long>) compilationMonitor::numberOfCompilations );
+        registry.register( COMPILATION_TIME, (Gauge<Long>) compilationMonitor::compilationTimeMillis );
     }
 
     @Override
@@ -78,6 +102,12 @@ public class CypherMetrics extends LifecycleAdapter
     {
         registry.remove( REPLAN_EVENTS );
         registry.remove( REPLAN_WAIT_TIME );
+        registry.remove( QUERY_CACHE_HITS );
+        registry.remove( QUERY_CACHE_MISSES );
+        registry.remove( QUERY_CACHE_HIT_RATIO );
+        registry.remove( COMPILATION_EVENTS );
+        registry.remove( COMPILATION_TIME );
+        monitors.removeMonitorListener( compilationMonitor );
         monitors.removeMonitorListener( cacheMonitor );
     }
 }
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) as found
+ * in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ */
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.metrics.source.db;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.neo4j.kernel.api.index.IndexProvider;
+import org.neo4j.kernel.api.schema.index.SchemaIndexDescriptor;
+import org.neo4j.kernel.impl.annotations.Documented;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.kernel.monitoring.Monitors;
+import org.neo4j.metrics.output.EventReporter;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static java.util.Collections.emptySortedMap;
+
+@Documented( ".Database Index Refresh Metrics" )
+public class IndexRefreshMetrics extends LifecycleAdapter
+{
+    private static final String INDEX_REFRESH_PREFIX = "neo4j.index.refresh";
+
+    @Documented( "The total number of background and checkpoint refreshes of asynchronously refreshed indexes so far" )
+    public static final String INDEX_REFRESH_EVENTS = name( INDEX_REFRESH_PREFIX, "events" );
+    @Documented( "The total number of commits made visible to index readers by those refreshes so far" )
+    public static final String INDEX_REFRESH_COMMITS = name( INDEX_REFRESH_PREFIX, "commits" );
+    @Documented( "The time from the first commit coalesced into a refresh until the refresh made it visible" )
+    public static final String INDEX_REFRESH_VISIBILITY_DELAY = name( INDEX_REFRESH_PREFIX, "visibility_delay" );
+
+    private final MetricRegistry registry;
+    private final Monitors monitors;
+    private final LongAdder events = new LongAdder();
+    private final LongAdder commits = new LongAdder();
+    private final IndexProvider.Monitor listener;
+
+    public IndexRefreshMetrics( EventReporter reporter, MetricRegistry registry, Monitors monitors )
+    {
+        this.registry = registry;
+        this.monitors = monitors;
+        this.listener = new IndexProvider.Monitor.Adaptor()
+        {
+            @Override
+            public void indexRefreshed( SchemaIndexDescriptor descriptor, long coalescedCommits, long visibilityDelayMillis )
+            {
+                events.increment();
+                commits.add( coalescedCommits );
+                TreeMap<String,Gauge> gauges = new TreeMap<>();
+                gauges.put( INDEX_REFRESH_VISIBILITY_DELAY, () -> visibilityDelayMillis );
+                reporter.report( gauges, emptySortedMap(), emptySortedMap(), emptySortedMap(), emptySortedMap() );
+            }
+        };
+    }
+
+    @Override
+    public void start()
+    {
+        monitors.addMonitorListener( listener );
+
+        registry.register( INDEX_REFRESH_EVENTS, (Gauge<Long>) events::sum );
+        registry.register( INDEX_REFRESH_COMMITS, (Gauge<Long>) commits::sum );
+    }
+
+    @Override
+    public void stop()
+    {
+        monitors.removeMonitorListener( listener );
+
+        registry.remove( INDEX_REFRESH_EVENTS );
+        registry.remove( INDEX_REFRESH_COMMITS );
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) as found
+ * in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ */
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.metrics.source.db;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+import org.neo4j.kernel.impl.annotations.Documented;
+import org.neo4j.kernel.impl.locking.LockContention;
+import org.neo4j.kernel.impl.locking.LockContention.ResourceTypeWaits;
+import org.neo4j.kernel.impl.locking.Locks;
+import org.neo4j.kernel.impl.locking.ResourceTypes;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+@Documented( ".Database Lock Metrics" )
+public class LockMetrics extends LifecycleAdapter
+{
+    private static final String LOCKS_PREFIX = "neo4j.locks";
+
+    @Documented( "The total number of times a lock client had to wait for a lock. Every resource type also gets its " +
+                 "own waits, wait_time, wait_p50 and wait_p99 metrics, named neo4j.locks.<resource type>.<metric>" )
+    public static final String LOCK_WAITS = name( LOCKS_PREFIX, "waits" );
+    @Documented( "The total time in microseconds that lock clients have spent waiting for locks" )
+    public static final String LOCK_WAIT_TIME = name( LOCKS_PREFIX, "wait_time" );
+    @Documented( "The total time in microseconds that lock clients have spent waiting for the single most contended " +
+                 "resource" )
+    public static final String HOTTEST_RESOURCE_WAIT_TIME = name( LOCKS_PREFIX, "hottest_resource_wait_time" );
+
+    private final MetricRegistry registry;
+    private final Locks locks;
+
+    public LockMetrics( MetricRegistry registry, Locks locks )
+    {
+        this.registry = registry;
+        this.locks = locks;
+    }
+
+    @Override
+    public void start()
+    {
+        registry.register( LOCK_WAITS, (Gauge<Long>) () -> sum( ResourceTypeWaits::waits ) );
+        registry.register( LOCK_WAIT_TIME, (Gauge<Long>) () -> toMicros( sum( ResourceTypeWaits::totalWaitNanos ) ) );
+        registry.register( HOTTEST_RESOURCE_WAIT_TIME, (Gauge<Long>) () -> locks.contention().hottestResources( 1 )
+                .stream().mapToLong( resource -> toMicros( resource.totalWaitNanos() ) ).sum() );
+        for ( ResourceTypes type : ResourceTypes.values() )
+        {
+            String typeName = type.name().toLowerCase();
+            registry.register( name( LOCKS_PREFIX, typeName, "waits" ),
+                    (Gauge<Long>) () -> get( type, ResourceTypeWaits::waits ) );
+            registry.register( name( LOCKS_PREFIX, typeName, "wait_time" ),
+                    (Gauge<Long>) () -> toMicros( get( type, ResourceTypeWaits::totalWaitNanos ) ) );
+            registry.register( name( LOCKS_PREFIX, typeName, "wait_p50" ),
+                    (Gauge<Long>) () -> get( type, waits -> waits.waitPercentileMicros( 50 ) ) );
+            registry.register( name( LOCKS_PREFIX, typeName, "wait_p99" ),
+                    (Gauge<Long>) () -> get( type, waits -> waits.waitPercentileMicros( 99 ) ) );
+        }
+    }
+
+    @Override
+    public void stop()
+    {
+        registry.removeMatching( ( name, metric ) -> name.startsWith( LOCKS_PREFIX + "." ) );
+    }
+
+    private long sum( ToLongFunction<ResourceTypeWaits> metric )
+    {
+        return locks.contention().resourceTypes().stream().mapToLong( metric ).sum();
+    }
+
+    private long get( ResourceTypes type, ToLongFunction<ResourceTypeWaits> metric )
+    {
+        LockContention contention = locks.contention();
+        for ( ResourceTypeWaits waits : contention.resourceTypes() )
+        {
+            if ( waits.resourceType().typeId() == type.typeId() )
+            {
+                return metric.applyAsLong( waits );
+            }
+        }
+        return 0;
+    }
+
+    private static long toMicros( long nanos )
+    {
+        return TimeUnit.NANOSECONDS.toMicros( nanos );
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) as found
+ * in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ */
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.metrics.source.db;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.neo4j.cypher.internal.runtime.MorselDispatcherMonitor;
+import org.neo4j.kernel.impl.annotations.Documented;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.kernel.monitoring.Monitors;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+@Documented( ".Cypher Morsel Runtime Metrics" )
+public class MorselRuntimeMetrics extends LifecycleAdapter
+{
+    private static final String NAME_PREFIX = "neo4j.cypher.morsel";
+    private static final String PIPELINE_PREFIX = name( NAME_PREFIX, "pipeline" );
+
+    @Documented( "The number of morsel tasks waiting for a worker thread" )
+    public static final String QUEUED_TASKS = name( NAME_PREFIX, "queued_tasks" );
+
+    @Documented( "The number of queries currently executing in the parallel morsel runtime" )
+    public static final String RUNNING_QUERIES = name( NAME_PREFIX, "running_queries" );
+
+    @Documented( "The total number of milliseconds queries waited to be admitted by the parallel morsel runtime" )
+    public static final String ADMISSION_WAIT_TIME = name( NAME_PREFIX, "admission_wait_time" );
+
+    @Documented( "The total number of morsels produced by all pipelines" )
+    public static final String MORSELS = name( NAME_PREFIX, "morsels" );
+
+    @Documented( "The total number of rows produced by all pipelines" )
+    public static final String ROWS = name( NAME_PREFIX, "rows" );
+
+    private final MetricRegistry registry;
+    private final Monitors monitors;
+    private final DispatcherMonitor dispatcherMonitor = new DispatcherMonitor();
+
+    public MorselRuntimeMetrics( MetricRegistry registry, Monitors monitors )
+    {
+        this.registry = registry;
+        this.monitors = monitors;
+    }
+
+    @Override
+    public void start()
+    {
+        monitors.addMonitorListener( dispatcherMonitor );
+        registry.register( QUEUED_TASKS, (Gauge<Long>) () -> dispatcherMonitor.queued.sum() - dispatcherMonitor.started.sum() );
+        registry.register( RUNNING_QUERIES, (Gauge<Long>) () -> dispatcherMonitor.admitted.sum() - dispatcherMonitor.finished.sum() );
+        registry.register( ADMISSION_WAIT_TIME, (Gauge<Long>) () -> TimeUnit.NANOSECONDS.toMillis( dispatcherMonitor.admissionWait.sum() ) );
+        registry.register( MORSELS, (Gauge<Long>) dispatcherMonitor.morsels::sum );
+        registry.register( ROWS, (Gauge<Long>) dispatcherMonitor.rows::sum );
+    }
+
+    @Override
+    public void stop()
+    {
+        registry.remove( QUEUED_TASKS );
+        registry.remove( RUNNING_QUERIES );
+        registry.remove( ADMISSION_WAIT_TIME );
+        registry.remove( MORSELS );
+        registry.remove( ROWS );
+        monitors.removeMonitorListener( dispatcherMonitor );
+        dispatcherMonitor.pipelineMeters.clear();
+        registry.removeMatching( ( metricName, metric ) -> metricName.startsWith( PIPELINE_PREFIX ) );
+    }
+
+    /**
+     * Counts scheduling events of the morsel dispatcher. Throughput of each pipeline is reported through a pair of meters,
+     * named after the operators of the pipeline, that are looked up once when the pipeline is built.
+     */
+    private class DispatcherMonitor implements MorselDispatcherMonitor
+    {
+        private final ConcurrentMap<String,PipelineMeters> pipelineMeters = new ConcurrentHashMap<>();
+        private final LongAdder admitted = new LongAdder();
+        private final LongAdder finished = new LongAdder();
+        private final LongAdder admissionWait = new LongAdder();
+        private final LongAdder queued = new LongAdder();
+        private final LongAdder started = new LongAdder();
+        private final LongAdder morsels = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+
+        @Override
+        public void queryAdmitted( long waitedNanos )
+        {
+            admitted.increment();
+            admissionWait.add( waitedNanos );
+        }
+
+        @Override
+        public void queryFinished()
+        {
+            finished.increment();
+        }
+
+        @Override
+        public void taskQueued()
+        {
+            queued.increment();
+        }
+
+        @Override
+        public void taskStarted()
+        {
+            started.increment();
+        }
+
+        @Override
+        public void pipelineBuilt( String pipeline )
+        {
+            pipelineMeters.computeIfAbsent( pipeline, PipelineMeters::new );
+        }
+
+        @Override
+        public void morselProduced( String pipeline, int rowCount )
+        {
+            morsels.increment();
+            rows.add( rowCount );
+            PipelineMeters meters = pipelineMeters.get( pipeline );
+            if ( meters == null )
+            {
+                // the pipeline was built before we started listening
+                meters = pipelineMeters.computeIfAbsent( pipeline, PipelineMeters::new );
+            }
+            meters.morsels.mark();
+            meters.rows.mark( rowCount );
+        }
+    }
+
+    private class PipelineMeters
+    {
+        private final Meter morsels;
+        private final Meter rows;
+
+        PipelineMeters( String pipeline )
+        {
+            String pipelineName = name( PIPELINE_PREFIX, pipeline.replace( ',', '_' ) );
+            morsels = registry.meter( name( pipelineName, "morsels" ) );
+            rows = registry.meter( name( pipelineName, "rows" ) );
+        }
+    }
+}
@@ -37,7 +37,12 @@ package org.neo4j.metrics.source.db;
 import com.codahale.metrics.Gauge;
 import com.codahale.metrics.MetricRegistry;
 
+import java.io.File;
+import java.nio.file.Path;
+import java.util.StringJoiner;
+
 import org.neo4j.io.pagecache.monitoring.PageCacheCounters;
+import org.neo4j.io.pagecache.monitoring.PageFileCounters;
 import org.neo4j.kernel.impl.annotations.Documented;
 import org.neo4j.kernel.lifecycle.LifecycleAdapter;
 
@@ -66,14 +71,56 @@ public class PageCacheMetrics extends LifecycleAdapter
     public static final String PC_HIT_RATIO = name( PAGE_CACHE_PREFIX, "hit_ratio" );
     @Documented( "The ratio of number of used pages to total number of available pages" )
     public static final String PC_USAGE_RATIO = name( PAGE_CACHE_PREFIX, "usage_ratio" );
+    @Documented( "The number of files currently mapped by the page cache. Every mapped file also gets its own pins, " +
+                 "hits, page_faults, evictions, flushes, bytes_read, bytes_written, hit_ratio, fault_latency_p50 and " +
+                 "fault_latency_p99 metrics, named neo4j.page_cache.file.<file>.<metric>, where <file> is the path of " +
+                 "the file relative to the store directory, with the path separators replaced by dots" )
+    public static final String PC_FILES = name( PAGE_CACHE_PREFIX, "files" );
+
+    private static final String PC_FILE_PREFIX = name( PAGE_CACHE_PREFIX, "file" );
+    private static final String[] FILE_METRICS = {"pins", "hits", "page_faults", "evictions", "flushes", "bytes_read",
+            "bytes_written", "hit_ratio", "fault_latency_p50", "fault_latency_p99"};
 
     private final MetricRegistry registry;
     private final PageCacheCounters pageCacheCounters;
+    private final Path storeDir;
+    private final PageCacheCounters.FileCountersListener fileMetrics = new PageCacheCounters.FileCountersListener()
+    {
+        @Override
+        public void fileMapped( PageFileCounters counters )
+        {
+            String fileName = fileMetricName( counters.file() );
+            if ( registry.getNames().contains( fileMetric( fileName, "pins" ) ) )
+            {
+                // The same file, mapped through a different but equivalent path. Throwing would fail the mapping.
+                return;
+            }
+            registry.register( fileMetric( fileName, "pins" ), (Gauge<Long>) counters::pins );
+            registry.register( fileMetric( fileName, "hits" ), (Gauge<Long>) counters::hits );
+            registry.register( fileMetric( fileName, "page_faults" ), (Gauge<Long>) counters::faults );
+            registry.register( fileMetric( fileName, "evictions" ), (Gauge<Long>) counters::evictions );
+            registry.register( fileMetric( fileName, "flushes" ), (Gauge<Long>) counters::flushes );
+            registry.register( fileMetric( fileName, "bytes_read" ), (Gauge<Long>) counters::bytesRead );
+            registry.register( fileMetric( fileName, "bytes_written" ), (Gauge<Long>) counters::bytesWritten );
+            registry.register( fileMetric( fileName, "hit_ratio" ), (Gauge<Double>) counters::hitRatio );
+            registry.register( fileMetric( fileName, "fault_latency_p50" ),
+                    (Gauge<Long>) () -> counters.faultLatencyPercentile( 50 ) );
+            registry.register( fileMetric( fileName, "fault_latency_p99" ),
+                    (Gauge<Long>) () -> counters.faultLatencyPercentile( 99 ) );
+        }
+
+        @Override
+        public void fileUnmapped( PageFileCounters counters )
+        {
+            removeFileMetrics( fileMetricName( counters.file() ) );
+        }
+    };
 
-    public PageCacheMetrics( MetricRegistry registry, PageCacheCounters pageCacheCounters )
+    public PageCacheMetrics( MetricRegistry registry, PageCacheCounters pageCacheCounters, File storeDir )
     {
         this.registry = registry;
         this.pageCacheCounters = pageCacheCounters;
+        this.storeDir = storeDir.getAbsoluteFile().toPath();
     }
 
     @Override
@@ -88,6 +135,38 @@ public class PageCacheMetrics extends LifecycleAdapter
         registry.register( PC_EVICTION_EXCEPTIONS, (Gauge<Long>) pageCacheCounters::evictionExceptions );
         registry.register( PC_HIT_RATIO, (Gauge<Double>) pageCacheCounters::hitRatio );
         registry.register( PC_USAGE_RATIO, (Gauge<Double>) pageCacheCounters::usageRatio );
+        registry.register( PC_FILES, (Gauge<Integer>) () -> pageCacheCounters.fileCounters().size() );
+        pageCacheCounters.addFileCountersListener( fileMetrics );
+    }
+
+    private String fileMetricName( File file )
+    {
+        // Named after the path of the file rather than just its name, since different stores can use the same file
+        // names in different directories, e.g. for index files.
+        Path path = file.getAbsoluteFile().toPath();
+        if ( path.startsWith( storeDir ) )
+        {
+            path = storeDir.relativize( path );
+        }
+        StringJoiner fileName = new StringJoiner( "." );
+        path.forEach( element -> fileName.add( element.toString() ) );
+        return fileName.toString();
+    }
+
+    private void removeFileMetrics( String fileName )
+    {
+        for ( String metric : FILE_METRICS )
+        {
+            registry.remove( fileMetric( fileName, metric ) );
+        }
+    }
+
+    /**
+     * @return the name of the given per-file metric, for the file with the given name.
+     */
+    public static String fileMetric( String fileName, String metric )
+    {
+        return name( PC_FILE_PREFIX, fileName, metric );
     }
 
     @Override
@@ -102,5 +181,8 @@ public class PageCacheMetrics extends LifecycleAdapter
         registry.remove( PC_EVICTION_EXCEPTIONS );
         registry.remove( PC_HIT_RATIO );
         registry.remove( PC_USAGE_RATIO );
+        registry.remove( PC_FILES );
+        pageCacheCounters.removeFileCountersListener( fileMetrics );
+        pageCacheCounters.fileCounters().forEach( fileMetrics::fileUnmapped );
     }
 }
@@ -51,6 +51,8 @@ import org.neo4j.graphdb.ResourceIterator;
 import org.neo4j.graphdb.Transaction;
 import org.neo4j.kernel.configuration.Settings;
 import org.neo4j.kernel.impl.enterprise.configuration.OnlineBackupSettings;
+import org.neo4j.kernel.impl.store.StoreFile;
+import org.neo4j.kernel.impl.storemigration.StoreFileType;
 import org.neo4j.test.TestGraphDatabaseFactory;
 import org.neo4j.test.rule.TestDirectory;
 
@@ -64,6 +66,7 @@ import static org.neo4j.metrics.MetricsTestHelper.readDoubleValue;
 import static org.neo4j.metrics.MetricsTestHelper.readLongValue;
 import static org.neo4j.metrics.source.db.PageCacheMetrics.PC_EVICTIONS;
 import static org.neo4j.metrics.source.db.PageCacheMetrics.PC_EVICTION_EXCEPTIONS;
+import static org.neo4j.metrics.source.db.PageCacheMetrics.PC_FILES;
 import static org.neo4j.metrics.source.db.PageCacheMetrics.PC_FLUSHES;
 import static org.neo4j.metrics.source.db.PageCacheMetrics.PC_HITS;
 import static org.neo4j.metrics.source.db.PageCacheMetrics.PC_HIT_RATIO;
@@ -71,10 +74,13 @@ import static org.neo4j.metrics.source.db.PageCacheMetrics.PC_PAGE_FAULTS;
 import static org.neo4j.metrics.source.db.PageCacheMetrics.PC_PINS;
 import static org.neo4j.metrics.source.db.PageCacheMetrics.PC_UNPINS;
 import static org.neo4j.metrics.source.db.PageCacheMetrics.PC_USAGE_RATIO;
+import static org.neo4j.metrics.source.db.PageCacheMetrics.fileMetric;
 import static org.neo4j.test.assertion.Assert.assertEventually;
 
 public class PageCacheMetricsIT
 {
+    private static final String NODE_STORE_FILE = StoreFile.NODE_STORE.fileName( StoreFileType.STORE );
+
     @Rule
     public TestDirectory testDirectory = TestDirectory.testDirectory();
     private File metricsDirectory;
@@ -125,6 +131,11 @@ public class PageCacheMetricsIT
         assertMetrics( "Metrics report should include page cache flushes", PC_FLUSHES, greaterThanOrEqualTo( 0L ) );
         assertMetrics( "Metrics report should include page cache exceptions", PC_EVICTION_EXCEPTIONS, equalTo( 0L ) );
 
+        assertMetrics( "Metrics report should include the number of mapped files", PC_FILES, greaterThan( 0L ) );
+        assertMetrics( "Metrics report should include node store pins", fileMetric( NODE_STORE_FILE, "pins" ), greaterThan( 0L ) );
+        assertMetrics( "Metrics report should include node store page faults", fileMetric( NODE_STORE_FILE, "page_faults" ),
+                greaterThan( 0L ) );
+
         assertEventually(
                 "Metrics report should include page cache hit ratio",
                 () -> readDoubleValue( metricsCsv( metricsDirectory, PC_HIT_RATIO ) ),
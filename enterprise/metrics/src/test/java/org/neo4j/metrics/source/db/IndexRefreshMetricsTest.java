@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) as found
+ * in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ */
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.metrics.source.db;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.SortedMap;
+
+import org.neo4j.kernel.api.index.IndexProvider;
+import org.neo4j.kernel.api.schema.index.SchemaIndexDescriptorFactory;
+import org.neo4j.kernel.monitoring.Monitors;
+import org.neo4j.metrics.output.EventReporter;
+
+import static org.hamcrest.Matchers.empty;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.neo4j.metrics.source.db.IndexRefreshMetrics.INDEX_REFRESH_COMMITS;
+import static org.neo4j.metrics.source.db.IndexRefreshMetrics.INDEX_REFRESH_EVENTS;
+import static org.neo4j.metrics.source.db.IndexRefreshMetrics.INDEX_REFRESH_VISIBILITY_DELAY;
+
+public class IndexRefreshMetricsTest
+{
+    private final MetricRegistry registry = new MetricRegistry();
+    private final Monitors monitors = new Monitors();
+    private final EventReporter reporter = mock( EventReporter.class );
+    private final IndexRefreshMetrics metrics = new IndexRefreshMetrics( reporter, registry, monitors );
+    private final IndexProvider.Monitor monitor = monitors.newMonitor( IndexProvider.Monitor.class, "lucene" );
+
+    @Test
+    @SuppressWarnings( "unchecked" )
+    public void countRefreshesAndReportVisibilityDelay()
+    {
+        metrics.start();
+
+        monitor.indexRefreshed( SchemaIndexDescriptorFactory.forLabel( 1, 2 ), 3, 40 );
+        monitor.indexRefreshed( SchemaIndexDescriptorFactory.forLabel( 1, 3 ), 5, 60 );
+
+        assertEquals( 2L, registry.getGauges().get( INDEX_REFRESH_EVENTS ).getValue() );
+        assertEquals( 8L, registry.getGauges().get( INDEX_REFRESH_COMMITS ).getValue() );
+        ArgumentCaptor<SortedMap<String,Gauge>> gauges = ArgumentCaptor.forClass( SortedMap.class );
+        verify( reporter, times( 2 ) ).report( gauges.capture(), any(), any(), any(), any() );
+        assertEquals( 60L, gauges.getValue().get( INDEX_REFRESH_VISIBILITY_DELAY ).getValue() );
+    }
+
+    @Test
+    public void removeMetricsWhenStopped()
+    {
+        metrics.start();
+
+        metrics.stop();
+
+        assertThat( registry.getNames(), empty() );
+    }
+}
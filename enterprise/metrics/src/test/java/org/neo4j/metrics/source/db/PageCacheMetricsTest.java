@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2018-2020 "Graph Foundation,"
+ * Graph Foundation, Inc. [https://graphfoundation.org]
+ *
+ * This file is part of ONgDB Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) as found
+ * in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ */
+/*
+ * Copyright (c) 2002-2018 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.metrics.source.db;
+
+import com.codahale.metrics.MetricRegistry;
+import org.junit.Test;
+
+import java.io.File;
+
+import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
+
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.neo4j.metrics.source.db.PageCacheMetrics.PC_FILES;
+import static org.neo4j.metrics.source.db.PageCacheMetrics.fileMetric;
+
+public class PageCacheMetricsTest
+{
+    private final File storeDir = new File( "graph.db" ).getAbsoluteFile();
+    private final MetricRegistry registry = new MetricRegistry();
+    private final DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+    private final PageCacheMetrics metrics = new PageCacheMetrics( registry, tracer, storeDir );
+
+    @Test
+    public void nameFileMetricsAfterPathWithinStoreDirectory()
+    {
+        tracer.mappedFile( new File( storeDir, "neostore.nodestore.db" ) );
+        metrics.start();
+        tracer.mappedFile( new File( new File( new File( storeDir, "schema" ), "index" ), "index-1" ) );
+
+        assertThat( registry.getNames(), hasItem( fileMetric( "neostore.nodestore.db", "pins" ) ) );
+        assertThat( registry.getNames(), hasItem( fileMetric( "schema.index.index-1", "pins" ) ) );
+        assertEquals( 2, registry.getGauges().get( PC_FILES ).getValue() );
+    }
+
+    @Test
+    public void removeFileMetricsWhenFileIsUnmapped()
+    {
+        File file = new File( storeDir, "neostore.nodestore.db" );
+        metrics.start();
+        tracer.mappedFile( file );
+
+        tracer.unmappedFile( file );
+
+        assertThat( registry.getNames(), not( hasItem( fileMetric( "neostore.nodestore.db", "pins" ) ) ) );
+        assertEquals( 0, registry.getGauges().get( PC_FILES ).getValue() );
+    }
+
+    @Test
+    public void removeAllMetricsWhenStopped()
+    {
+        tracer.mappedFile( new File( storeDir, "neostore.nodestore.db" ) );
+        metrics.start();
+
+        metrics.stop();
+        tracer.mappedFile( new File( storeDir, "neostore.relationshipstore.db" ) );
+
+        assertThat( registry.getNames(), empty() );
+    }
+}
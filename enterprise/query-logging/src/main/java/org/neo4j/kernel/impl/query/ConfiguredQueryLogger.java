@@ -54,6 +54,7 @@ class ConfiguredQueryLogger implements QueryLogger
     private final boolean logQueryParameters;
     private final boolean logDetailedTime;
     private final boolean logAllocatedBytes;
+    private final boolean logEstimatedHeap;
     private final boolean logPageDetails;
     private final boolean logRuntime;
 
@@ -72,6 +73,7 @@ class ConfiguredQueryLogger implements QueryLogger
         this.logQueryParameters = config.get( GraphDatabaseSettings.log_queries_parameter_logging_enabled );
         this.logDetailedTime = config.get( GraphDatabaseSettings.log_queries_detailed_time_logging_enabled );
         this.logAllocatedBytes = config.get( GraphDatabaseSettings.log_queries_allocation_logging_enabled );
+        this.logEstimatedHeap = config.get( GraphDatabaseSettings.log_queries_memory_logging_enabled );
         this.logPageDetails = config.get( GraphDatabaseSettings.log_queries_page_detail_logging_enabled );
         this.logRuntime = config.get( GraphDatabaseSettings.log_queries_runtime_logging_enabled );
     }
@@ -127,6 +129,10 @@ class ConfiguredQueryLogger implements QueryLogger
         {
             QueryLogFormatter.formatAllocatedBytes( result, query );
         }
+        if ( logEstimatedHeap )
+        {
+            QueryLogFormatter.formatEstimatedHeap( result, query );
+        }
         if ( logPageDetails )
         {
             QueryLogFormatter.formatPageDetails( result, query );
@@ -65,6 +65,15 @@ class QueryLogFormatter
         }
     }
 
+    static void formatEstimatedHeap( StringBuilder result, QuerySnapshot query )
+    {
+        Long bytes = query.peakEstimatedHeapBytes();
+        if ( bytes != null )
+        {
+            result.append( bytes ).append( " B estimated peak heap - " );
+        }
+    }
+
     static void formatDetailedTime( StringBuilder result, QuerySnapshot query )
     {
         result.append( "(planning: " ).append( query.planningTimeMillis() );
@@ -47,6 +47,7 @@ import org.neo4j.graphdb.factory.GraphDatabaseSettings;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorCounters;
 import org.neo4j.kernel.api.query.ExecutingQuery;
 import org.neo4j.kernel.api.query.PlannerInfo;
+import org.neo4j.kernel.api.query.QueryMemoryTracker;
 import org.neo4j.kernel.configuration.Config;
 import org.neo4j.kernel.impl.query.clientconnection.ClientConnectionInfo;
 import org.neo4j.kernel.impl.query.clientconnection.ShellConnectionInfo;
@@ -83,6 +84,7 @@ public class ConfiguredQueryLoggerTest
     public final FakeHeapAllocation heapAllocation = new FakeHeapAllocation();
     private long pageHits;
     private long pageFaults;
+    private QueryMemoryTracker memoryTracker = QueryMemoryTracker.NONE;
     private long thresholdInMillis = 10;
 
     @Test
@@ -466,6 +468,27 @@ public class ConfiguredQueryLoggerTest
                 containsString( "ms: 4096 B - " ) ) );
     }
 
+    @Test
+    public void shouldBeAbleToLogPeakEstimatedHeap()
+    {
+        // given
+        final AssertableLogProvider logProvider = new AssertableLogProvider();
+        ConfiguredQueryLogger queryLogger = queryLogger( logProvider,
+                Config.defaults( GraphDatabaseSettings.log_queries_memory_logging_enabled, "true" ) );
+        memoryTracker = new QueryMemoryPool( true, 0, 0 ).newTracker();
+        ExecutingQuery query = query( SESSION_1, "TestUser", QUERY_1 );
+
+        // when
+        clock.forward( 17, TimeUnit.MILLISECONDS );
+        memoryTracker.allocated( 2048 );
+        memoryTracker.deallocated( 1024 );
+        queryLogger.success( query );
+
+        // then
+        logProvider.assertExactly( inLog( getClass() ).info(
+                containsString( "ms: 2048 B estimated peak heap - " ) ) );
+    }
+
     @Test
     public void shouldBeAbleToLogPageHitsAndPageFaults()
     {
@@ -620,6 +643,7 @@ public class ConfiguredQueryLoggerTest
                 thread.getName(),
                 clock,
                 cpuClock,
-                heapAllocation );
+                heapAllocation,
+                memoryTracker );
     }
 }
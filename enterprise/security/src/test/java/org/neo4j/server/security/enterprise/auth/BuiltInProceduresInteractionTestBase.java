@@ -1062,6 +1062,23 @@ public abstract class BuiltInProceduresInteractionTestBase<S> extends ProcedureI
         // any answer is okay, as long as it isn't denied. That is why we don't care about the actual result here
     }
 
+    //---------- warming up query cache -----------
+
+    @Test
+    public void shouldNotWarmUpQueryCacheIfNotAdmin()
+    {
+        assertFail( noneSubject, "CALL dbms.warmUpQueryCache()", PERMISSION_DENIED );
+        assertFail( readSubject, "CALL dbms.warmUpQueryCache()", PERMISSION_DENIED );
+        assertFail( writeSubject, "CALL dbms.warmUpQueryCache()", PERMISSION_DENIED );
+        assertFail( schemaSubject, "CALL dbms.warmUpQueryCache()", PERMISSION_DENIED );
+    }
+
+    @Test
+    public void shouldWarmUpQueryCacheIfAdmin()
+    {
+        assertSuccess( adminSubject, "CALL dbms.warmUpQueryCache()", ResourceIterator::close );
+    }
+
     /*
     This surface is hidden in 3.1, to possibly be completely removed or reworked later
     ==================================================================================
@@ -257,6 +257,9 @@ public abstract class ConfiguredProceduresTestBase<S> extends ProcedureInteracti
                 "dbms.listActiveLocks", newSet( READER, EDITOR, PUBLISHER, ARCHITECT, ADMIN ),
                 "dbms.listConfig", newSet( ADMIN ),
                 "dbms.listQueries", newSet( READER, EDITOR, PUBLISHER, ARCHITECT, ADMIN ),
+                "dbms.pageCache.fileStats", newSet( ADMIN ),
+                "dbms.locks.waitStats", newSet( ADMIN ),
+                "dbms.locks.hotResources", newSet( ADMIN ),
                 "dbms.procedures", newSet( READER, EDITOR, PUBLISHER, ARCHITECT, ADMIN ),
                 "dbms.security.activateUser", newSet( ADMIN ),
                 "dbms.security.addRoleToUser", newSet( ADMIN ),